@@ -0,0 +1,189 @@
+package open.xtrace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.spec.research.open.xtrace.api.core.Trace;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceDeserializer;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFactory;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFormat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads OPEN.xtraces one by one from a stream. The stream can either hold a JSON array of traces
+ * or newline-separated traces. Only the trace that is currently deserialized is held in memory.
+ * <br>
+ * The traces are walked with a streaming JSON parser and handed over to the
+ * {@link OPENxtraceDeserializer} one after the other, so that the stream never needs to be
+ * buffered as a whole.
+ */
+public class OPENxtraceReader implements Iterator<Trace>, Closeable {
+
+	private final JsonParser parser;
+
+	private final OPENxtraceDeserializer deserializer;
+
+	private Trace next;
+
+	private boolean nextRead = false;
+
+	/**
+	 * Creates a new reader. The stream is closed when {@link #close()} is called.
+	 *
+	 * @param stream
+	 *            The stream holding the traces.
+	 */
+	public OPENxtraceReader(InputStream stream) {
+		JsonFactory factory = new JsonFactory();
+		factory.setRootValueSeparator(null);
+
+		try {
+			this.parser = factory.createParser(stream);
+			this.deserializer = OPENxtraceSerializationFactory.getInstance().getDeserializer(OPENxtraceSerializationFormat.JSON);
+			this.deserializer.setSource(new TraceInputStream(factory));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!nextRead) {
+			next = deserializer.readNext();
+			nextRead = true;
+		}
+
+		return next != null;
+	}
+
+	@Override
+	public Trace next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		nextRead = false;
+		Trace trace = next;
+		next = null;
+		return trace;
+	}
+
+	/**
+	 * Returns this reader as {@link Iterable}. As the traces are read from the stream, they can
+	 * only be iterated once. Hence, {@link Iterable#iterator()} can only be called once, too.
+	 * Further calls throw an {@link IllegalStateException} rather than returning an iterator
+	 * without traces.
+	 *
+	 * @return An {@link Iterable} returning this reader.
+	 */
+	public Iterable<Trace> asIterable() {
+		AtomicBoolean iterated = new AtomicBoolean(false);
+
+		return () -> {
+			if (iterated.getAndSet(true)) {
+				throw new IllegalStateException("The traces have already been iterated! They can only be iterated once.");
+			}
+
+			return this;
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+
+	/**
+	 * Provides the traces of the parser as newline-separated JSON objects. The next trace is
+	 * copied as soon as the previous one has been consumed.
+	 */
+	private class TraceInputStream extends InputStream {
+
+		private final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream();
+
+		private final JsonGenerator generator;
+
+		private int position = 0;
+
+		private boolean finished = false;
+
+		private TraceInputStream(JsonFactory factory) throws IOException {
+			this.generator = factory.createGenerator(buffer);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!ensureAvailable()) {
+				return -1;
+			}
+
+			return buffer.bytes()[position++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (!ensureAvailable()) {
+				return -1;
+			}
+
+			int numBytes = Math.min(len, buffer.size() - position);
+			System.arraycopy(buffer.bytes(), position, b, off, numBytes);
+			position += numBytes;
+
+			return numBytes;
+		}
+
+		@Override
+		public int available() {
+			return buffer.size() - position;
+		}
+
+		private boolean ensureAvailable() throws IOException {
+			while (!finished && (position >= buffer.size())) {
+				buffer.reset();
+				position = 0;
+
+				JsonToken token = parser.nextToken();
+
+				// Skip the opening bracket of a top-level array
+				if ((token == JsonToken.START_ARRAY) && parser.getParsingContext().getParent().inRoot()) {
+					token = parser.nextToken();
+				}
+
+				if ((token == null) || (token == JsonToken.END_ARRAY)) {
+					finished = true;
+				} else {
+					generator.copyCurrentStructure(parser);
+					generator.flush();
+					buffer.write('\n');
+				}
+			}
+
+			return position < buffer.size();
+		}
+
+	}
+
+	private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+		private byte[] bytes() {
+			return buf;
+		}
+
+	}
+
+}
@@ -1,20 +1,22 @@
 package open.xtrace;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
 
 import org.continuity.api.entities.links.LinkExchangeModel;
-import org.json.JSONArray;
 import org.spec.research.open.xtrace.api.core.Trace;
 import org.spec.research.open.xtrace.api.core.callables.Callable;
 import org.spec.research.open.xtrace.api.core.callables.NestingCallable;
 import org.spec.research.open.xtrace.dflt.impl.core.callables.HTTPRequestProcessingImpl;
 import org.spec.research.open.xtrace.dflt.impl.core.callables.RemoteInvocationImpl;
-import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceDeserializer;
-import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFactory;
-import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFormat;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
 
 public class OPENxtraceUtils {
@@ -25,22 +27,11 @@ public class OPENxtraceUtils {
 	 * @return an Iterable of Traces
 	 */
 	public static List<Trace> deserializeIntoTraceList(String openxtrace) {
-		JSONArray traceArray = new JSONArray(openxtrace);
-		StringBuilder traceBuilder = new StringBuilder();
-
-		for (int i = 0; i < traceArray.length(); i++) {
-			traceBuilder.append(traceArray.getJSONObject(i));
-			traceBuilder.append("\n");
-		}
-		OPENxtraceDeserializer deserializer = OPENxtraceSerializationFactory.getInstance().getDeserializer(OPENxtraceSerializationFormat.JSON);
-		deserializer.setSource(new ByteArrayInputStream(traceBuilder.toString().getBytes()));
-		Trace trace = deserializer.readNext();
-		List<Trace> traces = new ArrayList<Trace>();
-		while (null != trace) {
-			traces.add(trace);
-			trace = deserializer.readNext();
+		try (OPENxtraceReader reader = new OPENxtraceReader(new ByteArrayInputStream(openxtrace.getBytes(StandardCharsets.UTF_8)))) {
+			return toList(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-		return traces;
 	}
 
 	/**
@@ -96,9 +87,34 @@ public class OPENxtraceUtils {
 	 * @return list of traces
 	 */
 	public static Iterable<Trace> getOPENxtraces(LinkExchangeModel source, RestTemplate restTemplate) {
-		String openxtrace = restTemplate.getForObject(source.getMeasurementDataLinks().getLink(), String.class);
-		List<Trace> traces = OPENxtraceUtils.deserializeIntoTraceList(openxtrace);
-		return (traces);
+		return processOPENxtraces(source, restTemplate, traces -> toList(traces.iterator()));
+	}
+
+	/**
+	 * Fetches traces from server and passes them to the processor while they are deserialized.
+	 * Hence, the traces do not need to be held in memory at once. The passed traces can only be
+	 * iterated once and only until the processor returns.
+	 *
+	 * @param source
+	 *            The link to the traces.
+	 * @param restTemplate
+	 *            The rest template to be used.
+	 * @param processor
+	 *            Processes the traces.
+	 * @return The result of the processor.
+	 */
+	public static <T> T processOPENxtraces(LinkExchangeModel source, RestTemplate restTemplate, Function<Iterable<Trace>, T> processor) {
+		return restTemplate.execute(source.getMeasurementDataLinks().getLink(), HttpMethod.GET, null, response -> {
+			try (OPENxtraceReader reader = new OPENxtraceReader(response.getBody())) {
+				return processor.apply(reader.asIterable());
+			}
+		});
+	}
+
+	private static List<Trace> toList(Iterator<Trace> traces) {
+		List<Trace> list = new ArrayList<Trace>();
+		traces.forEachRemaining(list::add);
+		return list;
 	}
 
 	/**
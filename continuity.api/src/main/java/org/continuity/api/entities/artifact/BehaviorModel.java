@@ -2,7 +2,9 @@ package org.continuity.api.entities.artifact;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.continuity.api.entities.deserialization.BehaviorModelSerializer;
 
@@ -55,6 +57,8 @@ public class BehaviorModel {
 		@JsonInclude(Include.NON_NULL)
 		private List<MarkovState> markovStates;
 
+		private transient Map<String, Integer> markovStateIndices;
+
 		public Behavior() {
 		}
 		
@@ -95,15 +99,42 @@ public class BehaviorModel {
 
 		public void setMarkovStates(List<MarkovState> markovStates) {
 			this.markovStates = markovStates;
+			this.markovStateIndices = null;
 		}
 
+		/**
+		 * Gets the Markov state with the specified name. The position of each state is indexed.
+		 * The index is validated on each access and rebuilt if the states have been changed.
+		 *
+		 * @param rootMarkovStateName
+		 *            The name of the Markov state.
+		 * @return The Markov state or {@code null} if there is no such state.
+		 */
 		public MarkovState getMarkovState(String rootMarkovStateName) {
-			for (MarkovState markovState : markovStates) {
-				if (markovState.getId().equals(rootMarkovStateName)) {
-					return markovState;
+			MarkovState markovState = getIndexedMarkovState(rootMarkovStateName);
+
+			if (markovState == null) {
+				markovStateIndices = new HashMap<>(markovStates.size() * 2);
+
+				for (int i = 0; i < markovStates.size(); i++) {
+					markovStateIndices.putIfAbsent(markovStates.get(i).getId(), i);
 				}
+
+				markovState = getIndexedMarkovState(rootMarkovStateName);
 			}
-			return null;
+
+			return markovState;
+		}
+
+		private MarkovState getIndexedMarkovState(String markovStateName) {
+			Integer index = (markovStateIndices == null) ? null : markovStateIndices.get(markovStateName);
+
+			if ((index == null) || (index >= markovStates.size())) {
+				return null;
+			}
+
+			MarkovState markovState = markovStates.get(index);
+			return markovStateName.equals(markovState.getId()) ? markovState : null;
 		}
 		
 		@Override
@@ -0,0 +1,37 @@
+package org.continuity.api.entities.artifact;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * The modularized session logs created for a {@link SessionLogsBatchInput}, using the same keys.
+ */
+public class ModularizedSessionLogsBatch {
+
+	@JsonProperty("session-logs")
+	@JsonDeserialize(as = HashMap.class, contentAs = ModularizedSessionLogs.class)
+	private Map<String, ModularizedSessionLogs> sessionLogs;
+
+	public ModularizedSessionLogsBatch(Map<String, ModularizedSessionLogs> sessionLogs) {
+		this.sessionLogs = sessionLogs;
+	}
+
+	/**
+	 * Default constructor for deserialization
+	 */
+	public ModularizedSessionLogsBatch() {
+		this(new HashMap<>());
+	}
+
+	public Map<String, ModularizedSessionLogs> getSessionLogs() {
+		return sessionLogs;
+	}
+
+	public void setSessionLogs(Map<String, ModularizedSessionLogs> sessionLogs) {
+		this.sessionLogs = sessionLogs;
+	}
+
+}
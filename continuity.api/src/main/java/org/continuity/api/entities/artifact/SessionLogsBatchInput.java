@@ -0,0 +1,70 @@
+package org.continuity.api.entities.artifact;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Input for creating several session logs at once. Each entry of {@link #serializedTraces} is
+ * processed as a separate {@link SessionLogsInput} with the same {@link #services}.
+ */
+public class SessionLogsBatchInput {
+
+	/**
+	 * Map of the service application tags and the corresponding hostnames. The map defines, which
+	 * services are going to be tested.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	@JsonProperty("services")
+	@JsonDeserialize(as = HashMap.class)
+	private Map<String, String> services;
+
+	/**
+	 * The serialized traces per key, e.g., per Markov state. Session logs are generated for each
+	 * key separately.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	@JsonProperty("serializedTraces")
+	@JsonDeserialize(as = HashMap.class)
+	private Map<String, String> serializedTraces;
+
+	/**
+	 * Constructor
+	 *
+	 * @param services
+	 *            the targeted services
+	 * @param serializedTraces
+	 *            the serialized traces per key
+	 */
+	public SessionLogsBatchInput(Map<String, String> services, Map<String, String> serializedTraces) {
+		this.services = services;
+		this.serializedTraces = serializedTraces;
+	}
+
+	/**
+	 * Default constructor for deserialization
+	 */
+	public SessionLogsBatchInput() {
+	}
+
+	public Map<String, String> getServices() {
+		return services;
+	}
+
+	public void setServices(Map<String, String> services) {
+		this.services = services;
+	}
+
+	public Map<String, String> getSerializedTraces() {
+		return serializedTraces;
+	}
+
+	public void setSerializedTraces(Map<String, String> serializedTraces) {
+		this.serializedTraces = serializedTraces;
+	}
+
+}
@@ -0,0 +1,289 @@
+package org.continuity.api.entities.artifact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
+import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+
+/**
+ * Sparse representation of the transition matrix of a {@link Behavior} as used in the WESSBAS
+ * behavior model CSV files. Only the non-zero transitions are stored. The rows are the source
+ * states and the columns the target states. Both are accessed by index, which can be retrieved by
+ * name in constant time.
+ */
+public class SparseTransitionMatrix {
+
+	/**
+	 * Name of the exit state, which has no row.
+	 */
+	public static final String EXIT_STATE_NAME = "$";
+
+	private static final int INITIAL_ROW_CAPACITY = 4;
+
+	private final List<String> rowStates;
+
+	private final Map<String, Integer> rowIndices;
+
+	private final List<String> columnStates;
+
+	private final Map<String, Integer> columnIndices;
+
+	private final int[] rowSizes;
+
+	private final int[][] targets;
+
+	private final double[][] probabilities;
+
+	private final double[][] means;
+
+	private final double[][] deviations;
+
+	/**
+	 * Creates an empty matrix.
+	 *
+	 * @param rowStates
+	 *            The names of the source states in the order of the rows.
+	 * @param columnStates
+	 *            The names of the target states in the order of the columns.
+	 */
+	public SparseTransitionMatrix(List<String> rowStates, List<String> columnStates) {
+		this.rowStates = Collections.unmodifiableList(new ArrayList<>(rowStates));
+		this.rowIndices = indexMap(rowStates);
+		this.columnStates = Collections.unmodifiableList(new ArrayList<>(columnStates));
+		this.columnIndices = indexMap(columnStates);
+
+		int numRows = rowStates.size();
+		this.rowSizes = new int[numRows];
+		this.targets = new int[numRows][];
+		this.probabilities = new double[numRows][];
+		this.means = new double[numRows][];
+		this.deviations = new double[numRows][];
+	}
+
+	private static Map<String, Integer> indexMap(List<String> names) {
+		Map<String, Integer> indices = new HashMap<>(names.size() * 2);
+
+		for (int i = 0; i < names.size(); i++) {
+			indices.putIfAbsent(names.get(i), i);
+		}
+
+		return indices;
+	}
+
+	/**
+	 * Creates the transition matrix of a behavior. The rows are all states except for the exit
+	 * state and the columns are all states.
+	 *
+	 * @param behavior
+	 *            The behavior.
+	 * @return The transition matrix.
+	 * @throws IllegalArgumentException
+	 *             If a transition targets a state that does not exist.
+	 */
+	public static SparseTransitionMatrix fromBehavior(Behavior behavior) {
+		List<String> rowStates = new ArrayList<>();
+		List<String> columnStates = new ArrayList<>();
+
+		for (MarkovState state : behavior.getMarkovStates()) {
+			columnStates.add(state.getId());
+
+			if (!EXIT_STATE_NAME.equals(state.getId())) {
+				rowStates.add(state.getId());
+			}
+		}
+
+		SparseTransitionMatrix matrix = new SparseTransitionMatrix(rowStates, columnStates);
+		int row = 0;
+
+		for (MarkovState state : behavior.getMarkovStates()) {
+			if (EXIT_STATE_NAME.equals(state.getId())) {
+				continue;
+			}
+
+			if (state.getTransitions() != null) {
+				for (Transition transition : state.getTransitions()) {
+					int column = matrix.getColumnIndex(transition.getTargetState());
+
+					if (column < 0) {
+						throw new IllegalArgumentException("Transition from " + state.getId() + " targets the unknown state " + transition.getTargetState() + "!");
+					}
+
+					matrix.addTransition(row, column, valueOf(transition.getProbability()), valueOf(transition.getMean()), valueOf(transition.getDeviation()));
+				}
+			}
+
+			row++;
+		}
+
+		return matrix;
+	}
+
+	private static double valueOf(Double value) {
+		return value == null ? 0 : value;
+	}
+
+	/**
+	 * Transforms the matrix into a {@link Behavior}. The initial state is the first row and the
+	 * exit state is appended to the Markov states.
+	 *
+	 * @return The behavior.
+	 */
+	public Behavior toBehavior() {
+		List<MarkovState> markovStates = new ArrayList<>(rowStates.size() + 1);
+
+		for (int row = 0; row < rowStates.size(); row++) {
+			List<Transition> transitions = new ArrayList<>(rowSizes[row]);
+
+			for (int k = 0; k < rowSizes[row]; k++) {
+				transitions.add(new Transition(columnStates.get(targets[row][k]), probabilities[row][k], means[row][k], deviations[row][k]));
+			}
+
+			markovStates.add(new MarkovState(rowStates.get(row), transitions));
+		}
+
+		markovStates.add(new MarkovState(EXIT_STATE_NAME, Collections.emptyList()));
+
+		Behavior behavior = new Behavior();
+		behavior.setInitialState(markovStates.get(0).getId());
+		behavior.setMarkovStates(markovStates);
+		return behavior;
+	}
+
+	/**
+	 * Adds a transition. There must not be a transition between the same states yet.
+	 *
+	 * @param row
+	 *            The row index of the source state.
+	 * @param column
+	 *            The column index of the target state.
+	 * @param probability
+	 *            The transition probability.
+	 * @param mean
+	 *            The mean think time.
+	 * @param deviation
+	 *            The deviation of the think time.
+	 */
+	public void addTransition(int row, int column, double probability, double mean, double deviation) {
+		int size = rowSizes[row];
+
+		if (targets[row] == null) {
+			targets[row] = new int[INITIAL_ROW_CAPACITY];
+			probabilities[row] = new double[INITIAL_ROW_CAPACITY];
+			means[row] = new double[INITIAL_ROW_CAPACITY];
+			deviations[row] = new double[INITIAL_ROW_CAPACITY];
+		} else if (size == targets[row].length) {
+			int capacity = size * 2;
+			targets[row] = Arrays.copyOf(targets[row], capacity);
+			probabilities[row] = Arrays.copyOf(probabilities[row], capacity);
+			means[row] = Arrays.copyOf(means[row], capacity);
+			deviations[row] = Arrays.copyOf(deviations[row], capacity);
+		}
+
+		targets[row][size] = column;
+		probabilities[row][size] = probability;
+		means[row][size] = mean;
+		deviations[row][size] = deviation;
+		rowSizes[row]++;
+	}
+
+	/**
+	 * Returns the position of the transition within the row.
+	 *
+	 * @param row
+	 *            The row index of the source state.
+	 * @param column
+	 *            The column index of the target state.
+	 * @return The position to be passed to, e.g., {@link #getProbability(int, int)} or -1 if
+	 *         there is no such transition.
+	 */
+	public int findTransition(int row, int column) {
+		for (int k = 0; k < rowSizes[row]; k++) {
+			if (targets[row][k] == column) {
+				return k;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Gets the probability of the transition between the two states.
+	 *
+	 * @param from
+	 *            The name of the source state.
+	 * @param to
+	 *            The name of the target state.
+	 * @return The probability or 0 if there is no such transition.
+	 */
+	public double getProbability(String from, String to) {
+		int row = getRowIndex(from);
+		int column = getColumnIndex(to);
+
+		if ((row < 0) || (column < 0)) {
+			return 0;
+		}
+
+		int k = findTransition(row, column);
+		return k < 0 ? 0 : probabilities[row][k];
+	}
+
+	public int getRowIndex(String state) {
+		Integer index = rowIndices.get(state);
+		return index == null ? -1 : index;
+	}
+
+	public int getColumnIndex(String state) {
+		Integer index = columnIndices.get(state);
+		return index == null ? -1 : index;
+	}
+
+	public List<String> getRowStates() {
+		return rowStates;
+	}
+
+	public List<String> getColumnStates() {
+		return columnStates;
+	}
+
+	public int getNumRows() {
+		return rowStates.size();
+	}
+
+	public int getNumColumns() {
+		return columnStates.size();
+	}
+
+	/**
+	 * Gets the number of stored transitions of a row.
+	 *
+	 * @param row
+	 *            The row index.
+	 * @return The number of transitions.
+	 */
+	public int getNumTransitions(int row) {
+		return rowSizes[row];
+	}
+
+	public int getTarget(int row, int k) {
+		return targets[row][k];
+	}
+
+	public double getProbability(int row, int k) {
+		return probabilities[row][k];
+	}
+
+	public double getMean(int row, int k) {
+		return means[row][k];
+	}
+
+	public double getDeviation(int row, int k) {
+		return deviations[row][k];
+	}
+
+}
@@ -1,15 +1,13 @@
 package org.continuity.api.entities.deserialization;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
-import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
-import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+import org.continuity.api.entities.artifact.SparseTransitionMatrix;
 
 /**
  * Provides method for (de-) serialization of multidimensional arrays (csv) and {@link Behavior}
@@ -25,8 +23,17 @@ public class BehaviorModelSerializer {
 	 */
 	private static final String DEFAULT_ZERO_EDGE = "0.0; n(0 0)";
 
+	private static final String INITIAL_STATE_NAME = "INITIAL*";
+
+	private static final int FRACTION_DIGITS = 6;
+
+	private static final long FRACTION_SCALE = 1000000;
+
+	private static final double MAX_FAST_SCALED = 1e12;
+
 	/**
-	 * Deserializes the behaviorModel csv representation into a {@link Behavior}
+	 * Deserializes the behaviorModel csv representation into a {@link Behavior}. Zero edges are
+	 * omitted.
 	 * 
 	 * @param csvRepresentation
 	 *            the csv representation of a {@link Behavior}
@@ -36,120 +43,183 @@ public class BehaviorModelSerializer {
 		if (null == csvRepresentation) {
 			return null;
 		}
-		List<MarkovState> markovStates = new ArrayList<MarkovState>();
-		for (int i = 1; i < csvRepresentation.length; i++) {
-			MarkovState markovState = new MarkovState();
-			markovState.setId(csvRepresentation[i][0]);
 
-			List<Transition> transitions = new ArrayList<Transition>();
+		return deserializeTransitionMatrix(csvRepresentation).toBehavior();
+	}
 
-			for (int j = 1; j < csvRepresentation[i].length; j++) {
-				if (!csvRepresentation[i][j].equals(DEFAULT_ZERO_EDGE)) {
-					Transition transition = new Transition();
+	/**
+	 * Provides serialization of {@link Behavior} into a multidimensional array representation.
+	 * 
+	 * @param rootBehaviorModel
+	 *            the behavior model, which has to be serialized.
+	 * @return {@link String[][]}
+	 */
+	public static String[][] serializeBehaviorModel(Behavior rootBehaviorModel) {
+		return serializeTransitionMatrix(SparseTransitionMatrix.fromBehavior(rootBehaviorModel));
+	}
 
-					Pattern pattern = Pattern.compile("[0-9.]+");
-					Matcher matcher = pattern.matcher(csvRepresentation[i][j]);
-					matcher.find();
-					transition.setProbability(Double.parseDouble(matcher.group(0)));
+	/**
+	 * Deserializes the behaviorModel csv representation into a {@link SparseTransitionMatrix} in
+	 * a single pass. Zero edges are omitted.
+	 * 
+	 * @param csvRepresentation
+	 *            the csv representation of a {@link Behavior}
+	 * @return {@link SparseTransitionMatrix}
+	 */
+	public static SparseTransitionMatrix deserializeTransitionMatrix(String[][] csvRepresentation) {
+		List<String> rowStates = new ArrayList<>(csvRepresentation.length);
+		for (int i = 1; i < csvRepresentation.length; i++) {
+			rowStates.add(csvRepresentation[i][0]);
+		}
+
+		List<String> columnStates = new ArrayList<>(csvRepresentation[0].length);
+		for (int j = 1; j < csvRepresentation[0].length; j++) {
+			columnStates.add(csvRepresentation[0][j]);
+		}
 
-					matcher.find();
-					transition.setMean(Double.parseDouble(matcher.group(0)));
+		SparseTransitionMatrix matrix = new SparseTransitionMatrix(rowStates, columnStates);
+		double[] values = new double[3];
 
-					matcher.find();
-					transition.setDeviation(Double.parseDouble(matcher.group(0)));
+		for (int i = 1; i < csvRepresentation.length; i++) {
+			for (int j = 1; j < csvRepresentation[i].length; j++) {
+				String cell = csvRepresentation[i][j];
+
+				if (cell.equals(DEFAULT_ZERO_EDGE)) {
+					continue;
+				}
 
-					transition.setTargetState(csvRepresentation[0][j]);
+				if (!parseTransition(cell, values)) {
+					throw new IllegalArgumentException("Cannot parse the transition from " + csvRepresentation[i][0] + " to " + csvRepresentation[0][j] + ": " + cell);
+				}
 
-					transitions.add(transition);
+				if ((values[0] != 0) || (values[1] != 0) || (values[2] != 0)) {
+					matrix.addTransition(i - 1, j - 1, values[0], values[1], values[2]);
 				}
 			}
-			markovState.setTransitions(transitions);
-			markovStates.add(markovState);
 		}
 
-		// Add ExitState
-		MarkovState exitState = new MarkovState();
-		exitState.setId("$");
-		exitState.setTransitions(Collections.EMPTY_LIST);
-		markovStates.add(exitState);
-
-		Behavior behavior = new Behavior();
-		behavior.setInitialState(markovStates.get(0).getId());
-		behavior.setMarkovStates(markovStates);
-		return behavior;
+		return matrix;
 	}
 
 	/**
-	 * Provides serialization of {@link Behavior} into a multidimensional array representation.
+	 * Serializes a {@link SparseTransitionMatrix} into a multidimensional array representation.
+	 * The target state {@code INITIAL*} is written as {@code INITIAL}.
 	 * 
-	 * @param rootBehaviorModel
-	 *            the behavior model, which has to be serialized.
+	 * @param matrix
+	 *            the transition matrix
 	 * @return {@link String[][]}
 	 */
-	public static String[][] serializeBehaviorModel(Behavior rootBehaviorModel) {
-		String[][] csvRepresentation = new String[rootBehaviorModel.getMarkovStates().size()][rootBehaviorModel.getMarkovStates().size() + 1];
-		List<String> markovStateNames = rootBehaviorModel.getMarkovStates().stream().map(ms -> ms.getId()).collect(Collectors.toList());
-
-		// Remove ExitState
-		MarkovState exitState = new MarkovState();
-		for(MarkovState state : rootBehaviorModel.getMarkovStates()) {
-			if(state.getId().equals("$")) {
-				exitState = state;
-				break;
-			}
+	public static String[][] serializeTransitionMatrix(SparseTransitionMatrix matrix) {
+		String[][] csvRepresentation = new String[matrix.getNumRows() + 1][];
+		StringBuilder builder = new StringBuilder();
+
+		// Write target state names (y-axis)
+		String[] header = new String[matrix.getNumColumns() + 1];
+		header[0] = "";
+		for (int j = 0; j < matrix.getNumColumns(); j++) {
+			String name = matrix.getColumnStates().get(j);
+			header[j + 1] = INITIAL_STATE_NAME.equals(name) ? "INITIAL" : name;
 		}
-		rootBehaviorModel.getMarkovStates().remove(exitState);
+		csvRepresentation[0] = header;
 
-		for (int i = 0; i < rootBehaviorModel.getMarkovStates().size(); i++) {
+		for (int i = 0; i < matrix.getNumRows(); i++) {
+			String[] row = new String[matrix.getNumColumns() + 1];
+			Arrays.fill(row, DEFAULT_ZERO_EDGE);
 
 			// Write MarkovState name
-			csvRepresentation[i + 1][0] = rootBehaviorModel.getMarkovStates().get(i).getId();
+			row[0] = matrix.getRowStates().get(i);
 
 			// Write transitions
-			for (Transition transition : rootBehaviorModel.getMarkovStates().get(i).getTransitions()) {
-				csvRepresentation[i + 1][markovStateNames.indexOf(transition.getTargetState()) + 1] = getTransitionString(transition);
-			}
-		}
-		// Write target state names (y-axis)
-		for (int j = 0; j < markovStateNames.size(); j++) {
-			if(markovStateNames.get(j).equals("INITIAL*")) {
-				csvRepresentation[0][j + 1] = "INITIAL";
-				continue;
+			for (int k = 0; k < matrix.getNumTransitions(i); k++) {
+				builder.setLength(0);
+				appendTransition(builder, matrix.getProbability(i, k), matrix.getMean(i, k), matrix.getDeviation(i, k));
+				row[matrix.getTarget(i, k) + 1] = builder.toString();
 			}
-			csvRepresentation[0][j + 1] = markovStateNames.get(j);
-		}
 
-		fillEmptyFields(csvRepresentation);
+			csvRepresentation[i + 1] = row;
+		}
 
 		return csvRepresentation;
 	}
 
 	/**
-	 * Fills empty fields with predefined zero edge, except csvRepresentation[0][0]
+	 * Parses a transition of the form {@code 0.5; n(100.0 10.0)} or
+	 * {@code 0.5; norm(100.0 10.0)}.
 	 * 
-	 * @param csvRepresentation
-	 *            {@link String[][]}
+	 * @param cell
+	 *            The transition string.
+	 * @param values
+	 *            Array the probability, mean and deviation are written to.
+	 * @return {@code true} if the transition could be parsed.
 	 */
-	private static void fillEmptyFields(String[][] csvRepresentation) {
-		for (int i = 0; i < csvRepresentation.length; i++) {
-			for (int j = 0; j < csvRepresentation[i].length; j++) {
-				if (i == 0 && j == 0) {
-					csvRepresentation[i][j] = "";
-				} else if (csvRepresentation[i][j] == null) {
-					csvRepresentation[i][j] = DEFAULT_ZERO_EDGE;
-				}
-			}
+	private static boolean parseTransition(String cell, double[] values) {
+		int semicolon = cell.indexOf(';');
+		int open = cell.indexOf('(', semicolon + 1);
+		int close = cell.indexOf(')', open + 1);
+
+		if ((semicolon < 0) || (open < 0) || (close < 0)) {
+			return false;
+		}
+
+		String inner = cell.substring(open + 1, close).trim();
+		int space = inner.indexOf(' ');
+
+		if (space < 0) {
+			return false;
+		}
+
+		try {
+			values[0] = Double.parseDouble(cell.substring(0, semicolon).trim());
+			values[1] = Double.parseDouble(inner.substring(0, space).trim());
+			values[2] = Double.parseDouble(inner.substring(space + 1).trim());
+		} catch (NumberFormatException e) {
+			return false;
 		}
+
+		return true;
 	}
 
 	/**
-	 * Provides transition properties String
+	 * Appends the transition properties String. The numbers are formatted as with {@code %f},
+	 * but always with a dot as decimal separator.
 	 * 
-	 * @param transition
-	 * @return
+	 * @param builder
+	 * @param probability
+	 * @param mean
+	 * @param deviation
 	 */
-	private static String getTransitionString(Transition transition) {
-		return String.format("%f; n(%f %f)", transition.getProbability(), transition.getMean(), transition.getDeviation());
+	private static void appendTransition(StringBuilder builder, double probability, double mean, double deviation) {
+		appendFixed(builder, probability).append("; n(");
+		appendFixed(builder, mean).append(' ');
+		appendFixed(builder, deviation).append(')');
+	}
+
+	private static StringBuilder appendFixed(StringBuilder builder, double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return builder.append(value);
+		}
+
+		if ((value < 0) || ((value == 0) && ((1 / value) < 0))) {
+			builder.append('-');
+		}
+
+		double scaled = Math.abs(value) * FRACTION_SCALE;
+		double fraction = scaled - Math.floor(scaled);
+
+		// Values close to a rounding tie are rounded exactly based on their decimal representation
+		if ((scaled >= MAX_FAST_SCALED) || (Math.abs(fraction - 0.5) < 1e-3)) {
+			return builder.append(BigDecimal.valueOf(Math.abs(value)).setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).toPlainString());
+		}
+
+		long rounded = Math.round(scaled);
+		builder.append(rounded / FRACTION_SCALE).append('.');
+
+		String fractionDigits = Long.toString(rounded % FRACTION_SCALE);
+		for (int i = fractionDigits.length(); i < FRACTION_DIGITS; i++) {
+			builder.append('0');
+		}
+
+		return builder.append(fractionDigits);
 	}
 
 }
@@ -1,5 +1,6 @@
 package org.continuity.api.entities.report;
 
+import java.util.List;
 import java.util.Set;
 
 import org.continuity.api.entities.links.LinkExchangeModel;
@@ -9,7 +10,7 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
-@JsonPropertyOrder({ "order-id", "number", "max", "testing-context", "successful", "error", "created-artifacts", "internal-artifacts" })
+@JsonPropertyOrder({ "order-id", "number", "max", "testing-context", "successful", "error", "created-artifacts", "internal-artifacts", "steps" })
 public class OrderReport {
 
 	@JsonProperty("order-id")
@@ -34,6 +35,9 @@ public class OrderReport {
 	@JsonInclude(Include.NON_NULL)
 	private String error;
 
+	@JsonInclude(Include.NON_EMPTY)
+	private List<StepReport> steps;
+
 	public OrderReport() {
 	}
 
@@ -101,6 +105,17 @@ public class OrderReport {
 		this.error = error;
 	}
 
+	/**
+	 * Returns the reports of the executed and skipped steps of the recipe.
+	 */
+	public List<StepReport> getSteps() {
+		return steps;
+	}
+
+	public void setSteps(List<StepReport> steps) {
+		this.steps = steps;
+	}
+
 	/**
 	 * Returns the report number within the order (e.g., 1 of 5)
 	 *
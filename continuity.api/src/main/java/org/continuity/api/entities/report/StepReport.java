@@ -0,0 +1,135 @@
+package org.continuity.api.entities.report;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Reports the execution of one step of an order.
+ */
+@JsonPropertyOrder({ "name", "task-id", "state", "start-time", "end-time", "duration" })
+@JsonIgnoreProperties(value = "duration", allowGetters = true)
+public class StepReport {
+
+	private String name;
+
+	@JsonProperty("task-id")
+	@JsonInclude(Include.NON_NULL)
+	private String taskId;
+
+	private StepState state;
+
+	/**
+	 * Start time in milliseconds since the epoch.
+	 */
+	@JsonProperty("start-time")
+	@JsonInclude(Include.NON_NULL)
+	private Long startTime;
+
+	/**
+	 * End time in milliseconds since the epoch.
+	 */
+	@JsonProperty("end-time")
+	@JsonInclude(Include.NON_NULL)
+	private Long endTime;
+
+	public StepReport() {
+	}
+
+	public StepReport(String name, String taskId, StepState state, Long startTime, Long endTime) {
+		this.name = name;
+		this.taskId = taskId;
+		this.state = state;
+		this.startTime = startTime;
+		this.endTime = endTime;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(String taskId) {
+		this.taskId = taskId;
+	}
+
+	public StepState getState() {
+		return state;
+	}
+
+	public void setState(StepState state) {
+		this.state = state;
+	}
+
+	public Long getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(Long startTime) {
+		this.startTime = startTime;
+	}
+
+	public Long getEndTime() {
+		return endTime;
+	}
+
+	public void setEndTime(Long endTime) {
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Gets the duration of the step in milliseconds.
+	 *
+	 * @return The duration or {@code null}, if the step has not been finished.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	public Long getDuration() {
+		if ((startTime == null) || (endTime == null)) {
+			return null;
+		} else {
+			return endTime - startTime;
+		}
+	}
+
+	/**
+	 * The state of a step.
+	 */
+	public static enum StepState {
+
+		/**
+		 * The data to be created by the step was already present.
+		 */
+		SKIPPED,
+
+		/**
+		 * The step is waiting for required steps.
+		 */
+		PENDING,
+
+		/**
+		 * The step has been sent to the responsible service.
+		 */
+		RUNNING,
+
+		/**
+		 * The step finished successfully.
+		 */
+		FINISHED,
+
+		/**
+		 * The step failed.
+		 */
+		FAILED;
+
+	}
+
+}
@@ -438,6 +438,12 @@ public class RestApi {
 			/** {@value #ROOT}/{id} */
 			public static final RestEndpoint GET = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.GET, RequestMethod.GET);
 
+			/** {@value #ROOT}/{id}/percentiles */
+			public static final RestEndpoint GET_PERCENTILES = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.GET_PERCENTILES, RequestMethod.GET);
+
+			/** {@value #ROOT}/{id}/raw */
+			public static final RestEndpoint GET_RAW = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.GET_RAW, RequestMethod.GET);
+
 			/** {@value #ROOT}/{id} */
 			public static final RestEndpoint DELETE = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.DELETE, RequestMethod.DELETE);
 
@@ -448,6 +454,10 @@ public class RestApi {
 
 				public static final String GET = "/{id}";
 
+				public static final String GET_PERCENTILES = "/{id}/percentiles";
+
+				public static final String GET_RAW = "/{id}/raw";
+
 				public static final String DELETE = "/{id}";
 
 				private Paths() {
@@ -657,6 +667,9 @@ public class RestApi {
 		/** {@value #ROOT}/create */
 		public static final RestEndpoint CREATE = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.CREATE, RequestMethod.POST);
 
+		/** {@value #ROOT}/create/batch */
+		public static final RestEndpoint CREATE_BATCH = RestEndpoint.of(SERVICE_NAME, ROOT, Paths.CREATE_BATCH, RequestMethod.POST);
+
 		private SessionLogs() {
 		}
 
@@ -666,6 +679,8 @@ public class RestApi {
 			
 			public static final String CREATE = "/create";
 
+			public static final String CREATE_BATCH = "/create/batch";
+
 			private Paths() {
 			}
 		}
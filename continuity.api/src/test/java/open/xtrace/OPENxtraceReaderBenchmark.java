@@ -0,0 +1,41 @@
+package open.xtrace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a synthetic JSON array of several GB of traces through the {@link OPENxtraceReader} and
+ * reports the throughput and the maximum used heap. The number of traces can be set with
+ * {@code -Dbenchmark.traces}. Not run as part of the test suite.
+ */
+public class OPENxtraceReaderBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		long numTraces = Long.getLong("benchmark.traces", 5000000);
+		String trace = OPENxtraceReaderTest.serialize(OPENxtraceReaderTest.generateTrace(1, 1000));
+		long numBytes = numTraces * (trace.getBytes(StandardCharsets.UTF_8).length + 1);
+
+		System.out.println("Streaming " + numTraces + " traces (" + (numBytes >> 20) + " MB)...");
+
+		Runtime runtime = Runtime.getRuntime();
+		long maxUsed = 0;
+		long count = 0;
+		long start = System.currentTimeMillis();
+
+		try (OPENxtraceReader reader = new OPENxtraceReader(new OPENxtraceReaderTest.SyntheticTracesInputStream(trace, numTraces))) {
+			while (reader.hasNext()) {
+				reader.next();
+				count++;
+
+				if ((count % 100000) == 0) {
+					maxUsed = Math.max(maxUsed, runtime.totalMemory() - runtime.freeMemory());
+				}
+			}
+		}
+
+		long duration = System.currentTimeMillis() - start;
+
+		System.out.println(String.format("%d traces in %d ms (%.1f MB/s), max. used heap %d MB", count, duration, (numBytes / 1048576.0) / (duration / 1000.0), maxUsed >> 20));
+	}
+
+}
@@ -0,0 +1,264 @@
+package open.xtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spec.research.open.xtrace.api.core.Trace;
+import org.spec.research.open.xtrace.api.core.callables.HTTPMethod;
+import org.spec.research.open.xtrace.dflt.impl.core.LocationImpl;
+import org.spec.research.open.xtrace.dflt.impl.core.SubTraceImpl;
+import org.spec.research.open.xtrace.dflt.impl.core.TraceImpl;
+import org.spec.research.open.xtrace.dflt.impl.core.callables.HTTPRequestProcessingImpl;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceDeserializer;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFactory;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializationFormat;
+import org.spec.research.open.xtrace.dflt.impl.serialization.OPENxtraceSerializer;
+
+/**
+ * Tests {@link OPENxtraceReader}.
+ */
+public class OPENxtraceReaderTest {
+
+	private static final int NUM_SYNTHETIC_TRACES = 200000;
+
+	private static final int SAMPLING_INTERVAL = 1000;
+
+	private List<String> serializedTraces;
+
+	@Before
+	public void setup() {
+		serializedTraces = new ArrayList<>();
+
+		for (long i = 0; i < 3; i++) {
+			serializedTraces.add(serialize(generateTrace(i, 1000 * i)));
+		}
+	}
+
+	@Test
+	public void testJsonArray() throws IOException {
+		String json = serializedTraces.stream().collect(Collectors.joining(",", "[", "]"));
+
+		assertThat(timestampsOf(read(json))).containsExactly(0L, 1000L, 2000L);
+	}
+
+	@Test
+	public void testNewlineSeparated() throws IOException {
+		String json = serializedTraces.stream().collect(Collectors.joining("\n"));
+
+		assertThat(timestampsOf(read(json))).containsExactly(0L, 1000L, 2000L);
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		assertThat(read("[]")).isEmpty();
+		assertThat(read("")).isEmpty();
+	}
+
+	@Test
+	public void testEquivalentToDeserializer() throws IOException {
+		String json = serializedTraces.stream().collect(Collectors.joining("\n", "", "\n"));
+
+		OPENxtraceDeserializer deserializer = OPENxtraceSerializationFactory.getInstance().getDeserializer(OPENxtraceSerializationFormat.JSON);
+		deserializer.setSource(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		List<Trace> expected = new ArrayList<>();
+		Trace trace;
+		while ((trace = deserializer.readNext()) != null) {
+			expected.add(trace);
+		}
+
+		List<Trace> actual = OPENxtraceUtils.deserializeIntoTraceList(serializedTraces.stream().collect(Collectors.joining(",", "[", "]")));
+
+		assertThat(actual).hasSameSizeAs(expected);
+		assertThat(timestampsOf(actual)).isEqualTo(timestampsOf(expected));
+		assertThat(urisOf(actual)).isEqualTo(urisOf(expected));
+	}
+
+	/**
+	 * Streams a JSON array of {@link #NUM_SYNTHETIC_TRACES} traces through
+	 * {@link OPENxtraceReader#asIterable()} without materializing it. Every
+	 * {@link #SAMPLING_INTERVAL}th trace is tracked via a weak reference. Once consumed, none of
+	 * them must be reachable anymore, i.e., the reader holds at most the current trace and the
+	 * memory does not grow with the number of traces.
+	 */
+	@Test
+	public void testManyTracesAreNotRetained() throws IOException, InterruptedException {
+		List<WeakReference<Trace>> consumed = new ArrayList<>();
+		long numTraces = 0;
+
+		try (OPENxtraceReader reader = new OPENxtraceReader(new SyntheticTracesInputStream(serializedTraces.get(1), NUM_SYNTHETIC_TRACES))) {
+			for (Trace trace : reader.asIterable()) {
+				assertThat(trace.getRoot().getRoot().getTimestamp()).isEqualTo(1000L);
+				numTraces++;
+
+				// never sample the last trace, which might still be held by the local variable
+				if ((numTraces % SAMPLING_INTERVAL) == 1) {
+					consumed.add(new WeakReference<>(trace));
+				}
+			}
+
+			assertThat(countReachable(consumed)).as("Reachable consumed traces").isZero();
+		}
+
+		assertThat(numTraces).isEqualTo(NUM_SYNTHETIC_TRACES);
+		assertThat(consumed).hasSize(NUM_SYNTHETIC_TRACES / SAMPLING_INTERVAL);
+	}
+
+	private long countReachable(List<WeakReference<Trace>> references) throws InterruptedException {
+		long numReachable = references.size();
+
+		for (int i = 0; (i < 10) && (numReachable > 0); i++) {
+			System.gc();
+			Thread.sleep(50);
+			numReachable = references.stream().filter(ref -> ref.get() != null).count();
+		}
+
+		return numReachable;
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testIterableCanOnlyBeIteratedOnce() throws IOException {
+		String json = serializedTraces.stream().collect(Collectors.joining("\n"));
+
+		try (OPENxtraceReader reader = new OPENxtraceReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+			Iterable<Trace> traces = reader.asIterable();
+			List<Trace> list = new ArrayList<>();
+			traces.forEach(list::add);
+
+			assertThat(timestampsOf(list)).containsExactly(0L, 1000L, 2000L);
+
+			traces.iterator();
+		}
+	}
+
+	private List<Trace> read(String json) throws IOException {
+		try (OPENxtraceReader reader = new OPENxtraceReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+			List<Trace> traces = new ArrayList<>();
+			reader.forEachRemaining(traces::add);
+			return traces;
+		}
+	}
+
+	private List<Long> timestampsOf(List<Trace> traces) {
+		return traces.stream().map(Trace::getRoot).map(sub -> sub.getRoot().getTimestamp()).collect(Collectors.toList());
+	}
+
+	private List<String> urisOf(List<Trace> traces) {
+		return OPENxtraceUtils.extractHttpRequestCallables(traces).stream().map(HTTPRequestProcessingImpl::getUri).collect(Collectors.toList());
+	}
+
+	static String serialize(Trace trace) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OPENxtraceSerializer serializer = OPENxtraceSerializationFactory.getInstance().getSerializer(OPENxtraceSerializationFormat.JSON);
+		serializer.prepare(out);
+		serializer.writeTrace(trace);
+		serializer.close();
+
+		return new String(out.toByteArray(), StandardCharsets.UTF_8).trim();
+	}
+
+	static Trace generateTrace(long id, long timestamp) {
+		TraceImpl trace = new TraceImpl(id);
+		SubTraceImpl subTrace = new SubTraceImpl(id, null, trace);
+		subTrace.setLocation(new LocationImpl("front-end", 80, "linux", "sock-shop", "getCarts"));
+		trace.setRoot(subTrace);
+
+		HTTPRequestProcessingImpl request = new HTTPRequestProcessingImpl(null, subTrace);
+		subTrace.setRoot(request);
+		request.setTimestamp(timestamp);
+		request.setIdentifier(id);
+		request.setResponseTime(100000000L);
+		request.setUri("/carts/" + id);
+		request.setRequestMethod(HTTPMethod.GET);
+		request.setHTTPHeaders(new HashMap<>(Collections.singletonMap("cookie", "JSESSIONID=" + id)));
+
+		return trace;
+	}
+
+	/**
+	 * Generates a JSON array holding the specified trace the specified number of times on the fly.
+	 */
+	static class SyntheticTracesInputStream extends InputStream {
+
+		private final byte[] trace;
+
+		private final byte[] traceWithComma;
+
+		private final long numTraces;
+
+		private long nextTrace = 0;
+
+		private byte[] current = "[".getBytes(StandardCharsets.UTF_8);
+
+		private int position = 0;
+
+		SyntheticTracesInputStream(String trace, long numTraces) {
+			this.trace = trace.getBytes(StandardCharsets.UTF_8);
+			this.traceWithComma = ("," + trace).getBytes(StandardCharsets.UTF_8);
+			this.numTraces = numTraces;
+		}
+
+		@Override
+		public int read() {
+			if (!ensureAvailable()) {
+				return -1;
+			}
+
+			return current[position++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+
+			if (!ensureAvailable()) {
+				return -1;
+			}
+
+			int numBytes = Math.min(len, current.length - position);
+			System.arraycopy(current, position, b, off, numBytes);
+			position += numBytes;
+
+			return numBytes;
+		}
+
+		private boolean ensureAvailable() {
+			if (position < current.length) {
+				return true;
+			}
+
+			if (nextTrace > numTraces) {
+				return false;
+			}
+
+			if (nextTrace == numTraces) {
+				current = "]".getBytes(StandardCharsets.UTF_8);
+			} else if (nextTrace == 0) {
+				current = trace;
+			} else {
+				current = traceWithComma;
+			}
+
+			nextTrace++;
+			position = 0;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.continuity.api.entities.deserialization;
+
+import java.util.Random;
+
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+
+/**
+ * Measures the serialization and deserialization of behavior models with 1000 Markov states and
+ * up to 20 transitions per state. Not run as part of the test suite.
+ */
+public class BehaviorModelSerializerBenchmark {
+
+	private static final int NUM_STATES = 1000;
+
+	private static final int NUM_TRANSITIONS = 20;
+
+	private static final long DURATION_MILLIS = 5000;
+
+	public static void main(String[] args) {
+		Behavior behavior = BehaviorModelSerializerTest.generateBehavior(NUM_STATES, NUM_TRANSITIONS, new Random(42));
+		String[][] csv = BehaviorModelSerializer.serializeBehaviorModel(behavior);
+
+		long start = System.currentTimeMillis();
+		long count = 0;
+
+		while ((System.currentTimeMillis() - start) < DURATION_MILLIS) {
+			BehaviorModelSerializer.serializeBehaviorModel(behavior);
+			count++;
+		}
+
+		System.out.println(String.format("Serialization: %.1f ms per model", (System.currentTimeMillis() - start) / (double) count));
+
+		start = System.currentTimeMillis();
+		count = 0;
+
+		while ((System.currentTimeMillis() - start) < DURATION_MILLIS) {
+			BehaviorModelSerializer.deserializeBehaviorModel(csv);
+			count++;
+		}
+
+		System.out.println(String.format("Deserialization: %.1f ms per model", (System.currentTimeMillis() - start) / (double) count));
+
+		Behavior deserialized = BehaviorModelSerializer.deserializeBehaviorModel(csv);
+		start = System.currentTimeMillis();
+
+		for (int i = 0; i < 1000000; i++) {
+			deserialized.getMarkovState("state" + (i % (NUM_STATES - 2) + 1));
+		}
+
+		System.out.println(String.format("getMarkovState: %.3f us per lookup", (System.currentTimeMillis() - start) / 1000.0));
+	}
+
+}
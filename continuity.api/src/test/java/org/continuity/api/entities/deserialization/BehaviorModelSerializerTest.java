@@ -0,0 +1,187 @@
+package org.continuity.api.entities.deserialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
+import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+import org.continuity.api.entities.artifact.SparseTransitionMatrix;
+import org.junit.Test;
+
+/**
+ * Tests {@link BehaviorModelSerializer} and {@link SparseTransitionMatrix}.
+ */
+public class BehaviorModelSerializerTest {
+
+	@Test
+	public void testSerializationEqualsFormat() {
+		Behavior behavior = generateBehavior(50, 5, new Random(42));
+
+		String[][] csv = BehaviorModelSerializer.serializeBehaviorModel(behavior);
+
+		assertThat(csv).hasSize(behavior.getMarkovStates().size());
+		assertThat(csv[0][0]).isEmpty();
+		assertThat(csv[0][1]).isEqualTo("INITIAL");
+		assertThat(csv[0][csv[0].length - 1]).isEqualTo("$");
+
+		for (int i = 1; i < csv.length; i++) {
+			MarkovState state = behavior.getMarkovStates().get(i - 1);
+			assertThat(csv[i][0]).isEqualTo(state.getId());
+
+			for (Transition transition : state.getTransitions()) {
+				int column = behavior.getMarkovStates().indexOf(behavior.getMarkovState(transition.getTargetState())) + 1;
+				String expected = String.format(Locale.US, "%f; n(%f %f)", transition.getProbability(), transition.getMean(), transition.getDeviation());
+
+				assertThat(csv[i][column]).isEqualTo(expected);
+			}
+		}
+
+		assertThat(csv[1][1]).isEqualTo("0.0; n(0 0)");
+	}
+
+	@Test
+	public void testFormatting() {
+		Behavior behavior = new Behavior();
+		List<MarkovState> states = new ArrayList<>();
+		states.add(new MarkovState("INITIAL*", new ArrayList<>()));
+		states.add(new MarkovState("$", Collections.emptyList()));
+		behavior.setMarkovStates(states);
+
+		double[] values = { 0.5, 0.0000005, 0.0000015, 0.1234565, 1e-7, 123456789.123456789, 1e20, 2.675, 0.3333333333, 1.0 / 3, 2.0 / 3 };
+
+		for (double value : values) {
+			states.get(0).setTransitions(Collections.singletonList(new Transition("$", value, value * 10, -value)));
+			String[][] csv = BehaviorModelSerializer.serializeBehaviorModel(behavior);
+
+			assertThat(csv[1][2]).isEqualTo(String.format(Locale.US, "%f; n(%f %f)", value, value * 10, -value));
+		}
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Behavior behavior = generateBehavior(100, 10, new Random(4711));
+
+		Behavior deserialized = BehaviorModelSerializer.deserializeBehaviorModel(BehaviorModelSerializer.serializeBehaviorModel(behavior));
+
+		assertThat(deserialized.getInitialState()).isEqualTo("INITIAL*");
+		assertThat(deserialized.getMarkovStates()).extracting(MarkovState::getId).isEqualTo(behavior.getMarkovStates().stream().map(MarkovState::getId).collect(Collectors.toList()));
+
+		for (MarkovState state : behavior.getMarkovStates()) {
+			List<Transition> expected = new ArrayList<>(state.getTransitions());
+			expected.sort((a, b) -> Integer.compare(behavior.getMarkovStates().indexOf(behavior.getMarkovState(a.getTargetState())),
+					behavior.getMarkovStates().indexOf(behavior.getMarkovState(b.getTargetState()))));
+
+			List<Transition> actual = deserialized.getMarkovState(state.getId()).getTransitions();
+
+			assertThat(actual).hasSameSizeAs(expected);
+
+			for (int k = 0; k < expected.size(); k++) {
+				assertThat(actual.get(k).getTargetState()).isEqualTo(expected.get(k).getTargetState());
+				assertThat(actual.get(k).getProbability()).isCloseTo(expected.get(k).getProbability(), within(1e-6));
+				assertThat(actual.get(k).getMean()).isCloseTo(expected.get(k).getMean(), within(1e-6));
+				assertThat(actual.get(k).getDeviation()).isCloseTo(expected.get(k).getDeviation(), within(1e-6));
+			}
+		}
+	}
+
+	@Test
+	public void testWessbasFormat() {
+		String[][] csv = { { "", "INITIAL", "login", "$" }, //
+				{ "INITIAL*", "0.0; norm(0.00 0.00)", "1.0; norm(0.00 0.00)", "0.0; norm(0.00 0.00)" }, //
+				{ "login", "0.0; norm(0.00 0.00)", "0.25; norm(100.00 10.50)", "0.75; n(0 0)" } };
+
+		SparseTransitionMatrix matrix = BehaviorModelSerializer.deserializeTransitionMatrix(csv);
+
+		assertThat(matrix.getNumTransitions(0)).isEqualTo(1);
+		assertThat(matrix.getNumTransitions(1)).isEqualTo(2);
+		assertThat(matrix.getProbability("INITIAL*", "login")).isEqualTo(1.0);
+		assertThat(matrix.getProbability("login", "$")).isEqualTo(0.75);
+
+		int k = matrix.findTransition(matrix.getRowIndex("login"), matrix.getColumnIndex("login"));
+		assertThat(matrix.getMean(1, k)).isEqualTo(100.0);
+		assertThat(matrix.getDeviation(1, k)).isEqualTo(10.5);
+
+		String[][] serialized = BehaviorModelSerializer.serializeTransitionMatrix(matrix);
+
+		assertThat(serialized[0]).containsExactly("", "INITIAL", "login", "$");
+		assertThat(serialized[1]).containsExactly("INITIAL*", "0.0; n(0 0)", "1.000000; n(0.000000 0.000000)", "0.0; n(0 0)");
+		assertThat(serialized[2]).containsExactly("login", "0.0; n(0 0)", "0.250000; n(100.000000 10.500000)", "0.750000; n(0.000000 0.000000)");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedTransition() {
+		String[][] csv = { { "", "INITIAL", "$" }, { "INITIAL*", "0.0; n(0 0)", "1.0" } };
+		BehaviorModelSerializer.deserializeTransitionMatrix(csv);
+	}
+
+	@Test
+	public void testGetMarkovStateAfterChanges() {
+		Behavior behavior = generateBehavior(10, 2, new Random(1));
+
+		assertThat(behavior.getMarkovState("state5").getId()).isEqualTo("state5");
+
+		behavior.getMarkovState("state5").setId("renamed");
+		assertThat(behavior.getMarkovState("state5")).isNull();
+		assertThat(behavior.getMarkovState("renamed").getId()).isEqualTo("renamed");
+
+		behavior.getMarkovStates().remove(0);
+		assertThat(behavior.getMarkovState("renamed").getId()).isEqualTo("renamed");
+		assertThat(behavior.getMarkovState("INITIAL*")).isNull();
+
+		behavior.getMarkovStates().add(0, new MarkovState("state5", new ArrayList<>()));
+		assertThat(behavior.getMarkovState("state5")).isSameAs(behavior.getMarkovStates().get(0));
+		assertThat(behavior.getMarkovState("renamed").getId()).isEqualTo("renamed");
+	}
+
+	/**
+	 * Generates a behavior with the initial state, {@code numStates - 2} further states and the
+	 * exit state. Each state except for the exit state has up to {@code numTransitions}
+	 * transitions.
+	 */
+	static Behavior generateBehavior(int numStates, int numTransitions, Random random) {
+		List<String> names = new ArrayList<>();
+		names.add("INITIAL*");
+
+		for (int i = 1; i < (numStates - 1); i++) {
+			names.add("state" + i);
+		}
+
+		names.add("$");
+
+		List<MarkovState> states = new ArrayList<>();
+
+		for (String name : names) {
+			List<Transition> transitions = new ArrayList<>();
+
+			if (!"$".equals(name)) {
+				List<String> targets = new ArrayList<>(names.subList(1, names.size()));
+				Collections.shuffle(targets, random);
+
+				int n = 1 + random.nextInt(numTransitions);
+				double remaining = 1.0;
+
+				for (int k = 0; k < n; k++) {
+					double probability = (k == (n - 1)) ? remaining : remaining * random.nextDouble();
+					remaining -= probability;
+					transitions.add(new Transition(targets.get(k), probability, random.nextDouble() * 10000, random.nextDouble() * 1000));
+				}
+			}
+
+			states.add(new MarkovState(name, transitions));
+		}
+
+		Behavior behavior = new Behavior();
+		behavior.setInitialState("INITIAL*");
+		behavior.setMarkovStates(states);
+		return behavior;
+	}
+
+}
@@ -29,7 +29,7 @@ import org.continuity.idpa.annotation.validation.AnnotationValidityChecker;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.Endpoint;
 import org.continuity.idpa.application.HttpParameter;
-import org.continuity.idpa.application.changes.ApplicationChangeDetector;
+import org.continuity.idpa.application.changes.HashingApplicationChangeDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
@@ -139,7 +139,7 @@ public class IntersectionTransformator {
 	@SuppressWarnings("unchecked")
 	public Application getIntersectionIdpaApplicationModel(Application application, Application changedApplication) {
 
-		ApplicationChangeDetector checker = new ApplicationChangeDetector(application);
+		HashingApplicationChangeDetector checker = new HashingApplicationChangeDetector(application);
 		checker.compareTo(changedApplication);
 			
 		ApplicationChangeReport report = checker.getReport();
@@ -0,0 +1,317 @@
+package org.continuity.commons.idpa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.visitor.IdpaByClassSearcher;
+
+/**
+ * Precompiled variant of the {@link RequestUriMapper}. On first use, it builds a trie of the path
+ * segments of all {@link HttpEndpoint}s of the {@link Application} (separated by the request
+ * method), where each node holds literal children and one child for wildcards
+ * (<code>{some-name}</code>). Afterwards, a mapping only costs the number of path segments instead
+ * of the number of endpoints. <br>
+ *
+ * The mapping results are the same as the ones of the {@link RequestUriMapper}. That is, if
+ * several endpoints match, the first one in the application model is returned. <br>
+ *
+ * If the application model is changed, {@link #invalidate()} has to be called. The trie will then
+ * be rebuilt on the next mapping.
+ */
+public class CompiledRequestUriMapper {
+
+	private static final Pattern WILDCARD_PATTERN = Pattern.compile("\\{.*\\}");
+
+	private final Application application;
+
+	private volatile CompiledApplication compiled = null;
+
+	public CompiledRequestUriMapper(Application application) {
+		this.application = application;
+	}
+
+	/**
+	 * Maps the specified URI to an {@link HttpEndpoint} that has exactly the same URI. Wildcards
+	 * (<code>{some-name}</code>) are treated as any other element of the URI.
+	 *
+	 * @param uri
+	 *            The URI to be mapped.
+	 * @param method
+	 *            The request method.
+	 * @return An {@link HttpEndpoint} that has exactly the same URI or {@code null} if there is no
+	 *         such interface.
+	 * @see RequestUriMapper#mapExactly(String, String)
+	 */
+	public HttpEndpoint mapExactly(String uri, String method) {
+		return mapExactly(uri, method, null, null);
+	}
+
+	/**
+	 * Maps the specified URI to an {@link HttpEndpoint} that has the same URI, respecting
+	 * wildcards.
+	 *
+	 * @param uri
+	 *            The URI to be mapped.
+	 * @param method
+	 *            The request method.
+	 * @return An {@link HttpEndpoint} with the same URI or {@code null} if there is no such
+	 *         interface.
+	 * @see RequestUriMapper#mapRespectingWildcards(String, String)
+	 */
+	public HttpEndpoint mapRespectingWildcards(String uri, String method) {
+		return mapRespectingWildcards(uri, method, null, null);
+	}
+
+	/**
+	 * Maps the specified URI to an {@link HttpEndpoint} that has the same URI. First, the URI is
+	 * tested for exact similarity and then, if there is not exact match, wildcards are respected.
+	 *
+	 * @param uri
+	 *            The URI to be mapped.
+	 * @param method
+	 *            The request method.
+	 * @return An {@link HttpEndpoint} with the same URI or {@code null} if there is no such
+	 *         interface.
+	 * @see RequestUriMapper#map(String, String)
+	 */
+	public HttpEndpoint map(String uri, String method) {
+		return map(uri, method, null, null);
+	}
+
+	/**
+	 * Maps the specified URI to an {@link HttpEndpoint} that has the same URI and is hosted at the
+	 * specified domain and port. First, the URI is tested for exact similarity and then, if there
+	 * is not exact match, wildcards are respected.
+	 *
+	 * @param uri
+	 *            The URI to be mapped.
+	 * @param method
+	 *            The request method.
+	 * @param domain
+	 *            The domain of the request. If {@code null}, the domain is ignored.
+	 * @param port
+	 *            The port of the request. If {@code null}, the port is ignored.
+	 * @return An {@link HttpEndpoint} with the same URI, domain, and port or {@code null} if there
+	 *         is no such interface.
+	 */
+	public HttpEndpoint map(String uri, String method, String domain, String port) {
+		HttpEndpoint exactlyMapped = mapExactly(uri, method, domain, port);
+
+		if (exactlyMapped != null) {
+			return exactlyMapped;
+		} else {
+			return mapRespectingWildcards(uri, method, domain, port);
+		}
+	}
+
+	/**
+	 * Invalidates the compiled application model. Needs to be called whenever the application
+	 * model has been changed.
+	 */
+	public void invalidate() {
+		compiled = null;
+	}
+
+	private HttpEndpoint mapExactly(String uri, String method, String domain, String port) {
+		Map<String, List<IndexedEndpoint>> byPath = getCompiled().exactPaths.get(method);
+
+		if (byPath == null) {
+			return null;
+		}
+
+		List<IndexedEndpoint> candidates = byPath.get(normalizeUri(uri));
+
+		if (candidates == null) {
+			return null;
+		}
+
+		for (IndexedEndpoint candidate : candidates) {
+			if (candidate.isHostedAt(domain, port)) {
+				return candidate.endpoint;
+			}
+		}
+
+		return null;
+	}
+
+	private HttpEndpoint mapRespectingWildcards(String uri, String method, String domain, String port) {
+		TrieNode root = getCompiled().roots.get(method);
+
+		if (root == null) {
+			return null;
+		}
+
+		IndexedEndpoint found = search(root, normalizeUri(uri).split("\\/"), 0, Integer.MAX_VALUE, domain, port);
+		return found == null ? null : found.endpoint;
+	}
+
+	/**
+	 * Searches the trie for the matching endpoint with the lowest order that is lower than the
+	 * bound.
+	 */
+	private IndexedEndpoint search(TrieNode node, String[] uriParts, int depth, int bound, String domain, String port) {
+		if (depth == uriParts.length) {
+			for (IndexedEndpoint candidate : node.endpoints) {
+				if (candidate.order >= bound) {
+					break;
+				}
+
+				if (candidate.isHostedAt(domain, port)) {
+					return candidate;
+				}
+			}
+
+			return null;
+		}
+
+		TrieNode literal = node.literalChildren.get(uriParts[depth]);
+		TrieNode wildcard = node.wildcardChild;
+
+		if ((literal != null) && (wildcard != null) && (wildcard.minOrder < literal.minOrder)) {
+			TrieNode tmp = literal;
+			literal = wildcard;
+			wildcard = tmp;
+		}
+
+		IndexedEndpoint best = null;
+
+		for (TrieNode child : new TrieNode[] { literal, wildcard }) {
+			if ((child != null) && (child.minOrder < bound)) {
+				IndexedEndpoint found = search(child, uriParts, depth + 1, bound, domain, port);
+
+				if (found != null) {
+					best = found;
+					bound = found.order;
+				}
+			}
+		}
+
+		return best;
+	}
+
+	private CompiledApplication getCompiled() {
+		CompiledApplication current = compiled;
+
+		if (current == null) {
+			synchronized (this) {
+				current = compiled;
+
+				if (current == null) {
+					current = new CompiledApplication(application);
+					compiled = current;
+				}
+			}
+		}
+
+		return current;
+	}
+
+	private static String normalizeUri(String uri) {
+		if (!uri.startsWith("/")) {
+			uri = "/" + uri;
+		}
+
+		if (!uri.endsWith("/")) {
+			uri = uri + "/";
+		}
+
+		return uri;
+	}
+
+	private static boolean isWildcard(String uriPart) {
+		return WILDCARD_PATTERN.matcher(uriPart).matches();
+	}
+
+	/**
+	 * Immutable (after construction) snapshot of the compiled application model.
+	 */
+	private static class CompiledApplication {
+
+		private final Map<String, Map<String, List<IndexedEndpoint>>> exactPaths = new HashMap<>();
+
+		private final Map<String, TrieNode> roots = new HashMap<>();
+
+		private int nextOrder = 0;
+
+		private CompiledApplication(Application application) {
+			new IdpaByClassSearcher<>(HttpEndpoint.class, this::add).visit(application);
+		}
+
+		private void add(HttpEndpoint endpoint) {
+			if (endpoint.getPath() == null) {
+				return;
+			}
+
+			IndexedEndpoint indexed = new IndexedEndpoint(endpoint, nextOrder++);
+			String normalizedPath = normalizeUri(endpoint.getPath());
+
+			exactPaths.computeIfAbsent(endpoint.getMethod(), m -> new HashMap<>()).computeIfAbsent(normalizedPath, p -> new ArrayList<>()).add(indexed);
+
+			TrieNode node = roots.computeIfAbsent(endpoint.getMethod(), m -> new TrieNode());
+			node.updateMinOrder(indexed.order);
+
+			for (String part : normalizedPath.split("\\/")) {
+				if (isWildcard(part)) {
+					if (node.wildcardChild == null) {
+						node.wildcardChild = new TrieNode();
+					}
+
+					node = node.wildcardChild;
+				} else {
+					node = node.literalChildren.computeIfAbsent(part, p -> new TrieNode());
+				}
+
+				node.updateMinOrder(indexed.order);
+			}
+
+			node.endpoints.add(indexed);
+		}
+
+	}
+
+	private static class TrieNode {
+
+		private final Map<String, TrieNode> literalChildren = new HashMap<>();
+
+		private TrieNode wildcardChild = null;
+
+		/**
+		 * Endpoints whose path ends at this node in the order of the application model.
+		 */
+		private final List<IndexedEndpoint> endpoints = new ArrayList<>(1);
+
+		/**
+		 * Lowest order of all endpoints in the subtree.
+		 */
+		private int minOrder = Integer.MAX_VALUE;
+
+		private void updateMinOrder(int order) {
+			minOrder = Math.min(minOrder, order);
+		}
+
+	}
+
+	private static class IndexedEndpoint {
+
+		private final HttpEndpoint endpoint;
+
+		private final int order;
+
+		private IndexedEndpoint(HttpEndpoint endpoint, int order) {
+			this.endpoint = endpoint;
+			this.order = order;
+		}
+
+		private boolean isHostedAt(String domain, String port) {
+			return ((domain == null) || Objects.equals(domain, endpoint.getDomain())) && ((port == null) || Objects.equals(port, endpoint.getPort()));
+		}
+
+	}
+
+}
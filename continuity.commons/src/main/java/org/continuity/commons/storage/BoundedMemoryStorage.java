@@ -0,0 +1,605 @@
+package org.continuity.commons.storage;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe storage holding entities in memory, which is bounded by a maximum number of
+ * entities and a maximum total weight. If one of the bounds is exceeded, the least recently used
+ * entities are evicted. Optionally, evicted entities are spilled over to a {@link FileStorage},
+ * from which they are read transparently. The spill-over storage is bounded as well and cleared
+ * when it is set, as the IDs of its entities are only known in memory. In addition, a time to live
+ * can be defined per tag. Expired entities are removed and not spilled over. A listener can be
+ * notified about the entities the storage removes by itself. <br>
+ *
+ * The IDs have the same format as the ones of the {@link MemoryStorage}. The storage is configured
+ * by chaining the {@code with...} methods, e.g.,
+ *
+ * <pre>
+ * new BoundedMemoryStorage&lt;&gt;(String.class).withMaxEntries(1000).withMaxWeight(1000000, String::length).withTimeToLive("my-tag", 1, TimeUnit.HOURS);
+ * </pre>
+ *
+ *
+ * @param <T>
+ *            The type of the stored entities.
+ */
+public class BoundedMemoryStorage<T> implements ArtifactStorage<T> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BoundedMemoryStorage.class);
+
+	private static final String TAG_DELIM = "-";
+
+	private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+	private static final long CLEAN_UP_INTERVAL_MILLIS = 60000;
+
+	private final AtomicInteger counter = new AtomicInteger(1);
+
+	/**
+	 * In access order, i.e., the first entry is the least recently used one. Guarded by itself.
+	 */
+	private final LinkedHashMap<String, Entry<T>> storedEntities = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, Long> timeToLivePerTag = new ConcurrentHashMap<>();
+
+	/**
+	 * Entities that have been evicted, but are still being written to the spill-over storage.
+	 */
+	private final Map<String, T> spilling = new ConcurrentHashMap<>();
+
+	/**
+	 * IDs in this storage to IDs in the spill-over storage in the order of spilling. Guarded by
+	 * itself.
+	 */
+	private final LinkedHashMap<String, String> spilledIds = new LinkedHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder expirations = new LongAdder();
+
+	private int maxEntries = Integer.MAX_VALUE;
+
+	private long maxWeight = Long.MAX_VALUE;
+
+	private ToLongFunction<T> weigher = entity -> 1;
+
+	private long defaultTimeToLive = NO_EXPIRATION;
+
+	private FileStorage<T> spillOverStorage = null;
+
+	private int maxSpilled = Integer.MAX_VALUE;
+
+	private BiConsumer<String, T> removalListener = (id, entity) -> {
+	};
+
+	private LongSupplier clock = System::currentTimeMillis;
+
+	private long totalWeight = 0;
+
+	private long lastCleanUp;
+
+	public BoundedMemoryStorage(Class<T> type) {
+		this.lastCleanUp = clock.getAsLong();
+	}
+
+	/**
+	 * Sets the maximum number of entities held in memory.
+	 *
+	 * @param maxEntries
+	 *            The maximum number of entities. Needs to be positive.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withMaxEntries(int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("The maximum number of entries needs to be positive, but was " + maxEntries + "!");
+		}
+
+		this.maxEntries = maxEntries;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum total weight of the entities held in memory.
+	 *
+	 * @param maxWeight
+	 *            The maximum weight. Needs to be positive.
+	 * @param weigher
+	 *            Calculates the weight of an entity, e.g., the length of a string. The weight of an
+	 *            entity must not change while it is stored.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withMaxWeight(long maxWeight, ToLongFunction<T> weigher) {
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException("The maximum weight needs to be positive, but was " + maxWeight + "!");
+		}
+
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		return this;
+	}
+
+	/**
+	 * Sets the time to live of entities that do not have a tag-specific one.
+	 *
+	 * @param duration
+	 *            The duration after which stored entities expire.
+	 * @param unit
+	 *            The unit of the duration.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withDefaultTimeToLive(long duration, TimeUnit unit) {
+		this.defaultTimeToLive = unit.toMillis(duration);
+		return this;
+	}
+
+	/**
+	 * Sets the time to live of entities with the specified tag.
+	 *
+	 * @param tag
+	 *            The tag.
+	 * @param duration
+	 *            The duration after which stored entities expire.
+	 * @param unit
+	 *            The unit of the duration.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withTimeToLive(String tag, long duration, TimeUnit unit) {
+		timeToLivePerTag.put(tag, unit.toMillis(duration));
+		return this;
+	}
+
+	/**
+	 * Sets a {@link FileStorage} to which evicted entities are written. They will be read from it
+	 * if requested. The number of spilled over entities is not bounded.
+	 *
+	 * @param spillOverStorage
+	 *            The storage. Can be {@code null}, which disables spilling over.
+	 * @return This storage for chaining.
+	 * @see #withSpillOver(FileStorage, int)
+	 */
+	public BoundedMemoryStorage<T> withSpillOver(FileStorage<T> spillOverStorage) {
+		return withSpillOver(spillOverStorage, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Sets a {@link FileStorage} to which evicted entities are written. They will be read from it
+	 * if requested. If more than the maximum number of entities are spilled over, the ones spilled
+	 * over first are removed. <br>
+	 *
+	 * All entities already held by the spill-over storage are removed, e.g., the ones left over
+	 * from before a restart, since they cannot be retrieved anymore. Hence, the spill-over storage
+	 * must not be shared.
+	 *
+	 * @param spillOverStorage
+	 *            The storage. Can be {@code null}, which disables spilling over.
+	 * @param maxSpilled
+	 *            The maximum number of spilled over entities. Needs to be positive.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withSpillOver(FileStorage<T> spillOverStorage, int maxSpilled) {
+		if (maxSpilled <= 0) {
+			throw new IllegalArgumentException("The maximum number of spilled over entries needs to be positive, but was " + maxSpilled + "!");
+		}
+
+		this.spillOverStorage = spillOverStorage;
+		this.maxSpilled = maxSpilled;
+
+		if (spillOverStorage != null) {
+			List<String> leftOver = new ArrayList<>(spillOverStorage.getAll().keySet());
+			leftOver.forEach(spillOverStorage::remove);
+
+			if (!leftOver.isEmpty()) {
+				LOGGER.info("Removed {} left-over entities from the spill-over storage.", leftOver.size());
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Sets a listener to be called with the ID and entity of each entity that is removed by the
+	 * storage itself, i.e., that expired, or that has been evicted and not spilled over. It is
+	 * called after the entity has been removed and must not block.
+	 *
+	 * @param removalListener
+	 *            The listener.
+	 * @return This storage for chaining.
+	 */
+	public BoundedMemoryStorage<T> withRemovalListener(BiConsumer<String, T> removalListener) {
+		this.removalListener = removalListener;
+		return this;
+	}
+
+	/**
+	 * Sets the clock determining the current time in milliseconds. Intended for testing.
+	 *
+	 * @param clock
+	 *            The clock.
+	 * @return This storage for chaining.
+	 */
+	BoundedMemoryStorage<T> withClock(LongSupplier clock) {
+		this.clock = clock;
+		this.lastCleanUp = clock.getAsLong();
+		return this;
+	}
+
+	@Override
+	public String reserve(String tag) {
+		return tag + TAG_DELIM + Integer.toString(counter.getAndIncrement());
+	}
+
+	@Override
+	public void putToReserved(String id, T entity) {
+		long now = clock.getAsLong();
+		Entry<T> entry = new Entry<>(entity, weigher.applyAsLong(entity), expirationTime(id, now));
+		List<Map.Entry<String, T>> evicted = new ArrayList<>();
+		List<Map.Entry<String, T>> removed = new ArrayList<>();
+
+		removeSpilled(id);
+
+		synchronized (storedEntities) {
+			Entry<T> old = storedEntities.put(id, entry);
+
+			if (old != null) {
+				totalWeight -= old.weight;
+			}
+
+			totalWeight += entry.weight;
+
+			if (now - lastCleanUp >= CLEAN_UP_INTERVAL_MILLIS) {
+				removeExpired(now, removed);
+			}
+
+			evictIfNecessary(evicted, removed);
+		}
+
+		spillOver(evicted);
+		notifyRemoved(removed);
+	}
+
+	@Override
+	public String put(T entity, String tag) {
+		String id = reserve(tag);
+		putToReserved(id, entity);
+		return id;
+	}
+
+	@Override
+	public T get(String id) {
+		long now = clock.getAsLong();
+		Entry<T> expired = null;
+
+		synchronized (storedEntities) {
+			Entry<T> entry = storedEntities.get(id);
+
+			if (entry != null) {
+				if (entry.isExpired(now)) {
+					expired = removeEntry(id);
+					expirations.increment();
+				} else {
+					hits.increment();
+					return entry.entity;
+				}
+			}
+		}
+
+		if (expired != null) {
+			notifyRemoved(Collections.singletonList(new SimpleImmutableEntry<>(id, expired.entity)));
+		}
+
+		T spilled = getSpilled(id);
+
+		if (spilled == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+
+		return spilled;
+	}
+
+	/**
+	 * Returns a copy of all entities currently held in memory. Spilled over entities are not
+	 * included. Does not change the eviction order.
+	 */
+	@Override
+	public Map<String, T> getAll() {
+		long now = clock.getAsLong();
+		Map<String, T> all = new HashMap<>();
+
+		synchronized (storedEntities) {
+			for (Map.Entry<String, Entry<T>> entry : storedEntities.entrySet()) {
+				if (!entry.getValue().isExpired(now)) {
+					all.put(entry.getKey(), entry.getValue().entity);
+				}
+			}
+		}
+
+		return Collections.unmodifiableMap(all);
+	}
+
+	@Override
+	public boolean remove(String id) {
+		boolean removed;
+
+		synchronized (storedEntities) {
+			removed = removeEntry(id) != null;
+		}
+
+		return removeSpilled(id) || removed;
+	}
+
+	@Override
+	public String getTagForId(String id) {
+		return id.substring(0, id.lastIndexOf(TAG_DELIM));
+	}
+
+	/**
+	 * Removes all expired entities.
+	 */
+	public void cleanUp() {
+		List<Map.Entry<String, T>> removed = new ArrayList<>();
+
+		synchronized (storedEntities) {
+			removeExpired(clock.getAsLong(), removed);
+		}
+
+		notifyRemoved(removed);
+	}
+
+	/**
+	 * Gets the number of entities currently held in memory.
+	 *
+	 * @return The number of entities.
+	 */
+	public int size() {
+		synchronized (storedEntities) {
+			return storedEntities.size();
+		}
+	}
+
+	/**
+	 * Gets the number of entities currently spilled over.
+	 *
+	 * @return The number of spilled over entities.
+	 */
+	public int getNumSpilled() {
+		synchronized (spilledIds) {
+			return spilledIds.size();
+		}
+	}
+
+	/**
+	 * Gets the total weight of the entities currently held in memory.
+	 *
+	 * @return The total weight.
+	 */
+	public long getTotalWeight() {
+		synchronized (storedEntities) {
+			return totalWeight;
+		}
+	}
+
+	/**
+	 * Gets the number of successful {@link #get(String)} calls, including the ones served from the
+	 * spill-over storage.
+	 *
+	 * @return The number of hits.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of {@link #get(String)} calls that did not find an entity.
+	 *
+	 * @return The number of misses.
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of entities that have been evicted due to exceeding the maximum number of
+	 * entities or the maximum weight.
+	 *
+	 * @return The number of evictions.
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the number of entities that have been removed because they expired.
+	 *
+	 * @return The number of expirations.
+	 */
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	private long expirationTime(String id, long now) {
+		long timeToLive = timeToLivePerTag.getOrDefault(getTagForId(id), defaultTimeToLive);
+
+		if ((timeToLive == NO_EXPIRATION) || (now > (NO_EXPIRATION - timeToLive))) {
+			return NO_EXPIRATION;
+		} else {
+			return now + timeToLive;
+		}
+	}
+
+	/**
+	 * Needs to be called while holding the lock on {@link #storedEntities}.
+	 */
+	private Entry<T> removeEntry(String id) {
+		Entry<T> removed = storedEntities.remove(id);
+
+		if (removed != null) {
+			totalWeight -= removed.weight;
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Needs to be called while holding the lock on {@link #storedEntities}.
+	 */
+	private void removeExpired(long now, List<Map.Entry<String, T>> removed) {
+		Iterator<Map.Entry<String, Entry<T>>> it = storedEntities.entrySet().iterator();
+
+		while (it.hasNext()) {
+			Map.Entry<String, Entry<T>> entry = it.next();
+
+			if (entry.getValue().isExpired(now)) {
+				it.remove();
+				totalWeight -= entry.getValue().weight;
+				expirations.increment();
+				removed.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().entity));
+			}
+		}
+
+		lastCleanUp = now;
+	}
+
+	/**
+	 * Needs to be called while holding the lock on {@link #storedEntities}.
+	 */
+	private void evictIfNecessary(List<Map.Entry<String, T>> evicted, List<Map.Entry<String, T>> removed) {
+		Iterator<Map.Entry<String, Entry<T>>> it = storedEntities.entrySet().iterator();
+
+		while (((storedEntities.size() > maxEntries) || (totalWeight > maxWeight)) && it.hasNext()) {
+			Map.Entry<String, Entry<T>> eldest = it.next();
+			it.remove();
+			totalWeight -= eldest.getValue().weight;
+			evictions.increment();
+
+			if (spillOverStorage != null) {
+				spilling.put(eldest.getKey(), eldest.getValue().entity);
+				evicted.add(new SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue().entity));
+			} else {
+				removed.add(new SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue().entity));
+			}
+		}
+	}
+
+	private void notifyRemoved(List<Map.Entry<String, T>> removed) {
+		for (Map.Entry<String, T> entry : removed) {
+			try {
+				removalListener.accept(entry.getKey(), entry.getValue());
+			} catch (RuntimeException e) {
+				LOGGER.error("Error when notifying about the removal of entity " + entry.getKey() + "!", e);
+			}
+		}
+	}
+
+	private void spillOver(List<Map.Entry<String, T>> evicted) {
+		for (Map.Entry<String, T> entry : evicted) {
+			String spilledId = spillOverStorage.put(entry.getValue(), getTagForId(entry.getKey()));
+
+			List<String> dropped = new ArrayList<>();
+
+			synchronized (spilledIds) {
+				spilledIds.put(entry.getKey(), spilledId);
+
+				Iterator<String> it = spilledIds.values().iterator();
+
+				while ((spilledIds.size() > maxSpilled) && it.hasNext()) {
+					dropped.add(it.next());
+					it.remove();
+				}
+			}
+
+			if (spilling.remove(entry.getKey(), entry.getValue())) {
+				LOGGER.debug("Spilled over entity {} as {}.", entry.getKey(), spilledId);
+			} else {
+				// The entity has been removed or replaced in the meantime
+				synchronized (spilledIds) {
+					spilledIds.remove(entry.getKey(), spilledId);
+				}
+
+				spillOverStorage.remove(spilledId);
+			}
+
+			for (String droppedId : dropped) {
+				LOGGER.debug("Removed spilled over entity {}, as more than {} entities are spilled over.", droppedId, maxSpilled);
+				spillOverStorage.remove(droppedId);
+			}
+		}
+	}
+
+	private T getSpilled(String id) {
+		T entity = spilling.get(id);
+
+		if (entity != null) {
+			return entity;
+		}
+
+		String spilledId;
+
+		synchronized (spilledIds) {
+			spilledId = spilledIds.get(id);
+		}
+
+		if (spilledId == null) {
+			return null;
+		}
+
+		return spillOverStorage.get(spilledId);
+	}
+
+	private boolean removeSpilled(String id) {
+		boolean removed = spilling.remove(id) != null;
+		String spilledId;
+
+		synchronized (spilledIds) {
+			spilledId = spilledIds.remove(id);
+		}
+
+		if (spilledId != null) {
+			removed = spillOverStorage.remove(spilledId) || removed;
+		}
+
+		return removed;
+	}
+
+	private static class Entry<T> {
+
+		private final T entity;
+
+		private final long weight;
+
+		private final long expirationTime;
+
+		private Entry(T entity, long weight, long expirationTime) {
+			this.entity = entity;
+			this.weight = weight;
+			this.expirationTime = expirationTime;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= expirationTime;
+		}
+
+	}
+
+}
@@ -68,6 +68,11 @@ public class CsvFileStorage<T> extends FileStorage<List<T>> {
 		return Files.deleteIfExists(toPath(dirPath, id));
 	}
 
+	@Override
+	protected String toId(String fileName) {
+		return fileName.endsWith(FILE_EXT) ? fileName.substring(0, fileName.length() - FILE_EXT.length()) : fileName;
+	}
+
 	private Path toPath(Path dirPath, String id) {
 		return dirPath.resolve(id + FILE_EXT);
 	}
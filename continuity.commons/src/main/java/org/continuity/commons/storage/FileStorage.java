@@ -1,8 +1,19 @@
 package org.continuity.commons.storage;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -10,7 +21,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Stores artifacts in the file system.
+ * Stores artifacts in the file system. The IDs have the format {@code <number>-<tag>}, where the
+ * number is counted per tag. The last number of each tag is persisted in a counter file, which is
+ * replaced atomically. The IDs of the stored artifacts are indexed once on first access. Hence,
+ * neither reserving an ID nor looking up an artifact requires listing the storage directory. <br>
+ *
+ * The storage is thread-safe as long as it is the only instance writing to the storage path.
  *
  * @author Henning Schulz
  *
@@ -23,12 +39,20 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 
 	private static final String DELIM = "-";
 
-	private static final String FILE_PATTERN = "^([0-9]+).*";
+	private static final Pattern FILE_PATTERN = Pattern.compile("^([0-9]+)" + DELIM + ".+");
+
+	private static final String COUNTER_DIR = ".counters";
+
+	private static final String TMP_EXT = ".tmp";
 
 	private final Path storagePath;
 
 	private final T emptyEntity;
 
+	private final Map<String, TagCounter> counters = new ConcurrentHashMap<>();
+
+	private volatile Index index = null;
+
 	public FileStorage(Path storagePath, T emptyEntity) {
 		this.storagePath = storagePath;
 		storagePath.toFile().mkdirs();
@@ -73,6 +97,19 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 	 */
 	protected abstract boolean remove(Path dirPath, String id) throws IOException;
 
+	/**
+	 * Extracts the ID from the name of a file or directory created by
+	 * {@link #write(Path, String, Object)}. Needs to be overridden if the name is not the plain ID,
+	 * e.g., if it has a file extension.
+	 *
+	 * @param fileName
+	 *            The name of the file or directory.
+	 * @return The ID.
+	 */
+	protected String toId(String fileName) {
+		return fileName;
+	}
+
 	@Override
 	public String reserve(String tag) {
 		return put(emptyEntity, tag);
@@ -85,7 +122,7 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 
 	@Override
 	public String put(T entity, String tag) {
-		String id = getNextNumber() + DELIM + tag;
+		String id = getNextNumber(tag) + DELIM + tag;
 
 		store(id, entity);
 
@@ -95,6 +132,7 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 	private void store(String id, T entity) {
 		try {
 			write(storagePath, id, entity);
+			getIndex().add(id);
 		} catch (IOException e) {
 			LOGGER.error("Error during writing!", e);
 		}
@@ -102,6 +140,10 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 
 	@Override
 	public T get(String id) {
+		if (!getIndex().contains(id)) {
+			return null;
+		}
+
 		try {
 			return read(storagePath, id);
 		} catch (IOException e) {
@@ -110,15 +152,21 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 		}
 	}
 
+	/**
+	 * Returns a view of all stored artifacts. The artifacts are read lazily when accessed. Hence,
+	 * each access of a value reads a file.
+	 */
 	@Override
 	public Map<String, T> getAll() {
-		throw new UnsupportedOperationException("FileStorage.getAll is not supported!");
+		return new LazyArtifactMap();
 	}
-	
+
 	@Override
 	public boolean remove(String id) {
 		try {
-			return remove(storagePath, id);
+			boolean removed = remove(storagePath, id);
+			getIndex().remove(id);
+			return removed;
 		} catch (IOException e) {
 			LOGGER.error("Error during deleting!", e);
 			return false;
@@ -130,27 +178,232 @@ public abstract class FileStorage<T> implements ArtifactStorage<T> {
 		return id.substring(id.indexOf(DELIM) + 1);
 	}
 
-	private int getNextNumber() {
-		int max = 0;
+	private int getNextNumber(String tag) {
+		TagCounter counter = counters.computeIfAbsent(tag, TagCounter::new);
+
+		synchronized (counter) {
+			if (!counter.initialized) {
+				counter.last = Math.max(counter.readPersisted(), getIndex().getMaxNumber(tag));
+				counter.initialized = true;
+			}
+
+			counter.last++;
+			counter.persist();
+
+			return counter.last;
+		}
+	}
+
+	private Index getIndex() {
+		Index current = index;
+
+		if (current == null) {
+			synchronized (this) {
+				current = index;
+
+				if (current == null) {
+					current = new Index();
+					index = current;
+				}
+			}
+		}
+
+		return current;
+	}
+
+	/**
+	 * The IDs of all stored artifacts and the maximum number per tag found on creation.
+	 */
+	private class Index {
+
+		private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		private final Map<String, Integer> maxNumberPerTag = new ConcurrentHashMap<>();
+
+		private Index() {
+			String[] files = storagePath.toFile().list();
+
+			if (files != null) {
+				for (String file : files) {
+					Matcher matcher = FILE_PATTERN.matcher(file);
+
+					if (matcher.matches()) {
+						String id = toId(file);
+						ids.add(id);
+						maxNumberPerTag.merge(getTagForId(id), Integer.valueOf(matcher.group(1)), Math::max);
+					}
+				}
+			}
+
+			LOGGER.info("Indexed {} artifacts in {}.", ids.size(), storagePath.toAbsolutePath());
+		}
+
+		private void add(String id) {
+			ids.add(id);
+		}
+
+		private void remove(String id) {
+			ids.remove(id);
+		}
+
+		private boolean contains(String id) {
+			return ids.contains(id);
+		}
+
+		private int getMaxNumber(String tag) {
+			return maxNumberPerTag.getOrDefault(tag, 0);
+		}
+
+	}
+
+	/**
+	 * Counts the numbers of one tag. Guarded by itself.
+	 */
+	private class TagCounter {
+
+		private final Path file;
+
+		private boolean initialized = false;
+
+		private int last = 0;
+
+		private TagCounter(String tag) {
+			this.file = storagePath.resolve(COUNTER_DIR).resolve(encode(tag));
+		}
+
+		private int readPersisted() {
+			if (!file.toFile().exists()) {
+				return 0;
+			}
+
+			try {
+				return Integer.parseInt(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+			} catch (IOException | NumberFormatException e) {
+				LOGGER.error("Could not read the counter file " + file + "! Using the numbers of the stored artifacts.", e);
+				return 0;
+			}
+		}
+
+		private void persist() {
+			Path tmpFile = file.resolveSibling(file.getFileName() + TMP_EXT);
+
+			try {
+				Files.createDirectories(file.getParent());
+				Files.write(tmpFile, Integer.toString(last).getBytes(StandardCharsets.UTF_8));
+				Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				LOGGER.error("Could not write the counter file " + file + "!", e);
+			}
+		}
 
-		for (String file : storagePath.toFile().list()) {
-			if (file.matches(FILE_PATTERN)) {
-				max = Math.max(max, getNumber(file));
+		private String encode(String tag) {
+			try {
+				return URLEncoder.encode(tag, StandardCharsets.UTF_8.name());
+			} catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
 			}
 		}
 
-		return max + 1;
 	}
 
-	private int getNumber(String filename) {
-		Pattern pattern = Pattern.compile(FILE_PATTERN);
-		Matcher matcher = pattern.matcher(filename);
+	/**
+	 * Map view of the stored artifacts reading the artifacts on access.
+	 */
+	private class LazyArtifactMap extends AbstractMap<String, T> {
+
+		@Override
+		public Set<Map.Entry<String, T>> entrySet() {
+			return new AbstractSet<Map.Entry<String, T>>() {
+
+				@Override
+				public Iterator<Map.Entry<String, T>> iterator() {
+					Iterator<String> idIterator = getIndex().ids.iterator();
+
+					return new Iterator<Map.Entry<String, T>>() {
+
+						@Override
+						public boolean hasNext() {
+							return idIterator.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, T> next() {
+							String id = idIterator.next();
+							return new LazyEntry(id);
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return getIndex().ids.size();
+				}
+
+			};
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return getIndex().ids.contains(key);
+		}
+
+		@Override
+		public T get(Object key) {
+			return (key instanceof String) ? FileStorage.this.get((String) key) : null;
+		}
+
+		@Override
+		public int size() {
+			return getIndex().ids.size();
+		}
+
+	}
+
+	private class LazyEntry implements Map.Entry<String, T> {
+
+		private final String id;
+
+		private T entity = null;
+
+		private LazyEntry(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public String getKey() {
+			return id;
+		}
+
+		@Override
+		public T getValue() {
+			if (entity == null) {
+				entity = FileStorage.this.get(id);
+			}
 
-		if (matcher.find()) {
-			return Integer.valueOf(matcher.group(1));
-		} else {
-			return -1;
+			return entity;
 		}
+
+		@Override
+		public T setValue(T value) {
+			throw new UnsupportedOperationException("The artifacts cannot be changed via getAll()!");
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			return Objects.equals(id, other.getKey()) && Objects.equals(getValue(), other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(id) ^ Objects.hashCode(getValue());
+		}
+
 	}
 
 }
@@ -45,6 +45,11 @@ public class JsonFileStorage<T> extends FileStorage<T> implements ArtifactStorag
 		return toPath(dirPath, id).toFile().delete();
 	}
 
+	@Override
+	protected String toId(String fileName) {
+		return fileName.endsWith(FILE_EXT) ? fileName.substring(0, fileName.length() - FILE_EXT.length()) : fileName;
+	}
+
 	private Path toPath(Path dirPath, String id) {
 		return dirPath.resolve(id + FILE_EXT);
 	}
@@ -1,11 +1,12 @@
 package org.continuity.commons.storage;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A generic storage holding entities in a hash map in memory.
+ * A generic storage holding entities in a hash map in memory. It is thread-safe, but does not
+ * evict any entities. For a bounded storage, please use {@link BoundedMemoryStorage}.
  *
  * @author Henning Schulz
  *
@@ -18,7 +19,7 @@ public class MemoryStorage<T> implements ArtifactStorage<T> {
 
 	private final AtomicInteger counter = new AtomicInteger(1);
 
-	private final Map<String, T> storedEntities = new HashMap<>();
+	private final Map<String, T> storedEntities = new ConcurrentHashMap<>();
 
 	public MemoryStorage(Class<T> type) {
 	}
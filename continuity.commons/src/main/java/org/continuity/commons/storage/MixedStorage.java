@@ -122,6 +122,23 @@ public class MixedStorage<T> implements ArtifactStorage<T> {
 		return this.getAll(false);
 	}
 
+	/**
+	 * Removes an entity by an id as returned by {@link #getAll(boolean)}.
+	 *
+	 * @param id
+	 *            The id of the entity.
+	 * @param persist
+	 *            Whether the {@link FileStorage} should be used.
+	 * @return {@code true} if the entity has been removed.
+	 */
+	public boolean remove(String id, boolean persist) {
+		if (persist) {
+			return fileStorage.remove(id);
+		} else {
+			return memoryStorage.remove(id);
+		}
+	}
+
 	@Override
 	public boolean remove(String id) {
 		if (isFileId(id)) {
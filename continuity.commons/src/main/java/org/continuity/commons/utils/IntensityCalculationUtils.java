@@ -30,7 +30,8 @@ public class IntensityCalculationUtils {
 	}
 
 	/**
-	 * Calculates the workload intensity for a time range. Calculates average, min and max.
+	 * Calculates the workload intensity for a time range. Calculates average, min and max. For
+	 * calculating the intensities of many ranges, use {@link SweepLineIntensityCalculator}.
 	 * @param range
 	 * @param sessionsInRange
 	 * @param rangeLength
@@ -0,0 +1,266 @@
+package org.continuity.commons.utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.Range;
+import org.continuity.api.entities.artifact.SimplifiedSession;
+
+/**
+ * Calculates the workload intensity of all time ranges of session logs in one pass. In contrast
+ * to {@link IntensityCalculationUtils#calculateIntensityForRange(Range, java.util.ArrayList, long)},
+ * which rescans all sessions for every range, the start and end events of the sessions are sorted
+ * once and then swept through the ranges. The overall complexity is therefore in
+ * <code>O(n log n + #ranges)</code>. <br>
+ *
+ * The calculated average intensities are identical to the ones calculated by
+ * {@link IntensityCalculationUtils#calculateIntensityForRange(Range, java.util.ArrayList, long)}.
+ * This includes that sessions ending exactly at the beginning of a range as well as sessions with
+ * equal start and end time are counted until the end of the range.
+ */
+public class SweepLineIntensityCalculator {
+
+	private SweepLineIntensityCalculator() {
+	}
+
+	/**
+	 * Calculates the intensities of the passed ranges. The ranges need to be consecutive and of
+	 * length {@code rangeLength}, as created by
+	 * {@link IntensityCalculationUtils#calculateRanges(long, long, long)}.
+	 *
+	 * @param sessions
+	 *            The sessions. Do not need to be sorted.
+	 * @param ranges
+	 *            The consecutive ranges.
+	 * @param rangeLength
+	 *            The length of each range.
+	 * @return The calculated {@link IntensitySeries}.
+	 */
+	public static IntensitySeries calculate(List<SimplifiedSession> sessions, List<Range<Long>> ranges, long rangeLength) {
+		if (ranges.isEmpty()) {
+			return new IntensitySeries(0, rangeLength, new long[0], new int[0]);
+		}
+
+		long firstRangeStart = ranges.get(0).getMinimum();
+
+		for (int i = 0; i < ranges.size(); i++) {
+			Range<Long> range = ranges.get(i);
+
+			if ((range.getMinimum() != (firstRangeStart + (i * rangeLength))) || (range.getMaximum() != (range.getMinimum() + rangeLength))) {
+				throw new IllegalArgumentException("The ranges need to be consecutive and of length " + rangeLength + "! Range " + i + " is " + range);
+			}
+		}
+
+		return calculate(sessions, firstRangeStart, rangeLength, ranges.size());
+	}
+
+	/**
+	 * Calculates the intensities of {@code numberOfRanges} consecutive ranges of length
+	 * {@code rangeLength} starting at {@code firstRangeStart}.
+	 *
+	 * @param sessions
+	 *            The sessions. Do not need to be sorted.
+	 * @param firstRangeStart
+	 *            The start of the first range.
+	 * @param rangeLength
+	 *            The length of each range.
+	 * @param numberOfRanges
+	 *            The number of ranges.
+	 * @return The calculated {@link IntensitySeries}.
+	 */
+	public static IntensitySeries calculate(List<SimplifiedSession> sessions, long firstRangeStart, long rangeLength, int numberOfRanges) {
+		if (rangeLength <= 0) {
+			throw new IllegalArgumentException("The range length needs to be positive, but was " + rangeLength + "!");
+		}
+
+		long[] starts = new long[sessions.size()];
+		long[] ends = new long[sessions.size()];
+		int numIntervals = 0;
+
+		// Additional time covered by sessions that are counted until the end of a range
+		long[] additionalTime = new long[numberOfRanges];
+
+		for (SimplifiedSession session : sessions) {
+			long start = Math.min(session.getStartTime(), session.getEndTime());
+			long end = Math.max(session.getStartTime(), session.getEndTime());
+
+			if (start == end) {
+				int index = rangeIndex(start, firstRangeStart, rangeLength, numberOfRanges);
+
+				if (index >= 0) {
+					additionalTime[index] += (firstRangeStart + ((index + 1) * rangeLength)) - start;
+				}
+			} else {
+				starts[numIntervals] = start;
+				ends[numIntervals] = end;
+				numIntervals++;
+
+				if (((end - firstRangeStart) % rangeLength) == 0) {
+					int index = rangeIndex(end, firstRangeStart, rangeLength, numberOfRanges);
+
+					if (index >= 0) {
+						additionalTime[index] += rangeLength;
+					}
+				}
+			}
+		}
+
+		Arrays.sort(starts, 0, numIntervals);
+		Arrays.sort(ends, 0, numIntervals);
+
+		long[] averages = new long[numberOfRanges];
+		int[] maxima = new int[numberOfRanges];
+
+		int startIdx = 0;
+		int endIdx = 0;
+		int active = 0;
+
+		for (int i = 0; i < numberOfRanges; i++) {
+			long rangeStart = firstRangeStart + (i * rangeLength);
+			long rangeEnd = rangeStart + rangeLength;
+
+			while ((startIdx < numIntervals) && (starts[startIdx] <= rangeStart)) {
+				active++;
+				startIdx++;
+			}
+
+			while ((endIdx < numIntervals) && (ends[endIdx] <= rangeStart)) {
+				active--;
+				endIdx++;
+			}
+
+			long sumOfTime = 0;
+			long lastEvent = rangeStart;
+			int max = active;
+
+			while (true) {
+				long nextStart = startIdx < numIntervals ? starts[startIdx] : Long.MAX_VALUE;
+				long nextEnd = endIdx < numIntervals ? ends[endIdx] : Long.MAX_VALUE;
+				long nextEvent = Math.min(nextStart, nextEnd);
+
+				if (nextEvent >= rangeEnd) {
+					break;
+				}
+
+				sumOfTime += active * (nextEvent - lastEvent);
+				lastEvent = nextEvent;
+
+				while ((startIdx < numIntervals) && (starts[startIdx] == nextEvent)) {
+					active++;
+					startIdx++;
+				}
+
+				while ((endIdx < numIntervals) && (ends[endIdx] == nextEvent)) {
+					active--;
+					endIdx++;
+				}
+
+				max = Math.max(max, active);
+			}
+
+			sumOfTime += active * (rangeEnd - lastEvent);
+
+			averages[i] = (sumOfTime + additionalTime[i]) / rangeLength;
+			maxima[i] = max;
+		}
+
+		return new IntensitySeries(firstRangeStart, rangeLength, averages, maxima);
+	}
+
+	/**
+	 * Returns the index of the range with {@code start <= timestamp < end} or -1 if there is no
+	 * such range.
+	 */
+	private static int rangeIndex(long timestamp, long firstRangeStart, long rangeLength, int numberOfRanges) {
+		if (timestamp < firstRangeStart) {
+			return -1;
+		}
+
+		long index = (timestamp - firstRangeStart) / rangeLength;
+		return index < numberOfRanges ? (int) index : -1;
+	}
+
+	/**
+	 * The intensities of consecutive time ranges.
+	 */
+	public static class IntensitySeries {
+
+		private final long firstRangeStart;
+
+		private final long rangeLength;
+
+		private final long[] averages;
+
+		private final int[] maxima;
+
+		private IntensitySeries(long firstRangeStart, long rangeLength, long[] averages, int[] maxima) {
+			this.firstRangeStart = firstRangeStart;
+			this.rangeLength = rangeLength;
+			this.averages = averages;
+			this.maxima = maxima;
+		}
+
+		/**
+		 * Gets the number of ranges.
+		 *
+		 * @return The number of ranges.
+		 */
+		public int size() {
+			return averages.length;
+		}
+
+		/**
+		 * Gets the start timestamp of the range with the specified index.
+		 *
+		 * @param index
+		 *            The index of the range.
+		 * @return The start of the range.
+		 */
+		public long getRangeStart(int index) {
+			return firstRangeStart + (index * rangeLength);
+		}
+
+		/**
+		 * Gets the average number of concurrent sessions within the range with the specified
+		 * index.
+		 *
+		 * @param index
+		 *            The index of the range.
+		 * @return The average intensity.
+		 */
+		public long getAverage(int index) {
+			return averages[index];
+		}
+
+		/**
+		 * Gets the maximum number of concurrent sessions within the range with the specified index.
+		 *
+		 * @param index
+		 *            The index of the range.
+		 * @return The maximum intensity.
+		 */
+		public int getMax(int index) {
+			return maxima[index];
+		}
+
+		/**
+		 * Gets the average intensities of all ranges.
+		 *
+		 * @return The average intensities. <b>Do not change the returned array!</b>
+		 */
+		public long[] getAverages() {
+			return averages;
+		}
+
+		/**
+		 * Gets the maximum intensities of all ranges.
+		 *
+		 * @return The maximum intensities. <b>Do not change the returned array!</b>
+		 */
+		public int[] getMaxima() {
+			return maxima;
+		}
+
+	}
+
+}
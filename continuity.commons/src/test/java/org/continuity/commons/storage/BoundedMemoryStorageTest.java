@@ -0,0 +1,244 @@
+package org.continuity.commons.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BoundedMemoryStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testIdsLikeMemoryStorage() {
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class);
+
+		String id = storage.put("foo", "my-tag");
+
+		assertThat(id).isEqualTo("my-tag-1");
+		assertThat(storage.getTagForId(id)).isEqualTo("my-tag");
+		assertThat(storage.get(id)).isEqualTo("foo");
+		assertThat(storage.remove(id)).isTrue();
+		assertThat(storage.get(id)).isNull();
+		assertThat(storage.remove(id)).isFalse();
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxEntries(2);
+
+		String first = storage.put("first", "tag");
+		String second = storage.put("second", "tag");
+
+		assertThat(storage.get(first)).isEqualTo("first");
+
+		String third = storage.put("third", "tag");
+
+		assertThat(storage.get(second)).isNull();
+		assertThat(storage.get(first)).isEqualTo("first");
+		assertThat(storage.get(third)).isEqualTo("third");
+		assertThat(storage.size()).isEqualTo(2);
+		assertThat(storage.getEvictionCount()).isEqualTo(1);
+		assertThat(storage.getHitCount()).isEqualTo(3);
+		assertThat(storage.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testWeightEviction() {
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxWeight(10, String::length);
+
+		String first = storage.put("12345", "tag");
+		String second = storage.put("1234", "tag");
+
+		assertThat(storage.getTotalWeight()).isEqualTo(9);
+
+		String third = storage.put("12", "tag");
+
+		assertThat(storage.get(first)).isNull();
+		assertThat(storage.get(second)).isNotNull();
+		assertThat(storage.get(third)).isNotNull();
+		assertThat(storage.getTotalWeight()).isEqualTo(6);
+
+		storage.putToReserved(second, "1");
+
+		assertThat(storage.getTotalWeight()).isEqualTo(3);
+	}
+
+	@Test
+	public void testTimeToLive() {
+		AtomicLong now = new AtomicLong(0);
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withDefaultTimeToLive(10, TimeUnit.SECONDS)
+				.withTimeToLive("short", 1, TimeUnit.SECONDS).withTimeToLive("eternal", Long.MAX_VALUE, TimeUnit.MILLISECONDS).withClock(now::get);
+
+		String shortId = storage.put("short", "short");
+		String defaultId = storage.put("default", "other");
+		String eternalId = storage.put("eternal", "eternal");
+
+		now.set(999);
+		assertThat(storage.get(shortId)).isEqualTo("short");
+
+		now.set(1000);
+		assertThat(storage.get(shortId)).isNull();
+		assertThat(storage.get(defaultId)).isEqualTo("default");
+		assertThat(storage.getAll()).containsOnlyKeys(defaultId, eternalId);
+
+		now.set(10000);
+		storage.cleanUp();
+		assertThat(storage.size()).isEqualTo(1);
+		assertThat(storage.get(eternalId)).isEqualTo("eternal");
+		assertThat(storage.getExpirationCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testSpillOver() throws IOException {
+		JsonFileStorage<String> fileStorage = new JsonFileStorage<>(folder.newFolder().toPath(), "", String.class);
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxEntries(1).withSpillOver(fileStorage);
+
+		String first = storage.put("first", "tag");
+		String second = storage.put("second", "tag");
+
+		assertThat(storage.size()).isEqualTo(1);
+		assertThat(storage.getEvictionCount()).isEqualTo(1);
+		assertThat(storage.get(first)).isEqualTo("first");
+		assertThat(storage.get(second)).isEqualTo("second");
+
+		assertThat(storage.remove(first)).isTrue();
+		assertThat(storage.get(first)).isNull();
+	}
+
+	@Test
+	public void testSpillOverIsBounded() throws IOException {
+		JsonFileStorage<String> fileStorage = new JsonFileStorage<>(folder.newFolder().toPath(), "", String.class);
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxEntries(1).withSpillOver(fileStorage, 2);
+
+		String first = storage.put("first", "tag");
+		String second = storage.put("second", "tag");
+		String third = storage.put("third", "tag");
+		String fourth = storage.put("fourth", "tag");
+
+		assertThat(storage.getNumSpilled()).isEqualTo(2);
+		assertThat(fileStorage.getAll()).hasSize(2);
+		assertThat(storage.get(first)).isNull();
+		assertThat(storage.get(second)).isEqualTo("second");
+		assertThat(storage.get(third)).isEqualTo("third");
+		assertThat(storage.get(fourth)).isEqualTo("fourth");
+	}
+
+	@Test
+	public void testLeftOverSpillOverIsRemoved() throws IOException {
+		Path spillOverPath = folder.newFolder().toPath();
+
+		BoundedMemoryStorage<String> before = new BoundedMemoryStorage<>(String.class).withMaxEntries(1)
+				.withSpillOver(new JsonFileStorage<>(spillOverPath, "", String.class));
+		before.put("first", "tag");
+		before.put("second", "tag");
+
+		JsonFileStorage<String> fileStorage = new JsonFileStorage<>(spillOverPath, "", String.class);
+		assertThat(fileStorage.getAll()).hasSize(1);
+
+		new BoundedMemoryStorage<>(String.class).withMaxEntries(1).withSpillOver(fileStorage);
+
+		assertThat(fileStorage.getAll()).isEmpty();
+	}
+
+	@Test
+	public void testRemovalListener() {
+		AtomicLong now = new AtomicLong(0);
+		List<String> removed = new ArrayList<>();
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxEntries(2).withDefaultTimeToLive(1, TimeUnit.SECONDS).withClock(now::get)
+				.withRemovalListener((id, entity) -> removed.add(entity));
+
+		String first = storage.put("first", "tag");
+		storage.put("second", "tag");
+		storage.put("third", "tag");
+
+		assertThat(removed).containsExactly("first");
+
+		storage.remove(storage.put("fourth", "tag"));
+
+		assertThat(removed).containsExactly("first", "second");
+
+		now.set(1000);
+		storage.cleanUp();
+
+		assertThat(removed).containsExactly("first", "second", "third");
+		assertThat(storage.get(first)).isNull();
+		assertThat(removed).hasSize(3);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		int numThreads = 16;
+		int operationsPerThread = 20000;
+		int maxEntries = 100;
+
+		BoundedMemoryStorage<String> storage = new BoundedMemoryStorage<>(String.class).withMaxEntries(maxEntries).withMaxWeight(maxEntries * 5, String::length);
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		List<Future<Integer>> futures = new ArrayList<>();
+
+		for (int t = 0; t < numThreads; t++) {
+			String tag = "thread" + t;
+			Random random = new Random(t);
+
+			futures.add(executor.submit((Callable<Integer>) () -> {
+				List<String> ids = new ArrayList<>();
+				Map<String, String> entities = new HashMap<>();
+				int gets = 0;
+
+				for (int i = 0; i < operationsPerThread; i++) {
+					int op = random.nextInt(10);
+
+					if ((op < 4) || ids.isEmpty()) {
+						String entity = Integer.toString(i);
+						String id = storage.put(entity, tag);
+						ids.add(id);
+						entities.put(id, entity);
+					} else if (op < 9) {
+						String id = ids.get(random.nextInt(ids.size()));
+						String entity = storage.get(id);
+
+						if (entity != null) {
+							assertThat(entity).isEqualTo(entities.get(id));
+						}
+
+						gets++;
+					} else {
+						storage.remove(ids.remove(random.nextInt(ids.size())));
+					}
+				}
+
+				return gets;
+			}));
+		}
+
+		long gets = 0;
+
+		for (Future<Integer> future : futures) {
+			gets += future.get(1, TimeUnit.MINUTES);
+		}
+
+		executor.shutdown();
+
+		assertThat(storage.size()).isLessThanOrEqualTo(maxEntries);
+		assertThat(storage.getTotalWeight()).isLessThanOrEqualTo(maxEntries * 5).isEqualTo(storage.getAll().values().stream().mapToLong(String::length).sum());
+		assertThat(storage.getHitCount() + storage.getMissCount()).isEqualTo(gets);
+		assertThat(storage.getEvictionCount()).isGreaterThan(0);
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.continuity.commons.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+/**
+ * Puts 100,000 small artifacts into a {@link JsonFileStorage} and reports the time per 10,000
+ * puts, which should stay constant. Not run as part of the test suite.
+ */
+public class FileStorageBenchmark {
+
+	private static final int NUM_ARTIFACTS = 100000;
+
+	private static final int REPORT_INTERVAL = 10000;
+
+	public static void main(String[] args) throws IOException {
+		Path storagePath = Files.createTempDirectory("file-storage-benchmark");
+
+		try {
+			JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+			long start = System.nanoTime();
+
+			for (int i = 1; i <= NUM_ARTIFACTS; i++) {
+				storage.put("artifact" + i, "tag" + (i % 10));
+
+				if ((i % REPORT_INTERVAL) == 0) {
+					long now = System.nanoTime();
+					System.out.println(String.format("%d artifacts: %d ms for the last %d puts", i, (now - start) / 1000000, REPORT_INTERVAL));
+					start = now;
+				}
+			}
+
+			start = System.nanoTime();
+			JsonFileStorage<String> restarted = new JsonFileStorage<>(storagePath, "", String.class);
+			String id = restarted.put("last", "tag0");
+			System.out.println(String.format("Restarted and put %s in %d ms", id, (System.nanoTime() - start) / 1000000));
+		} finally {
+			Files.walk(storagePath).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+}
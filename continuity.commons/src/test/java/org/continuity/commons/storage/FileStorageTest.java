@@ -0,0 +1,152 @@
+package org.continuity.commons.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path storagePath;
+
+	@Before
+	public void setupStoragePath() throws IOException {
+		storagePath = folder.newFolder().toPath();
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+
+		String first = storage.put("first", "foo");
+		String second = storage.put("second", "foo");
+		String other = storage.put("other", "bar");
+
+		assertThat(first).isEqualTo("1-foo");
+		assertThat(second).isEqualTo("2-foo");
+		assertThat(other).isEqualTo("1-bar");
+		assertThat(storage.getTagForId(second)).isEqualTo("foo");
+
+		assertThat(storage.get(second)).isEqualTo("second");
+		assertThat(storage.remove(second)).isTrue();
+		assertThat(storage.get(second)).isNull();
+		assertThat(storage.remove(second)).isFalse();
+		assertThat(storage.get("3-foo")).isNull();
+
+		String reserved = storage.reserve("foo");
+		assertThat(reserved).isEqualTo("3-foo");
+		assertThat(storage.get(reserved)).isEmpty();
+
+		storage.putToReserved(reserved, "reserved");
+		assertThat(storage.get(reserved)).isEqualTo("reserved");
+	}
+
+	@Test
+	public void testRestart() {
+		JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+
+		storage.put("first", "foo");
+		String second = storage.put("second", "foo");
+		storage.remove(second);
+
+		JsonFileStorage<String> restarted = new JsonFileStorage<>(storagePath, "", String.class);
+
+		assertThat(restarted.get("1-foo")).isEqualTo("first");
+		assertThat(restarted.put("third", "foo")).as("Removed IDs must not be reused").isEqualTo("3-foo");
+		assertThat(restarted.getAll()).containsOnlyKeys("1-foo", "3-foo");
+	}
+
+	@Test
+	public void testLegacyDirectoryWithoutCounters() throws IOException {
+		Files.write(storagePath.resolve("5-foo.json"), "\"five\"".getBytes());
+		Files.write(storagePath.resolve("7-bar.json"), "\"seven\"".getBytes());
+		Files.write(storagePath.resolve("unrelated.txt"), "ignored".getBytes());
+
+		JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+
+		assertThat(storage.get("5-foo")).isEqualTo("five");
+		assertThat(storage.put("six", "foo")).isEqualTo("6-foo");
+		assertThat(storage.put("eight", "bar")).isEqualTo("8-bar");
+		assertThat(storage.put("first", "baz")).isEqualTo("1-baz");
+	}
+
+	@Test
+	public void testGetAll() {
+		JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+		Map<String, String> expected = new HashMap<>();
+
+		for (int i = 0; i < 20; i++) {
+			String entity = "entity" + i;
+			expected.put(storage.put(entity, "tag" + (i % 3)), entity);
+		}
+
+		Map<String, String> all = storage.getAll();
+
+		assertThat(all).hasSize(20).containsAllEntriesOf(expected);
+		assertThat(all.get("1-tag0")).isEqualTo("entity0");
+		assertThat(all.containsKey("100-tag0")).isFalse();
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		int numThreads = 16;
+		int putsPerThread = 100;
+
+		JsonFileStorage<String> storage = new JsonFileStorage<>(storagePath, "", String.class);
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		List<Future<Map<String, String>>> futures = new ArrayList<>();
+
+		for (int t = 0; t < numThreads; t++) {
+			String tag = "tag" + (t % 4);
+			int thread = t;
+
+			futures.add(executor.submit((Callable<Map<String, String>>) () -> {
+				Map<String, String> stored = new HashMap<>();
+
+				for (int i = 0; i < putsPerThread; i++) {
+					String entity = thread + "_" + i;
+					stored.put(storage.put(entity, tag), entity);
+				}
+
+				return stored;
+			}));
+		}
+
+		Map<String, String> expected = new HashMap<>();
+
+		for (Future<Map<String, String>> future : futures) {
+			Map<String, String> stored = future.get(1, TimeUnit.MINUTES);
+
+			for (Map.Entry<String, String> entry : stored.entrySet()) {
+				assertThat(expected.put(entry.getKey(), entry.getValue())).as("ID %s has been allocated twice", entry.getKey()).isNull();
+			}
+		}
+
+		executor.shutdown();
+
+		assertThat(expected).hasSize(numThreads * putsPerThread);
+		assertThat(storage.getAll()).isEqualTo(expected);
+
+		JsonFileStorage<String> restarted = new JsonFileStorage<>(storagePath, "", String.class);
+		assertThat(restarted.put("next", "tag0")).isEqualTo(((numThreads / 4) * putsPerThread + 1) + "-tag0");
+	}
+
+}
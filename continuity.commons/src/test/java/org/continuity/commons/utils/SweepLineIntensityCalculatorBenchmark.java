@@ -0,0 +1,44 @@
+package org.continuity.commons.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.continuity.api.entities.artifact.SimplifiedSession;
+import org.continuity.commons.utils.SweepLineIntensityCalculator.IntensitySeries;
+
+/**
+ * Measures the {@link SweepLineIntensityCalculator} for one million sessions spread over one day
+ * with a resolution of one second. Not run as part of the test suite.
+ */
+public class SweepLineIntensityCalculatorBenchmark {
+
+	private static final int NUM_SESSIONS = 1000000;
+
+	private static final long SECOND = 1000000000L;
+
+	private static final long DAY = 24 * 60 * 60 * SECOND;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		List<SimplifiedSession> sessions = new ArrayList<>(NUM_SESSIONS);
+
+		for (int i = 0; i < NUM_SESSIONS; i++) {
+			long start = (long) (random.nextDouble() * DAY);
+			long duration = (long) (random.nextDouble() * 30 * 60 * SECOND);
+			sessions.add(new SimplifiedSession(Integer.toString(i), start, start + duration));
+		}
+
+		int numRanges = (int) (DAY / SECOND);
+
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			IntensitySeries series = SweepLineIntensityCalculator.calculate(sessions, 0, SECOND, numRanges);
+			long duration = System.nanoTime() - start;
+
+			System.out.println(String.format("Round %d: %d sessions, %d ranges in %d ms (average intensity at noon: %d)", round, NUM_SESSIONS, series.size(), duration / 1000000,
+					series.getAverage(numRanges / 2)));
+		}
+	}
+
+}
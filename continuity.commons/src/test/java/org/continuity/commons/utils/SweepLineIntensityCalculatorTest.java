@@ -0,0 +1,92 @@
+package org.continuity.commons.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.Range;
+import org.continuity.api.entities.artifact.SimplifiedSession;
+import org.continuity.commons.utils.SweepLineIntensityCalculator.IntensitySeries;
+import org.junit.Test;
+
+public class SweepLineIntensityCalculatorTest {
+
+	private static final String SESSION_LOGS = "DAC0E7CAC657D59A1328DEAC1F1F9472;\"ShopGET\":1511777946984000000:1511777947595000000:/dvdstore/browse:8080:localhost:HTTP/1.1:GET:conversationId=1:<no-encoding>;\"HomeGET\":1511777963338000000:1511777963415000000:/dvdstore/home:8080:localhost:HTTP/1.1:GET:<no-query-string>:<no-encoding>\n"
+			+ "E3E4B9B4C2F1A1D6B8C7E5F4A3B2C1D0;\"HomeGET\":1511777950000000000:1511777950100000000:/dvdstore/home:8080:localhost:HTTP/1.1:GET:<no-query-string>:<no-encoding>;\"ShopGET\":1511779159657000000:1511779159856000000:/dvdstore/browse:8080:localhost:HTTP/1.1:GET:<no-query-string>:<no-encoding>";
+
+	private static final long SECOND = 1000000000L;
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void testSessionLogs() {
+		List<SimplifiedSession> sessions = SimplifiedSessionLogsDeserializer.parse(SESSION_LOGS);
+		IntensityCalculationUtils.sortSessions(sessions);
+
+		long startTime = sessions.get(0).getStartTime();
+		ArrayList<Range<Long>> ranges = IntensityCalculationUtils.calculateRanges(startTime, 1300, SECOND);
+
+		assertEqualToRangeWiseCalculation(sessions, ranges, SECOND);
+	}
+
+	@Test
+	public void testSimpleSeries() {
+		List<SimplifiedSession> sessions = Arrays.asList(new SimplifiedSession("a", 0, 19), new SimplifiedSession("b", 5, 15), new SimplifiedSession("c", 12, 30));
+
+		IntensitySeries series = SweepLineIntensityCalculator.calculate(sessions, 0, 10, 3);
+
+		assertThat(series.size()).isEqualTo(3);
+		assertThat(series.getRangeStart(2)).isEqualTo(20);
+		assertThat(series.getAverages()).containsExactly(1, 2, 1);
+		assertThat(series.getMaxima()).containsExactly(2, 3, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonConsecutiveRanges() {
+		List<Range<Long>> ranges = Arrays.asList(Range.between(0L, 10L), Range.between(20L, 30L));
+		SweepLineIntensityCalculator.calculate(new ArrayList<>(), ranges, 10);
+	}
+
+	@Test
+	public void testRandomly() {
+		for (int i = 0; i < 500; i++) {
+			long rangeLength = 1 + random.nextInt(20);
+			List<SimplifiedSession> sessions = new ArrayList<>();
+
+			for (int j = random.nextInt(50); j > 0; j--) {
+				long start = random.nextInt(300);
+				long end = random.nextInt(5) == 0 ? start : start + random.nextInt(100);
+				sessions.add(new SimplifiedSession(Integer.toString(j), start, end));
+			}
+
+			ArrayList<Range<Long>> ranges = IntensityCalculationUtils.calculateRanges(random.nextInt(50), random.nextInt(30), rangeLength);
+
+			assertEqualToRangeWiseCalculation(sessions, ranges, rangeLength);
+		}
+	}
+
+	private void assertEqualToRangeWiseCalculation(List<SimplifiedSession> sessions, List<Range<Long>> ranges, long rangeLength) {
+		IntensitySeries series = SweepLineIntensityCalculator.calculate(sessions, ranges, rangeLength);
+
+		assertThat(series.size()).isEqualTo(ranges.size());
+
+		for (int i = 0; i < ranges.size(); i++) {
+			Range<Long> range = ranges.get(i);
+			ArrayList<SimplifiedSession> sessionsInRange = new ArrayList<>();
+
+			for (SimplifiedSession session : sessions) {
+				Range<Long> sessionRange = Range.between(session.getStartTime(), session.getEndTime());
+				if (sessionRange.containsRange(range) || range.contains(session.getStartTime()) || range.contains(session.getEndTime())) {
+					sessionsInRange.add(session);
+				}
+			}
+
+			assertThat(series.getRangeStart(i)).isEqualTo(range.getMinimum());
+			assertThat(series.getAverage(i)).as("Intensity of range %s", range).isEqualTo(IntensityCalculationUtils.calculateIntensityForRange(range, sessionsInRange, rangeLength));
+		}
+	}
+
+}
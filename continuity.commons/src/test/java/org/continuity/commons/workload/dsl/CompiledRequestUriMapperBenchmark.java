@@ -0,0 +1,71 @@
+package org.continuity.commons.workload.dsl;
+
+import java.util.Random;
+
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
+import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+
+/**
+ * Compares the mapping throughput of the {@link RequestUriMapper} and the
+ * {@link CompiledRequestUriMapper} on an application with many endpoints. Not run as part of the
+ * test suite.
+ */
+public class CompiledRequestUriMapperBenchmark {
+
+	private static final int NUM_ENDPOINTS = 10000;
+
+	private static final int NUM_REQUESTS = 10000;
+
+	private static final String[] METHODS = { "GET", "POST", "PUT", "DELETE" };
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		Application application = new Application();
+
+		for (int i = 0; i < NUM_ENDPOINTS; i++) {
+			HttpEndpoint endpoint = new HttpEndpoint();
+			endpoint.setPath("/service" + (i % 100) + "/resource" + (i / 100) + (random.nextBoolean() ? "/{id}" : "/items") + "/details");
+			endpoint.setMethod(METHODS[random.nextInt(METHODS.length)]);
+			application.addEndpoint(endpoint);
+		}
+
+		String[] uris = new String[NUM_REQUESTS];
+		String[] methods = new String[NUM_REQUESTS];
+
+		for (int i = 0; i < NUM_REQUESTS; i++) {
+			int endpoint = random.nextInt(NUM_ENDPOINTS);
+			uris[i] = "/service" + (endpoint % 100) + "/resource" + (endpoint / 100) + "/" + random.nextInt(100000) + "/details";
+			methods[i] = METHODS[random.nextInt(METHODS.length)];
+		}
+
+		RequestUriMapper uriMapper = new RequestUriMapper(application);
+		CompiledRequestUriMapper compiledMapper = new CompiledRequestUriMapper(application);
+
+		for (int round = 0; round < 3; round++) {
+			long start = System.nanoTime();
+			int found = 0;
+
+			for (int i = 0; i < NUM_REQUESTS; i++) {
+				found += uriMapper.map(uris[i], methods[i]) == null ? 0 : 1;
+			}
+
+			long uriMapperNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			compiledMapper.invalidate();
+			int compiledFound = 0;
+
+			for (int i = 0; i < NUM_REQUESTS; i++) {
+				compiledFound += compiledMapper.map(uris[i], methods[i]) == null ? 0 : 1;
+			}
+
+			long compiledNanos = System.nanoTime() - start;
+
+			System.out.println(String.format("Round %d: RequestUriMapper %d ms (%d found), CompiledRequestUriMapper %d ms including compilation (%d found)", round, uriMapperNanos / 1000000,
+					found, compiledNanos / 1000000, compiledFound));
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.continuity.commons.workload.dsl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
+import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledRequestUriMapperTest {
+
+	private static final String[] METHODS = { "GET", "POST", "PUT" };
+
+	private static final String[] ENDPOINT_SEGMENTS = { "foo", "bar", "42", "{id}", "{ident}", "" };
+
+	private static final String[] REQUEST_SEGMENTS = { "foo", "bar", "42", "43", "{id}", "{}", "" };
+
+	private final Random random = new Random(42);
+
+	private Application system;
+
+	private CompiledRequestUriMapper mapper;
+
+	HttpEndpoint interf1;
+	HttpEndpoint interf2;
+	HttpEndpoint interf3;
+	HttpEndpoint interf4;
+	HttpEndpoint interf5;
+
+	@Before
+	public void setupSystemModel() {
+		system = new Application();
+
+		interf1 = endpoint("/foo/bar/42", "GET");
+		interf2 = endpoint("/a/bar", "GET");
+		interf3 = endpoint("/foo/bar", "POST");
+		interf4 = endpoint("/foo/{id}/bar", "POST");
+		interf5 = endpoint("/foo/{id}/bar", "PUT");
+
+		system.addEndpoint(interf1);
+		system.addEndpoint(interf2);
+		system.addEndpoint(interf3);
+		system.addEndpoint(interf4);
+		system.addEndpoint(interf5);
+
+		mapper = new CompiledRequestUriMapper(system);
+	}
+
+	@Test
+	public void testExactMapping() {
+		assertThat(mapper.mapExactly("/foo/bar/42", "GET")).isEqualTo(interf1);
+		assertThat(mapper.mapExactly("/a/bar/", "GET")).isEqualTo(interf2);
+		assertThat(mapper.mapExactly("foo/bar/", "POST")).isEqualTo(interf3);
+		assertThat(mapper.mapExactly("foo/{id}/bar", "POST")).isEqualTo(interf4);
+
+		assertThat(mapper.mapExactly("/foo/bar/43", "GET")).isNull();
+		assertThat(mapper.mapExactly("some/other/uri", "GET")).isNull();
+		assertThat(mapper.mapExactly("/foo/bar/{}", "GET")).isNull();
+		assertThat(mapper.mapExactly("/foo/id/bar", "GET")).isNull();
+
+		assertThat(mapper.mapExactly("foo/{id}/bar", "PUT")).isEqualTo(interf5);
+		assertThat(mapper.mapExactly("foo/{id}/bar", "GET")).isNull();
+	}
+
+	@Test
+	public void testMappingRespectingWildcards() {
+		assertThat(mapper.mapRespectingWildcards("/foo/bar/42", "GET")).isEqualTo(interf1);
+		assertThat(mapper.mapRespectingWildcards("/foo/bar/{}", "GET")).isNull();
+		assertThat(mapper.mapRespectingWildcards("/a/bar/", "GET")).isEqualTo(interf2);
+		assertThat(mapper.mapRespectingWildcards("foo/bar/", "POST")).isEqualTo(interf3);
+		assertThat(mapper.mapRespectingWildcards("foo/{id}/bar", "POST")).isEqualTo(interf4);
+
+		assertThat(mapper.mapRespectingWildcards("foo/1/bar", "POST")).isEqualTo(interf4);
+		assertThat(mapper.mapRespectingWildcards("foo/foo/bar", "POST")).isEqualTo(interf4);
+		assertThat(mapper.mapRespectingWildcards("foo/{}/bar", "POST")).isEqualTo(interf4);
+		assertThat(mapper.mapRespectingWildcards("foo/{ident}/bar", "POST")).isEqualTo(interf4);
+		assertThat(mapper.mapRespectingWildcards("foo/{id}/{}/bar/", "POST")).isNull();
+
+		assertThat(mapper.mapRespectingWildcards("foo/{id}/bar", "PUT")).isEqualTo(interf5);
+		assertThat(mapper.mapRespectingWildcards("foo/{id}/bar", "GET")).isNull();
+	}
+
+	@Test
+	public void testFirstEndpointWins() {
+		HttpEndpoint wildcard = endpoint("/foo/{id}", "GET");
+		HttpEndpoint literal = endpoint("/foo/42", "GET");
+
+		Application app = new Application();
+		app.addEndpoint(wildcard);
+		app.addEndpoint(literal);
+
+		CompiledRequestUriMapper compiled = new CompiledRequestUriMapper(app);
+
+		assertThat(compiled.mapRespectingWildcards("/foo/42", "GET")).isEqualTo(wildcard);
+		assertThat(compiled.map("/foo/42", "GET")).isEqualTo(literal);
+		assertThat(compiled.map("/foo/43", "GET")).isEqualTo(wildcard);
+	}
+
+	@Test
+	public void testDomainAndPort() {
+		HttpEndpoint first = endpoint("/foo/{id}", "GET");
+		first.setDomain("first");
+		first.setPort("8080");
+
+		HttpEndpoint second = endpoint("/foo/{id}", "GET");
+		second.setDomain("second");
+		second.setPort("8080");
+
+		Application app = new Application();
+		app.addEndpoint(first);
+		app.addEndpoint(second);
+
+		CompiledRequestUriMapper compiled = new CompiledRequestUriMapper(app);
+
+		assertThat(compiled.map("/foo/42", "GET", "first", "8080")).isEqualTo(first);
+		assertThat(compiled.map("/foo/42", "GET", "second", "8080")).isEqualTo(second);
+		assertThat(compiled.map("/foo/42", "GET", "second", null)).isEqualTo(second);
+		assertThat(compiled.map("/foo/42", "GET", null, "8080")).isEqualTo(first);
+		assertThat(compiled.map("/foo/42", "GET", "second", "8081")).isNull();
+		assertThat(compiled.map("/foo/{id}", "GET", "third", null)).isNull();
+	}
+
+	@Test
+	public void testInvalidation() {
+		assertThat(mapper.map("/new/42", "GET")).isNull();
+
+		HttpEndpoint newEndpoint = endpoint("/new/{id}", "GET");
+		system.addEndpoint(newEndpoint);
+
+		mapper.invalidate();
+		assertThat(mapper.map("/new/42", "GET")).isEqualTo(newEndpoint);
+	}
+
+	@Test
+	public void testAgainstRequestUriMapper() {
+		for (int i = 0; i < 200; i++) {
+			Application app = new Application();
+			int numEndpoints = random.nextInt(50);
+
+			for (int j = 0; j < numEndpoints; j++) {
+				app.addEndpoint(endpoint(randomPath(ENDPOINT_SEGMENTS), randomMethod()));
+			}
+
+			RequestUriMapper expected = new RequestUriMapper(app);
+			CompiledRequestUriMapper compiled = new CompiledRequestUriMapper(app);
+
+			for (int j = 0; j < 100; j++) {
+				String uri = randomPath(REQUEST_SEGMENTS);
+				String method = randomMethod();
+
+				assertThat(compiled.mapExactly(uri, method)).as("Exact mapping of %s %s", method, uri).isSameAs(expected.mapExactly(uri, method));
+				assertThat(compiled.mapRespectingWildcards(uri, method)).as("Wildcard mapping of %s %s", method, uri)
+						.isSameAs(expected.mapRespectingWildcards(uri, method));
+				assertThat(compiled.map(uri, method)).as("Mapping of %s %s", method, uri).isSameAs(expected.map(uri, method));
+			}
+		}
+	}
+
+	private HttpEndpoint endpoint(String path, String method) {
+		HttpEndpoint endpoint = new HttpEndpoint();
+		endpoint.setPath(path);
+		endpoint.setMethod(method);
+		return endpoint;
+	}
+
+	private String randomMethod() {
+		return METHODS[random.nextInt(METHODS.length)];
+	}
+
+	private String randomPath(String[] segments) {
+		StringBuilder path = new StringBuilder();
+
+		if (random.nextBoolean()) {
+			path.append("/");
+		}
+
+		int length = random.nextInt(5);
+
+		for (int i = 0; i < length; i++) {
+			if (i > 0) {
+				path.append("/");
+			}
+
+			path.append(segments[random.nextInt(segments.length)]);
+		}
+
+		if (random.nextBoolean()) {
+			path.append("/");
+		}
+
+		return path.toString();
+	}
+
+}
@@ -3,6 +3,7 @@ package org.continuity.forecast.amqp;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.math3.util.Pair;
 import org.continuity.api.amqp.AmqpApi;
@@ -18,8 +19,11 @@ import org.continuity.forecast.config.RabbitMqConfig;
 import org.continuity.forecast.controllers.ForecastController;
 import org.continuity.forecast.managers.ForecastPipelineManager;
 import org.continuity.forecast.managers.IntensitiesPipelineManager;
-import org.influxdb.InfluxDB;
-import org.influxdb.InfluxDBFactory;
+import org.continuity.forecast.timeseries.BooleanCovariates;
+import org.continuity.forecast.timeseries.GapFill;
+import org.continuity.forecast.timeseries.Resampling;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.TimeSeriesBackendProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.AmqpTemplate;
@@ -52,9 +56,24 @@ public class ForecastAmqpHandler {
 	@Autowired
 	private ConcurrentHashMap<String, Pair<Date, Integer>> dateAndAmountOfUsersStorage;
 
+	@Autowired
+	private ExecutorService forecastExecutor;
+
+	@Autowired
+	private TimeSeriesBackendProvider timeSeriesBackendProvider;
+
 	@Value("${spring.application.name}")
 	private String applicationName;
 
+	@Value("${forecast.covariates.resampling:LAST}")
+	private Resampling covariateResampling;
+
+	@Value("${forecast.covariates.gap-fill:ZERO}")
+	private GapFill covariateGapFill;
+
+	@Value("${forecast.covariates.booleans:EVENTS}")
+	private BooleanCovariates booleanCovariates;
+
 	/**
 	 * Listener to the RabbitMQ {@link RabbitMqConfig#TASK_CREATE_QUEUE_NAME}. Creates a forecast bundle based on sessions.
 	 *
@@ -77,21 +96,21 @@ public class ForecastAmqpHandler {
 			LOGGER.error("Task {}: Link to sessions is missing for tag {}!", task.getTaskId(), task.getTag());
 			report = TaskReport.error(task.getTaskId(), TaskError.MISSING_SOURCE);
 		} else {
-			InfluxDB influxDb = InfluxDBFactory.connect(task.getForecastInput().getForecastOptions().getInfluxLink(), "admin", "admin");
+			TimeSeriesBackend backend = timeSeriesBackendProvider.get(task.getForecastInput().getForecastOptions().getInfluxLink());
 			
 			boolean statusChanged = task.getSource().getSessionsBundlesLinks().getStatus().equals(SessionsStatus.CHANGED) ? true : false;
 			
 			// calculate new intensities
 			if(statusChanged) {
-				IntensitiesPipelineManager intensitiesPipelineManager = new IntensitiesPipelineManager(restTemplate, influxDb, task.getTag(), task.getForecastInput());
+				IntensitiesPipelineManager intensitiesPipelineManager = new IntensitiesPipelineManager(restTemplate, backend, task.getTag(), task.getForecastInput());
 				intensitiesPipelineManager.runPipeline(linkToSessions);
 				Pair<Date, Integer> dateAndAmountOfUserGroups = intensitiesPipelineManager.getDateAndAmountOfUserGroups();
 				dateAndAmountOfUsersStorage.put(pathParams.get(0), dateAndAmountOfUserGroups);
 			} 
 			
-			ForecastPipelineManager pipelineManager = new ForecastPipelineManager(influxDb, task.getTag(), task.getForecastInput());
+			ForecastPipelineManager pipelineManager = new ForecastPipelineManager(backend, task.getTag(), task.getForecastInput(), forecastExecutor, covariateResampling, covariateGapFill,
+					booleanCovariates);
 			ForecastBundle forecastBundle = pipelineManager.runPipeline(dateAndAmountOfUsersStorage.get(pathParams.get(0)));
-			influxDb.close();
 
 			if (forecastBundle == null) {
 				LOGGER.info("Task {}: Could not create forecast for tag '{}'.", task.getTaskId(), task.getTag());
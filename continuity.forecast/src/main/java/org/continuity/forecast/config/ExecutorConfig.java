@@ -0,0 +1,27 @@
+package org.continuity.forecast.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the executor used for forecasting the user groups in parallel. The number of
+ * threads as well as the queue are bounded. If the queue is full, the submitting thread executes
+ * the forecast itself.
+ */
+@Configuration
+public class ExecutorConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService forecastExecutor(@Value("${forecast.threads:0}") int numThreads, @Value("${forecast.queue-size:1000}") int queueSize) {
+		int threads = (numThreads > 0) ? numThreads : Runtime.getRuntime().availableProcessors();
+
+		return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+}
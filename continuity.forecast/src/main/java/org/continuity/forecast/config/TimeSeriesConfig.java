@@ -0,0 +1,76 @@
+package org.continuity.forecast.config;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.forecast.influx.InfluxBackend;
+import org.continuity.forecast.influx.InfluxHttpClient;
+import org.continuity.forecast.managers.CovariateDataManager;
+import org.continuity.forecast.timeseries.BooleanCovariates;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.TimeSeriesBackendProvider;
+import org.continuity.forecast.timeseries.embedded.EmbeddedTimeSeriesStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configures the backend storing the intensities and covariates. By default, an
+ * {@link EmbeddedTimeSeriesStore} below the storage path is used, so that no InfluxDB is
+ * required. With {@code timeseries.backend=influx}, the InfluxDB specified in the forecast
+ * options or, if not specified, by {@code influx.url} is used. <br>
+ *
+ * The chunks written to InfluxDB are written by a bounded number of threads. Each write
+ * additionally limits the number of its chunks in flight, so that the queue of the executor is
+ * bounded as well. <br>
+ *
+ * The intensities are written to InfluxDB as integers, as in previous versions. Boolean covariates
+ * are written as strings or, with {@code forecast.covariates.booleans=NUMERIC}, as numbers.
+ * Previous versions wrote them as booleans, which are still read, but InfluxDB rejects new values
+ * for these measurements. Hence, boolean covariates written by previous versions have to be
+ * dropped (e.g., {@code DROP MEASUREMENT "holiday"}) and submitted again.
+ */
+@Configuration
+public class TimeSeriesConfig {
+
+	private static final String INFLUX = "influx";
+
+	@Bean(destroyMethod = "close")
+	public EmbeddedTimeSeriesStore embeddedTimeSeriesStore(@Value("${storage.path:storage}") String storagePath) {
+		return new EmbeddedTimeSeriesStore(Paths.get(storagePath).resolve("timeseries"));
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService influxWriteExecutor(@Value("${influx.write.threads:4}") int numThreads) {
+		return new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+	}
+
+	@Bean
+	public TimeSeriesBackendProvider timeSeriesBackendProvider(@Value("${timeseries.backend:embedded}") String backend, EmbeddedTimeSeriesStore embeddedTimeSeriesStore,
+			@Qualifier("influxWriteExecutor") ExecutorService influxWriteExecutor, @Value("${influx.url:http://127.0.0.1:8086}") String defaultUrl,
+			@Value("${influx.user:admin}") String user, @Value("${influx.password:admin}") String password, @Value("${influx.write.chunk-size:5000}") int chunkSize,
+			@Value("${influx.write.max-chunks-in-flight:8}") int maxChunksInFlight) {
+		if (!INFLUX.equalsIgnoreCase(backend)) {
+			return influxLink -> embeddedTimeSeriesStore;
+		}
+
+		RestTemplate restTemplate = new RestTemplate();
+		ConcurrentMap<String, TimeSeriesBackend> backends = new ConcurrentHashMap<>();
+
+		return influxLink -> backends.computeIfAbsent(influxLink == null ? defaultUrl : influxLink,
+				url -> new InfluxBackend(new InfluxHttpClient(restTemplate, url, user, password), influxWriteExecutor, chunkSize, maxChunksInFlight));
+	}
+
+	@Bean
+	public CovariateDataManager covariateDataManager(TimeSeriesBackendProvider timeSeriesBackendProvider, @Value("${forecast.covariates.booleans:EVENTS}") BooleanCovariates booleans) {
+		return new CovariateDataManager(timeSeriesBackendProvider.get(null), booleans);
+	}
+
+}
@@ -5,10 +5,10 @@ import static org.continuity.api.rest.RestApi.Forecast.Context.Paths.SUBMIT;
 
 import org.continuity.forecast.context.CovariateData;
 import org.continuity.forecast.managers.CovariateDataManager;
-import org.influxdb.InfluxDB;
-import org.influxdb.InfluxDBFactory;
+import org.continuity.forecast.timeseries.WriteReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -27,13 +27,21 @@ public class ContextController {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ContextController.class);
 
+	@Autowired
+	private CovariateDataManager manager;
+
+	/**
+	 * Writes the covariate data to the time series backend.
+	 *
+	 * @param covarData
+	 *            The covariate data.
+	 * @return A report holding the number of written values and the latency of each batch. The
+	 *         status is 500 (internal server error) if not all batches could be written.
+	 */
 	@RequestMapping(value = SUBMIT, method = RequestMethod.POST)
-	public ResponseEntity<String> getData(@RequestBody CovariateData covarData) {
+	public ResponseEntity<WriteReport> getData(@RequestBody CovariateData covarData) {
 		LOGGER.info("Received new order to process");
-		InfluxDB influxDb = InfluxDBFactory.connect("http://127.0.0.1:8086", "admin", "admin");
-		CovariateDataManager manager = new CovariateDataManager(influxDb);
-		manager.handleOrder(covarData);
-		influxDb.close();
-		return new ResponseEntity<String>(covarData.toString(), HttpStatus.OK);
+		WriteReport report = manager.handleOrder(covarData);
+		return new ResponseEntity<>(report, report.isSuccessful() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 }
@@ -0,0 +1,320 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
+
+/**
+ * ARIMA forecaster. The series is differenced once and, if it is seasonal, additionally
+ * differenced at the season length. The ARMA(p, q) model of the differenced series is fitted with
+ * the Hannan-Rissanen procedure, i.e., two ordinary least squares regressions: a long
+ * autoregression estimates the innovations, which are then used as regressors for the moving
+ * average part. The orders p and q are selected by AIC.
+ */
+public class ArimaForecaster implements Forecaster {
+
+	private static final int MAX_AR_ORDER = 3;
+
+	private static final int MAX_MA_ORDER = 2;
+
+	private static final int MAX_LONG_AR_ORDER = 20;
+
+	private final int seasonLength;
+
+	/**
+	 * Creates a forecaster with a fixed season length.
+	 *
+	 * @param seasonLength
+	 *            The number of intensities per season. 1 for a non-seasonal model.
+	 */
+	public ArimaForecaster(int seasonLength) {
+		this.seasonLength = seasonLength;
+	}
+
+	/**
+	 * Creates a forecaster detecting the season length via {@link Seasonality}.
+	 */
+	public ArimaForecaster() {
+		this(0);
+	}
+
+	@Override
+	public double[] forecast(HistoricalIntensities history, int size) {
+		double[] series = history.getIntensitiesAsArray();
+
+		if (series.length < 3) {
+			return new SeasonalNaiveForecaster(1).forecast(history, size);
+		}
+
+		int season = (seasonLength > 0) ? seasonLength : Seasonality.detect(series, history.getIntervalMillis());
+
+		List<Integer> lags = new ArrayList<>();
+		List<double[]> stages = new ArrayList<>();
+		double[] differenced = series;
+
+		if ((season > 1) && ((series.length - season) > (2 * MAX_LONG_AR_ORDER))) {
+			stages.add(differenced);
+			lags.add(season);
+			differenced = difference(differenced, season);
+		}
+
+		stages.add(differenced);
+		lags.add(1);
+		differenced = difference(differenced, 1);
+
+		double[] forecast = forecastArma(differenced, size);
+
+		for (int i = lags.size() - 1; i >= 0; i--) {
+			forecast = integrate(stages.get(i), forecast, lags.get(i));
+		}
+
+		return forecast;
+	}
+
+	private double[] forecastArma(double[] series, int size) {
+		ArmaModel best = null;
+
+		if (series.length > 10) {
+			double[] innovations = estimateInnovations(series);
+
+			for (int p = 0; p <= MAX_AR_ORDER; p++) {
+				for (int q = 0; q <= MAX_MA_ORDER; q++) {
+					ArmaModel model = ArmaModel.fit(series, innovations, p, q);
+
+					if ((model != null) && ((best == null) || (model.aic < best.aic))) {
+						best = model;
+					}
+				}
+			}
+		}
+
+		if (best == null) {
+			best = ArmaModel.mean(series);
+		}
+
+		return best.forecast(series, size);
+	}
+
+	/**
+	 * Estimates the innovations by the residuals of a long autoregression.
+	 */
+	private double[] estimateInnovations(double[] series) {
+		int order = Math.min(MAX_LONG_AR_ORDER, series.length / 4);
+		double[] innovations = new double[series.length];
+
+		if (order == 0) {
+			return innovations;
+		}
+
+		int n = series.length - order;
+		double[] y = new double[n];
+		double[][] x = new double[n][order];
+
+		for (int t = order; t < series.length; t++) {
+			y[t - order] = series[t];
+
+			for (int i = 0; i < order; i++) {
+				x[t - order][i] = series[t - 1 - i];
+			}
+		}
+
+		try {
+			OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+			regression.newSampleData(y, x);
+			double[] residuals = regression.estimateResiduals();
+			System.arraycopy(residuals, 0, innovations, order, residuals.length);
+		} catch (MathIllegalArgumentException e) {
+			// Constant series; the innovations are 0
+		}
+
+		return innovations;
+	}
+
+	private static double[] difference(double[] series, int lag) {
+		double[] differenced = new double[series.length - lag];
+
+		for (int t = lag; t < series.length; t++) {
+			differenced[t - lag] = series[t] - series[t - lag];
+		}
+
+		return differenced;
+	}
+
+	/**
+	 * Reverts a difference for the forecasted values.
+	 *
+	 * @param original
+	 *            The series before differencing.
+	 * @param differencedForecast
+	 *            The forecast of the differenced series.
+	 * @param lag
+	 *            The lag of the difference.
+	 * @return The forecast of the original series.
+	 */
+	private static double[] integrate(double[] original, double[] differencedForecast, int lag) {
+		double[] extended = Arrays.copyOf(original, original.length + differencedForecast.length);
+
+		for (int h = 0; h < differencedForecast.length; h++) {
+			int t = original.length + h;
+			extended[t] = differencedForecast[h] + extended[t - lag];
+		}
+
+		return Arrays.copyOfRange(extended, original.length, extended.length);
+	}
+
+	/**
+	 * An ARMA(p, q) model with intercept.
+	 */
+	private static class ArmaModel {
+
+		private final int p;
+
+		private final int q;
+
+		private final double intercept;
+
+		private final double[] ar;
+
+		private final double[] ma;
+
+		private final double aic;
+
+		private ArmaModel(int p, int q, double intercept, double[] ar, double[] ma, double aic) {
+			this.p = p;
+			this.q = q;
+			this.intercept = intercept;
+			this.ar = ar;
+			this.ma = ma;
+			this.aic = aic;
+		}
+
+		private static ArmaModel mean(double[] series) {
+			double sum = 0;
+
+			for (double value : series) {
+				sum += value;
+			}
+
+			return new ArmaModel(0, 0, (series.length == 0) ? 0 : sum / series.length, new double[0], new double[0], Double.POSITIVE_INFINITY);
+		}
+
+		/**
+		 * Fits the model by regressing on the lagged values and the lagged innovations.
+		 *
+		 * @return The model or {@code null} if it cannot be fitted.
+		 */
+		private static ArmaModel fit(double[] series, double[] innovations, int p, int q) {
+			int start = Math.min(MAX_LONG_AR_ORDER, series.length / 4) + Math.max(MAX_AR_ORDER, MAX_MA_ORDER);
+			int n = series.length - start;
+			int numRegressors = p + q;
+
+			if (n <= (numRegressors + 2)) {
+				return null;
+			}
+
+			double[] y = new double[n];
+			double[][] x = new double[n][Math.max(1, numRegressors)];
+
+			for (int t = start; t < series.length; t++) {
+				y[t - start] = series[t];
+
+				for (int i = 0; i < p; i++) {
+					x[t - start][i] = series[t - 1 - i];
+				}
+
+				for (int j = 0; j < q; j++) {
+					x[t - start][p + j] = innovations[t - 1 - j];
+				}
+			}
+
+			double intercept;
+			double[] coefficients;
+			double rss;
+
+			try {
+				if (numRegressors == 0) {
+					ArmaModel mean = mean(Arrays.copyOfRange(series, start, series.length));
+					intercept = mean.intercept;
+					coefficients = new double[0];
+					rss = 0;
+
+					for (double value : y) {
+						rss += (value - intercept) * (value - intercept);
+					}
+				} else {
+					OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+					regression.newSampleData(y, x);
+					double[] parameters = regression.estimateRegressionParameters();
+					intercept = parameters[0];
+					coefficients = Arrays.copyOfRange(parameters, 1, parameters.length);
+					rss = regression.calculateResidualSumOfSquares();
+				}
+			} catch (MathIllegalArgumentException e) {
+				return null;
+			}
+
+			double[] ma = Arrays.copyOfRange(coefficients, p, p + q);
+
+			if (!isInvertible(ma)) {
+				return null;
+			}
+
+			double aic = (n * Math.log(Math.max(rss, Double.MIN_NORMAL) / n)) + (2 * (numRegressors + 1));
+
+			return new ArmaModel(p, q, intercept, Arrays.copyOfRange(coefficients, 0, p), ma, aic);
+		}
+
+		/**
+		 * Checks whether the roots of 1 + ma[0] z + ma[1] z^2 lie outside the unit circle.
+		 * Otherwise, the recursively calculated innovations would explode.
+		 */
+		private static boolean isInvertible(double[] ma) {
+			if (ma.length == 0) {
+				return true;
+			} else if (ma.length == 1) {
+				return Math.abs(ma[0]) < 1;
+			} else {
+				return (Math.abs(ma[1]) < 1) && ((ma[0] + ma[1]) > -1) && ((ma[0] - ma[1]) < 1);
+			}
+		}
+
+		/**
+		 * Forecasts the series recursively. The innovations of the past are the one-step-ahead
+		 * errors of the model; the future innovations are 0.
+		 */
+		private double[] forecast(double[] series, int size) {
+			int n = series.length;
+			double[] values = Arrays.copyOf(series, n + size);
+			double[] errors = new double[n + size];
+
+			for (int t = 0; t < (n + size); t++) {
+				double prediction = intercept;
+
+				for (int i = 0; i < p; i++) {
+					if ((t - 1 - i) >= 0) {
+						prediction += ar[i] * values[t - 1 - i];
+					}
+				}
+
+				for (int j = 0; j < q; j++) {
+					if ((t - 1 - j) >= 0) {
+						prediction += ma[j] * errors[t - 1 - j];
+					}
+				}
+
+				if (t < n) {
+					errors[t] = (t < Math.max(p, q)) ? 0 : values[t] - prediction;
+				} else {
+					values[t] = prediction;
+				}
+			}
+
+			return Arrays.copyOfRange(values, n, n + size);
+		}
+
+	}
+
+}
@@ -0,0 +1,20 @@
+package org.continuity.forecast.forecaster;
+
+/**
+ * Forecasts the workload intensities of a single user group. Implementations need to be
+ * thread-safe, as the user groups are forecasted in parallel.
+ */
+public interface Forecaster {
+
+	/**
+	 * Forecasts the intensities following the historical ones.
+	 *
+	 * @param history
+	 *            The historical intensities and covariates.
+	 * @param size
+	 *            The number of intensities to be forecasted.
+	 * @return The forecasted intensities. The length of the array is {@code size}.
+	 */
+	double[] forecast(HistoricalIntensities history, int size);
+
+}
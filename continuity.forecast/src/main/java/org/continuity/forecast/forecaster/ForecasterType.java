@@ -0,0 +1,58 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The available forecasters. The forecaster is selected by the {@code forecaster} of the
+ * forecast options, ignoring case, hyphens and underscores, e.g., {@code holt-winters}.
+ */
+public enum ForecasterType {
+
+	TELESCOPE(TelescopeForecaster::new), PROPHET(ProphetForecaster::new), HOLT_WINTERS(HoltWintersForecaster::new), SEASONAL_NAIVE(SeasonalNaiveForecaster::new), ARIMA(
+			ArimaForecaster::new);
+
+	private static final Map<String, ForecasterType> normalizedNameToType = new HashMap<>();
+
+	static {
+		for (ForecasterType type : values()) {
+			normalizedNameToType.put(normalize(type.name()), type);
+		}
+	}
+
+	private final Supplier<Forecaster> constructor;
+
+	private ForecasterType(Supplier<Forecaster> constructor) {
+		this.constructor = constructor;
+	}
+
+	/**
+	 * Gets the type with the specified name.
+	 *
+	 * @param name
+	 *            The name, e.g., {@code Telescope} or {@code holt-winters}.
+	 * @return The type or {@code null} if there is no such type.
+	 */
+	public static ForecasterType fromName(String name) {
+		if (name == null) {
+			return null;
+		}
+
+		return normalizedNameToType.get(normalize(name));
+	}
+
+	private static String normalize(String name) {
+		return name.replace("-", "").replace("_", "").toLowerCase();
+	}
+
+	/**
+	 * Creates a new forecaster of this type.
+	 *
+	 * @return The forecaster.
+	 */
+	public Forecaster createForecaster() {
+		return constructor.get();
+	}
+
+}
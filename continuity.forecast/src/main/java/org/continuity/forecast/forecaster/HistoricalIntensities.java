@@ -0,0 +1,111 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.math3.util.Pair;
+
+/**
+ * The historical intensities of a user group, which are the input to a {@link Forecaster}.
+ * Optionally holds historical and future covariates. Forecasters not supporting covariates
+ * ignore them.
+ */
+public class HistoricalIntensities {
+
+	private final List<Long> timestamps;
+
+	private final List<Double> intensities;
+
+	private final long intervalMillis;
+
+	private final List<Pair<String, double[]>> historicalCovariates;
+
+	private final List<Pair<String, double[]>> futureCovariates;
+
+	/**
+	 * Creates an instance.
+	 *
+	 * @param timestamps
+	 *            The timestamps of the intensities in milliseconds.
+	 * @param intensities
+	 *            The intensities.
+	 * @param intervalMillis
+	 *            The interval between two intensities in milliseconds.
+	 * @param historicalCovariates
+	 *            The covariates at the timestamps of the intensities, e.g., as aligned by the
+	 *            {@link org.continuity.forecast.timeseries.TimeSeriesAligner}.
+	 * @param futureCovariates
+	 *            The covariates at the timestamps to be forecasted. The order needs to match the
+	 *            historical covariates.
+	 */
+	public HistoricalIntensities(List<Long> timestamps, List<Double> intensities, long intervalMillis, List<Pair<String, double[]>> historicalCovariates,
+			List<Pair<String, double[]>> futureCovariates) {
+		if (timestamps.size() != intensities.size()) {
+			throw new IllegalArgumentException("There are " + timestamps.size() + " timestamps but " + intensities.size() + " intensities!");
+		}
+
+		this.timestamps = timestamps;
+		this.intensities = intensities;
+		this.intervalMillis = intervalMillis;
+		this.historicalCovariates = historicalCovariates;
+		this.futureCovariates = futureCovariates;
+	}
+
+	/**
+	 * Creates an instance without covariates.
+	 *
+	 * @param timestamps
+	 *            The timestamps of the intensities in milliseconds.
+	 * @param intensities
+	 *            The intensities.
+	 * @param intervalMillis
+	 *            The interval between two intensities in milliseconds.
+	 */
+	public HistoricalIntensities(List<Long> timestamps, List<Double> intensities, long intervalMillis) {
+		this(timestamps, intensities, intervalMillis, Collections.emptyList(), Collections.emptyList());
+	}
+
+	public List<Long> getTimestamps() {
+		return timestamps;
+	}
+
+	public List<Double> getIntensities() {
+		return intensities;
+	}
+
+	/**
+	 * Gets the intensities as primitive array.
+	 *
+	 * @return A new array holding the intensities.
+	 */
+	public double[] getIntensitiesAsArray() {
+		double[] array = new double[intensities.size()];
+
+		for (int i = 0; i < array.length; i++) {
+			array[i] = intensities.get(i);
+		}
+
+		return array;
+	}
+
+	public long getIntervalMillis() {
+		return intervalMillis;
+	}
+
+	public List<Pair<String, double[]>> getHistoricalCovariates() {
+		return historicalCovariates;
+	}
+
+	public List<Pair<String, double[]>> getFutureCovariates() {
+		return futureCovariates;
+	}
+
+	public boolean hasCovariates() {
+		return !historicalCovariates.isEmpty();
+	}
+
+	public int size() {
+		return intensities.size();
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.continuity.forecast.forecaster;
+
+import org.apache.commons.math3.analysis.MultivariateFunction;
+import org.apache.commons.math3.optim.InitialGuess;
+import org.apache.commons.math3.optim.MaxEval;
+import org.apache.commons.math3.optim.PointValuePair;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.math3.optim.nonlinear.scalar.ObjectiveFunction;
+import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.NelderMeadSimplex;
+import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing). The smoothing parameters are fitted by
+ * minimizing the squared one-step-ahead errors with a Nelder-Mead simplex. If the series is not
+ * seasonal or shorter than two seasons, the seasonal component is omitted (Holt's linear
+ * method).
+ */
+public class HoltWintersForecaster implements Forecaster {
+
+	private static final int MAX_EVALUATIONS = 2000;
+
+	private final int seasonLength;
+
+	/**
+	 * Creates a forecaster with a fixed season length.
+	 *
+	 * @param seasonLength
+	 *            The number of intensities per season.
+	 */
+	public HoltWintersForecaster(int seasonLength) {
+		this.seasonLength = seasonLength;
+	}
+
+	/**
+	 * Creates a forecaster detecting the season length via {@link Seasonality}.
+	 */
+	public HoltWintersForecaster() {
+		this(0);
+	}
+
+	@Override
+	public double[] forecast(HistoricalIntensities history, int size) {
+		double[] series = history.getIntensitiesAsArray();
+
+		if (series.length < 3) {
+			return new SeasonalNaiveForecaster(1).forecast(history, size);
+		}
+
+		int season = (seasonLength > 0) ? seasonLength : Seasonality.detect(series, history.getIntervalMillis());
+
+		if (series.length < (2 * season)) {
+			season = 1;
+		}
+
+		Model model = fit(series, season);
+		return model.forecast(size);
+	}
+
+	private Model fit(double[] series, int season) {
+		boolean seasonal = season > 1;
+
+		MultivariateFunction sse = point -> new Model(series, season, logistic(point[0]), logistic(point[1]), seasonal ? logistic(point[2]) : 0).sse;
+
+		double[] initial = seasonal ? new double[] { logit(0.3), logit(0.1), logit(0.1) } : new double[] { logit(0.3), logit(0.1) };
+
+		SimplexOptimizer optimizer = new SimplexOptimizer(1e-8, 1e-10);
+		PointValuePair optimum = optimizer.optimize(new MaxEval(MAX_EVALUATIONS), new ObjectiveFunction(sse), GoalType.MINIMIZE, new InitialGuess(initial),
+				new NelderMeadSimplex(initial.length));
+
+		double[] point = optimum.getPoint();
+		return new Model(series, season, logistic(point[0]), logistic(point[1]), seasonal ? logistic(point[2]) : 0);
+	}
+
+	/**
+	 * Maps the unbounded search space of the optimizer to (0, 1).
+	 */
+	private static double logistic(double x) {
+		return 1 / (1 + Math.exp(-x));
+	}
+
+	private static double logit(double p) {
+		return Math.log(p / (1 - p));
+	}
+
+	/**
+	 * The smoothed components after passing the whole series.
+	 */
+	private static class Model {
+
+		private final int season;
+
+		private double level;
+
+		private double trend;
+
+		private final double[] seasonals;
+
+		/**
+		 * The index of the seasonal component of the value following the series.
+		 */
+		private final int offset;
+
+		private double sse = 0;
+
+		private Model(double[] series, int season, double alpha, double beta, double gamma) {
+			this.season = season;
+			this.seasonals = new double[season];
+
+			int start;
+
+			if (season > 1) {
+				double firstMean = mean(series, 0, season);
+				double secondMean = mean(series, season, 2 * season);
+
+				level = firstMean;
+				trend = (secondMean - firstMean) / season;
+
+				for (int i = 0; i < season; i++) {
+					seasonals[i] = series[i] - firstMean;
+				}
+
+				start = season;
+			} else {
+				level = series[0];
+				trend = series[1] - series[0];
+				start = 1;
+			}
+
+			for (int t = start; t < series.length; t++) {
+				int s = t % season;
+				double seasonal = seasonals[s];
+				double error = series[t] - (level + trend + seasonal);
+				sse += error * error;
+
+				double previousLevel = level;
+				level = (alpha * (series[t] - seasonal)) + ((1 - alpha) * (level + trend));
+				trend = (beta * (level - previousLevel)) + ((1 - beta) * trend);
+
+				if (season > 1) {
+					seasonals[s] = (gamma * (series[t] - level)) + ((1 - gamma) * seasonal);
+				}
+			}
+
+			this.offset = series.length % season;
+		}
+
+		private double[] forecast(int size) {
+			double[] forecast = new double[size];
+
+			for (int h = 0; h < size; h++) {
+				forecast[h] = level + ((h + 1) * trend) + seasonals[(offset + h) % season];
+			}
+
+			return forecast;
+		}
+
+		private static double mean(double[] series, int from, int to) {
+			double sum = 0;
+
+			for (int i = from; i < to; i++) {
+				sum += series[i];
+			}
+
+			return sum / (to - from);
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.continuity.forecast.forecaster;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.apache.commons.math3.util.Pair;
+import org.rosuda.JRI.Rengine;
+
+/**
+ * Forecasts with Prophet running in R.
+ */
+public class ProphetForecaster extends RForecaster {
+
+	/**
+	 * Initializes Prophet.
+	 *
+	 * @param re
+	 */
+	@Override
+	protected void initialize(Rengine re) {
+		re.eval("library(prophet)");
+	}
+
+	/**
+	 * Passes intensities dataset and covariates to Prophet which does the forecasting.
+	 *
+	 * @param history
+	 * @param size
+	 * @param re
+	 * @return
+	 */
+	@Override
+	protected double[] forecast(HistoricalIntensities history, int size, Rengine re) {
+		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+		sdf.setTimeZone(TimeZone.getDefault());
+
+		String[] dates = new String[history.size()];
+		int i = 0;
+		for (long timestamp : history.getTimestamps()) {
+			dates[i++] = sdf.format(new Date(timestamp));
+		}
+
+		double[] intensities = history.getIntensitiesAsArray();
+		List<Pair<String, double[]>> covariates = history.getHistoricalCovariates();
+		List<Pair<String, double[]>> futureCovariates = history.getFutureCovariates();
+
+		re.assign("dates", dates);
+		re.assign("intensities", intensities);
+
+		re.eval("source(\"prophet/InitializeVariables.R\")");
+
+		if (!covariates.isEmpty()) {
+			for (Pair<String, double[]> covariate : covariates) {
+				re.assign("values", covariate.getValue());
+				re.assign("covarname", covariate.getKey());
+				re.eval("source(\"prophet/AddRegressors.R\")");
+			}
+		}
+
+		String period = Integer.toString(size);
+		re.assign("period", period);
+
+		re.eval("source(\"prophet/FitModelAndCreateFutureDataframe.R\")");
+
+		if (!covariates.isEmpty()) {
+			int x = 0;
+			for (Pair<String, double[]> covariate : covariates) {
+				double[] historical = covariate.getValue();
+				double[] future = futureCovariates.get(x).getValue();
+				double[] values = Arrays.copyOf(historical, historical.length + future.length);
+				System.arraycopy(future, 0, values, historical.length, future.length);
+				re.assign("values", values);
+				re.assign("covarname", covariate.getKey());
+				re.eval("source(\"prophet/ExtendFutureDataframe.R\")");
+				x++;
+			}
+		}
+
+		re.eval("source(\"prophet/ForecastProphet.R\")");
+
+		return re.eval("forecastValues").asDoubleArray();
+	}
+
+}
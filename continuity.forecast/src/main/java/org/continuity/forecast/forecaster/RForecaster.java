@@ -0,0 +1,65 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.rosuda.JRI.Rengine;
+
+/**
+ * Base class for forecasters using the embedded R engine. There is only one R engine per JVM,
+ * which is not thread-safe. Hence, all forecasts are executed sequentially.
+ */
+public abstract class RForecaster implements Forecaster {
+
+	private static final Object LOCK = new Object();
+
+	private static final Set<Class<?>> INITIALIZED = new HashSet<>();
+
+	@Override
+	public double[] forecast(HistoricalIntensities history, int size) {
+		synchronized (LOCK) {
+			Rengine re = initializeRengine();
+
+			if (INITIALIZED.add(getClass())) {
+				initialize(re);
+			}
+
+			return forecast(history, size, re);
+		}
+	}
+
+	/**
+	 * Initializes the R engine for the forecaster, e.g., by loading libraries. Is called once per
+	 * forecaster class.
+	 *
+	 * @param re
+	 */
+	protected abstract void initialize(Rengine re);
+
+	/**
+	 * Forecasts the intensities. The caller holds the lock of the R engine.
+	 *
+	 * @param history
+	 * @param size
+	 * @param re
+	 * @return
+	 */
+	protected abstract double[] forecast(HistoricalIntensities history, int size, Rengine re);
+
+	/**
+	 * Initializes Rengine.
+	 *
+	 * @return
+	 */
+	private Rengine initializeRengine() {
+		String newargs1[] = { "--no-save" };
+
+		Rengine re = Rengine.getMainEngine();
+		if (re == null) {
+			re = new Rengine(newargs1, false, null);
+			re.eval(".libPaths('/usr/local/lib/R/site-library/')");
+		}
+		return re;
+	}
+
+}
@@ -0,0 +1,47 @@
+package org.continuity.forecast.forecaster;
+
+/**
+ * Repeats the last season of the historical intensities. If there is no seasonality, the last
+ * intensity is repeated.
+ */
+public class SeasonalNaiveForecaster implements Forecaster {
+
+	private final int seasonLength;
+
+	/**
+	 * Creates a forecaster with a fixed season length.
+	 *
+	 * @param seasonLength
+	 *            The number of intensities per season.
+	 */
+	public SeasonalNaiveForecaster(int seasonLength) {
+		this.seasonLength = seasonLength;
+	}
+
+	/**
+	 * Creates a forecaster detecting the season length via {@link Seasonality}.
+	 */
+	public SeasonalNaiveForecaster() {
+		this(0);
+	}
+
+	@Override
+	public double[] forecast(HistoricalIntensities history, int size) {
+		double[] series = history.getIntensitiesAsArray();
+		double[] forecast = new double[size];
+
+		if (series.length == 0) {
+			return forecast;
+		}
+
+		int season = (seasonLength > 0) ? seasonLength : Seasonality.detect(series, history.getIntervalMillis());
+		season = Math.min(season, series.length);
+
+		for (int h = 0; h < size; h++) {
+			forecast[h] = series[(series.length - season) + (h % season)];
+		}
+
+		return forecast;
+	}
+
+}
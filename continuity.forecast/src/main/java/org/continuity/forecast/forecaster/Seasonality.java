@@ -0,0 +1,107 @@
+package org.continuity.forecast.forecaster;
+
+/**
+ * Detects the length of the season of a time series. Instead of searching through all possible
+ * lags, only the natural periods of workload (hour, day, week) are considered, which keeps the
+ * detection linear in the length of the series.
+ */
+public class Seasonality {
+
+	/**
+	 * The minimal autocorrelation at the season length to consider the series seasonal.
+	 */
+	private static final double MIN_AUTOCORRELATION = 0.3;
+
+	private static final long[] NATURAL_PERIODS_MILLIS = { 60L * 60 * 1000, 24L * 60 * 60 * 1000, 7L * 24 * 60 * 60 * 1000 };
+
+	private Seasonality() {
+	}
+
+	/**
+	 * Detects the season length among the natural periods of workload.
+	 *
+	 * @param series
+	 *            The time series.
+	 * @param intervalMillis
+	 *            The interval between two values in milliseconds.
+	 * @return The number of values per season or 1 if no seasonality was detected.
+	 */
+	public static int detect(double[] series, long intervalMillis) {
+		int[] candidates = new int[NATURAL_PERIODS_MILLIS.length];
+
+		for (int i = 0; i < candidates.length; i++) {
+			candidates[i] = (intervalMillis <= 0) ? 0 : (int) Math.min(Integer.MAX_VALUE, NATURAL_PERIODS_MILLIS[i] / intervalMillis);
+		}
+
+		return detect(series, candidates);
+	}
+
+	/**
+	 * Detects the season length among the passed candidates. Candidates that do not fit twice
+	 * into the series are ignored.
+	 *
+	 * @param series
+	 *            The time series.
+	 * @param candidates
+	 *            The candidate season lengths.
+	 * @return The candidate with the highest autocorrelation or 1 if no candidate has a
+	 *         sufficiently high autocorrelation.
+	 */
+	public static int detect(double[] series, int... candidates) {
+		int bestPeriod = 1;
+		double bestCorrelation = MIN_AUTOCORRELATION;
+
+		for (int period : candidates) {
+			if ((period < 2) || (2 * period > series.length)) {
+				continue;
+			}
+
+			double correlation = autocorrelation(series, period);
+
+			if (correlation > bestCorrelation) {
+				bestCorrelation = correlation;
+				bestPeriod = period;
+			}
+		}
+
+		return bestPeriod;
+	}
+
+	/**
+	 * Calculates the autocorrelation of a series at a lag.
+	 *
+	 * @param series
+	 *            The time series.
+	 * @param lag
+	 *            The lag.
+	 * @return The autocorrelation in [-1, 1]. 0 if the series is constant.
+	 */
+	public static double autocorrelation(double[] series, int lag) {
+		double mean = 0;
+
+		for (double value : series) {
+			mean += value;
+		}
+
+		mean /= series.length;
+
+		double variance = 0;
+
+		for (double value : series) {
+			variance += (value - mean) * (value - mean);
+		}
+
+		if (variance == 0) {
+			return 0;
+		}
+
+		double covariance = 0;
+
+		for (int i = lag; i < series.length; i++) {
+			covariance += (series[i] - mean) * (series[i - lag] - mean);
+		}
+
+		return covariance / variance;
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.util.Pair;
+import org.rosuda.JRI.Rengine;
+
+/**
+ * Forecasts with Telescope running in R.
+ */
+public class TelescopeForecaster extends RForecaster {
+
+	/**
+	 * Initializes Telescope.
+	 *
+	 * @param re
+	 */
+	@Override
+	protected void initialize(Rengine re) {
+		re.eval("source(\"telescope-multi/R/telescope.R\")");
+		re.eval("source(\"telescope-multi/R/cluster_periods.R\")");
+		re.eval("source(\"telescope-multi/R/detect_anoms.R\")");
+		re.eval("source(\"telescope-multi/R/fitting_models.R\")");
+		re.eval("source(\"telescope-multi/R/frequency.R\")");
+		re.eval("source(\"telescope-multi/R/outlier.R\")");
+		re.eval("source(\"telescope-multi/R/telescope_Utils.R\")");
+		re.eval("source(\"telescope-multi/R/vec_anom_detection.R\")");
+		re.eval("source(\"telescope-multi/R/xgb.R\")");
+
+		re.eval("library(xgboost)");
+		re.eval("library(cluster)");
+		re.eval("library(forecast)");
+		re.eval("library(e1071)");
+	}
+
+	/**
+	 * Passes intensities dataset and covariates to Telescope which does the forecasting.
+	 *
+	 * @param history
+	 * @param size
+	 * @param re
+	 * @return
+	 */
+	@Override
+	protected double[] forecast(HistoricalIntensities history, int size, Rengine re) {
+		if (history.hasCovariates()) {
+			// hist.covar
+			String matrixString = calculateMatrix("hist", history.getHistoricalCovariates(), re);
+			re.assign("hist.covar.matrix", re.eval(matrixString));
+
+			// future.covar
+			String futureMatrixString = calculateMatrix("future", history.getFutureCovariates(), re);
+			re.assign("future.covar.matrix", re.eval(futureMatrixString));
+		}
+
+		double[] intensities = history.getIntensitiesAsArray();
+
+		String period = Integer.toString(size);
+
+		re.assign("intensities", intensities);
+		re.assign("period", period);
+
+		if (history.hasCovariates()) {
+			re.eval("source(\"telescope-multi/ForecastTelescopeWithCovariates.R\")");
+		} else {
+			re.eval("source(\"telescope-multi/ForecastTelescope.R\")");
+		}
+		re.eval("dev.off()");
+
+		return re.eval("forecastValues").asDoubleArray();
+	}
+
+	/**
+	 * Calculates a covariate matrix. Such a matrix is an input to Telescope.
+	 *
+	 * @param string
+	 * @param covariates
+	 * @param re
+	 * @return
+	 */
+	private String calculateMatrix(String string, List<Pair<String, double[]>> covariates, Rengine re) {
+		ArrayList<String> nameOfCovars = new ArrayList<String>();
+		for (Pair<String, double[]> covariateValues : covariates) {
+			String name = covariateValues.getKey() + "." + string;
+			re.assign(name, covariateValues.getValue());
+			nameOfCovars.add(name);
+		}
+
+		String matrixString = "cbind(";
+
+		boolean isFirst = true;
+		for (String name : nameOfCovars) {
+			if (isFirst) {
+				matrixString += name;
+				isFirst = false;
+			} else {
+				matrixString += "," + name;
+			}
+		}
+		matrixString += ")";
+		return matrixString;
+	}
+
+}
@@ -0,0 +1,334 @@
+package org.continuity.forecast.influx;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.StringSeries;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.ValueType;
+import org.continuity.forecast.timeseries.WriteReport;
+import org.continuity.forecast.timeseries.WriteReport.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * {@link TimeSeriesBackend} storing the time series in an InfluxDB. The values are written to
+ * the field {@code value} of the measurement. They are streamed into chunks of line protocol,
+ * which are written concurrently. The number of chunks of one write that are written or waiting
+ * to be written at the same time is bounded, so that the memory consumption is bounded as well.
+ */
+public class InfluxBackend implements TimeSeriesBackend {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InfluxBackend.class);
+
+	private static final String RETENTION_POLICY = "autogen";
+
+	private static final String FIELD = "value";
+
+	private static final String DATABASE_NOT_FOUND = "database not found";
+
+	/**
+	 * Estimated length of a line without the measurement name, e.g., {@code value=12.5
+	 * 1514764800000}.
+	 */
+	private static final int ESTIMATED_LINE_LENGTH = 32;
+
+	private final InfluxHttpClient client;
+
+	private final ExecutorService executor;
+
+	private final int chunkSize;
+
+	private final int maxChunksInFlight;
+
+	/**
+	 * @param client
+	 *            The client used for accessing InfluxDB.
+	 * @param executor
+	 *            The executor used for writing the chunks.
+	 * @param chunkSize
+	 *            The number of values per write request.
+	 * @param maxChunksInFlight
+	 *            The maximum number of chunks per write that are written or waiting to be
+	 *            written.
+	 */
+	public InfluxBackend(InfluxHttpClient client, ExecutorService executor, int chunkSize, int maxChunksInFlight) {
+		this.client = client;
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+		this.maxChunksInFlight = maxChunksInFlight;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * NaN and infinite values are skipped, as they cannot be represented in line protocol.
+	 *
+	 * @throws RestClientException
+	 *             If the database cannot be created.
+	 */
+	@Override
+	public WriteReport writeNumbers(String database, String measurement, long[] timestamps, double[] values, int length) throws RestClientException {
+		return write(database, measurement, length, (chunk, prefix, i) -> LineProtocol.appendDouble(chunk, prefix, values[i], timestamps[i]));
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * The values are written as integer fields.
+	 *
+	 * @throws RestClientException
+	 *             If the database cannot be created.
+	 */
+	@Override
+	public WriteReport writeIntegers(String database, String measurement, long[] timestamps, long[] values, int length) throws RestClientException {
+		return write(database, measurement, length, (chunk, prefix, i) -> {
+			LineProtocol.appendLong(chunk, prefix, values[i], timestamps[i]);
+			return true;
+		});
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * {@code null} values are skipped.
+	 *
+	 * @throws RestClientException
+	 *             If the database cannot be created.
+	 */
+	@Override
+	public WriteReport writeStrings(String database, String measurement, long[] timestamps, String[] values, int length) throws RestClientException {
+		return write(database, measurement, length, (chunk, prefix, i) -> {
+			if (values[i] == null) {
+				return false;
+			}
+
+			LineProtocol.appendString(chunk, prefix, values[i], timestamps[i]);
+			return true;
+		});
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Boolean values are returned as 1 and 0.
+	 *
+	 * @throws RestClientException
+	 *             If the query fails.
+	 */
+	@Override
+	public NumericSeries readNumbers(String database, String measurement, long from, long to) throws RestClientException {
+		JsonNode values = select(database, measurement, from, to);
+		NumericSeries series = new NumericSeries(values.size());
+
+		for (JsonNode row : values) {
+			JsonNode value = row.get(1);
+
+			if (value.isBoolean()) {
+				series.add(row.get(0).asLong(), value.asBoolean() ? 1 : 0);
+			} else if (value.isNumber()) {
+				series.add(row.get(0).asLong(), value.asDouble());
+			} else {
+				throw new IllegalArgumentException(database + "." + measurement + " holds non-numeric values!");
+			}
+		}
+
+		return series;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Boolean values are returned as {@code true} and {@code false}.
+	 *
+	 * @throws RestClientException
+	 *             If the query fails.
+	 */
+	@Override
+	public StringSeries readStrings(String database, String measurement, long from, long to) throws RestClientException {
+		JsonNode values = select(database, measurement, from, to);
+		StringSeries series = new StringSeries(values.size());
+
+		for (JsonNode row : values) {
+			if (!row.get(1).isTextual() && !row.get(1).isBoolean()) {
+				throw new IllegalArgumentException(database + "." + measurement + " holds non-string values!");
+			}
+
+			series.add(row.get(0).asLong(), row.get(1).asText());
+		}
+
+		return series;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * Boolean fields are reported as {@link ValueType#BOOLEAN}.
+	 *
+	 * @throws RestClientException
+	 *             If the query fails.
+	 */
+	@Override
+	public ValueType getValueType(String database, String measurement) throws RestClientException {
+		JsonNode values = query(database, "SELECT " + quote(FIELD) + " FROM " + quote(measurement) + " LIMIT 1");
+
+		if (values.size() == 0) {
+			return null;
+		}
+
+		JsonNode value = values.get(0).get(1);
+
+		if (value.isTextual()) {
+			return ValueType.STRING;
+		} else if (value.isBoolean()) {
+			return ValueType.BOOLEAN;
+		} else {
+			return ValueType.NUMERIC;
+		}
+	}
+
+	private JsonNode select(String database, String measurement, long from, long to) {
+		StringBuilder query = new StringBuilder();
+		query.append("SELECT ").append(quote(FIELD)).append(" FROM ").append(quote(measurement));
+
+		if (from != Long.MIN_VALUE) {
+			query.append(" WHERE time >= ").append(from).append("ms");
+		}
+
+		if (to != Long.MAX_VALUE) {
+			query.append(from != Long.MIN_VALUE ? " AND" : " WHERE").append(" time <= ").append(to).append("ms");
+		}
+
+		return query(database, query.toString());
+	}
+
+	/**
+	 * Executes the query and returns the values of the first series.
+	 *
+	 * @return The values as array of {@code [time, value]} arrays. Empty if there are no values
+	 *         or the database does not exist.
+	 */
+	private JsonNode query(String database, String query) {
+		JsonNode result = client.query(database, query);
+
+		if (result.has("error")) {
+			String error = result.get("error").asText();
+
+			if (error.contains(DATABASE_NOT_FOUND)) {
+				return result.path("series");
+			}
+
+			throw new RestClientException("Query " + query + " failed: " + error);
+		}
+
+		return result.path("series").path(0).path("values");
+	}
+
+	private String quote(String identifier) {
+		return "\"" + identifier.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private WriteReport write(String database, String measurement, int length, LineAppender appender) throws RestClientException {
+		client.ensureDatabase(database);
+
+		String prefix = LineProtocol.escapeMeasurement(measurement) + " " + LineProtocol.escapeKey(FIELD) + "=";
+		int chunkCapacity = Math.min(chunkSize, length) * (prefix.length() + ESTIMATED_LINE_LENGTH);
+
+		Semaphore inFlight = new Semaphore(maxChunksInFlight);
+		List<Future<Batch>> futures = new ArrayList<>();
+
+		StringBuilder chunk = new StringBuilder(chunkCapacity);
+		int numPoints = 0;
+		int numSkipped = 0;
+
+		for (int i = 0; i < length; i++) {
+			if (!appender.append(chunk, prefix, i)) {
+				numSkipped++;
+			} else if (++numPoints == chunkSize) {
+				futures.add(submit(database, chunk.toString(), numPoints, inFlight));
+				chunk.setLength(0);
+				numPoints = 0;
+			}
+		}
+
+		if (numPoints > 0) {
+			futures.add(submit(database, chunk.toString(), numPoints, inFlight));
+		}
+
+		return new WriteReport(database, numSkipped, collect(futures));
+	}
+
+	/**
+	 * Submits a chunk to the executor. Blocks until less than the maximum number of chunks are
+	 * in flight.
+	 */
+	private Future<Batch> submit(String database, String lines, int numPoints, Semaphore inFlight) {
+		inFlight.acquireUninterruptibly();
+
+		try {
+			return executor.submit(() -> {
+				try {
+					return write(database, lines, numPoints);
+				} finally {
+					inFlight.release();
+				}
+			});
+		} catch (RuntimeException e) {
+			inFlight.release();
+			throw e;
+		}
+	}
+
+	private Batch write(String database, String lines, int numPoints) {
+		byte[] body = lines.getBytes(StandardCharsets.UTF_8);
+		long start = System.nanoTime();
+		boolean successful;
+
+		try {
+			client.write(database, RETENTION_POLICY, body);
+			successful = true;
+		} catch (RestClientException e) {
+			LOGGER.error("Could not write a batch of " + numPoints + " points to " + database + "!", e);
+			successful = false;
+		}
+
+		long latency = (System.nanoTime() - start) / 1000000;
+		LOGGER.debug("Wrote a batch of {} points to {} in {} ms (successful: {}).", numPoints, database, latency, successful);
+
+		return new Batch(numPoints, body.length, latency, successful);
+	}
+
+	private List<Batch> collect(List<Future<Batch>> futures) {
+		List<Batch> batches = new ArrayList<>(futures.size());
+
+		for (Future<Batch> future : futures) {
+			try {
+				batches.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while writing to InfluxDB!", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Could not write to InfluxDB!", e.getCause());
+			}
+		}
+
+		return batches;
+	}
+
+	/**
+	 * Appends the value at an index as line protocol.
+	 */
+	@FunctionalInterface
+	private interface LineAppender {
+
+		/**
+		 * @return {@code false} if the value is not supported and has not been appended.
+		 */
+		boolean append(StringBuilder chunk, String prefix, int index);
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package org.continuity.forecast.influx;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Writes line protocol to and queries the HTTP API of an InfluxDB. In contrast to the
+ * {@code InfluxDB} client, it does not hold any state about the current database or batching and
+ * thus, can be used by concurrent writers. The databases that have been created are cached, so
+ * that each database is only created once.
+ */
+public class InfluxHttpClient {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InfluxHttpClient.class);
+
+	private static final MediaType LINE_PROTOCOL = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+	private final RestTemplate restTemplate;
+
+	private final String url;
+
+	private final String user;
+
+	private final String password;
+
+	private final Set<String> knownDatabases = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a new client.
+	 *
+	 * @param restTemplate
+	 *            The rest template to be used. Must not be load balanced.
+	 * @param url
+	 *            The URL of the InfluxDB, e.g., {@code http://127.0.0.1:8086}.
+	 * @param user
+	 *            The user name.
+	 * @param password
+	 *            The password.
+	 */
+	public InfluxHttpClient(RestTemplate restTemplate, String url, String user, String password) {
+		this.restTemplate = restTemplate;
+		this.url = url;
+		this.user = user;
+		this.password = password;
+	}
+
+	/**
+	 * Creates the database if it has not been created by this client before. As creating an
+	 * existing database does not have any effect in InfluxDB, the databases are not listed.
+	 *
+	 * @param database
+	 *            The database name.
+	 * @throws RestClientException
+	 *             If the database cannot be created.
+	 */
+	public void ensureDatabase(String database) throws RestClientException {
+		if (knownDatabases.contains(database)) {
+			return;
+		}
+
+		URI uri = uri("/query").queryParam("q", "CREATE DATABASE \"" + database.replace("\\", "\\\\").replace("\"", "\\\"") + "\"").build().encode().toUri();
+		restTemplate.postForEntity(uri, null, String.class);
+
+		knownDatabases.add(database);
+		LOGGER.info("Created InfluxDB database {}.", database);
+	}
+
+	/**
+	 * Writes the lines to the database with millisecond precision.
+	 *
+	 * @param database
+	 *            The database name.
+	 * @param retentionPolicy
+	 *            The retention policy.
+	 * @param lines
+	 *            The data points in line protocol encoded in UTF-8.
+	 * @throws RestClientException
+	 *             If the lines could not be written.
+	 */
+	public void write(String database, String retentionPolicy, byte[] lines) throws RestClientException {
+		URI uri = uri("/write").queryParam("db", database).queryParam("rp", retentionPolicy).queryParam("precision", "ms").build().encode().toUri();
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(LINE_PROTOCOL);
+
+		restTemplate.postForEntity(uri, new HttpEntity<>(lines, headers), String.class);
+	}
+
+	/**
+	 * Executes a query with millisecond precision.
+	 *
+	 * @param database
+	 *            The database name.
+	 * @param query
+	 *            The query in InfluxQL.
+	 * @return The result of the first statement. May hold an {@code error} or {@code series}
+	 *         field. Each series holds the {@code columns} and the {@code values} as arrays.
+	 * @throws RestClientException
+	 *             If the query could not be executed.
+	 */
+	public JsonNode query(String database, String query) throws RestClientException {
+		URI uri = uri("/query").queryParam("db", database).queryParam("epoch", "ms").queryParam("q", query).build().encode().toUri();
+		JsonNode response = restTemplate.getForObject(uri, JsonNode.class);
+
+		if ((response == null) || response.has("error")) {
+			throw new RestClientException("Query " + query + " failed: " + (response == null ? "no response" : response.get("error").asText()));
+		}
+
+		return response.path("results").path(0);
+	}
+
+	private UriComponentsBuilder uri(String path) {
+		return UriComponentsBuilder.fromHttpUrl(url).path(path).queryParam("u", user).queryParam("p", password);
+	}
+
+}
@@ -0,0 +1,120 @@
+package org.continuity.forecast.influx;
+
+/**
+ * Appends data points to a {@link StringBuilder} in the InfluxDB line protocol, i.e.,
+ * {@code measurement field=value timestamp}. Avoids the creation of intermediate {@code Point}
+ * objects.
+ */
+public final class LineProtocol {
+
+	private LineProtocol() {
+	}
+
+	/**
+	 * Escapes a measurement name. Commas and spaces are escaped with a backslash.
+	 *
+	 * @param measurement
+	 *            The measurement name.
+	 * @return The escaped name.
+	 */
+	public static String escapeMeasurement(String measurement) {
+		return escape(measurement, false);
+	}
+
+	/**
+	 * Escapes a field key. Commas, equal signs and spaces are escaped with a backslash.
+	 *
+	 * @param key
+	 *            The field key.
+	 * @return The escaped key.
+	 */
+	public static String escapeKey(String key) {
+		return escape(key, true);
+	}
+
+	/**
+	 * Appends a line with a string field.
+	 *
+	 * @param builder
+	 *            The builder to append to.
+	 * @param prefix
+	 *            The escaped measurement followed by a space and the escaped field key followed by
+	 *            {@code =}.
+	 * @param value
+	 *            The string value.
+	 * @param timestamp
+	 *            The timestamp in the precision of the write request.
+	 */
+	public static void appendString(StringBuilder builder, String prefix, String value, long timestamp) {
+		builder.append(prefix).append('"');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if ((c == '"') || (c == '\\')) {
+				builder.append('\\');
+			}
+
+			builder.append(c);
+		}
+
+		builder.append('"').append(' ').append(timestamp).append('\n');
+	}
+
+	/**
+	 * Appends a line with a boolean field.
+	 *
+	 * @see #appendString(StringBuilder, String, String, long)
+	 */
+	public static void appendBoolean(StringBuilder builder, String prefix, boolean value, long timestamp) {
+		builder.append(prefix).append(value).append(' ').append(timestamp).append('\n');
+	}
+
+	/**
+	 * Appends a line with a float field. InfluxDB does not support NaN and infinite values.
+	 *
+	 * @return {@code false} if the value is not finite and thus, has not been appended.
+	 * @see #appendString(StringBuilder, String, String, long)
+	 */
+	public static boolean appendDouble(StringBuilder builder, String prefix, double value, long timestamp) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return false;
+		}
+
+		builder.append(prefix).append(value).append(' ').append(timestamp).append('\n');
+		return true;
+	}
+
+	/**
+	 * Appends a line with an integer field.
+	 *
+	 * @see #appendString(StringBuilder, String, String, long)
+	 */
+	public static void appendLong(StringBuilder builder, String prefix, long value, long timestamp) {
+		builder.append(prefix).append(value).append('i').append(' ').append(timestamp).append('\n');
+	}
+
+	private static String escape(String name, boolean escapeEquals) {
+		StringBuilder builder = null;
+
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			boolean special = (c == ',') || (c == ' ') || (escapeEquals && (c == '='));
+
+			if (special && (builder == null)) {
+				builder = new StringBuilder(name.length() + 8).append(name, 0, i);
+			}
+
+			if (builder != null) {
+				if (special) {
+					builder.append('\\');
+				}
+
+				builder.append(c);
+			}
+		}
+
+		return builder == null ? name : builder.toString();
+	}
+
+}
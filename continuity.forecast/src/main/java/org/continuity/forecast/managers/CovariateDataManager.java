@@ -1,77 +1,109 @@
 package org.continuity.forecast.managers;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import org.continuity.forecast.context.BooleanCovariateValue;
 import org.continuity.forecast.context.CovariateData;
 import org.continuity.forecast.context.CovariateValue;
+import org.continuity.forecast.context.GeneralCovariateValue;
 import org.continuity.forecast.context.NumericalCovariateValue;
 import org.continuity.forecast.context.StringCovariateValue;
-import org.influxdb.BatchOptions;
-import org.influxdb.InfluxDB;
-import org.influxdb.dto.Point;
+import org.continuity.forecast.timeseries.BooleanCovariates;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.WriteReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Manages covariate data.
+ * Manages covariate data. The covariate values are split into numeric and string values, which
+ * are written to the {@link TimeSeriesBackend} as columns. Boolean values are stored as strings
+ * or numbers, depending on the configured {@link BooleanCovariates}.
+ *
  * @author Alper Hidiroglu
  *
  */
 public class CovariateDataManager {
-	
-	private InfluxDB influxDb;
-	
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CovariateDataManager.class);
+
+	private final TimeSeriesBackend backend;
+
+	private final BooleanCovariates booleans;
+
 	/**
-	 * @param influxDb
+	 * @param backend
+	 *            The backend to write to.
+	 * @param booleans
+	 *            How boolean values are stored.
 	 */
-	public CovariateDataManager(InfluxDB influxDb) {
-		this.influxDb = influxDb;
+	public CovariateDataManager(TimeSeriesBackend backend, BooleanCovariates booleans) {
+		this.backend = backend;
+		this.booleans = booleans;
 	}
-	
+
 	/**
+	 * Writes the covariate values to the database named by the tag. The database is created if
+	 * not present.
+	 *
 	 * @param covarData
+	 *            The covariate data.
+	 * @return A report holding the latency of each written batch.
 	 */
-	@SuppressWarnings("deprecation")
-	public void handleOrder(CovariateData covarData) {
+	public WriteReport handleOrder(CovariateData covarData) {
 		String dbName = covarData.getTag();
-		if (!influxDb.describeDatabases().contains(dbName)) {
-			influxDb.createDatabase(dbName);
-		}
-		influxDb.setDatabase(dbName);
-		influxDb.setRetentionPolicy("autogen");
-			
-		writeDataPoints(influxDb, dbName, covarData.getCovarName(), covarData.getValues());
-	}
-	
-	/**
-	 * @param influxDb
-	 * @param dbName
-	 * @param covarName
-	 * @param values
-	 */
-	public void writeDataPoints(InfluxDB influxDb, String dbName, String covarName, List<CovariateValue> values) {	
-		influxDb.enableBatch(BatchOptions.DEFAULTS);
-		for(CovariateValue value: values) {
-			Point point = null;
-			if(value instanceof StringCovariateValue) {
-				point = Point.measurement(covarName)
-					.time(((StringCovariateValue) value).getTimestamp(), TimeUnit.MILLISECONDS)
-				    .addField("value", ((StringCovariateValue) value).getValue()) 
-					.build();
-			} else if(value instanceof BooleanCovariateValue) {
-				point = Point.measurement(covarName)
-						.time(((BooleanCovariateValue) value).getTimestamp(), TimeUnit.MILLISECONDS)
-					    .addField("value", ((BooleanCovariateValue) value).isValue()) 
-						.build();
-			} else if(value instanceof NumericalCovariateValue) {
-				point = Point.measurement(covarName)
-						.time(((NumericalCovariateValue) value).getTimestamp(), TimeUnit.MILLISECONDS)
-					    .addField("value", ((NumericalCovariateValue) value).getValue()) 
-						.build();
+		List<CovariateValue> values = covarData.getValues();
+
+		long[] numericTimestamps = new long[values.size()];
+		double[] numbers = new double[values.size()];
+		int numNumbers = 0;
+
+		long[] stringTimestamps = new long[values.size()];
+		String[] strings = new String[values.size()];
+		int numStrings = 0;
+
+		int numSkipped = 0;
+
+		for (CovariateValue value : values) {
+			long timestamp = ((GeneralCovariateValue) value).getTimestamp();
+
+			if (value instanceof NumericalCovariateValue) {
+				numericTimestamps[numNumbers] = timestamp;
+				numbers[numNumbers++] = ((NumericalCovariateValue) value).getValue();
+			} else if ((value instanceof BooleanCovariateValue) && (booleans == BooleanCovariates.NUMERIC)) {
+				numericTimestamps[numNumbers] = timestamp;
+				numbers[numNumbers++] = ((BooleanCovariateValue) value).isValue() ? 1 : 0;
+			} else if (value instanceof BooleanCovariateValue) {
+				stringTimestamps[numStrings] = timestamp;
+				strings[numStrings++] = Boolean.toString(((BooleanCovariateValue) value).isValue());
+			} else if ((value instanceof StringCovariateValue) && (((StringCovariateValue) value).getValue() != null)) {
+				stringTimestamps[numStrings] = timestamp;
+				strings[numStrings++] = ((StringCovariateValue) value).getValue();
+			} else {
+				numSkipped++;
 			}
-			influxDb.write(point);
-							 
 		}
-		influxDb.disableBatch();
+
+		List<WriteReport> reports = new ArrayList<>();
+		reports.add(new WriteReport(dbName, numSkipped, new ArrayList<>()));
+
+		if (numNumbers > 0) {
+			reports.add(backend.writeNumbers(dbName, covarData.getCovarName(), numericTimestamps, numbers, numNumbers));
+		}
+
+		if (numStrings > 0) {
+			reports.add(backend.writeStrings(dbName, covarData.getCovarName(), stringTimestamps, strings, numStrings));
+		}
+
+		WriteReport report = WriteReport.combine(dbName, reports);
+
+		if (report.isSuccessful()) {
+			LOGGER.info("Wrote covariate {}: {}", covarData.getCovarName(), report);
+		} else {
+			LOGGER.error("Could not write all values of covariate {}: {}", covarData.getCovarName(), report);
+		}
+
+		return report;
 	}
+
 }
@@ -2,18 +2,15 @@ package org.continuity.forecast.managers;
 
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.Pair;
 import org.continuity.api.entities.artifact.ForecastBundle;
@@ -26,12 +23,19 @@ import org.continuity.dsl.description.FutureNumbers;
 import org.continuity.dsl.description.FutureOccurrences;
 import org.continuity.dsl.description.IntensityCalculationInterval;
 import org.continuity.dsl.description.Measurement;
-import org.influxdb.InfluxDB;
-import org.influxdb.dto.Query;
-import org.influxdb.dto.QueryResult;
-import org.influxdb.dto.QueryResult.Result;
-import org.influxdb.dto.QueryResult.Series;
-import org.rosuda.JRI.Rengine;
+import org.continuity.forecast.forecaster.Forecaster;
+import org.continuity.forecast.forecaster.ForecasterType;
+import org.continuity.forecast.forecaster.HistoricalIntensities;
+import org.continuity.forecast.timeseries.GapFill;
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.Resampling;
+import org.continuity.forecast.timeseries.StringSeries;
+import org.continuity.forecast.timeseries.BooleanCovariates;
+import org.continuity.forecast.timeseries.TimeSeriesAligner;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.ValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Manager for the workload forecasting.
@@ -41,9 +45,11 @@ import org.rosuda.JRI.Rengine;
  */
 public class ForecastPipelineManager {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(ForecastPipelineManager.class);
+
 	private static final long NANOS_TO_MILLIS_FACTOR = 1000000;
 
-	private InfluxDB influxDb;
+	private TimeSeriesBackend backend;
 
 	private String tag;
 
@@ -53,6 +59,14 @@ public class ForecastPipelineManager {
 	
 	private IntensityCalculationInterval interval;
 
+	private final ExecutorService executor;
+
+	private final Resampling resampling;
+
+	private final GapFill gapFill;
+
+	private final BooleanCovariates booleans;
+
 
 	public int getWorkloadIntensity() {
 		return workloadIntensity;
@@ -64,9 +78,23 @@ public class ForecastPipelineManager {
 
 	/**
 	 * Constructor.
+	 * 
+	 * @param executor
+	 *            The executor used for forecasting the user groups in parallel.
+	 * @param resampling
+	 *            How several covariate values within one interval are combined.
+	 * @param gapFill
+	 *            How intervals without covariate values are filled.
+	 * @param booleans
+	 *            How boolean covariates stored by previous versions are used.
 	 */
-	public ForecastPipelineManager(InfluxDB influxDb, String tag, ForecastInput forecastInput) {
-		this.influxDb = influxDb;
+	public ForecastPipelineManager(TimeSeriesBackend backend, String tag, ForecastInput forecastInput, ExecutorService executor, Resampling resampling, GapFill gapFill,
+			BooleanCovariates booleans) {
+		this.backend = backend;
+		this.executor = executor;
+		this.resampling = resampling;
+		this.gapFill = gapFill;
+		this.booleans = booleans;
 		this.tag = tag;
 		this.forecastInput = forecastInput;
 		if(null == this.forecastInput.getForecastOptions().getInterval()) {
@@ -76,19 +104,12 @@ public class ForecastPipelineManager {
 		}
 	}
 
-	public void setupDatabase() {
-		String dbName = this.tag;
-		influxDb.setDatabase(dbName);
-		influxDb.setRetentionPolicy("autogen");
-	}
-
 	/**
 	 * Runs the pipeline.
 	 *
-	 * @return The generated forecast bundle.
+	 * @return The generated forecast bundle or {@code null} if the forecast failed.
 	 */
 	public ForecastBundle runPipeline(Pair<Date, Integer> dateAndAmountOfUsers) {
-		setupDatabase();
 		ForecastBundle forecastBundle = generateForecastBundle(dateAndAmountOfUsers);
 
 		return forecastBundle;
@@ -108,41 +129,76 @@ public class ForecastPipelineManager {
 		this.workloadIntensity = 1;
 		// updates also the workload intensity
 		LinkedList<Double> probabilities = forecastWorkload(dateAndAmountOfUsers.getValue());
+
+		if (probabilities == null) {
+			return null;
+		}
+
 		// forecast result
 		return new ForecastBundle(dateAndAmountOfUsers.getKey(), this.workloadIntensity, probabilities);
 	}
 
 	/**
-	 * Returns aggregated workload intensity and adapted behavior mix probabilities.
+	 * Returns aggregated workload intensity and adapted behavior mix probabilities. The user
+	 * groups are forecasted in parallel.
 	 * 
-	 * @param bundleList
-	 * @return
+	 * @param amountOfUserGroups
+	 * @return The probabilities or {@code null} if the forecast failed.
 	 */
 	private LinkedList<Double> forecastWorkload(int amountOfUserGroups) {
-		Rengine re = initializeRengine();
+		ForecasterType forecasterType = ForecasterType.fromName(forecastInput.getForecastOptions().getForecaster());
 
-		LinkedList<Double> probabilities = new LinkedList<Double>();
-		int sumOfIntensities = 0;
-		List<Integer> forecastedIntensities = new LinkedList<Integer>();
+		if (forecasterType == null) {
+			LOGGER.error("Unknown forecaster {}!", forecastInput.getForecastOptions().getForecaster());
+			return null;
+		}
 
-		if (forecastInput.getForecastOptions().getForecaster().equalsIgnoreCase("Telescope")) {
-			initializeTelescope(re);
+		Forecaster forecaster = forecasterType.createForecaster();
 
-			for (int i = 0; i < amountOfUserGroups; i++) {
-				int intensity = forecastIntensityForUserGroupTelescope(i, re);
-				forecastedIntensities.add(intensity);
-				sumOfIntensities += intensity;
+		List<Pair<ArrayList<Long>, ArrayList<Double>>> intensitiesPerUserGroup = new ArrayList<>(amountOfUserGroups);
+		long historyStart = Long.MAX_VALUE;
+
+		for (int i = 0; i < amountOfUserGroups; i++) {
+			Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities = getIntensitiesOfUserGroupFromDatabase(i);
+
+			if (timestampsAndIntensities.getKey().isEmpty()) {
+				LOGGER.error("There are no intensities of user group {}! Cannot forecast.", i);
+				return null;
 			}
-		} else if (forecastInput.getForecastOptions().getForecaster().equalsIgnoreCase("Prophet")) {
-			initializeProphet(re);
 
-			for (int i = 0; i < amountOfUserGroups; i++) {
-				int intensity = forecastIntensityForUserGroupProphet(i, re);
+			intensitiesPerUserGroup.add(timestampsAndIntensities);
+			historyStart = Math.min(historyStart, timestampsAndIntensities.getKey().get(0));
+		}
+
+		long intervalMillis = this.interval.asNumber() / NANOS_TO_MILLIS_FACTOR;
+		CovariateSeries covariates = readCovariates(historyStart, this.forecastInput.getForecastOptions().getDateAsTimestamp() + intervalMillis - 1);
+
+		List<Future<Integer>> futures = new ArrayList<>(amountOfUserGroups);
+
+		for (Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities : intensitiesPerUserGroup) {
+			futures.add(executor.submit(() -> forecastIntensityForUserGroup(timestampsAndIntensities, covariates, forecaster)));
+		}
+
+		LinkedList<Double> probabilities = new LinkedList<Double>();
+		int sumOfIntensities = 0;
+		List<Integer> forecastedIntensities = new LinkedList<Integer>();
+
+		try {
+			for (Future<Integer> future : futures) {
+				int intensity = future.get();
 				forecastedIntensities.add(intensity);
 				sumOfIntensities += intensity;
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			futures.forEach(f -> f.cancel(true));
+			return null;
+		} catch (ExecutionException e) {
+			LOGGER.error("Could not forecast the user groups with " + forecasterType + "!", e.getCause());
+			futures.forEach(f -> f.cancel(true));
+			return null;
 		}
-		re.end();
+
 		// updates the workload intensity
 		setWorkloadIntensity(sumOfIntensities);
 
@@ -154,393 +210,174 @@ public class ForecastPipelineManager {
 	}
 
 	/**
-	 * Forecasting the intensities for a user group using Prophet.
+	 * Forecasting the intensities for a user group.
 	 * 
-	 * @param i
-	 * @param re
+	 * @param timestampsAndIntensities
+	 *            The intensities of the user group. Must not be empty.
+	 * @param covariates
+	 *            The covariate values of the forecast window.
+	 * @param forecaster
 	 * @return
 	 */
-	private int forecastIntensityForUserGroupProphet(int i, Rengine re) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-		sdf.setTimeZone(TimeZone.getDefault());
-
-		Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities = getIntensitiesOfUserGroupFromDatabase(i);
+	private int forecastIntensityForUserGroup(Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities, CovariateSeries covariates, Forecaster forecaster) {
 		ArrayList<Long> timestampsOfIntensities = timestampsAndIntensities.getKey();
 		ArrayList<Double> intensities = timestampsAndIntensities.getValue();
 
-		Pair<ArrayList<Pair<String, ArrayList<Double>>>, ArrayList<Pair<String, ArrayList<Double>>>> covariates = calculateCovariates(timestampsOfIntensities, intensities);
-
-		ArrayList<String> datesOfIntensities = new ArrayList<String>();
-		for (long timestamp : timestampsOfIntensities) {
-			Date date = new Date();
-			date.setTime((long) timestamp);
-			String resultDateFromTimestamp = sdf.format(date);
-			datesOfIntensities.add(resultDateFromTimestamp);
-		}
-		int size = calculateSizeOfForecast(timestampsOfIntensities);
-		int intensity = forecastWithProphet(datesOfIntensities, intensities, covariates.getKey(), covariates.getValue(), size, re);
-		return intensity;
-	}
+		long intervalMillis = this.interval.asNumber() / NANOS_TO_MILLIS_FACTOR;
+		long[] historicalGrid = timestampsOfIntensities.stream().mapToLong(Long::longValue).toArray();
+		long endTimeIntensities = historicalGrid[historicalGrid.length - 1];
+		long[] futureGrid = TimeSeriesAligner.regularGrid(endTimeIntensities + intervalMillis, this.forecastInput.getForecastOptions().getDateAsTimestamp(), intervalMillis);
 
-	/**
-	 * Counts amount of forecasted values subway.
-	 * 
-	 * @param timestampsOfIntensities
-	 *            timestamps
-	 * @return the amount
-	 */
-	private int calculateSizeOfForecast(ArrayList<Long> timestampsOfIntensities) {
-		long endTimeIntensities = timestampsOfIntensities.get(timestampsOfIntensities.size() - 1);
-		long endTimeForecast = this.forecastInput.getForecastOptions().getDateAsTimestamp();
-		long interval = this.interval.asNumber() / NANOS_TO_MILLIS_FACTOR;
+		TimeSeriesAligner history = new TimeSeriesAligner(historicalGrid, intervalMillis, resampling, gapFill);
+		TimeSeriesAligner future = new TimeSeriesAligner(futureGrid, intervalMillis, resampling, gapFill);
 
-		// Calculates considered future timestamps
-		long startTimeForecast = endTimeIntensities + interval;
-		int size = 0;
-		while (startTimeForecast <= endTimeForecast) {
-			size++;
-			startTimeForecast += interval;
-		}
-		return size;
-	}
+		List<Pair<String, double[]>> historicalCovariates = new ArrayList<>();
+		List<Pair<String, double[]>> futureCovariates = new ArrayList<>();
+		calculateCovariates(history, future, covariates, historicalCovariates, futureCovariates);
 
-	/**
-	 * Forecasting the intensities for a user group using Telescope.
-	 * 
-	 * @param i
-	 * @param re
-	 * @return
-	 */
-	private int forecastIntensityForUserGroupTelescope(int i, Rengine re) {
-		Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities = getIntensitiesOfUserGroupFromDatabase(i);
-		ArrayList<Long> timestampsOfIntensities = timestampsAndIntensities.getKey();
-		ArrayList<Double> intensities = timestampsAndIntensities.getValue();
+		HistoricalIntensities historicalIntensities = new HistoricalIntensities(timestampsOfIntensities, intensities, intervalMillis, historicalCovariates, futureCovariates);
 
-		Pair<ArrayList<Pair<String, ArrayList<Double>>>, ArrayList<Pair<String, ArrayList<Double>>>> covariates = calculateCovariates(timestampsOfIntensities, intensities);
-		int size = calculateSizeOfForecast(timestampsOfIntensities);
-		int intensity = forecastWithTelescope(intensities, covariates.getKey(), covariates.getValue(), size, re);
-		return intensity;
+		return aggregateWorkload(forecaster.forecast(historicalIntensities, futureGrid.length));
 	}
 
 	/**
-	 * Calculates historical and future covariates.
+	 * Reads the values of all covariates in the forecast window once, so that they can be shared
+	 * by the user groups. Values outside of the window are not read. Hence, gaps at the borders
+	 * of the window are filled with the values within the window only.
 	 * 
-	 * @param timestampsOfIntensities
-	 * @param intensities
-	 * @return
+	 * @param from
+	 *            The start of the window, i.e., the first timestamp of the intensities.
+	 * @param to
+	 *            The end of the window, i.e., the end of the last forecasted interval.
+	 * @return The covariate values.
 	 */
-	private Pair<ArrayList<Pair<String, ArrayList<Double>>>, ArrayList<Pair<String, ArrayList<Double>>>> calculateCovariates(ArrayList<Long> timestampsOfIntensities, ArrayList<Double> intensities) {
-
-		ArrayList<Pair<String, ArrayList<Double>>> histCovariates = new ArrayList<Pair<String, ArrayList<Double>>>();
-		ArrayList<Pair<String, ArrayList<Double>>> futureCovariates = new ArrayList<Pair<String, ArrayList<Double>>>();
-
-		if (forecastInput.getContext() != null) {
-
-			long startTimeOfIntensities = timestampsOfIntensities.get(0);
-			long endTimeIntensities = timestampsOfIntensities.get(timestampsOfIntensities.size() - 1);
-
-			long endTimeForecast = this.forecastInput.getForecastOptions().getDateAsTimestamp();
-			
-			long interval = this.interval.asNumber() /NANOS_TO_MILLIS_FACTOR;
-
-			// Calculates considered future timestamps
-			long startTimeForecast = endTimeIntensities + interval;
-			long forecastTimestamp = startTimeForecast;
-			ArrayList<Long> futureTimestamps = new ArrayList<Long>();
-			while (forecastTimestamp <= endTimeForecast) {
-				futureTimestamps.add(forecastTimestamp);
-				forecastTimestamp += interval;
-			}
-
-			for (ContextParameter covar : forecastInput.getContext()) {
-				if (covar instanceof FutureNumbers) {
-					FutureNumbers numCovar = (FutureNumbers) covar;
-
-					ArrayList<Double> historicalOccurrences = calculateHistoricalOccurrencesNumerical(numCovar, timestampsOfIntensities, startTimeOfIntensities, endTimeIntensities);
-					ArrayList<Double> futureOccurrences = calculateFutureOccurrencesNumerical(numCovar, futureTimestamps, startTimeForecast, endTimeForecast);
-
-					List<FutureNumber> numericInstances = numCovar.getFuture();
-
-					for (FutureNumber numInstance : numericInstances) {
-						double value = numInstance.getValue();
-						FutureOccurrences futureTimes = numInstance.getTime();
-						List<Long> futureTimestampsOfValue = futureTimes.getFutureDatesAsTimestamps(interval);
-
-						for (long futureTimestampOfValue : futureTimestampsOfValue) {
-							int index = futureTimestamps.indexOf(futureTimestampOfValue);
-							futureOccurrences.set(index, value);
-						}
-					}
-					Pair<String, ArrayList<Double>> covarPast = new Pair<>(numCovar.getMeasurement(), historicalOccurrences);
-					Pair<String, ArrayList<Double>> covarFuture = new Pair<>(numCovar.getMeasurement(), futureOccurrences);
-					histCovariates.add(covarPast);
-					futureCovariates.add(covarFuture);
-
-				} else if (covar instanceof FutureEvents) {
-					FutureEvents stringCovar = (FutureEvents) covar;
-					List<FutureEvent> stringInstances = stringCovar.getFuture();
-
-					HashMap<String, ArrayList<Long>> eventMap = calculateEventMap(stringCovar, startTimeOfIntensities, endTimeIntensities, startTimeForecast, endTimeForecast);
-
-					for (Map.Entry<String, ArrayList<Long>> entry : eventMap.entrySet()) {
-						String value = entry.getKey();
-						ArrayList<Long> timestamps = entry.getValue();
-
-						ArrayList<Double> historicalOccurrences = new ArrayList<Double>(Collections.nCopies(timestampsOfIntensities.size(), 0.0));
-						ArrayList<Double> futureOccurrences = new ArrayList<Double>(Collections.nCopies(futureTimestamps.size(), 0.0));
-
-						calculateOccurrencesString(futureOccurrences, historicalOccurrences, timestamps, timestampsOfIntensities, futureTimestamps, endTimeIntensities);
-
-						for (FutureEvent stringInstance : stringInstances) {
-							String valueOfInstance = stringInstance.getValue();
-							if (valueOfInstance.equals(value)) {
-								FutureOccurrences futureTimes = stringInstance.getTime();
-								List<Long> futureTimestampsOfValue = futureTimes.getFutureDatesAsTimestamps(interval);
-
-								for (long futureTimestampOfValue : futureTimestampsOfValue) {
-									int index = futureTimestamps.indexOf(futureTimestampOfValue);
-									futureOccurrences.set(index, 1.0);
-								}
-							}
-						}
-						Pair<String, ArrayList<Double>> covarPast = new Pair<>(value, historicalOccurrences);
-						Pair<String, ArrayList<Double>> covarFuture = new Pair<>(value, futureOccurrences);
-						histCovariates.add(covarPast);
-						futureCovariates.add(covarFuture);
-					}
-
-				} else if (covar instanceof Measurement) {
-					Measurement mCovar = (Measurement) covar;
-					boolean isNumeric = identifyIfNumericValues(mCovar);
-					if (isNumeric) {
+	private CovariateSeries readCovariates(long from, long to) {
+		CovariateSeries covariates = new CovariateSeries();
 
-						ArrayList<Double> historicalOccurrences = calculateHistoricalOccurrencesNumerical(mCovar, timestampsOfIntensities, startTimeOfIntensities, endTimeIntensities);
-						ArrayList<Double> futureOccurrences = calculateFutureOccurrencesNumerical(mCovar, futureTimestamps, startTimeForecast, endTimeForecast);
-
-						Pair<String, ArrayList<Double>> covarPast = new Pair<>(mCovar.getMeasurement(), historicalOccurrences);
-						Pair<String, ArrayList<Double>> covarFuture = new Pair<>(mCovar.getMeasurement(), futureOccurrences);
-						histCovariates.add(covarPast);
-						futureCovariates.add(covarFuture);
-
-					} else {
-
-						HashMap<String, ArrayList<Long>> eventMap = calculateEventMap(mCovar, startTimeOfIntensities, endTimeIntensities, startTimeForecast, endTimeForecast);
-
-						for (Map.Entry<String, ArrayList<Long>> entry : eventMap.entrySet()) {
-							ArrayList<Long> timestamps = entry.getValue();
-
-							ArrayList<Double> historicalOccurrences = new ArrayList<Double>(Collections.nCopies(timestampsOfIntensities.size(), 0.0));
-							ArrayList<Double> futureOccurrences = new ArrayList<Double>(Collections.nCopies(futureTimestamps.size(), 0.0));
-
-							calculateOccurrencesString(futureOccurrences, historicalOccurrences, timestamps, timestampsOfIntensities, futureTimestamps, endTimeIntensities);
+		if (forecastInput.getContext() == null) {
+			return covariates;
+		}
 
-							Pair<String, ArrayList<Double>> covarPast = new Pair<>(entry.getKey(), historicalOccurrences);
-							Pair<String, ArrayList<Double>> covarFuture = new Pair<>(entry.getKey(), futureOccurrences);
-							histCovariates.add(covarPast);
-							futureCovariates.add(covarFuture);
-						}
-					}
+		for (ContextParameter covar : forecastInput.getContext()) {
+			if (covar instanceof FutureNumbers) {
+				covariates.numeric.put(covar, getNumericValues((FutureNumbers) covar, from, to));
+			} else if (covar instanceof FutureEvents) {
+				covariates.strings.put(covar, getStringValues((FutureEvents) covar, from, to));
+			} else if (covar instanceof Measurement) {
+				Measurement mCovar = (Measurement) covar;
+
+				if (identifyIfNumericValues(mCovar)) {
+					covariates.numeric.put(covar, getNumericValues(mCovar, from, to));
+				} else {
+					covariates.strings.put(covar, getStringValues(mCovar, from, to));
 				}
 			}
 		}
-		Pair<ArrayList<Pair<String, ArrayList<Double>>>, ArrayList<Pair<String, ArrayList<Double>>>> covariates = new Pair<>(histCovariates, futureCovariates);
-		return covariates;
-	}
-
-	/**
-	 * Calculates occurrences for Strings.
-	 * 
-	 * @param futureOccurrences
-	 * @param historicalOccurrences
-	 * @param timestamps
-	 * @param timestampsOfIntensities
-	 * @param futureTimestamps
-	 * @param endTimeIntensities
-	 */
-	private void calculateOccurrencesString(ArrayList<Double> futureOccurrences, ArrayList<Double> historicalOccurrences, ArrayList<Long> timestamps, ArrayList<Long> timestampsOfIntensities,
-			ArrayList<Long> futureTimestamps, long endTimeIntensities) {
 
-		for (long timestamp : timestamps) {
-			if (timestamp <= endTimeIntensities) {
-				int index = timestampsOfIntensities.indexOf(timestamp);
-				historicalOccurrences.set(index, 1.0);
-			} else {
-				int index = futureTimestamps.indexOf(timestamp);
-				futureOccurrences.set(index, 1.0);
-			}
-		}
+		return covariates;
 	}
 
 	/**
-	 * Calculates a HashMap containing all event (String) covariates.
+	 * Calculates historical and future covariates by aligning the stored covariate values to
+	 * the timestamps of the intensities and the timestamps to be forecasted.
 	 * 
-	 * @param mCovar
-	 * @param startTime
-	 * @param endTimeIntensities
-	 * @param startTimeForecast
-	 * @param endTimeForecast
-	 * @return
+	 * @param history
+	 *            The aligner for the timestamps of the intensities.
+	 * @param future
+	 *            The aligner for the timestamps to be forecasted.
+	 * @param covariates
+	 *            The covariate values read by {@link #readCovariates(long, long)}.
+	 * @param historicalCovariates
+	 *            The list to which the historical covariates are added.
+	 * @param futureCovariates
+	 *            The list to which the future covariates are added in the same order.
 	 */
-	private HashMap<String, ArrayList<Long>> calculateEventMap(Measurement mCovar, long startTime, long endTimeIntensities, long startTimeForecast, long endTimeForecast) {
-		HashMap<String, ArrayList<Long>> eventMap = new HashMap<String, ArrayList<Long>>();
-
-		ArrayList<Pair<Long, String>> histValues = getStringValues(mCovar, convertTimestampToUtcDate(startTime), convertTimestampToUtcDate(endTimeIntensities));
-		ArrayList<Pair<Long, String>> futValues = getStringValues(mCovar, convertTimestampToUtcDate(startTimeForecast), convertTimestampToUtcDate(endTimeForecast));
-
-		for (Pair<Long, String> histValue : histValues) {
-			String value = histValue.getValue();
-			long timestamp = histValue.getKey();
-			if (eventMap.containsKey(value)) {
-				eventMap.get(value).add(timestamp);
-			} else {
-				ArrayList<Long> timestamps = new ArrayList<Long>();
-				timestamps.add(timestamp);
-				eventMap.put(value, timestamps);
-			}
-		}
-
-		// Only future values where corresponding past values exist
-		for (Pair<Long, String> futValue : futValues) {
-			String value = futValue.getValue();
-			if (eventMap.containsKey(value)) {
-				eventMap.get(value).add(futValue.getKey());
-			}
+	private void calculateCovariates(TimeSeriesAligner history, TimeSeriesAligner future, CovariateSeries covariates, List<Pair<String, double[]>> historicalCovariates,
+			List<Pair<String, double[]>> futureCovariates) {
+		if (forecastInput.getContext() == null) {
+			return;
 		}
-		return eventMap;
-	}
 
-	/**
-	 * Calculates historical occurrences for doubles.
-	 * 
-	 * @param mCovar
-	 * @param timestampsOfIntensities
-	 * @param startTime
-	 * @param endTimeIntensities
-	 * @return
-	 */
-	private ArrayList<Double> calculateHistoricalOccurrencesNumerical(Measurement mCovar, ArrayList<Long> timestampsOfIntensities, long startTime, long endTimeIntensities) {
-		ArrayList<Double> historicalOccurrences = new ArrayList<Double>(Collections.nCopies(timestampsOfIntensities.size(), 0.0));
-		ArrayList<Pair<Long, Double>> histValues = getNumericValues(mCovar, convertTimestampToUtcDate(startTime), convertTimestampToUtcDate(endTimeIntensities));
+		long interval = this.interval.asNumber() / NANOS_TO_MILLIS_FACTOR;
 
-		for (Pair<Long, Double> histValue : histValues) {
-			int index = timestampsOfIntensities.indexOf(histValue.getKey());
-			historicalOccurrences.set(index, histValue.getValue());
-		}
+		for (ContextParameter covar : forecastInput.getContext()) {
+			if (covar instanceof FutureNumbers) {
+				FutureNumbers numCovar = (FutureNumbers) covar;
+				NumericSeries series = covariates.numeric.get(covar);
 
-		return historicalOccurrences;
-	}
+				double[] historicalOccurrences = history.align(series);
+				double[] futureOccurrences = future.align(series);
 
-	/**
-	 * Calculates future occurrences for doubles.
-	 * 
-	 * @param mCovar
-	 * @param futureTimestamps
-	 * @param startTimeForecast
-	 * @param endTimeForecast
-	 * @return
-	 */
-	private ArrayList<Double> calculateFutureOccurrencesNumerical(Measurement mCovar, ArrayList<Long> futureTimestamps, long startTimeForecast, long endTimeForecast) {
-		ArrayList<Double> futureOccurrences = new ArrayList<Double>(Collections.nCopies(futureTimestamps.size(), 0.0));
-		ArrayList<Pair<Long, Double>> futValues = getNumericValues(mCovar, convertTimestampToUtcDate(startTimeForecast), convertTimestampToUtcDate(endTimeForecast));
+				for (FutureNumber numInstance : numCovar.getFuture()) {
+					mark(future, futureOccurrences, numInstance.getTime(), numInstance.getValue(), interval);
+				}
 
-		for (Pair<Long, Double> futValue : futValues) {
-			int index = futureTimestamps.indexOf(futValue.getKey());
-			futureOccurrences.set(index, futValue.getValue());
-		}
-		return futureOccurrences;
-	}
+				historicalCovariates.add(new Pair<>(numCovar.getMeasurement(), historicalOccurrences));
+				futureCovariates.add(new Pair<>(numCovar.getMeasurement(), futureOccurrences));
+			} else if (covar instanceof FutureEvents) {
+				FutureEvents stringCovar = (FutureEvents) covar;
+				StringSeries series = covariates.strings.get(covar);
 
-	/**
-	 * Passes intensities dataset and covariates to Prophet which does the forecasting. Aggregates
-	 * the resulting intensities to one intensity value.
-	 * 
-	 * @param datesOfIntensities
-	 * @param intensitiesOfUserGroup
-	 * @param size
-	 * @param re
-	 * @return
-	 */
-	private int forecastWithProphet(ArrayList<String> datesOfIntensities, ArrayList<Double> intensitiesOfUserGroup, ArrayList<Pair<String, ArrayList<Double>>> covariates,
-			ArrayList<Pair<String, ArrayList<Double>>> futureCovariates, int size, Rengine re) {
+				Map<String, double[]> historicalEvents = history.alignEvents(series);
+				Map<String, double[]> futureEvents = future.alignEvents(series);
 
-		double[] intensities = intensitiesOfUserGroup.stream().mapToDouble(i -> i).toArray();
-		String[] dates = new String[datesOfIntensities.size()];
-		dates = datesOfIntensities.toArray(dates);
+				// Only values where corresponding past values exist
+				for (Map.Entry<String, double[]> entry : historicalEvents.entrySet()) {
+					String value = entry.getKey();
+					double[] futureOccurrences = futureEvents.getOrDefault(value, new double[future.size()]);
 
-		re.assign("dates", dates);
-		re.assign("intensities", intensities);
+					for (FutureEvent stringInstance : stringCovar.getFuture()) {
+						if (stringInstance.getValue().equals(value)) {
+							mark(future, futureOccurrences, stringInstance.getTime(), 1.0, interval);
+						}
+					}
 
-		re.eval("source(\"prophet/InitializeVariables.R\")");
+					historicalCovariates.add(new Pair<>(value, entry.getValue()));
+					futureCovariates.add(new Pair<>(value, futureOccurrences));
+				}
+			} else if (covar instanceof Measurement) {
+				Measurement mCovar = (Measurement) covar;
 
-		if (!covariates.isEmpty()) {
-			for (Pair<String, ArrayList<Double>> covariate : covariates) {
-				double[] values = covariate.getValue().stream().mapToDouble(i -> i).toArray();
-				re.assign("values", values);
-				re.assign("covarname", covariate.getKey());
-				re.eval("source(\"prophet/AddRegressors.R\")");
-			}
-		}
+				if (covariates.numeric.containsKey(covar)) {
+					NumericSeries series = covariates.numeric.get(covar);
 
-		String period = Integer.toString(size);
-		re.assign("period", period);
+					historicalCovariates.add(new Pair<>(mCovar.getMeasurement(), history.align(series)));
+					futureCovariates.add(new Pair<>(mCovar.getMeasurement(), future.align(series)));
+				} else {
+					StringSeries series = covariates.strings.get(covar);
 
-		re.eval("source(\"prophet/FitModelAndCreateFutureDataframe.R\")");
+					Map<String, double[]> historicalEvents = history.alignEvents(series);
+					Map<String, double[]> futureEvents = future.alignEvents(series);
 
-		if (!covariates.isEmpty()) {
-			int x = 0;
-			for (Pair<String, ArrayList<Double>> covariate : covariates) {
-				covariate.getValue().addAll(futureCovariates.get(x).getValue());
-				double[] values = covariate.getValue().stream().mapToDouble(i -> i).toArray();
-				re.assign("values", values);
-				re.assign("covarname", covariate.getKey());
-				re.eval("source(\"prophet/ExtendFutureDataframe.R\")");
-				x++;
+					for (Map.Entry<String, double[]> entry : historicalEvents.entrySet()) {
+						historicalCovariates.add(new Pair<>(entry.getKey(), entry.getValue()));
+						futureCovariates.add(new Pair<>(entry.getKey(), futureEvents.getOrDefault(entry.getKey(), new double[future.size()])));
+					}
+				}
 			}
 		}
-
-		re.eval("source(\"prophet/ForecastProphet.R\")");
-
-		double[] forecastedIntensities = re.eval("forecastValues").asDoubleArray();
-
-		return aggregateWorkload(forecastedIntensities);
 	}
 
 	/**
-	 * Passes intensities dataset and covariates to Telescope which does the forecasting. Aggregates
-	 * the resulting intensities to one intensity value.
+	 * Sets the value at the future timestamps specified in the forecast input. Timestamps
+	 * outside of the forecasted range are ignored.
 	 * 
-	 * @param intensitiesOfUserGroup
-	 * @return
+	 * @param future
+	 * @param occurrences
+	 * @param futureTimes
+	 * @param value
+	 * @param interval
 	 */
-	private int forecastWithTelescope(ArrayList<Double> intensitiesOfUserGroup, ArrayList<Pair<String, ArrayList<Double>>> covariates, ArrayList<Pair<String, ArrayList<Double>>> futureCovariates,
-			int size, Rengine re) {
-		if (!covariates.isEmpty()) {
-			// hist.covar
-			String matrixString = calculateMatrix("hist", covariates, re);
-			re.assign("hist.covar.matrix", re.eval(matrixString));
-
-			// future.covar
-			String futureMatrixString = calculateMatrix("future", futureCovariates, re);
-			re.assign("future.covar.matrix", re.eval(futureMatrixString));
-		}
-
-		double[] intensities = intensitiesOfUserGroup.stream().mapToDouble(i -> i).toArray();
+	private void mark(TimeSeriesAligner future, double[] occurrences, FutureOccurrences futureTimes, double value, long interval) {
+		for (long timestamp : futureTimes.getFutureDatesAsTimestamps(interval)) {
+			int index = future.indexOf(timestamp);
 
-		String period = Integer.toString(size);
-
-		re.assign("intensities", intensities);
-		re.assign("period", period);
-
-		if (!covariates.isEmpty()) {
-			re.eval("source(\"telescope-multi/ForecastTelescopeWithCovariates.R\")");
-		} else {
-			re.eval("source(\"telescope-multi/ForecastTelescope.R\")");
+			if (index >= 0) {
+				occurrences[index] = value;
+			} else {
+				LOGGER.warn("Ignoring future covariate value at {}, as it is outside of the forecasted range.", timestamp);
+			}
 		}
-		re.eval("dev.off()");
-
-		double[] forecastedIntensities = re.eval("forecastValues").asDoubleArray();
-
-		return aggregateWorkload(forecastedIntensities);
 	}
 
 	/**
@@ -560,50 +397,6 @@ public class ForecastPipelineManager {
 		return (int) Math.round(maxIntensity);
 	}
 
-	/**
-	 * Calculates a covariate matrix. Such a matrix is an input to Telescope.
-	 * 
-	 * @param string
-	 * @param covariates
-	 * @param re
-	 * @return
-	 */
-	private String calculateMatrix(String string, ArrayList<Pair<String, ArrayList<Double>>> covariates, Rengine re) {
-		ArrayList<String> nameOfCovars = new ArrayList<String>();
-		for (Pair<String, ArrayList<Double>> covariateValues : covariates) {
-			String name = covariateValues.getKey() + "." + string;
-			double[] occurrences = covariateValues.getValue().stream().mapToDouble(i -> i).toArray();
-			re.assign(name, occurrences);
-			nameOfCovars.add(name);
-		}
-
-		String matrixString = "cbind(";
-
-		boolean isFirst = true;
-		for (String name : nameOfCovars) {
-			if (isFirst) {
-				matrixString += name;
-				isFirst = false;
-			} else {
-				matrixString += "," + name;
-			}
-		}
-		matrixString += ")";
-		return matrixString;
-	}
-
-	/**
-	 * Converts a milliseconds timestamp to UTC date as string.
-	 * 
-	 * @param timestamp
-	 * @return
-	 */
-	private String convertTimestampToUtcDate(long timestamp) {
-		DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
-		String date = Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC).format(dtf).toString();
-		return date;
-	}
-
 	/**
 	 * Tests if values in a measurement are numerical.
 	 * 
@@ -611,90 +404,32 @@ public class ForecastPipelineManager {
 	 * @return
 	 */
 	private boolean identifyIfNumericValues(Measurement mCovar) {
-		String measurementName = mCovar.getMeasurement();
-		String queryString = "SELECT time, value FROM " + measurementName;
-		Query query = new Query(queryString, tag);
-		QueryResult queryResult = influxDb.query(query);
-		Result result = queryResult.getResults().get(0);
-		if (result.getSeries() != null) {
-			Series serie = result.getSeries().get(0);
-			if (serie.getValues().get(0).get(1).getClass().toString().equalsIgnoreCase("class java.lang.Double")) {
-				return true;
-			}
-		}
-		return false;
+		ValueType type = backend.getValueType(tag, mCovar.getMeasurement());
+		return (type == ValueType.NUMERIC) || ((type == ValueType.BOOLEAN) && (booleans == BooleanCovariates.NUMERIC));
 	}
 
 	/**
-	 * Gets numeric values from database.
+	 * Gets the numeric values of a covariate in the specified range from database.
 	 * 
-	 * @param covariateValues
 	 * @param covar
-	 * @param startTime
-	 * @param endTime
+	 * @param from
+	 * @param to
 	 * @return
 	 */
-	private ArrayList<Pair<Long, Double>> getNumericValues(Measurement covar, String startTime, String endTime) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-		sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-		ArrayList<Pair<Long, Double>> measurements = new ArrayList<Pair<Long, Double>>();
-		String measurementName = covar.getMeasurement();
-		String queryString = "SELECT time, value FROM " + measurementName + " WHERE time >= '" + startTime + "' AND time <= '" + endTime + "'";
-		Query query = new Query(queryString, tag);
-		QueryResult queryResult = influxDb.query(query);
-		for (Result result : queryResult.getResults()) {
-			if (result.getSeries() != null) {
-				for (Series serie : result.getSeries()) {
-					for (List<Object> listTuples : serie.getValues()) {
-						long time = 0;
-						try {
-							time = sdf.parse((String) listTuples.get(0)).getTime();
-						} catch (ParseException e) {
-
-						}
-						double measurement = (double) listTuples.get(1);
-						Pair<Long, Double> timeAndValue = new Pair<>(time, measurement);
-						measurements.add(timeAndValue);
-					}
-				}
-			}
-		}
-		return measurements;
+	private NumericSeries getNumericValues(Measurement covar, long from, long to) {
+		return backend.readNumbers(tag, covar.getMeasurement(), from, to);
 	}
 
 	/**
-	 * Gets String values from database.
+	 * Gets the String values of a covariate in the specified range from database.
 	 * 
 	 * @param covar
-	 * @param startTime
-	 * @param endTime
+	 * @param from
+	 * @param to
+	 * @return
 	 */
-	private ArrayList<Pair<Long, String>> getStringValues(Measurement covar, String startTime, String endTime) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-		sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-		ArrayList<Pair<Long, String>> events = new ArrayList<Pair<Long, String>>();
-		String measurementName = covar.getMeasurement();
-		String queryString = "SELECT time, value FROM " + measurementName + " WHERE time >= '" + startTime + "' AND time <= '" + endTime + "'";
-		Query query = new Query(queryString, tag);
-		QueryResult queryResult = influxDb.query(query);
-		for (Result result : queryResult.getResults()) {
-			if (result.getSeries() != null) {
-				for (Series serie : result.getSeries()) {
-					for (List<Object> listTuples : serie.getValues()) {
-						long time = 0;
-						try {
-							time = sdf.parse((String) listTuples.get(0)).getTime();
-						} catch (ParseException e) {
-
-						}
-						String event = (String) listTuples.get(1);
-						Pair<Long, String> timeAndValue = new Pair<>(time, event);
-						events.add(timeAndValue);
-					}
-				}
-			}
-		}
-		return events;
+	private StringSeries getStringValues(Measurement covar, long from, long to) {
+		return backend.readStrings(tag, covar.getMeasurement(), from, to);
 	}
 
 	/**
@@ -704,79 +439,27 @@ public class ForecastPipelineManager {
 	 * @return
 	 */
 	public Pair<ArrayList<Long>, ArrayList<Double>> getIntensitiesOfUserGroupFromDatabase(int userGroupId) {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-		sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-		Pair<ArrayList<Long>, ArrayList<Double>> timestampsAndIntensities = null;
-		ArrayList<Long> timestamps = new ArrayList<Long>();
-		ArrayList<Double> intensities = new ArrayList<Double>();
-		String measurementName = "userGroup" + userGroupId;
-		Query query = new Query("SELECT time, value FROM " + measurementName, tag);
-		QueryResult queryResult = influxDb.query(query);
-		for (Result result : queryResult.getResults()) {
-			if (result.getSeries() != null) {
-				for (Series serie : result.getSeries()) {
-					for (List<Object> listTuples : serie.getValues()) {
-						long time = 0;
-						try {
-							time = sdf.parse((String) listTuples.get(0)).getTime();
-						} catch (ParseException e) {
+		NumericSeries series = backend.readNumbers(tag, "userGroup" + userGroupId, Long.MIN_VALUE, Long.MAX_VALUE);
+		ArrayList<Long> timestamps = new ArrayList<Long>(series.size());
+		ArrayList<Double> intensities = new ArrayList<Double>(series.size());
 
-						}
-						double intensity = (double) listTuples.get(1);
-						timestamps.add(time);
-						intensities.add(intensity);
-					}
-				}
-			}
+		for (int i = 0; i < series.size(); i++) {
+			timestamps.add(series.getTimestamp(i));
+			intensities.add(series.getValue(i));
 		}
-		timestampsAndIntensities = new Pair<>(timestamps, intensities);
-		return timestampsAndIntensities;
-	}
 
-	/**
-	 * Initializes Telescope.
-	 * 
-	 * @param re
-	 */
-	private void initializeTelescope(Rengine re) {
-		re.eval("source(\"telescope-multi/R/telescope.R\")");
-		re.eval("source(\"telescope-multi/R/cluster_periods.R\")");
-		re.eval("source(\"telescope-multi/R/detect_anoms.R\")");
-		re.eval("source(\"telescope-multi/R/fitting_models.R\")");
-		re.eval("source(\"telescope-multi/R/frequency.R\")");
-		re.eval("source(\"telescope-multi/R/outlier.R\")");
-		re.eval("source(\"telescope-multi/R/telescope_Utils.R\")");
-		re.eval("source(\"telescope-multi/R/vec_anom_detection.R\")");
-		re.eval("source(\"telescope-multi/R/xgb.R\")");
-
-		re.eval("library(xgboost)");
-		re.eval("library(cluster)");
-		re.eval("library(forecast)");
-		re.eval("library(e1071)");
+		return new Pair<>(timestamps, intensities);
 	}
 
 	/**
-	 * Initializes Prophet.
-	 * 
-	 * @param re
+	 * The values of the covariates per context parameter. Read once and shared by the user
+	 * groups.
 	 */
-	private void initializeProphet(Rengine re) {
-		re.eval("library(prophet)");
-	}
+	private static class CovariateSeries {
 
-	/**
-	 * Initializes Rengine.
-	 * 
-	 * @return
-	 */
-	private Rengine initializeRengine() {
-		String newargs1[] = { "--no-save" };
+		private final Map<ContextParameter, NumericSeries> numeric = new IdentityHashMap<>();
+
+		private final Map<ContextParameter, StringSeries> strings = new IdentityHashMap<>();
 
-		Rengine re = Rengine.getMainEngine();
-		if (re == null) {
-			re = new Rengine(newargs1, false, null);
-		}
-		re.eval(".libPaths('/usr/local/lib/R/site-library/')");
-		return re;
 	}
 }
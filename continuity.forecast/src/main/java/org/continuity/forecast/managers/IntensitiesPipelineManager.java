@@ -2,11 +2,7 @@ package org.continuity.forecast.managers;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.Range;
 import org.apache.commons.math3.util.Pair;
@@ -14,12 +10,13 @@ import org.continuity.api.entities.artifact.SessionsBundle;
 import org.continuity.api.entities.artifact.SessionsBundlePack;
 import org.continuity.api.entities.artifact.SimplifiedSession;
 import org.continuity.commons.utils.IntensityCalculationUtils;
+import org.continuity.commons.utils.SweepLineIntensityCalculator;
+import org.continuity.commons.utils.SweepLineIntensityCalculator.IntensitySeries;
 import org.continuity.commons.utils.WebUtils;
 import org.continuity.dsl.description.ForecastInput;
 import org.continuity.dsl.description.IntensityCalculationInterval;
-import org.influxdb.BatchOptions;
-import org.influxdb.InfluxDB;
-import org.influxdb.dto.Point;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.WriteReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestClientException;
@@ -37,7 +34,9 @@ public class IntensitiesPipelineManager {
 
 	private RestTemplate restTemplate;
 
-	private InfluxDB influxDb;
+	private static final long NANOS_TO_MILLIS_FACTOR = 1000000;
+
+	private TimeSeriesBackend backend;
 
 	private String tag;
 
@@ -66,9 +65,9 @@ public class IntensitiesPipelineManager {
 	/**
 	 * Constructor.
 	 */
-	public IntensitiesPipelineManager(RestTemplate restTemplate, InfluxDB influxDb, String tag, ForecastInput context) {
+	public IntensitiesPipelineManager(RestTemplate restTemplate, TimeSeriesBackend backend, String tag, ForecastInput context) {
 		this.restTemplate = restTemplate;
-		this.influxDb = influxDb;
+		this.backend = backend;
 		this.tag = tag;
 		this.forecastInput = context;
 	}
@@ -77,21 +76,10 @@ public class IntensitiesPipelineManager {
 
 	}
 
-	@SuppressWarnings("deprecation")
-	public void setupDatabase() {
-		String dbName = this.tag;
-		if (!influxDb.describeDatabases().contains(dbName)) {
-			influxDb.createDatabase(dbName);
-		}
-		influxDb.setDatabase(dbName);
-		influxDb.setRetentionPolicy("autogen");
-	}
-
 	/**
 	 * Runs the pipeline.
 	 */
 	public void runPipeline(String linkToSessions) {
-		setupDatabase();
 		SessionsBundlePack sessionsBundles = null;
 		try {
 			sessionsBundles = restTemplate.getForObject(WebUtils.addProtocolIfMissing(linkToSessions), SessionsBundlePack.class);
@@ -104,11 +92,7 @@ public class IntensitiesPipelineManager {
 		Pair<Date, Integer> pairDateUserGroupAmount = new Pair<>(date, amountOfUsers);
 		setDateAndAmountOfUserGroups(pairDateUserGroupAmount);
 
-		influxDb.enableBatch(BatchOptions.DEFAULTS);
-
 		calculateIntensities(sessionsBundles.getSessionsBundles());
-
-		influxDb.disableBatch();
 	}
 
 	/**
@@ -124,7 +108,7 @@ public class IntensitiesPipelineManager {
 
 	/**
 	 * Calculates the intensities for one user group. Saves the intensities into database.
-	 * Timestamps are in nanoseconds.
+	 * Timestamps are in nanoseconds and are stored in milliseconds.
 	 * 
 	 * @param sessions
 	 * @return
@@ -177,39 +161,31 @@ public class IntensitiesPipelineManager {
 			listOfRanges.remove(listOfRanges.size() - 1);
 		}
 
-		// This map is used to hold necessary information which will be saved into DB
-		HashMap<Long, Integer> intensities = new HashMap<Long, Integer>();
+		IntensitySeries series = SweepLineIntensityCalculator.calculate(sessions, listOfRanges, rangeLength);
 
-		for (Range<Long> range : listOfRanges) {
-			ArrayList<SimplifiedSession> sessionsInRange = new ArrayList<SimplifiedSession>();
-			for (SimplifiedSession session : sessions) {
-				Range<Long> sessionRange = Range.between(session.getStartTime(), session.getEndTime());
-				if (sessionRange.containsRange(range) || range.contains(session.getStartTime()) || range.contains(session.getEndTime())) {
-					sessionsInRange.add(session);
-				}
-			}
-			int intensityOfRange = (int) IntensityCalculationUtils.calculateIntensityForRange(range, sessionsInRange, rangeLength);
-			intensities.put(range.getMinimum(), intensityOfRange);
-		}
-
-		saveIntensitiesOfUserGroupIntoDb(intensities, behaviorId);
+		saveIntensitiesOfUserGroupIntoDb(series, behaviorId);
 	}
 
 	/**
-	 * Saves intensities into InfluxDB
+	 * Saves intensities into the time series backend.
 	 * 
-	 * @param intensities
+	 * @param series
 	 */
-	@SuppressWarnings("rawtypes")
-	private void saveIntensitiesOfUserGroupIntoDb(HashMap<Long, Integer> intensities, int behaviorId) {
+	private void saveIntensitiesOfUserGroupIntoDb(IntensitySeries series, int behaviorId) {
 		String measurementName = "userGroup" + behaviorId;
-		Iterator iterator = intensities.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry pair = (Map.Entry) iterator.next();
-			Point point = Point.measurement(measurementName).time((long) pair.getKey(), TimeUnit.NANOSECONDS).addField("value", (int) pair.getValue()).build();
+		long[] timestamps = new long[series.size()];
+		long[] intensities = new long[series.size()];
+
+		for (int i = 0; i < series.size(); i++) {
+			timestamps[i] = series.getRangeStart(i) / NANOS_TO_MILLIS_FACTOR;
+			intensities[i] = (int) series.getAverage(i);
+		}
+
+		// integers, as InfluxDB rejects other values for the measurements written by previous versions
+		WriteReport report = backend.writeIntegers(tag, measurementName, timestamps, intensities, series.size());
 
-			influxDb.write(point);
-			iterator.remove();
+		if (!report.isSuccessful()) {
+			LOGGER.error("Could not save the intensities of {}: {}", measurementName, report);
 		}
 	}
 }
@@ -0,0 +1,20 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * How boolean covariate values are stored and used for forecasting. Configured by
+ * {@code forecast.covariates.booleans}.
+ */
+public enum BooleanCovariates {
+
+	/**
+	 * Store the values as strings {@code true} and {@code false}, which are handled as events
+	 * like other string covariates. This is the default and the behavior of previous versions.
+	 */
+	EVENTS,
+
+	/**
+	 * Store the values as numbers 1 and 0, which are handled like other numeric covariates.
+	 */
+	NUMERIC;
+
+}
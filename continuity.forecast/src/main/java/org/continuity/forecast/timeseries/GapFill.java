@@ -0,0 +1,27 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * How intervals without any value are filled when aligning a series to a time grid.
+ *
+ *
+ * @see TimeSeriesAligner
+ */
+public enum GapFill {
+
+	/**
+	 * Fill with 0.
+	 */
+	ZERO,
+
+	/**
+	 * Fill with the previous value. Gaps before the first value are filled with 0.
+	 */
+	PREVIOUS,
+
+	/**
+	 * Interpolate linearly between the previous and the next value. Gaps before the first or
+	 * after the last value are filled with the nearest value.
+	 */
+	LINEAR;
+
+}
@@ -0,0 +1,85 @@
+package org.continuity.forecast.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Numeric values of a measurement sorted by timestamp.
+ */
+public class NumericSeries {
+
+	private long[] timestamps;
+
+	private double[] values;
+
+	private int size = 0;
+
+	/**
+	 * Creates an empty series.
+	 *
+	 * @param capacity
+	 *            The initial capacity.
+	 */
+	public NumericSeries(int capacity) {
+		this.timestamps = new long[Math.max(capacity, 1)];
+		this.values = new double[Math.max(capacity, 1)];
+	}
+
+	public NumericSeries() {
+		this(16);
+	}
+
+	/**
+	 * Appends a value. The timestamp has to be greater than the timestamp of the last value.
+	 *
+	 * @param timestamp
+	 *            The timestamp in milliseconds.
+	 * @param value
+	 *            The value.
+	 */
+	public void add(long timestamp, double value) {
+		if (size == timestamps.length) {
+			int capacity = timestamps.length * 2;
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		timestamps[size] = timestamp;
+		values[size] = value;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long getTimestamp(int index) {
+		return timestamps[index];
+	}
+
+	public double getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Gets a copy of the timestamps.
+	 *
+	 * @return The timestamps in milliseconds.
+	 */
+	public long[] getTimestamps() {
+		return Arrays.copyOf(timestamps, size);
+	}
+
+	/**
+	 * Gets a copy of the values.
+	 *
+	 * @return The values.
+	 */
+	public double[] getValues() {
+		return Arrays.copyOf(values, size);
+	}
+
+}
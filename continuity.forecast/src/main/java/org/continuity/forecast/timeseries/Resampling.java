@@ -0,0 +1,32 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * How several values falling into the same interval are combined when aligning a series to a
+ * time grid.
+ *
+ *
+ * @see TimeSeriesAligner
+ */
+public enum Resampling {
+
+	/**
+	 * Use the value with the latest timestamp.
+	 */
+	LAST,
+
+	/**
+	 * Use the mean of the values.
+	 */
+	MEAN,
+
+	/**
+	 * Use the sum of the values.
+	 */
+	SUM,
+
+	/**
+	 * Use the maximum of the values.
+	 */
+	MAX;
+
+}
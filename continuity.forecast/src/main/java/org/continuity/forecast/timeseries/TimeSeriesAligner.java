@@ -0,0 +1,265 @@
+package org.continuity.forecast.timeseries;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aligns series to a sorted time grid, e.g., the timestamps of the intensities. Each grid point
+ * represents the interval from its timestamp up to the next grid point. The last grid point
+ * represents one interval length. Values are assigned to the intervals with a single pass over
+ * the grid and the sorted series, so that aligning is linear in the lengths of both. <br>
+ *
+ * Several values in one interval are combined according to the {@link Resampling}. Intervals
+ * without values are filled according to the {@link GapFill}. Values before the grid are
+ * considered as previous and values after the grid as next values when filling gaps.
+ */
+public class TimeSeriesAligner {
+
+	private final long[] grid;
+
+	private final long intervalMillis;
+
+	private final Resampling resampling;
+
+	private final GapFill gapFill;
+
+	/**
+	 * Creates a new aligner.
+	 *
+	 * @param grid
+	 *            The sorted timestamps to align to in milliseconds.
+	 * @param intervalMillis
+	 *            The length of the interval represented by the last grid point in milliseconds.
+	 * @param resampling
+	 *            How several values in one interval are combined.
+	 * @param gapFill
+	 *            How intervals without values are filled.
+	 */
+	public TimeSeriesAligner(long[] grid, long intervalMillis, Resampling resampling, GapFill gapFill) {
+		this.grid = grid;
+		this.intervalMillis = intervalMillis;
+		this.resampling = resampling;
+		this.gapFill = gapFill;
+	}
+
+	/**
+	 * Creates a regular grid.
+	 *
+	 * @param start
+	 *            The first timestamp in milliseconds.
+	 * @param end
+	 *            The maximum timestamp in milliseconds (inclusive).
+	 * @param intervalMillis
+	 *            The interval between two grid points in milliseconds.
+	 * @return The grid. Empty if the end is before the start.
+	 */
+	public static long[] regularGrid(long start, long end, long intervalMillis) {
+		if (end < start) {
+			return new long[0];
+		}
+
+		long[] grid = new long[(int) (((end - start) / intervalMillis) + 1)];
+
+		for (int i = 0; i < grid.length; i++) {
+			grid[i] = start + (i * intervalMillis);
+		}
+
+		return grid;
+	}
+
+	public long[] getGrid() {
+		return grid;
+	}
+
+	public int size() {
+		return grid.length;
+	}
+
+	/**
+	 * Gets the index of the grid point whose interval contains the timestamp.
+	 *
+	 * @param timestamp
+	 *            The timestamp in milliseconds.
+	 * @return The index or -1 if the timestamp is outside of the grid.
+	 */
+	public int indexOf(long timestamp) {
+		if ((grid.length == 0) || (timestamp < grid[0]) || (timestamp >= end())) {
+			return -1;
+		}
+
+		int index = Arrays.binarySearch(grid, timestamp);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Aligns a numeric series to the grid.
+	 *
+	 * @param series
+	 *            The series sorted by timestamp.
+	 * @return The aligned values with the same indices as the grid.
+	 */
+	public double[] align(NumericSeries series) {
+		double[] aligned = new double[grid.length];
+		boolean[] present = new boolean[grid.length];
+
+		int s = 0;
+
+		while ((s < series.size()) && (grid.length > 0) && (series.getTimestamp(s) < grid[0])) {
+			s++;
+		}
+
+		int numBefore = s;
+
+		for (int i = 0; i < grid.length; i++) {
+			long end = (i + 1) < grid.length ? grid[i + 1] : end();
+			int count = 0;
+			double value = 0;
+
+			while ((s < series.size()) && (series.getTimestamp(s) < end)) {
+				value = combine(value, series.getValue(s), count);
+				count++;
+				s++;
+			}
+
+			if (count > 0) {
+				aligned[i] = (resampling == Resampling.MEAN) ? value / count : value;
+				present[i] = true;
+			}
+		}
+
+		if (gapFill == GapFill.PREVIOUS) {
+			fillPrevious(aligned, present, numBefore > 0 ? series.getValue(numBefore - 1) : 0);
+		} else if (gapFill == GapFill.LINEAR) {
+			Anchor before = numBefore > 0 ? new Anchor(series.getTimestamp(numBefore - 1), series.getValue(numBefore - 1)) : null;
+			Anchor after = s < series.size() ? new Anchor(series.getTimestamp(s), series.getValue(s)) : null;
+			fillLinear(aligned, present, before, after);
+		}
+
+		return aligned;
+	}
+
+	/**
+	 * Aligns a string series to the grid by creating one indicator series per distinct value.
+	 * An indicator is 1 for the intervals in which the value occurs and 0 otherwise. Values
+	 * outside of the grid are ignored.
+	 *
+	 * @param series
+	 *            The series sorted by timestamp.
+	 * @return The indicators per value in the order of the first occurrence.
+	 */
+	public Map<String, double[]> alignEvents(StringSeries series) {
+		Map<String, double[]> indicators = new LinkedHashMap<>();
+		int i = 0;
+
+		for (int s = 0; s < series.size(); s++) {
+			long timestamp = series.getTimestamp(s);
+
+			if ((grid.length == 0) || (timestamp < grid[0])) {
+				continue;
+			}
+
+			while (((i + 1) < grid.length) && (grid[i + 1] <= timestamp)) {
+				i++;
+			}
+
+			if (((i + 1) == grid.length) && (timestamp >= end())) {
+				break;
+			}
+
+			indicators.computeIfAbsent(series.getValue(s), v -> new double[grid.length])[i] = 1;
+		}
+
+		return indicators;
+	}
+
+	private long end() {
+		return grid[grid.length - 1] + intervalMillis;
+	}
+
+	private double combine(double current, double value, int count) {
+		if (count == 0) {
+			return value;
+		}
+
+		switch (resampling) {
+		case MEAN:
+		case SUM:
+			return current + value;
+		case MAX:
+			return Math.max(current, value);
+		case LAST:
+		default:
+			return value;
+		}
+	}
+
+	private void fillPrevious(double[] aligned, boolean[] present, double initial) {
+		double previous = initial;
+
+		for (int i = 0; i < aligned.length; i++) {
+			if (present[i]) {
+				previous = aligned[i];
+			} else {
+				aligned[i] = previous;
+			}
+		}
+	}
+
+	private void fillLinear(double[] aligned, boolean[] present, Anchor before, Anchor after) {
+		Anchor previous = before;
+		int i = 0;
+
+		while (i < aligned.length) {
+			if (present[i]) {
+				previous = new Anchor(grid[i], aligned[i]);
+				i++;
+				continue;
+			}
+
+			int gapEnd = i;
+
+			while ((gapEnd < aligned.length) && !present[gapEnd]) {
+				gapEnd++;
+			}
+
+			Anchor next = gapEnd < aligned.length ? new Anchor(grid[gapEnd], aligned[gapEnd]) : after;
+
+			for (int k = i; k < gapEnd; k++) {
+				aligned[k] = interpolate(previous, next, grid[k]);
+			}
+
+			i = gapEnd;
+		}
+	}
+
+	private double interpolate(Anchor previous, Anchor next, long timestamp) {
+		if ((previous == null) && (next == null)) {
+			return 0;
+		} else if (previous == null) {
+			return next.value;
+		} else if (next == null) {
+			return previous.value;
+		}
+
+		double fraction = (double) (timestamp - previous.timestamp) / (next.timestamp - previous.timestamp);
+		return previous.value + (fraction * (next.value - previous.value));
+	}
+
+	/**
+	 * A known value used for interpolation.
+	 */
+	private static class Anchor {
+
+		private final long timestamp;
+
+		private final double value;
+
+		private Anchor(long timestamp, double value) {
+			this.timestamp = timestamp;
+			this.value = value;
+		}
+
+	}
+
+}
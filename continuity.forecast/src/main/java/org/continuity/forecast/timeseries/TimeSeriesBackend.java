@@ -0,0 +1,78 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * Backend storing time series of intensities and covariates. The time series are organized in
+ * databases, one per tag, holding measurements, one per user group or covariate. Each
+ * measurement has at most one value per timestamp. Writing a value for an existing timestamp
+ * overwrites the present value. Timestamps are in milliseconds.
+ */
+public interface TimeSeriesBackend {
+
+	/**
+	 * Writes numeric values. The database and measurement are created if not present.
+	 *
+	 * @param database
+	 *            The database (tag).
+	 * @param measurement
+	 *            The measurement.
+	 * @param timestamps
+	 *            The timestamps in milliseconds. Do not need to be sorted.
+	 * @param values
+	 *            The values with the same indices as the timestamps.
+	 * @param length
+	 *            The number of values to be written.
+	 * @return A report of the write.
+	 */
+	WriteReport writeNumbers(String database, String measurement, long[] timestamps, double[] values, int length);
+
+	/**
+	 * Writes integer values. Backends distinguishing integers from other numbers store them as
+	 * integers. The values are read as {@link #readNumbers(String, String, long, long) numbers}.
+	 *
+	 * @see #writeNumbers(String, String, long[], double[], int)
+	 */
+	WriteReport writeIntegers(String database, String measurement, long[] timestamps, long[] values, int length);
+
+	/**
+	 * Writes string values. The database and measurement are created if not present.
+	 *
+	 * @see #writeNumbers(String, String, long[], double[], int)
+	 */
+	WriteReport writeStrings(String database, String measurement, long[] timestamps, String[] values, int length);
+
+	/**
+	 * Reads the numeric values in the specified time range.
+	 *
+	 * @param database
+	 *            The database (tag).
+	 * @param measurement
+	 *            The measurement.
+	 * @param from
+	 *            The start of the range in milliseconds (inclusive). {@link Long#MIN_VALUE} for an
+	 *            open range.
+	 * @param to
+	 *            The end of the range in milliseconds (inclusive). {@link Long#MAX_VALUE} for an
+	 *            open range.
+	 * @return The values sorted by timestamp. Empty if the measurement does not exist.
+	 */
+	NumericSeries readNumbers(String database, String measurement, long from, long to);
+
+	/**
+	 * Reads the string values in the specified time range.
+	 *
+	 * @see #readNumbers(String, String, long, long)
+	 */
+	StringSeries readStrings(String database, String measurement, long from, long to);
+
+	/**
+	 * Gets the type of the values of a measurement.
+	 *
+	 * @param database
+	 *            The database (tag).
+	 * @param measurement
+	 *            The measurement.
+	 * @return The value type or {@code null} if the measurement does not exist.
+	 */
+	ValueType getValueType(String database, String measurement);
+
+}
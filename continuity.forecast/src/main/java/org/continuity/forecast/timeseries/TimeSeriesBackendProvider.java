@@ -0,0 +1,19 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * Provides the {@link TimeSeriesBackend} to be used.
+ */
+@FunctionalInterface
+public interface TimeSeriesBackendProvider {
+
+	/**
+	 * Gets the backend.
+	 *
+	 * @param influxLink
+	 *            The link to the InfluxDB as specified in the forecast options. Only considered
+	 *            if InfluxDB is used as backend. May be {@code null} for the configured default.
+	 * @return The backend.
+	 */
+	TimeSeriesBackend get(String influxLink);
+
+}
@@ -0,0 +1,16 @@
+package org.continuity.forecast.timeseries;
+
+/**
+ * Type of the values of a measurement.
+ */
+public enum ValueType {
+
+	NUMERIC, STRING,
+
+	/**
+	 * Boolean values, which can be read as numbers 1 and 0 or as strings {@code true} and
+	 * {@code false}. Only reported for data written by previous versions to InfluxDB.
+	 */
+	BOOLEAN;
+
+}
@@ -0,0 +1,148 @@
+package org.continuity.forecast.timeseries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Report of writing data points to a {@link TimeSeriesBackend} in one or several batches. Holds
+ * the number of points, the size and the latency of each batch.
+ */
+@JsonPropertyOrder({ "database", "num-points", "num-skipped", "num-failed-batches", "batches" })
+public class WriteReport {
+
+	private final String database;
+
+	@JsonProperty("num-skipped")
+	private final int numSkipped;
+
+	private final List<Batch> batches;
+
+	public WriteReport(String database, int numSkipped, List<Batch> batches) {
+		this.database = database;
+		this.numSkipped = numSkipped;
+		this.batches = Collections.unmodifiableList(new ArrayList<>(batches));
+	}
+
+	public String getDatabase() {
+		return database;
+	}
+
+	/**
+	 * Gets the number of values that have been skipped, because they cannot be represented in
+	 * the backend.
+	 *
+	 * @return The number of skipped values.
+	 */
+	public int getNumSkipped() {
+		return numSkipped;
+	}
+
+	public List<Batch> getBatches() {
+		return batches;
+	}
+
+	/**
+	 * Gets the number of successfully written points.
+	 *
+	 * @return The number of points.
+	 */
+	@JsonProperty("num-points")
+	public int getNumPoints() {
+		return batches.stream().filter(Batch::isSuccessful).mapToInt(Batch::getNumPoints).sum();
+	}
+
+	@JsonProperty("num-failed-batches")
+	public long getNumFailedBatches() {
+		return batches.stream().filter(batch -> !batch.isSuccessful()).count();
+	}
+
+	@JsonIgnore
+	public boolean isSuccessful() {
+		return getNumFailedBatches() == 0;
+	}
+
+	@JsonIgnore
+	public long getMaxLatencyMillis() {
+		return batches.stream().mapToLong(Batch::getLatencyMillis).max().orElse(0);
+	}
+
+	/**
+	 * Combines several reports of the same database.
+	 *
+	 * @param database
+	 *            The database.
+	 * @param reports
+	 *            The reports to be combined.
+	 * @return A report holding the skipped values and batches of all reports.
+	 */
+	public static WriteReport combine(String database, List<WriteReport> reports) {
+		List<Batch> batches = new ArrayList<>();
+		int numSkipped = 0;
+
+		for (WriteReport report : reports) {
+			batches.addAll(report.getBatches());
+			numSkipped += report.getNumSkipped();
+		}
+
+		return new WriteReport(database, numSkipped, batches);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d points to %s in %d batches (%d failed, %d values skipped), max. latency %d ms, avg. latency %.1f ms", getNumPoints(), database, batches.size(),
+				getNumFailedBatches(), numSkipped, getMaxLatencyMillis(), batches.stream().mapToLong(Batch::getLatencyMillis).average().orElse(0));
+	}
+
+	/**
+	 * A single batch of points written at once.
+	 */
+	@JsonPropertyOrder({ "num-points", "num-bytes", "latency-millis", "successful" })
+	public static class Batch {
+
+		@JsonProperty("num-points")
+		private final int numPoints;
+
+		@JsonProperty("num-bytes")
+		private final int numBytes;
+
+		@JsonProperty("latency-millis")
+		private final long latencyMillis;
+
+		private final boolean successful;
+
+		public Batch(int numPoints, int numBytes, long latencyMillis, boolean successful) {
+			this.numPoints = numPoints;
+			this.numBytes = numBytes;
+			this.latencyMillis = latencyMillis;
+			this.successful = successful;
+		}
+
+		public int getNumPoints() {
+			return numPoints;
+		}
+
+		public int getNumBytes() {
+			return numBytes;
+		}
+
+		/**
+		 * Gets the duration of writing the batch.
+		 *
+		 * @return The latency in milliseconds.
+		 */
+		public long getLatencyMillis() {
+			return latencyMillis;
+		}
+
+		public boolean isSuccessful() {
+			return successful;
+		}
+
+	}
+
+}
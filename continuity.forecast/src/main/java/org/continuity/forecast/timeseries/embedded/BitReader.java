@@ -0,0 +1,46 @@
+package org.continuity.forecast.timeseries.embedded;
+
+/**
+ * Reads single bits from a byte array, most significant bit first.
+ */
+class BitReader {
+
+	private final byte[] bytes;
+
+	private long position = 0;
+
+	BitReader(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	boolean readBit() {
+		boolean bit = (bytes[(int) (position >>> 3)] & (0x80 >>> (position & 7))) != 0;
+		position++;
+		return bit;
+	}
+
+	/**
+	 * Reads an unsigned value.
+	 *
+	 * @param length
+	 *            The number of bits to be read (0 to 64).
+	 * @return The value.
+	 */
+	long readBits(int length) {
+		long value = 0;
+
+		while (length > 0) {
+			int index = (int) (position >>> 3);
+			int available = 8 - (int) (position & 7);
+			int take = Math.min(available, length);
+			int bits = (bytes[index] >>> (available - take)) & ((1 << take) - 1);
+
+			value = (value << take) | bits;
+			position += take;
+			length -= take;
+		}
+
+		return value;
+	}
+
+}
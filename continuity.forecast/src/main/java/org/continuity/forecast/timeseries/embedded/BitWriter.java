@@ -0,0 +1,63 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import java.util.Arrays;
+
+/**
+ * Writes single bits to a growing byte array, most significant bit first.
+ */
+class BitWriter {
+
+	private byte[] bytes;
+
+	private long numBits = 0;
+
+	BitWriter(int initialCapacity) {
+		this.bytes = new byte[Math.max(initialCapacity, 8)];
+	}
+
+	void writeBit(boolean bit) {
+		ensureCapacity(1);
+
+		if (bit) {
+			bytes[(int) (numBits >>> 3)] |= 0x80 >>> (numBits & 7);
+		}
+
+		numBits++;
+	}
+
+	/**
+	 * Writes the lowest bits of the value.
+	 *
+	 * @param value
+	 *            The value.
+	 * @param length
+	 *            The number of bits to be written (0 to 64).
+	 */
+	void writeBits(long value, int length) {
+		ensureCapacity(length);
+
+		while (length > 0) {
+			int index = (int) (numBits >>> 3);
+			int free = 8 - (int) (numBits & 7);
+			int take = Math.min(free, length);
+			int bits = (int) ((value >>> (length - take)) & ((1 << take) - 1));
+
+			bytes[index] |= bits << (free - take);
+			numBits += take;
+			length -= take;
+		}
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(bytes, (int) ((numBits + 7) >>> 3));
+	}
+
+	private void ensureCapacity(int additionalBits) {
+		long required = (numBits + additionalBits + 7) >>> 3;
+
+		if (required > bytes.length) {
+			bytes = Arrays.copyOf(bytes, (int) Math.max(required, bytes.length * 2L));
+		}
+	}
+
+}
@@ -0,0 +1,237 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.StringSeries;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.ValueType;
+import org.continuity.forecast.timeseries.WriteReport;
+import org.continuity.forecast.timeseries.WriteReport.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TimeSeriesBackend} storing the time series in local files, so that no InfluxDB is
+ * required. Each database is a directory holding one {@link MeasurementFile} per measurement.
+ * The timestamps are compressed with delta-of-delta encoding and the numeric values with XOR
+ * encoding as known from Facebook's Gorilla.
+ */
+public class EmbeddedTimeSeriesStore implements TimeSeriesBackend, Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedTimeSeriesStore.class);
+
+	private static final String FILE_ENDING = ".ts";
+
+	private final Path root;
+
+	private final ConcurrentMap<Path, MeasurementFile> files = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new store.
+	 *
+	 * @param root
+	 *            The directory holding the databases. Will be created if not present.
+	 */
+	public EmbeddedTimeSeriesStore(Path root) {
+		this.root = root;
+	}
+
+	@Override
+	public WriteReport writeNumbers(String database, String measurement, long[] timestamps, double[] values, int length) {
+		long start = System.nanoTime();
+		boolean successful;
+
+		try {
+			MeasurementFile file = getOrCreate(database, measurement, ValueType.NUMERIC);
+			file.writeNumbers(timestamps, values, length);
+			successful = true;
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.error("Could not write " + length + " values to " + database + "." + measurement + "!", e);
+			successful = false;
+		}
+
+		return report(database, length, length * (Long.BYTES + Double.BYTES), start, successful);
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * The values are stored as numbers.
+	 */
+	@Override
+	public WriteReport writeIntegers(String database, String measurement, long[] timestamps, long[] values, int length) {
+		double[] numbers = new double[length];
+
+		for (int i = 0; i < length; i++) {
+			numbers[i] = values[i];
+		}
+
+		return writeNumbers(database, measurement, timestamps, numbers, length);
+	}
+
+	@Override
+	public WriteReport writeStrings(String database, String measurement, long[] timestamps, String[] values, int length) {
+		long start = System.nanoTime();
+		boolean successful;
+
+		try {
+			MeasurementFile file = getOrCreate(database, measurement, ValueType.STRING);
+			file.writeStrings(timestamps, values, length);
+			successful = true;
+		} catch (IOException | IllegalArgumentException e) {
+			LOGGER.error("Could not write " + length + " values to " + database + "." + measurement + "!", e);
+			successful = false;
+		}
+
+		int numBytes = length * Long.BYTES;
+
+		for (int i = 0; i < length; i++) {
+			numBytes += values[i].length();
+		}
+
+		return report(database, length, numBytes, start, successful);
+	}
+
+	@Override
+	public NumericSeries readNumbers(String database, String measurement, long from, long to) {
+		MeasurementFile file = get(database, measurement, ValueType.NUMERIC);
+
+		if (file == null) {
+			return new NumericSeries(0);
+		}
+
+		try {
+			return file.readNumbers(from, to);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + database + "." + measurement + "!", e);
+		}
+	}
+
+	@Override
+	public StringSeries readStrings(String database, String measurement, long from, long to) {
+		MeasurementFile file = get(database, measurement, ValueType.STRING);
+
+		if (file == null) {
+			return new StringSeries(0);
+		}
+
+		try {
+			return file.readStrings(from, to);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + database + "." + measurement + "!", e);
+		}
+	}
+
+	@Override
+	public ValueType getValueType(String database, String measurement) {
+		MeasurementFile file = get(database, measurement, null);
+		return file == null ? null : file.getType();
+	}
+
+	/**
+	 * Closes all open files.
+	 */
+	@Override
+	public void close() throws IOException {
+		for (MeasurementFile file : files.values()) {
+			file.close();
+		}
+
+		files.clear();
+	}
+
+	/**
+	 * Gets the file of an existing measurement.
+	 *
+	 * @param type
+	 *            The expected value type. {@code null} for any type.
+	 * @return The file or {@code null} if the measurement does not exist.
+	 * @throws IllegalArgumentException
+	 *             If the measurement holds values of a different type.
+	 */
+	private MeasurementFile get(String database, String measurement, ValueType type) {
+		Path path = path(database, measurement);
+		MeasurementFile file;
+
+		try {
+			file = files.computeIfAbsent(path, p -> {
+				if (!Files.exists(p)) {
+					return null;
+				}
+
+				try {
+					return MeasurementFile.open(p);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw new UncheckedIOException("Could not open " + database + "." + measurement + "!", e.getCause());
+		}
+
+		checkType(file, type, database, measurement);
+		return file;
+	}
+
+	private MeasurementFile getOrCreate(String database, String measurement, ValueType type) throws IOException {
+		Path path = path(database, measurement);
+		MeasurementFile file;
+
+		try {
+			file = files.computeIfAbsent(path, p -> {
+				try {
+					if (Files.exists(p)) {
+						return MeasurementFile.open(p);
+					}
+
+					Files.createDirectories(p.getParent());
+					return MeasurementFile.create(p, type);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		checkType(file, type, database, measurement);
+		return file;
+	}
+
+	private void checkType(MeasurementFile file, ValueType type, String database, String measurement) {
+		if ((file != null) && (type != null) && (file.getType() != type)) {
+			throw new IllegalArgumentException(database + "." + measurement + " holds " + file.getType() + " values, not " + type + "!");
+		}
+	}
+
+	private Path path(String database, String measurement) {
+		return root.resolve(encode(database)).resolve(encode(measurement) + FILE_ENDING);
+	}
+
+	/**
+	 * Encodes a name so that it can safely be used as file name.
+	 */
+	private String encode(String name) {
+		try {
+			return URLEncoder.encode(name, StandardCharsets.UTF_8.name()).replace(".", "%2E").replace("*", "%2A");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private WriteReport report(String database, int numPoints, int numBytes, long start, boolean successful) {
+		long latency = (System.nanoTime() - start) / 1000000;
+		return new WriteReport(database, 0, Collections.singletonList(new Batch(numPoints, numBytes, latency, successful)));
+	}
+
+}
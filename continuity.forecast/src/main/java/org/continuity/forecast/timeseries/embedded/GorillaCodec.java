@@ -0,0 +1,211 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compresses blocks of time series as described in "Gorilla: A Fast, Scalable, In-Memory Time
+ * Series Database" (Pelkonen et al., VLDB 2015). Timestamps are stored as delta of deltas with
+ * variable-length prefixes and doubles as XOR with the previous value, storing only the
+ * meaningful bits. Strings are stored with a dictionary per block. <br>
+ *
+ * In contrast to the paper, the first timestamp and value are stored with 64 bits and delta of
+ * deltas that do not fit into 12 bits are stored with 64 bits, as the timestamps are in
+ * milliseconds and may have arbitrary gaps.
+ */
+final class GorillaCodec {
+
+	private static final int MAX_LEADING_ZEROS = 31;
+
+	private GorillaCodec() {
+	}
+
+	static void encodeTimestamps(BitWriter writer, long[] timestamps, int from, int count) {
+		long previous = timestamps[from];
+		long previousDelta = 0;
+
+		writer.writeBits(previous, 64);
+
+		for (int i = from + 1; i < from + count; i++) {
+			long delta = timestamps[i] - previous;
+			long deltaOfDelta = delta - previousDelta;
+
+			if (deltaOfDelta == 0) {
+				writer.writeBit(false);
+			} else if (fits(deltaOfDelta, 7)) {
+				writer.writeBits(0b10, 2);
+				writer.writeBits(deltaOfDelta, 7);
+			} else if (fits(deltaOfDelta, 9)) {
+				writer.writeBits(0b110, 3);
+				writer.writeBits(deltaOfDelta, 9);
+			} else if (fits(deltaOfDelta, 12)) {
+				writer.writeBits(0b1110, 4);
+				writer.writeBits(deltaOfDelta, 12);
+			} else {
+				writer.writeBits(0b1111, 4);
+				writer.writeBits(deltaOfDelta, 64);
+			}
+
+			previous = timestamps[i];
+			previousDelta = delta;
+		}
+	}
+
+	static void decodeTimestamps(BitReader reader, long[] timestamps, int count) {
+		long previous = reader.readBits(64);
+		long previousDelta = 0;
+
+		timestamps[0] = previous;
+
+		for (int i = 1; i < count; i++) {
+			long deltaOfDelta;
+
+			if (!reader.readBit()) {
+				deltaOfDelta = 0;
+			} else if (!reader.readBit()) {
+				deltaOfDelta = signExtend(reader.readBits(7), 7);
+			} else if (!reader.readBit()) {
+				deltaOfDelta = signExtend(reader.readBits(9), 9);
+			} else if (!reader.readBit()) {
+				deltaOfDelta = signExtend(reader.readBits(12), 12);
+			} else {
+				deltaOfDelta = reader.readBits(64);
+			}
+
+			previousDelta += deltaOfDelta;
+			previous += previousDelta;
+			timestamps[i] = previous;
+		}
+	}
+
+	static void encodeDoubles(BitWriter writer, double[] values, int from, int count) {
+		long previous = Double.doubleToRawLongBits(values[from]);
+		int previousLeading = -1;
+		int previousTrailing = 0;
+
+		writer.writeBits(previous, 64);
+
+		for (int i = from + 1; i < from + count; i++) {
+			long current = Double.doubleToRawLongBits(values[i]);
+			long xor = current ^ previous;
+
+			if (xor == 0) {
+				writer.writeBit(false);
+			} else {
+				writer.writeBit(true);
+
+				int leading = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+				int trailing = Long.numberOfTrailingZeros(xor);
+
+				if ((previousLeading >= 0) && (leading >= previousLeading) && (trailing >= previousTrailing)) {
+					writer.writeBit(false);
+					writer.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+				} else {
+					int significant = 64 - leading - trailing;
+
+					writer.writeBit(true);
+					writer.writeBits(leading, 5);
+					writer.writeBits(significant - 1, 6);
+					writer.writeBits(xor >>> trailing, significant);
+
+					previousLeading = leading;
+					previousTrailing = trailing;
+				}
+			}
+
+			previous = current;
+		}
+	}
+
+	static void decodeDoubles(BitReader reader, double[] values, int count) {
+		long previous = reader.readBits(64);
+		int previousLeading = 0;
+		int previousTrailing = 0;
+
+		values[0] = Double.longBitsToDouble(previous);
+
+		for (int i = 1; i < count; i++) {
+			if (reader.readBit()) {
+				if (reader.readBit()) {
+					previousLeading = (int) reader.readBits(5);
+					previousTrailing = 64 - previousLeading - ((int) reader.readBits(6) + 1);
+				}
+
+				long xor = reader.readBits(64 - previousLeading - previousTrailing) << previousTrailing;
+				previous ^= xor;
+			}
+
+			values[i] = Double.longBitsToDouble(previous);
+		}
+	}
+
+	static void encodeStrings(BitWriter writer, String[] values, int from, int count) {
+		Map<String, Integer> dictionary = new HashMap<>();
+		int[] indices = new int[count];
+		String[] entries = new String[count];
+
+		for (int i = 0; i < count; i++) {
+			Integer index = dictionary.get(values[from + i]);
+
+			if (index == null) {
+				index = dictionary.size();
+				dictionary.put(values[from + i], index);
+				entries[index] = values[from + i];
+			}
+
+			indices[i] = index;
+		}
+
+		writer.writeBits(dictionary.size(), 32);
+
+		for (int i = 0; i < dictionary.size(); i++) {
+			byte[] bytes = entries[i].getBytes(StandardCharsets.UTF_8);
+			writer.writeBits(bytes.length, 32);
+
+			for (byte b : bytes) {
+				writer.writeBits(b, 8);
+			}
+		}
+
+		int width = indexWidth(dictionary.size());
+
+		for (int index : indices) {
+			writer.writeBits(index, width);
+		}
+	}
+
+	static void decodeStrings(BitReader reader, String[] values, int count) {
+		String[] entries = new String[(int) reader.readBits(32)];
+
+		for (int i = 0; i < entries.length; i++) {
+			byte[] bytes = new byte[(int) reader.readBits(32)];
+
+			for (int k = 0; k < bytes.length; k++) {
+				bytes[k] = (byte) reader.readBits(8);
+			}
+
+			entries[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		int width = indexWidth(entries.length);
+
+		for (int i = 0; i < count; i++) {
+			values[i] = entries[(int) reader.readBits(width)];
+		}
+	}
+
+	private static int indexWidth(int dictionarySize) {
+		return dictionarySize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+	}
+
+	private static boolean fits(long value, int bits) {
+		long bound = 1L << (bits - 1);
+		return (value >= -bound) && (value < bound);
+	}
+
+	private static long signExtend(long value, int bits) {
+		return (value << (64 - bits)) >> (64 - bits);
+	}
+
+}
@@ -0,0 +1,552 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.StringSeries;
+import org.continuity.forecast.timeseries.ValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File holding the values of one measurement as a sequence of compressed blocks. The blocks are
+ * sorted by time and do not overlap. Each block holds up to {@link #BLOCK_SIZE} values compressed
+ * with the {@link GorillaCodec} and a header with the number of values and the time range, so
+ * that range scans only need to read and decode the blocks overlapping with the range. <br>
+ *
+ * Writes after the last value only rewrite the last block if it is not full. Writes into the
+ * middle of the series rewrite the affected blocks into a new file, which replaces the old one.
+ * Reads and writes are synchronized with a read-write lock.
+ */
+class MeasurementFile implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementFile.class);
+
+	static final int BLOCK_SIZE = 4096;
+
+	private static final int MAGIC = 0x43545331;
+
+	private static final int FILE_HEADER_BYTES = 5;
+
+	private static final int BLOCK_HEADER_BYTES = 24;
+
+	private final Path path;
+
+	private final ValueType type;
+
+	private final List<BlockInfo> blocks = new ArrayList<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private FileChannel channel;
+
+	private MeasurementFile(Path path, ValueType type, FileChannel channel) {
+		this.path = path;
+		this.type = type;
+		this.channel = channel;
+	}
+
+	/**
+	 * Creates a new, empty file.
+	 */
+	static MeasurementFile create(Path path, ValueType type) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).put((byte) type.ordinal());
+		header.flip();
+		writeFully(channel, header, 0);
+
+		return new MeasurementFile(path, type, channel);
+	}
+
+	/**
+	 * Opens an existing file and reads the block headers. An incomplete block at the end, e.g.,
+	 * due to a crash while writing, is removed.
+	 */
+	static MeasurementFile open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+			readFully(channel, header, 0);
+			header.flip();
+
+			if (header.getInt() != MAGIC) {
+				throw new IOException(path + " is not a measurement file!");
+			}
+
+			MeasurementFile file = new MeasurementFile(path, ValueType.values()[header.get()], channel);
+			file.scanBlocks();
+			return file;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	ValueType getType() {
+		return type;
+	}
+
+	/**
+	 * Writes numeric values. Values with the same timestamp as present ones overwrite them.
+	 */
+	void writeNumbers(long[] timestamps, double[] values, int length) throws IOException {
+		int[] order = sortedUniqueIndices(timestamps, length);
+		long[] sortedTimestamps = new long[order.length];
+		double[] sortedValues = new double[order.length];
+
+		for (int i = 0; i < order.length; i++) {
+			sortedTimestamps[i] = timestamps[order[i]];
+			sortedValues[i] = values[order[i]];
+		}
+
+		write(new Columns(sortedTimestamps, sortedValues, null));
+	}
+
+	/**
+	 * Writes string values. Values with the same timestamp as present ones overwrite them.
+	 */
+	void writeStrings(long[] timestamps, String[] values, int length) throws IOException {
+		int[] order = sortedUniqueIndices(timestamps, length);
+		long[] sortedTimestamps = new long[order.length];
+		String[] sortedValues = new String[order.length];
+
+		for (int i = 0; i < order.length; i++) {
+			sortedTimestamps[i] = timestamps[order[i]];
+			sortedValues[i] = values[order[i]];
+		}
+
+		write(new Columns(sortedTimestamps, null, sortedValues));
+	}
+
+	NumericSeries readNumbers(long from, long to) throws IOException {
+		lock.readLock().lock();
+
+		try {
+			NumericSeries series = new NumericSeries();
+
+			for (int b = firstBlockEndingAtOrAfter(from); (b < blocks.size()) && (blocks.get(b).minTimestamp <= to); b++) {
+				Columns columns = decode(blocks.get(b));
+
+				for (int i = 0; i < columns.size(); i++) {
+					if ((columns.timestamps[i] >= from) && (columns.timestamps[i] <= to)) {
+						series.add(columns.timestamps[i], columns.numbers[i]);
+					}
+				}
+			}
+
+			return series;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	StringSeries readStrings(long from, long to) throws IOException {
+		lock.readLock().lock();
+
+		try {
+			StringSeries series = new StringSeries();
+
+			for (int b = firstBlockEndingAtOrAfter(from); (b < blocks.size()) && (blocks.get(b).minTimestamp <= to); b++) {
+				Columns columns = decode(blocks.get(b));
+
+				for (int i = 0; i < columns.size(); i++) {
+					if ((columns.timestamps[i] >= from) && (columns.timestamps[i] <= to)) {
+						series.add(columns.timestamps[i], columns.strings[i]);
+					}
+				}
+			}
+
+			return series;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of stored values.
+	 */
+	long size() {
+		lock.readLock().lock();
+
+		try {
+			return blocks.stream().mapToLong(block -> block.count).sum();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+
+		try {
+			channel.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void write(Columns input) throws IOException {
+		if (input.size() == 0) {
+			return;
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			long min = input.timestamps[0];
+			long max = input.timestamps[input.size() - 1];
+
+			int first = firstBlockEndingAtOrAfter(min);
+
+			if ((first == blocks.size()) && (first > 0) && (blocks.get(first - 1).count < BLOCK_SIZE)) {
+				first--;
+			}
+
+			int end = first;
+
+			while ((end < blocks.size()) && (blocks.get(end).minTimestamp <= max)) {
+				end++;
+			}
+
+			List<Columns> affected = new ArrayList<>();
+
+			for (int b = first; b < end; b++) {
+				affected.add(decode(blocks.get(b)));
+			}
+
+			affected.add(input);
+			List<byte[]> encoded = encodeBlocks(merge(affected));
+
+			if (end == blocks.size()) {
+				replaceTail(first, encoded);
+			} else {
+				rewrite(first, end, encoded);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the blocks from the passed index to the end by truncating the file.
+	 */
+	private void replaceTail(int first, List<byte[]> encoded) throws IOException {
+		long position = first < blocks.size() ? blocks.get(first).offset : channel.size();
+
+		channel.truncate(position);
+		blocks.subList(first, blocks.size()).clear();
+
+		for (byte[] block : encoded) {
+			writeFully(channel, ByteBuffer.wrap(block), position);
+			blocks.add(readBlockInfo(block, position));
+			position += block.length;
+		}
+	}
+
+	/**
+	 * Replaces the blocks in the passed range by writing a new file.
+	 */
+	private void rewrite(int first, int end, List<byte[]> encoded) throws IOException {
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			long firstOffset = first < blocks.size() ? blocks.get(first).offset : channel.size();
+			transferFully(channel, 0, firstOffset, out);
+
+			long position = firstOffset;
+
+			for (byte[] block : encoded) {
+				writeFully(out, ByteBuffer.wrap(block), position);
+				position += block.length;
+			}
+
+			long endOffset = blocks.get(end).offset;
+			out.position(position);
+			transferFully(channel, endOffset, channel.size() - endOffset, out);
+		}
+
+		channel.close();
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		blocks.clear();
+		scanBlocks();
+	}
+
+	private void scanBlocks() throws IOException {
+		long position = FILE_HEADER_BYTES;
+		long size = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+
+		while (position + BLOCK_HEADER_BYTES <= size) {
+			header.clear();
+			readFully(channel, header, position);
+			header.flip();
+
+			BlockInfo block = new BlockInfo(position, header.getInt(), header.getLong(), header.getLong(), header.getInt());
+
+			if (position + BLOCK_HEADER_BYTES + block.length > size) {
+				break;
+			}
+
+			blocks.add(block);
+			position += BLOCK_HEADER_BYTES + block.length;
+		}
+
+		if (position < size) {
+			LOGGER.warn("Removing an incomplete block at the end of {}.", path);
+			channel.truncate(position);
+		}
+	}
+
+	/**
+	 * Gets the index of the first block whose maximum timestamp is not less than the passed one.
+	 */
+	private int firstBlockEndingAtOrAfter(long timestamp) {
+		int low = 0;
+		int high = blocks.size();
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (blocks.get(mid).maxTimestamp < timestamp) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	private Columns decode(BlockInfo block) throws IOException {
+		ByteBuffer payload = ByteBuffer.allocate(block.length);
+		readFully(channel, payload, block.offset + BLOCK_HEADER_BYTES);
+
+		BitReader reader = new BitReader(payload.array());
+		long[] timestamps = new long[block.count];
+		GorillaCodec.decodeTimestamps(reader, timestamps, block.count);
+
+		if (type == ValueType.NUMERIC) {
+			double[] values = new double[block.count];
+			GorillaCodec.decodeDoubles(reader, values, block.count);
+			return new Columns(timestamps, values, null);
+		} else {
+			String[] values = new String[block.count];
+			GorillaCodec.decodeStrings(reader, values, block.count);
+			return new Columns(timestamps, null, values);
+		}
+	}
+
+	private List<byte[]> encodeBlocks(Columns columns) {
+		List<byte[]> encoded = new ArrayList<>();
+
+		for (int from = 0; from < columns.size(); from += BLOCK_SIZE) {
+			int count = Math.min(BLOCK_SIZE, columns.size() - from);
+			BitWriter writer = new BitWriter(count * 4);
+
+			GorillaCodec.encodeTimestamps(writer, columns.timestamps, from, count);
+
+			if (type == ValueType.NUMERIC) {
+				GorillaCodec.encodeDoubles(writer, columns.numbers, from, count);
+			} else {
+				GorillaCodec.encodeStrings(writer, columns.strings, from, count);
+			}
+
+			byte[] payload = writer.toByteArray();
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_BYTES + payload.length);
+			block.putInt(count).putLong(columns.timestamps[from]).putLong(columns.timestamps[(from + count) - 1]).putInt(payload.length).put(payload);
+
+			encoded.add(block.array());
+		}
+
+		return encoded;
+	}
+
+	private BlockInfo readBlockInfo(byte[] block, long offset) {
+		ByteBuffer header = ByteBuffer.wrap(block, 0, BLOCK_HEADER_BYTES);
+		return new BlockInfo(offset, header.getInt(), header.getLong(), header.getLong(), header.getInt());
+	}
+
+	/**
+	 * Merges sorted columns. For equal timestamps, the value of the later columns is used.
+	 */
+	private Columns merge(List<Columns> sorted) {
+		int capacity = sorted.stream().mapToInt(Columns::size).sum();
+		long[] timestamps = new long[capacity];
+		double[] numbers = type == ValueType.NUMERIC ? new double[capacity] : null;
+		String[] strings = type == ValueType.STRING ? new String[capacity] : null;
+
+		int[] positions = new int[sorted.size()];
+		int size = 0;
+
+		while (true) {
+			int next = -1;
+			long nextTimestamp = Long.MAX_VALUE;
+
+			for (int c = 0; c < sorted.size(); c++) {
+				Columns columns = sorted.get(c);
+
+				if ((positions[c] < columns.size()) && ((next < 0) || (columns.timestamps[positions[c]] <= nextTimestamp))) {
+					next = c;
+					nextTimestamp = columns.timestamps[positions[c]];
+				}
+			}
+
+			if (next < 0) {
+				break;
+			}
+
+			for (int c = 0; c < sorted.size(); c++) {
+				if ((c != next) && (positions[c] < sorted.get(c).size()) && (sorted.get(c).timestamps[positions[c]] == nextTimestamp)) {
+					positions[c]++;
+				}
+			}
+
+			Columns columns = sorted.get(next);
+			timestamps[size] = nextTimestamp;
+
+			if (numbers != null) {
+				numbers[size] = columns.numbers[positions[next]];
+			} else {
+				strings[size] = columns.strings[positions[next]];
+			}
+
+			positions[next]++;
+			size++;
+		}
+
+		return new Columns(Arrays.copyOf(timestamps, size), numbers == null ? null : Arrays.copyOf(numbers, size), strings == null ? null : Arrays.copyOf(strings, size));
+	}
+
+	/**
+	 * Sorts the indices by timestamp. For duplicate timestamps, only the last index is kept.
+	 */
+	private static int[] sortedUniqueIndices(long[] timestamps, int length) {
+		boolean sorted = true;
+
+		for (int i = 1; (i < length) && sorted; i++) {
+			sorted = timestamps[i - 1] < timestamps[i];
+		}
+
+		if (sorted) {
+			int[] indices = new int[length];
+
+			for (int i = 0; i < length; i++) {
+				indices[i] = i;
+			}
+
+			return indices;
+		}
+
+		Integer[] boxed = new Integer[length];
+
+		for (int i = 0; i < length; i++) {
+			boxed[i] = i;
+		}
+
+		Arrays.sort(boxed, (a, b) -> (timestamps[a] != timestamps[b]) ? Long.compare(timestamps[a], timestamps[b]) : Integer.compare(a, b));
+
+		int[] unique = new int[length];
+		int size = 0;
+
+		for (int i = 0; i < length; i++) {
+			if ((i + 1 < length) && (timestamps[boxed[i]] == timestamps[boxed[i + 1]])) {
+				continue;
+			}
+
+			unique[size++] = boxed[i];
+		}
+
+		return Arrays.copyOf(unique, size);
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+
+			if (read < 0) {
+				throw new IOException("Unexpected end of file!");
+			}
+
+			position += read;
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	private static void transferFully(FileChannel source, long position, long count, FileChannel target) throws IOException {
+		long transferred = 0;
+
+		while (transferred < count) {
+			transferred += source.transferTo(position + transferred, count - transferred, target);
+		}
+	}
+
+	/**
+	 * Header of a block.
+	 */
+	private static class BlockInfo {
+
+		private final long offset;
+
+		private final int count;
+
+		private final long minTimestamp;
+
+		private final long maxTimestamp;
+
+		private final int length;
+
+		private BlockInfo(long offset, int count, long minTimestamp, long maxTimestamp, int length) {
+			this.offset = offset;
+			this.count = count;
+			this.minTimestamp = minTimestamp;
+			this.maxTimestamp = maxTimestamp;
+			this.length = length;
+		}
+
+	}
+
+	/**
+	 * Sorted timestamps with either numeric or string values.
+	 */
+	private static class Columns {
+
+		private final long[] timestamps;
+
+		private final double[] numbers;
+
+		private final String[] strings;
+
+		private Columns(long[] timestamps, double[] numbers, String[] strings) {
+			this.timestamps = timestamps;
+			this.numbers = numbers;
+			this.strings = strings;
+		}
+
+		private int size() {
+			return timestamps.length;
+		}
+
+	}
+
+}
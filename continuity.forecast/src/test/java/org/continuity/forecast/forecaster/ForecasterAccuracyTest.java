@@ -0,0 +1,155 @@
+package org.continuity.forecast.forecaster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the forecasts with held-out values of recorded series. The monthly airline passengers
+ * 1949-1960 (Box and Jenkins) have a trend and a yearly season. The synthetic workload is hourly
+ * with a daily season, a slight trend and noise.
+ */
+public class ForecasterAccuracyTest {
+
+	private static final long MONTH_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+	private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+	private static double[] airPassengers;
+
+	private static double[] workload;
+
+	@BeforeClass
+	public static void loadSeries() throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(ForecasterAccuracyTest.class.getResourceAsStream("/air-passengers.csv"), StandardCharsets.UTF_8))) {
+			airPassengers = reader.lines().skip(1).mapToDouble(line -> Double.parseDouble(line.split(",")[1])).toArray();
+		}
+
+		Random random = new Random(42);
+		workload = new double[24 * 21];
+
+		for (int i = 0; i < workload.length; i++) {
+			workload[i] = 100 + (0.05 * i) + (40 * Math.sin((2 * Math.PI * i) / 24)) + (5 * random.nextGaussian());
+		}
+	}
+
+	@Test
+	public void testAirPassengers() {
+		assertThat(airPassengers).hasSize(144);
+
+		double[] train = Arrays.copyOf(airPassengers, 132);
+		double[] test = Arrays.copyOfRange(airPassengers, 132, 144);
+
+		double naiveError = mape(test, new SeasonalNaiveForecaster(12).forecast(history(train, MONTH_MILLIS), 12));
+		double holtWintersError = mape(test, new HoltWintersForecaster(12).forecast(history(train, MONTH_MILLIS), 12));
+		double arimaError = mape(test, new ArimaForecaster(12).forecast(history(train, MONTH_MILLIS), 12));
+
+		assertThat(naiveError).isLessThan(0.12);
+		assertThat(holtWintersError).isLessThan(0.05).isLessThan(naiveError);
+		assertThat(arimaError).isLessThan(0.08).isLessThan(naiveError);
+	}
+
+	@Test
+	public void testWorkloadWithDetectedSeason() {
+		double[] train = Arrays.copyOf(workload, 24 * 20);
+		double[] test = Arrays.copyOfRange(workload, 24 * 20, workload.length);
+
+		double mean = Arrays.stream(train).average().getAsDouble();
+		double[] meanForecast = new double[24];
+		Arrays.fill(meanForecast, mean);
+		double meanError = mape(test, meanForecast);
+
+		for (Forecaster forecaster : Arrays.asList(new SeasonalNaiveForecaster(), new HoltWintersForecaster(), new ArimaForecaster())) {
+			double[] forecast = forecaster.forecast(history(train, HOUR_MILLIS), 24);
+
+			assertThat(forecast).hasSize(24);
+			assertThat(mape(test, forecast)).as(forecaster.getClass().getSimpleName()).isLessThan(0.06).isLessThan(meanError / 3);
+		}
+	}
+
+	@Test
+	public void testSeasonalNaiveRepeatsLastSeason() {
+		double[] series = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+
+		assertThat(new SeasonalNaiveForecaster(3).forecast(history(series, HOUR_MILLIS), 5)).containsExactly(7, 8, 9, 7, 8);
+		assertThat(new SeasonalNaiveForecaster(1).forecast(history(series, HOUR_MILLIS), 2)).containsExactly(9, 9);
+	}
+
+	@Test
+	public void testShortSeries() {
+		for (Forecaster forecaster : Arrays.asList(new SeasonalNaiveForecaster(), new HoltWintersForecaster(), new ArimaForecaster())) {
+			assertThat(forecaster.forecast(history(new double[] { 3 }, HOUR_MILLIS), 2)).containsExactly(3, 3);
+			assertThat(forecaster.forecast(history(new double[0], HOUR_MILLIS), 2)).containsExactly(0, 0);
+
+			double[] forecast = forecaster.forecast(history(new double[] { 1, 2, 3, 4, 5, 6, 7, 8 }, HOUR_MILLIS), 3);
+			assertThat(forecast).hasSize(3).doesNotContain(Double.NaN);
+		}
+	}
+
+	@Test
+	public void testConstantSeries() {
+		double[] series = new double[100];
+		Arrays.fill(series, 42);
+
+		for (Forecaster forecaster : Arrays.asList(new SeasonalNaiveForecaster(), new HoltWintersForecaster(), new ArimaForecaster())) {
+			for (double value : forecaster.forecast(history(series, HOUR_MILLIS), 10)) {
+				assertThat(value).as(forecaster.getClass().getSimpleName()).isCloseTo(42, within(1e-6));
+			}
+		}
+	}
+
+	@Test
+	public void testSeasonalityDetection() {
+		assertThat(Seasonality.detect(workload, HOUR_MILLIS)).isEqualTo(24);
+		assertThat(Seasonality.detect(Arrays.copyOf(airPassengers, 132), 12, 6, 4)).isEqualTo(12);
+
+		Random random = new Random(1);
+		double[] noise = random.doubles(500).toArray();
+		assertThat(Seasonality.detect(noise, HOUR_MILLIS)).isEqualTo(1);
+	}
+
+	@Test
+	public void testForecasterTypeNames() {
+		assertThat(ForecasterType.fromName("Telescope")).isEqualTo(ForecasterType.TELESCOPE);
+		assertThat(ForecasterType.fromName("prophet")).isEqualTo(ForecasterType.PROPHET);
+		assertThat(ForecasterType.fromName("holt-winters")).isEqualTo(ForecasterType.HOLT_WINTERS);
+		assertThat(ForecasterType.fromName("HoltWinters")).isEqualTo(ForecasterType.HOLT_WINTERS);
+		assertThat(ForecasterType.fromName("seasonal_naive")).isEqualTo(ForecasterType.SEASONAL_NAIVE);
+		assertThat(ForecasterType.fromName("ARIMA").createForecaster()).isInstanceOf(ArimaForecaster.class);
+		assertThat(ForecasterType.fromName("unknown")).isNull();
+		assertThat(ForecasterType.fromName(null)).isNull();
+	}
+
+	static HistoricalIntensities history(double[] series, long intervalMillis) {
+		List<Long> timestamps = new ArrayList<>(series.length);
+
+		for (int i = 0; i < series.length; i++) {
+			timestamps.add(i * intervalMillis);
+		}
+
+		return new HistoricalIntensities(timestamps, Arrays.stream(series).boxed().collect(Collectors.toList()), intervalMillis);
+	}
+
+	private static double mape(double[] actual, double[] forecast) {
+		double sum = 0;
+
+		for (int i = 0; i < actual.length; i++) {
+			sum += Math.abs(actual[i] - forecast[i]) / Math.abs(actual[i]);
+		}
+
+		return sum / actual.length;
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.continuity.forecast.forecaster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the forecasts per second of the forecasters for four weeks of hourly intensities,
+ * sequentially and with the user groups forecasted in parallel. The R forecasters are only
+ * included if {@code -Dbenchmark.r=true} is passed and R is installed. Not run as part of the
+ * test suite.
+ */
+public class ForecasterBenchmark {
+
+	private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+	private static final int NUM_USER_GROUPS = 16;
+
+	private static final int HORIZON = 24;
+
+	private static final long DURATION_MILLIS = 5000;
+
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(42);
+		double[] series = new double[24 * 28];
+
+		for (int i = 0; i < series.length; i++) {
+			series[i] = 100 + (0.05 * i) + (40 * Math.sin((2 * Math.PI * i) / 24)) + (5 * random.nextGaussian());
+		}
+
+		HistoricalIntensities history = ForecasterAccuracyTest.history(series, HOUR_MILLIS);
+
+		List<ForecasterType> types = new ArrayList<>();
+		types.add(ForecasterType.SEASONAL_NAIVE);
+		types.add(ForecasterType.HOLT_WINTERS);
+		types.add(ForecasterType.ARIMA);
+
+		if (Boolean.getBoolean("benchmark.r")) {
+			types.add(ForecasterType.TELESCOPE);
+			types.add(ForecasterType.PROPHET);
+		}
+
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+		System.out.println("Forecasting " + series.length + " intensities " + HORIZON + " steps ahead; " + NUM_USER_GROUPS + " user groups on " + numThreads + " threads.");
+
+		try {
+			for (ForecasterType type : types) {
+				Forecaster forecaster = type.createForecaster();
+
+				try {
+					forecaster.forecast(history, HORIZON);
+				} catch (Throwable e) {
+					System.out.println(type + ": not available (" + e + ")");
+					continue;
+				}
+
+				double sequential = measureSequential(forecaster, history);
+				double parallel = measureParallel(forecaster, history, executor);
+
+				System.out.println(String.format("%-15s %10.1f forecasts/s sequential %10.1f forecasts/s parallel", type, sequential, parallel));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static double measureSequential(Forecaster forecaster, HistoricalIntensities history) {
+		long start = System.currentTimeMillis();
+		long numForecasts = 0;
+
+		while ((System.currentTimeMillis() - start) < DURATION_MILLIS) {
+			forecaster.forecast(history, HORIZON);
+			numForecasts++;
+		}
+
+		return (numForecasts * 1000.0) / (System.currentTimeMillis() - start);
+	}
+
+	private static double measureParallel(Forecaster forecaster, HistoricalIntensities history, ExecutorService executor) throws Exception {
+		long start = System.currentTimeMillis();
+		long numForecasts = 0;
+
+		while ((System.currentTimeMillis() - start) < DURATION_MILLIS) {
+			List<Future<double[]>> futures = new ArrayList<>(NUM_USER_GROUPS);
+
+			for (int i = 0; i < NUM_USER_GROUPS; i++) {
+				futures.add(executor.submit(() -> forecaster.forecast(history, HORIZON)));
+			}
+
+			for (Future<double[]> future : futures) {
+				future.get();
+			}
+
+			numForecasts += NUM_USER_GROUPS;
+		}
+
+		return (numForecasts * 1000.0) / (System.currentTimeMillis() - start);
+	}
+
+}
@@ -0,0 +1,192 @@
+package org.continuity.forecast.influx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.continuity.forecast.influx.InfluxStandIn.WriteRequest;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.TimeSeriesBackendTest;
+import org.continuity.forecast.timeseries.ValueType;
+import org.continuity.forecast.timeseries.WriteReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Runs the {@link TimeSeriesBackendTest} against the {@link InfluxBackend} connected to an
+ * {@link InfluxStandIn} and tests the written line protocol and batches.
+ */
+public class InfluxBackendTest extends TimeSeriesBackendTest {
+
+	private static final long START = 1514764800000L;
+
+	private InfluxStandIn influx;
+
+	private ExecutorService executor;
+
+	private InfluxBackend backend;
+
+	@Before
+	public void setup() throws Exception {
+		influx = new InfluxStandIn();
+		executor = Executors.newFixedThreadPool(8);
+		backend = backend(100, 4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		influx.close();
+	}
+
+	@Override
+	protected TimeSeriesBackend backend() {
+		return backend;
+	}
+
+	@Test
+	public void testLineProtocol() {
+		long[] timestamps = { 1000, 2000, 3000 };
+
+		WriteReport numbers = backend.writeNumbers("my-app", "temp, outside", timestamps, new double[] { 12.5, Double.NaN, -3 }, 3);
+		WriteReport strings = backend.writeStrings("my-app", "event", timestamps, new String[] { "say \"hi\" \\ bye", null, "holiday" }, 3);
+
+		assertThat(numbers.getNumPoints()).isEqualTo(2);
+		assertThat(numbers.getNumSkipped()).isEqualTo(1);
+		assertThat(strings.getNumPoints()).isEqualTo(2);
+		assertThat(strings.getNumSkipped()).isEqualTo(1);
+		assertThat(influx.getWrites().size()).isEqualTo(2);
+		assertThat(influx.getWrites().get(0).getLines()).isEqualTo(Arrays.asList("temp\\,\\ outside value=12.5 1000", "temp\\,\\ outside value=-3.0 3000"));
+		assertThat(influx.getWrites().get(1).getLines()).isEqualTo(Arrays.asList("event value=\"say \\\"hi\\\" \\\\ bye\" 1000", "event value=\"holiday\" 3000"));
+	}
+
+	@Test
+	public void testIntegersAreCompatible() {
+		backend.writeNumbers("my-app", "load", new long[] { 1000 }, new double[] { 0 }, 1);
+
+		WriteReport report = backend.writeIntegers("my-app", "userGroup0", new long[] { 1000, 2000 }, new long[] { 12, -3 }, 2);
+
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(influx.getWrites().get(1).getLines()).isEqualTo(Arrays.asList("userGroup0 value=12i 1000", "userGroup0 value=-3i 2000"));
+		assertThat(backend.writeNumbers("my-app", "userGroup0", new long[] { 3000 }, new double[] { 1.5 }, 1).isSuccessful()).isFalse();
+	}
+
+	@Test
+	public void testPreviousBooleans() {
+		// written as booleans by previous versions
+		StringBuilder lines = new StringBuilder();
+		LineProtocol.appendBoolean(lines, "holiday value=", true, 1000);
+		LineProtocol.appendBoolean(lines, "holiday value=", false, 2000);
+
+		InfluxHttpClient client = new InfluxHttpClient(new RestTemplate(), influx.getUrl(), "admin", "admin");
+		client.ensureDatabase("my-app");
+		client.write("my-app", "autogen", lines.toString().getBytes(StandardCharsets.UTF_8));
+
+		assertThat(backend.getValueType("my-app", "holiday")).isEqualTo(ValueType.BOOLEAN);
+		assertThat(backend.readNumbers("my-app", "holiday", Long.MIN_VALUE, Long.MAX_VALUE).getValue(0)).isEqualTo(1.0);
+		assertThat(backend.readStrings("my-app", "holiday", Long.MIN_VALUE, Long.MAX_VALUE).getValue(1)).isEqualTo("false");
+	}
+
+	@Test
+	public void testChunks() {
+		InfluxBackend backend = backend(1000, 4);
+		WriteReport report = write(backend, "my-app", 10050);
+
+		List<WriteRequest> writes = influx.getWrites();
+
+		assertThat(report.getNumPoints()).isEqualTo(10050);
+		assertThat(report.getBatches().size()).isEqualTo(11);
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(writes.size()).isEqualTo(11);
+		assertThat(writes.stream().mapToInt(write -> write.getLines().size()).max().getAsInt()).isEqualTo(1000);
+		assertThat(writes.stream().flatMap(write -> write.getLines().stream()).map(line -> line.substring(line.lastIndexOf(' ') + 1)).map(Long::parseLong).sorted()
+				.collect(Collectors.toList())).isEqualTo(Arrays.stream(timestamps(10050)).boxed().collect(Collectors.toList()));
+
+		for (WriteRequest write : writes) {
+			assertThat(write.getParams().get("db")).isEqualTo("my-app");
+			assertThat(write.getParams().get("rp")).isEqualTo("autogen");
+			assertThat(write.getParams().get("precision")).isEqualTo("ms");
+		}
+
+		for (WriteReport.Batch batch : report.getBatches()) {
+			assertThat(batch.getNumBytes()).isGreaterThan(0);
+			assertThat(batch.getLatencyMillis()).isGreaterThanOrEqualTo(0);
+		}
+	}
+
+	@Test
+	public void testBoundedConcurrency() {
+		influx.setWriteDelayMillis(20);
+
+		WriteReport report = write(backend(100, 3), "my-app", 4000);
+
+		assertThat(report.getBatches().size()).isEqualTo(40);
+		assertThat(influx.getMaxConcurrentWrites()).isLessThanOrEqualTo(3);
+		assertThat(report.getMaxLatencyMillis()).isGreaterThanOrEqualTo(20);
+	}
+
+	@Test
+	public void testDatabasesAreCached() {
+		write(backend, "app-a", 10);
+		write(backend, "app-a", 10);
+		write(backend, "app-b", 10);
+
+		assertThat(influx.getQueries()).isEqualTo(Arrays.asList("CREATE DATABASE \"app-a\"", "CREATE DATABASE \"app-b\""));
+		assertThat(influx.getWrites().size()).isEqualTo(3);
+	}
+
+	@Test
+	public void testFailedBatchIsReported() {
+		influx.setFailingWrite(2);
+
+		WriteReport report = write(backend(100, 1), "my-app", 500);
+
+		assertThat(report.isSuccessful()).isFalse();
+		assertThat(report.getNumFailedBatches()).isEqualTo(1L);
+		assertThat(report.getNumPoints()).isEqualTo(400);
+		assertThat(report.getBatches().get(2).isSuccessful()).isFalse();
+	}
+
+	@Test
+	public void testTimeRangeQuery() {
+		writeSequence("my-app", "load", 0, 10);
+		backend.readNumbers("my-app", "load", START, Long.MAX_VALUE);
+		backend.readNumbers("my-app", "load", Long.MIN_VALUE, START);
+		backend.readNumbers("my-app", "load", START, START + 1);
+
+		assertThat(influx.getQueries().subList(1, 4)).isEqualTo(Arrays.asList("SELECT \"value\" FROM \"load\" WHERE time >= " + START + "ms",
+				"SELECT \"value\" FROM \"load\" WHERE time <= " + START + "ms", "SELECT \"value\" FROM \"load\" WHERE time >= " + START + "ms AND time <= " + (START + 1) + "ms"));
+	}
+
+	private InfluxBackend backend(int chunkSize, int maxChunksInFlight) {
+		return new InfluxBackend(new InfluxHttpClient(new RestTemplate(), influx.getUrl(), "admin", "admin"), executor, chunkSize, maxChunksInFlight);
+	}
+
+	private static WriteReport write(InfluxBackend backend, String database, int numValues) {
+		double[] values = new double[numValues];
+
+		for (int i = 0; i < numValues; i++) {
+			values[i] = Math.sin(i / 100.0) * 100;
+		}
+
+		return backend.writeNumbers(database, "load", timestamps(numValues), values, numValues);
+	}
+
+	private static long[] timestamps(int numValues) {
+		long[] timestamps = new long[numValues];
+
+		for (int i = 0; i < numValues; i++) {
+			timestamps[i] = START + (i * 60000L);
+		}
+
+		return timestamps;
+	}
+
+}
@@ -0,0 +1,351 @@
+package org.continuity.forecast.influx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server speaking the write and query endpoints of the InfluxDB HTTP API. Records the
+ * received write requests and queries. Writes can be delayed and rejected to simulate a slow or
+ * failing database. The written points are stored in memory and can be read with the
+ * {@code SELECT} queries issued by the {@link InfluxBackend}.
+ */
+public class InfluxStandIn implements AutoCloseable {
+
+	private static final Pattern CREATE = Pattern.compile("CREATE DATABASE \"((?:[^\"\\\\]|\\\\.)*)\"");
+
+	private static final Pattern SELECT = Pattern
+			.compile("SELECT \"value\" FROM \"((?:[^\"\\\\]|\\\\.)*)\"(?: WHERE time >= (-?\\d+)ms)?(?: (?:WHERE|AND) time <= (-?\\d+)ms)?(?: LIMIT (\\d+))?");
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Map<String, Map<String, NavigableMap<Long, Object>>> databases = new HashMap<>();
+
+	private final HttpServer server;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final List<WriteRequest> writes = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+	private final AtomicInteger concurrentWrites = new AtomicInteger();
+
+	private final AtomicInteger maxConcurrentWrites = new AtomicInteger();
+
+	private volatile long writeDelayMillis = 0;
+
+	private volatile int failingWrite = -1;
+
+	private final AtomicInteger numWrites = new AtomicInteger();
+
+	public InfluxStandIn() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/write", this::handleWrite);
+		server.createContext("/query", this::handleQuery);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	public String getUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public List<WriteRequest> getWrites() {
+		synchronized (writes) {
+			return new ArrayList<>(writes);
+		}
+	}
+
+	public List<String> getQueries() {
+		synchronized (queries) {
+			return new ArrayList<>(queries);
+		}
+	}
+
+	public int getMaxConcurrentWrites() {
+		return maxConcurrentWrites.get();
+	}
+
+	/**
+	 * Delays the response to each write request.
+	 */
+	public void setWriteDelayMillis(long writeDelayMillis) {
+		this.writeDelayMillis = writeDelayMillis;
+	}
+
+	/**
+	 * Lets the write request with the passed index (starting at 0) fail with status 400.
+	 */
+	public void setFailingWrite(int failingWrite) {
+		this.failingWrite = failingWrite;
+	}
+
+	private void handleWrite(HttpExchange exchange) throws IOException {
+		int current = concurrentWrites.incrementAndGet();
+		maxConcurrentWrites.accumulateAndGet(current, Math::max);
+
+		try {
+			Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+			String body = new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8);
+
+			if (writeDelayMillis > 0) {
+				Thread.sleep(writeDelayMillis);
+			}
+
+			if (numWrites.getAndIncrement() == failingWrite) {
+				respond(exchange, 400, "{\"error\":\"unable to parse\"}");
+			} else {
+				String error = store(params.get("db"), body);
+
+				if (error == null) {
+					writes.add(new WriteRequest(params, body));
+					respond(exchange, 204, null);
+				} else {
+					respond(exchange, 400, mapper.createObjectNode().put("error", error).toString());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respond(exchange, 500, null);
+		} finally {
+			concurrentWrites.decrementAndGet();
+		}
+	}
+
+	private void handleQuery(HttpExchange exchange) throws IOException {
+		Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+		String query = params.get("q");
+		queries.add(query);
+
+		ObjectNode response = mapper.createObjectNode();
+		ObjectNode result = response.putArray("results").addObject().put("statement_id", 0);
+
+		Matcher create = CREATE.matcher(query);
+		Matcher select = SELECT.matcher(query);
+
+		if (create.matches()) {
+			synchronized (databases) {
+				databases.computeIfAbsent(unescape(create.group(1)), db -> new HashMap<>());
+			}
+		} else if (select.matches()) {
+			select(params.get("db"), select, result);
+		} else {
+			result.put("error", "unsupported query: " + query);
+		}
+
+		respond(exchange, 200, response.toString());
+	}
+
+	private void select(String database, Matcher select, ObjectNode result) {
+		String measurement = unescape(select.group(1));
+		long from = select.group(2) == null ? Long.MIN_VALUE : Long.parseLong(select.group(2));
+		long to = select.group(3) == null ? Long.MAX_VALUE : Long.parseLong(select.group(3));
+		int limit = select.group(4) == null ? Integer.MAX_VALUE : Integer.parseInt(select.group(4));
+
+		synchronized (databases) {
+			Map<String, NavigableMap<Long, Object>> measurements = databases.get(database);
+
+			if (measurements == null) {
+				result.put("error", "database not found: " + database);
+				return;
+			}
+
+			NavigableMap<Long, Object> points = measurements.get(measurement);
+
+			if ((points == null) || points.subMap(from, true, to, true).isEmpty()) {
+				return;
+			}
+
+			ObjectNode series = result.putArray("series").addObject().put("name", measurement);
+			series.putArray("columns").add("time").add("value");
+			ArrayNode values = series.putArray("values");
+
+			for (Map.Entry<Long, Object> point : points.subMap(from, true, to, true).entrySet()) {
+				if (values.size() == limit) {
+					break;
+				}
+
+				ArrayNode row = values.addArray().add(point.getKey());
+
+				if (point.getValue() instanceof String) {
+					row.add((String) point.getValue());
+				} else if (point.getValue() instanceof Boolean) {
+					row.add((Boolean) point.getValue());
+				} else if (point.getValue() instanceof Long) {
+					row.add((Long) point.getValue());
+				} else {
+					row.add((Double) point.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stores the points of the line protocol body. Only supports lines with a single field.
+	 *
+	 * @return An error message or {@code null} if the points have been stored.
+	 */
+	private String store(String database, String body) {
+		synchronized (databases) {
+			Map<String, NavigableMap<Long, Object>> measurements = databases.get(database);
+
+			if (measurements == null) {
+				return "database not found: " + database;
+			}
+
+			for (String line : body.split("\n")) {
+				if (line.isEmpty()) {
+					continue;
+				}
+
+				int measurementEnd = indexOfUnescaped(line, ' ', 0);
+				String measurement = line.substring(0, measurementEnd).replaceAll("\\\\(.)", "$1");
+				int valueStart = line.indexOf('=', measurementEnd) + 1;
+				int timestampStart = line.lastIndexOf(' ') + 1;
+				String value = line.substring(valueStart, timestampStart - 1);
+
+				Object parsed;
+
+				if (value.startsWith("\"")) {
+					parsed = value.substring(1, value.length() - 1).replaceAll("\\\\([\"\\\\])", "$1");
+				} else if ("true".equals(value) || "false".equals(value)) {
+					parsed = Boolean.valueOf(value);
+				} else if (value.endsWith("i")) {
+					parsed = Long.valueOf(value.substring(0, value.length() - 1));
+				} else {
+					parsed = Double.valueOf(value);
+				}
+
+				NavigableMap<Long, Object> points = measurements.computeIfAbsent(measurement, m -> new TreeMap<>());
+
+				if (!points.isEmpty() && (points.firstEntry().getValue().getClass() != parsed.getClass())) {
+					return "field type conflict: " + measurement;
+				}
+
+				points.put(Long.parseLong(line.substring(timestampStart)), parsed);
+			}
+		}
+
+		return null;
+	}
+
+	private static int indexOfUnescaped(String line, char c, int from) {
+		for (int i = from; i < line.length(); i++) {
+			if (line.charAt(i) == '\\') {
+				i++;
+			} else if (line.charAt(i) == c) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private static String unescape(String identifier) {
+		return identifier.replaceAll("\\\\(.)", "$1");
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+		} else {
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, bytes.length);
+			exchange.getResponseBody().write(bytes);
+		}
+
+		exchange.close();
+	}
+
+	private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+		Map<String, String> params = new HashMap<>();
+
+		if (query != null) {
+			for (String param : query.split("&")) {
+				int index = param.indexOf('=');
+				params.put(URLDecoder.decode(param.substring(0, index), "UTF-8"), URLDecoder.decode(param.substring(index + 1), "UTF-8"));
+			}
+		}
+
+		return params;
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+
+		while ((read = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, read);
+		}
+
+		return out.toByteArray();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * A received write request.
+	 */
+	public static class WriteRequest {
+
+		private final Map<String, String> params;
+
+		private final String body;
+
+		private WriteRequest(Map<String, String> params, String body) {
+			this.params = params;
+			this.body = body;
+		}
+
+		public Map<String, String> getParams() {
+			return params;
+		}
+
+		public String getBody() {
+			return body;
+		}
+
+		public List<String> getLines() {
+			List<String> lines = new ArrayList<>();
+
+			for (String line : body.split("\n")) {
+				if (!line.isEmpty()) {
+					lines.add(line);
+				}
+			}
+
+			return lines;
+		}
+
+	}
+
+}
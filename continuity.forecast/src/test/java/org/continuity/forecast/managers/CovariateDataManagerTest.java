@@ -0,0 +1,147 @@
+package org.continuity.forecast.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.continuity.forecast.context.BooleanCovariateValue;
+import org.continuity.forecast.context.CovariateData;
+import org.continuity.forecast.context.CovariateValue;
+import org.continuity.forecast.context.NumericalCovariateValue;
+import org.continuity.forecast.context.StringCovariateValue;
+import org.continuity.forecast.timeseries.BooleanCovariates;
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.StringSeries;
+import org.continuity.forecast.timeseries.ValueType;
+import org.continuity.forecast.timeseries.WriteReport;
+import org.continuity.forecast.timeseries.embedded.EmbeddedTimeSeriesStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link CovariateDataManager} against an {@link EmbeddedTimeSeriesStore}.
+ */
+public class CovariateDataManagerTest {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private EmbeddedTimeSeriesStore store;
+
+	private CovariateDataManager manager;
+
+	@Before
+	public void setup() throws IOException {
+		store = new EmbeddedTimeSeriesStore(temp.newFolder().toPath());
+		manager = new CovariateDataManager(store, BooleanCovariates.NUMERIC);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		store.close();
+	}
+
+	@Test
+	public void testNumericalAndBooleanValues() {
+		List<CovariateValue> values = Arrays.asList(numerical(3000, 12.5), bool(1000, true), numerical(2000, -3), bool(4000, false), string(5000, null));
+
+		WriteReport report = manager.handleOrder(data("my-app", "temp, outside", values));
+
+		assertThat(report.getDatabase()).isEqualTo("my-app");
+		assertThat(report.getNumPoints()).isEqualTo(4);
+		assertThat(report.getNumSkipped()).isEqualTo(1);
+		assertThat(report.isSuccessful()).isTrue();
+
+		NumericSeries series = store.readNumbers("my-app", "temp, outside", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(4);
+		assertThat(series.getValue(0)).isEqualTo(1.0);
+		assertThat(series.getValue(1)).isEqualTo(-3.0);
+		assertThat(series.getValue(2)).isEqualTo(12.5);
+		assertThat(series.getValue(3)).isEqualTo(0.0);
+	}
+
+	@Test
+	public void testBooleanEvents() {
+		List<CovariateValue> values = Arrays.asList(bool(1000, true), bool(2000, false));
+
+		WriteReport report = new CovariateDataManager(store, BooleanCovariates.EVENTS).handleOrder(data("my-app", "holiday", values));
+
+		assertThat(report.getNumPoints()).isEqualTo(2);
+		assertThat(store.getValueType("my-app", "holiday")).isEqualTo(ValueType.STRING);
+
+		StringSeries series = store.readStrings("my-app", "holiday", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.getValue(0)).isEqualTo("true");
+		assertThat(series.getValue(1)).isEqualTo("false");
+	}
+
+	@Test
+	public void testStringValues() {
+		List<CovariateValue> values = Arrays.asList(string(1000, "holiday"), string(2000, "say \"hi\" \\ bye"), string(3000, null));
+
+		WriteReport report = manager.handleOrder(data("my-app", "event", values));
+
+		assertThat(report.getNumPoints()).isEqualTo(2);
+		assertThat(report.getNumSkipped()).isEqualTo(1);
+
+		StringSeries series = store.readStrings("my-app", "event", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(2);
+		assertThat(series.getValue(1)).isEqualTo("say \"hi\" \\ bye");
+	}
+
+	@Test
+	public void testManyValues() {
+		WriteReport report = manager.handleOrder(data("my-app", "load", numericalValues(100000)));
+
+		assertThat(report.getNumPoints()).isEqualTo(100000);
+		assertThat(store.readNumbers("my-app", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(100000);
+	}
+
+	private static CovariateData data(String tag, String covarName, List<CovariateValue> values) {
+		CovariateData data = new CovariateData();
+		data.setTag(tag);
+		data.setCovarName(covarName);
+		data.setValues(values);
+		return data;
+	}
+
+	static List<CovariateValue> numericalValues(int numValues) {
+		List<CovariateValue> values = new ArrayList<>(numValues);
+
+		for (int i = 0; i < numValues; i++) {
+			values.add(numerical(1514764800000L + (i * 60000L), Math.sin(i / 100.0) * 100));
+		}
+
+		return values;
+	}
+
+	private static NumericalCovariateValue numerical(long timestamp, double value) {
+		NumericalCovariateValue covar = new NumericalCovariateValue();
+		covar.setTimestamp(timestamp);
+		covar.setValue(value);
+		return covar;
+	}
+
+	private static StringCovariateValue string(long timestamp, String value) {
+		StringCovariateValue covar = new StringCovariateValue();
+		covar.setTimestamp(timestamp);
+		covar.setValue(value);
+		return covar;
+	}
+
+	private static BooleanCovariateValue bool(long timestamp, boolean value) {
+		BooleanCovariateValue covar = new BooleanCovariateValue();
+		covar.setTimestamp(timestamp);
+		covar.setValue(value);
+		return covar;
+	}
+
+}
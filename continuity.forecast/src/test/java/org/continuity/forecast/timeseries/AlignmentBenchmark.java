@@ -0,0 +1,98 @@
+package org.continuity.forecast.timeseries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures aligning ten numeric covariates with one year of per-minute values to the
+ * per-minute timestamps of the intensities. About 5% of the values are missing and some are
+ * shifted by a few seconds. For comparison, the former alignment via {@code indexOf} on timestamp
+ * lists is measured with the first {@code -Dbenchmark.baseline-points=<n>} minutes (default
+ * 20000), as it is quadratic. Not run as part of the test suite.
+ */
+public class AlignmentBenchmark {
+
+	private static final long MINUTE_MILLIS = 60000;
+
+	private static final int NUM_POINTS = 365 * 24 * 60;
+
+	private static final int NUM_COVARIATES = 10;
+
+	private static final int NUM_RUNS = 10;
+
+	public static void main(String[] args) {
+		int numBaselinePoints = Integer.getInteger("benchmark.baseline-points", 20000);
+		Random random = new Random(42);
+		long start = 1514764800000L;
+
+		long[] grid = TimeSeriesAligner.regularGrid(start, start + ((NUM_POINTS - 1) * MINUTE_MILLIS), MINUTE_MILLIS);
+		List<NumericSeries> covariates = new ArrayList<>();
+
+		for (int c = 0; c < NUM_COVARIATES; c++) {
+			NumericSeries series = new NumericSeries(NUM_POINTS);
+
+			for (int i = 0; i < NUM_POINTS; i++) {
+				if (random.nextInt(20) > 0) {
+					long jitter = random.nextInt(10) == 0 ? random.nextInt(30000) : 0;
+					series.add(grid[i] + jitter, Math.sin(i / 1440.0) * 10 + random.nextGaussian());
+				}
+			}
+
+			covariates.add(series);
+		}
+
+		System.out.println("Aligning " + NUM_COVARIATES + " covariates with " + NUM_POINTS + " per-minute timestamps.");
+
+		for (GapFill gapFill : GapFill.values()) {
+			TimeSeriesAligner aligner = new TimeSeriesAligner(grid, MINUTE_MILLIS, Resampling.MEAN, gapFill);
+			double checksum = 0;
+			long begin = System.nanoTime();
+
+			for (int run = 0; run < NUM_RUNS; run++) {
+				for (NumericSeries series : covariates) {
+					checksum += aligner.align(series)[run];
+				}
+			}
+
+			System.out.printf("Aligner (%s): %.1f ms per alignment of all covariates (checksum %.3f)%n", gapFill, (System.nanoTime() - begin) / 1e6 / NUM_RUNS, checksum);
+		}
+
+		System.out.println("Aligning the first " + numBaselinePoints + " minutes only.");
+
+		long[] baselineGrid = TimeSeriesAligner.regularGrid(start, start + ((numBaselinePoints - 1) * MINUTE_MILLIS), MINUTE_MILLIS);
+		TimeSeriesAligner aligner = new TimeSeriesAligner(baselineGrid, MINUTE_MILLIS, Resampling.LAST, GapFill.ZERO);
+
+		long begin = System.nanoTime();
+
+		for (NumericSeries series : covariates) {
+			aligner.align(series);
+		}
+
+		System.out.printf("Aligner: %.1f ms%n", (System.nanoTime() - begin) / 1e6);
+
+		ArrayList<Long> timestamps = new ArrayList<>(numBaselinePoints);
+
+		for (long timestamp : baselineGrid) {
+			timestamps.add(timestamp);
+		}
+
+		begin = System.nanoTime();
+
+		for (NumericSeries series : covariates) {
+			ArrayList<Double> occurrences = new ArrayList<>(Collections.nCopies(numBaselinePoints, 0.0));
+
+			for (int i = 0; (i < series.size()) && (series.getTimestamp(i) <= baselineGrid[numBaselinePoints - 1]); i++) {
+				int index = timestamps.indexOf(series.getTimestamp(i));
+
+				if (index >= 0) {
+					occurrences.set(index, series.getValue(i));
+				}
+			}
+		}
+
+		System.out.printf("indexOf: %.1f ms%n", (System.nanoTime() - begin) / 1e6);
+	}
+
+}
@@ -0,0 +1,114 @@
+package org.continuity.forecast.timeseries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link TimeSeriesAligner} with irregular series.
+ */
+public class TimeSeriesAlignerTest {
+
+	private static final long INTERVAL = 1000;
+
+	/**
+	 * 0 to 9 seconds.
+	 */
+	private static final long[] GRID = TimeSeriesAligner.regularGrid(0, 9 * INTERVAL, INTERVAL);
+
+	@Test
+	public void testRegularGrid() {
+		assertThat(GRID.length).isEqualTo(10);
+		assertThat(GRID[9]).isEqualTo(9000L);
+		assertThat(TimeSeriesAligner.regularGrid(0, 9999, INTERVAL).length).isEqualTo(10);
+		assertThat(TimeSeriesAligner.regularGrid(1000, 999, INTERVAL).length).isEqualTo(0);
+	}
+
+	@Test
+	public void testExactTimestamps() {
+		double[] aligned = aligner(Resampling.LAST, GapFill.ZERO).align(series(0, 1, 3000, 3, 9000, 9));
+
+		assertThat(aligned).isEqualTo(new double[] { 1, 0, 0, 3, 0, 0, 0, 0, 0, 9 });
+	}
+
+	@Test
+	public void testResampling() {
+		NumericSeries series = series(-500, 100, 1000, 1, 1200, 5, 1999, 3, 2000, 4, 9999, 7, 10000, 100);
+
+		assertThat(aligner(Resampling.LAST, GapFill.ZERO).align(series)).isEqualTo(new double[] { 0, 3, 4, 0, 0, 0, 0, 0, 0, 7 });
+		assertThat(aligner(Resampling.MEAN, GapFill.ZERO).align(series)).isEqualTo(new double[] { 0, 3, 4, 0, 0, 0, 0, 0, 0, 7 });
+		assertThat(aligner(Resampling.SUM, GapFill.ZERO).align(series)).isEqualTo(new double[] { 0, 9, 4, 0, 0, 0, 0, 0, 0, 7 });
+		assertThat(aligner(Resampling.MAX, GapFill.ZERO).align(series)).isEqualTo(new double[] { 0, 5, 4, 0, 0, 0, 0, 0, 0, 7 });
+	}
+
+	@Test
+	public void testPreviousGapFill() {
+		assertThat(aligner(Resampling.LAST, GapFill.PREVIOUS).align(series(2500, 2, 5000, 5))).isEqualTo(new double[] { 0, 0, 2, 2, 2, 5, 5, 5, 5, 5 });
+		assertThat(aligner(Resampling.LAST, GapFill.PREVIOUS).align(series(-3000, 1, 5000, 5))).isEqualTo(new double[] { 1, 1, 1, 1, 1, 5, 5, 5, 5, 5 });
+	}
+
+	@Test
+	public void testLinearGapFill() {
+		assertThat(aligner(Resampling.LAST, GapFill.LINEAR).align(series(2000, 2, 6000, 6))).isEqualTo(new double[] { 2, 2, 2, 3, 4, 5, 6, 6, 6, 6 });
+		assertThat(aligner(Resampling.LAST, GapFill.LINEAR).align(series(-2000, -2, 4000, 4, 14000, 14))).isEqualTo(new double[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+		assertThat(aligner(Resampling.LAST, GapFill.LINEAR).align(new NumericSeries())).isEqualTo(new double[10]);
+	}
+
+	@Test
+	public void testIrregularGrid() {
+		TimeSeriesAligner aligner = new TimeSeriesAligner(new long[] { 0, 1000, 5000, 6000 }, INTERVAL, Resampling.SUM, GapFill.LINEAR);
+
+		assertThat(aligner.align(series(500, 1, 3000, 2, 4999, 3, 9000, 13))).isEqualTo(new double[] { 1, 5, 9, 10 });
+		assertThat(aligner.indexOf(4000)).isEqualTo(1);
+		assertThat(aligner.indexOf(5000)).isEqualTo(2);
+		assertThat(aligner.indexOf(6999)).isEqualTo(3);
+		assertThat(aligner.indexOf(7000)).isEqualTo(-1);
+		assertThat(aligner.indexOf(-1)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testEvents() {
+		StringSeries series = new StringSeries();
+		series.add(-1000, "before");
+		series.add(0, "holiday");
+		series.add(500, "holiday");
+		series.add(2300, "sale");
+		series.add(5000, "holiday");
+		series.add(10000, "after");
+
+		Map<String, double[]> events = aligner(Resampling.LAST, GapFill.LINEAR).alignEvents(series);
+
+		assertThat(events.keySet().toString()).isEqualTo("[holiday, sale]");
+		assertThat(events.get("holiday")).isEqualTo(new double[] { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0 });
+		assertThat(events.get("sale")).isEqualTo(new double[] { 0, 0, 1, 0, 0, 0, 0, 0, 0, 0 });
+	}
+
+	@Test
+	public void testEmptyGrid() {
+		TimeSeriesAligner aligner = new TimeSeriesAligner(new long[0], INTERVAL, Resampling.LAST, GapFill.LINEAR);
+
+		assertThat(aligner.align(series(0, 1)).length).isEqualTo(0);
+		assertThat(aligner.alignEvents(new StringSeries()).isEmpty()).isTrue();
+		assertThat(aligner.indexOf(0)).isEqualTo(-1);
+	}
+
+	private static TimeSeriesAligner aligner(Resampling resampling, GapFill gapFill) {
+		return new TimeSeriesAligner(GRID, INTERVAL, resampling, gapFill);
+	}
+
+	/**
+	 * Creates a series from alternating timestamps and values.
+	 */
+	private static NumericSeries series(double... timestampsAndValues) {
+		NumericSeries series = new NumericSeries();
+
+		for (int i = 0; i < timestampsAndValues.length; i += 2) {
+			series.add((long) timestampsAndValues[i], timestampsAndValues[i + 1]);
+		}
+
+		return series;
+	}
+
+}
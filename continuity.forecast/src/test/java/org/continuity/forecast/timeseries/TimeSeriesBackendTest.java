@@ -0,0 +1,200 @@
+package org.continuity.forecast.timeseries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compatibility tests every {@link TimeSeriesBackend} has to pass. Implemented by one test class
+ * per backend.
+ */
+public abstract class TimeSeriesBackendTest {
+
+	private static final long START = 1514764800000L;
+
+	private static final long INTERVAL = 60000L;
+
+	/**
+	 * Gets the backend to be tested. Should return the same backend for subsequent calls within
+	 * one test.
+	 */
+	protected abstract TimeSeriesBackend backend();
+
+	@Test
+	public void testUnsortedNumbersAreReadSorted() {
+		int numValues = 10000;
+		long[] timestamps = new long[numValues];
+		double[] values = new double[numValues];
+
+		for (int i = 0; i < numValues; i++) {
+			timestamps[i] = START + (i * INTERVAL);
+			values[i] = Math.sin(i / 100.0) * 100;
+		}
+
+		shuffle(timestamps, values, new Random(42));
+
+		assertThat(backend().writeNumbers("app", "load", timestamps, values, numValues).getNumPoints()).isEqualTo(numValues);
+
+		NumericSeries series = backend().readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(numValues);
+
+		for (int i = 0; i < numValues; i++) {
+			assertThat(series.getTimestamp(i)).isEqualTo(START + (i * INTERVAL));
+			assertThat(series.getValue(i)).isEqualTo(Math.sin(i / 100.0) * 100);
+		}
+	}
+
+	@Test
+	public void testRangeIsInclusive() {
+		writeSequence("app", "load", 0, 1000);
+
+		NumericSeries series = backend().readNumbers("app", "load", START + (100 * INTERVAL), START + (199 * INTERVAL));
+
+		assertThat(series.size()).isEqualTo(100);
+		assertThat(series.getTimestamp(0)).isEqualTo(START + (100 * INTERVAL));
+		assertThat(series.getValue(0)).isEqualTo(100.0);
+		assertThat(series.getTimestamp(99)).isEqualTo(START + (199 * INTERVAL));
+
+		assertThat(backend().readNumbers("app", "load", START + 1, START + INTERVAL - 1).isEmpty()).isTrue();
+		assertThat(backend().readNumbers("app", "load", Long.MIN_VALUE, START).size()).isEqualTo(1);
+		assertThat(backend().readNumbers("app", "load", START + (999 * INTERVAL), Long.MAX_VALUE).size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testSameTimestampIsOverwritten() {
+		writeSequence("app", "load", 0, 1000);
+
+		long[] timestamps = { START + (500 * INTERVAL), START + (10 * INTERVAL), START + (500 * INTERVAL), START + (2000 * INTERVAL) };
+		double[] values = { -1, -2, -3, -4 };
+		backend().writeNumbers("app", "load", timestamps, values, timestamps.length);
+
+		NumericSeries series = backend().readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(1001);
+		assertThat(series.getValue(10)).isEqualTo(-2.0);
+		assertThat(series.getValue(500)).isEqualTo(-3.0);
+		assertThat(series.getValue(1000)).isEqualTo(-4.0);
+		assertThat(series.getValue(999)).isEqualTo(999.0);
+	}
+
+	@Test
+	public void testOutOfOrderBatches() {
+		writeSequence("app", "load", 5000, 6000);
+		writeSequence("app", "load", 0, 1000);
+		writeSequence("app", "load", 3000, 4000);
+		writeSequence("app", "load", 1000, 3000);
+		writeSequence("app", "load", 4000, 5000);
+
+		NumericSeries series = backend().readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(6000);
+
+		for (int i = 0; i < 6000; i++) {
+			assertThat(series.getTimestamp(i)).isEqualTo(START + (i * INTERVAL));
+			assertThat(series.getValue(i)).isEqualTo((double) i);
+		}
+	}
+
+	@Test
+	public void testStrings() {
+		long[] timestamps = { START + INTERVAL, START, START + (2 * INTERVAL), START + (3 * INTERVAL) };
+		String[] values = { "say \"hi\" \\ bye", "holiday", "f\u00fcr, jetzt = \u20ac", "holiday" };
+
+		assertThat(backend().writeStrings("app", "event", timestamps, values, timestamps.length).getNumPoints()).isEqualTo(4);
+
+		StringSeries series = backend().readStrings("app", "event", START, START + (2 * INTERVAL));
+
+		assertThat(series.size()).isEqualTo(3);
+		assertThat(series.getValue(0)).isEqualTo("holiday");
+		assertThat(series.getValue(1)).isEqualTo("say \"hi\" \\ bye");
+		assertThat(series.getValue(2)).isEqualTo("f\u00fcr, jetzt = \u20ac");
+		assertThat(series.getTimestamp(2)).isEqualTo(START + (2 * INTERVAL));
+	}
+
+	@Test
+	public void testIntegers() {
+		long[] timestamps = { START + INTERVAL, START, START + (2 * INTERVAL) };
+		long[] values = { 42, 0, -7 };
+
+		assertThat(backend().writeIntegers("app", "userGroup0", timestamps, values, timestamps.length).getNumPoints()).isEqualTo(3);
+
+		NumericSeries series = backend().readNumbers("app", "userGroup0", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(3);
+		assertThat(series.getValue(0)).isEqualTo(0.0);
+		assertThat(series.getValue(1)).isEqualTo(42.0);
+		assertThat(series.getValue(2)).isEqualTo(-7.0);
+		assertThat(backend().getValueType("app", "userGroup0")).isEqualTo(ValueType.NUMERIC);
+	}
+
+	@Test
+	public void testDatabasesAreSeparated() {
+		writeSequence("app-a", "load", 0, 10);
+		writeSequence("app-b", "load", 0, 20);
+		writeSequence("app-a", "temp, outside", 0, 30);
+
+		assertThat(backend().readNumbers("app-a", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(10);
+		assertThat(backend().readNumbers("app-b", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(20);
+		assertThat(backend().readNumbers("app-a", "temp, outside", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(30);
+		assertThat(backend().readNumbers("app-b", "temp, outside", Long.MIN_VALUE, Long.MAX_VALUE).isEmpty()).isTrue();
+		assertThat(backend().readNumbers("app-c", "load", Long.MIN_VALUE, Long.MAX_VALUE).isEmpty()).isTrue();
+	}
+
+	@Test
+	public void testValueType() {
+		writeSequence("app", "load", 0, 10);
+		backend().writeStrings("app", "event", new long[] { START }, new String[] { "holiday" }, 1);
+
+		assertThat(backend().getValueType("app", "load")).isEqualTo(ValueType.NUMERIC);
+		assertThat(backend().getValueType("app", "event")).isEqualTo(ValueType.STRING);
+		assertThat(backend().getValueType("app", "missing")).isEqualTo(null);
+		assertThat(backend().getValueType("missing", "load")).isEqualTo(null);
+	}
+
+	@Test
+	public void testSpecialNumbers() {
+		long[] timestamps = { START, START + 1, START + 2, START + 3, START + 4 };
+		double[] values = { 0.1, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, -123456.789 };
+
+		backend().writeNumbers("app", "load", timestamps, values, timestamps.length);
+
+		NumericSeries series = backend().readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		for (int i = 0; i < values.length; i++) {
+			assertThat(series.getValue(i)).isEqualTo(values[i]);
+		}
+	}
+
+	/**
+	 * Writes the values {@code from} to {@code to} (exclusive) with one value per interval.
+	 */
+	protected void writeSequence(String database, String measurement, int from, int to) {
+		long[] timestamps = new long[to - from];
+		double[] values = new double[to - from];
+
+		for (int i = from; i < to; i++) {
+			timestamps[i - from] = START + (i * INTERVAL);
+			values[i - from] = i;
+		}
+
+		assertThat(backend().writeNumbers(database, measurement, timestamps, values, to - from).isSuccessful()).isTrue();
+	}
+
+	private static void shuffle(long[] timestamps, double[] values, Random random) {
+		for (int i = timestamps.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+
+			long timestamp = timestamps[i];
+			timestamps[i] = timestamps[j];
+			timestamps[j] = timestamp;
+
+			double value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+
+}
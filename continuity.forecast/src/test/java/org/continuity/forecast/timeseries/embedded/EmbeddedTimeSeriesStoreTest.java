@@ -0,0 +1,105 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import org.continuity.forecast.timeseries.NumericSeries;
+import org.continuity.forecast.timeseries.TimeSeriesBackend;
+import org.continuity.forecast.timeseries.TimeSeriesBackendTest;
+import org.continuity.forecast.timeseries.ValueType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Runs the {@link TimeSeriesBackendTest} against the {@link EmbeddedTimeSeriesStore} and tests
+ * the persistence.
+ */
+public class EmbeddedTimeSeriesStoreTest extends TimeSeriesBackendTest {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private Path root;
+
+	private EmbeddedTimeSeriesStore store;
+
+	@Before
+	public void setup() throws IOException {
+		root = temp.newFolder().toPath();
+		store = new EmbeddedTimeSeriesStore(root);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		store.close();
+	}
+
+	@Override
+	protected TimeSeriesBackend backend() {
+		return store;
+	}
+
+	@Test
+	public void testValuesArePersisted() throws IOException {
+		writeSequence("app", "load", 0, 10000);
+		writeSequence("app", "load", 5000, 5001);
+		store.close();
+
+		store = new EmbeddedTimeSeriesStore(root);
+		NumericSeries series = store.readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE);
+
+		assertThat(series.size()).isEqualTo(10000);
+		assertThat(series.getValue(9999)).isEqualTo(9999.0);
+		assertThat(store.getValueType("app", "load")).isEqualTo(ValueType.NUMERIC);
+	}
+
+	@Test
+	public void testIncompleteBlockIsRemoved() throws IOException {
+		writeSequence("app", "load", 0, MeasurementFile.BLOCK_SIZE);
+		writeSequence("app", "load", MeasurementFile.BLOCK_SIZE, MeasurementFile.BLOCK_SIZE + 10);
+		store.close();
+
+		try (Stream<Path> files = Files.walk(root)) {
+			Path file = files.filter(Files::isRegularFile).findFirst().get();
+			Files.write(file, new byte[] { 0, 0, 0, 10, 1, 2, 3 }, StandardOpenOption.APPEND);
+		}
+
+		store = new EmbeddedTimeSeriesStore(root);
+
+		assertThat(store.readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(MeasurementFile.BLOCK_SIZE + 10);
+
+		writeSequence("app", "load", MeasurementFile.BLOCK_SIZE + 10, MeasurementFile.BLOCK_SIZE + 20);
+
+		assertThat(store.readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(MeasurementFile.BLOCK_SIZE + 20);
+	}
+
+	@Test
+	public void testTypeMismatchIsReported() {
+		writeSequence("app", "load", 0, 10);
+
+		assertThat(store.writeStrings("app", "load", new long[] { 0 }, new String[] { "x" }, 1).isSuccessful()).isFalse();
+		assertThat(store.readNumbers("app", "load", Long.MIN_VALUE, Long.MAX_VALUE).size()).isEqualTo(10);
+	}
+
+	@Test
+	public void testCompression() throws IOException {
+		writeSequence("app", "load", 0, 100000);
+
+		long size;
+
+		try (Stream<Path> files = Files.walk(root)) {
+			size = files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+
+		assertThat(size).isLessThanOrEqualTo(100000L * 4);
+	}
+
+}
@@ -0,0 +1,109 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the {@link GorillaCodec} restores the encoded values exactly.
+ */
+public class GorillaCodecTest {
+
+	private static final int NUM_VALUES = 10000;
+
+	@Test
+	public void testTimestamps() {
+		Random random = new Random(42);
+		long[] timestamps = new long[NUM_VALUES];
+		timestamps[0] = Long.MIN_VALUE + 1;
+
+		for (int i = 1; i < NUM_VALUES; i++) {
+			switch (random.nextInt(5)) {
+			case 0:
+				timestamps[i] = timestamps[i - 1] + 60000;
+				break;
+			case 1:
+				timestamps[i] = timestamps[i - 1] + random.nextInt(100);
+				break;
+			case 2:
+				timestamps[i] = timestamps[i - 1] + random.nextInt(5000);
+				break;
+			case 3:
+				timestamps[i] = timestamps[i - 1] + (random.nextLong() >>> 20);
+				break;
+			default:
+				timestamps[i] = timestamps[i - 1] + 1;
+				break;
+			}
+		}
+
+		BitWriter writer = new BitWriter(16);
+		GorillaCodec.encodeTimestamps(writer, timestamps, 0, NUM_VALUES);
+
+		long[] decoded = new long[NUM_VALUES];
+		GorillaCodec.decodeTimestamps(new BitReader(writer.toByteArray()), decoded, NUM_VALUES);
+
+		for (int i = 0; i < NUM_VALUES; i++) {
+			assertThat(decoded[i]).as("Timestamp %d", i).isEqualTo(timestamps[i]);
+		}
+	}
+
+	@Test
+	public void testDoubles() {
+		Random random = new Random(42);
+		double[] values = new double[NUM_VALUES];
+		double[] special = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE, Double.MAX_VALUE };
+
+		for (int i = 0; i < NUM_VALUES; i++) {
+			switch (random.nextInt(4)) {
+			case 0:
+				values[i] = special[random.nextInt(special.length)];
+				break;
+			case 1:
+				values[i] = i > 0 ? values[i - 1] : 1;
+				break;
+			case 2:
+				values[i] = Double.longBitsToDouble(random.nextLong());
+				break;
+			default:
+				values[i] = random.nextInt(1000);
+				break;
+			}
+		}
+
+		BitWriter writer = new BitWriter(16);
+		GorillaCodec.encodeDoubles(writer, values, 0, NUM_VALUES);
+
+		double[] decoded = new double[NUM_VALUES];
+		GorillaCodec.decodeDoubles(new BitReader(writer.toByteArray()), decoded, NUM_VALUES);
+
+		for (int i = 0; i < NUM_VALUES; i++) {
+			assertThat(Double.doubleToRawLongBits(decoded[i])).as("Value %d", i).isEqualTo(Double.doubleToRawLongBits(values[i]));
+		}
+	}
+
+	@Test
+	public void testStrings() {
+		String[] values = { "holiday", "", "holiday", "f\u00fcr \"alle\"", "", "weekend" };
+
+		BitWriter writer = new BitWriter(16);
+		GorillaCodec.encodeStrings(writer, values, 0, values.length);
+		GorillaCodec.encodeStrings(writer, new String[] { "single" }, 0, 1);
+
+		BitReader reader = new BitReader(writer.toByteArray());
+		String[] decoded = new String[values.length];
+		GorillaCodec.decodeStrings(reader, decoded, values.length);
+
+		String[] single = new String[1];
+		GorillaCodec.decodeStrings(reader, single, 1);
+
+		for (int i = 0; i < values.length; i++) {
+			assertThat(decoded[i]).isEqualTo(values[i]);
+		}
+
+		assertThat(single[0]).isEqualTo("single");
+	}
+
+}
@@ -0,0 +1,113 @@
+package org.continuity.forecast.timeseries.embedded;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.continuity.forecast.timeseries.NumericSeries;
+
+/**
+ * Measures the write throughput, the size on disk and the scan and range query performance of
+ * the {@link EmbeddedTimeSeriesStore}. By default, 100 million points are written in batches of
+ * one day of per-second intensities. The number of points can be changed with
+ * {@code -Dbenchmark.points=<n>} and the directory with {@code -Dbenchmark.path=<dir>}. Not run
+ * as part of the test suite.
+ */
+public class TimeSeriesBenchmark {
+
+	private static final long START = 1514764800000L;
+
+	private static final int BATCH_SIZE = 24 * 60 * 60;
+
+	private static final int NUM_RANGE_QUERIES = 1000;
+
+	/**
+	 * The full scan reads ranges of this number of days, so that not all points need to fit
+	 * into memory at the same time.
+	 */
+	private static final int SCAN_RANGE_DAYS = 30;
+
+	public static void main(String[] args) throws IOException {
+		long numPoints = Long.getLong("benchmark.points", 100000000L);
+		String path = System.getProperty("benchmark.path");
+		Path root = path == null ? Files.createTempDirectory("timeseries-benchmark") : Paths.get(path);
+
+		System.out.println("Writing " + numPoints + " points to " + root + ".");
+
+		try (EmbeddedTimeSeriesStore store = new EmbeddedTimeSeriesStore(root)) {
+			Random random = new Random(42);
+			long[] timestamps = new long[BATCH_SIZE];
+			double[] values = new double[BATCH_SIZE];
+
+			long start = System.nanoTime();
+
+			for (long written = 0; written < numPoints; written += BATCH_SIZE) {
+				int length = (int) Math.min(BATCH_SIZE, numPoints - written);
+
+				for (int i = 0; i < length; i++) {
+					long second = written + i;
+					timestamps[i] = START + (second * 1000);
+					values[i] = Math.round(100 + (40 * Math.sin((2 * Math.PI * second) / BATCH_SIZE)) + (5 * random.nextGaussian()));
+				}
+
+				store.writeNumbers("benchmark", "userGroup0", timestamps, values, length);
+			}
+
+			double writeSeconds = (System.nanoTime() - start) / 1e9;
+			long bytes = size(root);
+
+			System.out.printf("Write: %.1f s, %.0f points/s, %.2f bytes/point (%d bytes)%n", writeSeconds, numPoints / writeSeconds, (double) bytes / numPoints, bytes);
+
+			start = System.nanoTime();
+			long numScanned = 0;
+			long scanRangeMillis = SCAN_RANGE_DAYS * BATCH_SIZE * 1000L;
+
+			for (long from = START; from < START + (numPoints * 1000); from += scanRangeMillis) {
+				NumericSeries series = store.readNumbers("benchmark", "userGroup0", from, (from + scanRangeMillis) - 1);
+				numScanned += series.size();
+			}
+
+			double scanSeconds = (System.nanoTime() - start) / 1e9;
+
+			System.out.printf("Full scan: %d points in %.1f s, %.0f points/s%n", numScanned, scanSeconds, numScanned / scanSeconds);
+
+			long[] latencies = new long[NUM_RANGE_QUERIES];
+			long numRead = 0;
+
+			for (int q = 0; q < NUM_RANGE_QUERIES; q++) {
+				long from = START + ((long) (random.nextDouble() * Math.max(1, numPoints - (7 * BATCH_SIZE))) * 1000);
+
+				start = System.nanoTime();
+				numRead += store.readNumbers("benchmark", "userGroup0", from, from + (7L * BATCH_SIZE * 1000)).size();
+				latencies[q] = System.nanoTime() - start;
+			}
+
+			Arrays.sort(latencies);
+
+			System.out.printf("Range query (1 week, avg. %d points): median %.2f ms, p99 %.2f ms%n", numRead / NUM_RANGE_QUERIES, latencies[NUM_RANGE_QUERIES / 2] / 1e6,
+					latencies[(NUM_RANGE_QUERIES * 99) / 100] / 1e6);
+		} finally {
+			if (path == null) {
+				delete(root);
+			}
+		}
+	}
+
+	private static long size(Path root) throws IOException {
+		try (Stream<Path> files = Files.walk(root)) {
+			return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+	}
+
+	private static void delete(Path root) throws IOException {
+		try (Stream<Path> files = Files.walk(root)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+}
@@ -9,7 +9,10 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.continuity.idpa.IdpaElement;
 import org.continuity.idpa.annotation.ApplicationAnnotation;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.serialization.yaml.IdpaYamlSerializer;
@@ -17,6 +20,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Stores application models and annotations per tag. The parsed models are cached per file until
+ * the file is written or removed. Hence, the storage expects to be the only one writing to the
+ * storage path. Since cached models are shared between the callers, they must not be modified.
+ *
  * @author Henning Schulz
  *
  */
@@ -34,6 +41,17 @@ public class AnnotationStorage {
 
 	private final Path storagePath;
 
+	private final IdpaYamlSerializer<Application> applicationSerializer = new IdpaYamlSerializer<>(Application.class);
+
+	private final IdpaYamlSerializer<ApplicationAnnotation> annotationSerializer = new IdpaYamlSerializer<>(ApplicationAnnotation.class);
+
+	/**
+	 * Parsed models per file. Entries are only added or removed while holding the lock of the tag.
+	 */
+	private final Map<Path, IdpaElement> cache = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
 	public AnnotationStorage(String storagePath) {
 		this(Paths.get(storagePath));
 	}
@@ -116,8 +134,7 @@ public class AnnotationStorage {
 
 		filename += FILE_EXTENSION;
 
-		IdpaYamlSerializer<Application> serializer = new IdpaYamlSerializer<>(Application.class);
-		serializer.writeToYaml(applicationModel, dirPath.resolve(filename));
+		write(tag, applicationSerializer, applicationModel, dirPath.resolve(filename));
 
 		LOGGER.debug("Wrote application model to {}.", dirPath);
 
@@ -163,8 +180,6 @@ public class AnnotationStorage {
 
 		boolean created = dirPath.toFile().mkdirs();
 
-		IdpaYamlSerializer<ApplicationAnnotation> serializer = new IdpaYamlSerializer<>(ApplicationAnnotation.class);
-
 		String filename = ANNOTATION_FILE_NAME;
 
 		if (suffix != null) {
@@ -173,7 +188,7 @@ public class AnnotationStorage {
 
 		filename += FILE_EXTENSION;
 
-		serializer.writeToYaml(annotation, dirPath.resolve(filename));
+		write(tag, annotationSerializer, annotation, dirPath.resolve(filename));
 
 		LOGGER.debug("Wrote annotation to {}.", dirPath);
 
@@ -243,8 +258,7 @@ public class AnnotationStorage {
 		boolean exists = new File(annotationPath.toString()).exists();
 
 		if (!exists) {
-			IdpaYamlSerializer<ApplicationAnnotation> serializer = new IdpaYamlSerializer<>(ApplicationAnnotation.class);
-			serializer.writeToYaml(annotation, annotationPath);
+			write(tag, annotationSerializer, annotation, annotationPath);
 
 			LOGGER.debug("Wrote annotation to {}.", dirPath);
 		} else {
@@ -300,8 +314,7 @@ public class AnnotationStorage {
 		boolean exists = new File(systemPath.toString()).exists();
 
 		if (!exists) {
-			IdpaYamlSerializer<Application> serializer = new IdpaYamlSerializer<>(Application.class);
-			serializer.writeToYaml(application, systemPath);
+			write(tag, applicationSerializer, application, systemPath);
 
 			LOGGER.debug("Wrote annotation to {}.", dirPath);
 		} else {
@@ -337,15 +350,7 @@ public class AnnotationStorage {
 
 		Path systemPath = dirPath.resolve(filename);
 
-		if (!systemPath.toFile().exists()) {
-			LOGGER.info("There is no file {}.", systemPath.toAbsolutePath());
-			return null;
-		}
-
-		IdpaYamlSerializer<Application> serializer = new IdpaYamlSerializer<>(Application.class);
-
-		LOGGER.debug("Reading application model from {}.", systemPath);
-		return serializer.readFromYaml(systemPath);
+		return read(tag, applicationSerializer, Application.class, systemPath);
 	}
 
 	/**
@@ -379,8 +384,6 @@ public class AnnotationStorage {
 			return null;
 		}
 
-		IdpaYamlSerializer<ApplicationAnnotation> serializer = new IdpaYamlSerializer<>(ApplicationAnnotation.class);
-
 		String filename = ANNOTATION_FILE_NAME;
 
 		if (suffix != null) {
@@ -390,14 +393,8 @@ public class AnnotationStorage {
 		filename += FILE_EXTENSION;
 
 		Path annotationPath = dirPath.resolve(filename);
-		LOGGER.debug("Reading annotation from {}.", dirPath);
-
-		if (!annotationPath.toFile().exists()) {
-			LOGGER.info("There is no file {}.", annotationPath.toAbsolutePath());
-			return null;
-		}
 
-		return serializer.readFromYaml(annotationPath);
+		return read(tag, annotationSerializer, ApplicationAnnotation.class, annotationPath);
 	}
 
 	/**
@@ -468,7 +465,58 @@ public class AnnotationStorage {
 		Path annotationPath = dirPath.resolve(filename);
 		LOGGER.debug("Deleting annotation from {}.", annotationPath);
 
-		return annotationPath.toFile().delete();
+		synchronized (lockFor(tag)) {
+			cache.remove(annotationPath);
+			return annotationPath.toFile().delete();
+		}
+	}
+
+	private <T extends IdpaElement> void write(String tag, IdpaYamlSerializer<T> serializer, T model, Path path) throws IOException {
+		synchronized (lockFor(tag)) {
+			try {
+				serializer.writeToYaml(model, path);
+			} finally {
+				cache.remove(path);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached model or parses the file if it exists.
+	 */
+	private <T extends IdpaElement> T read(String tag, IdpaYamlSerializer<T> serializer, Class<T> type, Path path) throws IOException {
+		IdpaElement cached = cache.get(path);
+
+		if (type.isInstance(cached)) {
+			return type.cast(cached);
+		}
+
+		synchronized (lockFor(tag)) {
+			cached = cache.get(path);
+
+			if (type.isInstance(cached)) {
+				return type.cast(cached);
+			}
+
+			if (!path.toFile().exists()) {
+				LOGGER.info("There is no file {}.", path.toAbsolutePath());
+				return null;
+			}
+
+			LOGGER.debug("Reading {} from {}.", type.getSimpleName(), path);
+
+			T model = serializer.readFromYaml(path);
+
+			if (model != null) {
+				cache.put(path, model);
+			}
+
+			return model;
+		}
+	}
+
+	private Object lockFor(String tag) {
+		return locks.computeIfAbsent(tag, t -> new Object());
 	}
 
 	/**
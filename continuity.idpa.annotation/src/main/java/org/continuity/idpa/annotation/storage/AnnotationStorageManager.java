@@ -1,6 +1,8 @@
 package org.continuity.idpa.annotation.storage;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.continuity.api.entities.report.AnnotationValidityReport;
 import org.continuity.idpa.annotation.ApplicationAnnotation;
@@ -24,6 +26,12 @@ public class AnnotationStorageManager {
 
 	private final AnnotationStorage storage;
 
+	/**
+	 * Tags whose stored annotation has been validated against the stored application model. Only
+	 * the parts of these annotations affected by application changes need to be checked again.
+	 */
+	private final Set<String> validatedTags = ConcurrentHashMap.newKeySet();
+
 	@Autowired
 	public AnnotationStorageManager(AnnotationStorage storage) {
 		this.storage = storage;
@@ -91,7 +99,13 @@ public class AnnotationStorageManager {
 
 		storage.saveOrUpdate(tag, application);
 
-		AnnotationValidityReport report = checkEverything(application, annotation, applicationChangeReport);
+		AnnotationValidityReport report;
+
+		if (validatedTags.contains(tag)) {
+			report = checkChanges(application, annotation, applicationChangeReport);
+		} else {
+			report = checkEverything(application, annotation, applicationChangeReport);
+		}
 
 		if (report.isBreaking()) {
 			AnnotationFixer fixer = new AnnotationFixer();
@@ -103,8 +117,10 @@ public class AnnotationStorageManager {
 
 			if (!newReport.isBreaking()) {
 				storage.saveOrUpdate(tag, fixedAnnotation);
+				validatedTags.add(tag);
 				LOGGER.info("Fixed annotation for tag {}.", tag);
 			} else {
+				validatedTags.remove(tag);
 				storage.removeAnnotationIfPresent(tag, null);
 				storage.markAsBroken(tag);
 				LOGGER.warn("The annotation for tag {} is now in a broken state!", tag);
@@ -113,11 +129,24 @@ public class AnnotationStorageManager {
 			storage.saveIfNotPresent(tag, annotation, SUFFIX_BASE);
 			storage.saveIfNotPresent(tag, oldSystemModel, SUFFIX_BASE);
 			LOGGER.info("Created or updated base models for tag {}.", tag);
+		} else if (annotation != null) {
+			validatedTags.add(tag);
 		}
 
 		return report;
 	}
 
+	private AnnotationValidityReport checkChanges(Application newApplicationModel, ApplicationAnnotation annotation, AnnotationValidityReport applicationChangeReport) {
+		AnnotationValidityChecker checker = new AnnotationValidityChecker(newApplicationModel);
+		checker.registerApplicationChanges(applicationChangeReport);
+
+		if (annotation != null) {
+			checker.checkAnnotationIncrementally(annotation);
+		}
+
+		return checker.getReport();
+	}
+
 	private AnnotationValidityReport checkEverything(Application newApplicationModel, ApplicationAnnotation annotation, AnnotationValidityReport applicationChangeReport) {
 		AnnotationValidityChecker checker = new AnnotationValidityChecker(newApplicationModel);
 		checker.registerApplicationChanges(applicationChangeReport);
@@ -154,6 +183,7 @@ public class AnnotationStorageManager {
 
 		if (!report.isBreaking()) {
 			storage.saveOrUpdate(tag, annotation);
+			validatedTags.add(tag);
 
 			storage.unmarkAsBroken(tag);
 			deleteBaseAndLog(tag);
@@ -171,7 +201,13 @@ public class AnnotationStorageManager {
 	 * @throws IOException
 	 */
 	public boolean saveAnnotationIfNotPresent(String tag, ApplicationAnnotation annotation) throws IOException {
-		return storage.saveIfNotPresent(tag, annotation);
+		boolean saved = storage.saveIfNotPresent(tag, annotation);
+
+		if (saved) {
+			validatedTags.remove(tag);
+		}
+
+		return saved;
 	}
 
 	/**
@@ -187,7 +223,7 @@ public class AnnotationStorageManager {
 	 * @throws IOException
 	 */
 	public AnnotationValidityReport createOrUpdate(String tag, Application application, ApplicationAnnotation annotation, AnnotationValidityReport applicationChangeReport) throws IOException {
-		storage.saveIfNotPresent(tag, annotation);
+		saveAnnotationIfNotPresent(tag, annotation);
 		return updateApplication(tag, application, applicationChangeReport);
 	}
 
@@ -221,6 +257,7 @@ public class AnnotationStorageManager {
 			LOGGER.info("There is no legacy application for tag {} to be updated.", tag);
 		} else {
 			Application application = converter.convertFromSystemModel(legacyApplication);
+			validatedTags.remove(tag);
 			storage.saveOrUpdate(tag, application);
 			updated = true;
 			LOGGER.info("Updated the legacy application for tag {}.", tag);
@@ -230,6 +267,7 @@ public class AnnotationStorageManager {
 			LOGGER.info("There is no legacy annotation for tag {} to be updated.", tag);
 		} else {
 			ApplicationAnnotation annotation = converter.convertFromAnnotation(legacyAnnotation);
+			validatedTags.remove(tag);
 			storage.saveOrUpdate(tag, annotation);
 			updated = true;
 			LOGGER.info("Updated the legacy annotation for tag {}.", tag);
@@ -1,13 +1,17 @@
 package org.continuity.idpa.annotation.validation;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.continuity.api.entities.report.AnnotationValidityReport;
 import org.continuity.api.entities.report.AnnotationViolation;
 import org.continuity.api.entities.report.AnnotationViolationType;
+import org.continuity.api.entities.report.ApplicationChange;
 import org.continuity.api.entities.report.ModelElementReference;
+import org.continuity.idpa.IdpaIndex;
 import org.continuity.idpa.annotation.ApplicationAnnotation;
 import org.continuity.idpa.annotation.EndpointAnnotation;
 import org.continuity.idpa.annotation.Input;
@@ -28,10 +32,15 @@ import org.continuity.idpa.visitor.IdpaByClassSearcher;
  */
 public class AnnotationValidityChecker {
 
-	private final Application newApplication;
+	private final IdpaIndex newApplicationIndex;
 
 	private final AnnotationValidityReportBuilder reportBuilder = new AnnotationValidityReportBuilder();
 
+	/**
+	 * IDs of the endpoints and parameters changed according to the registered application changes.
+	 */
+	private final Set<String> changedIds = new HashSet<>();
+
 	/**
 	 * Creates an instance with the current application model as base.
 	 *
@@ -39,11 +48,17 @@ public class AnnotationValidityChecker {
 	 *            The current application model.
 	 */
 	public AnnotationValidityChecker(Application newApplication) {
-		this.newApplication = newApplication;
+		this.newApplicationIndex = IdpaIndex.of(newApplication);
 	}
 
 	public void registerApplicationChanges(AnnotationValidityReport applicationChangeReport) {
 		reportBuilder.addApplicationChanges(applicationChangeReport.getApplicationChanges());
+
+		for (ApplicationChange change : applicationChangeReport.getApplicationChanges()) {
+			if (change.getChangedElement() != null) {
+				changedIds.add(change.getChangedElement().getId());
+			}
+		}
 	}
 
 	/**
@@ -57,6 +72,45 @@ public class AnnotationValidityChecker {
 		checkAnnotationForExternalReferences(annotation);
 	}
 
+	/**
+	 * Compares an annotation that was valid with respect to the previous application model to the
+	 * stored application model. Only the endpoint annotations, parameter annotations and
+	 * extractions referring to an endpoint or parameter changed according to the registered
+	 * application changes are checked. Provided that the registered changes are complete and that
+	 * the parameter annotations are nested in the annotation of the endpoint holding the parameter,
+	 * the resulting report is the same as when using {@link #checkAnnotation(ApplicationAnnotation)}.
+	 *
+	 * @param annotation
+	 *            An annotation that was valid before the registered changes.
+	 */
+	public void checkAnnotationIncrementally(ApplicationAnnotation annotation) {
+		if (changedIds.isEmpty()) {
+			return;
+		}
+
+		for (EndpointAnnotation endpointAnn : annotation.getEndpointAnnotations()) {
+			boolean endpointChanged = changedIds.contains(endpointAnn.getAnnotatedEndpoint().getId());
+
+			if (endpointChanged) {
+				checkEndpointAnnotation(endpointAnn);
+			}
+
+			for (ParameterAnnotation paramAnn : endpointAnn.getParameterAnnotations()) {
+				if (endpointChanged || changedIds.contains(paramAnn.getAnnotatedParameter().getId())) {
+					checkParameterAnnotation(paramAnn);
+				}
+			}
+		}
+
+		IdpaByClassSearcher<RegExExtraction> extractionSearcher = new IdpaByClassSearcher<>(RegExExtraction.class, extraction -> {
+			if (changedIds.contains(extraction.getFrom().getId())) {
+				checkExtraction(extraction);
+			}
+		});
+
+		extractionSearcher.visit(annotation);
+	}
+
 	private void checkAnnotationInternally(ApplicationAnnotation annotation) {
 		IdpaByClassSearcher<ParameterAnnotation> paramSearcher = new IdpaByClassSearcher<>(ParameterAnnotation.class, ann -> {
 			List<Input> inputs = annotation.getInputs();
@@ -73,45 +127,43 @@ public class AnnotationValidityChecker {
 	}
 
 	private void checkAnnotationForExternalReferences(ApplicationAnnotation annotation) {
-		IdpaByClassSearcher<EndpointAnnotation> interfaceSearcher = new IdpaByClassSearcher<>(EndpointAnnotation.class, ann -> {
-			Endpoint<?> interf = ann.getAnnotatedEndpoint().resolve(newApplication);
-
-			if (interf == null) {
-				ModelElementReference interfRef = new ModelElementReference(ann.getAnnotatedEndpoint());
-				ModelElementReference annRef = new ModelElementReference(ann);
-				reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_ENDPOINT_REFERENCE, interfRef));
-			}
+		new IdpaByClassSearcher<>(EndpointAnnotation.class, this::checkEndpointAnnotation).visit(annotation);
+		new IdpaByClassSearcher<>(ParameterAnnotation.class, this::checkParameterAnnotation).visit(annotation);
+		new IdpaByClassSearcher<>(RegExExtraction.class, this::checkExtraction).visit(annotation);
+	}
 
-			reportBuilder.resolveInterfaceAnnotation(ann);
-		});
+	private void checkEndpointAnnotation(EndpointAnnotation ann) {
+		Endpoint<?> interf = ann.getAnnotatedEndpoint().resolve(newApplicationIndex);
 
-		interfaceSearcher.visit(annotation);
+		if (interf == null) {
+			ModelElementReference interfRef = new ModelElementReference(ann.getAnnotatedEndpoint());
+			ModelElementReference annRef = new ModelElementReference(ann);
+			reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_ENDPOINT_REFERENCE, interfRef));
+		}
 
-		IdpaByClassSearcher<ParameterAnnotation> paramSearcher = new IdpaByClassSearcher<>(ParameterAnnotation.class, ann -> {
-			Parameter param = ann.getAnnotatedParameter().resolve(newApplication);
-
-			if (param == null) {
-				ModelElementReference paramRef = new ModelElementReference(ann.getAnnotatedParameter());
-				ModelElementReference annRef = new ModelElementReference(ann);
-				reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_PARAMETER_REFERENCE, paramRef));
-			}
+		reportBuilder.resolveInterfaceAnnotation(ann);
+	}
 
-			reportBuilder.resolveParameterAnnotation(ann);
-		});
+	private void checkParameterAnnotation(ParameterAnnotation ann) {
+		Parameter param = ann.getAnnotatedParameter().resolve(newApplicationIndex);
 
-		paramSearcher.visit(annotation);
+		if (param == null) {
+			ModelElementReference paramRef = new ModelElementReference(ann.getAnnotatedParameter());
+			ModelElementReference annRef = new ModelElementReference(ann);
+			reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_PARAMETER_REFERENCE, paramRef));
+		}
 
-		IdpaByClassSearcher<RegExExtraction> extractionSearcher = new IdpaByClassSearcher<>(RegExExtraction.class, extraction -> {
-			Endpoint<?> interf = extraction.getFrom().resolve(newApplication);
+		reportBuilder.resolveParameterAnnotation(ann);
+	}
 
-			if (interf == null) {
-				ModelElementReference interfRef = new ModelElementReference(extraction.getFrom());
-				ModelElementReference annRef = new ModelElementReference(extraction);
-				reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_ENDPOINT_REFERENCE, interfRef));
-			}
-		});
+	private void checkExtraction(RegExExtraction extraction) {
+		Endpoint<?> interf = extraction.getFrom().resolve(newApplicationIndex);
 
-		extractionSearcher.visit(annotation);
+		if (interf == null) {
+			ModelElementReference interfRef = new ModelElementReference(extraction.getFrom());
+			ModelElementReference annRef = new ModelElementReference(extraction);
+			reportBuilder.addViolation(annRef, new AnnotationViolation(AnnotationViolationType.ILLEGAL_ENDPOINT_REFERENCE, interfRef));
+		}
 	}
 
 	/**
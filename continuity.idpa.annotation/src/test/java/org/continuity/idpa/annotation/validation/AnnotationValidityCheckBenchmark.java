@@ -0,0 +1,49 @@
+package org.continuity.idpa.annotation.validation;
+
+import java.util.Random;
+
+import org.continuity.api.entities.report.AnnotationValidityReport;
+import org.continuity.api.entities.report.ApplicationChange;
+import org.continuity.api.entities.report.ApplicationChangeType;
+import org.continuity.api.entities.report.ModelElementReference;
+import org.continuity.idpa.annotation.ApplicationAnnotation;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.Endpoint;
+
+/**
+ * Measures the latency of validating an annotation of an application with 10,000 endpoints
+ * ({@code -Dbenchmark.endpoints}) after a single endpoint has been removed, once with the full and
+ * once with the incremental check. Not run as part of the test suite.
+ */
+public class AnnotationValidityCheckBenchmark {
+
+	private static final int NUM_RUNS = 10;
+
+	public static void main(String[] args) {
+		int numEndpoints = Integer.getInteger("benchmark.endpoints", 10000);
+
+		Random random = new Random(42);
+		Application application = IncrementalAnnotationValidityCheckTest.generateApplication(numEndpoints, random);
+		ApplicationAnnotation annotation = IncrementalAnnotationValidityCheckTest.generateAnnotation(application, random);
+
+		Application newApplication = IncrementalAnnotationValidityCheckTest.copy(application);
+		Endpoint<?> removed = newApplication.getEndpoints().remove(random.nextInt(numEndpoints));
+
+		AnnotationValidityReport changes = new AnnotationValidityReport();
+		changes.getApplicationChanges().add(new ApplicationChange(ApplicationChangeType.ENDPOINT_REMOVED, new ModelElementReference(removed)));
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			measure("Full", newApplication, annotation, changes, false);
+			measure("Incremental", newApplication, annotation, changes, true);
+		}
+	}
+
+	private static void measure(String name, Application application, ApplicationAnnotation annotation, AnnotationValidityReport changes, boolean incrementally) {
+		long start = System.nanoTime();
+		AnnotationValidityReport report = IncrementalAnnotationValidityCheckTest.check(application, annotation, changes, incrementally);
+		long duration = (System.nanoTime() - start) / 1000000;
+
+		System.out.println(String.format("%s: validated in %d ms, %d violations", name, duration, report.getViolations().size()));
+	}
+
+}
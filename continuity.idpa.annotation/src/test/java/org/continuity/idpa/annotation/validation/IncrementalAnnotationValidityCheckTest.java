@@ -0,0 +1,265 @@
+package org.continuity.idpa.annotation.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.continuity.api.entities.report.AnnotationValidityReport;
+import org.continuity.api.entities.report.AnnotationViolation;
+import org.continuity.api.entities.report.ApplicationChange;
+import org.continuity.api.entities.report.ApplicationChangeType;
+import org.continuity.api.entities.report.ModelElementReference;
+import org.continuity.idpa.WeakReference;
+import org.continuity.idpa.annotation.ApplicationAnnotation;
+import org.continuity.idpa.annotation.DirectListInput;
+import org.continuity.idpa.annotation.EndpointAnnotation;
+import org.continuity.idpa.annotation.ExtractedInput;
+import org.continuity.idpa.annotation.Input;
+import org.continuity.idpa.annotation.ParameterAnnotation;
+import org.continuity.idpa.annotation.RegExExtraction;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.Endpoint;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.HttpParameter;
+import org.continuity.idpa.application.HttpParameterType;
+import org.continuity.idpa.application.Parameter;
+import org.junit.Test;
+
+/**
+ * Tests that {@link AnnotationValidityChecker#checkAnnotationIncrementally(ApplicationAnnotation)}
+ * reports the same violations as {@link AnnotationValidityChecker#checkAnnotation(ApplicationAnnotation)}
+ * for valid annotations of randomly changed applications.
+ */
+public class IncrementalAnnotationValidityCheckTest {
+
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 300; i++) {
+			Application application = generateApplication(1 + random.nextInt(40), random);
+			ApplicationAnnotation annotation = generateAnnotation(application, random);
+
+			assertThat(check(application, annotation, new AnnotationValidityReport(), false).isOk()).isTrue();
+
+			AnnotationValidityReport changes = new AnnotationValidityReport();
+			Application newApplication = modify(application, changes.getApplicationChanges(), random);
+
+			AnnotationValidityReport expected = check(newApplication, annotation, changes, false);
+			AnnotationValidityReport actual = check(newApplication, annotation, changes, true);
+
+			assertThat(toStrings(actual)).isEqualTo(toStrings(expected));
+			assertThat(actual.isBreaking()).isEqualTo(expected.isBreaking());
+		}
+	}
+
+	@Test
+	public void testSingleRemovedEndpoint() {
+		Random random = new Random(4711);
+		Application application = generateApplication(100, random);
+		ApplicationAnnotation annotation = generateAnnotation(application, random);
+
+		Application newApplication = copy(application);
+		Endpoint<?> removed = newApplication.getEndpoints().remove(0);
+
+		AnnotationValidityReport changes = new AnnotationValidityReport();
+		changes.getApplicationChanges().add(new ApplicationChange(ApplicationChangeType.ENDPOINT_REMOVED, new ModelElementReference(removed)));
+
+		AnnotationValidityReport report = check(newApplication, annotation, changes, true);
+
+		assertThat(report.isBreaking()).isTrue();
+		assertThat(toStrings(report)).isEqualTo(toStrings(check(newApplication, annotation, changes, false)));
+	}
+
+	@Test
+	public void testNoChanges() {
+		Random random = new Random(1);
+		Application application = generateApplication(20, random);
+		ApplicationAnnotation annotation = generateAnnotation(application, random);
+
+		AnnotationValidityReport report = check(application, annotation, new AnnotationValidityReport(), true);
+
+		assertThat(report.isOk()).isTrue();
+	}
+
+	static AnnotationValidityReport check(Application application, ApplicationAnnotation annotation, AnnotationValidityReport changes, boolean incrementally) {
+		AnnotationValidityChecker checker = new AnnotationValidityChecker(application);
+		checker.registerApplicationChanges(changes);
+
+		if (incrementally) {
+			checker.checkAnnotationIncrementally(annotation);
+		} else {
+			checker.checkAnnotation(annotation);
+		}
+
+		return checker.getReport();
+	}
+
+	/**
+	 * {@link AnnotationViolation} does not implement equals. Hence, the violations are compared as
+	 * sorted strings.
+	 */
+	private static Map<String, List<String>> toStrings(AnnotationValidityReport report) {
+		Map<String, List<String>> strings = new TreeMap<>();
+
+		for (Map.Entry<ModelElementReference, Set<AnnotationViolation>> entry : report.getViolations().entrySet()) {
+			strings.put(entry.getKey().toString(), entry.getValue().stream().map(v -> v.getType() + " " + v.getAffectedElement()).sorted().collect(Collectors.toList()));
+		}
+
+		return strings;
+	}
+
+	static Application generateApplication(int numEndpoints, Random random) {
+		Application application = new Application();
+		application.setId("application");
+
+		for (int i = 0; i < numEndpoints; i++) {
+			application.addEndpoint(generateEndpoint("endpoint" + i, random));
+		}
+
+		return application;
+	}
+
+	private static HttpEndpoint generateEndpoint(String id, Random random) {
+		HttpEndpoint endpoint = new HttpEndpoint();
+		endpoint.setId(id);
+		endpoint.setDomain("mydomain");
+		endpoint.setPath("/" + id);
+
+		int numParams = random.nextInt(4);
+
+		for (int k = 0; k < numParams; k++) {
+			endpoint.getParameters().add(generateParameter(id + "_param" + k));
+		}
+
+		return endpoint;
+	}
+
+	private static HttpParameter generateParameter(String id) {
+		HttpParameter param = new HttpParameter();
+		param.setId(id);
+		param.setName(id);
+		param.setParameterType(HttpParameterType.REQ_PARAM);
+		return param;
+	}
+
+	/**
+	 * Generates a valid annotation annotating all endpoints and parameters. Some parameters get
+	 * values extracted from random endpoints.
+	 */
+	static ApplicationAnnotation generateAnnotation(Application application, Random random) {
+		ApplicationAnnotation annotation = new ApplicationAnnotation();
+		annotation.setId("annotation");
+
+		DirectListInput listInput = new DirectListInput();
+		listInput.setId("list");
+		listInput.getData().add("foo");
+		annotation.addInput(listInput);
+
+		List<Endpoint<?>> endpoints = application.getEndpoints();
+
+		for (Endpoint<?> endpoint : endpoints) {
+			EndpointAnnotation endpointAnn = new EndpointAnnotation();
+			endpointAnn.setAnnotatedEndpoint(WeakReference.create(endpoint));
+
+			for (Parameter param : endpoint.getParameters()) {
+				Input input = listInput;
+
+				if (random.nextInt(4) == 0) {
+					RegExExtraction extraction = new RegExExtraction();
+					extraction.setFrom(WeakReference.create(endpoints.get(random.nextInt(endpoints.size()))));
+					extraction.setPattern("(.*)");
+
+					ExtractedInput extractedInput = new ExtractedInput();
+					extractedInput.setId("extracted_" + param.getId());
+					extractedInput.getExtractions().add(extraction);
+					annotation.addInput(extractedInput);
+					input = extractedInput;
+				}
+
+				ParameterAnnotation paramAnn = new ParameterAnnotation();
+				paramAnn.setAnnotatedParameter(WeakReference.create(param));
+				paramAnn.setInput(input);
+				endpointAnn.addParameterAnnotation(paramAnn);
+			}
+
+			annotation.getEndpointAnnotations().add(endpointAnn);
+		}
+
+		return annotation;
+	}
+
+	/**
+	 * Copies the application, applies random changes and adds them to the passed set.
+	 */
+	static Application modify(Application application, Set<ApplicationChange> changes, Random random) {
+		Application modified = copy(application);
+		int numChanges = random.nextInt(5);
+
+		for (int i = 0; i < numChanges; i++) {
+			List<Endpoint<?>> endpoints = modified.getEndpoints();
+
+			if (endpoints.isEmpty()) {
+				break;
+			}
+
+			HttpEndpoint endpoint = (HttpEndpoint) endpoints.get(random.nextInt(endpoints.size()));
+
+			switch (random.nextInt(5)) {
+			case 0:
+				endpoints.remove(endpoint);
+				changes.add(new ApplicationChange(ApplicationChangeType.ENDPOINT_REMOVED, new ModelElementReference(endpoint)));
+				break;
+			case 1:
+				HttpEndpoint added = generateEndpoint("added" + i, random);
+				modified.addEndpoint(added);
+				changes.add(new ApplicationChange(ApplicationChangeType.ENDPOINT_ADDED, new ModelElementReference(added)));
+				break;
+			case 2:
+				endpoint.setPath("/changed" + i);
+				changes.add(new ApplicationChange(ApplicationChangeType.ENDPOINT_CHANGED, new ModelElementReference(endpoint), "path"));
+				break;
+			case 3:
+				if (!endpoint.getParameters().isEmpty()) {
+					HttpParameter param = endpoint.getParameters().remove(random.nextInt(endpoint.getParameters().size()));
+					changes.add(new ApplicationChange(ApplicationChangeType.PARAMETER_REMOVED, new ModelElementReference(param)));
+				}
+				break;
+			default:
+				HttpParameter param = generateParameter(endpoint.getId() + "_added" + i);
+				endpoint.getParameters().add(param);
+				changes.add(new ApplicationChange(ApplicationChangeType.PARAMETER_ADDED, new ModelElementReference(param)));
+				break;
+			}
+		}
+
+		return modified;
+	}
+
+	static Application copy(Application application) {
+		Application copy = new Application();
+		copy.setId(application.getId());
+
+		for (Endpoint<?> endpoint : application.getEndpoints()) {
+			HttpEndpoint original = (HttpEndpoint) endpoint;
+			HttpEndpoint endpointCopy = new HttpEndpoint();
+			endpointCopy.setId(original.getId());
+			endpointCopy.setDomain(original.getDomain());
+			endpointCopy.setPath(original.getPath());
+
+			for (HttpParameter param : original.getParameters()) {
+				endpointCopy.getParameters().add(generateParameter(param.getId()));
+			}
+
+			copy.addEndpoint(endpointCopy);
+		}
+
+		return copy;
+	}
+
+}
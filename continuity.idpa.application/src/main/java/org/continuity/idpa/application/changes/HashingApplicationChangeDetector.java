@@ -0,0 +1,297 @@
+package org.continuity.idpa.application.changes;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.continuity.api.entities.report.ApplicationChange;
+import org.continuity.api.entities.report.ApplicationChangeReport;
+import org.continuity.api.entities.report.ApplicationChangeType;
+import org.continuity.api.entities.report.ModelElementReference;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.Endpoint;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.HttpParameter;
+import org.continuity.idpa.application.Parameter;
+import org.continuity.idpa.visitor.IdpaByClassSearcher;
+
+/**
+ * Compares application models against a base application model in linear time. Reports the same
+ * changes as the {@link ApplicationChangeDetector}, assuming that the IDs of the endpoints and of
+ * the parameters of an endpoint are unique, as required by the serialization. <br>
+ *
+ * Each endpoint is reduced to 64 bit hashes of its own properties and of its parameters. The hash
+ * of the application combines the hashes of the endpoints. The endpoints are matched by ID via a
+ * hash map. The changes of an endpoint are only determined if its hashes differ, and the
+ * comparison stops right away if the hashes of both applications are equal. The hashes of the
+ * base application are calculated once and reused by subsequent comparisons.
+ */
+public class HashingApplicationChangeDetector {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Makes the hashes of unknown endpoint and parameter types unique such that they are always
+	 * compared property by property.
+	 */
+	private static final AtomicLong UNKNOWN_TYPE_SEQUENCE = new AtomicLong();
+
+	private final Application newApplication;
+
+	private final SystemChangeReportBuilder reportBuilder;
+
+	private ApplicationHashes newHashes;
+
+	/**
+	 * Creates an instance with the current application model as base.
+	 *
+	 * @param newApplication
+	 *            The current application model.
+	 */
+	public HashingApplicationChangeDetector(Application newApplication) {
+		this(newApplication, EnumSet.noneOf(ApplicationChangeType.class));
+	}
+
+	public HashingApplicationChangeDetector(Application newApplication, EnumSet<ApplicationChangeType> ignoredChangeTypes) {
+		this.newApplication = newApplication;
+		this.reportBuilder = new SystemChangeReportBuilder(ignoredChangeTypes, newApplication.getTimestamp());
+	}
+
+	/**
+	 * Compares an old application model to the stored one and reports differences.
+	 *
+	 * @param oldApplication
+	 *            An old application model.
+	 */
+	public void compareTo(Application oldApplication) {
+		reportBuilder.setBeforeChange(oldApplication.getTimestamp());
+
+		if (newHashes == null) {
+			newHashes = new ApplicationHashes(newApplication);
+		}
+
+		ApplicationHashes oldHashes = new ApplicationHashes(oldApplication);
+
+		if ((newHashes.size() == oldHashes.size()) && (newHashes.total == oldHashes.total)) {
+			return;
+		}
+
+		Map<String, Integer> oldIndices = oldHashes.indexById();
+		Set<ModelElementReference> visited = new HashSet<>();
+
+		for (int i = 0; i < newHashes.size(); i++) {
+			Endpoint<?> newEndpoint = newHashes.endpoints.get(i);
+			Integer oldIndex = oldIndices.get(newEndpoint.getId());
+			ModelElementReference ref = new ModelElementReference(newEndpoint);
+
+			if (oldIndex == null) {
+				reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.ENDPOINT_ADDED, ref));
+				continue;
+			}
+
+			Endpoint<?> oldEndpoint = oldHashes.endpoints.get(oldIndex);
+
+			if (newHashes.propertyHashes[i] != oldHashes.propertyHashes[oldIndex]) {
+				for (String changedProperty : oldEndpoint.getDifferingProperties(newEndpoint)) {
+					if (!"parameters".equals(changedProperty)) {
+						reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.ENDPOINT_CHANGED, ref, changedProperty));
+					}
+				}
+			}
+
+			if (newHashes.parameterHashes[i] != oldHashes.parameterHashes[oldIndex]) {
+				checkParameters(oldEndpoint, newEndpoint);
+			}
+
+			visited.add(ref);
+		}
+
+		for (Endpoint<?> oldEndpoint : oldHashes.endpoints) {
+			ModelElementReference ref = new ModelElementReference(oldEndpoint);
+
+			if (!visited.contains(ref)) {
+				reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.ENDPOINT_REMOVED, ref));
+			}
+		}
+	}
+
+	private void checkParameters(Endpoint<?> oldEndpoint, Endpoint<?> newEndpoint) {
+		Map<String, Parameter> oldParams = new HashMap<>();
+
+		for (Parameter param : oldEndpoint.getParameters()) {
+			oldParams.putIfAbsent(param.getId(), param);
+		}
+
+		Set<String> newIds = new HashSet<>();
+
+		for (Parameter param : newEndpoint.getParameters()) {
+			newIds.add(param.getId());
+			Parameter oldParam = oldParams.get(param.getId());
+
+			if (oldParam == null) {
+				reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.PARAMETER_ADDED, new ModelElementReference(param)));
+			} else if (hashParameter(param) != hashParameter(oldParam)) {
+				for (String changedProperty : param.getDifferingProperties(oldParam)) {
+					reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.PARAMETER_CHANGED, new ModelElementReference(param), changedProperty));
+				}
+			}
+		}
+
+		for (Parameter param : oldEndpoint.getParameters()) {
+			if (!newIds.contains(param.getId())) {
+				reportBuilder.addChange(new ApplicationChange(ApplicationChangeType.PARAMETER_REMOVED, new ModelElementReference(param)));
+			}
+		}
+	}
+
+	/**
+	 * Gets a report based on the evaluations done before.
+	 *
+	 * @return The report.
+	 */
+	public ApplicationChangeReport getReport() {
+		return reportBuilder.buildReport();
+	}
+
+	/**
+	 * Hashes of all endpoints of an application in the order of visiting.
+	 */
+	private static class ApplicationHashes {
+
+		private final List<Endpoint<?>> endpoints = new ArrayList<>();
+
+		private final long[] propertyHashes;
+
+		private final long[] parameterHashes;
+
+		private long total = 0;
+
+		private ApplicationHashes(Application application) {
+			new IdpaByClassSearcher<>(Endpoint.GENERIC_TYPE, endpoints::add).visit(application);
+
+			this.propertyHashes = new long[endpoints.size()];
+			this.parameterHashes = new long[endpoints.size()];
+
+			for (int i = 0; i < endpoints.size(); i++) {
+				Endpoint<?> endpoint = endpoints.get(i);
+				propertyHashes[i] = hashProperties(endpoint);
+
+				long parameterHash = 0;
+
+				for (Parameter param : endpoint.getParameters()) {
+					parameterHash += hashParameter(param);
+				}
+
+				parameterHashes[i] = parameterHash;
+				total += combine(combine(hash(endpoint.getId()), propertyHashes[i]), parameterHash);
+			}
+		}
+
+		private int size() {
+			return endpoints.size();
+		}
+
+		/**
+		 * Maps the IDs to the indices. If there are several endpoints with the same ID, the last
+		 * one is used, as done by the {@link ApplicationChangeDetector}.
+		 */
+		private Map<String, Integer> indexById() {
+			Map<String, Integer> indices = new HashMap<>(endpoints.size() * 2);
+
+			for (int i = 0; i < endpoints.size(); i++) {
+				indices.put(endpoints.get(i).getId(), i);
+			}
+
+			return indices;
+		}
+
+	}
+
+	/**
+	 * Hashes the type and the properties of an endpoint except for the ID and the parameters.
+	 */
+	private static long hashProperties(Endpoint<?> endpoint) {
+		if (!(endpoint instanceof HttpEndpoint)) {
+			return combine(hash(endpoint.getClass().getName()), mix(UNKNOWN_TYPE_SEQUENCE.incrementAndGet()));
+		}
+
+		HttpEndpoint http = (HttpEndpoint) endpoint;
+		long h = hash(HttpEndpoint.class.getName());
+		h = combine(h, hash(http.getDomain()));
+		h = combine(h, hash(http.getPort()));
+		h = combine(h, hash(http.getPath()));
+		h = combine(h, hash(http.getMethod()));
+		h = combine(h, hash(http.getEncoding()));
+		h = combine(h, hash(http.getProtocol()));
+
+		long headers = 0;
+
+		for (String header : http.getHeaders()) {
+			headers += hash(header);
+		}
+
+		return combine(h, headers);
+	}
+
+	/**
+	 * Hashes the type and all properties of a parameter including the ID.
+	 */
+	private static long hashParameter(Parameter param) {
+		if (!(param instanceof HttpParameter)) {
+			return combine(hash(param.getClass().getName()), mix(UNKNOWN_TYPE_SEQUENCE.incrementAndGet()));
+		}
+
+		HttpParameter http = (HttpParameter) param;
+		long h = hash(HttpParameter.class.getName());
+		h = combine(h, hash(http.getId()));
+		h = combine(h, hash(http.getParameterType() == null ? null : http.getParameterType().name()));
+		return combine(h, hash(http.getName()));
+	}
+
+	/**
+	 * 64 bit FNV-1a hash of the characters followed by a final mixing step.
+	 */
+	private static long hash(String value) {
+		if (value == null) {
+			return NULL_HASH;
+		}
+
+		long h = FNV_OFFSET_BASIS;
+
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= FNV_PRIME;
+		}
+
+		return mix(h);
+	}
+
+	/**
+	 * Order-dependent combination of two hashes.
+	 */
+	private static long combine(long first, long second) {
+		return mix((first * FNV_PRIME) ^ second);
+	}
+
+	/**
+	 * Finalization step of MurmurHash3.
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -14,8 +14,9 @@ import org.springframework.context.annotation.Configuration;
 public class RepositoryConfig {
 
 	@Bean
-	ApplicationModelRepository systemModelRepository(@Value("${storage.path:storage}") String storagePath) {
-		return new ApplicationModelRepository(storagePath);
+	ApplicationModelRepository systemModelRepository(@Value("${storage.path:storage}") String storagePath,
+			@Value("${storage.cache-size:" + ApplicationModelRepository.DEFAULT_CACHE_SIZE + "}") int cacheSize) {
+		return new ApplicationModelRepository(storagePath, cacheSize);
 	}
 
 	@Bean
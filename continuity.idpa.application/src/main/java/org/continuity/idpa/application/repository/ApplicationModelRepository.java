@@ -13,7 +13,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.continuity.api.entities.ApiFormats;
@@ -24,7 +32,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Stores application models in different versions in a folder. For versioning, the date when a model was
- * created is used.
+ * created is used. <br>
+ *
+ * Per tag, the stored versions are indexed by their timestamps. The index is created from the
+ * folder when a tag is accessed for the first time and kept in sync on save. Hence, the
+ * repository expects to be the only one writing to the folder. The lookups search the index and
+ * parse only the found model. The most recently read models are cached. Since cached models are
+ * shared between the callers, they must not be modified. Use {@link #copy(Application)} instead.
  *
  * @author Henning Schulz
  *
@@ -39,21 +53,63 @@ public class ApplicationModelRepository {
 
 	private static final DateFormat DATE_FORMAT = ApiFormats.DATE_FORMAT;
 
+	/**
+	 * Default number of cached application models.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 32;
+
 	private final IdpaYamlSerializer<Application> serializer;
 
 	private final Path storagePath;
 
+	private final Map<String, VersionIndex> indices = new ConcurrentHashMap<>();
+
+	/**
+	 * Parsed application models per file in access order, i.e., the first entry is the least
+	 * recently used one. Guarded by itself.
+	 */
+	private final LinkedHashMap<Path, Application> cache;
+
 	public ApplicationModelRepository(String storagePath) {
 		this(Paths.get(storagePath));
 	}
 
+	public ApplicationModelRepository(String storagePath, int cacheSize) {
+		this(Paths.get(storagePath), new IdpaYamlSerializer<>(Application.class), cacheSize);
+	}
+
 	public ApplicationModelRepository(Path storagePath) {
 		this(storagePath, new IdpaYamlSerializer<>(Application.class));
 	}
 
 	public ApplicationModelRepository(Path storagePath, IdpaYamlSerializer<Application> serializer) {
+		this(storagePath, serializer, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param storagePath
+	 *            The folder to store the application models in.
+	 * @param serializer
+	 *            The serializer to be used for reading and writing the models.
+	 * @param cacheSize
+	 *            The maximum number of cached application models. 0 disables the cache.
+	 */
+	@SuppressWarnings("serial")
+	public ApplicationModelRepository(Path storagePath, IdpaYamlSerializer<Application> serializer, int cacheSize) {
+		if (cacheSize < 0) {
+			throw new IllegalArgumentException("The cache size must not be negative, but was " + cacheSize + "!");
+		}
+
 		this.storagePath = storagePath;
 		this.serializer = serializer;
+		this.cache = new LinkedHashMap<Path, Application>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Path, Application> eldest) {
+				return size() > cacheSize;
+			}
+		};
 
 		LOGGER.info("Using storage path {}.", storagePath.toAbsolutePath());
 	}
@@ -69,8 +125,18 @@ public class ApplicationModelRepository {
 	 *             If errors during writing to files occur.
 	 */
 	public void save(String tag, Application application) throws IOException {
+		VersionIndex index = getIndex(tag);
 		Path path = getDirPath(tag).resolve(createFileName(application.getTimestamp()));
-		serializer.writeToYaml(application, path);
+
+		index.lock.writeLock().lock();
+
+		try {
+			serializer.writeToYaml(application, path);
+			invalidate(path);
+			index.versions.put(application.getTimestamp().getTime(), path);
+		} finally {
+			index.lock.writeLock().unlock();
+		}
 
 		LOGGER.debug("Wrote application model to {}.", path);
 	}
@@ -80,7 +146,14 @@ public class ApplicationModelRepository {
 	}
 
 	private String createFileName(String applicationFileName, Date date) {
-		return applicationFileName + DATE_FORMAT.format(date) + FILE_EXTENSION;
+		String formattedDate;
+
+		// DateFormat is not thread-safe
+		synchronized (DATE_FORMAT) {
+			formattedDate = DATE_FORMAT.format(date);
+		}
+
+		return applicationFileName + formattedDate + FILE_EXTENSION;
 	}
 
 	/**
@@ -91,11 +164,7 @@ public class ApplicationModelRepository {
 	 * @return The latest application model.
 	 */
 	public Application readLatest(String tag) {
-		for (ApplicationModelEntry entry : iterate(tag)) {
-			return entry.getApplication();
-		}
-
-		return null;
+		return read(tag, NavigableMap::lastEntry);
 	}
 
 	/**
@@ -110,13 +179,7 @@ public class ApplicationModelRepository {
 	 *             If an error during reading the application model occurs.
 	 */
 	public Application readLatestBefore(String tag, Date date) {
-		for (ApplicationModelEntry entry : iterate(tag)) {
-			if (!date.before(entry.getDate())) {
-				return entry.getApplication();
-			}
-		}
-
-		return null;
+		return read(tag, versions -> versions.floorEntry(date.getTime()));
 	}
 
 	/**
@@ -131,17 +194,74 @@ public class ApplicationModelRepository {
 	 *             If an error during reading the application model occurs.
 	 */
 	public Application readOldestAfter(String tag, Date date) {
-		Application next = null;
+		return read(tag, versions -> versions.higherEntry(date.getTime()));
+	}
+
+	private Application read(String tag, Function<NavigableMap<Long, Path>, Map.Entry<Long, Path>> lookup) {
+		VersionIndex index;
+
+		try {
+			index = getIndex(tag);
+		} catch (NotDirectoryException e) {
+			LOGGER.error("Cannot read application models of tag {}!", tag);
+			return null;
+		}
 
-		for (ApplicationModelEntry entry : iterate(tag)) {
-			if (!date.before(entry.getDate())) {
-				return next;
+		Map.Entry<Long, Path> entry = lookup.apply(index.versions);
+		return entry == null ? null : load(index, entry.getValue());
+	}
+
+	/**
+	 * Returns the cached application model or parses it. Parsing holds the read lock of the index
+	 * so that a concurrent save cannot be overridden by a stale model in the cache.
+	 */
+	private Application load(VersionIndex index, Path path) {
+		synchronized (cache) {
+			Application application = cache.get(path);
+
+			if (application != null) {
+				return application;
+			}
+		}
+
+		index.lock.readLock().lock();
+
+		try {
+			Application application = serializer.readFromYaml(path);
+
+			if (application != null) {
+				synchronized (cache) {
+					cache.put(path, application);
+				}
 			}
 
-			next = entry.getApplication();
+			return application;
+		} catch (IOException e) {
+			LOGGER.error("Could not read application model from {}! Returning null.", path);
+			LOGGER.error("Exception: ", e);
+			return null;
+		} finally {
+			index.lock.readLock().unlock();
 		}
+	}
+
+	/**
+	 * Creates a deep copy of an application model, e.g., of a cached one that is to be modified.
+	 *
+	 * @param application
+	 *            The application model to be copied.
+	 * @return A copy that is not shared with other callers.
+	 * @throws IOException
+	 *             If the application model cannot be copied.
+	 */
+	public Application copy(Application application) throws IOException {
+		return serializer.readFromYamlString(serializer.writeToYamlString(application));
+	}
 
-		return next;
+	private void invalidate(Path path) {
+		synchronized (cache) {
+			cache.remove(path);
+		}
 	}
 
 	/**
@@ -165,19 +285,37 @@ public class ApplicationModelRepository {
 			throw new IllegalArgumentException("Cannot update application model with tag " + tag + " to date " + newTimestamp + "! This date is not before the original one: " + oldTimestamp);
 		}
 
-		Application system = readLatestBefore(tag, oldTimestamp);
+		Path path = getIndex(tag).versions.get(oldTimestamp.getTime());
 
-		if (!oldTimestamp.equals(system.getTimestamp())) {
+		if (path == null) {
 			throw new IllegalArgumentException("There is no application model with tag " + tag + " at date " + oldTimestamp + "!");
 		}
 
+		// not using the cache, as the model is modified
+		Application system = serializer.readFromYaml(path);
+
 		system.setTimestamp(newTimestamp);
 		save(tag, system);
 		delete(tag, oldTimestamp);
 	}
 
 	private boolean delete(String tag, Date date) throws NotDirectoryException {
-		return getDirPath(tag).resolve(createFileName(date)).toFile().delete();
+		VersionIndex index = getIndex(tag);
+
+		index.lock.writeLock().lock();
+
+		try {
+			Path path = index.versions.remove(date.getTime());
+
+			if (path == null) {
+				return false;
+			}
+
+			invalidate(path);
+			return path.toFile().delete();
+		} finally {
+			index.lock.writeLock().unlock();
+		}
 	}
 
 	private Path getDirPath(String tag) throws NotDirectoryException {
@@ -194,6 +332,56 @@ public class ApplicationModelRepository {
 		return dirPath;
 	}
 
+	private VersionIndex getIndex(String tag) throws NotDirectoryException {
+		VersionIndex index = indices.get(tag);
+
+		if (index == null) {
+			synchronized (indices) {
+				index = indices.get(tag);
+
+				if (index == null) {
+					index = createIndex(tag);
+					indices.put(tag, index);
+				}
+			}
+		}
+
+		return index;
+	}
+
+	private VersionIndex createIndex(String tag) throws NotDirectoryException {
+		Path dir = getDirPath(tag);
+		String[] fileNames = dir.toFile().list();
+		VersionIndex index = new VersionIndex();
+
+		if (fileNames != null) {
+			for (String fileName : fileNames) {
+				if (fileName.startsWith(APPLICATION_FILE_NAME)) {
+					index.versions.put(extractDate(fileName, APPLICATION_FILE_NAME).getTime(), dir.resolve(fileName));
+				}
+			}
+		}
+
+		LOGGER.info("Indexed {} application models of tag {}.", index.versions.size(), tag);
+
+		return index;
+	}
+
+	private Date extractDate(String fileName, String applicationFileName) {
+		String dateString = fileName.substring(applicationFileName.length(), fileName.length() - FILE_EXTENSION.length());
+		try {
+			// DateFormat is not thread-safe
+			synchronized (DATE_FORMAT) {
+				return DATE_FORMAT.parse(dateString);
+			}
+		} catch (ParseException e) {
+			LOGGER.error("Could not parse date {}! Returning 1990/01/01", dateString);
+			e.printStackTrace();
+		}
+
+		return new Date(0);
+	}
+
 	/**
 	 * Retrieves all stored legacy applications (system models) for a given tag.
 	 *
@@ -203,16 +391,39 @@ public class ApplicationModelRepository {
 	 * @throws NotDirectoryException
 	 */
 	public List<String> readLegacyApplications(String tag) throws NotDirectoryException {
+		Path dir = getDirPath(tag);
+		List<Date> dates = Arrays.stream(dir.toFile().list()).filter(name -> name.startsWith(LEGACY_APPLICATION_FILE_NAME))
+				.map(name -> extractDate(name, LEGACY_APPLICATION_FILE_NAME)).collect(Collectors.toList());
+		Collections.sort(dates, Collections.reverseOrder());
+
 		List<String> legacyApplications = new ArrayList<>();
-		ApplicationIterator iterator = new ApplicationIterator(tag, LEGACY_APPLICATION_FILE_NAME);
 
-		while (iterator.hasNext()) {
-			legacyApplications.add(iterator.nextAsString());
+		for (Date date : dates) {
+			String filename = createFileName(LEGACY_APPLICATION_FILE_NAME, date);
+
+			try {
+				legacyApplications.add(reduceLinesToString(Files.readAllLines(dir.resolve(filename))));
+			} catch (IOException e) {
+				LOGGER.error("Could not read legacy application {} for tag {}! Returning empty string.", filename, tag);
+				LOGGER.error("Expetion: ", e);
+				legacyApplications.add("");
+			}
 		}
 
 		return legacyApplications;
 	}
 
+	private String reduceLinesToString(List<String> lines) {
+		StringBuilder builder = new StringBuilder();
+
+		lines.forEach(l -> {
+			builder.append(l);
+			builder.append("\n");
+		});
+
+		return builder.toString();
+	}
+
 	/**
 	 * Returns an {@link Iterable} allowing to iterate over all application models in combination with
 	 * the created date. The models are traversed in ascending order. That is, the newest model
@@ -223,111 +434,41 @@ public class ApplicationModelRepository {
 	 * @return An iterator.
 	 */
 	public Iterable<ApplicationModelEntry> iterate(String tag) {
-		return new ApplicationIterable(tag);
-	}
-
-	private class ApplicationIterable implements Iterable<ApplicationModelEntry> {
-
-		private final String tag;
+		VersionIndex index;
 
-		public ApplicationIterable(String tag) {
-			this.tag = tag;
+		try {
+			index = getIndex(tag);
+		} catch (NotDirectoryException e) {
+			LOGGER.error("Cannot iterate over application models of tag {}!", tag);
+			return Collections.emptyList();
 		}
 
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		public Iterator<ApplicationModelEntry> iterator() {
-			try {
-				return new ApplicationIterator(tag);
-			} catch (NotDirectoryException e) {
-				LOGGER.error("Cannot iterate over application models of tag {}!", tag);
-				return null;
-			}
-		}
+		return () -> new Iterator<ApplicationModelEntry>() {
 
-	}
-
-	private class ApplicationIterator implements Iterator<ApplicationModelEntry> {
-
-		private final String tag;
-		private final List<Date> dates;
-		private final Iterator<Date> datesIterator;
-		private final String applicationFileName;
-
-		public ApplicationIterator(String tag) throws NotDirectoryException {
-			this(tag, APPLICATION_FILE_NAME);
-		}
-
-		public ApplicationIterator(String tag, String applicationFileName) throws NotDirectoryException {
-			this.tag = tag;
-			Path dir = getDirPath(tag);
-			this.applicationFileName = applicationFileName;
-			this.dates = Arrays.stream(dir.toFile().list()).filter(name -> name.startsWith(applicationFileName)).map(this::extractDate).collect(Collectors.toList());
-			Collections.sort(this.dates, Collections.reverseOrder());
-			this.datesIterator = dates.iterator();
-		}
+			private final Iterator<Map.Entry<Long, Path>> versionIterator = index.versions.descendingMap().entrySet().iterator();
 
-		private Date extractDate(String deltaFileName) {
-			String dateString = deltaFileName.substring(applicationFileName.length(), deltaFileName.length() - FILE_EXTENSION.length());
-			try {
-				return DATE_FORMAT.parse(dateString);
-			} catch (ParseException e) {
-				LOGGER.error("Could not parse date {}! Returning 1990/01/01", dateString);
-				e.printStackTrace();
+			@Override
+			public boolean hasNext() {
+				return versionIterator.hasNext();
 			}
 
-			return new Date(0);
-		}
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		public boolean hasNext() {
-			return datesIterator.hasNext();
-		}
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		public ApplicationModelEntry next() {
-			Date date = datesIterator.next();
-			String filename = createFileName(applicationFileName, date);
-			try {
-				return ApplicationModelEntry.of(ApplicationModelRepository.this, date, getDirPath(tag).resolve(filename));
-			} catch (NotDirectoryException e) {
-				LOGGER.error("Could not read application {} for tag {}! Returning null.", filename, tag);
-				LOGGER.error("Expetion: ", e);
-				return ApplicationModelEntry.of(ApplicationModelRepository.this, date, null);
+			@Override
+			public ApplicationModelEntry next() {
+				Map.Entry<Long, Path> version = versionIterator.next();
+				return ApplicationModelEntry.of(ApplicationModelRepository.this, index, new Date(version.getKey()), version.getValue());
 			}
-		}
 
-		public String nextAsString() {
-			Date date = datesIterator.next();
-			String filename = createFileName(applicationFileName, date);
-
-			try {
-				return reduceLinesToString(Files.readAllLines(getDirPath(tag).resolve(filename)));
-			} catch (IOException e) {
-				LOGGER.error("Could not read legacy application {} for tag {}! Returning empty string.", filename, tag);
-				LOGGER.error("Expetion: ", e);
-				return "";
-			}
-		}
+		};
+	}
 
-		private String reduceLinesToString(List<String> lines) {
-			StringBuilder builder = new StringBuilder();
+	/**
+	 * The stored versions of one tag. Saving and deleting hold the write lock.
+	 */
+	private static class VersionIndex {
 
-			lines.forEach(l -> {
-				builder.append(l);
-				builder.append("\n");
-			});
+		private final NavigableMap<Long, Path> versions = new ConcurrentSkipListMap<>();
 
-			return builder.toString();
-		}
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
 	}
 
@@ -339,20 +480,23 @@ public class ApplicationModelRepository {
 	 */
 	public static class ApplicationModelEntry {
 
-		private final IdpaYamlSerializer<Application> serializer;
+		private final ApplicationModelRepository repository;
+
+		private final VersionIndex index;
 
 		private final Path path;
 		private final Date date;
 
-		private ApplicationModelEntry(ApplicationModelRepository repository, Date date, Path path) {
+		private ApplicationModelEntry(ApplicationModelRepository repository, VersionIndex index, Date date, Path path) {
 			this.path = path;
 			this.date = date;
 
-			this.serializer = repository.serializer;
+			this.repository = repository;
+			this.index = index;
 		}
 
-		private static ApplicationModelEntry of(ApplicationModelRepository repository, Date date, Path path) {
-			return new ApplicationModelEntry(repository, date, path);
+		private static ApplicationModelEntry of(ApplicationModelRepository repository, VersionIndex index, Date date, Path path) {
+			return new ApplicationModelEntry(repository, index, date, path);
 		}
 
 		public Date getDate() {
@@ -364,13 +508,7 @@ public class ApplicationModelRepository {
 				return null;
 			}
 
-			try {
-				return serializer.readFromYaml(path);
-			} catch (IOException e) {
-				LOGGER.error("Could not read application model from {}! Returning null.", path);
-				e.printStackTrace();
-				return null;
-			}
+			return repository.load(index, path);
 		}
 
 	}
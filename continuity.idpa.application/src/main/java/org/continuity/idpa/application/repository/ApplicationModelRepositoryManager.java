@@ -13,7 +13,7 @@ import org.continuity.commons.utils.DataHolder;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.Endpoint;
 import org.continuity.idpa.application.Parameter;
-import org.continuity.idpa.application.changes.ApplicationChangeDetector;
+import org.continuity.idpa.application.changes.HashingApplicationChangeDetector;
 import org.continuity.idpa.legacy.IdpaFromOldAnnotationConverter;
 import org.continuity.idpa.visitor.FindBy;
 import org.continuity.idpa.visitor.IdpaByClassSearcher;
@@ -62,7 +62,7 @@ public class ApplicationModelRepositoryManager {
 	 *         before. If the model is older than the latest one, an empty report will be returned.
 	 */
 	public ApplicationChangeReport saveOrUpdate(String tag, Application application, EnumSet<ApplicationChangeType> ignoredChanges) {
-		ApplicationChangeDetector detector = new ApplicationChangeDetector(application, ignoredChanges);
+		HashingApplicationChangeDetector detector = new HashingApplicationChangeDetector(application, ignoredChanges);
 		ApplicationChangeReport report = ApplicationChangeReport.empty(application.getTimestamp());
 
 		Application before = repository.readLatestBefore(tag, application.getTimestamp());
@@ -82,17 +82,18 @@ public class ApplicationModelRepositoryManager {
 			if (oldestAfter == null) {
 				changed = true;
 			} else {
-				detector = new ApplicationChangeDetector(application, ignoredChanges);
+				detector = new HashingApplicationChangeDetector(application, ignoredChanges);
 				detector.compareTo(oldestAfter);
 				changed = detector.getReport().changed();
 			}
 
 			if (changed) {
-				if (!ignoredChanges.isEmpty()) {
-					application = mergeIgnoredChanges(before, application, report);
-				}
-
 				try {
+					if (!ignoredChanges.isEmpty() && (before != null)) {
+						// the endpoints of the old model are reused, so it must not be a cached one
+						application = mergeIgnoredChanges(repository.copy(before), application, report);
+					}
+
 					repository.save(tag, application);
 					LOGGER.info("Stored a new application model with tag {} and date {}.", tag, application.getTimestamp());
 				} catch (IOException e) {
@@ -204,7 +205,7 @@ public class ApplicationModelRepositoryManager {
 			latestBefore = new Application();
 		}
 
-		ApplicationChangeDetector checker = new ApplicationChangeDetector(latest);
+		HashingApplicationChangeDetector checker = new HashingApplicationChangeDetector(latest);
 		checker.compareTo(latestBefore);
 
 		return checker.getReport();
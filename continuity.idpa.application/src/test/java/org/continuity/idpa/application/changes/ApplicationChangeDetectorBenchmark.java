@@ -0,0 +1,71 @@
+package org.continuity.idpa.application.changes;
+
+import java.util.Random;
+
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+
+/**
+ * Compares two versions of an application with 20,000 endpoints ({@code -Dbenchmark.endpoints})
+ * that differ in a few endpoints or not at all, once with the
+ * {@link HashingApplicationChangeDetector} and once with the {@link ApplicationChangeDetector}. The
+ * latter uses 2,000 endpoints ({@code -Dbenchmark.endpoints.current}) by default, since it takes
+ * quadratic time. Not run as part of the test suite.
+ */
+public class ApplicationChangeDetectorBenchmark {
+
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) {
+		int numEndpoints = Integer.getInteger("benchmark.endpoints", 20000);
+		int numEndpointsCurrent = Integer.getInteger("benchmark.endpoints.current", 2000);
+
+		run("Hashing", numEndpoints, true, (newApplication, oldApplication) -> {
+			HashingApplicationChangeDetector detector = new HashingApplicationChangeDetector(newApplication);
+			detector.compareTo(oldApplication);
+			return detector.getReport().getApplicationChanges().size();
+		});
+
+		run("Hashing, unchanged", numEndpoints, false, (newApplication, oldApplication) -> {
+			HashingApplicationChangeDetector detector = new HashingApplicationChangeDetector(newApplication);
+			detector.compareTo(oldApplication);
+			return detector.getReport().getApplicationChanges().size();
+		});
+
+		run("Current", numEndpointsCurrent, true, (newApplication, oldApplication) -> {
+			ApplicationChangeDetector detector = new ApplicationChangeDetector(newApplication);
+			detector.compareTo(oldApplication);
+			return detector.getReport().getApplicationChanges().size();
+		});
+	}
+
+	private static void run(String name, int numEndpoints, boolean changed, Detection detection) {
+		Random random = new Random(42);
+		Application oldApplication = HashingApplicationChangeDetectorTest.generateApplication(numEndpoints, random);
+		Application newApplication = HashingApplicationChangeDetectorTest.copy(oldApplication);
+
+		if (changed) {
+			for (int i = 0; i < 10; i++) {
+				((HttpEndpoint) newApplication.getEndpoints().get(random.nextInt(numEndpoints))).setPath("/changed" + i);
+			}
+
+			newApplication.getEndpoints().remove(0);
+		}
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			long start = System.nanoTime();
+			int numChanges = detection.detect(newApplication, oldApplication);
+			long duration = (System.nanoTime() - start) / 1000000;
+
+			System.out.println(String.format("%s: %d endpoints compared in %d ms, %d changes", name, numEndpoints, duration, numChanges));
+		}
+	}
+
+	@FunctionalInterface
+	private interface Detection {
+
+		int detect(Application newApplication, Application oldApplication);
+
+	}
+
+}
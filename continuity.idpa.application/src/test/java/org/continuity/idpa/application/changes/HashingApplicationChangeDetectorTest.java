@@ -0,0 +1,304 @@
+package org.continuity.idpa.application.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.continuity.api.entities.report.ApplicationChange;
+import org.continuity.api.entities.report.ApplicationChangeReport;
+import org.continuity.api.entities.report.ApplicationChangeType;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.Endpoint;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.HttpParameter;
+import org.continuity.idpa.application.HttpParameterType;
+import org.continuity.idpa.application.SystemModelTestInstance;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link HashingApplicationChangeDetector} reports the same changes as the
+ * {@link ApplicationChangeDetector} on randomly generated and modified applications.
+ */
+public class HashingApplicationChangeDetectorTest {
+
+	private static final String[] DOMAINS = { "mydomain", "otherdomain" };
+
+	private static final String[] PATHS = { "/", "/login", "/logout", "/items/{id}" };
+
+	private static final String[] METHODS = { "GET", "POST", null };
+
+	private static final String[] NAMES = { "user", "password", "id", null };
+
+	private static final String[] HEADERS = { "Accept: */*", "Content-Type: application/json", "X-Foo: bar" };
+
+	@Test
+	public void testTestInstances() {
+		for (SystemModelTestInstance newInstance : SystemModelTestInstance.values()) {
+			for (SystemModelTestInstance oldInstance : SystemModelTestInstance.values()) {
+				assertSameReport(newInstance.get(), oldInstance.get(), EnumSet.noneOf(ApplicationChangeType.class));
+			}
+		}
+	}
+
+	@Test
+	public void testRandomApplications() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 500; i++) {
+			Application oldApplication = generateApplication(random.nextInt(30), random);
+			Application newApplication = modify(oldApplication, random);
+
+			EnumSet<ApplicationChangeType> ignored = EnumSet.noneOf(ApplicationChangeType.class);
+
+			for (ApplicationChangeType type : ApplicationChangeType.values()) {
+				if (random.nextInt(4) == 0) {
+					ignored.add(type);
+				}
+			}
+
+			assertSameReport(newApplication, oldApplication, ignored);
+			assertSameReport(oldApplication, newApplication, ignored);
+		}
+	}
+
+	@Test
+	public void testUnchangedApplication() {
+		Random random = new Random(4711);
+		Application application = generateApplication(100, random);
+		Application copy = copy(application);
+		Collections.shuffle(copy.getEndpoints(), random);
+
+		HashingApplicationChangeDetector detector = new HashingApplicationChangeDetector(copy);
+		detector.compareTo(application);
+
+		assertThat(detector.getReport().changed()).isFalse();
+		assertThat(detector.getReport().getBeforeChange()).isEqualTo(application.getTimestamp());
+	}
+
+	@Test
+	public void testReorderedParameterNames() {
+		Application oldApplication = generateApplication(0, new Random(1));
+		HttpEndpoint endpoint = createEndpoint("endpoint");
+		endpoint.getParameters().add(createParameter("param1", "a"));
+		endpoint.getParameters().add(createParameter("param2", "b"));
+		oldApplication.addEndpoint(endpoint);
+
+		Application newApplication = copy(oldApplication);
+		((HttpParameter) newApplication.getEndpoints().get(0).getParameters().get(0)).setName("b");
+		((HttpParameter) newApplication.getEndpoints().get(0).getParameters().get(1)).setName("a");
+
+		assertSameReport(newApplication, oldApplication, EnumSet.noneOf(ApplicationChangeType.class));
+		assertThat(report(new HashingApplicationChangeDetector(newApplication), oldApplication)).hasSize(2);
+	}
+
+	@Test
+	public void testComparedApplicationsAreNotModified() {
+		Application oldApplication = generateApplication(0, new Random(1));
+		HttpEndpoint endpoint = createEndpoint("endpoint");
+		endpoint.getParameters().add(createParameter("param2", "b"));
+		endpoint.getParameters().add(createParameter("param1", "a"));
+		endpoint.getHeaders().add("X-Foo: bar");
+		endpoint.getHeaders().add("Accept: */*");
+		oldApplication.addEndpoint(endpoint);
+
+		Application newApplication = copy(oldApplication);
+		((HttpEndpoint) newApplication.getEndpoints().get(0)).setPath("/changed");
+
+		new HashingApplicationChangeDetector(newApplication).compareTo(oldApplication);
+
+		assertThat(endpoint.getParameters()).extracting(p -> p.getId()).containsExactly("param2", "param1");
+		assertThat(endpoint.getHeaders()).containsExactly("X-Foo: bar", "Accept: */*");
+	}
+
+	private void assertSameReport(Application newApplication, Application oldApplication, EnumSet<ApplicationChangeType> ignored) {
+		ApplicationChangeDetector current = new ApplicationChangeDetector(copy(newApplication), ignored);
+		current.compareTo(copy(oldApplication));
+		ApplicationChangeReport expected = current.getReport();
+
+		HashingApplicationChangeDetector hashing = new HashingApplicationChangeDetector(copy(newApplication), ignored);
+		hashing.compareTo(copy(oldApplication));
+		ApplicationChangeReport actual = hashing.getReport();
+
+		assertThat(toStrings(actual.getApplicationChanges())).isEqualTo(toStrings(expected.getApplicationChanges()));
+		assertThat(toStrings(actual.getIgnoredApplicationChanges())).isEqualTo(toStrings(expected.getIgnoredApplicationChanges()));
+		assertThat(actual.getBeforeChange()).isEqualTo(expected.getBeforeChange());
+		assertThat(actual.getAfterChange()).isEqualTo(expected.getAfterChange());
+	}
+
+	private List<String> report(HashingApplicationChangeDetector detector, Application oldApplication) {
+		detector.compareTo(oldApplication);
+		return toStrings(detector.getReport().getApplicationChanges());
+	}
+
+	/**
+	 * {@link ApplicationChange} does not implement equals. Hence, the changes are compared as
+	 * sorted strings.
+	 */
+	private static List<String> toStrings(Collection<ApplicationChange> changes) {
+		return changes.stream().map(c -> c.getType() + " " + c.getChangedElement() + " " + c.getChangedProperty()).sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * Generates an application with unique endpoint and parameter IDs.
+	 */
+	static Application generateApplication(int numEndpoints, Random random) {
+		Application application = new Application();
+		application.setId("application");
+		application.setTimestamp(new Date(random.nextInt(1000000)));
+
+		for (int i = 0; i < numEndpoints; i++) {
+			application.addEndpoint(generateEndpoint("endpoint" + i, random));
+		}
+
+		return application;
+	}
+
+	private static HttpEndpoint generateEndpoint(String id, Random random) {
+		HttpEndpoint endpoint = createEndpoint(id);
+		endpoint.setDomain(pick(DOMAINS, random));
+		endpoint.setPath(pick(PATHS, random));
+		endpoint.setMethod(pick(METHODS, random));
+
+		if (random.nextBoolean()) {
+			endpoint.setPort("8080");
+		}
+
+		int numParams = random.nextInt(5);
+
+		for (int k = 0; k < numParams; k++) {
+			endpoint.getParameters().add(generateParameter(id + "_param" + k, random));
+		}
+
+		if (random.nextInt(3) == 0) {
+			endpoint.getHeaders().add(pick(HEADERS, random));
+		}
+
+		return endpoint;
+	}
+
+	private static HttpParameter generateParameter(String id, Random random) {
+		HttpParameter param = createParameter(id, pick(NAMES, random));
+		param.setParameterType(pick(HttpParameterType.values(), random));
+		return param;
+	}
+
+	/**
+	 * Copies the application and applies random changes to endpoints, parameters and the order.
+	 */
+	private static Application modify(Application application, Random random) {
+		Application modified = copy(application);
+		modified.setTimestamp(new Date(application.getTimestamp().getTime() + 1));
+		int numChanges = random.nextInt(6);
+
+		for (int i = 0; i < numChanges; i++) {
+			List<Endpoint<?>> endpoints = modified.getEndpoints();
+			HttpEndpoint endpoint = endpoints.isEmpty() ? null : (HttpEndpoint) endpoints.get(random.nextInt(endpoints.size()));
+
+			switch (random.nextInt(9)) {
+			case 0:
+				modified.addEndpoint(generateEndpoint("added" + i + "_" + random.nextInt(1000), random));
+				break;
+			case 1:
+				if (endpoint != null) {
+					endpoints.remove(endpoint);
+				}
+				break;
+			case 2:
+				if (endpoint != null) {
+					endpoint.setPath(pick(PATHS, random));
+				}
+				break;
+			case 3:
+				if (endpoint != null) {
+					endpoint.setMethod(pick(METHODS, random));
+					endpoint.setDomain(pick(DOMAINS, random));
+				}
+				break;
+			case 4:
+				if (endpoint != null) {
+					endpoint.getParameters().add(generateParameter(endpoint.getId() + "_added" + i, random));
+				}
+				break;
+			case 5:
+				if ((endpoint != null) && !endpoint.getParameters().isEmpty()) {
+					endpoint.getParameters().remove(random.nextInt(endpoint.getParameters().size()));
+				}
+				break;
+			case 6:
+				if ((endpoint != null) && !endpoint.getParameters().isEmpty()) {
+					HttpParameter param = endpoint.getParameters().get(random.nextInt(endpoint.getParameters().size()));
+					param.setName(pick(NAMES, random));
+					param.setParameterType(pick(HttpParameterType.values(), random));
+				}
+				break;
+			case 7:
+				if (endpoint != null) {
+					endpoint.getHeaders().add(pick(HEADERS, random));
+				}
+				break;
+			default:
+				Collections.shuffle(endpoints, random);
+
+				if (endpoint != null) {
+					Collections.shuffle(endpoint.getParameters(), random);
+				}
+				break;
+			}
+		}
+
+		return modified;
+	}
+
+	static Application copy(Application application) {
+		Application copy = new Application();
+		copy.setId(application.getId());
+		copy.setTimestamp(application.getTimestamp());
+
+		for (Endpoint<?> endpoint : application.getEndpoints()) {
+			HttpEndpoint original = (HttpEndpoint) endpoint;
+			HttpEndpoint endpointCopy = createEndpoint(original.getId());
+			endpointCopy.setDomain(original.getDomain());
+			endpointCopy.setPort(original.getPort());
+			endpointCopy.setPath(original.getPath());
+			endpointCopy.setMethod(original.getMethod());
+			endpointCopy.setEncoding(original.getEncoding());
+			endpointCopy.setProtocol(original.getProtocol());
+			endpointCopy.getHeaders().addAll(original.getHeaders());
+
+			for (HttpParameter param : original.getParameters()) {
+				HttpParameter paramCopy = createParameter(param.getId(), param.getName());
+				paramCopy.setParameterType(param.getParameterType());
+				endpointCopy.getParameters().add(paramCopy);
+			}
+
+			copy.addEndpoint(endpointCopy);
+		}
+
+		return copy;
+	}
+
+	private static HttpEndpoint createEndpoint(String id) {
+		HttpEndpoint endpoint = new HttpEndpoint();
+		endpoint.setId(id);
+		return endpoint;
+	}
+
+	private static HttpParameter createParameter(String id, String name) {
+		HttpParameter param = new HttpParameter();
+		param.setId(id);
+		param.setName(name);
+		return param;
+	}
+
+	private static <T> T pick(T[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.continuity.idpa.application.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Random;
+
+import org.continuity.idpa.application.Application;
+
+/**
+ * Stores 10,000 versions of an application model ({@code -Dbenchmark.versions}) and measures
+ * random lookups with {@link ApplicationModelRepository#readLatestBefore(String, Date)} and
+ * {@link ApplicationModelRepository#readOldestAfter(String, Date)}, first on a restarted repository
+ * and then with a warm cache. Not run as part of the test suite.
+ */
+public class ApplicationModelRepositoryBenchmark {
+
+	private static final String TAG = "benchmark";
+
+	private static final int NUM_LOOKUPS = 10000;
+
+	public static void main(String[] args) throws IOException {
+		int numVersions = Integer.getInteger("benchmark.versions", 10000);
+		Path storagePath = Files.createTempDirectory("application-repository-benchmark");
+
+		try {
+			ApplicationModelRepository repository = new ApplicationModelRepository(storagePath);
+			long start = System.nanoTime();
+
+			for (int i = 1; i <= numVersions; i++) {
+				repository.save(TAG, ApplicationModelRepositoryTest.createApplication(i));
+			}
+
+			System.out.println(String.format("Saved %d versions in %d ms", numVersions, (System.nanoTime() - start) / 1000000));
+
+			start = System.nanoTime();
+			ApplicationModelRepository restarted = new ApplicationModelRepository(storagePath);
+			restarted.readLatest(TAG);
+			System.out.println(String.format("Restarted and indexed in %d ms", (System.nanoTime() - start) / 1000000));
+
+			lookup(restarted, numVersions, "Cold");
+			lookup(restarted, numVersions, "Warm");
+		} finally {
+			Files.walk(storagePath).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	/**
+	 * Looks up dates around the 30 most recent versions, which fit into the default cache.
+	 */
+	private static void lookup(ApplicationModelRepository repository, int numVersions, String name) {
+		Random random = new Random(42);
+		int numFound = 0;
+		long start = System.nanoTime();
+
+		for (int i = 0; i < NUM_LOOKUPS; i++) {
+			Date date = new Date((numVersions - random.nextInt(30)) * 1000L);
+
+			if (repository.readLatestBefore(TAG, date) != null) {
+				numFound++;
+			}
+
+			if (repository.readOldestAfter(TAG, date) != null) {
+				numFound++;
+			}
+		}
+
+		long duration = (System.nanoTime() - start) / 1000;
+		System.out.println(String.format("%s: %d lookups in %d ms (%.1f us per lookup), %d found", name, 2 * NUM_LOOKUPS, duration / 1000, duration / (2.0 * NUM_LOOKUPS), numFound));
+	}
+
+}
@@ -0,0 +1,184 @@
+package org.continuity.idpa.application.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.SystemModelTestInstance;
+import org.continuity.idpa.serialization.yaml.IdpaYamlSerializer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link ApplicationModelRepository} on the file system, including concurrent saving and
+ * reading.
+ */
+public class ApplicationModelRepositoryTest {
+
+	private static final String TAG = "ApplicationModelRepositoryTest";
+
+	private static final int NUM_VERSIONS = 200;
+
+	private static final long INTERVAL = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ApplicationModelRepository repository;
+
+	@Before
+	public void setup() {
+		repository = new ApplicationModelRepository(folder.getRoot().toPath(), new IdpaYamlSerializer<>(Application.class), 8);
+	}
+
+	@Test
+	public void testLookups() throws IOException {
+		for (int i = 1; i <= 10; i++) {
+			repository.save(TAG, createApplication(i));
+		}
+
+		assertThat(repository.readLatest(TAG).getTimestamp()).isEqualTo(timestamp(10));
+		assertThat(repository.readLatestBefore(TAG, new Date(0))).isNull();
+		assertThat(repository.readLatestBefore(TAG, timestamp(5)).getTimestamp()).isEqualTo(timestamp(5));
+		assertThat(repository.readLatestBefore(TAG, new Date(timestamp(5).getTime() + 1)).getTimestamp()).isEqualTo(timestamp(5));
+		assertThat(repository.readOldestAfter(TAG, timestamp(5)).getTimestamp()).isEqualTo(timestamp(6));
+		assertThat(repository.readOldestAfter(TAG, timestamp(10))).isNull();
+		assertThat(repository.readLatest("other-tag")).isNull();
+
+		List<Date> dates = new ArrayList<>();
+		repository.iterate(TAG).forEach(entry -> dates.add(entry.getDate()));
+		assertThat(dates).hasSize(10).first().isEqualTo(timestamp(10));
+	}
+
+	@Test
+	public void testSaveOverridesCachedModel() throws IOException {
+		repository.save(TAG, createApplication(1));
+		assertThat(repository.readLatest(TAG).getEndpoints()).hasSize(1);
+
+		Application changed = createApplication(1);
+		changed.addEndpoint(createEndpoint("another"));
+		repository.save(TAG, changed);
+
+		assertThat(repository.readLatest(TAG).getEndpoints()).hasSize(2);
+	}
+
+	@Test
+	public void testUpdateApplicationChange() throws IOException {
+		repository.save(TAG, createApplication(1));
+		repository.save(TAG, createApplication(3));
+		assertThat(repository.readLatestBefore(TAG, timestamp(3)).getTimestamp()).isEqualTo(timestamp(3));
+
+		repository.updateApplicationChange(TAG, timestamp(3), timestamp(2));
+
+		assertThat(repository.readLatestBefore(TAG, timestamp(3)).getTimestamp()).isEqualTo(timestamp(2));
+		assertThat(repository.readOldestAfter(TAG, timestamp(2))).isNull();
+		assertThat(folder.getRoot().toPath().resolve(TAG).toFile().list()).hasSize(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUpdateNonExistingApplicationChange() throws IOException {
+		repository.save(TAG, createApplication(1));
+		repository.updateApplicationChange(TAG, timestamp(3), timestamp(2));
+	}
+
+	@Test
+	public void testIndexIsReadFromDisk() throws IOException {
+		for (int i = 1; i <= 10; i++) {
+			repository.save(TAG, createApplication(i));
+		}
+
+		ApplicationModelRepository restarted = new ApplicationModelRepository(folder.getRoot().toPath());
+
+		assertThat(restarted.readLatest(TAG).getTimestamp()).isEqualTo(timestamp(10));
+		assertThat(restarted.readOldestAfter(TAG, timestamp(3)).getTimestamp()).isEqualTo(timestamp(4));
+		assertThat(restarted.readOldestAfter(TAG, timestamp(3)).getId()).isEqualTo("app-4");
+	}
+
+	@Test
+	public void testConcurrentSaveAndRead() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (int writer = 0; writer < 4; writer++) {
+				final int offset = writer;
+
+				futures.add(executor.submit(() -> {
+					for (int i = 1 + offset; i <= NUM_VERSIONS; i += 4) {
+						repository.save(TAG, createApplication(i));
+					}
+
+					return null;
+				}));
+			}
+
+			for (int reader = 0; reader < 4; reader++) {
+				final Random random = new Random(reader);
+
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						Date date = timestamp(random.nextInt(NUM_VERSIONS + 2));
+
+						Application before = repository.readLatestBefore(TAG, date);
+						Application after = repository.readOldestAfter(TAG, date);
+
+						if (before != null) {
+							assertThat(before.getTimestamp()).isBeforeOrEqualsTo(date);
+							assertThat(before.getId()).isEqualTo("app-" + (before.getTimestamp().getTime() / INTERVAL));
+						}
+
+						if (after != null) {
+							assertThat(after.getTimestamp()).isAfter(date);
+						}
+					}
+
+					return null;
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (int i = 1; i <= NUM_VERSIONS; i++) {
+			assertThat(repository.readLatestBefore(TAG, timestamp(i)).getTimestamp()).isEqualTo(timestamp(i));
+		}
+
+		assertThat(repository.readOldestAfter(TAG, timestamp(NUM_VERSIONS))).isNull();
+		assertThat(folder.getRoot().toPath().resolve(TAG).toFile().list()).hasSize(NUM_VERSIONS);
+	}
+
+	private static Date timestamp(int version) {
+		return new Date(version * INTERVAL);
+	}
+
+	static Application createApplication(int version) {
+		Application application = SystemModelTestInstance.FIRST.get();
+		application.setId("app-" + version);
+		application.setTimestamp(timestamp(version));
+		return application;
+	}
+
+	private static HttpEndpoint createEndpoint(String id) {
+		HttpEndpoint endpoint = new HttpEndpoint();
+		endpoint.setDomain("mydomain");
+		endpoint.setId(id);
+		return endpoint;
+	}
+
+}
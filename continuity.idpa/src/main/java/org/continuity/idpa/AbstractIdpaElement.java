@@ -1,6 +1,7 @@
 package org.continuity.idpa;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
 /**
@@ -12,6 +13,9 @@ public abstract class AbstractIdpaElement implements IdpaElement {
 
 	private String id = null;
 
+	@JsonIgnore
+	private transient IdpaIndex attachedIndex = null;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -36,4 +40,34 @@ public abstract class AbstractIdpaElement implements IdpaElement {
 		return id != null;
 	}
 
+	/**
+	 * Gets the {@link IdpaIndex} attached to this element via {@link IdpaIndex#attach(IdpaElement)}.
+	 *
+	 * @return The attached index or {@code null}, if there is none.
+	 */
+	IdpaIndex attachedIndex() {
+		return attachedIndex;
+	}
+
+	/**
+	 * Attaches an {@link IdpaIndex} to this element. Should only be called by
+	 * {@link IdpaIndex#attach(IdpaElement)}.
+	 *
+	 * @param index
+	 *            The index. Can be {@code null} for detaching.
+	 */
+	void attachIndex(IdpaIndex index) {
+		this.attachedIndex = index;
+	}
+
+	/**
+	 * Invalidates the attached {@link IdpaIndex}, if present. Should be called whenever the nested
+	 * elements are changed.
+	 */
+	protected void invalidateAttachedIndex() {
+		if (attachedIndex != null) {
+			attachedIndex.invalidate();
+		}
+	}
+
 }
@@ -0,0 +1,259 @@
+package org.continuity.idpa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.continuity.idpa.application.Endpoint;
+import org.continuity.idpa.application.Parameter;
+import org.continuity.idpa.visitor.IdpaVisitor;
+
+/**
+ * Index of an IDPA model (e.g., an {@link org.continuity.idpa.application.Application} or an
+ * {@link org.continuity.idpa.annotation.ApplicationAnnotation}). It holds the elements by id and
+ * by class as well as the parameters of the endpoints. Hence, elements can be found without
+ * traversing the model. <br>
+ *
+ * The index is built lazily on first access. If the model is changed, {@link #invalidate()} has
+ * to be called, which will lead to rebuilding the index on the next access. When attached to the
+ * model via {@link #attach(IdpaElement)}, the index is used transparently by
+ * {@link WeakReference#resolve(IdpaElement)},
+ * {@link org.continuity.idpa.visitor.FindBy#in(IdpaElement)} and
+ * {@link org.continuity.idpa.visitor.IdpaByClassSearcher#visit(IdpaElement)}. Adding endpoints to
+ * an application or inputs and endpoint annotations to an annotation via the respective methods
+ * invalidates the attached index automatically. All other changes require calling
+ * {@link #invalidate()}.
+ */
+public class IdpaIndex {
+
+	private final IdpaElement root;
+
+	private volatile Snapshot snapshot = null;
+
+	private IdpaIndex(IdpaElement root) {
+		this.root = root;
+	}
+
+	/**
+	 * Creates an index of the passed model without attaching it.
+	 *
+	 * @param root
+	 *            The model to be indexed. If {@code null}, the index will be empty.
+	 * @return The index.
+	 */
+	public static IdpaIndex of(IdpaElement root) {
+		return new IdpaIndex(root);
+	}
+
+	/**
+	 * Creates an index of the passed model and attaches it to the model. Returns an already
+	 * attached index, if present.
+	 *
+	 * @param root
+	 *            The model to be indexed.
+	 * @return The attached index.
+	 */
+	public static IdpaIndex attach(IdpaElement root) {
+		IdpaIndex index = getAttached(root);
+
+		if (index == null) {
+			index = new IdpaIndex(root);
+
+			if (root instanceof AbstractIdpaElement) {
+				((AbstractIdpaElement) root).attachIndex(index);
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Gets the index attached to the passed model.
+	 *
+	 * @param root
+	 *            The model.
+	 * @return The attached index or {@code null}, if there is none.
+	 */
+	public static IdpaIndex getAttached(IdpaElement root) {
+		if (root instanceof AbstractIdpaElement) {
+			return ((AbstractIdpaElement) root).attachedIndex();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Removes the index attached to the passed model, if present.
+	 *
+	 * @param root
+	 *            The model.
+	 */
+	public static void detach(IdpaElement root) {
+		if (root instanceof AbstractIdpaElement) {
+			((AbstractIdpaElement) root).attachIndex(null);
+		}
+	}
+
+	/**
+	 * Gets the indexed model.
+	 *
+	 * @return The model.
+	 */
+	public IdpaElement getRoot() {
+		return root;
+	}
+
+	/**
+	 * Invalidates the index. It will be rebuilt on the next access.
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	/**
+	 * Gets all elements with the specified id in depth-first ordering. Usually, there is at most
+	 * one.
+	 *
+	 * @param id
+	 *            The id.
+	 * @return The elements with the id. <b>Do not change the returned list!</b>
+	 */
+	public List<IdpaElement> getAllById(String id) {
+		List<IdpaElement> elements = getSnapshot().elementsById.get(id);
+		return elements == null ? Collections.emptyList() : elements;
+	}
+
+	/**
+	 * Gets the first element of the specified type with the specified id.
+	 *
+	 * @param id
+	 *            The id.
+	 * @param type
+	 *            The type.
+	 * @return The element or {@code null}, if there is no such element.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IdpaElement> T getById(String id, Class<T> type) {
+		for (IdpaElement element : getAllById(id)) {
+			if (type.isAssignableFrom(element.getClass())) {
+				return (T) element;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets all elements of the specified type in depth-first ordering.
+	 *
+	 * @param type
+	 *            The type.
+	 * @return The elements. <b>Do not change the returned list!</b>
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IdpaElement> List<T> getByClass(Class<T> type) {
+		Snapshot current = getSnapshot();
+		return (List<T>) current.elementsByClass.computeIfAbsent(type, current::collectByClass);
+	}
+
+	/**
+	 * Gets the parameters of the endpoint with the specified id.
+	 *
+	 * @param endpointId
+	 *            The id of the endpoint.
+	 * @return The parameters. <b>Do not change the returned list!</b>
+	 */
+	public List<Parameter> getParameters(String endpointId) {
+		List<Parameter> parameters = getSnapshot().parametersByEndpoint.get(endpointId);
+		return parameters == null ? Collections.emptyList() : parameters;
+	}
+
+	/**
+	 * Gets the endpoint holding the passed parameter.
+	 *
+	 * @param parameter
+	 *            The parameter.
+	 * @return The endpoint or {@code null}, if the parameter is not part of the indexed model.
+	 */
+	public Endpoint<?> getEndpoint(Parameter parameter) {
+		return getSnapshot().endpointByParameter.get(parameter);
+	}
+
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+
+		if (current == null) {
+			synchronized (this) {
+				current = snapshot;
+
+				if (current == null) {
+					current = new Snapshot(root);
+					snapshot = current;
+				}
+			}
+		}
+
+		return current;
+	}
+
+	/**
+	 * The index of the model at a specific point in time.
+	 */
+	private static class Snapshot {
+
+		private final List<IdpaElement> elements = new ArrayList<>();
+
+		private final Map<String, List<IdpaElement>> elementsById = new HashMap<>();
+
+		private final Map<Class<?>, List<? extends IdpaElement>> elementsByClass = new ConcurrentHashMap<>();
+
+		private final Map<String, List<Parameter>> parametersByEndpoint = new HashMap<>();
+
+		private final Map<Parameter, Endpoint<?>> endpointByParameter = new IdentityHashMap<>();
+
+		private Snapshot(IdpaElement root) {
+			new IdpaVisitor(this::add).visit(root);
+		}
+
+		private boolean add(IdpaElement element) {
+			elements.add(element);
+
+			if (element.getId() != null) {
+				elementsById.computeIfAbsent(element.getId(), id -> new ArrayList<>(1)).add(element);
+			}
+
+			if (element instanceof Endpoint) {
+				Endpoint<?> endpoint = (Endpoint<?>) element;
+				List<Parameter> parameters = new ArrayList<>(endpoint.getParameters());
+
+				if (endpoint.getId() != null) {
+					parametersByEndpoint.putIfAbsent(endpoint.getId(), parameters);
+				}
+
+				for (Parameter param : parameters) {
+					endpointByParameter.put(param, endpoint);
+				}
+			}
+
+			return true;
+		}
+
+		private List<? extends IdpaElement> collectByClass(Class<?> type) {
+			List<IdpaElement> found = new ArrayList<>();
+
+			for (IdpaElement element : elements) {
+				if (type.isAssignableFrom(element.getClass())) {
+					found.add(element);
+				}
+			}
+
+			return found;
+		}
+
+	}
+
+}
@@ -126,11 +126,35 @@ public class WeakReference<T extends IdpaElement> {
 	 * @return The resolved reference of {@code null}, if the reference wasn't found.
 	 */
 	public T resolve(IdpaElement model) {
+		IdpaIndex index = IdpaIndex.getAttached(model);
+
+		if (index != null) {
+			return resolve(index);
+		}
+
 		referred = null;
 		visitor.visit(model);
 		return referred;
 	}
 
+	/**
+	 * Resolves the referred element from the passed index, if possible and returns the reference.
+	 * Overwrites an already resolved element - potentially with {@code null}.
+	 *
+	 * @param index
+	 *            The index of the model containing the referred element.
+	 * @return The resolved reference of {@code null}, if the reference wasn't found.
+	 */
+	public T resolve(IdpaIndex index) {
+		referred = null;
+
+		for (IdpaElement element : index.getAllById(id)) {
+			checkAndSetElement(element);
+		}
+
+		return referred;
+	}
+
 	/**
 	 * Returns whether the referred element has already been resolved. That is, if the element is
 	 * not {@code null}.
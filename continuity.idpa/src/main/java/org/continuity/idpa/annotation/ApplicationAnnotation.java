@@ -52,6 +52,7 @@ public class ApplicationAnnotation extends OverrideableAnnotation<PropertyOverri
 	 */
 	public void setInputs(List<Input> inputs) {
 		this.inputs = inputs;
+		invalidateAttachedIndex();
 	}
 
 	/**
@@ -62,6 +63,7 @@ public class ApplicationAnnotation extends OverrideableAnnotation<PropertyOverri
 	 */
 	public void addInput(Input input) {
 		getInputs().add(input);
+		invalidateAttachedIndex();
 	}
 
 	/**
@@ -85,6 +87,7 @@ public class ApplicationAnnotation extends OverrideableAnnotation<PropertyOverri
 	 */
 	public void setEndpointAnnotations(List<EndpointAnnotation> endpointAnnotations) {
 		this.endpointAnnotations = endpointAnnotations;
+		invalidateAttachedIndex();
 	}
 	
 	/**
@@ -50,6 +50,7 @@ public class Application extends AbstractIdpaElement {
 	 */
 	public void setEndpoints(List<Endpoint<?>> endpoints) {
 		this.endpoints = endpoints;
+		invalidateAttachedIndex();
 	}
 
 	/**
@@ -92,6 +93,7 @@ public class Application extends AbstractIdpaElement {
 
 	public void addEndpoint(Endpoint<?> endpoint) {
 		getEndpoints().add(endpoint);
+		invalidateAttachedIndex();
 	}
 
 	@Override
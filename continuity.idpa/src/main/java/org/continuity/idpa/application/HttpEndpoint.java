@@ -244,23 +244,28 @@ public class HttpEndpoint extends AbstractIdpaElement implements Endpoint<HttpPa
 			differences.add("protocol");
 		}
 
-		Collections.sort(this.getParameters());
-		Collections.sort(other.getParameters());
-
-		if (!this.getParameters().equals(other.getParameters())) {
+		// Compare sorted copies, as the endpoints can be shared, e.g., by a cache
+		if (!sorted(this.parameters).equals(sorted(other.parameters))) {
 			differences.add("parameters");
 		}
 
-		Collections.sort(this.getHeaders());
-		Collections.sort(other.getHeaders());
-
-		if (!this.getHeaders().equals(other.getHeaders())) {
+		if (!sorted(this.headers).equals(sorted(other.headers))) {
 			differences.add("headers");
 		}
 
 		return differences;
 	}
 
+	private <T extends Comparable<? super T>> List<T> sorted(List<T> list) {
+		if (list == null) {
+			return Collections.emptyList();
+		}
+
+		List<T> copy = new ArrayList<>(list);
+		Collections.sort(copy);
+		return copy;
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer result = new StringBuffer(super.toString());
@@ -5,6 +5,7 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.continuity.idpa.IdpaElement;
+import org.continuity.idpa.IdpaIndex;
 
 /**
  * Can be used to find an element meeting a custom condition within a ContinuITy model. Can either
@@ -21,11 +22,22 @@ public class FindBy<T extends IdpaElement> implements Consumer<T> {
 
 	private final Class<T> type;
 
+	/**
+	 * The id to be found, if the condition is a comparison of ids. Allows searching in an
+	 * {@link IdpaIndex} by id.
+	 */
+	private final String id;
+
 	private T found;
 
 	public FindBy(Predicate<T> condition, Class<T> type) {
+		this(condition, type, null);
+	}
+
+	private FindBy(Predicate<T> condition, Class<T> type, String id) {
 		this.condition = condition;
 		this.type = type;
+		this.id = id;
 	}
 
 	/**
@@ -53,7 +65,7 @@ public class FindBy<T extends IdpaElement> implements Consumer<T> {
 	 * @return A created instance of {@link FindById}.
 	 */
 	public static <T extends IdpaElement> FindBy<T> findById(String id, Class<T> type) {
-		return new FindBy<>(elem -> Objects.equals(id, elem.getId()), type);
+		return new FindBy<>(elem -> Objects.equals(id, elem.getId()), type, id);
 	}
 
 	/**
@@ -65,11 +77,37 @@ public class FindBy<T extends IdpaElement> implements Consumer<T> {
 	 * @return The same instance of {@link FindById}.
 	 */
 	public FindBy<T> in(IdpaElement element) {
+		IdpaIndex index = IdpaIndex.getAttached(element);
+
+		if (index != null) {
+			return in(index);
+		}
+
 		IdpaByClassSearcher<T> searcher = new IdpaByClassSearcher<>(type, this::accept);
 		searcher.visit(element);
 		return this;
 	}
 
+	/**
+	 * Specifies the index of the model where to search in. To be used as follows: <br>
+	 * <code>Parameter param = FindById.find(myId, Parameter.class).in(index).getFound();</code>
+	 *
+	 * @param index
+	 *            The index of the model to search in.
+	 * @return The same instance of {@link FindById}.
+	 */
+	public FindBy<T> in(IdpaIndex index) {
+		if ((id != null) && (found == null)) {
+			found = index.getById(id, type);
+		} else {
+			for (T element : index.getByClass(type)) {
+				accept(element);
+			}
+		}
+
+		return this;
+	}
+
 	@Override
 	public void accept(T t) {
 		if ((found == null) && condition.test(t)) {
@@ -3,6 +3,7 @@ package org.continuity.idpa.visitor;
 import java.util.function.Consumer;
 
 import org.continuity.idpa.IdpaElement;
+import org.continuity.idpa.IdpaIndex;
 
 /**
  * Visitor for {@link IdpaElement}s of a specific type.
@@ -42,7 +43,26 @@ public class IdpaByClassSearcher<T extends IdpaElement> {
 	 *            The model to be visited.
 	 */
 	public void visit(IdpaElement model) {
-		visitor.visit(model);
+		IdpaIndex index = IdpaIndex.getAttached(model);
+
+		if (index != null) {
+			visit(index);
+		} else {
+			visitor.visit(model);
+		}
+	}
+
+	/**
+	 * Calls the operation on all elements of the indexed model. The order is the same as when
+	 * visiting the model directly.
+	 *
+	 * @param index
+	 *            The index of the model to be visited.
+	 */
+	public void visit(IdpaIndex index) {
+		for (T element : index.getByClass(type)) {
+			operation.accept(element);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
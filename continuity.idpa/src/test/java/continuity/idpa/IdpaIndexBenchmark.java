@@ -0,0 +1,90 @@
+package continuity.idpa;
+
+import org.continuity.idpa.IdpaIndex;
+import org.continuity.idpa.WeakReference;
+import org.continuity.idpa.annotation.ApplicationAnnotation;
+import org.continuity.idpa.annotation.DirectListInput;
+import org.continuity.idpa.annotation.EndpointAnnotation;
+import org.continuity.idpa.annotation.ParameterAnnotation;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.HttpParameter;
+import org.continuity.idpa.application.HttpParameterType;
+
+/**
+ * Resolves all references of an annotation of an application with 5000 endpoints, once by
+ * traversing the application and once using an {@link IdpaIndex}. Not run as part of the test
+ * suite.
+ */
+public class IdpaIndexBenchmark {
+
+	private static final int NUM_ENDPOINTS = 5000;
+
+	private static final int PARAMS_PER_ENDPOINT = 2;
+
+	public static void main(String[] args) {
+		Application application = new Application();
+		ApplicationAnnotation annotation = new ApplicationAnnotation();
+
+		DirectListInput input = new DirectListInput();
+		input.setId("input");
+		input.getData().add("value");
+		annotation.addInput(input);
+
+		for (int i = 0; i < NUM_ENDPOINTS; i++) {
+			HttpEndpoint endpoint = new HttpEndpoint();
+			endpoint.setId("endpoint_" + i);
+			endpoint.setPath("/path/" + i);
+			endpoint.setMethod("GET");
+
+			EndpointAnnotation endpointAnn = new EndpointAnnotation();
+			endpointAnn.setAnnotatedEndpoint(WeakReference.create(endpoint));
+
+			for (int j = 0; j < PARAMS_PER_ENDPOINT; j++) {
+				HttpParameter param = new HttpParameter();
+				param.setId("endpoint_" + i + "_param_" + j);
+				param.setName("param" + j);
+				param.setParameterType(HttpParameterType.REQ_PARAM);
+				endpoint.getParameters().add(param);
+
+				ParameterAnnotation paramAnn = new ParameterAnnotation();
+				paramAnn.setAnnotatedParameter(WeakReference.create(param));
+				paramAnn.setInput(input);
+				endpointAnn.getParameterAnnotations().add(paramAnn);
+			}
+
+			application.addEndpoint(endpoint);
+			annotation.getEndpointAnnotations().add(endpointAnn);
+		}
+
+		for (int round = 0; round < 3; round++) {
+			long start = System.nanoTime();
+			int resolved = resolveAll(annotation, application);
+			long traversingNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			IdpaIndex.attach(application);
+			int resolvedIndexed = resolveAll(annotation, application);
+			long indexedNanos = System.nanoTime() - start;
+			IdpaIndex.detach(application);
+
+			System.out.println(String.format("Round %d: traversing %d ms (%d resolved), indexed %d ms including indexing (%d resolved)", round, traversingNanos / 1000000, resolved,
+					indexedNanos / 1000000, resolvedIndexed));
+		}
+	}
+
+	private static int resolveAll(ApplicationAnnotation annotation, Application application) {
+		int resolved = 0;
+
+		for (EndpointAnnotation endpointAnn : annotation.getEndpointAnnotations()) {
+			resolved += endpointAnn.getAnnotatedEndpoint().resolve(application) == null ? 0 : 1;
+
+			for (ParameterAnnotation paramAnn : endpointAnn.getParameterAnnotations()) {
+				resolved += paramAnn.getAnnotatedParameter().resolve(application) == null ? 0 : 1;
+			}
+		}
+
+		return resolved;
+	}
+
+}
@@ -0,0 +1,125 @@
+package continuity.idpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.continuity.idpa.IdpaElement;
+import org.continuity.idpa.IdpaIndex;
+import org.continuity.idpa.WeakReference;
+import org.continuity.idpa.annotation.ApplicationAnnotation;
+import org.continuity.idpa.annotation.EndpointAnnotation;
+import org.continuity.idpa.annotation.ParameterAnnotation;
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.Endpoint;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.idpa.application.HttpParameter;
+import org.continuity.idpa.application.Parameter;
+import org.continuity.idpa.test.IdpaTestInstance;
+import org.continuity.idpa.visitor.FindBy;
+import org.continuity.idpa.visitor.IdpaByClassSearcher;
+import org.junit.After;
+import org.junit.Test;
+
+public class IdpaIndexTest {
+
+	private final List<IdpaElement> detachAfterTest = new ArrayList<>();
+
+	@After
+	public void detach() {
+		detachAfterTest.forEach(IdpaIndex::detach);
+	}
+
+	@Test
+	public void testResolveLikeVisitor() {
+		for (IdpaTestInstance instance : IdpaTestInstance.values()) {
+			Application application = instance.getApplication();
+			ApplicationAnnotation annotation = instance.getAnnotation();
+			IdpaIndex index = IdpaIndex.of(application);
+
+			for (EndpointAnnotation endpointAnn : annotation.getEndpointAnnotations()) {
+				WeakReference<Endpoint<?>> ref = endpointAnn.getAnnotatedEndpoint();
+				Endpoint<?> expected = ref.resolve(application);
+
+				assertThat(ref.resolve(index)).as("Resolved endpoint %s in %s", ref.getId(), instance).isSameAs(expected);
+
+				for (ParameterAnnotation paramAnn : endpointAnn.getParameterAnnotations()) {
+					WeakReference<Parameter> paramRef = paramAnn.getAnnotatedParameter();
+					Parameter expectedParam = paramRef.resolve(application);
+
+					assertThat(paramRef.resolve(index)).as("Resolved parameter %s in %s", paramRef.getId(), instance).isSameAs(expectedParam);
+
+					if (expectedParam != null) {
+						Endpoint<?> owner = index.getEndpoint(expectedParam);
+
+						assertThat(owner).isNotNull();
+						assertThat(owner.getParameters()).contains(expectedParam);
+						assertThat(index.getParameters(owner.getId())).contains(expectedParam);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testByClassLikeVisitor() {
+		for (IdpaTestInstance instance : IdpaTestInstance.values()) {
+			ApplicationAnnotation annotation = instance.getAnnotation();
+			List<ParameterAnnotation> expected = new ArrayList<>();
+			new IdpaByClassSearcher<>(ParameterAnnotation.class, expected::add).visit(annotation);
+
+			assertThat(IdpaIndex.of(annotation).getByClass(ParameterAnnotation.class)).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	public void testAttachedIndex() {
+		Application application = IdpaTestInstance.SIMPLE.getApplication();
+		IdpaIndex index = IdpaIndex.attach(application);
+		detachAfterTest.add(application);
+
+		assertThat(IdpaIndex.attach(application)).isSameAs(index);
+		assertThat(IdpaIndex.getAttached(application)).isSameAs(index);
+
+		HttpEndpoint login = FindBy.findById("login", HttpEndpoint.class).in(application).getFound();
+		assertThat(login).isNotNull().isSameAs(index.getById("login", HttpEndpoint.class));
+		assertThat(FindBy.findById("login", HttpParameter.class).in(application).getFound()).isNull();
+
+		List<HttpParameter> params = new ArrayList<>();
+		new IdpaByClassSearcher<>(HttpParameter.class, params::add).visit(application);
+		assertThat(params).extracting(HttpParameter::getId).containsExactly("user");
+	}
+
+	@Test
+	public void testInvalidation() {
+		Application application = new Application();
+		IdpaIndex.attach(application);
+		detachAfterTest.add(application);
+
+		WeakReference<HttpEndpoint> ref = WeakReference.create(HttpEndpoint.class, "new");
+		assertThat(ref.resolve(application)).isNull();
+
+		HttpEndpoint endpoint = new HttpEndpoint();
+		endpoint.setId("new");
+		application.addEndpoint(endpoint);
+
+		assertThat(ref.resolve(application)).isSameAs(endpoint);
+
+		HttpParameter param = new HttpParameter();
+		param.setId("param");
+		endpoint.getParameters().add(param);
+
+		assertThat(WeakReference.create(HttpParameter.class, "param").resolve(application)).isNull();
+
+		IdpaIndex.getAttached(application).invalidate();
+		assertThat(WeakReference.create(HttpParameter.class, "param").resolve(application)).isSameAs(param);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWrongType() {
+		Application application = IdpaTestInstance.SIMPLE.getApplication();
+		WeakReference.create(HttpParameter.class, "login").resolve(IdpaIndex.of(application));
+	}
+
+}
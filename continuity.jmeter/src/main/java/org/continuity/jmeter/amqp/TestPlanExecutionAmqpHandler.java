@@ -1,13 +1,12 @@
 package org.continuity.jmeter.amqp;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.jmeter.JMeter;
 import org.apache.jmeter.engine.StandardJMeterEngine;
 import org.apache.jmeter.testelement.TestStateListener;
@@ -22,10 +21,12 @@ import org.continuity.api.entities.report.TaskReport;
 import org.continuity.api.rest.RestApi;
 import org.continuity.commons.jmeter.JMeterPropertiesCorrector;
 import org.continuity.commons.jmeter.TestPlanWriter;
-import org.continuity.commons.storage.MemoryStorage;
+import org.continuity.commons.storage.BoundedMemoryStorage;
 import org.continuity.commons.storage.MixedStorage;
 import org.continuity.commons.utils.JMeterUtils;
 import org.continuity.jmeter.config.RabbitMqConfig;
+import org.continuity.jmeter.entities.JMeterReport;
+import org.continuity.jmeter.report.JMeterResultsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpException;
@@ -33,6 +34,7 @@ import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -44,6 +46,8 @@ public class TestPlanExecutionAmqpHandler {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TestPlanExecutionAmqpHandler.class);
 
+	private static final String RAW_RESULTS_DIR = "raw-results";
+
 	@Autowired
 	private TestPlanWriter testPlanWriter;
 
@@ -56,7 +60,13 @@ public class TestPlanExecutionAmqpHandler {
 
 	@Autowired
 	@Qualifier("reportStorage")
-	private MemoryStorage<String> reportStorage;
+	private BoundedMemoryStorage<JMeterReport> reportStorage;
+
+	@Value("${storage.path:storage}")
+	private String storagePath;
+
+	@Value("${jmeter.results.keep-raw:false}")
+	private boolean keepRawResults;
 
 	private JMeterPropertiesCorrector jmeterPropertiesCorrector = new JMeterPropertiesCorrector();
 
@@ -130,6 +140,10 @@ public class TestPlanExecutionAmqpHandler {
 		final int testId = testCounter.getAndIncrement();
 		runningTests.put(testId, true);
 
+		final String reportId = reportStorage.reserve(task.getTag());
+		final JMeterResultsCollector resultsCollector = new JMeterResultsCollector(resultsPath, getRawResultsPath(reportId));
+		resultsCollector.start();
+
 		JMeter jmeter = new JMeter();
 		String[] arguments = { "-n", "-t", testPlanPath.toAbsolutePath().toString() };
 
@@ -153,24 +167,29 @@ public class TestPlanExecutionAmqpHandler {
 			@Override
 			public void testEnded() {
 				try {
-					String appendix = "";
+					boolean aborted = false;
 
 					if ((runningTests.get(testId) == null) || !runningTests.get(testId)) {
 						LOGGER.warn("Task {}: The test {} has been aborted with force!", task.getTaskId(), testId);
-						appendix = "\nWARNING: The test has been aborted with force!\n";
+						aborted = true;
 					}
 
 					runningTests.put(testId, false);
 
-					String reportId = reportStorage.put(FileUtils.readFileToString(resultsPath.toFile(), Charset.defaultCharset()) + appendix, task.getTag());
+					JMeterReport jmeterReport = resultsCollector.finish();
+					jmeterReport.setAborted(aborted);
+					reportStorage.putToReserved(reportId, jmeterReport);
 					String reportLink = RestApi.JMeter.Report.GET.requestUrl(reportId).withoutProtocol().get();
 
 					TaskReport report = TaskReport.successful(task.getTaskId(), new LinkExchangeModel().getLoadTestLinks().setType(LoadTestType.JMETER).setReportLink(reportLink).parent());
 					amqpTemplate.convertAndSend(AmqpApi.Global.EVENT_FINISHED.name(), AmqpApi.Global.EVENT_FINISHED.formatRoutingKey().of(RabbitMqConfig.SERVICE_NAME), report);
 
-					LOGGER.info("Task {}: JMeter test finished. Results are stored to {}.", task.getTaskId(), resultsPath);
+					LOGGER.info("Task {}: JMeter test finished. The report of the results in {} is stored as {}.", task.getTaskId(), resultsPath, reportId);
 				} catch (AmqpException | IOException e) {
 					LOGGER.error("Task {}: Error when pushing the test results to the queue!", task.getTaskId(), e);
+				} catch (InterruptedException e) {
+					LOGGER.error("Task {}: Interrupted while collecting the test results!", task.getTaskId(), e);
+					Thread.currentThread().interrupt();
 				}
 			}
 		});
@@ -180,6 +199,17 @@ public class TestPlanExecutionAmqpHandler {
 		new StopEngineAfterTime(testId, JMeterUtils.getDuration(testPlanBundle.getTestPlan())).start();
 	}
 
+	private Path getRawResultsPath(String reportId) {
+		if (!keepRawResults) {
+			return null;
+		}
+
+		Path rawResultsDir = Paths.get(storagePath).resolve(RAW_RESULTS_DIR);
+		rawResultsDir.toFile().mkdirs();
+
+		return rawResultsDir.resolve(reportId + ".csv.gz");
+	}
+
 	private class StopEngineAfterTime extends Thread {
 
 		private final int testId;
@@ -3,8 +3,10 @@ package org.continuity.jmeter.config;
 import java.nio.file.Paths;
 
 import org.continuity.api.entities.artifact.JMeterTestPlanBundle;
-import org.continuity.commons.storage.MemoryStorage;
+import org.continuity.commons.storage.BoundedMemoryStorage;
+import org.continuity.commons.storage.JsonFileStorage;
 import org.continuity.commons.storage.MixedStorage;
+import org.continuity.jmeter.entities.JMeterReport;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,8 +22,10 @@ public class StorageConfig {
 	}
 
 	@Bean
-	public MemoryStorage<String> reportStorage() {
-		return new MemoryStorage<>(String.class);
+	public BoundedMemoryStorage<JMeterReport> reportStorage(@Value("${storage.path:storage}") String storagePath, @Value("${storage.reports.max-entries:1000}") int maxEntries,
+			@Value("${storage.reports.max-spilled:10000}") int maxSpilled) {
+		return new BoundedMemoryStorage<>(JMeterReport.class).withMaxEntries(maxEntries)
+				.withSpillOver(new JsonFileStorage<>(Paths.get(storagePath).resolve("reports"), new JMeterReport(), JMeterReport.class), maxSpilled);
 	}
 
 }
@@ -3,16 +3,32 @@ package org.continuity.jmeter.controllers;
 import static org.continuity.api.rest.RestApi.JMeter.Report.ROOT;
 import static org.continuity.api.rest.RestApi.JMeter.Report.Paths.DELETE;
 import static org.continuity.api.rest.RestApi.JMeter.Report.Paths.GET;
+import static org.continuity.api.rest.RestApi.JMeter.Report.Paths.GET_PERCENTILES;
+import static org.continuity.api.rest.RestApi.JMeter.Report.Paths.GET_RAW;
 
-import org.continuity.commons.storage.MemoryStorage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.continuity.commons.storage.BoundedMemoryStorage;
+import org.continuity.jmeter.entities.JMeterReport;
+import org.continuity.jmeter.entities.SamplerSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -29,7 +45,7 @@ public class ReportController {
 
 	@Autowired
 	@Qualifier("reportStorage")
-	private MemoryStorage<String> storage;
+	private BoundedMemoryStorage<JMeterReport> storage;
 
 	/**
 	 * Returns the report that is stored with the specified ID.
@@ -39,8 +55,8 @@ public class ReportController {
 	 * @return A report or a 404 error response if not found.
 	 */
 	@RequestMapping(value = GET, method = RequestMethod.GET)
-	public ResponseEntity<String> getReport(@PathVariable String id) {
-		String report = storage.get(id);
+	public ResponseEntity<JMeterReport> getReport(@PathVariable String id) {
+		JMeterReport report = storage.get(id);
 
 		if (report == null) {
 			LOGGER.warn("Could not find a report with id {}!", id);
@@ -51,6 +67,78 @@ public class ReportController {
 		}
 	}
 
+	/**
+	 * Calculates response time percentiles from the report that is stored with the specified ID.
+	 * The raw results are not required.
+	 *
+	 * @param id
+	 *            The ID of the report.
+	 * @param percentiles
+	 *            The percentiles between 0 and 100.
+	 * @param label
+	 *            The label of the sampler. If not specified, the percentiles are calculated for
+	 *            all samplers and in total.
+	 * @return The response times in milliseconds per sampler label and percentile or a 404 error
+	 *         response if the report or the sampler is not found.
+	 */
+	@RequestMapping(value = GET_PERCENTILES, method = RequestMethod.GET)
+	public ResponseEntity<Map<String, Map<String, Long>>> getPercentiles(@PathVariable String id,
+			@RequestParam(defaultValue = "50,90,95,99,99.9") List<Double> percentiles, @RequestParam(required = false) String label) {
+		JMeterReport report = storage.get(id);
+
+		if (report == null) {
+			LOGGER.warn("Could not find a report with id {}!", id);
+			return ResponseEntity.notFound().build();
+		}
+
+		List<SamplerSummary> samplers;
+
+		if (label == null) {
+			samplers = new ArrayList<>(report.getSamplers());
+			samplers.add(report.getTotal());
+		} else if (report.getSampler(label) != null) {
+			samplers = Arrays.asList(report.getSampler(label));
+		} else {
+			LOGGER.warn("The report with id {} does not have a sampler {}!", id, label);
+			return ResponseEntity.notFound().build();
+		}
+
+		Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+
+		for (SamplerSummary sampler : samplers) {
+			Map<String, Long> values = new LinkedHashMap<>();
+
+			for (Double percentile : percentiles) {
+				values.put(percentile.toString(), sampler.getPercentile(percentile));
+			}
+
+			result.put(sampler.getLabel(), values);
+		}
+
+		return ResponseEntity.ok(result);
+	}
+
+	/**
+	 * Returns the gzipped raw results of the report that is stored with the specified ID.
+	 *
+	 * @param id
+	 *            The ID of the report.
+	 * @return The raw results CSV file or a 404 error response if the report is not found or the
+	 *         raw results have not been kept.
+	 */
+	@RequestMapping(value = GET_RAW, method = RequestMethod.GET)
+	public ResponseEntity<Resource> getRawResults(@PathVariable String id) {
+		JMeterReport report = storage.get(id);
+
+		if ((report == null) || (report.getRawResults() == null) || !new File(report.getRawResults()).exists()) {
+			LOGGER.warn("Could not find raw results for id {}!", id);
+			return ResponseEntity.notFound().build();
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + ".csv.gz\"")
+				.body(new FileSystemResource(report.getRawResults()));
+	}
+
 	/**
 	 * Deletes the report that is stored with the specified ID.
 	 *
@@ -60,6 +148,12 @@ public class ReportController {
 	 */
 	@RequestMapping(value = DELETE, method = RequestMethod.DELETE)
 	public ResponseEntity<String> deleteReport(@PathVariable String id) {
+		JMeterReport report = storage.get(id);
+
+		if ((report != null) && (report.getRawResults() != null)) {
+			new File(report.getRawResults()).delete();
+		}
+
 		boolean deleted = storage.remove(id);
 
 		if (deleted) {
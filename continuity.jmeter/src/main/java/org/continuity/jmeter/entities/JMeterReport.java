@@ -0,0 +1,124 @@
+package org.continuity.jmeter.entities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Compact summary of the results of a JMeter test. It holds the aggregated response times per
+ * sampler, the throughput per second, and optionally the path to the compressed raw results.
+ */
+@JsonPropertyOrder({ "start-time", "end-time", "aborted", "total", "samplers", "throughput", "raw-results" })
+public class JMeterReport {
+
+	@JsonProperty("start-time")
+	private long startTime;
+
+	@JsonProperty("end-time")
+	private long endTime;
+
+	/**
+	 * Whether the test has been aborted with force.
+	 */
+	private boolean aborted;
+
+	private SamplerSummary total;
+
+	private List<SamplerSummary> samplers = new ArrayList<>();
+
+	/**
+	 * Number of finished samples per second since the epoch.
+	 */
+	private SortedMap<Long, Long> throughput = new TreeMap<>();
+
+	@JsonProperty("raw-results")
+	@JsonInclude(Include.NON_NULL)
+	private String rawResults;
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(long startTime) {
+		this.startTime = startTime;
+	}
+
+	public long getEndTime() {
+		return endTime;
+	}
+
+	public void setEndTime(long endTime) {
+		this.endTime = endTime;
+	}
+
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	public void setAborted(boolean aborted) {
+		this.aborted = aborted;
+	}
+
+	public SamplerSummary getTotal() {
+		return total;
+	}
+
+	public void setTotal(SamplerSummary total) {
+		this.total = total;
+	}
+
+	public List<SamplerSummary> getSamplers() {
+		return samplers;
+	}
+
+	public void setSamplers(List<SamplerSummary> samplers) {
+		this.samplers = samplers;
+	}
+
+	/**
+	 * Gets the summary of the sampler with the specified label.
+	 *
+	 * @param label
+	 *            The label of the sampler.
+	 * @return The summary or {@code null}, if there is no such sampler.
+	 */
+	@JsonIgnore
+	public SamplerSummary getSampler(String label) {
+		for (SamplerSummary sampler : samplers) {
+			if (sampler.getLabel().equals(label)) {
+				return sampler;
+			}
+		}
+
+		return null;
+	}
+
+	public SortedMap<Long, Long> getThroughput() {
+		return throughput;
+	}
+
+	public void setThroughput(SortedMap<Long, Long> throughput) {
+		this.throughput = throughput;
+	}
+
+	/**
+	 * Gets the path to the gzipped raw results CSV file.
+	 *
+	 * @return The path or {@code null}, if the raw results have not been kept.
+	 */
+	public String getRawResults() {
+		return rawResults;
+	}
+
+	public void setRawResults(String rawResults) {
+		this.rawResults = rawResults;
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.continuity.jmeter.entities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Aggregated results of one sampler (or of all samplers) of a JMeter test. The response times
+ * are held in a compressed HDR histogram, from which arbitrary percentiles can be calculated.
+ */
+@JsonPropertyOrder({ "label", "num-samples", "num-errors", "bytes", "mean", "min", "p50", "p90", "p95", "p99", "max", "histogram" })
+public class SamplerSummary {
+
+	private String label;
+
+	@JsonProperty("num-samples")
+	private long numSamples;
+
+	@JsonProperty("num-errors")
+	private long numErrors;
+
+	private long bytes;
+
+	private double mean;
+
+	private long min;
+
+	private long p50;
+
+	private long p90;
+
+	private long p95;
+
+	private long p99;
+
+	private long max;
+
+	/**
+	 * Base64-encoded compressed HDR histogram of the response times in milliseconds.
+	 */
+	private String histogram;
+
+	@JsonIgnore
+	private transient Histogram decodedHistogram;
+
+	public SamplerSummary() {
+	}
+
+	public SamplerSummary(String label, long numSamples, long numErrors, long bytes, Histogram histogram) {
+		this.label = label;
+		this.numSamples = numSamples;
+		this.numErrors = numErrors;
+		this.bytes = bytes;
+
+		if (histogram.getTotalCount() > 0) {
+			this.mean = histogram.getMean();
+			this.min = histogram.getMinValue();
+			this.max = histogram.getMaxValue();
+			this.p50 = histogram.getValueAtPercentile(50);
+			this.p90 = histogram.getValueAtPercentile(90);
+			this.p95 = histogram.getValueAtPercentile(95);
+			this.p99 = histogram.getValueAtPercentile(99);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+		int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+		this.histogram = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+		this.decodedHistogram = histogram;
+	}
+
+	/**
+	 * Calculates the response time at the specified percentile.
+	 *
+	 * @param percentile
+	 *            The percentile between 0 and 100.
+	 * @return The response time in milliseconds.
+	 */
+	public long getPercentile(double percentile) {
+		return getDecodedHistogram().getValueAtPercentile(percentile);
+	}
+
+	private Histogram getDecodedHistogram() {
+		if (decodedHistogram == null) {
+			try {
+				decodedHistogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(histogram)), 0);
+			} catch (DataFormatException e) {
+				throw new IllegalStateException("Cannot decode the histogram of " + label + "!", e);
+			}
+		}
+
+		return decodedHistogram;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public long getNumSamples() {
+		return numSamples;
+	}
+
+	public void setNumSamples(long numSamples) {
+		this.numSamples = numSamples;
+	}
+
+	public long getNumErrors() {
+		return numErrors;
+	}
+
+	public void setNumErrors(long numErrors) {
+		this.numErrors = numErrors;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public void setBytes(long bytes) {
+		this.bytes = bytes;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	public void setMean(double mean) {
+		this.mean = mean;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public void setMin(long min) {
+		this.min = min;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public void setP50(long p50) {
+		this.p50 = p50;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public void setP90(long p90) {
+		this.p90 = p90;
+	}
+
+	public long getP95() {
+		return p95;
+	}
+
+	public void setP95(long p95) {
+		this.p95 = p95;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public void setP99(long p99) {
+		this.p99 = p99;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public void setMax(long max) {
+		this.max = max;
+	}
+
+	public String getHistogram() {
+		return histogram;
+	}
+
+	public void setHistogram(String histogram) {
+		this.histogram = histogram;
+		this.decodedHistogram = null;
+	}
+
+}
@@ -0,0 +1,249 @@
+package org.continuity.jmeter.report;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+import org.continuity.jmeter.entities.JMeterReport;
+import org.continuity.jmeter.entities.SamplerSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+
+/**
+ * Aggregates the records of a JMeter results CSV file one by one. Per sampler, it holds an HDR
+ * histogram of the response times as well as the number of samples, errors and bytes. In
+ * addition, the number of samples per second is counted. Hence, the memory consumption does not
+ * depend on the number of samples. <br>
+ *
+ * The columns are determined from the header line. If the first line is not a header, the
+ * default column order of JMeter with the configuration of
+ * {@link org.continuity.commons.jmeter.JMeterPropertiesCorrector#configureResultFile} is assumed.
+ */
+public class JMeterResultsAggregator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JMeterResultsAggregator.class);
+
+	public static final String TOTAL_LABEL = "TOTAL";
+
+	private static final String COLUMN_TIMESTAMP = "timeStamp";
+
+	private static final String COLUMN_ELAPSED = "elapsed";
+
+	private static final String COLUMN_LABEL = "label";
+
+	private static final String COLUMN_SUCCESS = "success";
+
+	private static final String COLUMN_BYTES = "bytes";
+
+	private static final String[] DEFAULT_HEADER = { COLUMN_TIMESTAMP, COLUMN_ELAPSED, COLUMN_LABEL, "responseCode", "responseMessage", "threadName", "dataType", COLUMN_SUCCESS,
+			"failureMessage", COLUMN_BYTES, "sentBytes", "grpThreads", "allThreads", "Latency", "SampleCount", "ErrorCount", "IdleTime", "Connect" };
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final CsvParser parser;
+
+	private boolean firstLine = true;
+
+	private int timestampIndex;
+
+	private int elapsedIndex;
+
+	private int labelIndex;
+
+	private int successIndex;
+
+	private int bytesIndex;
+
+	private final Map<String, SamplerAggregate> samplers = new HashMap<>();
+
+	private final SamplerAggregate total = new SamplerAggregate(TOTAL_LABEL);
+
+	private final TreeMap<Long, Long> throughput = new TreeMap<>();
+
+	private long startTime = Long.MAX_VALUE;
+
+	private long endTime = Long.MIN_VALUE;
+
+	private long numMalformed = 0;
+
+	public JMeterResultsAggregator() {
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.getFormat().setLineSeparator("\n");
+		settings.setMaxCharsPerColumn(-1);
+		settings.setAutoClosingEnabled(false);
+		settings.setReadInputOnSeparateThread(false);
+		this.parser = new CsvParser(settings);
+
+		setColumns(DEFAULT_HEADER);
+	}
+
+	/**
+	 * Aggregates all records provided by the reader. Quoted fields can span several lines, e.g.,
+	 * failure messages. Blocks if the reader blocks, so that a file can be aggregated while it is
+	 * being written.
+	 *
+	 * @param reader
+	 *            The reader. Will not be closed.
+	 * @throws com.univocity.parsers.common.TextParsingException
+	 *             If reading fails.
+	 */
+	public void aggregate(Reader reader) {
+		parser.beginParsing(reader);
+		String[] fields;
+
+		while ((fields = parser.parseNext()) != null) {
+			addRecord(fields);
+		}
+
+		parser.stopParsing();
+	}
+
+	/**
+	 * Aggregates one record of the results CSV file.
+	 *
+	 * @param fields
+	 *            The fields of the record.
+	 */
+	public void addRecord(String[] fields) {
+		if (firstLine) {
+			firstLine = false;
+
+			if (isHeader(fields)) {
+				setColumns(fields);
+				return;
+			}
+
+			LOGGER.warn("The results do not start with a header. Assuming the default columns.");
+		}
+
+		try {
+			long timestamp = Long.parseLong(fields[timestampIndex]);
+			long elapsed = Math.max(0, Long.parseLong(fields[elapsedIndex]));
+			String label = fields[labelIndex] == null ? "" : fields[labelIndex];
+			boolean success = Boolean.parseBoolean(fields[successIndex]);
+			long bytes = bytesIndex < 0 ? 0 : Long.parseLong(fields[bytesIndex]);
+
+			samplers.computeIfAbsent(label, SamplerAggregate::new).add(elapsed, success, bytes);
+			total.add(elapsed, success, bytes);
+			throughput.merge(timestamp / 1000, 1L, Long::sum);
+
+			startTime = Math.min(startTime, timestamp);
+			endTime = Math.max(endTime, timestamp + elapsed);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			numMalformed++;
+		}
+	}
+
+	/**
+	 * Gets the number of records that could not be parsed.
+	 *
+	 * @return The number of malformed records.
+	 */
+	public long getNumMalformed() {
+		return numMalformed;
+	}
+
+	/**
+	 * Creates a report from the records aggregated so far.
+	 *
+	 * @return The report.
+	 */
+	public JMeterReport createReport() {
+		if (numMalformed > 0) {
+			LOGGER.warn("Ignored {} malformed records of the results.", numMalformed);
+		}
+
+		JMeterReport report = new JMeterReport();
+
+		if (total.numSamples > 0) {
+			report.setStartTime(startTime);
+			report.setEndTime(endTime);
+		}
+
+		report.setTotal(total.toSummary());
+
+		List<SamplerSummary> summaries = new ArrayList<>(samplers.size());
+
+		for (SamplerAggregate sampler : samplers.values()) {
+			summaries.add(sampler.toSummary());
+		}
+
+		summaries.sort((a, b) -> a.getLabel().compareTo(b.getLabel()));
+		report.setSamplers(summaries);
+		report.setThroughput(new TreeMap<>(throughput));
+
+		return report;
+	}
+
+	private boolean isHeader(String[] fields) {
+		for (String field : fields) {
+			if (COLUMN_TIMESTAMP.equals(field)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void setColumns(String[] header) {
+		timestampIndex = indexOf(header, COLUMN_TIMESTAMP);
+		elapsedIndex = indexOf(header, COLUMN_ELAPSED);
+		labelIndex = indexOf(header, COLUMN_LABEL);
+		successIndex = indexOf(header, COLUMN_SUCCESS);
+		bytesIndex = indexOf(header, COLUMN_BYTES);
+
+		if ((timestampIndex < 0) || (elapsedIndex < 0) || (labelIndex < 0) || (successIndex < 0)) {
+			throw new IllegalArgumentException("The results need to have the columns timeStamp, elapsed, label, and success!");
+		}
+	}
+
+	private int indexOf(String[] header, String column) {
+		for (int i = 0; i < header.length; i++) {
+			if (column.equals(header[i])) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private static class SamplerAggregate {
+
+		private final String label;
+
+		private final Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+
+		private long numSamples = 0;
+
+		private long numErrors = 0;
+
+		private long bytes = 0;
+
+		private SamplerAggregate(String label) {
+			this.label = label;
+		}
+
+		private void add(long elapsed, boolean success, long bytes) {
+			histogram.recordValue(elapsed);
+			numSamples++;
+			this.bytes += bytes;
+
+			if (!success) {
+				numErrors++;
+			}
+		}
+
+		private SamplerSummary toSummary() {
+			return new SamplerSummary(label, numSamples, numErrors, bytes, histogram.copy());
+		}
+
+	}
+
+}
@@ -0,0 +1,174 @@
+package org.continuity.jmeter.report;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.continuity.jmeter.entities.JMeterReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows the results CSV file while JMeter is writing it and passes each completed record to a
+ * {@link JMeterResultsAggregator}. Optionally, the raw results are copied to a gzipped file. The
+ * results file is never held in memory as a whole.
+ */
+public class JMeterResultsCollector {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JMeterResultsCollector.class);
+
+	private static final long POLL_INTERVAL_MILLIS = 500;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path resultsPath;
+
+	private final Path rawResultsPath;
+
+	private final JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+
+	private final Thread thread;
+
+	private volatile boolean finished = false;
+
+	private volatile Exception failure = null;
+
+	/**
+	 * Creates a new collector.
+	 *
+	 * @param resultsPath
+	 *            The path of the results CSV file written by JMeter. The file does not need to
+	 *            exist, yet.
+	 * @param rawResultsPath
+	 *            The path of the gzipped file the raw results should be copied to. Can be
+	 *            {@code null}, in which case the raw results are not kept.
+	 */
+	public JMeterResultsCollector(Path resultsPath, Path rawResultsPath) {
+		this.resultsPath = resultsPath;
+		this.rawResultsPath = rawResultsPath;
+		this.thread = new Thread(this::follow, "results-collector-" + resultsPath.getFileName());
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts following the results file.
+	 */
+	public void start() {
+		thread.start();
+	}
+
+	/**
+	 * Reads the remainder of the results file and creates the report. Should be called after
+	 * JMeter has finished writing the results.
+	 *
+	 * @return The report.
+	 * @throws IOException
+	 *             If reading the results or writing the raw results failed.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the remainder to be read.
+	 */
+	public JMeterReport finish() throws IOException, InterruptedException {
+		finished = true;
+		thread.join();
+
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if (failure != null) {
+			throw new IOException("Could not aggregate the results!", failure);
+		}
+
+		JMeterReport report = aggregator.createReport();
+
+		if (rawResultsPath != null) {
+			report.setRawResults(rawResultsPath.toAbsolutePath().toString());
+		}
+
+		return report;
+	}
+
+	private void follow() {
+		try (OutputStream rawOut = (rawResultsPath == null) ? null : new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(rawResultsPath), BUFFER_SIZE))) {
+			while (!Files.exists(resultsPath)) {
+				if (finished) {
+					LOGGER.warn("There is no results file {}!", resultsPath);
+					return;
+				}
+
+				Thread.sleep(POLL_INTERVAL_MILLIS);
+			}
+
+			try (Reader reader = new InputStreamReader(new FollowingInputStream(Files.newInputStream(resultsPath), rawOut), StandardCharsets.UTF_8)) {
+				aggregator.aggregate(reader);
+			}
+		} catch (Exception e) {
+			LOGGER.error("Error when collecting the results from " + resultsPath + "!", e);
+			failure = e;
+		}
+	}
+
+	/**
+	 * Reads a file that is still being written. At the end of the file, it waits for more data
+	 * until the collector is finished. All bytes read are copied to the raw results.
+	 */
+	private class FollowingInputStream extends InputStream {
+
+		private final InputStream in;
+
+		private final OutputStream rawOut;
+
+		private FollowingInputStream(InputStream in, OutputStream rawOut) {
+			this.in = in;
+			this.rawOut = rawOut;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+
+			while (true) {
+				boolean finishing = finished;
+				int read = in.read(b, off, len);
+
+				if (read > 0) {
+					if (rawOut != null) {
+						rawOut.write(b, off, read);
+					}
+
+					return read;
+				} else if (finishing) {
+					return -1;
+				}
+
+				try {
+					Thread.sleep(POLL_INTERVAL_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while following " + resultsPath + "!");
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.continuity.jmeter.transform;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -8,13 +9,13 @@ import org.apache.jmeter.protocol.http.sampler.HTTPSamplerProxy;
 import org.apache.jorphan.collections.HashTree;
 import org.apache.jorphan.collections.ListedHashTree;
 import org.apache.jorphan.collections.SearchByClass;
+import org.continuity.idpa.IdpaIndex;
 import org.continuity.idpa.WeakReference;
 import org.continuity.idpa.annotation.ApplicationAnnotation;
 import org.continuity.idpa.annotation.EndpointAnnotation;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.Endpoint;
 import org.continuity.idpa.application.HttpEndpoint;
-import org.continuity.idpa.visitor.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,13 @@ public abstract class AbstractSamplerAnnotator {
 		SearchByClass<HTTPSamplerProxy> search = new SearchByClass<>(HTTPSamplerProxy.class);
 		testPlan.traverse(search);
 
+		IdpaIndex systemIndex = IdpaIndex.of(getSystem());
+		Map<String, EndpointAnnotation> annotationPerEndpoint = new HashMap<>();
+
+		for (EndpointAnnotation ann : IdpaIndex.of(getAnnotation()).getByClass(EndpointAnnotation.class)) {
+			annotationPerEndpoint.putIfAbsent(ann.getAnnotatedEndpoint().getId(), ann);
+		}
+
 		for (HTTPSamplerProxy sampler : search.getSearchResults()) {
 			HashTree samplerTree = search.getSubTree(sampler);
 
@@ -56,9 +64,9 @@ public abstract class AbstractSamplerAnnotator {
 			
 			// remove prefix
 			if(endpointId.contains("#")) {
-				ann = FindBy.find(a -> Objects.equals(a.getAnnotatedEndpoint().getId(), endpointId.split("#")[1]), EndpointAnnotation.class).in(getAnnotation()).getFound();
+				ann = annotationPerEndpoint.get(endpointId.split("#")[1]);
 			} else {
-				ann = FindBy.find(a -> Objects.equals(a.getAnnotatedEndpoint().getId(), endpointId), EndpointAnnotation.class).in(getAnnotation()).getFound();
+				ann = annotationPerEndpoint.get(endpointId);
 			}
 
 			if (ann == null) {
@@ -69,7 +77,7 @@ public abstract class AbstractSamplerAnnotator {
 				ann.setAnnotatedEndpoint(WeakReference.create(Endpoint.GENERIC_TYPE, endpointId));
 			}
 
-			Endpoint<?> endpoint = ann.getAnnotatedEndpoint().resolve(getSystem());
+			Endpoint<?> endpoint = ann.getAnnotatedEndpoint().resolve(systemIndex);
 
 			if ((endpoint != null) && (endpoint instanceof HttpEndpoint)) {
 				annotateHttpSampler(sampler, (HttpEndpoint) endpoint, ann, samplerTree);
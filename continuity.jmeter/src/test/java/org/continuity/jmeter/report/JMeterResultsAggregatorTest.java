@@ -0,0 +1,170 @@
+package org.continuity.jmeter.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.continuity.jmeter.entities.JMeterReport;
+import org.continuity.jmeter.entities.SamplerSummary;
+import org.junit.Test;
+
+public class JMeterResultsAggregatorTest {
+
+	private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,grpThreads,allThreads,Latency,SampleCount,ErrorCount";
+
+	private static final String RESULTS = HEADER + "\n" //
+			+ "1500000000000,100,login,200,OK,Users 1-1,text,true,,1000,1,1,90,1,0\n" //
+			+ "1500000000500,300,login,500,Internal Server Error,Users 1-2,text,false,,200,2,2,290,1,1\n" //
+			+ "1500000001000,50,\"search, advanced\",200,OK,Users 1-1,text,true,,4000,2,2,40,1,0\n" //
+			+ "this,is,not,a,sample\n" //
+			+ "1500000001200,200,login,200,OK,Users 1-2,text,true,,1000,2,2,190,1,0\n";
+
+	private static final int NUM_SYNTHETIC_LINES = 10000000;
+
+	@Test
+	public void testSmallResults() throws IOException {
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new StringReader(RESULTS));
+
+		JMeterReport report = aggregator.createReport();
+
+		assertThat(aggregator.getNumMalformed()).isEqualTo(1);
+		assertThat(report.getStartTime()).isEqualTo(1500000000000L);
+		assertThat(report.getEndTime()).isEqualTo(1500000001400L);
+		assertThat(report.getSamplers()).extracting(SamplerSummary::getLabel).containsExactly("login", "search, advanced");
+		assertThat(report.getThroughput()).containsEntry(1500000000L, 2L).containsEntry(1500000001L, 2L).hasSize(2);
+
+		SamplerSummary login = report.getSampler("login");
+		assertThat(login.getNumSamples()).isEqualTo(3);
+		assertThat(login.getNumErrors()).isEqualTo(1);
+		assertThat(login.getBytes()).isEqualTo(2200);
+		assertThat(login.getMin()).isEqualTo(100);
+		assertThat(login.getMax()).isEqualTo(300);
+		assertThat(login.getP50()).isEqualTo(200);
+		assertThat(login.getMean()).isCloseTo(200, within(0.5));
+
+		SamplerSummary total = report.getTotal();
+		assertThat(total.getLabel()).isEqualTo(JMeterResultsAggregator.TOTAL_LABEL);
+		assertThat(total.getNumSamples()).isEqualTo(4);
+		assertThat(total.getBytes()).isEqualTo(6200);
+	}
+
+	@Test
+	public void testEncodedHistogram() throws IOException {
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new StringReader(RESULTS));
+
+		SamplerSummary login = aggregator.createReport().getSampler("login");
+
+		SamplerSummary deserialized = new SamplerSummary();
+		deserialized.setLabel(login.getLabel());
+		deserialized.setHistogram(login.getHistogram());
+
+		assertThat(deserialized.getPercentile(100)).isEqualTo(login.getPercentile(100)).isEqualTo(login.getMax());
+		assertThat(deserialized.getPercentile(50)).isEqualTo(login.getP50());
+	}
+
+	@Test
+	public void testWithoutHeader() throws IOException {
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new StringReader("1500000000000,100,login,200,OK,Users 1-1,text,true,,1000,0,1,1,90,1,0,0,10\n"));
+
+		SamplerSummary login = aggregator.createReport().getSampler("login");
+
+		assertThat(login.getNumSamples()).isEqualTo(1);
+		assertThat(login.getBytes()).isEqualTo(1000);
+	}
+
+	@Test
+	public void testMultiLineFields() throws IOException {
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new StringReader(HEADER + "\n" //
+				+ "1500000000000,100,login,500,Error,Users 1-1,text,false,\"Assertion failed:\nexpected 200\r\nbut was 500\",1000,1,1,90,1,1\n" //
+				+ "1500000000500,300,login,200,OK,Users 1-2,text,true,,200,2,2,290,1,0\n"));
+
+		JMeterReport report = aggregator.createReport();
+
+		assertThat(aggregator.getNumMalformed()).isEqualTo(0);
+		assertThat(report.getSamplers()).extracting(SamplerSummary::getLabel).containsExactly("login");
+		assertThat(report.getTotal().getNumSamples()).isEqualTo(2);
+		assertThat(report.getTotal().getNumErrors()).isEqualTo(1);
+		assertThat(report.getTotal().getBytes()).isEqualTo(1200);
+	}
+
+	/**
+	 * Replays 10 million samples that are generated on the fly rather than materialized.
+	 */
+	@Test
+	public void testManySamples() throws IOException {
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new SyntheticResultsReader(NUM_SYNTHETIC_LINES));
+
+		JMeterReport report = aggregator.createReport();
+
+		assertThat(report.getTotal().getNumSamples()).isEqualTo(NUM_SYNTHETIC_LINES);
+		assertThat(report.getTotal().getNumErrors()).isEqualTo(NUM_SYNTHETIC_LINES / 100);
+		assertThat(report.getSamplers()).hasSize(10);
+		assertThat(report.getThroughput()).hasSize(NUM_SYNTHETIC_LINES / 1000);
+		assertThat(report.getTotal().getP50()).isCloseTo(499, within(1L));
+		assertThat(report.getTotal().getP99()).isCloseTo(989, within(1L));
+		assertThat(aggregator.getNumMalformed()).isEqualTo(0);
+	}
+
+	/**
+	 * Generates a results CSV file with the specified number of samples on the fly. Sample
+	 * {@code i} has the label {@code sampler<i % 10>} and an elapsed time of {@code i % 1000}. 1%
+	 * of the samples failed and 1000 samples are started per second.
+	 */
+	private static class SyntheticResultsReader extends Reader {
+
+		private final int numLines;
+
+		private int nextLine = -1;
+
+		private String current = HEADER + "\n";
+
+		private int position = 0;
+
+		private SyntheticResultsReader(int numLines) {
+			this.numLines = numLines;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			int written = 0;
+
+			while (written < len) {
+				if (position == current.length()) {
+					nextLine++;
+
+					if (nextLine >= numLines) {
+						break;
+					}
+
+					current = line(nextLine);
+					position = 0;
+				}
+
+				int n = Math.min(len - written, current.length() - position);
+				current.getChars(position, position + n, cbuf, off + written);
+				position += n;
+				written += n;
+			}
+
+			return (written == 0) ? -1 : written;
+		}
+
+		private String line(int i) {
+			return (1500000000000L + i) + "," + (i % 1000) + ",sampler" + (i % 10) + ",200,OK,Users 1-1,text," + ((i % 100) != 0) + ",,1024,1,1,10,1,0\n";
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.continuity.jmeter.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.continuity.jmeter.entities.JMeterReport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JMeterResultsCollectorTest {
+
+	private static final String HEADER = "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,grpThreads,allThreads,Latency,SampleCount,ErrorCount\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFollowGrowingFile() throws Exception {
+		Path resultsPath = folder.getRoot().toPath().resolve("results.csv");
+		Path rawPath = folder.getRoot().toPath().resolve("raw.csv.gz");
+
+		JMeterResultsCollector collector = new JMeterResultsCollector(resultsPath, rawPath);
+		collector.start();
+
+		StringBuilder expected = new StringBuilder(HEADER);
+
+		try (OutputStream out = Files.newOutputStream(resultsPath)) {
+			out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+
+			for (int i = 0; i < 2000; i++) {
+				String line = (1500000000000L + (10 * i)) + "," + (i % 250) + ",sampler" + (i % 3) + ",200,OK,Users 1-1,text," + ((i % 7) != 0) + ",,512,1,1,10,1,0\n";
+				expected.append(line);
+
+				// Write the lines in two parts to test partially written lines
+				byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+				out.write(bytes, 0, bytes.length / 2);
+				out.flush();
+				out.write(bytes, bytes.length / 2, bytes.length - (bytes.length / 2));
+
+				if ((i % 500) == 0) {
+					Thread.sleep(600);
+				}
+			}
+		}
+
+		JMeterReport report = collector.finish();
+
+		JMeterResultsAggregator aggregator = new JMeterResultsAggregator();
+		aggregator.aggregate(new StringReader(expected.toString()));
+		JMeterReport expectedReport = aggregator.createReport();
+
+		assertThat(report.getTotal().getNumSamples()).isEqualTo(2000);
+		assertThat(report.getTotal()).isEqualToIgnoringGivenFields(expectedReport.getTotal(), "decodedHistogram");
+		assertThat(report.getThroughput()).isEqualTo(expectedReport.getThroughput());
+		assertThat(report.getRawResults()).isEqualTo(rawPath.toAbsolutePath().toString());
+
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(rawPath))) {
+			assertThat(IOUtils.toString(in, StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+		}
+	}
+
+	@Test
+	public void testMissingFile() throws IOException, InterruptedException {
+		JMeterResultsCollector collector = new JMeterResultsCollector(folder.getRoot().toPath().resolve("missing.csv"), null);
+		collector.start();
+
+		JMeterReport report = collector.finish();
+
+		assertThat(report.getTotal().getNumSamples()).isEqualTo(0);
+		assertThat(report.getRawResults()).isNull();
+	}
+
+}
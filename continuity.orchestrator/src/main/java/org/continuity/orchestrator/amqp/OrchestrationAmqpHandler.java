@@ -6,9 +6,10 @@ import org.continuity.api.amqp.AmqpApi;
 import org.continuity.api.entities.config.TaskDescription;
 import org.continuity.api.entities.report.OrderReport;
 import org.continuity.api.entities.report.TaskReport;
-import org.continuity.commons.storage.MemoryStorage;
+import org.continuity.commons.storage.BoundedMemoryStorage;
 import org.continuity.orchestrator.config.RabbitMqConfig;
 import org.continuity.orchestrator.entities.Recipe;
+import org.continuity.orchestrator.entities.RecipeStep;
 import org.continuity.orchestrator.storage.TestingContextStorage;
 import org.continuity.orchestrator.util.LoggingUtils;
 import org.slf4j.Logger;
@@ -27,7 +28,7 @@ public class OrchestrationAmqpHandler {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OrchestrationAmqpHandler.class);
 
 	@Autowired
-	private MemoryStorage<Recipe> storage;
+	private BoundedMemoryStorage<Recipe> storage;
 
 	@Autowired
 	@Qualifier("testingContextStorage")
@@ -44,24 +45,38 @@ public class OrchestrationAmqpHandler {
 		Recipe recipe = storage.get(recipeId);
 
 		if (recipe == null) {
-			LOGGER.error("Task [{}] There is no such recipe!", report.getTaskId());
+			LOGGER.error("Task [{}] There is no such recipe!", report.getTaskId());
 			return;
 		}
 
-		if (!report.isSuccessful()) {
-			LOGGER.warn("{} The report is errorenous: {}", LoggingUtils.formatPrefix(recipe.getOrderId(), recipeId), report.getError());
-			finishRecipe(OrderReport.asError(recipe.getOrderId(), recipe.getSource(), report.getError().toString()), recipeId);
-			return;
-		}
+		// Parallel steps of the same recipe can finish concurrently
+		synchronized (recipe) {
+			if (recipe.isFailed()) {
+				LOGGER.warn("{} Ignoring the report of task {}, because the recipe already failed.", LoggingUtils.formatPrefix(recipe.getOrderId(), recipeId), report.getTaskId());
+				return;
+			}
+
+			if (!report.isSuccessful()) {
+				LOGGER.warn("{} The report is errorenous: {}", LoggingUtils.formatPrefix(recipe.getOrderId(), recipeId), report.getError());
+				recipe.fail(report.getTaskId());
+				finishRecipe(withSteps(OrderReport.asError(recipe.getOrderId(), recipe.getSource(), report.getError().toString()), recipe), recipeId);
+				return;
+			}
 
-		recipe.updateFromReport(report);
+			if (!recipe.updateFromReport(report)) {
+				LOGGER.warn("{} Ignoring the report of unknown task {}.", LoggingUtils.formatPrefix(recipe.getOrderId(), recipeId), report.getTaskId());
+				return;
+			}
 
-		if (recipe.hasNext()) {
-			recipe.next().execute();
-		} else {
-			OrderReport orderReport = OrderReport.asSuccessful(recipe.getOrderId(), recipe.getTestingContext(), recipe.getSource());
-			storeToTestingContext(orderReport, recipeId, recipe.getTag());
-			finishRecipe(orderReport, recipeId);
+			for (RecipeStep step : recipe.nextReadySteps()) {
+				step.execute();
+			}
+
+			if (recipe.isFinished()) {
+				OrderReport orderReport = withSteps(OrderReport.asSuccessful(recipe.getOrderId(), recipe.getTestingContext(), recipe.getSource()), recipe);
+				storeToTestingContext(orderReport, recipeId, recipe.getTag());
+				finishRecipe(orderReport, recipeId);
+			}
 		}
 	}
 
@@ -77,7 +92,7 @@ public class OrchestrationAmqpHandler {
 		Recipe recipe = storage.get(recipeId);
 
 		if (recipe == null) {
-			LOGGER.error("Task [{}] There is no such recipe!", description.getTaskId());
+			LOGGER.error("Task [{}] There is no such recipe!", description.getTaskId());
 			return;
 		}
 
@@ -89,13 +104,25 @@ public class OrchestrationAmqpHandler {
 			error = "Service " + routingKey + " failed.";
 		}
 
-		finishRecipe(OrderReport.asError(recipe.getOrderId(), recipe.getSource(), error), recipeId);
+		synchronized (recipe) {
+			if (recipe.isFailed()) {
+				return;
+			}
+
+			recipe.fail(description.getTaskId());
+			finishRecipe(withSteps(OrderReport.asError(recipe.getOrderId(), recipe.getSource(), error), recipe), recipeId);
+		}
+	}
+
+	private OrderReport withSteps(OrderReport report, Recipe recipe) {
+		report.setSteps(recipe.getStepReports());
+		return report;
 	}
 
 	private void finishRecipe(OrderReport report, String recipeId) {
 		amqpTemplate.convertAndSend(AmqpApi.Orchestrator.EVENT_FINISHED.name(), AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of(report.getOrderId()), report);
 
-		storage.remove(report.getOrderId());
+		storage.remove(recipeId);
 
 		LOGGER.info("{} Sent recipe to finished queue.", LoggingUtils.formatPrefix(report.getOrderId(), recipeId));
 	}
@@ -0,0 +1,33 @@
+package org.continuity.orchestrator.amqp;
+
+import org.continuity.api.entities.report.OrderReport;
+import org.continuity.orchestrator.responses.OrderResponseRegistry;
+import org.continuity.orchestrator.util.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single consumer of the reports of all finished orders. Each orchestrator instance has its own
+ * response queue. Hence, reports of orders submitted to other instances are ignored.
+ */
+@Component
+public class OrderResponseAmqpHandler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderResponseAmqpHandler.class);
+
+	@Autowired
+	private OrderResponseRegistry responseRegistry;
+
+	@RabbitListener(queues = "#{orderResponseQueue.name}")
+	public void onOrderFinished(OrderReport report) {
+		if (responseRegistry.dispatch(report)) {
+			LOGGER.info("{} Received a report.", LoggingUtils.formatPrefix(report.getOrderId()));
+		} else {
+			LOGGER.debug("{} Ignoring the report of an unknown order.", LoggingUtils.formatPrefix(report.getOrderId()));
+		}
+	}
+
+}
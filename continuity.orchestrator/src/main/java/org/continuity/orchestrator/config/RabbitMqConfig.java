@@ -1,7 +1,11 @@
 package org.continuity.orchestrator.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.continuity.api.amqp.AmqpApi;
+import org.continuity.orchestrator.responses.OrderResponseRegistry;
 import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.MessagePostProcessor;
@@ -12,6 +16,7 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -32,6 +37,8 @@ public class RabbitMqConfig {
 
 	public static final String IDPA_ANNOTATION_MESSAGE_AVAILABLE_ROUTING_KEY = AmqpApi.IdpaAnnotation.EVENT_MESSAGE.formatRoutingKey().of("report");
 
+	public static final String ORDER_RESPONSE_ROUTING_KEY = AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of("#");
+
 	public static final String EVENT_FAILED_QUEUE_NAME = "continuity.orchestrator.event.global.failed";
 
 	public static final String DEAD_LETTER_QUEUE_NAME = AmqpApi.DEAD_LETTER_EXCHANGE.deriveQueueName(SERVICE_NAME);
@@ -95,6 +102,26 @@ public class RabbitMqConfig {
 		return AmqpApi.Orchestrator.EVENT_FINISHED.create();
 	}
 
+	/**
+	 * The queue receiving the reports of all orders. It is exclusive to the instance and deleted
+	 * when the instance stops. Reports of orders submitted to other instances are ignored, so
+	 * the orchestrator has to be operated as a single instance.
+	 */
+	@Bean
+	Queue orderResponseQueue() {
+		return new AnonymousQueue();
+	}
+
+	@Bean
+	Binding orderResponseBinding() {
+		return BindingBuilder.bind(orderResponseQueue()).to(eventRecipeFinishedExchange()).with(ORDER_RESPONSE_ROUTING_KEY);
+	}
+
+	@Bean
+	OrderResponseRegistry orderResponseRegistry(@Value("${orders.responses.ttl-hours:24}") long timeToLiveHours) {
+		return new OrderResponseRegistry(timeToLiveHours, TimeUnit.HOURS);
+	}
+
 	@Bean
 	Queue eventFailedQueue() {
 		return QueueBuilder.nonDurable(EVENT_FAILED_QUEUE_NAME).withArgument(AmqpApi.DEAD_LETTER_EXCHANGE_KEY, AmqpApi.DEAD_LETTER_EXCHANGE.name())
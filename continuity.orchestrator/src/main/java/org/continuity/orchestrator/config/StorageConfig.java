@@ -1,10 +1,17 @@
 package org.continuity.orchestrator.config;
 
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
-import org.continuity.commons.storage.MemoryStorage;
+import org.continuity.api.amqp.AmqpApi;
+import org.continuity.api.entities.report.OrderReport;
+import org.continuity.commons.storage.BoundedMemoryStorage;
 import org.continuity.orchestrator.entities.Recipe;
 import org.continuity.orchestrator.storage.TestingContextStorage;
+import org.continuity.orchestrator.util.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,10 +20,35 @@ import org.springframework.context.annotation.Primary;
 @Configuration
 public class StorageConfig {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(StorageConfig.class);
+
+	/**
+	 * Recipes are removed once they are finished. Recipes that are evicted or expire before are
+	 * still in progress. Hence, their orders are failed, as they could not be continued anymore.
+	 */
 	@Bean
 	@Primary
-	public MemoryStorage<Recipe> recipeStorage() {
-		return new MemoryStorage<>(Recipe.class);
+	public BoundedMemoryStorage<Recipe> recipeStorage(@Value("${storage.recipes.max-entries:10000}") int maxEntries, @Value("${storage.recipes.ttl-hours:24}") long timeToLiveHours,
+			AmqpTemplate amqpTemplate) {
+		return new BoundedMemoryStorage<>(Recipe.class).withMaxEntries(maxEntries).withDefaultTimeToLive(timeToLiveHours, TimeUnit.HOURS)
+				.withRemovalListener((recipeId, recipe) -> failAbandonedRecipe(recipeId, recipe, amqpTemplate));
+	}
+
+	private void failAbandonedRecipe(String recipeId, Recipe recipe, AmqpTemplate amqpTemplate) {
+		OrderReport report;
+
+		synchronized (recipe) {
+			if (recipe.isFailed()) {
+				return;
+			}
+
+			report = OrderReport.asError(recipe.getOrderId(), recipe.getSource(), "The order has been aborted, as its recipe expired or has been evicted.");
+			report.setSteps(recipe.getStepReports());
+		}
+
+		amqpTemplate.convertAndSend(AmqpApi.Orchestrator.EVENT_FINISHED.name(), AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of(report.getOrderId()), report);
+
+		LOGGER.warn("{} The recipe expired or has been evicted. Failed the order.", LoggingUtils.formatPrefix(recipe.getOrderId(), recipeId));
 	}
 
 	@Bean
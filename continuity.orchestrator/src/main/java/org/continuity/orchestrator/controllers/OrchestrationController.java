@@ -9,9 +9,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -36,6 +38,7 @@ import org.continuity.api.entities.links.WorkloadModelLinks;
 import org.continuity.api.entities.report.OrderReport;
 import org.continuity.api.entities.report.OrderResponse;
 import org.continuity.api.rest.RestApi;
+import org.continuity.commons.storage.BoundedMemoryStorage;
 import org.continuity.commons.storage.MemoryStorage;
 import org.continuity.commons.utils.WebUtils;
 import org.continuity.dsl.description.ForecastInput;
@@ -45,20 +48,17 @@ import org.continuity.orchestrator.entities.OrderReportCounter;
 import org.continuity.orchestrator.entities.Recipe;
 import org.continuity.orchestrator.entities.RecipeStep;
 import org.continuity.orchestrator.orders.OrderCycleManager;
+import org.continuity.orchestrator.responses.OrderResponseRegistry;
 import org.continuity.orchestrator.storage.TestingContextStorage;
 import org.continuity.orchestrator.util.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpIOException;
 import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.core.Queue;
-import org.springframework.amqp.rabbit.connection.Connection;
-import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitManagementTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -66,8 +66,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import com.rabbitmq.client.Channel;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping(ROOT)
@@ -78,7 +77,7 @@ public class OrchestrationController {
 	private final MemoryStorage<OrderReportCounter> orderCounterStorage = new MemoryStorage<>(OrderReportCounter.class);
 
 	@Autowired
-	private MemoryStorage<Recipe> recipeStorage;
+	private BoundedMemoryStorage<Recipe> recipeStorage;
 
 	@Autowired
 	@Qualifier("testingContextStorage")
@@ -90,7 +89,7 @@ public class OrchestrationController {
 	private AmqpTemplate amqpTemplate;
 
 	@Autowired
-	private ConnectionFactory connectionFactory;
+	private OrderResponseRegistry responseRegistry;
 
 	@Value("${spring.rabbitmq.host}")
 	private String rabbitHost;
@@ -126,7 +125,7 @@ public class OrchestrationController {
 				return ResponseEntity.badRequest().body(Collections.singletonMap("error", "No sources found for testing-context " + order.getTestingContext()));
 			}
 
-			declareResponseQueue(orderId);
+			responseRegistry.register(orderId);
 			orderCounterStorage.putToReserved(orderId, new OrderReportCounter(orderId, numRecipes));
 
 			for (Map.Entry<Set<String>, Set<LinkExchangeModel>> entry : sources.entrySet()) {
@@ -135,7 +134,7 @@ public class OrchestrationController {
 				}
 			}
 		} else {
-			declareResponseQueue(orderId);
+			responseRegistry.register(orderId);
 			orderCounterStorage.putToReserved(orderId, new OrderReportCounter(orderId, 1));
 
 			createAndSubmitRecipe(orderId, order.getTag(), order.getGoal(), order.getMode(), order.getOptions(),  order.getForecastInput(), order.getTestingContext(), order.getSource(), order.getModularizationOptions());
@@ -174,61 +173,118 @@ public class OrchestrationController {
 
 		String recipeId = recipeStorage.reserve(tag);
 		List<RecipeStep> recipeSteps = new ArrayList<>();
+		Map<OrderGoal, RecipeStep> stepPerGoal = new HashMap<>();
+		Map<RecipeStep, List<RecipeStep>> requiredSteps = new HashMap<>();
 
 		for (OrderGoal subGoal : orderCycleManager.getCycle(mode, goal)) {
-			recipeSteps.add(createRecipeStep(orderId, recipeId, tag, subGoal, options));
+			RecipeStep step = createRecipeStep(orderId, recipeId, tag, subGoal, options);
+			List<RecipeStep> required = new ArrayList<>();
+
+			for (OrderGoal requiredGoal : orderCycleManager.getRequiredGoals(mode, subGoal)) {
+				required.add(stepPerGoal.get(requiredGoal));
+			}
+
+			recipeSteps.add(step);
+			stepPerGoal.put(subGoal, step);
+			requiredSteps.put(step, required);
 		}
 
 		LOGGER.info("{} Processing new recipe with goal {}...", LoggingUtils.formatPrefix(orderId, recipeId), goal);
 
-		Recipe recipe = new Recipe(orderId, recipeId, tag, recipeSteps, source, useTestingContext, testingContext, options, modularizationOptions, forecastInput);
+		Recipe recipe = new Recipe(orderId, recipeId, tag, recipeSteps, requiredSteps, source, useTestingContext, testingContext, options, modularizationOptions, forecastInput);
 
-		if (recipe.hasNext()) {
-			recipeStorage.putToReserved(recipeId, recipe);
+		if (recipe.isFinished()) {
+			LOGGER.info("{} No tasks required.", LoggingUtils.formatPrefix(orderId, recipeId));
 
-			recipe.next().execute();
+			OrderReport report = OrderReport.asSuccessful(orderId, testingContext, recipe.getSource());
+			report.setSteps(recipe.getStepReports());
+
+			amqpTemplate.convertAndSend(AmqpApi.Orchestrator.EVENT_FINISHED.name(), AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of(orderId), report);
 		} else {
-			LOGGER.info("{} No tasks required.", LoggingUtils.formatPrefix(orderId, recipeId));
+			recipeStorage.putToReserved(recipeId, recipe);
 
-			amqpTemplate.convertAndSend(AmqpApi.Orchestrator.EVENT_FINISHED.name(), AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of(orderId),
-					OrderReport.asSuccessful(orderId, testingContext, recipe.getSource()));
+			synchronized (recipe) {
+				for (RecipeStep step : recipe.nextReadySteps()) {
+					step.execute();
+				}
+			}
 		}
 	}
 
+	/**
+	 * Waits for the next report of an order without blocking the request thread. If no report
+	 * is available before the timeout, {@code 204 No Content} is returned.
+	 */
 	@RequestMapping(path = WAIT, method = RequestMethod.GET)
-	public ResponseEntity<OrderReport> waitUntilFinished(@PathVariable("id") String orderId, @RequestParam long timeout, HttpServletRequest servletRequest) {
+	public DeferredResult<ResponseEntity<OrderReport>> waitUntilFinished(@PathVariable("id") String orderId, @RequestParam long timeout, HttpServletRequest servletRequest) {
 		LOGGER.info("{} Waiting {} ms for the result to be created", LoggingUtils.formatPrefix(orderId), timeout);
 
-		OrderReport report;
-		try {
-			report = amqpTemplate.receiveAndConvert(getResponseQueueName(orderId), timeout, ParameterizedTypeReference.forType(OrderReport.class));
-		} catch (AmqpIOException e) {
-			LOGGER.error("{} Cannot wait for not existing response queue of recipe {}", LoggingUtils.formatPrefix(orderId));
-			LOGGER.error("Exception:", e);
+		// A servlet timeout of 0 means no timeout at all
+		if (timeout <= 0) {
+			DeferredResult<ResponseEntity<OrderReport>> result = new DeferredResult<>();
+			result.setResult(getResultWithoutWaiting(orderId, servletRequest));
+			return result;
+		}
 
-			return ResponseEntity.badRequest().body(OrderReport.asError(orderId, null, "There is no such order!"));
+		DeferredResult<ResponseEntity<OrderReport>> result = new DeferredResult<>(timeout);
+		CompletableFuture<OrderReport> report = responseRegistry.next(orderId);
+
+		if (report == null) {
+			result.setResult(noSuchOrder(orderId));
+			return result;
 		}
 
-		if (report != null) {
-			OrderReportCounter reportCounter = orderCounterStorage.get(orderId);
-			int reportNumber = reportCounter.nextReportNumber();
+		String host = servletRequest.getServerName() + ":" + servletRequest.getServerPort();
+		CompletableFuture<ResponseEntity<OrderReport>> response = report.thenApply(r -> createResponse(orderId, r, host));
+		response.thenAccept(result::setResult);
 
-			if (reportNumber == reportCounter.getNumReports()) {
-				deleteResponseQueue(orderId);
-				LOGGER.info("{} Returning report number {}/{}. Therefore, deleting the response queue.", LoggingUtils.formatPrefix(orderId), reportNumber, reportCounter.getNumReports());
-			}
+		result.onTimeout(() -> result.setResult(responseIfPresent(orderId, report, response)));
+		result.onCompletion(() -> responseRegistry.cancel(orderId, report));
 
-			report.setCreatedArtifacts(transfromToExternalLinks(report.getInternalArtifacts(), servletRequest.getServerName() + ":" + servletRequest.getServerPort()));
-			report.setNumber(reportNumber);
-			report.setMax(reportCounter.getNumReports());
+		return result;
+	}
 
-			LOGGER.info("{} Report is ready.", LoggingUtils.formatPrefix(orderId));
-			return ResponseEntity.ok(report);
-		} else {
-			LOGGER.info("{} Report is not ready yet.", LoggingUtils.formatPrefix(orderId));
+	/**
+	 * Creates the response from a report. Has to be called exactly once per report, as it counts
+	 * the returned reports.
+	 */
+	private ResponseEntity<OrderReport> createResponse(String orderId, OrderReport report, String host) {
+		if (report == null) {
+			return noSuchOrder(orderId);
+		}
+
+		OrderReportCounter reportCounter = orderCounterStorage.get(orderId);
+		int reportNumber = reportCounter.nextReportNumber();
+
+		if (reportNumber == reportCounter.getNumReports()) {
+			responseRegistry.remove(orderId);
+			LOGGER.info("{} Returning report number {}/{}. Therefore, removing the order from the response registry.", LoggingUtils.formatPrefix(orderId), reportNumber,
+					reportCounter.getNumReports());
+		}
+
+		report.setCreatedArtifacts(transfromToExternalLinks(report.getInternalArtifacts(), host));
+		report.setNumber(reportNumber);
+		report.setMax(reportCounter.getNumReports());
 
+		LOGGER.info("{} Report is ready.", LoggingUtils.formatPrefix(orderId));
+		return ResponseEntity.ok(report);
+	}
+
+	/**
+	 * Stops waiting for the report. If it has arrived meanwhile, it is returned nevertheless.
+	 */
+	private ResponseEntity<OrderReport> responseIfPresent(String orderId, CompletableFuture<OrderReport> report, CompletableFuture<ResponseEntity<OrderReport>> response) {
+		if (responseRegistry.cancel(orderId, report)) {
+			LOGGER.info("{} Report is not ready yet.", LoggingUtils.formatPrefix(orderId));
 			return ResponseEntity.noContent().build();
 		}
+
+		return response.join();
+	}
+
+	private ResponseEntity<OrderReport> noSuchOrder(String orderId) {
+		LOGGER.error("{} Cannot wait for a not existing order.", LoggingUtils.formatPrefix(orderId));
+		return ResponseEntity.badRequest().body(OrderReport.asError(orderId, null, "There is no such order!"));
 	}
 
 	private <S, T> Function<LinkExchangeModel, Boolean> isPresent(Function<LinkExchangeModel, S> getLinksObject, Function<S, T> getLink) {
@@ -247,7 +303,15 @@ public class OrchestrationController {
 	@RequestMapping(path = RESULT, method = RequestMethod.GET)
 	public ResponseEntity<OrderReport> getResultWithoutWaiting(@PathVariable("id") String orderId, HttpServletRequest servletRequest) {
 		LOGGER.info("{} Trying to get result without waiting...", LoggingUtils.formatPrefix(orderId));
-		return waitUntilFinished(orderId, 0, servletRequest);
+
+		CompletableFuture<OrderReport> report = responseRegistry.next(orderId);
+
+		if (report == null) {
+			return noSuchOrder(orderId);
+		}
+
+		String host = servletRequest.getServerName() + ":" + servletRequest.getServerPort();
+		return responseIfPresent(orderId, report, report.thenApply(r -> createResponse(orderId, r, host)));
 	}
 
 	private RecipeStep createRecipeStep(String orderId, String recipeId, String tag, OrderGoal goal, OrderOptions options) {
@@ -343,39 +407,6 @@ public class OrchestrationController {
 		}
 	}
 
-	private void declareResponseQueue(String orderId) {
-		try {
-			Connection connection = connectionFactory.createConnection();
-			Channel channel = connection.createChannel(false);
-
-			String queueName = getResponseQueueName(orderId);
-			channel.queueDeclare(queueName, false, false, false, Collections.emptyMap());
-			channel.queueBind(queueName, AmqpApi.Orchestrator.EVENT_FINISHED.name(), AmqpApi.Orchestrator.EVENT_FINISHED.formatRoutingKey().of(orderId));
-
-			LOGGER.info("{} Declared a response queue.", LoggingUtils.formatPrefix(orderId));
-		} catch (IOException e) {
-			LOGGER.error("Could not create a response queue!", e);
-		}
-	}
-
-	private void deleteResponseQueue(String orderId) {
-		try {
-			Connection connection = connectionFactory.createConnection();
-			Channel channel = connection.createChannel(false);
-
-			String queueName = getResponseQueueName(orderId);
-			channel.queueDelete(queueName);
-
-			LOGGER.info("{} Deleted the response queue.", LoggingUtils.formatPrefix(orderId));
-		} catch (IOException e) {
-			LOGGER.error("Could not create a response queue!", e);
-		}
-	}
-
-	private String getResponseQueueName(String orderId) {
-		return AmqpApi.Orchestrator.EVENT_FINISHED.deriveQueueName(orderId);
-	}
-
 	private LinkExchangeModel transfromToExternalLinks(LinkExchangeModel internal, String host) {
 		LinkExchangeModel external = new LinkExchangeModel();
 
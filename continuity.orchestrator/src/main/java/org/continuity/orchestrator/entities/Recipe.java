@@ -1,7 +1,12 @@
 package org.continuity.orchestrator.entities;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.continuity.api.entities.config.ModularizationOptions;
@@ -9,16 +14,26 @@ import org.continuity.api.entities.config.OrderOptions;
 import org.continuity.api.entities.config.PropertySpecification;
 import org.continuity.api.entities.config.TaskDescription;
 import org.continuity.api.entities.links.LinkExchangeModel;
+import org.continuity.api.entities.report.StepReport;
+import org.continuity.api.entities.report.StepReport.StepState;
 import org.continuity.api.entities.report.TaskReport;
 import org.continuity.dsl.description.ForecastInput;
 
+/**
+ * A recipe holds the steps required for processing an order as a directed acyclic graph. Each
+ * step is executed as soon as all steps it requires are finished. Hence, independent steps run
+ * in parallel. <br>
+ *
+ * Steps the data of which is already present are skipped, as well as all steps only required by
+ * skipped steps. All methods changing the state are synchronized.
+ */
 public class Recipe {
 
 	private final String orderId;
 
 	private final String recipeId;
 
-	private final ListIterator<RecipeStep> iterator;
+	private final Map<RecipeStep, StepNode> nodes = new LinkedHashMap<>();
 
 	private int stepCounter = 1;
 
@@ -27,7 +42,7 @@ public class Recipe {
 	private LinkExchangeModel source;
 
 	private PropertySpecification properties;
-	
+
 	private ForecastInput forecastInput;
 
 	private final boolean longTermUse;
@@ -36,18 +51,49 @@ public class Recipe {
 
 	private ModularizationOptions modularizationOptions;
 
-	public Recipe(String orderId, String recipeId, String tag, List<RecipeStep> steps, LinkExchangeModel source, boolean longTermUse, Set<String> testingContext, OrderOptions options,
-			ModularizationOptions modularizationOptions, ForecastInput forecastInput) {
+	private boolean failed = false;
+
+	/**
+	 * Creates a new recipe.
+	 *
+	 * @param steps
+	 *            The steps in topological order, i.e., each step is listed after all steps it
+	 *            requires.
+	 * @param requiredSteps
+	 *            The steps directly required by each step. Steps without entry do not require
+	 *            any other step.
+	 */
+	public Recipe(String orderId, String recipeId, String tag, List<RecipeStep> steps, Map<RecipeStep, ? extends Collection<RecipeStep>> requiredSteps, LinkExchangeModel source,
+			boolean longTermUse, Set<String> testingContext, OrderOptions options, ModularizationOptions modularizationOptions, ForecastInput forecastInput) {
 		this.orderId = orderId;
 		this.recipeId = recipeId;
-		this.iterator = steps.listIterator(steps.size());
 		this.tag = tag;
 		this.source = source;
 		this.longTermUse = longTermUse;
 		this.testingContext = testingContext;
 		this.modularizationOptions = modularizationOptions;
 		this.setForecastInput(forecastInput);
-		initIterator(source);
+
+		for (RecipeStep step : steps) {
+			StepNode node = new StepNode(step);
+
+			Collection<RecipeStep> requiredByStep = requiredSteps.get(step);
+
+			for (RecipeStep required : (requiredByStep == null) ? Collections.<RecipeStep> emptySet() : requiredByStep) {
+				StepNode requiredNode = nodes.get(required);
+
+				if (requiredNode == null) {
+					throw new IllegalArgumentException("The steps are not in topological order: " + step.getName() + " requires " + required.getName() + ", which is not listed before.");
+				}
+
+				node.required.add(requiredNode);
+				requiredNode.dependent.add(node);
+			}
+
+			nodes.put(step, node);
+		}
+
+		initStates(source);
 
 		if (options != null) {
 			this.properties = options.toProperties();
@@ -70,50 +116,160 @@ public class Recipe {
 		return tag;
 	}
 
-	public boolean hasNext() {
-		return iterator.hasNext();
-	}
-
 	public Set<String> getTestingContext() {
 		return testingContext;
 	}
 
-	public RecipeStep next() {
-		RecipeStep nextStep = iterator.next();
+	/**
+	 * Gets all steps that can be executed now, i.e., the steps that are not started yet and the
+	 * required steps of which are finished or skipped. The returned steps are marked as running
+	 * and have their task assigned.
+	 *
+	 * @return The steps ready to be executed. Empty if there are none.
+	 */
+	public synchronized List<RecipeStep> nextReadySteps() {
+		if (failed) {
+			return Collections.emptyList();
+		}
+
+		List<RecipeStep> ready = new ArrayList<>();
 
-		String taskId = recipeId + "." + stepCounter++ + "-" + nextStep.getName();
-		TaskDescription task = new TaskDescription();
-		task.setTaskId(taskId);
-		task.setTag(tag);
-		task.setSource(source);
-		task.setProperties(properties);
-		task.setForecastInput(forecastInput);
-		task.setLongTermUse(longTermUse);
-		task.setModularizationOptions(modularizationOptions);
+		for (StepNode node : nodes.values()) {
+			if ((node.state == StepState.PENDING) && node.isReady()) {
+				String taskId = recipeId + "." + stepCounter++ + "-" + node.step.getName();
+				TaskDescription task = new TaskDescription();
+				task.setTaskId(taskId);
+				task.setTag(tag);
+				task.setSource(source);
+				task.setProperties(properties);
+				task.setForecastInput(forecastInput);
+				task.setLongTermUse(longTermUse);
+				task.setModularizationOptions(modularizationOptions);
 
-		nextStep.setTask(task);
+				node.step.setTask(task);
+				node.taskId = taskId;
+				node.state = StepState.RUNNING;
+				node.startTime = System.currentTimeMillis();
 
-		return nextStep;
+				ready.add(node.step);
+			}
+		}
+
+		return ready;
 	}
 
-	public void updateFromReport(TaskReport report) {
+	/**
+	 * Marks the step of the reported task as finished and merges the result into the source.
+	 *
+	 * @param report
+	 *            The report of a successful task.
+	 * @return {@code true} if the task belonged to a running step of this recipe or
+	 *         {@code false}, otherwise.
+	 */
+	public synchronized boolean updateFromReport(TaskReport report) {
+		StepNode node = getRunningNode(report.getTaskId());
+
+		if (node == null) {
+			return false;
+		}
+
+		node.state = StepState.FINISHED;
+		node.endTime = System.currentTimeMillis();
+
 		source.merge(report.getResult());
+
+		return true;
 	}
 
-	private void initIterator(LinkExchangeModel source) {
-		while (iterator.hasPrevious()) {
-			boolean stop = iterator.previous().checkData(source);
+	/**
+	 * Marks the recipe and the step of the task as failed. All steps that have not been started
+	 * yet won't be executed.
+	 *
+	 * @param taskId
+	 *            The ID of the failed task.
+	 */
+	public synchronized void fail(String taskId) {
+		StepNode node = getRunningNode(taskId);
 
-			if (stop) {
-				if (iterator.hasNext()) {
-					iterator.next();
-				}
+		if (node != null) {
+			node.state = StepState.FAILED;
+			node.endTime = System.currentTimeMillis();
+		}
 
-				return;
+		failed = true;
+	}
+
+	public synchronized boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Determines whether all steps are finished or skipped.
+	 *
+	 * @return {@code true} if the recipe is finished.
+	 */
+	public synchronized boolean isFinished() {
+		if (failed) {
+			return false;
+		}
+
+		for (StepNode node : nodes.values()) {
+			if ((node.state != StepState.FINISHED) && (node.state != StepState.SKIPPED)) {
+				return false;
 			}
 		}
+
+		return true;
 	}
-	
+
+	/**
+	 * Gets reports of all steps in topological order.
+	 *
+	 * @return The step reports.
+	 */
+	public synchronized List<StepReport> getStepReports() {
+		List<StepReport> reports = new ArrayList<>(nodes.size());
+
+		for (StepNode node : nodes.values()) {
+			reports.add(new StepReport(node.step.getName(), node.taskId, node.state, node.startTime, node.endTime));
+		}
+
+		return reports;
+	}
+
+	private StepNode getRunningNode(String taskId) {
+		for (StepNode node : nodes.values()) {
+			if ((node.state == StepState.RUNNING) && node.taskId.equals(taskId)) {
+				return node;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Determines the steps to be executed. Going backwards through the topological order, a step
+	 * is needed if it is a final step or if a needed step requires it. A needed step is skipped if
+	 * its data is already present. Steps that are not needed are skipped, too.
+	 *
+	 * @param source
+	 */
+	private void initStates(LinkExchangeModel source) {
+		List<StepNode> ordered = new ArrayList<>(nodes.values());
+		ListIterator<StepNode> iterator = ordered.listIterator(ordered.size());
+
+		while (iterator.hasPrevious()) {
+			StepNode node = iterator.previous();
+			boolean needed = node.dependent.isEmpty() || node.dependent.stream().anyMatch(d -> d.state == StepState.PENDING);
+
+			if (needed && !node.step.checkData(source)) {
+				node.state = StepState.PENDING;
+			} else {
+				node.state = StepState.SKIPPED;
+			}
+		}
+	}
+
 	public ForecastInput getForecastInput() {
 		return forecastInput;
 	}
@@ -122,4 +278,36 @@ public class Recipe {
 		this.forecastInput = forecastInput;
 	}
 
+	private static class StepNode {
+
+		private final RecipeStep step;
+
+		private final List<StepNode> required = new ArrayList<>();
+
+		private final List<StepNode> dependent = new ArrayList<>();
+
+		private StepState state;
+
+		private String taskId;
+
+		private Long startTime;
+
+		private Long endTime;
+
+		private StepNode(RecipeStep step) {
+			this.step = step;
+		}
+
+		private boolean isReady() {
+			for (StepNode node : required) {
+				if ((node.state != StepState.FINISHED) && (node.state != StepState.SKIPPED)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+	}
+
 }
@@ -2,6 +2,7 @@ package org.continuity.orchestrator.orders;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,7 +15,9 @@ import org.continuity.api.entities.config.OrderGoal;
 import org.continuity.api.entities.config.OrderMode;
 
 /**
- * Manages possible cycles through the pipeline.
+ * Manages possible cycles through the pipeline. Within a cycle, each goal requires the previous
+ * one, unless explicitly defined otherwise via {@link #requires(OrderMode, OrderGoal, OrderGoal...)}.
+ * Hence, a cycle is a directed acyclic graph of goals, the order of which is a topological order.
  *
  * @author Henning Schulz
  *
@@ -23,6 +26,8 @@ public class OrderCycleManager {
 
 	private final Map<OrderMode, Set<OrderCycle>> cycles = new HashMap<>();
 
+	private final Map<OrderMode, Map<OrderGoal, Set<OrderGoal>>> requirements = new HashMap<>();
+
 	/**
 	 * Initializes the manager by defining the possible cycles.
 	 */
@@ -30,6 +35,11 @@ public class OrderCycleManager {
 		cycle(OrderMode.PAST_SESSIONS, OrderGoal.CREATE_SESSION_LOGS, OrderGoal.CREATE_WORKLOAD_MODEL, OrderGoal.CREATE_LOAD_TEST, OrderGoal.EXECUTE_LOAD_TEST);
 		cycle(OrderMode.PAST_REQUESTS, OrderGoal.CREATE_WORKLOAD_MODEL, OrderGoal.CREATE_LOAD_TEST, OrderGoal.EXECUTE_LOAD_TEST);
 		cycle(OrderMode.FORECASTED_WORKLOAD, OrderGoal.CREATE_SESSION_LOGS, OrderGoal.CREATE_BEHAVIOR_MIX, OrderGoal.CREATE_FORECAST, OrderGoal.CREATE_WORKLOAD_MODEL, OrderGoal.CREATE_LOAD_TEST, OrderGoal.EXECUTE_LOAD_TEST);
+
+		// The WESSBAS model is created from the behavior mix and the forecast. As the forecast is
+		// computed from the sessions bundles of the behavior mix, this is no parallel branch. All
+		// goals of the current cycles depend on each other and are executed one after the other.
+		requires(OrderMode.FORECASTED_WORKLOAD, OrderGoal.CREATE_WORKLOAD_MODEL, OrderGoal.CREATE_BEHAVIOR_MIX, OrderGoal.CREATE_FORECAST);
 	}
 
 	/**
@@ -50,6 +60,43 @@ public class OrderCycleManager {
 		cyclesForMode.add(new OrderCycle(mode, Arrays.asList(goals)));
 	}
 
+	/**
+	 * Defines the goals required by a goal in a mode, replacing the previous goal in the cycle.
+	 * The required goals have to be contained in the same cycle before the goal.
+	 *
+	 * @param mode
+	 * @param goal
+	 * @param requiredGoals
+	 */
+	private void requires(OrderMode mode, OrderGoal goal, OrderGoal... requiredGoals) {
+		requirements.computeIfAbsent(mode, m -> new HashMap<>()).put(goal, new HashSet<>(Arrays.asList(requiredGoals)));
+	}
+
+	/**
+	 * Gets the goals directly required by a goal in a mode. That is, if the cycle is A->B->C, C
+	 * requires B unless defined otherwise.
+	 *
+	 * @param mode
+	 * @param goal
+	 * @return The required goals. Empty if the goal is the first one in its cycle or is not
+	 *         contained in any cycle of the mode.
+	 */
+	public Set<OrderGoal> getRequiredGoals(OrderMode mode, OrderGoal goal) {
+		Map<OrderGoal, Set<OrderGoal>> requirementsForMode = requirements.get(mode);
+
+		if ((requirementsForMode != null) && requirementsForMode.containsKey(goal)) {
+			return requirementsForMode.get(goal);
+		}
+
+		List<OrderGoal> cycle = getCycle(mode, goal);
+
+		if ((cycle == null) || (cycle.size() < 2)) {
+			return Collections.emptySet();
+		} else {
+			return Collections.singleton(cycle.get(cycle.size() - 2));
+		}
+	}
+
 	/**
 	 * Gets the cycle to reach a goal in a mode. That is, if the goal is C and there is a cycle
 	 * A->B->C->D for the mode, A->B->C will be returned.
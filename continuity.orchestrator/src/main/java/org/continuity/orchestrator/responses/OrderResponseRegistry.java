@@ -0,0 +1,250 @@
+package org.continuity.orchestrator.responses;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.continuity.api.entities.report.OrderReport;
+
+/**
+ * Dispatches the reports of finished orders to the requests waiting for them. All reports are
+ * received by one consumer and passed to {@link #dispatch(OrderReport)}, so that no queue or
+ * connection per order is required. Waiting does not block a thread. Instead, each request gets
+ * a future that is completed with the next report of the order. Reports arriving while nobody is
+ * waiting are kept until they are requested. Orders nobody waited for within the time to live
+ * are removed, as their reports might never be requested. <br>
+ *
+ * The registry only knows the orders submitted to this orchestrator instance, as do the recipes
+ * and report counters. Hence, the orchestrator is meant to be operated as a single instance.
+ */
+public class OrderResponseRegistry {
+
+	private static final long CLEAN_UP_INTERVAL_MILLIS = 60000;
+
+	private final ConcurrentMap<String, PendingOrder> orders = new ConcurrentHashMap<>();
+
+	private final long timeToLive;
+
+	private final LongSupplier clock;
+
+	private volatile long lastCleanUp;
+
+	/**
+	 * Creates a registry without expiration of orders.
+	 */
+	public OrderResponseRegistry() {
+		this(Long.MAX_VALUE, System::currentTimeMillis);
+	}
+
+	/**
+	 * Creates a registry removing orders that have not been accessed within the time to live and
+	 * nobody is waiting for.
+	 *
+	 * @param duration
+	 *            The time to live.
+	 * @param unit
+	 *            The unit of the duration.
+	 */
+	public OrderResponseRegistry(long duration, TimeUnit unit) {
+		this(unit.toMillis(duration), System::currentTimeMillis);
+	}
+
+	/**
+	 * Intended for testing.
+	 */
+	OrderResponseRegistry(long timeToLiveMillis, LongSupplier clock) {
+		this.timeToLive = timeToLiveMillis;
+		this.clock = clock;
+		this.lastCleanUp = clock.getAsLong();
+	}
+
+	/**
+	 * Registers an order. Only reports of registered orders are dispatched.
+	 *
+	 * @param orderId
+	 *            The order ID.
+	 */
+	public void register(String orderId) {
+		long now = clock.getAsLong();
+
+		if (now - lastCleanUp >= CLEAN_UP_INTERVAL_MILLIS) {
+			removeExpired(now);
+		}
+
+		orders.putIfAbsent(orderId, new PendingOrder(now));
+	}
+
+	/**
+	 * Removes an order. Requests still waiting for it are completed with {@code null}.
+	 *
+	 * @param orderId
+	 *            The order ID.
+	 */
+	public void remove(String orderId) {
+		PendingOrder order = orders.remove(orderId);
+
+		if (order != null) {
+			clear(order);
+		}
+	}
+
+	/**
+	 * Removes all orders that have not been accessed within the time to live and nobody is
+	 * waiting for.
+	 */
+	public void cleanUp() {
+		removeExpired(clock.getAsLong());
+	}
+
+	/**
+	 * Passes a report to the oldest request waiting for the order or keeps it if there is none.
+	 *
+	 * @param report
+	 *            The report.
+	 * @return {@code false} if the order is not registered. The report is discarded, then.
+	 */
+	public boolean dispatch(OrderReport report) {
+		PendingOrder order = orders.get(report.getOrderId());
+
+		if (order == null) {
+			return false;
+		}
+
+		CompletableFuture<OrderReport> future;
+
+		synchronized (order) {
+			order.lastAccess = clock.getAsLong();
+			future = order.waiting.poll();
+
+			if (future == null) {
+				order.reports.add(report);
+				return true;
+			}
+		}
+
+		// Complete outside of the lock, as the callbacks run in this thread
+		future.complete(report);
+		return true;
+	}
+
+	/**
+	 * Requests the next report of an order.
+	 *
+	 * @param orderId
+	 *            The order ID.
+	 * @return A future completed with the next report or, if the order is removed before,
+	 *         {@code null}. The future is already completed if there is a report.
+	 *         {@code null} if the order is not registered.
+	 */
+	public CompletableFuture<OrderReport> next(String orderId) {
+		PendingOrder order = orders.get(orderId);
+
+		if (order == null) {
+			return null;
+		}
+
+		synchronized (order) {
+			order.lastAccess = clock.getAsLong();
+			OrderReport report = order.reports.poll();
+
+			if (report != null) {
+				return CompletableFuture.completedFuture(report);
+			}
+
+			CompletableFuture<OrderReport> future = new CompletableFuture<>();
+			order.waiting.add(future);
+			return future;
+		}
+	}
+
+	/**
+	 * Stops waiting for a report, e.g., because the request timed out.
+	 *
+	 * @param orderId
+	 *            The order ID.
+	 * @param future
+	 *            The future returned by {@link #next(String)}.
+	 * @return {@code true} if the future has been cancelled. {@code false} if it has already been
+	 *         or is about to be completed. Then, the report has to be processed nevertheless.
+	 */
+	public boolean cancel(String orderId, CompletableFuture<OrderReport> future) {
+		PendingOrder order = orders.get(orderId);
+
+		if (order != null) {
+			synchronized (order) {
+				if (!order.waiting.remove(future)) {
+					return false;
+				}
+			}
+		}
+
+		return future.cancel(false);
+	}
+
+	/**
+	 * Gets the number of registered orders.
+	 *
+	 * @return The number of orders.
+	 */
+	public int size() {
+		return orders.size();
+	}
+
+	private void removeExpired(long now) {
+		Iterator<Map.Entry<String, PendingOrder>> it = orders.entrySet().iterator();
+
+		while (it.hasNext()) {
+			PendingOrder order = it.next().getValue();
+			boolean expired;
+
+			synchronized (order) {
+				expired = order.waiting.isEmpty() && ((now - order.lastAccess) >= timeToLive);
+			}
+
+			if (expired) {
+				it.remove();
+				clear(order);
+			}
+		}
+
+		lastCleanUp = now;
+	}
+
+	private void clear(PendingOrder order) {
+		List<CompletableFuture<OrderReport>> waiting;
+
+		synchronized (order) {
+			waiting = new ArrayList<>(order.waiting);
+			order.waiting.clear();
+			order.reports.clear();
+		}
+
+		waiting.forEach(future -> future.complete(null));
+	}
+
+	/**
+	 * Guarded by itself.
+	 */
+	private static class PendingOrder {
+
+		private final Deque<OrderReport> reports = new ArrayDeque<>();
+
+		private final Deque<CompletableFuture<OrderReport>> waiting = new ArrayDeque<>();
+
+		private long lastAccess;
+
+		private PendingOrder(long lastAccess) {
+			this.lastAccess = lastAccess;
+		}
+
+	}
+
+}
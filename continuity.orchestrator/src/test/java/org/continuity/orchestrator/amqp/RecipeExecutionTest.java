@@ -0,0 +1,288 @@
+package org.continuity.orchestrator.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.api.entities.config.TaskDescription;
+import org.continuity.api.entities.links.LinkExchangeModel;
+import org.continuity.api.entities.report.OrderReport;
+import org.continuity.api.entities.report.StepReport;
+import org.continuity.api.entities.report.StepReport.StepState;
+import org.continuity.api.entities.report.TaskError;
+import org.continuity.api.entities.report.TaskReport;
+import org.continuity.commons.storage.BoundedMemoryStorage;
+import org.continuity.orchestrator.entities.Recipe;
+import org.continuity.orchestrator.entities.RecipeStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Executes recipes with a diamond-shaped step graph A -> (B, C) -> D against the
+ * {@link OrchestrationAmqpHandler}. The message broker is replaced by in-memory queues and the
+ * services by worker threads reporting back to the handler.
+ */
+public class RecipeExecutionTest {
+
+	private static final long TIMEOUT_SECONDS = 10;
+
+	private OrchestrationAmqpHandler handler;
+
+	private BoundedMemoryStorage<Recipe> storage;
+
+	private final BlockingQueue<TaskDescription> dispatchedTasks = new LinkedBlockingQueue<>();
+
+	private final BlockingQueue<OrderReport> orderReports = new LinkedBlockingQueue<>();
+
+	private ExecutorService workers;
+
+	@Before
+	public void setupHandler() {
+		AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+
+		doAnswer(invocation -> {
+			orderReports.add(invocation.getArgument(2));
+			return null;
+		}).when(amqpTemplate).convertAndSend(anyString(), anyString(), any(OrderReport.class));
+
+		storage = new BoundedMemoryStorage<>(Recipe.class);
+
+		handler = new OrchestrationAmqpHandler();
+		ReflectionTestUtils.setField(handler, "storage", storage);
+		ReflectionTestUtils.setField(handler, "amqpTemplate", amqpTemplate);
+
+		workers = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void shutdownWorkers() {
+		workers.shutdownNow();
+	}
+
+	@Test
+	public void testDiamondRunsInParallel() throws Exception {
+		String recipeId = submit(false);
+
+		TaskDescription a = nextTask();
+		assertThat(a.getTaskId()).startsWith(recipeId + ".").endsWith("-A");
+		assertThat(dispatchedTasks).isEmpty();
+
+		finishOnWorker(a).await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		// B and C are both dispatched before any of them finished
+		TaskDescription first = nextTask();
+		TaskDescription second = nextTask();
+		assertThat(Arrays.asList(stepName(first), stepName(second))).containsExactlyInAnyOrder("B", "C");
+		assertThat(dispatchedTasks).isEmpty();
+
+		CountDownLatch start = new CountDownLatch(1);
+		finishOnWorker(first, start);
+		finishOnWorker(second, start);
+		start.countDown();
+
+		TaskDescription d = nextTask();
+		assertThat(stepName(d)).isEqualTo("D");
+
+		finishOnWorker(d);
+
+		OrderReport report = orderReports.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertThat(report).isNotNull();
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(report.getSteps()).extracting(StepReport::getName).containsExactly("A", "B", "C", "D");
+		assertThat(report.getSteps()).extracting(StepReport::getState).containsOnly(StepState.FINISHED);
+		assertThat(report.getSteps()).allSatisfy(step -> assertThat(step.getDuration()).isNotNull().isGreaterThanOrEqualTo(0));
+
+		Map<String, StepReport> steps = byName(report.getSteps());
+		assertThat(steps.get("B").getStartTime()).isGreaterThanOrEqualTo(steps.get("A").getEndTime());
+		assertThat(steps.get("C").getStartTime()).isGreaterThanOrEqualTo(steps.get("A").getEndTime());
+		assertThat(steps.get("D").getStartTime()).isGreaterThanOrEqualTo(Math.max(steps.get("B").getEndTime(), steps.get("C").getEndTime()));
+
+		assertThat(storage.get(recipeId)).isNull();
+		assertThat(orderReports).isEmpty();
+	}
+
+	@Test
+	public void testFailurePropagates() throws Exception {
+		String recipeId = submit(false);
+
+		finishOnWorker(nextTask()).await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		TaskDescription first = nextTask();
+		TaskDescription second = nextTask();
+		TaskDescription b = "B".equals(stepName(first)) ? first : second;
+		TaskDescription c = "B".equals(stepName(first)) ? second : first;
+
+		handler.onTaskFinished(TaskReport.error(c.getTaskId(), TaskError.INTERNAL_ERROR));
+
+		OrderReport report = orderReports.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertThat(report).isNotNull();
+		assertThat(report.isSuccessful()).isFalse();
+		assertThat(report.getError()).isEqualTo(TaskError.INTERNAL_ERROR.toString());
+
+		Map<String, StepReport> steps = byName(report.getSteps());
+		assertThat(steps.get("A").getState()).isEqualTo(StepState.FINISHED);
+		assertThat(steps.get("B").getState()).isEqualTo(StepState.RUNNING);
+		assertThat(steps.get("C").getState()).isEqualTo(StepState.FAILED);
+		assertThat(steps.get("D").getState()).isEqualTo(StepState.PENDING);
+		assertThat(steps.get("D").getTaskId()).isNull();
+
+		// The late report of B must neither dispatch D nor send another report
+		handler.onTaskFinished(TaskReport.successful(b.getTaskId(), new LinkExchangeModel()));
+
+		assertThat(dispatchedTasks.poll(200, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(orderReports).isEmpty();
+		assertThat(storage.get(recipeId)).isNull();
+	}
+
+	@Test
+	public void testStepsWithPresentDataAreSkipped() throws Exception {
+		submit(true);
+
+		// A is skipped, so B and C are dispatched immediately
+		TaskDescription first = nextTask();
+		TaskDescription second = nextTask();
+		assertThat(Arrays.asList(stepName(first), stepName(second))).containsExactlyInAnyOrder("B", "C");
+
+		finishOnWorker(first);
+		finishOnWorker(second);
+		finishOnWorker(nextTask());
+
+		OrderReport report = orderReports.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertThat(report.isSuccessful()).isTrue();
+		assertThat(byName(report.getSteps()).get("A").getState()).isEqualTo(StepState.SKIPPED);
+		assertThat(byName(report.getSteps()).get("A").getTaskId()).isNull();
+	}
+
+	@Test
+	public void testUnknownTaskIsIgnored() throws Exception {
+		String recipeId = submit(false);
+		nextTask();
+
+		handler.onTaskFinished(TaskReport.successful(recipeId + ".42-X", new LinkExchangeModel()));
+
+		assertThat(dispatchedTasks.poll(200, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(orderReports).isEmpty();
+		assertThat(storage.get(recipeId)).isNotNull();
+	}
+
+	/**
+	 * Creates and submits a recipe the same way as the orchestration controller does.
+	 */
+	private String submit(boolean dataOfAPresent) {
+		RecipeStep a = new QueueingStep("A", dataOfAPresent);
+		RecipeStep b = new QueueingStep("B", false);
+		RecipeStep c = new QueueingStep("C", false);
+		RecipeStep d = new QueueingStep("D", false);
+
+		Map<RecipeStep, List<RecipeStep>> requiredSteps = new HashMap<>();
+		requiredSteps.put(b, Collections.singletonList(a));
+		requiredSteps.put(c, Collections.singletonList(a));
+		requiredSteps.put(d, Arrays.asList(b, c));
+
+		String recipeId = storage.reserve("test");
+		Recipe recipe = new Recipe("order", recipeId, "test", Arrays.asList(a, b, c, d), requiredSteps, new LinkExchangeModel(), false, null, null, null, null);
+		storage.putToReserved(recipeId, recipe);
+
+		synchronized (recipe) {
+			for (RecipeStep step : recipe.nextReadySteps()) {
+				step.execute();
+			}
+		}
+
+		return recipeId;
+	}
+
+	private TaskDescription nextTask() throws InterruptedException {
+		TaskDescription task = dispatchedTasks.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertThat(task).as("Dispatched task").isNotNull();
+		return task;
+	}
+
+	private CountDownLatch finishOnWorker(TaskDescription task) {
+		return finishOnWorker(task, new CountDownLatch(0));
+	}
+
+	private CountDownLatch finishOnWorker(TaskDescription task, CountDownLatch start) {
+		CountDownLatch done = new CountDownLatch(1);
+
+		workers.execute(() -> {
+			try {
+				start.await();
+				handler.onTaskFinished(TaskReport.successful(task.getTaskId(), new LinkExchangeModel()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				done.countDown();
+			}
+		});
+
+		return done;
+	}
+
+	private String stepName(TaskDescription task) {
+		return task.getTaskId().substring(task.getTaskId().lastIndexOf('-') + 1);
+	}
+
+	private Map<String, StepReport> byName(List<StepReport> steps) {
+		Map<String, StepReport> map = new HashMap<>();
+
+		for (StepReport step : steps) {
+			map.put(step.getName(), step);
+		}
+
+		return map;
+	}
+
+	private class QueueingStep implements RecipeStep {
+
+		private final String name;
+
+		private final boolean dataPresent;
+
+		private TaskDescription task;
+
+		private QueueingStep(String name, boolean dataPresent) {
+			this.name = name;
+			this.dataPresent = dataPresent;
+		}
+
+		@Override
+		public void setTask(TaskDescription task) {
+			this.task = task;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean checkData(LinkExchangeModel source) {
+			return dataPresent;
+		}
+
+		@Override
+		public void execute() {
+			dispatchedTasks.add(task);
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.continuity.orchestrator.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Stand-in for a RabbitMQ broker running in the same JVM. It provides a {@link ConnectionFactory}
+ * counting the connections and channels that are currently open. Messages published to an
+ * exchange with a consumer are converted from JSON and delivered by a single thread, as done by
+ * a listener container with one consumer. Messages to other exchanges are dropped.
+ */
+public class BrokerStandIn {
+
+	private final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private final Map<String, Consumer<byte[]>> consumers = new ConcurrentHashMap<>();
+
+	private final ExecutorService delivery = Executors.newSingleThreadExecutor();
+
+	private final AtomicInteger openConnections = new AtomicInteger();
+
+	private final AtomicInteger maxOpenConnections = new AtomicInteger();
+
+	private final AtomicInteger openChannels = new AtomicInteger();
+
+	private final AtomicInteger maxOpenChannels = new AtomicInteger();
+
+	private final AtomicInteger numPublished = new AtomicInteger();
+
+	private final ConnectionFactory connectionFactory;
+
+	private CountDownLatch paused = new CountDownLatch(0);
+
+	public BrokerStandIn() {
+		try {
+			Channel channel = mock(Channel.class, withSettings().stubOnly());
+			when(channel.isOpen()).thenReturn(true);
+			doAnswer(invocation -> {
+				publish(invocation.getArgument(0), invocation.getArgument(4));
+				return null;
+			}).when(channel).basicPublish(anyString(), anyString(), anyBoolean(), any(BasicProperties.class), any(byte[].class));
+			doAnswer(invocation -> {
+				openChannels.decrementAndGet();
+				return null;
+			}).when(channel).close();
+
+			Connection connection = mock(Connection.class, withSettings().stubOnly());
+			when(connection.isOpen()).thenReturn(true);
+			when(connection.createChannel(anyBoolean())).thenAnswer(invocation -> {
+				maxOpenChannels.accumulateAndGet(openChannels.incrementAndGet(), Math::max);
+				return channel;
+			});
+			doAnswer(invocation -> {
+				openConnections.decrementAndGet();
+				return null;
+			}).when(connection).close();
+
+			connectionFactory = mock(ConnectionFactory.class, withSettings().stubOnly());
+			when(connectionFactory.createConnection()).thenAnswer(invocation -> {
+				maxOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+				return connection;
+			});
+		} catch (IOException | TimeoutException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public ConnectionFactory getConnectionFactory() {
+		return connectionFactory;
+	}
+
+	/**
+	 * Consumes all messages published to an exchange.
+	 */
+	public <T> void consume(String exchange, Class<T> type, Consumer<T> consumer) {
+		consumers.put(exchange, body -> {
+			try {
+				consumer.accept(mapper.readValue(body, type));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read message!", e);
+			}
+		});
+	}
+
+	/**
+	 * Holds back all messages until {@link #resume()} is called.
+	 */
+	public synchronized void pause() {
+		CountDownLatch latch = new CountDownLatch(1);
+		paused = latch;
+		delivery.execute(() -> {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+
+	public synchronized void resume() {
+		paused.countDown();
+	}
+
+	/**
+	 * Waits until all messages published so far are delivered.
+	 */
+	public void awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		delivery.submit(() -> {
+		}).get(timeout, unit);
+	}
+
+	public void shutdown() {
+		resume();
+		delivery.shutdownNow();
+	}
+
+	public int getOpenConnections() {
+		return openConnections.get();
+	}
+
+	public int getMaxOpenConnections() {
+		return maxOpenConnections.get();
+	}
+
+	public int getOpenChannels() {
+		return openChannels.get();
+	}
+
+	public int getMaxOpenChannels() {
+		return maxOpenChannels.get();
+	}
+
+	public int getNumPublished() {
+		return numPublished.get();
+	}
+
+	private void publish(String exchange, byte[] body) {
+		numPublished.incrementAndGet();
+		Consumer<byte[]> consumer = consumers.get(exchange);
+
+		if (consumer != null) {
+			delivery.execute(() -> consumer.accept(body));
+		}
+	}
+
+}
@@ -0,0 +1,211 @@
+package org.continuity.orchestrator.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.continuity.api.amqp.AmqpApi;
+import org.continuity.api.entities.config.Order;
+import org.continuity.api.entities.config.OrderGoal;
+import org.continuity.api.entities.config.OrderMode;
+import org.continuity.api.entities.links.LinkExchangeModel;
+import org.continuity.api.entities.report.OrderReport;
+import org.continuity.api.entities.report.OrderResponse;
+import org.continuity.api.rest.RestApi;
+import org.continuity.commons.storage.BoundedMemoryStorage;
+import org.continuity.orchestrator.amqp.OrderResponseAmqpHandler;
+import org.continuity.orchestrator.entities.Recipe;
+import org.continuity.orchestrator.responses.OrderResponseRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Submits many orders to the {@link OrchestrationController} and waits for all of them at the
+ * same time. The message broker is replaced by a {@link BrokerStandIn}. The orders are already
+ * fulfilled by their sources, so that each order immediately publishes its report. Neither the
+ * open connections nor the threads may grow with the number of orders.
+ */
+public class OrderResponseLoadTest {
+
+	private static final int NUM_ORDERS = 10000;
+
+	private static final int NUM_CLIENTS = 8;
+
+	/**
+	 * Threads possibly started by the JVM in the meantime, e.g., for compilation.
+	 */
+	private static final int THREAD_TOLERANCE = 8;
+
+	private static final long TIMEOUT_SECONDS = 60;
+
+	private static final String HOST = "localhost";
+
+	private static final int PORT = 8080;
+
+	private BrokerStandIn broker;
+
+	private OrderResponseRegistry registry;
+
+	private OrchestrationController controller;
+
+	private HttpServletRequest servletRequest;
+
+	private ExecutorService clients;
+
+	@Before
+	public void setupController() {
+		broker = new BrokerStandIn();
+		registry = new OrderResponseRegistry();
+
+		OrderResponseAmqpHandler handler = new OrderResponseAmqpHandler();
+		ReflectionTestUtils.setField(handler, "responseRegistry", registry);
+		broker.consume(AmqpApi.Orchestrator.EVENT_FINISHED.name(), OrderReport.class, handler::onOrderFinished);
+
+		RabbitTemplate rabbitTemplate = new RabbitTemplate(broker.getConnectionFactory());
+		rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+
+		controller = new OrchestrationController();
+		ReflectionTestUtils.setField(controller, "amqpTemplate", rabbitTemplate);
+		ReflectionTestUtils.setField(controller, "recipeStorage", new BoundedMemoryStorage<>(Recipe.class));
+		ReflectionTestUtils.setField(controller, "responseRegistry", registry);
+
+		servletRequest = mock(HttpServletRequest.class, withSettings().stubOnly());
+		when(servletRequest.getServerName()).thenReturn(HOST);
+		when(servletRequest.getServerPort()).thenReturn(PORT);
+
+		clients = Executors.newFixedThreadPool(NUM_CLIENTS);
+	}
+
+	@After
+	public void shutdown() {
+		clients.shutdownNow();
+		broker.shutdown();
+	}
+
+	@Test
+	public void testConnectionsAndThreadsAreBounded() throws Exception {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		int baselineThreads = threads.getThreadCount();
+		threads.resetPeakThreadCount();
+
+		// Reports are held back until everybody waits
+		broker.pause();
+
+		List<Future<String>> submissions = new ArrayList<>(NUM_ORDERS);
+
+		for (int i = 0; i < NUM_ORDERS; i++) {
+			submissions.add(clients.submit(this::submit));
+		}
+
+		List<String> orderIds = new ArrayList<>(NUM_ORDERS);
+
+		for (Future<String> submission : submissions) {
+			orderIds.add(submission.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		}
+
+		assertThat(broker.getNumPublished()).isEqualTo(NUM_ORDERS);
+
+		Map<String, ResponseEntity<OrderReport>> responses = new ConcurrentHashMap<>();
+		CountDownLatch answered = new CountDownLatch(NUM_ORDERS);
+		List<Future<?>> waits = new ArrayList<>(NUM_ORDERS);
+
+		for (String orderId : orderIds) {
+			waits.add(clients.submit(() -> controller.waitUntilFinished(orderId, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS), servletRequest).setResultHandler(result -> {
+				@SuppressWarnings("unchecked")
+				ResponseEntity<OrderReport> response = (ResponseEntity<OrderReport>) result;
+				responses.put(orderId, response);
+				answered.countDown();
+			})));
+		}
+
+		for (Future<?> wait : waits) {
+			wait.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+
+		// All requests returned without occupying a thread until the reports arrive
+		assertThat(answered.getCount()).isEqualTo(NUM_ORDERS);
+		assertThat(registry.size()).isEqualTo(NUM_ORDERS);
+
+		broker.resume();
+
+		assertThat(answered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+		for (String orderId : orderIds) {
+			ResponseEntity<OrderReport> response = responses.get(orderId);
+
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(response.getBody().getOrderId()).isEqualTo(orderId);
+			assertThat(response.getBody().isSuccessful()).isTrue();
+			assertThat(response.getBody().getNumber()).isEqualTo(1);
+			assertThat(response.getBody().getMax()).isEqualTo(1);
+			assertThat(response.getBody().getCreatedArtifacts().getSessionLogsLinks().getLink())
+					.isEqualTo(RestApi.Orchestrator.SessionLogs.GET.requestUrl("app-1").withHost(HOST + ":" + PORT).get());
+		}
+
+		assertThat(registry.size()).isEqualTo(0);
+
+		assertThat(broker.getOpenConnections()).isEqualTo(0);
+		assertThat(broker.getOpenChannels()).isEqualTo(0);
+		assertThat(broker.getMaxOpenConnections()).isLessThanOrEqualTo(NUM_CLIENTS);
+		assertThat(broker.getMaxOpenChannels()).isLessThanOrEqualTo(NUM_CLIENTS);
+
+		// The clients and the delivery thread
+		assertThat(threads.getPeakThreadCount()).isLessThanOrEqualTo(baselineThreads + NUM_CLIENTS + 1 + THREAD_TOLERANCE);
+	}
+
+	@Test
+	public void testResultWithoutWaiting() throws Exception {
+		broker.pause();
+		String orderId = submit();
+
+		assertThat(controller.getResultWithoutWaiting(orderId, servletRequest).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+		broker.resume();
+		broker.awaitDelivery(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		ResponseEntity<OrderReport> response = controller.getResultWithoutWaiting(orderId, servletRequest);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getNumber()).isEqualTo(1);
+
+		assertThat(controller.getResultWithoutWaiting(orderId, servletRequest).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	private String submit() throws Exception {
+		LinkExchangeModel source = new LinkExchangeModel();
+		source.getSessionLogsLinks().setLink(RestApi.SessionLogs.GET.requestUrl("app-1").get());
+
+		Order order = new Order();
+		order.setTag("app");
+		order.setGoal(OrderGoal.CREATE_SESSION_LOGS);
+		order.setMode(OrderMode.PAST_SESSIONS);
+		order.setSource(source);
+
+		ResponseEntity<Object> response = controller.submitOrder(order, servletRequest);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+		String waitLink = ((OrderResponse) response.getBody()).getWaitLink();
+		return RestApi.Orchestrator.Orchestration.WAIT.parsePathParameters(waitLink).get(0);
+	}
+
+}
@@ -1,8 +1,10 @@
 package org.continuity.orchestrator.orders;
 
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.continuity.api.entities.config.OrderGoal;
@@ -30,4 +32,20 @@ public class CyclesValidationTest {
 		}
 	}
 
+	@Test
+	public void checkRequiredGoalsPrecedeGoal() {
+		for (OrderMode mode : OrderMode.values()) {
+			for (OrderCycle cycle : manager.getFullCycles(mode)) {
+				List<OrderGoal> goals = cycle.getGoals();
+
+				for (int i = 0; i < goals.size(); i++) {
+					for (OrderGoal required : manager.getRequiredGoals(mode, goals.get(i))) {
+						int idx = goals.indexOf(required);
+						assertTrue("The goal " + goals.get(i) + " requires " + required + ", which is not contained before it in the cycle.", (idx >= 0) && (idx < i));
+					}
+				}
+			}
+		}
+	}
+
 }
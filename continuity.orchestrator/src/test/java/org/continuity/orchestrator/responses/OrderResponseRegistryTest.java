@@ -0,0 +1,115 @@
+package org.continuity.orchestrator.responses;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.continuity.api.entities.report.OrderReport;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderResponseRegistryTest {
+
+	private static final String ORDER_ID = "app-1";
+
+	private OrderResponseRegistry registry;
+
+	@Before
+	public void setupRegistry() {
+		registry = new OrderResponseRegistry();
+		registry.register(ORDER_ID);
+	}
+
+	@Test
+	public void testWaitingRequestIsCompleted() {
+		CompletableFuture<OrderReport> future = registry.next(ORDER_ID);
+		assertThat(future.isDone()).isFalse();
+
+		OrderReport report = report(ORDER_ID);
+		assertThat(registry.dispatch(report)).isTrue();
+
+		assertThat(future.isDone()).isTrue();
+		assertThat(future.join()).isSameAs(report);
+	}
+
+	@Test
+	public void testReportIsKeptUntilRequested() {
+		OrderReport first = report(ORDER_ID);
+		OrderReport second = report(ORDER_ID);
+
+		registry.dispatch(first);
+		registry.dispatch(second);
+
+		assertThat(registry.next(ORDER_ID).join()).isSameAs(first);
+		assertThat(registry.next(ORDER_ID).join()).isSameAs(second);
+		assertThat(registry.next(ORDER_ID).isDone()).isFalse();
+	}
+
+	@Test
+	public void testReportAfterCancellationIsKept() {
+		CompletableFuture<OrderReport> cancelled = registry.next(ORDER_ID);
+		assertThat(registry.cancel(ORDER_ID, cancelled)).isTrue();
+		assertThat(cancelled.isCancelled()).isTrue();
+
+		OrderReport report = report(ORDER_ID);
+		registry.dispatch(report);
+
+		assertThat(registry.next(ORDER_ID).join()).isSameAs(report);
+	}
+
+	@Test
+	public void testCompletedRequestCannotBeCancelled() {
+		CompletableFuture<OrderReport> future = registry.next(ORDER_ID);
+		registry.dispatch(report(ORDER_ID));
+
+		assertThat(registry.cancel(ORDER_ID, future)).isFalse();
+		assertThat(future.join()).isNotNull();
+	}
+
+	@Test
+	public void testUnknownOrders() {
+		assertThat(registry.next("other-1")).isNull();
+		assertThat(registry.dispatch(report("other-1"))).isFalse();
+	}
+
+	@Test
+	public void testRemovalCompletesWaitingRequests() {
+		CompletableFuture<OrderReport> future = registry.next(ORDER_ID);
+
+		registry.remove(ORDER_ID);
+
+		assertThat(future.isDone()).isTrue();
+		assertThat(future.join()).isNull();
+		assertThat(registry.next(ORDER_ID)).isNull();
+		assertThat(registry.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void testExpiredOrdersAreRemoved() {
+		AtomicLong now = new AtomicLong(0);
+		OrderResponseRegistry expiring = new OrderResponseRegistry(1000, now::get);
+
+		expiring.register("idle-1");
+		expiring.register("waiting-1");
+		expiring.register("accessed-1");
+
+		CompletableFuture<OrderReport> waiting = expiring.next("waiting-1");
+
+		now.set(500);
+		expiring.dispatch(report("accessed-1"));
+
+		now.set(1000);
+		expiring.cleanUp();
+
+		assertThat(expiring.next("idle-1")).isNull();
+		assertThat(waiting.isDone()).isFalse();
+		assertThat(expiring.next("accessed-1").join()).isNotNull();
+		assertThat(expiring.size()).isEqualTo(2);
+	}
+
+	private OrderReport report(String orderId) {
+		return OrderReport.asSuccessful(orderId, null, null);
+	}
+
+}
@@ -2,7 +2,12 @@ package org.continuity.request.rates.amqp;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -24,15 +29,16 @@ import org.continuity.commons.utils.WebUtils;
 import org.continuity.idpa.application.Application;
 import org.continuity.request.rates.config.RabbitMqConfig;
 import org.continuity.request.rates.entities.CsvRow;
+import org.continuity.request.rates.entities.ParallelRequestLogsParser;
 import org.continuity.request.rates.entities.RequestRecord;
 import org.continuity.request.rates.entities.WorkloadModelPack;
 import org.continuity.request.rates.model.RequestRatesModel;
 import org.continuity.request.rates.transform.ModularizingRequestRatesCalculator;
 import org.continuity.request.rates.transform.RequestRatesCalculator;
+import org.continuity.request.rates.transform.RequestRatesWindow;
 import org.continuity.request.rates.transform.SimpleRequestRatesCalculator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.spec.research.open.xtrace.api.core.SubTrace;
 import org.spec.research.open.xtrace.api.core.Trace;
 import org.spec.research.open.xtrace.dflt.impl.core.callables.HTTPRequestProcessingImpl;
 import org.springframework.amqp.core.AmqpTemplate;
@@ -51,6 +57,8 @@ public class RequestRatesAmqpHandler {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(RequestRatesAmqpHandler.class);
 
+	private static final long WINDOW_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
 	@Autowired
 	private AmqpTemplate amqpTemplate;
 
@@ -70,6 +78,25 @@ public class RequestRatesAmqpHandler {
 	@Value("${spring.application.name}")
 	private String applicationName;
 
+	@Value("${request-rates.window.max-tags:16}")
+	private int maxCachedWindows;
+
+	/**
+	 * Request rates windows per tag in access order, which are reused for subsequent tasks with
+	 * overlapping request logs. At most {@link #maxCachedWindows} windows are kept, the least
+	 * recently used one is dropped first. Guarded by itself.
+	 */
+	private final LinkedHashMap<String, CachedWindow> windowsPerTag = new LinkedHashMap<String, CachedWindow>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedWindow> eldest) {
+			return size() > maxCachedWindows;
+		}
+
+	};
+
 	/**
 	 * Listener to the RabbitMQ {@link RabbitMqConfig#TASK_CREATE_QUEUE_NAME}. Creates a new request
 	 * rates model based on the specified request logs.
@@ -87,25 +114,20 @@ public class RequestRatesAmqpHandler {
 		if (link.getLinkType() == MeasurementDataLinkType.CSV) {
 			LOGGER.info("Task {}: Processing CSV data...", task.getTaskId());
 
-			List<CsvRow> csvRecords;
+			List<RequestRecord> records;
 
 			if (link.getLink().startsWith(applicationName)) {
 				List<String> pathParams = RestApi.RequestRates.RequestLogs.GET.parsePathParameters(link.getLink());
-				csvRecords = requestLogsStorage.get(pathParams.get(0));
+				records = ParallelRequestLogsParser.toRecords(requestLogsStorage.get(pathParams.get(0)));
 			} else {
 				String csvString = restTemplate.getForObject(WebUtils.addProtocolIfMissing(link.getLink()), String.class);
-				csvRecords = CsvRow.listFromString(csvString);
+				records = new ParallelRequestLogsParser().parseRecords(csvString);
 			}
 
-			List<RequestRecord> records = csvRecords.stream().map(CsvRow::toRecord).collect(Collectors.toList());
-
 			report = processRequests(records, task, false, null);
 		} else if (link.getLinkType() == MeasurementDataLinkType.OPEN_XTRACE) {
 			LOGGER.info("Task {}: Processing OPEN.xtrace data...", task.getTaskId());
 
-			Iterable<Trace> traces = OPENxtraceUtils.getOPENxtraces(task.getSource(), plainRestTemplate);
-			LOGGER.info("Task {}: Retrieved OPEN.xtrace data.", task.getTaskId());
-
 			boolean applyModularization = false;
 
 			if (null != task.getModularizationOptions()) {
@@ -113,19 +135,20 @@ public class RequestRatesAmqpHandler {
 				applyModularization = modularizationOptions.getModularizationApproach().equals(ModularizationApproach.REQUESTS);
 			}
 
-			List<HTTPRequestProcessingImpl> requestsOfInterest;
+			Function<Trace, OpenXtraceTracer> tracerForTrace;
 
 			if (applyModularization) {
 				Collection<String> targetHostNames = ModularizationUtils.getTargetHostNames(task.getModularizationOptions().getServices(), restTemplate);
-
-				requestsOfInterest = StreamSupport.stream(traces.spliterator(), false).map(Trace::getRoot).map(SubTrace::getRoot).map(root -> OpenXtraceTracer.forRootAndHosts(root, targetHostNames))
-						.map(OpenXtraceTracer::extractSubtraces).flatMap(List::stream).collect(Collectors.toList());
+				tracerForTrace = trace -> OpenXtraceTracer.forRootAndHosts(trace.getRoot().getRoot(), targetHostNames);
 			} else {
-				requestsOfInterest = StreamSupport.stream(traces.spliterator(), false).map(Trace::getRoot).map(SubTrace::getRoot).map(OpenXtraceTracer::forRoot).map(OpenXtraceTracer::extractSubtraces)
-						.flatMap(List::stream).collect(Collectors.toList());
+				tracerForTrace = trace -> OpenXtraceTracer.forRoot(trace.getRoot().getRoot());
 			}
 
-			List<RequestRecord> records = requestsOfInterest.stream().map(this::traceToRequestRecord).collect(Collectors.toList());
+			// The traces are streamed and only the extracted records are kept
+			List<RequestRecord> records = OPENxtraceUtils.processOPENxtraces(task.getSource(), plainRestTemplate, traces -> StreamSupport.stream(traces.spliterator(), false).map(tracerForTrace)
+					.map(OpenXtraceTracer::extractSubtraces).flatMap(List::stream).map(this::traceToRequestRecord).collect(Collectors.toList()));
+			LOGGER.info("Task {}: Extracted {} requests from the OPEN.xtrace data.", task.getTaskId(), records.size());
+
 			report = processRequests(records, task, applyModularization, task.getModularizationOptions());
 		} else {
 			LOGGER.error("Task {}: Cannot process measurement data of type {}!", task.getTaskId(), link.getLinkType());
@@ -137,9 +160,11 @@ public class RequestRatesAmqpHandler {
 
 	private TaskReport processRequests(List<RequestRecord> records, TaskDescription task, boolean modularize, ModularizationOptions modularizationOptions) {
 		RequestRatesCalculator calculator;
+		RequestRatesModel model;
 
 		if (modularize) {
 			calculator = new ModularizingRequestRatesCalculator(ModularizationUtils.getServiceApplicationModels(modularizationOptions.getServices(), restTemplate));
+			model = calculator.calculate(records);
 		} else {
 			Application application;
 			try {
@@ -149,10 +174,18 @@ public class RequestRatesAmqpHandler {
 				application = null;
 			}
 
-			calculator = new SimpleRequestRatesCalculator(application);
+			RequestRatesWindow window = getWindow(task.getTag(), application);
+			calculator = window.getCalculator();
+
+			synchronized (window) {
+				Date[] covered = window.update(records);
+				model = covered == null ? new RequestRatesModel() : window.calculate(covered[0], covered[1]);
+				window.evictExpired();
+			}
+
+			LOGGER.info("Task {}: The request rates window of tag {} holds {} buckets.", task.getTaskId(), task.getTag(), window.getNumBuckets());
 		}
 
-		RequestRatesModel model = calculator.calculate(records);
 		String storageId = storage.put(model, task.getTag(), task.isLongTermUse());
 
 		LOGGER.info("Task {}: Created a new request rates model with id '{}'.", task.getTaskId(), storageId);
@@ -167,6 +200,26 @@ public class RequestRatesAmqpHandler {
 		return report;
 	}
 
+	/**
+	 * Gets the cached request rates window of the tag. A new window is created if there is none
+	 * or if the application model has changed in the meantime.
+	 */
+	private RequestRatesWindow getWindow(String tag, Application application) {
+		Date applicationTimestamp = application == null ? null : application.getTimestamp();
+
+		synchronized (windowsPerTag) {
+			CachedWindow cached = windowsPerTag.get(tag);
+
+			if ((cached == null) || !Objects.equals(cached.applicationTimestamp, applicationTimestamp)) {
+				RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator(application), RequestRatesWindow.DEFAULT_BUCKET_MILLIS, WINDOW_RETENTION_MILLIS);
+				cached = new CachedWindow(applicationTimestamp, window);
+				windowsPerTag.put(tag, cached);
+			}
+
+			return cached.window;
+		}
+	}
+
 	private RequestRecord traceToRequestRecord(HTTPRequestProcessingImpl trace) {
 		RequestRecord record = new RequestRecord();
 
@@ -202,4 +255,17 @@ public class RequestRatesAmqpHandler {
 		return record;
 	}
 
+	private static class CachedWindow {
+
+		private final Date applicationTimestamp;
+
+		private final RequestRatesWindow window;
+
+		private CachedWindow(Date applicationTimestamp, RequestRatesWindow window) {
+			this.applicationTimestamp = applicationTimestamp;
+			this.window = window;
+		}
+
+	}
+
 }
@@ -11,6 +11,7 @@ import org.continuity.api.rest.RestApi;
 import org.continuity.commons.storage.CsvFileStorage;
 import org.continuity.commons.utils.WebUtils;
 import org.continuity.request.rates.entities.CsvRow;
+import org.continuity.request.rates.entities.ParallelRequestLogsParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -46,9 +47,9 @@ public class RequestLogsController {
 			return ResponseEntity.badRequest().body("Missing body.");
 		}
 
-		List<CsvRow> rows = CsvRow.listFromString(requestLogs);
+		List<CsvRow> rows = new ParallelRequestLogsParser().parseRows(requestLogs);
 
-		boolean parseable = rows.stream().map(CsvRow::checkDates).reduce(Boolean::logicalAnd).get();
+		boolean parseable = rows.parallelStream().map(CsvRow::checkDates).reduce(Boolean::logicalAnd).get();
 
 		if (parseable) {
 			String id = storage.put(rows, TAG);
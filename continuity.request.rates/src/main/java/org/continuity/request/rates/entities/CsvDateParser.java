@@ -0,0 +1,229 @@
+package org.continuity.request.rates.entities;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+
+/**
+ * Thread-safe parser of the dates in the request logs. Supports the format
+ * {@code yyyy-MM-dd'T'HH-mm-ss-SSSX} (e.g., {@code 2018-01-31T13-45-10-123Z}), the ISO format with
+ * offset (e.g., {@code 2018-01-31T13:45:10.123+01:00}), and milliseconds since the epoch. <br>
+ *
+ * Dates with millisecond precision are parsed without creating intermediate objects. All others
+ * are parsed using {@link DateTimeFormatter}s. In contrast to a lenient {@code SimpleDateFormat},
+ * invalid dates such as the 13th month are rejected.
+ */
+public final class CsvDateParser {
+
+	/**
+	 * The format used in the request logs.
+	 */
+	public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH-mm-ss-SSSX").withResolverStyle(ResolverStyle.STRICT);
+
+	private static final int FIXED_LENGTH = 23;
+
+	private static final long MILLIS_PER_SECOND = 1000;
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	private static final long DAYS_0000_TO_1970 = 719468;
+
+	private CsvDateParser() {
+	}
+
+	/**
+	 * Parses a date.
+	 *
+	 * @param date
+	 *            The date to be parsed.
+	 * @return The parsed date.
+	 * @throws DateTimeParseException
+	 *             If the date cannot be parsed.
+	 */
+	public static Date parse(String date) throws DateTimeParseException {
+		return new Date(parseMillis(date));
+	}
+
+	/**
+	 * Parses a date to milliseconds since the epoch.
+	 *
+	 * @param date
+	 *            The date to be parsed.
+	 * @return The milliseconds since the epoch.
+	 * @throws DateTimeParseException
+	 *             If the date cannot be parsed.
+	 */
+	public static long parseMillis(String date) throws DateTimeParseException {
+		if (isEpochMillis(date)) {
+			try {
+				return Long.parseLong(date);
+			} catch (NumberFormatException e) {
+				throw new DateTimeParseException("Epoch millis out of range", date, 0, e);
+			}
+		}
+
+		long millis = parseFixed(date);
+
+		if (millis != Long.MIN_VALUE) {
+			return millis;
+		}
+
+		try {
+			return OffsetDateTime.parse(date, FORMATTER).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			try {
+				return OffsetDateTime.parse(date, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e2) {
+				throw e;
+			}
+		}
+	}
+
+	private static boolean isEpochMillis(String date) {
+		int length = date.length();
+		int start = (length > 0) && (date.charAt(0) == '-') ? 1 : 0;
+
+		if (start == length) {
+			return false;
+		}
+
+		for (int i = start; i < length; i++) {
+			char c = date.charAt(i);
+
+			if ((c < '0') || (c > '9')) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parses {@code yyyy-MM-ddTHH?mm?ss?SSS} followed by {@code Z}, {@code +HH}, {@code +HHmm} or
+	 * {@code +HH:mm}, where {@code ?} is either the request logs or the ISO separator.
+	 *
+	 * @return The milliseconds since the epoch or {@link Long#MIN_VALUE} if the date does not
+	 *         match.
+	 */
+	private static long parseFixed(String date) {
+		if ((date.length() < FIXED_LENGTH + 1) || (date.charAt(4) != '-') || (date.charAt(7) != '-') || (date.charAt(10) != 'T')) {
+			return Long.MIN_VALUE;
+		}
+
+		boolean iso = date.charAt(13) == ':';
+		char timeSeparator = iso ? ':' : '-';
+		char fractionSeparator = iso ? '.' : '-';
+
+		if ((date.charAt(16) != timeSeparator) || (date.charAt(19) != fractionSeparator)) {
+			return Long.MIN_VALUE;
+		}
+
+		int year = digits(date, 0, 4);
+		int month = digits(date, 5, 2);
+		int day = digits(date, 8, 2);
+		int hour = digits(date, 11, 2);
+		int minute = digits(date, 14, 2);
+		int second = digits(date, 17, 2);
+		int millis = digits(date, 20, 3);
+
+		if ((year < 0) || (month < 1) || (month > 12) || (day < 1) || (day > lengthOfMonth(year, month)) || (hour < 0) || (hour > 23) || (minute < 0) || (minute > 59) || (second < 0)
+				|| (second > 59) || (millis < 0)) {
+			return Long.MIN_VALUE;
+		}
+
+		int offsetSeconds = parseOffset(date, FIXED_LENGTH);
+
+		if (offsetSeconds == Integer.MIN_VALUE) {
+			return Long.MIN_VALUE;
+		}
+
+		long epochSeconds = (toEpochDay(year, month, day) * SECONDS_PER_DAY) + (hour * 3600) + (minute * 60) + second - offsetSeconds;
+		return (epochSeconds * MILLIS_PER_SECOND) + millis;
+	}
+
+	/**
+	 * @return The offset in seconds or {@link Integer#MIN_VALUE} if the offset is invalid.
+	 */
+	private static int parseOffset(String date, int start) {
+		int length = date.length() - start;
+		char sign = date.charAt(start);
+
+		if (sign == 'Z') {
+			return length == 1 ? 0 : Integer.MIN_VALUE;
+		} else if ((sign != '+') && (sign != '-')) {
+			return Integer.MIN_VALUE;
+		}
+
+		int hours;
+		int minutes;
+
+		if (length == 3) {
+			hours = digits(date, start + 1, 2);
+			minutes = 0;
+		} else if (length == 5) {
+			hours = digits(date, start + 1, 2);
+			minutes = digits(date, start + 3, 2);
+		} else if ((length == 6) && (date.charAt(start + 3) == ':')) {
+			hours = digits(date, start + 1, 2);
+			minutes = digits(date, start + 4, 2);
+		} else {
+			return Integer.MIN_VALUE;
+		}
+
+		if ((hours < 0) || (hours > 18) || (minutes < 0) || (minutes > 59)) {
+			return Integer.MIN_VALUE;
+		}
+
+		int offset = (hours * 3600) + (minutes * 60);
+		return sign == '-' ? -offset : offset;
+	}
+
+	/**
+	 * @return The parsed number or -1 if there is a non-digit character.
+	 */
+	private static int digits(String date, int start, int length) {
+		int value = 0;
+
+		for (int i = start; i < start + length; i++) {
+			char c = date.charAt(i);
+
+			if ((c < '0') || (c > '9')) {
+				return -1;
+			}
+
+			value = (value * 10) + (c - '0');
+		}
+
+		return value;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return ((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0)) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * Calculates the days since 1970-01-01 of a date in the proleptic Gregorian calendar.
+	 */
+	private static long toEpochDay(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - (era * 400);
+		long dayOfYear = ((153 * (month > 2 ? month - 3 : month + 9)) + 2) / 5 + day - 1;
+		long dayOfEra = (yearOfEra * 365) + (yearOfEra / 4) - (yearOfEra / 100) + dayOfYear;
+
+		return (era * 146097) + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+}
@@ -1,9 +1,7 @@
 package org.continuity.request.rates.entities;
 
 import java.io.ByteArrayInputStream;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,8 +25,6 @@ public class CsvRow {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CsvRow.class);
 
-	private static final DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH-mm-ss-SSSX");
-
 	private static final String DEFAULT_ENCODING = "<no-encoding>";
 
 	@Parsed
@@ -155,13 +151,13 @@ public class CsvRow {
 	public boolean checkDates() {
 		try {
 			if (startDate != null) {
-				DATE_FORMAT.parse(startDate);
+				CsvDateParser.parseMillis(startDate);
 			}
 
 			if (endDate != null) {
-				DATE_FORMAT.parse(endDate);
+				CsvDateParser.parseMillis(endDate);
 			}
-		} catch (ParseException e) {
+		} catch (DateTimeParseException e) {
 			LOGGER.error("Cannot parse date!", e);
 			return false;
 		}
@@ -203,16 +199,16 @@ public class CsvRow {
 
 		if (startDate != null) {
 			try {
-				record.setStartDate(DATE_FORMAT.parse(startDate));
-			} catch (ParseException e) {
+				record.setStartDate(CsvDateParser.parse(startDate));
+			} catch (DateTimeParseException e) {
 				LOGGER.error("Cannot parse start date!", e);
 			}
 		}
 
 		if (endDate != null) {
 			try {
-				record.setEndDate(DATE_FORMAT.parse(endDate));
-			} catch (ParseException e) {
+				record.setEndDate(CsvDateParser.parse(endDate));
+			} catch (DateTimeParseException e) {
 				LOGGER.error("Cannot parse end date!", e);
 			}
 		}
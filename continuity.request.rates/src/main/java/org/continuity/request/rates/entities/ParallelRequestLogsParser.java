@@ -0,0 +1,187 @@
+package org.continuity.request.rates.entities;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.univocity.parsers.common.processor.BeanListProcessor;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+
+/**
+ * Parses request logs in CSV format in parallel. The input is split into chunks of complete rows,
+ * respecting quoted line breaks, which are parsed and converted to {@link RequestRecord}s
+ * concurrently. The order of the rows is retained. <br>
+ *
+ * As {@link CsvRow#listFromString(String)}, the first row is expected to hold the headers and the
+ * delimiter is either {@code ,} or {@code ;}. Quotes are expected to enclose whole values, as
+ * the chunks are split at line breaks after an even number of quotes.
+ */
+public class ParallelRequestLogsParser {
+
+	/**
+	 * Inputs smaller than this number of characters are not split.
+	 */
+	private static final int MIN_CHUNK_LENGTH = 64 * 1024;
+
+	private static final char QUOTE = '"';
+
+	private final int numChunks;
+
+	/**
+	 * Creates a parser splitting the input into four chunks per available processor.
+	 */
+	public ParallelRequestLogsParser() {
+		this(4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param numChunks
+	 *            The maximum number of chunks the input is split into.
+	 */
+	public ParallelRequestLogsParser(int numChunks) {
+		this.numChunks = Math.max(1, numChunks);
+	}
+
+	/**
+	 * Parses the request logs and converts them to {@link RequestRecord}s.
+	 *
+	 * @param requestLogs
+	 *            The request logs in CSV format including the header row.
+	 * @return The records in the order of the rows.
+	 */
+	public List<RequestRecord> parseRecords(String requestLogs) {
+		return parse(requestLogs, true).stream().flatMap(List::stream).map(RequestRecord.class::cast).collect(Collectors.toList());
+	}
+
+	/**
+	 * Parses the request logs to {@link CsvRow}s.
+	 *
+	 * @param requestLogs
+	 *            The request logs in CSV format including the header row.
+	 * @return The rows in the order of the request logs.
+	 */
+	public List<CsvRow> parseRows(String requestLogs) {
+		return parse(requestLogs, false).stream().flatMap(List::stream).map(CsvRow.class::cast).collect(Collectors.toList());
+	}
+
+	/**
+	 * Converts already parsed rows to {@link RequestRecord}s concurrently.
+	 *
+	 * @param rows
+	 *            The rows.
+	 * @return The records in the order of the rows.
+	 */
+	public static List<RequestRecord> toRecords(List<CsvRow> rows) {
+		return rows.parallelStream().map(CsvRow::toRecord).collect(Collectors.toList());
+	}
+
+	private List<List<?>> parse(String requestLogs, boolean toRecords) {
+		int headerEnd = nextRowEnd(requestLogs, 0);
+
+		if (headerEnd < 0) {
+			return new ArrayList<>();
+		}
+
+		String headerRow = requestLogs.substring(0, headerEnd).trim();
+		char delimiter = detectDelimiter(headerRow);
+		String[] headers = parseHeaders(headerRow, delimiter);
+
+		List<int[]> chunks = split(requestLogs, headerEnd);
+
+		return chunks.parallelStream().map(chunk -> {
+			List<CsvRow> rows = parseChunk(requestLogs.substring(chunk[0], chunk[1]), headers, delimiter);
+			return toRecords ? rows.stream().map(CsvRow::toRecord).collect(Collectors.toList()) : rows;
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Splits the rows after the header into chunks of roughly the same length ending at row
+	 * boundaries.
+	 *
+	 * @return The start (inclusive) and end (exclusive) index per chunk.
+	 */
+	private List<int[]> split(String requestLogs, int start) {
+		int length = requestLogs.length();
+		int targetLength = Math.max(MIN_CHUNK_LENGTH, (length - start) / numChunks);
+
+		List<int[]> chunks = new ArrayList<>();
+		int chunkStart = start;
+
+		while (chunkStart < length) {
+			int chunkEnd = chunkStart + targetLength >= length ? length : nextRowEnd(requestLogs, chunkStart, chunkStart + targetLength);
+
+			if (chunkEnd < 0) {
+				chunkEnd = length;
+			}
+
+			chunks.add(new int[] { chunkStart, chunkEnd });
+			chunkStart = chunkEnd;
+		}
+
+		return chunks;
+	}
+
+	/**
+	 * Gets the index after the end of the row starting at the passed index.
+	 *
+	 * @return The index after the line break or {@code -1} if there is none.
+	 */
+	private int nextRowEnd(String requestLogs, int rowStart) {
+		return nextRowEnd(requestLogs, rowStart, rowStart);
+	}
+
+	/**
+	 * Gets the index after the first line break outside of quotes that is not before the passed
+	 * minimum. The quotes are counted from the passed row start.
+	 *
+	 * @return The index after the line break or {@code -1} if there is none.
+	 */
+	private int nextRowEnd(String requestLogs, int rowStart, int minIndex) {
+		boolean quoted = false;
+
+		for (int i = rowStart; i < requestLogs.length(); i++) {
+			char c = requestLogs.charAt(i);
+
+			if (c == QUOTE) {
+				quoted = !quoted;
+			} else if ((c == '\n') && !quoted && (i >= minIndex)) {
+				return i + 1;
+			}
+		}
+
+		return -1;
+	}
+
+	private char detectDelimiter(String headerRow) {
+		long numSemicolons = headerRow.chars().filter(c -> c == ';').count();
+		long numCommas = headerRow.chars().filter(c -> c == ',').count();
+
+		return numSemicolons > numCommas ? ';' : ',';
+	}
+
+	private String[] parseHeaders(String headerRow, char delimiter) {
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.getFormat().setDelimiter(delimiter);
+
+		return new CsvParser(settings).parseLine(headerRow);
+	}
+
+	private List<CsvRow> parseChunk(String chunk, String[] headers, char delimiter) {
+		BeanListProcessor<CsvRow> rowProcessor = new BeanListProcessor<>(CsvRow.class);
+
+		CsvParserSettings settings = new CsvParserSettings();
+		settings.setProcessor(rowProcessor);
+		settings.setHeaders(headers);
+		settings.setHeaderExtractionEnabled(false);
+		settings.getFormat().setDelimiter(delimiter);
+
+		new CsvParser(settings).parse(new StringReader(chunk));
+
+		return rowProcessor.getBeans();
+	}
+
+}
@@ -3,7 +3,8 @@ package org.continuity.request.rates.transform;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
+import org.continuity.idpa.IdpaIndex;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.HttpEndpoint;
 import org.continuity.idpa.visitor.FindBy;
@@ -19,11 +20,14 @@ public class ModularizingRequestRatesCalculator extends RequestRatesCalculator {
 
 	private final Collection<Application> applications;
 
-	private final Collection<RequestUriMapper> uriMappers;
+	private final Collection<IdpaIndex> applicationIndices;
+
+	private final Collection<CompiledRequestUriMapper> uriMappers;
 
 	public ModularizingRequestRatesCalculator(Collection<Application> applications) {
 		this.applications = applications;
-		this.uriMappers = applications.stream().map(RequestUriMapper::new).collect(Collectors.toList());
+		this.applicationIndices = applications.stream().map(IdpaIndex::of).collect(Collectors.toList());
+		this.uriMappers = applications.stream().map(CompiledRequestUriMapper::new).collect(Collectors.toList());
 	}
 
 	@Override
@@ -31,13 +35,13 @@ public class ModularizingRequestRatesCalculator extends RequestRatesCalculator {
 		HttpEndpoint endpoint = null;
 
 		if (record.getName() != null) {
-			for (Application app : applications) {
-				endpoint = FindBy.findById(record.getName(), HttpEndpoint.class).in(app).getFound();
+			for (IdpaIndex index : applicationIndices) {
+				endpoint = FindBy.findById(record.getName(), HttpEndpoint.class).in(index).getFound();
 			}
 		}
 
 		if ((endpoint == null) && (record.getPath() != null)) {
-			for (RequestUriMapper mapper : uriMappers) {
+			for (CompiledRequestUriMapper mapper : uriMappers) {
 				HttpEndpoint found = mapper.map(record.getPath(), record.getMethod());
 
 				if ((found != null)
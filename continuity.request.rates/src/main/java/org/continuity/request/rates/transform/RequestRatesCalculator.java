@@ -25,7 +25,7 @@ public abstract class RequestRatesCalculator {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(RequestRatesCalculator.class);
 
-	private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+	static final String UNKNOWN_ENDPOINT = "UNKNOWN";
 
 	protected abstract HttpEndpoint mapToEndpoint(RequestRecord record);
 
@@ -109,19 +109,32 @@ public abstract class RequestRatesCalculator {
 	}
 
 	private Endpoint<?> aggregateRequests(List<RequestRecord> records) {
+		return createEndpoint(getFirst(records, RequestRecord::getName), getFirst(records, RequestRecord::getDomain), getFirst(records, RequestRecord::getPort),
+				getFirst(records, RequestRecord::getPath), getFirst(records, RequestRecord::getMethod), getFirst(records, RequestRecord::getProtocol),
+				getFirst(records, RequestRecord::getEncoding), extractHeaders(records));
+	}
+
+	/**
+	 * Creates an endpoint from the aggregated properties of the requests with the same name.
+	 *
+	 * @param headers
+	 *            The distinct headers of all requests in the order of their first occurrence.
+	 * @return The endpoint.
+	 */
+	HttpEndpoint createEndpoint(String name, String domain, String port, String path, String method, String protocol, String encoding, List<String> headers) {
 		HttpEndpoint endpoint = new HttpEndpoint();
 
-		endpoint.setId(getFirst(records, RequestRecord::getName));
-		endpoint.setDomain(getFirst(records, RequestRecord::getDomain));
-		endpoint.setPort(getFirst(records, RequestRecord::getPort));
-		endpoint.setPath(getFirst(records, RequestRecord::getPath));
-		endpoint.setMethod(getFirst(records, RequestRecord::getMethod));
-		endpoint.setProtocol(getFirst(records, RequestRecord::getProtocol));
-		endpoint.setEncoding(getFirst(records, RequestRecord::getEncoding));
+		endpoint.setId(name);
+		endpoint.setDomain(domain);
+		endpoint.setPort(port);
+		endpoint.setPath(path);
+		endpoint.setMethod(method);
+		endpoint.setProtocol(protocol);
+		endpoint.setEncoding(encoding);
 
-		endpoint.setHeaders(extractHeaders(records));
+		endpoint.setHeaders(headers);
 
-		endpoint.setParameters(extractHttpParameters(records));
+		endpoint.setParameters(extractHttpParameters(headers));
 		setParameterIds(endpoint);
 
 		return endpoint;
@@ -142,8 +155,8 @@ public abstract class RequestRatesCalculator {
 		return records.stream().map(RequestRecord::getHeaders).filter(Objects::nonNull).flatMap(List::stream).distinct().collect(Collectors.toList());
 	}
 
-	private List<HttpParameter> extractHttpParameters(List<RequestRecord> records) {
-		return records.stream().map(RequestRecord::getHeaders).filter(Objects::nonNull).flatMap(List::stream).distinct().map(name -> {
+	private List<HttpParameter> extractHttpParameters(List<String> headers) {
+		return headers.stream().map(name -> {
 			HttpParameter param = new HttpParameter();
 
 			if (name.startsWith("_BODY")) {
@@ -0,0 +1,554 @@
+package org.continuity.request.rates.transform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.request.rates.entities.RequestRecord;
+import org.continuity.request.rates.model.RequestFrequency;
+import org.continuity.request.rates.model.RequestRatesModel;
+
+/**
+ * Incrementally calculates request rates models. Instead of holding the request records, the
+ * number of requests per endpoint is counted in time buckets of a fixed length. Hence, new
+ * records can be added as they arrive and a {@link RequestRatesModel} can be created for any
+ * window in linear time in the number of buckets. <br>
+ *
+ * For windows that are aligned to the buckets, the created models equal the ones calculated by
+ * {@link RequestRatesCalculator#calculate(List)} on the records of the window. Otherwise, the
+ * window is extended to the enclosing buckets. This class is not thread-safe.
+ */
+public class RequestRatesWindow {
+
+	/**
+	 * One minute.
+	 */
+	public static final long DEFAULT_BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private static final int NUM_PROPERTIES = 6;
+
+	private static final int DOMAIN = 0;
+
+	private static final int PORT = 1;
+
+	private static final int PATH = 2;
+
+	private static final int METHOD = 3;
+
+	private static final int PROTOCOL = 4;
+
+	private static final int ENCODING = 5;
+
+	private final RequestRatesCalculator calculator;
+
+	private final long bucketMillis;
+
+	private final long retentionMillis;
+
+	private final NavigableMap<Long, Bucket> buckets = new TreeMap<>();
+
+	/**
+	 * Counts the added records to retain the order of records with the same start and end dates.
+	 */
+	private long sequence = 0;
+
+	/**
+	 * The first and last bucket of the contiguous range that has been {@link #update(Collection)
+	 * updated} or {@link #replace(Collection) replaced}. {@code coveredFrom > coveredTo} if there
+	 * is none.
+	 */
+	private long coveredFrom = Long.MAX_VALUE;
+
+	private long coveredTo = Long.MIN_VALUE;
+
+	/**
+	 * Creates a window with buckets of {@link #DEFAULT_BUCKET_MILLIS} that never evicts buckets
+	 * automatically.
+	 *
+	 * @param calculator
+	 *            The calculator defining how the records are mapped to endpoints.
+	 */
+	public RequestRatesWindow(RequestRatesCalculator calculator) {
+		this(calculator, DEFAULT_BUCKET_MILLIS, 0);
+	}
+
+	/**
+	 * Creates a window.
+	 *
+	 * @param calculator
+	 *            The calculator defining how the records are mapped to endpoints.
+	 * @param bucketMillis
+	 *            The length of the buckets in milliseconds.
+	 * @param retentionMillis
+	 *            The time in milliseconds, after which buckets are evicted, relative to the latest
+	 *            bucket. 0 for never evicting buckets.
+	 */
+	public RequestRatesWindow(RequestRatesCalculator calculator, long bucketMillis, long retentionMillis) {
+		if (bucketMillis <= 0) {
+			throw new IllegalArgumentException("The bucket length needs to be positive, but was " + bucketMillis + "!");
+		}
+
+		this.calculator = calculator;
+		this.bucketMillis = bucketMillis;
+		this.retentionMillis = retentionMillis;
+	}
+
+	public RequestRatesCalculator getCalculator() {
+		return calculator;
+	}
+
+	/**
+	 * Adds a record to the bucket of its start date.
+	 *
+	 * @param record
+	 *            The record to be added.
+	 */
+	public void add(RequestRecord record) {
+		long start = record.getStartDate().getTime();
+		long end = record.getEndDate().getTime();
+		OrderKey key = new OrderKey(start, end, sequence++, 0);
+
+		Bucket bucket = buckets.computeIfAbsent(toBucket(start), b -> new Bucket());
+		bucket.minStart = Math.min(bucket.minStart, start);
+		bucket.maxStart = Math.max(bucket.maxStart, start);
+		bucket.records.add(record);
+
+		if (calculator.useNames()) {
+			String name = record.getName() == null ? RequestRatesCalculator.UNKNOWN_ENDPOINT : record.getName();
+			bucket.endpoints.computeIfAbsent(name, n -> new EndpointCount(null)).add(record, key);
+		} else {
+			HttpEndpoint endpoint = calculator.mapToEndpoint(record);
+
+			if (endpoint != null) {
+				bucket.endpoints.computeIfAbsent(endpoint.getId(), n -> new EndpointCount(endpoint)).addMapped(endpoint, key);
+			}
+		}
+	}
+
+	/**
+	 * Adds all records in the order of the collection and evicts buckets that exceed the
+	 * retention.
+	 *
+	 * @param records
+	 *            The records to be added.
+	 */
+	public void addAll(Collection<RequestRecord> records) {
+		records.forEach(this::add);
+		evictExpired();
+	}
+
+	/**
+	 * Replaces the buckets covered by the start dates of the passed records with the records.
+	 * Buckets before and after are retained. Does not evict buckets, so that the covered window
+	 * can be calculated even if it exceeds the retention.
+	 *
+	 * @param records
+	 *            The records to be added.
+	 * @return The covered window, i.e., the earliest and latest start date of the records.
+	 *         {@code null} if there are no records.
+	 */
+	public Date[] replace(Collection<RequestRecord> records) {
+		if (records.isEmpty()) {
+			return null;
+		}
+
+		long minStart = Long.MAX_VALUE;
+		long maxStart = Long.MIN_VALUE;
+
+		for (RequestRecord record : records) {
+			minStart = Math.min(minStart, record.getStartDate().getTime());
+			maxStart = Math.max(maxStart, record.getStartDate().getTime());
+		}
+
+		buckets.subMap(toBucket(minStart), true, toBucket(maxStart), true).clear();
+		records.forEach(this::add);
+
+		coveredFrom = toBucket(minStart);
+		coveredTo = toBucket(maxStart);
+
+		return new Date[] { new Date(minStart), new Date(maxStart) };
+	}
+
+	/**
+	 * Like {@link #replace(Collection)}, but reuses the buckets of previous updates. The records
+	 * are expected to be a later snapshot of the same append-only request logs, e.g., of the same
+	 * tag. Hence, the buckets of the previously covered range are kept and the corresponding records
+	 * are skipped, except for the last bucket, which might have been incomplete, and the first
+	 * bucket of the records. Only the other buckets are replaced. As the records can also differ,
+	 * e.g., if the request logs have been corrected or filtered, a bucket is only kept if the number
+	 * and a checksum of its records match. Otherwise, it is replaced as well.
+	 *
+	 * @param records
+	 *            The records to be added.
+	 * @return The covered window, i.e., the earliest and latest start date of the records.
+	 *         {@code null} if there are no records.
+	 */
+	public Date[] update(Collection<RequestRecord> records) {
+		if (records.isEmpty()) {
+			return null;
+		}
+
+		long minStart = Long.MAX_VALUE;
+		long maxStart = Long.MIN_VALUE;
+
+		for (RequestRecord record : records) {
+			minStart = Math.min(minStart, record.getStartDate().getTime());
+			maxStart = Math.max(maxStart, record.getStartDate().getTime());
+		}
+
+		long from = toBucket(minStart);
+		long to = toBucket(maxStart);
+
+		Map<Long, Fingerprint> fingerprints = new HashMap<>();
+
+		for (RequestRecord record : records) {
+			long bucket = toBucket(record.getStartDate().getTime());
+
+			if (isInCoveredRange(bucket, from)) {
+				fingerprints.computeIfAbsent(bucket, b -> new Fingerprint()).add(record);
+			}
+		}
+
+		Set<Long> reused = new HashSet<>();
+
+		for (Entry<Long, Bucket> entry : buckets.subMap(from, true, to, true).entrySet()) {
+			if (isInCoveredRange(entry.getKey(), from) && entry.getValue().records.equals(fingerprints.get(entry.getKey()))) {
+				reused.add(entry.getKey());
+			}
+		}
+
+		buckets.subMap(from, true, to, true).keySet().retainAll(reused);
+
+		for (RequestRecord record : records) {
+			if (!reused.contains(toBucket(record.getStartDate().getTime()))) {
+				add(record);
+			}
+		}
+
+		if ((coveredFrom <= coveredTo) && (from <= (coveredTo + bucketMillis)) && (to >= (coveredFrom - bucketMillis))) {
+			coveredFrom = Math.min(coveredFrom, from);
+			coveredTo = Math.max(coveredTo, to);
+		} else {
+			coveredFrom = from;
+			coveredTo = to;
+		}
+
+		return new Date[] { new Date(minStart), new Date(maxStart) };
+	}
+
+	/**
+	 * Whether the bucket is within the covered range, but not the last one. The first bucket of
+	 * the records is not reused, as it can hold earlier requests that are not part of them.
+	 */
+	private boolean isInCoveredRange(long bucket, long first) {
+		return (bucket > first) && (bucket >= coveredFrom) && (bucket < coveredTo);
+	}
+
+	/**
+	 * Evicts all buckets ending before the passed date.
+	 *
+	 * @param date
+	 *            The date.
+	 */
+	public void evictBefore(Date date) {
+		evictBefore(toBucket(date.getTime()));
+	}
+
+	private void evictBefore(long bucket) {
+		buckets.headMap(bucket).clear();
+		coveredFrom = Math.max(coveredFrom, bucket);
+	}
+
+	/**
+	 * Gets the number of currently held buckets.
+	 *
+	 * @return The number of buckets.
+	 */
+	public int getNumBuckets() {
+		return buckets.size();
+	}
+
+	/**
+	 * Creates a request rates model from all held buckets.
+	 *
+	 * @return The request rates model.
+	 */
+	public RequestRatesModel calculate() {
+		return calculate(buckets);
+	}
+
+	/**
+	 * Creates a request rates model from the buckets intersecting the passed window.
+	 *
+	 * @param from
+	 *            The start of the window (inclusive).
+	 * @param to
+	 *            The end of the window (inclusive).
+	 * @return The request rates model. The mix is empty if there are no requests in the window.
+	 */
+	public RequestRatesModel calculate(Date from, Date to) {
+		return calculate(buckets.subMap(toBucket(from.getTime()), true, toBucket(to.getTime()), true));
+	}
+
+	private RequestRatesModel calculate(Map<Long, Bucket> window) {
+		long minStart = Long.MAX_VALUE;
+		long maxStart = Long.MIN_VALUE;
+		Map<String, EndpointCount> merged = new HashMap<>();
+
+		for (Bucket bucket : window.values()) {
+			minStart = Math.min(minStart, bucket.minStart);
+			maxStart = Math.max(maxStart, bucket.maxStart);
+
+			for (Entry<String, EndpointCount> entry : bucket.endpoints.entrySet()) {
+				merged.computeIfAbsent(entry.getKey(), n -> new EndpointCount(entry.getValue().endpoint)).merge(entry.getValue());
+			}
+		}
+
+		RequestRatesModel model = new RequestRatesModel();
+		long overallNumRequests = merged.values().stream().mapToLong(count -> count.count).sum();
+
+		if (overallNumRequests == 0) {
+			model.setMix(new ArrayList<>());
+			return model;
+		}
+
+		List<RequestFrequency> mix = new ArrayList<>(merged.size());
+
+		for (Entry<String, EndpointCount> entry : merged.entrySet()) {
+			mix.add(new RequestFrequency((double) entry.getValue().count / overallNumRequests, entry.getValue().toEndpoint(entry.getKey())));
+		}
+
+		long duration = TimeUnit.MINUTES.convert(maxStart - minStart, TimeUnit.MILLISECONDS);
+
+		model.setRequestsPerMinute((double) overallNumRequests / duration);
+		model.setMix(mix);
+
+		return model;
+	}
+
+	/**
+	 * Evicts the buckets that exceed the retention, relative to the latest bucket.
+	 */
+	public void evictExpired() {
+		if ((retentionMillis > 0) && !buckets.isEmpty()) {
+			evictBefore(buckets.lastKey() - retentionMillis);
+		}
+	}
+
+	private long toBucket(long millis) {
+		return Math.floorDiv(millis, bucketMillis) * bucketMillis;
+	}
+
+	private static class Bucket {
+
+		private long minStart = Long.MAX_VALUE;
+
+		private long maxStart = Long.MIN_VALUE;
+
+		private final Map<String, EndpointCount> endpoints = new HashMap<>();
+
+		private final Fingerprint records = new Fingerprint();
+
+	}
+
+	/**
+	 * Number and checksum of records, which does not depend on the order of the records.
+	 */
+	private static class Fingerprint {
+
+		private long count = 0;
+
+		private long checksum = 0;
+
+		private void add(RequestRecord record) {
+			long hash = record.getStartDate().getTime();
+			hash = (31 * hash) + record.getEndDate().getTime();
+			hash = (31 * hash) + Objects.hashCode(record.getName());
+			hash = (31 * hash) + Objects.hashCode(record.getDomain());
+			hash = (31 * hash) + Objects.hashCode(record.getPort());
+			hash = (31 * hash) + Objects.hashCode(record.getPath());
+			hash = (31 * hash) + Objects.hashCode(record.getMethod());
+			hash = (31 * hash) + Objects.hashCode(record.getEncoding());
+			hash = (31 * hash) + Objects.hashCode(record.getProtocol());
+			hash = (31 * hash) + Objects.hashCode(record.getParameters());
+			hash = (31 * hash) + Objects.hashCode(record.getHeaders());
+
+			count++;
+			checksum += mix(hash);
+		}
+
+		/**
+		 * The finalizer of the 64-bit MurmurHash3, so that similar records contribute dissimilar
+		 * values to the checksum.
+		 */
+		private static long mix(long hash) {
+			hash ^= hash >>> 33;
+			hash *= 0xff51afd7ed558ccdL;
+			hash ^= hash >>> 33;
+			hash *= 0xc4ceb9fe1a85ec53L;
+			hash ^= hash >>> 33;
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Fingerprint)) {
+				return false;
+			}
+
+			Fingerprint other = (Fingerprint) obj;
+			return (count == other.count) && (checksum == other.checksum);
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(checksum);
+		}
+
+	}
+
+	/**
+	 * Number of requests to an endpoint and the properties of the first request that define the
+	 * endpoint.
+	 */
+	private class EndpointCount {
+
+		private long count = 0;
+
+		/**
+		 * The mapped endpoint if the application model is used.
+		 */
+		private HttpEndpoint endpoint;
+
+		private OrderKey endpointKey;
+
+		private final String[] properties = new String[NUM_PROPERTIES];
+
+		private final OrderKey[] propertyKeys = new OrderKey[NUM_PROPERTIES];
+
+		private final Map<String, OrderKey> headers = new HashMap<>();
+
+		private EndpointCount(HttpEndpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		private void addMapped(HttpEndpoint endpoint, OrderKey key) {
+			count++;
+
+			if ((endpointKey == null) || (key.compareTo(endpointKey) < 0)) {
+				this.endpoint = endpoint;
+				this.endpointKey = key;
+			}
+		}
+
+		private void add(RequestRecord record, OrderKey key) {
+			count++;
+
+			setIfFirst(DOMAIN, record.getDomain(), key);
+			setIfFirst(PORT, record.getPort(), key);
+			setIfFirst(PATH, record.getPath(), key);
+			setIfFirst(METHOD, record.getMethod(), key);
+			setIfFirst(PROTOCOL, record.getProtocol(), key);
+			setIfFirst(ENCODING, record.getEncoding(), key);
+
+			if (record.getHeaders() != null) {
+				int index = 0;
+
+				for (String header : record.getHeaders()) {
+					OrderKey headerKey = new OrderKey(key.start, key.end, key.sequence, index++);
+					headers.merge(header, headerKey, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+				}
+			}
+		}
+
+		private void merge(EndpointCount other) {
+			count += other.count;
+
+			if ((other.endpointKey != null) && ((endpointKey == null) || (other.endpointKey.compareTo(endpointKey) < 0))) {
+				endpoint = other.endpoint;
+				endpointKey = other.endpointKey;
+			}
+
+			for (int i = 0; i < NUM_PROPERTIES; i++) {
+				setIfFirst(i, other.properties[i], other.propertyKeys[i]);
+			}
+
+			other.headers.forEach((header, key) -> headers.merge(header, key, (a, b) -> a.compareTo(b) <= 0 ? a : b));
+		}
+
+		private void setIfFirst(int property, String value, OrderKey key) {
+			if ((value != null) && ((propertyKeys[property] == null) || (key.compareTo(propertyKeys[property]) < 0))) {
+				properties[property] = value;
+				propertyKeys[property] = key;
+			}
+		}
+
+		private HttpEndpoint toEndpoint(String name) {
+			if (!calculator.useNames()) {
+				return endpoint;
+			}
+
+			List<String> sortedHeaders = headers.entrySet().stream().sorted(Map.Entry.comparingByValue()).map(Map.Entry::getKey)
+					.collect(Collectors.toCollection(ArrayList::new));
+
+			return calculator.createEndpoint(name, properties[DOMAIN], properties[PORT], properties[PATH], properties[METHOD], properties[PROTOCOL], properties[ENCODING], sortedHeaders);
+		}
+
+	}
+
+	/**
+	 * Position of a record (and a header within a record) in the order used by
+	 * {@link RequestRatesCalculator}, i.e., sorted by start and end date and then by the order of
+	 * addition.
+	 */
+	private static class OrderKey implements Comparable<OrderKey> {
+
+		private final long start;
+
+		private final long end;
+
+		private final long sequence;
+
+		private final int index;
+
+		private OrderKey(long start, long end, long sequence, int index) {
+			this.start = start;
+			this.end = end;
+			this.sequence = sequence;
+			this.index = index;
+		}
+
+		@Override
+		public int compareTo(OrderKey other) {
+			int comparison = Long.compare(start, other.start);
+
+			if (comparison == 0) {
+				comparison = Long.compare(end, other.end);
+			}
+
+			if (comparison == 0) {
+				comparison = Long.compare(sequence, other.sequence);
+			}
+
+			if (comparison == 0) {
+				comparison = Integer.compare(index, other.index);
+			}
+
+			return comparison;
+		}
+
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.continuity.request.rates.transform;
 
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
+import org.continuity.idpa.IdpaIndex;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.HttpEndpoint;
 import org.continuity.idpa.visitor.FindBy;
@@ -10,7 +11,9 @@ public class SimpleRequestRatesCalculator extends RequestRatesCalculator {
 
 	private final Application application;
 
-	private final RequestUriMapper uriMapper;
+	private final IdpaIndex applicationIndex;
+
+	private final CompiledRequestUriMapper uriMapper;
 
 	public SimpleRequestRatesCalculator() {
 		this(null);
@@ -18,7 +21,8 @@ public class SimpleRequestRatesCalculator extends RequestRatesCalculator {
 
 	public SimpleRequestRatesCalculator(Application application) {
 		this.application = application;
-		this.uriMapper = application == null ? null : new RequestUriMapper(application);
+		this.applicationIndex = IdpaIndex.of(application);
+		this.uriMapper = application == null ? null : new CompiledRequestUriMapper(application);
 	}
 
 	@Override
@@ -26,7 +30,7 @@ public class SimpleRequestRatesCalculator extends RequestRatesCalculator {
 		HttpEndpoint endpoint = null;
 
 		if (record.getName() != null) {
-			endpoint = FindBy.findById(record.getName(), HttpEndpoint.class).in(application).getFound();
+			endpoint = FindBy.findById(record.getName(), HttpEndpoint.class).in(applicationIndex).getFound();
 		}
 
 		if ((endpoint == null) && (record.getPath() != null)) {
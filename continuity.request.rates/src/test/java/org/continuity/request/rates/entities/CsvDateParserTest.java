@@ -0,0 +1,77 @@
+package org.continuity.request.rates.entities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link CsvDateParser} against {@link SimpleDateFormat} and {@link DateTimeFormatter}
+ * on random dates.
+ */
+public class CsvDateParserTest {
+
+	private static final int NUM_SAMPLES = 100000;
+
+	@Test
+	public void testRequestLogsFormat() throws Exception {
+		Random random = new Random(42);
+		String pattern = "yyyy-MM-dd'T'HH-mm-ss-SSS";
+
+		for (int i = 0; i < NUM_SAMPLES; i++) {
+			OffsetDateTime date = randomDate(random);
+			String formatted = CsvDateParser.FORMATTER.format(date);
+
+			assertThat(CsvDateParser.parseMillis(formatted)).as(formatted).isEqualTo(date.toInstant().toEpochMilli());
+
+			for (String zonePattern : new String[] { "XX", "XXX" }) {
+				formatted = DateTimeFormatter.ofPattern(pattern + zonePattern).format(date);
+				long expected = new SimpleDateFormat(pattern + zonePattern).parse(formatted).getTime();
+
+				assertThat(CsvDateParser.parseMillis(formatted)).as(formatted).isEqualTo(expected);
+			}
+		}
+	}
+
+	@Test
+	public void testIsoFormat() {
+		Random random = new Random(43);
+
+		for (int i = 0; i < NUM_SAMPLES; i++) {
+			OffsetDateTime date = randomDate(random);
+			String formatted = DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(date);
+
+			assertThat(CsvDateParser.parseMillis(formatted)).as(formatted).isEqualTo(date.toInstant().toEpochMilli());
+		}
+	}
+
+	@Test
+	public void testEpochMillis() {
+		assertThat(CsvDateParser.parseMillis("1514764800123")).isEqualTo(1514764800123L);
+		assertThat(CsvDateParser.parseMillis("-1000")).isEqualTo(-1000L);
+	}
+
+	@Test
+	public void testInvalidDates() {
+		for (String invalid : new String[] { "", "-", "foo", "2018-13-01T10-00-00-000Z", "2018-02-29T10-00-00-000Z", "2018-01-01T24-00-00-000Z", "2018-01-01T10-00-00-000",
+				"2018-01-01T10-00-00-000+1", "2018-01-01 10:00:00" }) {
+			assertThatThrownBy(() -> CsvDateParser.parseMillis(invalid)).as(invalid).isInstanceOf(DateTimeParseException.class);
+		}
+	}
+
+	private OffsetDateTime randomDate(Random random) {
+		long millis = (long) (random.nextDouble() * 4102444800000L);
+		ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(37) - 18) * 1800);
+
+		return Instant.ofEpochMilli(millis).atOffset(offset);
+	}
+
+}
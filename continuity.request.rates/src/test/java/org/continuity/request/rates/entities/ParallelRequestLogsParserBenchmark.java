@@ -0,0 +1,34 @@
+package org.continuity.request.rates.entities;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Measures parsing request logs of one million rows ({@code -Dbenchmark.rows}) to
+ * {@link RequestRecord}s sequentially using {@link CsvRow#listFromString(String)} and using the
+ * {@link ParallelRequestLogsParser}. Not run as part of the test suite.
+ */
+public class ParallelRequestLogsParserBenchmark {
+
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) {
+		int numRows = Integer.getInteger("benchmark.rows", 1000000);
+		String requestLogs = ParallelRequestLogsParserTest.generateRequestLogs(new Random(42), numRows, ',');
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			long start = System.nanoTime();
+			List<RequestRecord> sequential = CsvRow.listFromString(requestLogs).stream().map(CsvRow::toRecord).collect(Collectors.toList());
+			long sequentialDuration = (System.nanoTime() - start) / 1000000;
+
+			start = System.nanoTime();
+			List<RequestRecord> parallel = new ParallelRequestLogsParser().parseRecords(requestLogs);
+			long parallelDuration = (System.nanoTime() - start) / 1000000;
+
+			System.out.println(String.format("Sequential: %d records in %d ms, parallel (%d processors): %d records in %d ms", sequential.size(), sequentialDuration,
+					Runtime.getRuntime().availableProcessors(), parallel.size(), parallelDuration));
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package org.continuity.request.rates.entities;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ParallelRequestLogsParser} results in the same records as the sequential
+ * parsing using {@link CsvRow#listFromString(String)}.
+ */
+public class ParallelRequestLogsParserTest {
+
+	private static final String[] HEADERS = { "startDate", "endDate", "name", "domain", "port", "path", "method", "encoding", "protocol", "parameters", "headers" };
+
+	private static final String[] VALUES = { "login", "/shop/cart", "GET", "localhost", "8080", "", "a=1&b=2", "\"quoted, with comma\"", "\"multi\nline\"", "\"with \"\"quotes\"\"\"",
+			"Accept: text/html&Cookie: x", "<no-encoding>", "HTTP/1.1" };
+
+	private static final ZoneOffset[] OFFSETS = { ZoneOffset.UTC, ZoneOffset.ofHours(1), ZoneOffset.ofHoursMinutes(-5, -30) };
+
+	@Test
+	public void testEqualsSequentialParser() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 20; i++) {
+			char delimiter = random.nextBoolean() ? ',' : ';';
+			String requestLogs = generateRequestLogs(random, 500 + random.nextInt(5000), delimiter);
+			int numChunks = 1 + random.nextInt(16);
+
+			List<String> expected = CsvRow.listFromString(requestLogs).stream().map(CsvRow::toRecord).map(ParallelRequestLogsParserTest::describe).collect(Collectors.toList());
+			List<String> actual = new ParallelRequestLogsParser(numChunks).parseRecords(requestLogs).stream().map(ParallelRequestLogsParserTest::describe).collect(Collectors.toList());
+
+			assertThat(actual).as("Input %d with %d chunks", i, numChunks).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testEmptyInput() {
+		assertThat(new ParallelRequestLogsParser().parseRecords("")).isEmpty();
+		assertThat(new ParallelRequestLogsParser().parseRecords(String.join(",", HEADERS) + "\n")).isEmpty();
+	}
+
+	private static String describe(RequestRecord record) {
+		return String.join("|", String.valueOf(record.getStartDate() == null ? null : record.getStartDate().getTime()),
+				String.valueOf(record.getEndDate() == null ? null : record.getEndDate().getTime()), record.getName(), record.getDomain(), record.getPort(), record.getPath(), record.getMethod(),
+				record.getEncoding(), record.getProtocol(), String.valueOf(record.getParameters()), String.valueOf(record.getHeaders()));
+	}
+
+	/**
+	 * Generates request logs with dates in all supported formats and values containing quoted
+	 * delimiters, quotes and line breaks.
+	 */
+	static String generateRequestLogs(Random random, int numRows, char delimiter) {
+		StringBuilder logs = new StringBuilder(String.join(Character.toString(delimiter), HEADERS)).append("\n");
+
+		for (int row = 0; row < numRows; row++) {
+			long start = 1514764800000L + (long) (random.nextDouble() * 365 * 24 * 3600 * 1000);
+
+			logs.append(formatDate(random, start)).append(delimiter);
+			logs.append(formatDate(random, start + random.nextInt(5000)));
+
+			for (int i = 2; i < HEADERS.length; i++) {
+				logs.append(delimiter).append(VALUES[random.nextInt(VALUES.length)]);
+			}
+
+			logs.append(random.nextInt(10) == 0 ? "\r\n" : "\n");
+		}
+
+		return logs.toString();
+	}
+
+	private static String formatDate(Random random, long millis) {
+		switch (random.nextInt(3)) {
+		case 0:
+			return Long.toString(millis);
+		case 1:
+			return Instant.ofEpochMilli(millis).atOffset(OFFSETS[random.nextInt(OFFSETS.length)]).toString();
+		default:
+			return CsvDateParser.FORMATTER.format(Instant.ofEpochMilli(millis).atOffset(OFFSETS[random.nextInt(OFFSETS.length)]));
+		}
+	}
+
+}
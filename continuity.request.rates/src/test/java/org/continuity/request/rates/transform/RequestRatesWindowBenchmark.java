@@ -0,0 +1,63 @@
+package org.continuity.request.rates.transform;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.request.rates.entities.RequestRecord;
+
+/**
+ * Streams 100 million records ({@code -Dbenchmark.records}) spread over one week into a
+ * {@link RequestRatesWindow} and measures the calculation of overlapping one-day windows. For
+ * comparison, the full recalculation is measured for one million records
+ * ({@code -Dbenchmark.full-records}), as holding all records in memory is not feasible. Not run as
+ * part of the test suite.
+ */
+public class RequestRatesWindowBenchmark {
+
+	private static final int NUM_MINUTES = (int) TimeUnit.DAYS.toMinutes(7);
+
+	private static final long START = 1514764800000L;
+
+	private static final int NUM_WINDOWS = 100;
+
+	public static void main(String[] args) {
+		long numRecords = Long.getLong("benchmark.records", 100000000L);
+		int numFullRecords = Integer.getInteger("benchmark.full-records", 1000000);
+
+		Random random = new Random(42);
+
+		List<RequestRecord> fullRecords = new ArrayList<>(numFullRecords);
+
+		for (int i = 0; i < numFullRecords; i++) {
+			fullRecords.add(RequestRatesWindowTest.generateRecord(random, START, NUM_MINUTES));
+		}
+
+		long start = System.nanoTime();
+		new SimpleRequestRatesCalculator().calculate(fullRecords);
+		System.out.println(String.format("Full recalculation of %d records: %d ms", numFullRecords, (System.nanoTime() - start) / 1000000));
+
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator());
+
+		start = System.nanoTime();
+
+		for (long i = 0; i < numRecords; i++) {
+			window.add(RequestRatesWindowTest.generateRecord(random, START, NUM_MINUTES));
+		}
+
+		System.out.println(String.format("Adding %d records to %d buckets: %d ms", numRecords, window.getNumBuckets(), (System.nanoTime() - start) / 1000000));
+
+		long day = TimeUnit.DAYS.toMillis(1);
+		start = System.nanoTime();
+
+		for (int i = 0; i < NUM_WINDOWS; i++) {
+			long from = START + ((i * (6 * day)) / NUM_WINDOWS);
+			window.calculate(new Date(from), new Date(from + day - 1));
+		}
+
+		System.out.println(String.format("Calculating %d overlapping one-day windows: %d ms per window", NUM_WINDOWS, (System.nanoTime() - start) / 1000000 / NUM_WINDOWS));
+	}
+
+}
@@ -0,0 +1,264 @@
+package org.continuity.request.rates.transform;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.continuity.idpa.application.Application;
+import org.continuity.idpa.application.HttpEndpoint;
+import org.continuity.request.rates.entities.RequestRecord;
+import org.continuity.request.rates.model.RequestFrequency;
+import org.continuity.request.rates.model.RequestRatesModel;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link RequestRatesWindow} results in the same models as a full recalculation
+ * using the {@link RequestRatesCalculator}.
+ */
+public class RequestRatesWindowTest {
+
+	private static final long START = 1514764800000L;
+
+	private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+	private static final String[] NAMES = { "login", "search", "cart", "checkout", null };
+
+	private static final String[] PATHS = { "/login", "/search", "/cart", "/checkout", "/unknown" };
+
+	private static final String[] HEADERS = { "Accept: */*", "Cookie: abc", "URL_PARTid", "Accept-Encoding: gzip", "query" };
+
+	@Test
+	public void testAllRecordsUsingNames() {
+		Random random = new Random(42);
+		List<RequestRecord> records = generateRecords(random, 5000, 120);
+
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator());
+		window.addAll(records);
+
+		assertThat(describe(window.calculate())).isEqualTo(describe(new SimpleRequestRatesCalculator().calculate(new ArrayList<>(records))));
+	}
+
+	@Test
+	public void testAllRecordsUsingApplication() {
+		Random random = new Random(43);
+		List<RequestRecord> records = generateRecords(random, 5000, 120);
+
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator(application()));
+		window.addAll(records);
+
+		assertThat(describe(window.calculate())).isEqualTo(describe(new SimpleRequestRatesCalculator(application()).calculate(new ArrayList<>(records))));
+	}
+
+	@Test
+	public void testOverlappingWindows() {
+		Random random = new Random(44);
+		List<RequestRecord> records = generateRecords(random, 20000, 240);
+
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator());
+		window.addAll(records);
+
+		for (int i = 0; i < 20; i++) {
+			long from = START + (random.nextInt(120) * MINUTE);
+			long to = from + ((1 + random.nextInt(120)) * MINUTE) - 1;
+
+			List<RequestRecord> inWindow = records.stream().filter(r -> (r.getStartDate().getTime() >= from) && (r.getStartDate().getTime() <= to)).collect(Collectors.toList());
+
+			assertThat(describe(window.calculate(new Date(from), new Date(to)))).as("Window %d", i).isEqualTo(describe(new SimpleRequestRatesCalculator().calculate(inWindow)));
+		}
+	}
+
+	@Test
+	public void testReplaceOverlappingRecords() {
+		Random random = new Random(45);
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator());
+
+		window.replace(generateRecords(random, 5000, 120));
+
+		List<RequestRecord> overlapping = generateRecords(random, 5000, 120);
+		overlapping.forEach(r -> r.setStartDate(new Date(r.getStartDate().getTime() + (60 * MINUTE))));
+		overlapping.forEach(r -> r.setEndDate(new Date(r.getEndDate().getTime() + (60 * MINUTE))));
+
+		Date[] covered = window.replace(overlapping);
+
+		assertThat(describe(window.calculate(covered[0], covered[1]))).isEqualTo(describe(new SimpleRequestRatesCalculator().calculate(new ArrayList<>(overlapping))));
+		assertThat(window.getNumBuckets()).isEqualTo(180);
+	}
+
+	@Test
+	public void testUpdateReusesBuckets() {
+		Random random = new Random(47);
+		List<RequestRecord> earlier = generateRecords(random, 5000, 120);
+
+		// the later snapshot misses the first 30 minutes and has 60 additional ones
+		List<RequestRecord> later = earlier.stream().filter(r -> r.getStartDate().getTime() >= (START + (30 * MINUTE))).collect(Collectors.toList());
+
+		for (int i = 0; i < 2500; i++) {
+			later.add(generateRecord(random, START + (120 * MINUTE), 60));
+		}
+
+		CountingCalculator calculator = new CountingCalculator();
+		RequestRatesWindow window = new RequestRatesWindow(calculator);
+
+		window.update(earlier);
+		calculator.numMapped = 0;
+
+		Date[] covered = window.update(later);
+
+		// only the first bucket of the later records and the last one of the earlier records are recalculated
+		long firstBucket = later.stream().mapToLong(r -> r.getStartDate().getTime()).min().getAsLong() / MINUTE;
+		long lastBucket = earlier.stream().mapToLong(r -> r.getStartDate().getTime()).max().getAsLong() / MINUTE;
+		long expectedMapped = later.stream().map(r -> r.getStartDate().getTime() / MINUTE).filter(bucket -> (bucket == firstBucket) || (bucket >= lastBucket)).count();
+
+		assertThat(calculator.numMapped).isEqualTo(expectedMapped);
+		assertThat(describe(window.calculate(covered[0], covered[1]))).isEqualTo(describe(new SimpleRequestRatesCalculator(application()).calculate(new ArrayList<>(later))));
+	}
+
+	@Test
+	public void testUpdateWithDifferentRecords() {
+		Random random = new Random(48);
+		List<RequestRecord> original = generateRecords(random, 5000, 120);
+		List<RequestRecord> corrected = generateRecords(random, 5000, 120);
+
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator(application()));
+
+		window.update(original);
+		Date[] covered = window.update(corrected);
+
+		assertThat(describe(window.calculate(covered[0], covered[1]))).isEqualTo(describe(new SimpleRequestRatesCalculator(application()).calculate(new ArrayList<>(corrected))));
+	}
+
+	@Test
+	public void testUpdateReplacesChangedBuckets() {
+		Random random = new Random(49);
+		List<RequestRecord> original = generateRecords(random, 5000, 120);
+
+		// the filtered log misses the requests to one endpoint in one bucket
+		long changedBucket = (START / MINUTE) + 60;
+		List<RequestRecord> filtered = original.stream().filter(r -> ((r.getStartDate().getTime() / MINUTE) != changedBucket) || !"/login".equals(r.getPath()))
+				.collect(Collectors.toList());
+
+		CountingCalculator calculator = new CountingCalculator();
+		RequestRatesWindow window = new RequestRatesWindow(calculator);
+
+		window.update(original);
+		calculator.numMapped = 0;
+
+		Date[] covered = window.update(filtered);
+
+		long firstBucket = filtered.stream().mapToLong(r -> r.getStartDate().getTime()).min().getAsLong() / MINUTE;
+		long lastBucket = filtered.stream().mapToLong(r -> r.getStartDate().getTime()).max().getAsLong() / MINUTE;
+		long expectedMapped = filtered.stream().map(r -> r.getStartDate().getTime() / MINUTE).filter(bucket -> (bucket == firstBucket) || (bucket == changedBucket) || (bucket == lastBucket))
+				.count();
+
+		assertThat(calculator.numMapped).isEqualTo(expectedMapped);
+		assertThat(describe(window.calculate(covered[0], covered[1]))).isEqualTo(describe(new SimpleRequestRatesCalculator(application()).calculate(new ArrayList<>(filtered))));
+	}
+
+	@Test
+	public void testEviction() {
+		Random random = new Random(46);
+		RequestRatesWindow window = new RequestRatesWindow(new SimpleRequestRatesCalculator(), MINUTE, 60 * MINUTE);
+
+		window.addAll(generateRecords(random, 5000, 120));
+		assertThat(window.getNumBuckets()).isEqualTo(61);
+
+		window.evictBefore(new Date(START + (100 * MINUTE)));
+		assertThat(window.getNumBuckets()).isEqualTo(20);
+
+		assertThat(window.calculate(new Date(START), new Date(START + (50 * MINUTE))).getMix()).isEmpty();
+	}
+
+	private static class CountingCalculator extends SimpleRequestRatesCalculator {
+
+		private long numMapped = 0;
+
+		private CountingCalculator() {
+			super(application());
+		}
+
+		@Override
+		protected HttpEndpoint mapToEndpoint(RequestRecord record) {
+			numMapped++;
+			return super.mapToEndpoint(record);
+		}
+
+	}
+
+	/**
+	 * Describes a model as a map of strings that can be compared, as the order of the mix is not
+	 * defined.
+	 */
+	static Map<String, String> describe(RequestRatesModel model) {
+		Map<String, String> description = new TreeMap<>();
+		description.put("requests-per-minute", Double.toString(model.getRequestsPerMinute()));
+
+		for (RequestFrequency freq : model.getMix()) {
+			HttpEndpoint endpoint = (HttpEndpoint) freq.getEndpoint();
+
+			description.put(endpoint.getId(),
+					String.format("%.12f %s %s %s %s %s %s %s %s", freq.getFreq(), endpoint.getDomain(), endpoint.getPort(), endpoint.getPath(), endpoint.getMethod(), endpoint.getProtocol(),
+							endpoint.getEncoding(), endpoint.getHeaders(),
+							endpoint.getParameters().stream().map(p -> p.getId() + "/" + p.getName() + "/" + p.getParameterType()).collect(Collectors.toList())));
+		}
+
+		return description;
+	}
+
+	/**
+	 * Generates records with random start dates within the passed number of minutes. Start dates
+	 * are only unique per second, so that the order of records with the same dates is relevant.
+	 */
+	static List<RequestRecord> generateRecords(Random random, int numRecords, int numMinutes) {
+		List<RequestRecord> records = new ArrayList<>(numRecords);
+
+		for (int i = 0; i < numRecords; i++) {
+			records.add(generateRecord(random, START, numMinutes));
+		}
+
+		return records;
+	}
+
+	static RequestRecord generateRecord(Random random, long start, int numMinutes) {
+		RequestRecord record = new RequestRecord();
+		int endpoint = random.nextInt(NAMES.length);
+
+		long startDate = start + (random.nextInt(numMinutes * 60) * 1000L);
+		record.setStartDate(new Date(startDate));
+		record.setEndDate(new Date(startDate + (random.nextInt(3) * 1000L)));
+
+		record.setName(NAMES[endpoint]);
+		record.setPath(PATHS[endpoint]);
+		record.setMethod("GET");
+		record.setProtocol(random.nextInt(10) == 0 ? null : "HTTP/1.1");
+		record.setDomain(random.nextBoolean() ? "localhost" : "shop.example.com");
+		record.setPort(random.nextInt(5) == 0 ? null : "8080");
+		record.setHeaders(Arrays.asList(HEADERS[random.nextInt(HEADERS.length)], HEADERS[random.nextInt(HEADERS.length)]));
+
+		return record;
+	}
+
+	static Application application() {
+		Application application = new Application();
+
+		for (int i = 0; i < 4; i++) {
+			HttpEndpoint endpoint = new HttpEndpoint();
+			endpoint.setId(NAMES[i]);
+			endpoint.setDomain("localhost");
+			endpoint.setPort("8080");
+			endpoint.setPath(PATHS[i]);
+			endpoint.setMethod("GET");
+			application.addEndpoint(endpoint);
+		}
+
+		return application;
+	}
+
+}
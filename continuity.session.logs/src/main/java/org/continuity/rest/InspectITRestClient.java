@@ -1,9 +1,12 @@
 package org.continuity.rest;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import rocks.inspectit.shared.all.cmr.model.MethodIdent;
 import rocks.inspectit.shared.all.cmr.model.PlatformIdent;
@@ -38,8 +41,19 @@ public class InspectITRestClient {
 	private static final String STOP_RECORDING_STORAGE_PATH = "/rest/storage/stop-recording";
 	private static final String DELETE_STORAGE_PATH = "/rest/storage/delete";
 
+	/**
+	 * Default number of invocation sequences fetched in advance.
+	 */
+	public static final int DEFAULT_PREFETCH_WINDOW = 16;
+
 	private JsonHTTPClientWrapper rest;
 
+	private InvocationSequenceCache cache;
+
+	private ExecutorService prefetchExecutor;
+
+	private int prefetchWindow;
+
 
 	/**
 	 * @param hostWithPort host:port of the CMR to connect to
@@ -49,6 +63,30 @@ public class InspectITRestClient {
 		rest = new JsonHTTPClientWrapper(hostWithPort);
 	}
 
+	/**
+	 * Creates a client that fetches up to {@code prefetchWindow} invocation sequences
+	 * concurrently and caches them on disk. Hence, iterating over the invocation sequences several
+	 * times fetches each sequence only once.
+	 *
+	 * @param hostWithPort host:port of the CMR to connect to
+	 * @param cacheDirectory the directory for caching the fetched invocation sequences
+	 * @param prefetchWindow the maximum number of invocation sequences fetched in advance
+	 * @throws IOException if the cache directory cannot be created
+	 */
+	public InspectITRestClient(String hostWithPort, Path cacheDirectory, int prefetchWindow) throws IOException {
+		super();
+
+		if (prefetchWindow < 1) {
+			throw new IllegalArgumentException("The prefetch window needs to be at least 1, but was " + prefetchWindow + "!");
+		}
+
+		// one additional connection for fetching the ids
+		rest = new JsonHTTPClientWrapper(hostWithPort, prefetchWindow + 1);
+		cache = new InvocationSequenceCache(cacheDirectory);
+		prefetchExecutor = Executors.newFixedThreadPool(prefetchWindow);
+		this.prefetchWindow = prefetchWindow;
+	}
+
 	/**
 	 * Fetches all Invocation Sequences from the CMRs buffer for the given agent.
 	 *
@@ -65,7 +103,13 @@ public class InspectITRestClient {
 
 			@Override
 			public Iterator<InvocationSequenceData> iterator() {
-				return new RESTInvocationSequencesIterator(rest,filterParams);
+				RESTInvocationSequencesIterator sequences = new RESTInvocationSequencesIterator(rest, filterParams, cache);
+
+				if (prefetchExecutor == null) {
+					return sequences;
+				} else {
+					return new PrefetchingInvocationSequencesIterator(sequences, prefetchExecutor, prefetchWindow);
+				}
 			}
 		};
 	}
@@ -171,6 +215,10 @@ public class InspectITRestClient {
 	 * Closes the connection.
 	 */
 	public void close() {
+		if (prefetchExecutor != null) {
+			prefetchExecutor.shutdownNow();
+		}
+
 		rest.destroy();
 	}
 
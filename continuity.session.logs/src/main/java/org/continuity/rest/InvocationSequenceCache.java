@@ -0,0 +1,71 @@
+package org.continuity.rest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local on-disk cache of the JSON representations of already fetched invocation sequences, keyed
+ * by the sequence id. Each sequence is stored in a separate file, which is written atomically.
+ * Hence, the cache can be used by several threads concurrently.
+ */
+public class InvocationSequenceCache {
+
+	private static final String FILE_EXTENSION = ".json";
+
+	private final Path directory;
+
+	/**
+	 * @param directory the directory holding the cached sequences. Will be created if not present.
+	 * @throws IOException
+	 */
+	public InvocationSequenceCache(Path directory) throws IOException {
+		this.directory = Files.createDirectories(directory);
+	}
+
+	/**
+	 * Reads a cached sequence.
+	 *
+	 * @param id the id of the sequence
+	 * @return the JSON representation or {@code null} if the sequence is not cached
+	 * @throws IOException
+	 */
+	public String get(long id) throws IOException {
+		Path file = fileOf(id);
+
+		if (!Files.exists(file)) {
+			return null;
+		}
+
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Caches a sequence, overwriting an already cached version.
+	 *
+	 * @param id the id of the sequence
+	 * @param json the JSON representation
+	 * @throws IOException
+	 */
+	public void put(long id, String json) throws IOException {
+		Path tmpFile = Files.createTempFile(directory, Long.toString(id), ".tmp");
+
+		try {
+			Files.write(tmpFile, json.getBytes(StandardCharsets.UTF_8));
+			Files.move(tmpFile, fileOf(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmpFile);
+		}
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	private Path fileOf(long id) {
+		return directory.resolve(id + FILE_EXTENSION);
+	}
+
+}
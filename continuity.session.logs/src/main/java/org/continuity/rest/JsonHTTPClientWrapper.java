@@ -28,6 +28,11 @@ import org.codehaus.jackson.map.ObjectMapper;
  */
 public class JsonHTTPClientWrapper {
 
+	/**
+	 * Default maximum number of pooled connections.
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS = 2;
+
 	/**
 	 * The url of the server to access.
 	 */
@@ -38,6 +43,11 @@ public class JsonHTTPClientWrapper {
 	 */
 	private CloseableHttpClient client;
 
+	/**
+	 * the mapper used for parsing the responses. It is thread-safe once configured.
+	 */
+	private final ObjectMapper mapper;
+
 	
 	/**
 	 * Initializes a new connection with the given connection information.
@@ -47,17 +57,31 @@ public class JsonHTTPClientWrapper {
 	 * @param proxy the proxy to use
 	 */
 	public JsonHTTPClientWrapper(String host) {
+		this(host, DEFAULT_MAX_CONNECTIONS);
+	}
+
+	/**
+	 * Initializes a new connection with the given connection information. The connections are
+	 * pooled and kept alive, allowing for concurrent requests.
+	 * @param host the host:port of the server
+	 * @param maxConnections the maximum number of concurrently open connections
+	 */
+	public JsonHTTPClientWrapper(String host, int maxConnections) {
 		this.host = host;
-		connect();
+		this.mapper = new ObjectMapper();
+		this.mapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		connect(maxConnections);
 	}
 	
 
 	/**
 	 * private method for creating the connection.
 	 */
-	private void connect() {
+	private void connect(int maxConnections) {
 	
 		HttpClientBuilder clientFactory = HttpClients.custom();
+		clientFactory.setMaxConnTotal(maxConnections);
+		clientFactory.setMaxConnPerRoute(maxConnections);
 		
 		client = clientFactory.build();
 
@@ -82,26 +106,38 @@ public class JsonHTTPClientWrapper {
 	 * @return the response parsed into a JSON element
 	 * @throws IOException 
 	 */
-	private <T> T executeRequest(HttpUriRequest request, Class<T> resultType) throws IOException {
+	private String executeRequest(HttpUriRequest request) throws IOException {
 		try {
 			
 			HttpClientContext context = HttpClientContext.create();
 			HttpResponse response = client.execute(request, context);
-			String jsonResponse = new BasicResponseHandler()
+			return new BasicResponseHandler()
 					.handleResponse(response);
-			if (jsonResponse != null) {
-				ObjectMapper mapper = new ObjectMapper();
-				mapper.configure( DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-				return mapper.readValue(jsonResponse.getBytes(), resultType);
-				
-			} else {
-				return null;
-			}
 
 		} catch (Exception e) {
 			throw new IOException(e);
 		}
 	}
+
+	/**
+	 * Parses a JSON response.
+	 * 
+	 * @param jsonResponse the response as returned by {@link #performGet(String, Map)}. Can be {@code null}.
+	 * @param resultType the type to parse into
+	 * @return the parsed response or {@code null} if the response was {@code null}
+	 * @throws IOException 
+	 */
+	public <T> T parse(String jsonResponse, Class<T> resultType) throws IOException {
+		if (jsonResponse != null) {
+			try {
+				return mapper.readValue(jsonResponse.getBytes(), resultType);
+			} catch (Exception e) {
+				throw new IOException(e);
+			}
+		} else {
+			return null;
+		}
+	}
 	
 	
 	public <T> T performGet(String path, Class<T> resultType) throws IOException {
@@ -110,6 +146,18 @@ public class JsonHTTPClientWrapper {
 
 	
 	public <T> T performGet(String path, Class<T> resultType, Map<String, String> parameters) throws IOException {
+		return parse(performGet(path, parameters), resultType);
+	}
+
+	/**
+	 * Executes a GET request and returns the unparsed JSON response.
+	 * 
+	 * @param path the path to request
+	 * @param parameters the query parameters
+	 * @return the response body
+	 * @throws IOException 
+	 */
+	public String performGet(String path, Map<String, String> parameters) throws IOException {
 		URI requestTarget;
 		try {
 			URIBuilder builder = new URIBuilder("http://" + host + path);
@@ -121,7 +169,7 @@ public class JsonHTTPClientWrapper {
 			throw new RuntimeException(e);
 		}
 		HttpGet getReq = new HttpGet(requestTarget);
-		return executeRequest(getReq,resultType);
+		return executeRequest(getReq);
 	}
 
 	public CloseableHttpClient getHttpClient() {
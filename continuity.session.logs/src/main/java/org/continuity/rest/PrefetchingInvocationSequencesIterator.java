@@ -0,0 +1,79 @@
+package org.continuity.rest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * Iterator that fetches the details of the next invocation sequences concurrently while the
+ * current ones are processed. At most {@code window} sequences are fetched in advance. The
+ * sequences are returned in the same order as by the {@link RESTInvocationSequencesIterator}.
+ */
+public class PrefetchingInvocationSequencesIterator implements Iterator<InvocationSequenceData> {
+
+	private final RESTInvocationSequencesIterator sequences;
+
+	private final ExecutorService executor;
+
+	private final int window;
+
+	private final Deque<Future<InvocationSequenceData>> prefetched;
+
+	/**
+	 * @param sequences the iterator providing the ids and fetching the details
+	 * @param executor the executor for fetching the details. Should have at least {@code window} threads.
+	 * @param window the maximum number of sequences to be fetched in advance
+	 */
+	public PrefetchingInvocationSequencesIterator(RESTInvocationSequencesIterator sequences, ExecutorService executor, int window) {
+		if (window < 1) {
+			throw new IllegalArgumentException("The prefetch window needs to be at least 1, but was " + window + "!");
+		}
+
+		this.sequences = sequences;
+		this.executor = executor;
+		this.window = window;
+		this.prefetched = new ArrayDeque<>(window);
+	}
+
+	private void prefetch() {
+		while ((prefetched.size() < window) && sequences.hasNext()) {
+			long id = sequences.nextId();
+			prefetched.add(executor.submit(() -> sequences.fetchDetails(id)));
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		prefetch();
+		return !prefetched.isEmpty();
+	}
+
+	@Override
+	public InvocationSequenceData next() {
+		if (!hasNext()) {
+			throw new IllegalStateException("no further sequences available");
+		}
+
+		Future<InvocationSequenceData> next = prefetched.pollFirst();
+		prefetch();
+
+		try {
+			return next.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.continuity.rest;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -20,7 +21,6 @@ public class RESTInvocationSequencesIterator implements Iterator<InvocationSeque
 	private static final String INVOCATION_PATH = "/rest/data/invocations";
 
 	private static final String OVERVIEW_PARAM_LAST_ID = "latestReadId";
-	private static final String DETAILS_PARAM_ID = "id";
 
 	private JsonHTTPClientWrapper rest;
 
@@ -31,9 +31,24 @@ public class RESTInvocationSequencesIterator implements Iterator<InvocationSeque
 
 	private Deque<Long> invocationSequenceIdQueue;
 
+	/**
+	 * cache of already fetched sequences. Can be {@code null}.
+	 */
+	private InvocationSequenceCache cache;
+
 	public RESTInvocationSequencesIterator(JsonHTTPClientWrapper rest, Map<String,?> filterParams) {
+		this(rest, filterParams, null);
+	}
+
+	/**
+	 * @param rest the client to use
+	 * @param filterParams the parameters for filtering the sequences
+	 * @param cache the cache to look up sequences before fetching them. Can be {@code null}.
+	 */
+	public RESTInvocationSequencesIterator(JsonHTTPClientWrapper rest, Map<String,?> filterParams, InvocationSequenceCache cache) {
 		this.rest = rest;
 		this.filterParams = filterParams;
+		this.cache = cache;
 
 		endReached = false;
 		lastSequenceID = -1;
@@ -88,25 +103,45 @@ public class RESTInvocationSequencesIterator implements Iterator<InvocationSeque
 
 	@Override
 	public InvocationSequenceData next() {
+		return fetchDetails(nextId());
+	}
+
+	/**
+	 * Returns the id of the next sequence without fetching its details.
+	 * @return the id
+	 */
+	long nextId() {
 		//this call also guaranties that the nextIds queue is not empty
 		if(!hasNext()) {
 			throw new IllegalStateException("no Furhter sequences available");
 		}
 
-		long idToFetch = invocationSequenceIdQueue.pollFirst();
-
-		Map<String,String> params = new HashMap<String, String>();
-		filterParams.forEach((a,b) -> params.put(a, b.toString()));
-		params.put(DETAILS_PARAM_ID, ""+idToFetch);
+		return invocationSequenceIdQueue.pollFirst();
+	}
 
+	/**
+	 * Fetches the details of a sequence from the cache or from the CMR. Can be called
+	 * concurrently.
+	 * @param idToFetch the id of the sequence
+	 * @return the sequence
+	 */
+	InvocationSequenceData fetchDetails(long idToFetch) {
 		try {
-			String INVOCATION_DETAILS_PATH = INVOCATION_PATH + "/" + idToFetch;
-			return rest.performGet(INVOCATION_DETAILS_PATH, InvocationSequenceData.class);
+			String json = (cache == null) ? null : cache.get(idToFetch);
+
+			if (json == null) {
+				String INVOCATION_DETAILS_PATH = INVOCATION_PATH + "/" + idToFetch;
+				json = rest.performGet(INVOCATION_DETAILS_PATH, Collections.<String, String> emptyMap());
+
+				if ((cache != null) && (json != null)) {
+					cache.put(idToFetch, json);
+				}
+			}
+
+			return rest.parse(json, InvocationSequenceData.class);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
-
-
 	}
 
 }
@@ -14,6 +14,7 @@ import org.continuity.api.entities.report.TaskError;
 import org.continuity.api.entities.report.TaskReport;
 import org.continuity.api.rest.RestApi;
 import org.continuity.commons.storage.MixedStorage;
+import org.continuity.rest.InspectITRestClient;
 import org.continuity.session.logs.config.RabbitMqConfig;
 import org.continuity.session.logs.managers.SessionLogsPipelineManager;
 import org.slf4j.Logger;
@@ -22,6 +23,7 @@ import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
@@ -43,6 +45,9 @@ public class SessionLogsAmqpHandler {
 	@Autowired
 	private MixedStorage<SessionLogs> storage;
 
+	@Value("${inspectit.prefetch-window:" + InspectITRestClient.DEFAULT_PREFETCH_WINDOW + "}")
+	private int prefetchWindow;
+
 	@RabbitListener(queues = RabbitMqConfig.TASK_CREATE_QUEUE_NAME)
 	public void createSessionLogs(TaskDescription task) {
 		TaskReport report;
@@ -66,7 +71,7 @@ public class SessionLogsAmqpHandler {
 			report = TaskReport.error(task.getTaskId(), TaskError.MISSING_SOURCE);
 		} else {
 
-			SessionLogsPipelineManager manager = new SessionLogsPipelineManager(link, tag, plainRestTemplate, eurekaRestTemplate);
+			SessionLogsPipelineManager manager = new SessionLogsPipelineManager(link, tag, plainRestTemplate, eurekaRestTemplate, prefetchWindow);
 
 			String sessionLog;
 
@@ -1,12 +1,16 @@
 package org.continuity.session.logs.controllers;
 
 import static org.continuity.api.rest.RestApi.SessionLogs.Paths.CREATE;
+import static org.continuity.api.rest.RestApi.SessionLogs.Paths.CREATE_BATCH;
 import static org.continuity.api.rest.RestApi.SessionLogs.Paths.GET;
 
 import java.util.List;
+import java.util.Map;
 
 import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+import org.continuity.api.entities.artifact.ModularizedSessionLogsBatch;
 import org.continuity.api.entities.artifact.SessionLogs;
+import org.continuity.api.entities.artifact.SessionLogsBatchInput;
 import org.continuity.api.entities.artifact.SessionLogsInput;
 import org.continuity.api.rest.RestApi;
 import org.continuity.commons.storage.MixedStorage;
@@ -79,4 +83,28 @@ public class SessionLogsController {
 
 		return ResponseEntity.ok(sessionLogsResult);
 	}
+
+	/**
+	 * Creates session logs for each entry of the provided input data, as if
+	 * {@link #getModularizedSessionLogs(SessionLogsInput)} was called for each entry. Allows
+	 * clients to create the session logs of many Markov states with a single request.
+	 *
+	 * @param batchInput
+	 *            Provides the traces per key and the target services.
+	 * @return {@link ModularizedSessionLogsBatch} holding the session logs per key.
+	 */
+	@RequestMapping(value = CREATE_BATCH, method = RequestMethod.POST)
+	public ResponseEntity<ModularizedSessionLogsBatch> getModularizedSessionLogsBatch(@RequestBody SessionLogsBatchInput batchInput) {
+		ModularizedSessionLogsBatch result = new ModularizedSessionLogsBatch();
+
+		for (Map.Entry<String, String> entry : batchInput.getSerializedTraces().entrySet()) {
+			ModularizedOPENxtraceSessionLogsExtractor extractor = new ModularizedOPENxtraceSessionLogsExtractor("", eurekaRestTemplate, batchInput.getServices());
+			List<Trace> traces = OPENxtraceUtils.deserializeIntoTraceList(entry.getValue());
+			result.getSessionLogs().put(entry.getKey(), extractor.getSessionLogsAndThinkTimes(traces));
+		}
+
+		LOGGER.info("Created {} modularized session logs in a batch.", result.getSessionLogs().size());
+
+		return ResponseEntity.ok(result);
+	}
 }
@@ -0,0 +1,320 @@
+package org.continuity.session.logs.converter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.continuity.session.logs.entities.RowObject;
+
+/**
+ * Converts RowObjects into session logs while they are read. In contrast to
+ * {@link SessionConverterCSVData}, only the currently open sessions are held in memory and the
+ * session logs are written to a {@link Writer} as soon as a session is closed. <br>
+ *
+ * The rows are expected to be ordered by request start time. If the rows have session
+ * identifiers, a session is closed after 30 minutes without a request. A later request with the
+ * same session identifier starts a new session, whose identifier is suffixed with its number,
+ * e.g., {@code abc-2}. The sessions are numbered as long as the session identifier has been used
+ * within the last 24 hours. Afterwards, the numbering starts again. The sessions are written when they are closed,
+ * i.e., roughly in the order of their last request. Otherwise, sessions are calculated as in
+ * {@link SessionConverterCSVData}.
+ */
+public class StreamingSessionConverterCSVData {
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d.M.yyyy H:mm");
+
+	private static final long MAX_GAP_MINUTES = 30;
+
+	private static final long ID_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+	private static final long START_OF_RANDOM_NUMBER = 1000000000000000L;
+
+	private static final String SPLIT_DELIM = "-";
+
+	private final ZoneId zone = ZoneId.systemDefault();
+
+	private String lastParsedDate;
+
+	private long lastParsedMillis;
+
+	private long nextSessionId;
+
+	private boolean first;
+
+	/**
+	 * Creates session logs from CSV data and writes them to the writer. The writer is neither
+	 * flushed nor closed.
+	 *
+	 * @param rows
+	 *            The CSV rows ordered by request start time.
+	 * @param writer
+	 *            The writer to write the session logs to.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	public synchronized void writeSessionLogsFromCSV(Iterable<RowObject> rows, Writer writer) throws IOException {
+		Iterator<RowObject> iterator = rows.iterator();
+
+		if (!iterator.hasNext()) {
+			return;
+		}
+
+		lastParsedDate = null;
+		nextSessionId = START_OF_RANDOM_NUMBER + ThreadLocalRandom.current().nextLong(8 * START_OF_RANDOM_NUMBER);
+		first = true;
+
+		RowObject firstRow = iterator.next();
+
+		if (firstRow.getSessionID() != null) {
+			extractSessions(firstRow, iterator, writer);
+		} else {
+			calculateSessions(firstRow, iterator, writer, firstRow.getUserName() != null);
+		}
+	}
+
+	/**
+	 * If dataset contains session identifiers, extract sessions. Sorts requests for each session.
+	 * The open sessions are ordered by their latest request, so that each session is closed and
+	 * written as soon as it has been inactive for too long, regardless of longer sessions started
+	 * before. The number of sessions per session identifier is remembered until the identifier
+	 * has been inactive for {@link #ID_RETENTION_MILLIS}, so that split sessions get unique
+	 * identifiers without remembering all identifiers.
+	 */
+	private void extractSessions(RowObject firstRow, Iterator<RowObject> rows, Writer writer) throws IOException {
+		Map<String, Session> openSessions = new HashMap<>();
+		NavigableSet<Session> sessionsByActivity = new TreeSet<>(Comparator.comparingLong((Session session) -> session.latestStart).thenComparingLong(session -> session.number));
+		Map<String, Integer> numSessionsPerId = new HashMap<>();
+		Map<String, Long> closedIds = new LinkedHashMap<>();
+		long numSessions = 0;
+		long latestStart = Long.MIN_VALUE;
+		RowObject row = firstRow;
+
+		while (row != null) {
+			Request request = new Request(row);
+			latestStart = Math.max(latestStart, request.startMillis);
+
+			Session session = openSessions.get(row.getSessionID());
+
+			if ((session == null) || isGap(session.latestStart, request.startMillis)) {
+				int number = numSessionsPerId.merge(row.getSessionID(), 1, Integer::sum);
+				session = new Session(row.getSessionID(), (number == 1) ? row.getSessionID() : (row.getSessionID() + SPLIT_DELIM + number), numSessions++);
+				openSessions.put(session.key, session);
+				closedIds.remove(session.key);
+			} else {
+				sessionsByActivity.remove(session);
+			}
+
+			session.add(request);
+			sessionsByActivity.add(session);
+
+			while (!sessionsByActivity.isEmpty() && isGap(sessionsByActivity.first().latestStart, latestStart)) {
+				Session closed = sessionsByActivity.pollFirst();
+
+				if (openSessions.remove(closed.key, closed)) {
+					closedIds.put(closed.key, closed.latestStart);
+				}
+
+				closed.sort();
+				writeSession(closed, writer);
+			}
+
+			Iterator<Map.Entry<String, Long>> closedIt = closedIds.entrySet().iterator();
+
+			while (closedIt.hasNext()) {
+				Map.Entry<String, Long> closed = closedIt.next();
+
+				if ((latestStart - closed.getValue()) <= ID_RETENTION_MILLIS) {
+					break;
+				}
+
+				numSessionsPerId.remove(closed.getKey());
+				closedIt.remove();
+			}
+
+			row = rows.hasNext() ? rows.next() : null;
+		}
+
+		for (Session session : sessionsByActivity) {
+			session.sort();
+			writeSession(session, writer);
+		}
+	}
+
+	/**
+	 * If dataset has no session identifiers, calculate them with the help of request start times
+	 * and, if present, user names.
+	 */
+	private void calculateSessions(RowObject firstRow, Iterator<RowObject> rows, Writer writer, boolean withUserNames) throws IOException {
+		Request previous = new Request(firstRow);
+		Session session = new Session(Long.toString(nextSessionId++));
+		session.add(previous);
+
+		while (rows.hasNext()) {
+			RowObject row = rows.next();
+			Request request = new Request(row);
+
+			boolean otherUser = withUserNames && !row.getUserName().equals(previous.row.getUserName());
+
+			if (otherUser || isGap(previous.startMillis, request.startMillis)) {
+				writeSession(session, writer);
+				session = new Session(Long.toString(nextSessionId++));
+			}
+
+			session.add(request);
+			previous = request;
+		}
+
+		writeSession(session, writer);
+	}
+
+	private boolean isGap(long earlierMillis, long laterMillis) {
+		return TimeUnit.MILLISECONDS.toMinutes(laterMillis - earlierMillis) > MAX_GAP_MINUTES;
+	}
+
+	private long parseMillis(String date) {
+		if (!date.equals(lastParsedDate)) {
+			lastParsedMillis = LocalDateTime.parse(date, DATE_FORMAT).atZone(zone).toInstant().toEpochMilli();
+			lastParsedDate = date;
+		}
+
+		return lastParsedMillis;
+	}
+
+	private void writeSession(Session session, Writer writer) throws IOException {
+		if (first) {
+			first = false;
+		} else {
+			writer.write('\n');
+		}
+
+		writer.write(session.id);
+		writer.write(';');
+
+		for (Request request : session.requests) {
+			writeRequest(request, writer);
+		}
+	}
+
+	/**
+	 * Writes the request in the same format as
+	 * {@link SessionConverterCSVData#createSessionLogsFromCSV(ArrayList)}.
+	 */
+	private void writeRequest(Request request, Writer writer) throws IOException {
+		RowObject row = request.row;
+		long startNanos = TimeUnit.MILLISECONDS.toNanos(request.startMillis);
+
+		writer.write('"');
+		writer.write(String.valueOf(row.getBusinessTransaction() != null ? row.getBusinessTransaction() : row.getRequestURL()));
+		writer.write("\":");
+		writer.write(Long.toString(startNanos));
+		writer.write(':');
+		writer.write(row.getRequestEndTime() != null ? Long.toString(TimeUnit.MILLISECONDS.toNanos(request.endMillis)) : Long.toString(startNanos));
+		writer.write(':');
+
+		if (row.getRequestURL() != null) {
+			writer.write(row.getRequestURL());
+		} else {
+			writer.write('/');
+			writer.write(String.valueOf(row.getBusinessTransaction()));
+		}
+
+		writer.write(':');
+		writer.write(orDefault(row.getPort(), "8080"));
+		writer.write(':');
+		writer.write(orDefault(row.getHostIP(), "127.0.0.1"));
+		writer.write(':');
+		writer.write(orDefault(row.getProtocol(), "HTTP/1.1"));
+		writer.write(':');
+		writer.write(orDefault(row.getMethod(), "GET"));
+		writer.write(':');
+		writer.write(orDefault(row.getParameter(), "<no-query-string>"));
+		writer.write(':');
+		writer.write(orDefault(row.getEncoding(), "UTF-8"));
+		writer.write(';');
+	}
+
+	private String orDefault(String value, String dflt) {
+		return value != null ? value : dflt;
+	}
+
+	private class Request {
+
+		private final RowObject row;
+
+		private final long startMillis;
+
+		private final long endMillis;
+
+		private Request(RowObject row) {
+			this.row = row;
+			this.startMillis = parseMillis(row.getRequestStartTime());
+			this.endMillis = row.getRequestEndTime() != null ? parseMillis(row.getRequestEndTime()) : 0;
+		}
+
+		private long duration() {
+			return endMillis - startMillis;
+		}
+
+	}
+
+	private static class Session {
+
+		/**
+		 * The session identifier of the rows.
+		 */
+		private final String key;
+
+		private final String id;
+
+		/**
+		 * The number of the session in the order of creation.
+		 */
+		private final long number;
+
+		private final List<Request> requests = new ArrayList<>();
+
+		private long latestStart = Long.MIN_VALUE;
+
+		private Session(String key, String id, long number) {
+			this.key = key;
+			this.id = id;
+			this.number = number;
+		}
+
+		private Session(String id) {
+			this(id, id, 0);
+		}
+
+		private void add(Request request) {
+			requests.add(request);
+			latestStart = Math.max(latestStart, request.startMillis);
+		}
+
+		private void sort() {
+			requests.sort((a, b) -> {
+				int startTimeComparison = Long.compare(a.startMillis, b.startMillis);
+
+				if (startTimeComparison != 0) {
+					return startTimeComparison;
+				} else {
+					return Long.compare(a.duration(), b.duration());
+				}
+			});
+		}
+
+	}
+
+}
@@ -3,6 +3,7 @@ package org.continuity.session.logs.csv;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +12,7 @@ import org.continuity.session.logs.entities.RowObject;
 import com.univocity.parsers.common.processor.BeanListProcessor;
 import com.univocity.parsers.csv.CsvParser;
 import com.univocity.parsers.csv.CsvParserSettings;
+import com.univocity.parsers.csv.CsvRoutines;
 
 /**
  * 
@@ -43,4 +45,20 @@ public class ReadCSV {
 		
 		return (ArrayList<RowObject>) beans;
 	}
+
+	/**
+	 * Reads the RowObjects one by one while iterating. The reader is closed as soon as all rows
+	 * have been read.
+	 *
+	 * @param reader
+	 *            Reader providing the CSV data.
+	 * @return The RowObjects. Can only be iterated once.
+	 */
+	public Iterable<RowObject> iterateDataFromCSV(Reader reader) {
+		CsvParserSettings parserSettings = new CsvParserSettings();
+		parserSettings.setHeaderExtractionEnabled(true);
+		parserSettings.setDelimiterDetectionEnabled(true, ';');
+
+		return new CsvRoutines(parserSettings).iterate(RowObject.class, reader);
+	}
 }
@@ -8,7 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.HttpEndpoint;
 import org.continuity.rest.InspectITRestClient;
@@ -218,7 +218,7 @@ public class InspectITSessionLogsExtractor extends AbstractSessionLogsExtractor<
 	 */
 	private HashMap<Long, Pair<String, String>> getBusinessTransactionsFromApplicationModel(Application application, Iterable<InvocationSequenceData> invocationSequences) {
 		HashMap<Long, Pair<String, String>> businessTransactions = new HashMap<>();
-		RequestUriMapper uriMapper = new RequestUriMapper(application);
+		CompiledRequestUriMapper uriMapper = new CompiledRequestUriMapper(application);
 
 		for (InvocationSequenceData invoc : invocationSequences) {
 			if ((invoc.getTimerData() != null) && (invoc.getTimerData() instanceof HttpTimerData)) {
@@ -16,7 +16,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.apache.pdfbox.pdmodel.MissingResourceException;
 import org.continuity.api.entities.artifact.ModularizedSessionLogs;
 import org.continuity.api.entities.artifact.ProcessingTimeNormalDistributions;
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
 import org.continuity.commons.openxtrace.OpenXtraceTracer;
 import org.continuity.commons.utils.ModularizationUtils;
 import org.continuity.idpa.application.Application;
@@ -43,6 +43,12 @@ public class ModularizedOPENxtraceSessionLogsExtractor extends OPENxtraceSession
 	 */
 	private Map<String, Application> applicationModels = new HashMap<String, Application>();
 
+	/**
+	 * The compiled URI mappers of the application models per tag. Filled by
+	 * {@link #getSessionLogsAndThinkTimes(Iterable)} before the think times are extracted.
+	 */
+	private Map<String, CompiledRequestUriMapper> uriMappers = new HashMap<String, CompiledRequestUriMapper>();
+
 	/**
 	 * Constructor.
 	 *
@@ -114,6 +120,14 @@ public class ModularizedOPENxtraceSessionLogsExtractor extends OPENxtraceSession
 				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 	}
 
+	/**
+	 * Extracts the session logs and the think times from the traces. The traces are iterated
+	 * twice. Hence, they must not be passed as {@link open.xtrace.OPENxtraceReader#asIterable()}.
+	 *
+	 * @param data
+	 *            The traces, e.g., as list.
+	 * @return The session logs with think times.
+	 */
 	public ModularizedSessionLogs getSessionLogsAndThinkTimes(Iterable<Trace> data) {
 		List<HTTPRequestProcessingImpl> httpCallables = extractHttpRequestCallables(data);
 		HashMap<String, List<HTTPRequestData>> sortedList = sortBySessionAndTimestamp(httpCallables);
@@ -126,6 +140,7 @@ public class ModularizedOPENxtraceSessionLogsExtractor extends OPENxtraceSession
 				businessTransactions.putAll(getBusinessTransactionsFromOPENxtraces(httpCallables));
 			} else {
 				applicationModels.put(tag, applicationModel);
+				uriMappers.put(tag, new CompiledRequestUriMapper(applicationModel));
 				businessTransactions.putAll(getBusinessTransactionsFromApplicationModel(applicationModel, httpCallables));
 			}
 		}
@@ -167,11 +182,10 @@ public class ModularizedOPENxtraceSessionLogsExtractor extends OPENxtraceSession
 			return services.values().contains(httpCallable.getContainingSubTrace().getLocation().getHost());
 		} else {
 			for (String tag : services.keySet()) {
-				Application applicationModel = retrieveApplicationModel(tag);
-				if (applicationModel == null) {
+				CompiledRequestUriMapper uriMapper = uriMappers.get(tag);
+				if (uriMapper == null) {
 					throw new MissingResourceException("No application model found. Please either define an application model or provide a hostname");
 				} else {
-					RequestUriMapper uriMapper = new RequestUriMapper(applicationModel);
 					HttpEndpoint interf = uriMapper.map(httpCallable.getUri(), httpCallable.getRequestMethod().get().name());
 
 					if ((interf != null) && interf.getDomain().equals(httpCallable.getContainingSubTrace().getLocation().getHost())) {
@@ -244,8 +258,7 @@ public class ModularizedOPENxtraceSessionLogsExtractor extends OPENxtraceSession
 			return Triple.of("root", rootHttpCallable.getResponseTime() / TO_MILLIS_DIVIDER /2, rootHttpCallable.getResponseTime() / TO_MILLIS_DIVIDER /2);
 		} else {
 			HttpEndpoint endpoint = null;
-			for (Application application : applicationModels.values()) {
-				RequestUriMapper uriMapper = new RequestUriMapper(application);
+			for (CompiledRequestUriMapper uriMapper : uriMappers.values()) {
 				endpoint = uriMapper.map(modularizedHttpCallable.getUri(), modularizedHttpCallable.getRequestMethod().get().name());
 
 				if (endpoint != null) {
@@ -10,7 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
 import org.continuity.commons.openxtrace.OpenXtraceTracer;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.HttpEndpoint;
@@ -164,7 +164,7 @@ public class OPENxtraceSessionLogsExtractor extends AbstractSessionLogsExtractor
 	 */
 	protected HashMap<Long, Pair<String, String>> getBusinessTransactionsFromApplicationModel(Application application, Iterable<HTTPRequestProcessingImpl> httpCallables) {
 		HashMap<Long, Pair<String, String>> businessTransactions = new HashMap<Long, Pair<String, String>>();
-		RequestUriMapper uriMapper = new RequestUriMapper(application);
+		CompiledRequestUriMapper uriMapper = new CompiledRequestUriMapper(application);
 
 		for (HTTPRequestProcessingImpl httpCallable : httpCallables) {
 			HttpEndpoint interf = uriMapper.map(httpCallable.getUri(), httpCallable.getRequestMethod().get().name());
@@ -1,17 +1,27 @@
 package org.continuity.session.logs.managers;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.continuity.api.entities.links.MeasurementDataLinkType;
 import org.continuity.api.entities.links.LinkExchangeModel;
 import org.continuity.rest.InspectITRestClient;
-import org.continuity.session.logs.converter.SessionConverterCSVData;
+import org.continuity.session.logs.converter.StreamingSessionConverterCSVData;
 import org.continuity.session.logs.csv.ReadCSV;
-import org.continuity.session.logs.entities.RowObject;
 import org.continuity.session.logs.extractor.InspectITSessionLogsExtractor;
 import org.continuity.session.logs.extractor.ModularizedOPENxtraceSessionLogsExtractor;
 import org.continuity.session.logs.extractor.OPENxtraceSessionLogsExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ResourceUtils;
 import org.springframework.web.client.RestTemplate;
@@ -28,6 +38,8 @@ import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
  */
 public class SessionLogsPipelineManager {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(SessionLogsPipelineManager.class);
+
 	private String cmrConfig;
 	private String link;
 	private String tag;
@@ -36,7 +48,18 @@ public class SessionLogsPipelineManager {
 
 	private final RestTemplate plainRestTemplate;
 
+	private final int prefetchWindow;
+
 	public SessionLogsPipelineManager(String link, String tag, RestTemplate plainRestTemplate, RestTemplate eurekaRestTemplate) {
+		this(link, tag, plainRestTemplate, eurekaRestTemplate, InspectITRestClient.DEFAULT_PREFETCH_WINDOW);
+	}
+
+	/**
+	 * @param prefetchWindow
+	 *            The maximum number of invocation sequences fetched in advance from an inspectIT
+	 *            CMR.
+	 */
+	public SessionLogsPipelineManager(String link, String tag, RestTemplate plainRestTemplate, RestTemplate eurekaRestTemplate, int prefetchWindow) {
 		this.link = link;
 		this.tag = tag;
 		if(ResourceUtils.isUrl(link)) {
@@ -45,6 +68,7 @@ public class SessionLogsPipelineManager {
 		}
 		this.eurekaRestTemplate = eurekaRestTemplate;
 		this.plainRestTemplate = plainRestTemplate;
+		this.prefetchWindow = prefetchWindow;
 	}
 
 	/**
@@ -55,11 +79,11 @@ public class SessionLogsPipelineManager {
 	public String runPipeline(MeasurementDataLinkType measurementType) {
 		switch(measurementType) {
 		case INSPECTIT:
-			return new InspectITSessionLogsExtractor(tag, eurekaRestTemplate, cmrConfig).getSessionLogs(getInvocationSequences());
+			return getSessionLogsFromInspectIT();
 		case OPEN_XTRACE:
 			LinkExchangeModel source = new LinkExchangeModel();
 			source.getMeasurementDataLinks().setLink(link);
-			return new OPENxtraceSessionLogsExtractor(tag, eurekaRestTemplate).getSessionLogs(OPENxtraceUtils.getOPENxtraces(source, plainRestTemplate));
+			return OPENxtraceUtils.processOPENxtraces(source, plainRestTemplate, new OPENxtraceSessionLogsExtractor(tag, eurekaRestTemplate)::getSessionLogs);
 		case CSV:
 			return getSessionLogsFromCSV(this.link);
 		default:
@@ -72,12 +96,16 @@ public class SessionLogsPipelineManager {
 	 * @param link
 	 * @return
 	 */
-	private String getSessionLogsFromCSV(String link) {	
-		ReadCSV rcsv = new ReadCSV();
-		ArrayList<RowObject> dataList = rcsv.readDataFromCSV(link);
-		SessionConverterCSVData csvsc = new SessionConverterCSVData();
-		String sessionLogs = csvsc.createSessionLogsFromCSV(dataList);
-		return sessionLogs;
+	private String getSessionLogsFromCSV(String link) {
+		StringWriter sessionLogs = new StringWriter();
+
+		try (Reader reader = new BufferedReader(new FileReader(link))) {
+			new StreamingSessionConverterCSVData().writeSessionLogsFromCSV(new ReadCSV().iterateDataFromCSV(reader), sessionLogs);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return sessionLogs.toString();
 	}
 
 	/**
@@ -91,21 +119,61 @@ public class SessionLogsPipelineManager {
 		if (measurementType.equals(MeasurementDataLinkType.OPEN_XTRACE)) {
 			LinkExchangeModel source = new LinkExchangeModel();
 			source.getMeasurementDataLinks().setLink(link);
-			return new ModularizedOPENxtraceSessionLogsExtractor(tag, eurekaRestTemplate, hostnames).getSessionLogs(OPENxtraceUtils.getOPENxtraces(source, plainRestTemplate));
+			return OPENxtraceUtils.processOPENxtraces(source, plainRestTemplate, new ModularizedOPENxtraceSessionLogsExtractor(tag, eurekaRestTemplate, hostnames)::getSessionLogs);
 		} else {
 			throw new UnsupportedOperationException("Modularization of the session logs is currently only supported with open.XTRACE as source");
 		}
 	}
 
 	/**
-	 * Gets session logs without using the invocation sequences of the CMR.
+	 * Gets session logs from the invocation sequences of the CMR. The extractor iterates over the
+	 * sequences several times. Hence, they are cached in a temporary directory, which is deleted
+	 * afterwards.
+	 *
+	 * @return
+	 */
+	private String getSessionLogsFromInspectIT() {
+		Path cacheDirectory;
+		InspectITRestClient fetcher;
+
+		try {
+			cacheDirectory = Files.createTempDirectory("invocation-sequences");
+			fetcher = new InspectITRestClient(cmrConfig, cacheDirectory, prefetchWindow);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		try {
+			return new InspectITSessionLogsExtractor(tag, eurekaRestTemplate, cmrConfig).getSessionLogs(getInvocationSequences(fetcher));
+		} finally {
+			try {
+				fetcher.close();
+			} finally {
+				deleteDirectory(cacheDirectory);
+			}
+		}
+	}
+
+	/**
+	 * Gets the invocation sequences of the CMR.
 	 *
 	 * @return
 	 */
-	private Iterable<InvocationSequenceData> getInvocationSequences() {
-		InspectITRestClient fetcher = new InspectITRestClient(cmrConfig);
+	private Iterable<InvocationSequenceData> getInvocationSequences(InspectITRestClient fetcher) {
 		MultiValueMap<String, String> uriParameters = UriComponentsBuilder.fromHttpUrl(this.link).build().getQueryParams();
 		Iterable<InvocationSequenceData> invocationSequenceIterable = fetcher.fetchAll(0, uriParameters.getFirst("fromDate"), uriParameters.getFirst("toDate"));
 		return invocationSequenceIterable;
 	}
+
+	/**
+	 * Deletes the directory and its contents. Failures are only logged, as the directory is a
+	 * temporary one and the result should not be discarded because of it.
+	 */
+	private void deleteDirectory(Path directory) {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		} catch (IOException | UncheckedIOException e) {
+			LOGGER.error("Could not delete the temporary directory " + directory + "!", e);
+		}
+	}
 }
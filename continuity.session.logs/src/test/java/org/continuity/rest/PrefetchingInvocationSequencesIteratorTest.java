@@ -0,0 +1,228 @@
+package org.continuity.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+
+/**
+ * Tests the {@link InspectITRestClient} with prefetching and caching against an embedded HTTP
+ * server, which serves recorded inspectIT responses with an artificial latency.
+ */
+public class PrefetchingInvocationSequencesIteratorTest {
+
+	private static final String INVOCATION_PATH = "/rest/data/invocations";
+
+	private static final int NUM_SEQUENCES = 60;
+
+	private static final int PAGE_SIZE = 25;
+
+	private static final long LATENCY_MILLIS = 20;
+
+	private static final int WINDOW = 8;
+
+	private static final long FAILING_ID = -1;
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private HttpServer server;
+
+	private ExecutorService serverExecutor;
+
+	private String recordedSequence;
+
+	private final Map<Long, AtomicInteger> detailRequests = new ConcurrentHashMap<>();
+
+	private final AtomicInteger concurrentRequests = new AtomicInteger();
+
+	private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+	private volatile long failingId = FAILING_ID;
+
+	@Before
+	public void startServer() throws IOException {
+		try (InputStream in = getClass().getResourceAsStream("/inspectit/invocation-sequence.json"); Scanner scanner = new Scanner(in, "UTF-8")) {
+			recordedSequence = scanner.useDelimiter("\\A").next();
+		}
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext(INVOCATION_PATH, this::handle);
+		serverExecutor = Executors.newFixedThreadPool(2 * WINDOW);
+		server.setExecutor(serverExecutor);
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testSameOrderAsSequential() throws IOException {
+		InspectITRestClient sequential = new InspectITRestClient(host());
+		InspectITRestClient prefetching = new InspectITRestClient(host(), temp.newFolder().toPath(), WINDOW);
+
+		try {
+			List<Long> expected = ids(sequential.fetchAll(1, "from", "to"));
+
+			assertThat(expected).isEqualTo(LongStream.rangeClosed(1, NUM_SEQUENCES).boxed().collect(Collectors.toList()));
+			assertThat(ids(prefetching.fetchAll(1, "from", "to"))).isEqualTo(expected);
+		} finally {
+			sequential.close();
+			prefetching.close();
+		}
+	}
+
+	@Test
+	public void testEachSequenceFetchedOnce() throws IOException {
+		InspectITRestClient client = new InspectITRestClient(host(), temp.newFolder().toPath(), WINDOW);
+
+		try {
+			Iterable<InvocationSequenceData> sequences = client.fetchAll(1, "from", "to");
+
+			for (int i = 0; i < 3; i++) {
+				assertThat(ids(sequences)).hasSize(NUM_SEQUENCES);
+			}
+		} finally {
+			client.close();
+		}
+
+		assertThat(detailRequests).hasSize(NUM_SEQUENCES);
+		assertThat(detailRequests.values().stream().mapToInt(AtomicInteger::get).max().getAsInt()).isEqualTo(1);
+	}
+
+	@Test
+	public void testBoundedParallelism() throws IOException {
+		InspectITRestClient client = new InspectITRestClient(host(), temp.newFolder().toPath(), WINDOW);
+
+		try {
+			assertThat(ids(client.fetchAll(1, "from", "to"))).hasSize(NUM_SEQUENCES);
+		} finally {
+			client.close();
+		}
+
+		assertThat(maxConcurrentRequests.get()).isGreaterThan(1).isLessThanOrEqualTo(WINDOW);
+	}
+
+	@Test
+	public void testErrorsArePropagated() throws IOException {
+		failingId = 42;
+		InspectITRestClient client = new InspectITRestClient(host(), temp.newFolder().toPath(), WINDOW);
+		List<Long> ids = new ArrayList<>();
+		RuntimeException exception = null;
+
+		try {
+			for (InvocationSequenceData sequence : client.fetchAll(1, "from", "to")) {
+				ids.add(sequence.getId());
+			}
+		} catch (RuntimeException e) {
+			exception = e;
+		} finally {
+			client.close();
+		}
+
+		assertThat(exception).isNotNull();
+		assertThat(ids).hasSize(41);
+	}
+
+	private String host() {
+		return "localhost:" + server.getAddress().getPort();
+	}
+
+	private static List<Long> ids(Iterable<InvocationSequenceData> sequences) {
+		List<Long> ids = new ArrayList<>();
+
+		for (InvocationSequenceData sequence : sequences) {
+			ids.add(sequence.getId());
+		}
+
+		return ids;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+
+		try {
+			if (INVOCATION_PATH.equals(path)) {
+				respond(exchange, 200, overview(exchange.getRequestURI().getQuery()));
+			} else {
+				long id = Long.parseLong(path.substring(INVOCATION_PATH.length() + 1));
+				detailRequests.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+
+				int concurrent = concurrentRequests.incrementAndGet();
+				maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+
+				try {
+					Thread.sleep(LATENCY_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					concurrentRequests.decrementAndGet();
+				}
+
+				if (id == failingId) {
+					respond(exchange, 500, "{}");
+				} else {
+					respond(exchange, 200, recordedSequence.replace("${id}", Long.toString(id)));
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Returns the next page of sequences, starting at the {@code latestReadId}.
+	 */
+	private String overview(String query) {
+		long latestReadId = 0;
+
+		for (String param : query.split("&")) {
+			if (param.startsWith("latestReadId=")) {
+				latestReadId = Long.parseLong(param.substring("latestReadId=".length()));
+			}
+		}
+
+		long first = Math.max(1, latestReadId);
+		long last = Math.min(NUM_SEQUENCES, (first + PAGE_SIZE) - 1);
+
+		return LongStream.rangeClosed(first, last).mapToObj(id -> "{\"id\":" + id + "}").collect(Collectors.joining(",", "[", "]"));
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package org.continuity.session.logs.converter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.continuity.session.logs.csv.ReadCSV;
+
+/**
+ * Converts synthetic CSV data with user names into session logs. The
+ * {@link StreamingSessionConverterCSVData} converts 50 million rows
+ * ({@code -Dbenchmark.rows}), the {@link SessionConverterCSVData} 1 million rows
+ * ({@code -Dbenchmark.rows.current}), since it holds all rows in memory. Not run as part of the
+ * test suite.
+ */
+public class SessionConverterCSVDataBenchmark {
+
+	private static final String HEADER = "user-name;business-transaction;request-start-time;request-end-time;request-url\n";
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+	public static void main(String[] args) throws IOException {
+		long numRows = Long.getLong("benchmark.rows", 50000000);
+		long numRowsCurrent = Long.getLong("benchmark.rows.current", 1000000);
+
+		CountingWriter writer = new CountingWriter();
+		long start = System.currentTimeMillis();
+		new StreamingSessionConverterCSVData().writeSessionLogsFromCSV(new ReadCSV().iterateDataFromCSV(new SyntheticCsvReader(numRows)), writer);
+		long duration = System.currentTimeMillis() - start;
+
+		System.out.println(String.format("Streaming: %d rows in %d ms (%.0f rows/s), %d chars written", numRows, duration, (numRows * 1000.0) / duration, writer.numChars));
+
+		Path file = Files.createTempFile("session-logs-benchmark", ".csv");
+
+		try {
+			try (Writer fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8); Reader reader = new SyntheticCsvReader(numRowsCurrent)) {
+				char[] buffer = new char[8192];
+				int read;
+				while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+					fileWriter.write(buffer, 0, read);
+				}
+			}
+
+			start = System.currentTimeMillis();
+			String sessionLogs = new SessionConverterCSVData().createSessionLogsFromCSV(new ReadCSV().readDataFromCSV(file.toString()));
+			duration = System.currentTimeMillis() - start;
+
+			System.out.println(String.format("Current: %d rows in %d ms (%.0f rows/s), %d chars written", numRowsCurrent, duration, (numRowsCurrent * 1000.0) / duration, sessionLogs.length()));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Generates CSV rows on the fly. Every row is one minute after the previous one, the user
+	 * changes every 20 rows, and there is a gap of one hour every 100 rows.
+	 */
+	private static class SyntheticCsvReader extends Reader {
+
+		private final long numRows;
+
+		private long nextRow = 0;
+
+		private LocalDateTime time = LocalDateTime.of(2018, 1, 1, 0, 0);
+
+		private String current = HEADER;
+
+		private int position = 0;
+
+		private SyntheticCsvReader(long numRows) {
+			this.numRows = numRows;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			int written = 0;
+
+			while (written < len) {
+				if (position >= current.length()) {
+					if (nextRow >= numRows) {
+						break;
+					}
+
+					current = nextLine();
+					position = 0;
+				}
+
+				int numChars = Math.min(len - written, current.length() - position);
+				current.getChars(position, position + numChars, cbuf, off + written);
+				position += numChars;
+				written += numChars;
+			}
+
+			return ((written == 0) && (len > 0)) ? -1 : written;
+		}
+
+		private String nextLine() {
+			time = time.plusMinutes(((nextRow % 100) == 0) ? 60 : 1);
+			String date = DATE_FORMAT.format(time);
+			String line = "user" + ((nextRow / 20) % 1000) + ";transaction" + (nextRow % 7) + ";" + date + ";" + date + ";/path" + (nextRow % 7) + "\n";
+			nextRow++;
+			return line;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	private static class CountingWriter extends Writer {
+
+		private long numChars = 0;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			numChars += len;
+		}
+
+		@Override
+		public void write(String str) {
+			numChars += str.length();
+		}
+
+		@Override
+		public void write(int c) {
+			numChars++;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
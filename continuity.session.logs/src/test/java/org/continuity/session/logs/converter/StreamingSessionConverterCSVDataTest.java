@@ -0,0 +1,206 @@
+package org.continuity.session.logs.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.continuity.session.logs.csv.ReadCSV;
+import org.continuity.session.logs.entities.RowObject;
+import org.junit.Test;
+
+/**
+ * Tests {@link StreamingSessionConverterCSVData} against {@link SessionConverterCSVData}.
+ */
+public class StreamingSessionConverterCSVDataTest {
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+	@Test
+	public void testWithUserNames() throws IOException {
+		String csv = "user-name;business-transaction;request-start-time;request-end-time;request-url\n" //
+				+ "alice;login;01.02.2018 10:00;01.02.2018 10:01;/login\n" //
+				+ "alice;search;01.02.2018 10:05;;/search\n" //
+				+ "alice;logout;01.02.2018 10:40;01.02.2018 10:40;/logout\n" //
+				+ "bob;login;01.02.2018 10:41;01.02.2018 10:41;\n" //
+				+ "bob;buy;01.02.2018 11:11;01.02.2018 11:12;/buy\n" //
+				+ "alice;login;01.02.2018 11:12;01.02.2018 11:12;/login\n";
+
+		String converted = convertStreaming(csv);
+
+		assertThat(withoutSessionIds(converted)).isEqualTo(withoutSessionIds(convertWithCurrent(csv)));
+		assertThat(converted.split("\n")).hasSize(4);
+	}
+
+	@Test
+	public void testWithoutUserNames() throws IOException {
+		String csv = "business-transaction;request-start-time;request-end-time;request-url;port;host-ip;protocol;method;parameter;encoding\n" //
+				+ "login;01.02.2018 10:00;01.02.2018 10:01;/login;80;10.0.0.1;HTTP/1.0;POST;user=foo;ISO-8859-1\n" //
+				+ "search;01.02.2018 10:30;01.02.2018 10:30;/search;;;;;;\n" //
+				+ "search;01.02.2018 11:01;01.02.2018 11:01;/search;;;;;;\n" //
+				+ "logout;01.02.2018 11:32;01.02.2018 11:32;/logout;;;;;;\n";
+
+		String converted = convertStreaming(csv);
+
+		assertThat(withoutSessionIds(converted)).isEqualTo(withoutSessionIds(convertWithCurrent(csv)));
+		assertThat(converted.split("\n")).hasSize(3);
+	}
+
+	@Test
+	public void testRandomData() throws IOException {
+		Random random = new Random(42);
+		StringBuilder csv = new StringBuilder("user-name;business-transaction;request-start-time;request-end-time;request-url\n");
+		LocalDateTime time = LocalDateTime.of(2018, 2, 1, 0, 0);
+		String user = "user0";
+
+		for (int i = 0; i < 10000; i++) {
+			time = time.plusMinutes(random.nextInt(40));
+
+			if (random.nextInt(10) == 0) {
+				user = "user" + random.nextInt(100);
+			}
+
+			csv.append(user).append(";transaction").append(random.nextInt(5)).append(";").append(DATE_FORMAT.format(time)).append(";");
+			csv.append(DATE_FORMAT.format(time.plusMinutes(random.nextInt(2)))).append(";/path").append(random.nextInt(5)).append("\n");
+		}
+
+		assertThat(withoutSessionIds(convertStreaming(csv.toString()))).isEqualTo(withoutSessionIds(convertWithCurrent(csv.toString())));
+	}
+
+	@Test
+	public void testWithSessionIds() throws IOException {
+		String csv = "session-id;business-transaction;request-start-time;request-end-time;request-url\n" //
+				+ "A;login;01.02.2018 10:00;01.02.2018 10:02;/login\n" //
+				+ "B;login;01.02.2018 10:01;01.02.2018 10:01;/login\n" //
+				+ "A;search;01.02.2018 10:00;01.02.2018 10:01;/search\n" //
+				+ "B;buy;01.02.2018 10:20;01.02.2018 10:20;/buy\n" //
+				+ "A;logout;01.02.2018 10:25;01.02.2018 10:25;/logout\n" //
+				+ "C;login;01.02.2018 10:55;01.02.2018 10:55;/login\n" //
+				+ "B;logout;01.02.2018 11:00;01.02.2018 11:00;/logout\n";
+
+		String[] sessions = convertStreaming(csv).split("\n");
+
+		assertThat(sessions).hasSize(4);
+		assertThat(sessions[0]).startsWith("B;\"login\"").contains("\"buy\"").doesNotContain("logout");
+		assertThat(sessions[1]).startsWith("A;\"search\"").contains("\"login\"").contains("\"logout\"");
+		assertThat(sessions[1].indexOf("\"login\"")).isLessThan(sessions[1].indexOf("\"logout\""));
+		assertThat(sessions[2]).startsWith("C;\"login\"");
+		assertThat(sessions[3]).startsWith("B-2;\"logout\"");
+	}
+
+	@Test
+	public void testLongSessionDoesNotDelayOthers() throws IOException {
+		StringBuilder csv = new StringBuilder("session-id;business-transaction;request-start-time;request-end-time;request-url\n");
+		LocalDateTime start = LocalDateTime.of(2018, 2, 1, 10, 0);
+
+		csv.append("B;login;").append(DATE_FORMAT.format(start)).append(";;/login\n");
+
+		for (int i = 0; i <= 24; i++) {
+			csv.append("A;search;").append(DATE_FORMAT.format(start.plusMinutes(10 * i))).append(";;/search\n");
+		}
+
+		StringWriter writer = new StringWriter();
+		Iterable<RowObject> rows = new ReadCSV().iterateDataFromCSV(new StringReader(csv.toString()));
+		List<String> writtenBeforeLastRow = new ArrayList<>();
+
+		Iterable<RowObject> observedRows = () -> {
+			Iterator<RowObject> it = rows.iterator();
+
+			return new Iterator<RowObject>() {
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public RowObject next() {
+					RowObject row = it.next();
+
+					if (!it.hasNext()) {
+						writtenBeforeLastRow.add(writer.toString());
+					}
+
+					return row;
+				}
+			};
+		};
+
+		new StreamingSessionConverterCSVData().writeSessionLogsFromCSV(observedRows, writer);
+
+		assertThat(writtenBeforeLastRow).hasSize(1);
+		assertThat(writtenBeforeLastRow.get(0)).startsWith("B;\"login\"");
+
+		String[] sessions = writer.toString().split("\n");
+
+		assertThat(sessions).hasSize(2);
+		assertThat(sessions[1]).startsWith("A;\"search\"");
+	}
+
+	@Test
+	public void testSplitSessionsHaveUniqueIds() throws IOException {
+		String csv = "session-id;business-transaction;request-start-time;request-end-time;request-url\n" //
+				+ "A;login;01.02.2018 10:00;01.02.2018 10:00;/login\n" //
+				+ "A;search;01.02.2018 10:31;01.02.2018 10:31;/search\n" //
+				+ "B;login;01.02.2018 11:30;01.02.2018 11:30;/login\n" //
+				+ "A;logout;01.02.2018 12:45;01.02.2018 12:45;/logout\n";
+
+		String[] sessions = convertStreaming(csv).split("\n");
+		List<String> ids = Arrays.stream(sessions).map(session -> session.substring(0, session.indexOf(';'))).collect(Collectors.toList());
+
+		assertThat(ids).containsExactly("A", "A-2", "B", "A-3");
+		assertThat(sessions[3]).contains("\"logout\"").doesNotContain("\"login\"");
+	}
+
+	@Test
+	public void testSessionNumbersAreForgotten() throws IOException {
+		String csv = "session-id;business-transaction;request-start-time;request-end-time;request-url\n" //
+				+ "A;login;01.02.2018 10:00;01.02.2018 10:00;/login\n" //
+				+ "A;search;01.02.2018 20:00;01.02.2018 20:00;/search\n" //
+				+ "B;login;03.02.2018 10:00;03.02.2018 10:00;/login\n" //
+				+ "A;logout;03.02.2018 10:10;03.02.2018 10:10;/logout\n";
+
+		String[] sessions = convertStreaming(csv).split("\n");
+		List<String> ids = Arrays.stream(sessions).map(session -> session.substring(0, session.indexOf(';'))).collect(Collectors.toList());
+
+		assertThat(ids).containsExactly("A", "A-2", "B", "A");
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		assertThat(convertStreaming("user-name;business-transaction;request-start-time;request-end-time;request-url\n")).isEmpty();
+	}
+
+	private String convertStreaming(String csv) throws IOException {
+		StringWriter writer = new StringWriter();
+		new StreamingSessionConverterCSVData().writeSessionLogsFromCSV(new ReadCSV().iterateDataFromCSV(new StringReader(csv)), writer);
+		return writer.toString();
+	}
+
+	private String convertWithCurrent(String csv) throws IOException {
+		Path file = Files.createTempFile("session-logs", ".csv");
+
+		try {
+			Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+			return new SessionConverterCSVData().createSessionLogsFromCSV(new ReadCSV().readDataFromCSV(file.toString()));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private String withoutSessionIds(String sessionLogs) {
+		return Arrays.stream(sessionLogs.split("\n")).map(session -> session.substring(session.indexOf(';'))).collect(Collectors.joining("\n"));
+	}
+
+}
@@ -1,7 +1,6 @@
 package org.continuity.wessbas.amqp;
 
 import org.continuity.api.amqp.AmqpApi;
-import org.continuity.api.entities.artifact.SessionsBundlePack;
 import org.continuity.api.entities.config.TaskDescription;
 import org.continuity.api.entities.links.LinkExchangeModel;
 import org.continuity.api.entities.report.TaskError;
@@ -12,6 +11,7 @@ import org.continuity.wessbas.config.RabbitMqConfig;
 import org.continuity.wessbas.controllers.WessbasModelController;
 import org.continuity.wessbas.entities.BehaviorModelPack;
 import org.continuity.wessbas.managers.BehaviorMixManager;
+import org.continuity.wessbas.managers.WessbasWorkspaceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.AmqpTemplate;
@@ -40,6 +40,9 @@ public class BehaviorMixCreationAmqpHandler {
 
 	@Autowired
 	private MixedStorage<BehaviorModelPack> storage;
+
+	@Autowired
+	private WessbasWorkspaceManager workspaceManager;
 	
 //	@Autowired
 //	private ConcurrentHashMap<String, Path> pathStorage;
@@ -49,14 +52,15 @@ public class BehaviorMixCreationAmqpHandler {
 
 	/**
 	 * Listener to the RabbitMQ {@link RabbitMqConfig#TASK_CREATE_QUEUE_NAME}. Creates a new Behavior
-	 * mix based on the specified monitoring data.
+	 * mix based on the specified monitoring data. Several mixes are created concurrently, each in
+	 * a separate workspace.
 	 *
 	 * @param task
 	 *            The description of the task to be done.
 	 * @return The id that can be used to retrieve the mix later on.
 	 * @see WessbasModelController
 	 */
-	@RabbitListener(queues = RabbitMqConfig.MIX_CREATE_QUEUE_NAME)
+	@RabbitListener(queues = RabbitMqConfig.MIX_CREATE_QUEUE_NAME, containerFactory = "mixContainerFactory")
 	public void onMonitoringDataAvailable(TaskDescription task) {
 		LOGGER.info("Task {}: Received new task to be processed for tag '{}'", task.getTaskId(), task.getTag());
 
@@ -66,17 +70,22 @@ public class BehaviorMixCreationAmqpHandler {
 			LOGGER.error("Task {}: Session logs link is missing for tag {}!", task.getTaskId(), task.getTag());
 			report = TaskReport.error(task.getTaskId(), TaskError.MISSING_SOURCE);
 		} else {
-			BehaviorMixManager behaviorManager = new BehaviorMixManager(restTemplate);
-			SessionsBundlePack sessionsBundles = behaviorManager.runPipeline(task.getSource().getSessionLogsLinks().getLink());
-			BehaviorModelPack behaviorModelPack = new BehaviorModelPack(sessionsBundles, behaviorManager.getWorkingDir());
+			BehaviorMixManager behaviorManager = new BehaviorMixManager(restTemplate, workspaceManager);
+			BehaviorModelPack behaviorModelPack = behaviorManager.createBehaviorModelPack(task.getSource().getSessionLogsLinks().getLink(), task.isLongTermUse());
 
-			if (sessionsBundles == null) {
+			if (behaviorModelPack == null) {
 				LOGGER.info("Task {}: Could not create a new behavior mix for tag '{}'.", task.getTaskId(), task.getTag());
 
 				report = TaskReport.error(task.getTaskId(), TaskError.INTERNAL_ERROR);
 			} else {
 				
 				String storageId = storage.put(behaviorModelPack, task.getTag(), task.isLongTermUse());
+
+				if (!task.isLongTermUse()) {
+					// the workspaces of long-term packs are pinned and never deleted
+					workspaceManager.onDeletion(behaviorModelPack.getPathToBehaviorModelFiles(), () -> storage.remove(storageId));
+				}
+
 				String behaviorModelPackLink = RestApi.Wessbas.SessionsBundles.GET.requestUrl(storageId).withoutProtocol().get();
 
 				report = TaskReport.successful(task.getTaskId(), new LinkExchangeModel().getSessionsBundlesLinks().setLink(behaviorModelPackLink).parent());
@@ -15,6 +15,7 @@ import org.continuity.wessbas.entities.BehaviorModelPack;
 import org.continuity.wessbas.entities.WessbasBundle;
 import org.continuity.wessbas.entities.WorkloadModelPack;
 import org.continuity.wessbas.managers.WessbasPipelineManager;
+import org.continuity.wessbas.managers.WessbasWorkspaceManager;
 import org.continuity.wessbas.managers.WorkloadModelManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,9 @@ public class WessbasAmqpHandler {
 	@Autowired
 	private MixedStorage<BehaviorModelPack> storageBehav;
 
+	@Autowired
+	private WessbasWorkspaceManager workspaceManager;
+
 	@Value("${spring.application.name}")
 	private String applicationName;
 
@@ -76,9 +80,23 @@ public class WessbasAmqpHandler {
 				
 				List<String> pathParams = RestApi.Wessbas.SessionsBundles.GET.parsePathParameters(task.getSource().getSessionsBundlesLinks().getLink());
 				BehaviorModelPack behaviorModelPack = storageBehav.get(pathParams.get(0));
-				Path pathToBehaviorFiles = behaviorModelPack.getPathToBehaviorModelFiles();
-				
-				workloadModel = modelManager.runPipeline(task.getSource().getForecastLinks().getLink(), pathToBehaviorFiles);
+
+				if (behaviorModelPack == null) {
+					LOGGER.error("Task {}: There is no sessions-bundle-pack with id {}!", task.getTaskId(), pathParams.get(0));
+				} else {
+					Path pathToBehaviorFiles = behaviorModelPack.getPathToBehaviorModelFiles();
+
+					// prevents the workspace from being deleted while it is read
+					if (workspaceManager.acquire(pathToBehaviorFiles)) {
+						try {
+							workloadModel = modelManager.runPipeline(task.getSource().getForecastLinks().getLink(), pathToBehaviorFiles);
+						} finally {
+							workspaceManager.release(pathToBehaviorFiles);
+						}
+					} else {
+						LOGGER.error("Task {}: The behavior model files of sessions-bundle-pack {} have already been deleted!", task.getTaskId(), pathParams.get(0));
+					}
+				}
 			} else {
 				WessbasPipelineManager pipelineManager = new WessbasPipelineManager(restTemplate);
 				workloadModel = pipelineManager.runPipeline(task, task.getProperties().getIntensityCalculationInterval());
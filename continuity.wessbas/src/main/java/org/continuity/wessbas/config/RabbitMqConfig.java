@@ -13,9 +13,11 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * @author Henning Schulz, Alper Hidiroglu
@@ -69,6 +71,35 @@ public class RabbitMqConfig {
 		return factory;
 	}
 
+	/**
+	 * Container factory for the behavior mix creation. Creates the mixes of several tasks
+	 * concurrently, each on a consumer thread of a bounded executor. A task is only acknowledged
+	 * after its mix has been created.
+	 */
+	@Bean
+	SimpleRabbitListenerContainerFactory mixContainerFactory(ConnectionFactory connectionFactory, SimpleRabbitListenerContainerFactoryConfigurer configurer,
+			ThreadPoolTaskExecutor behaviorMixExecutor) {
+		SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+		configurer.configure(factory, connectionFactory);
+		factory.setMessageConverter(jsonMessageConverter());
+		factory.setAfterReceivePostProcessors(typeRemovingProcessor());
+		factory.setTaskExecutor(behaviorMixExecutor);
+		factory.setConcurrentConsumers(behaviorMixExecutor.getMaxPoolSize());
+		factory.setMaxConcurrentConsumers(behaviorMixExecutor.getMaxPoolSize());
+		factory.setPrefetchCount(1);
+		return factory;
+	}
+
+	@Bean
+	ThreadPoolTaskExecutor behaviorMixExecutor(@Value("${wessbas.behavior-mix.parallelism:4}") int parallelism) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(parallelism);
+		executor.setMaxPoolSize(parallelism);
+		executor.setQueueCapacity(parallelism);
+		executor.setThreadNamePrefix("behavior-mix-");
+		return executor;
+	}
+
 	@Bean
 	TopicExchange taskCreateExchange() {
 		return AmqpApi.WorkloadModel.TASK_CREATE.create();
@@ -1,12 +1,17 @@
 package org.continuity.wessbas.config;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.continuity.api.entities.artifact.BehaviorModel;
 import org.continuity.commons.storage.MemoryStorage;
 import org.continuity.commons.storage.MixedStorage;
 import org.continuity.wessbas.entities.BehaviorModelPack;
 import org.continuity.wessbas.entities.WessbasBundle;
+import org.continuity.wessbas.managers.WessbasWorkspaceManager;
 import org.continuity.wessbas.storage.WessbasFileStorage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -17,12 +22,35 @@ public class StorageConfig {
 
 	@Bean
 	public MixedStorage<WessbasBundle> wessbasStorage(@Value("${storage.path:storage}") String storagePath) {
-		return new MixedStorage<>(WessbasBundle.class, new WessbasFileStorage(Paths.get(storagePath)));
+		return new MixedStorage<>(WessbasBundle.class, new WessbasFileStorage(Paths.get(storagePath).resolve("models")));
 	}
 	
 	@Bean
 	public MixedStorage<BehaviorModelPack> behaviorModelStorage(@Value("${storage.path:storage}") String storagePath) {
-		return new MixedStorage<>(Paths.get(storagePath), new BehaviorModelPack());
+		return new MixedStorage<>(Paths.get(storagePath).resolve("behavior-models"), new BehaviorModelPack());
+	}
+	
+	/**
+	 * Creates the workspace manager and recovers the workspaces of the persisted behavior model
+	 * packs. Only these survive a restart. As the persisted packs are stored for long-term use,
+	 * their workspaces are pinned. Deleting any other workspace removes the pack referencing it.
+	 */
+	@Bean
+	public WessbasWorkspaceManager workspaceManager(@Value("${storage.path:storage}") String storagePath, @Value("${wessbas.workspace.max-retained:100}") int maxRetained,
+			@Value("${wessbas.behavior-mix.parallelism:4}") int parallelism, MixedStorage<BehaviorModelPack> behaviorModelStorage) throws IOException {
+		WessbasWorkspaceManager manager = new WessbasWorkspaceManager(Paths.get(storagePath).resolve("workspaces"), maxRetained, parallelism);
+
+		List<Path> referenced = new ArrayList<>();
+
+		for (BehaviorModelPack pack : behaviorModelStorage.getAll(true).values()) {
+			if ((pack != null) && (pack.getPathToBehaviorModelFiles() != null)) {
+				referenced.add(pack.getPathToBehaviorModelFiles());
+			}
+		}
+
+		manager.recover(referenced);
+
+		return manager;
 	}
 	
 	@Bean
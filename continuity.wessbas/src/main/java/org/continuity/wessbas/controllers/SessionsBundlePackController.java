@@ -32,7 +32,7 @@ public class SessionsBundlePackController {
 	@RequestMapping(value = GET, method = RequestMethod.GET)
 	public ResponseEntity<SessionsBundlePack> getSessionsBundlePackFromLink(@PathVariable String id) {
 		BehaviorModelPack behaviorModelPack = storage.get(id);
-		SessionsBundlePack sessionsBundles = behaviorModelPack.getSessionsBundlePack();
+		SessionsBundlePack sessionsBundles = behaviorModelPack == null ? null : behaviorModelPack.getSessionsBundlePack();
 
 		if (sessionsBundles == null) {
 			LOGGER.warn("Could not find sessions-bundle-pack for id {}!", id);
@@ -3,7 +3,6 @@ package org.continuity.wessbas.managers;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.Date;
@@ -15,6 +14,7 @@ import org.continuity.api.entities.artifact.SessionsBundle;
 import org.continuity.api.entities.artifact.SessionsBundlePack;
 import org.continuity.api.entities.artifact.SimplifiedSession;
 import org.continuity.commons.utils.WebUtils;
+import org.continuity.wessbas.entities.BehaviorModelPack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestClientException;
@@ -40,36 +40,88 @@ public class BehaviorMixManager {
 
 	private final Path workingDir;
 
+	private final WessbasWorkspaceManager workspaces;
+
+	/**
+	 * Gets the fixed working directory.
+	 *
+	 * @return The working directory or {@code null} if each run uses its own workspace.
+	 */
 	public Path getWorkingDir() {
 		return workingDir;
 	}
 
 	/**
-	 * Constructor.
+	 * Constructor. Each run is executed in a separate workspace of the passed manager, so that
+	 * runs can be executed concurrently.
 	 */
-	public BehaviorMixManager(RestTemplate restTemplate) {
+	public BehaviorMixManager(RestTemplate restTemplate, WessbasWorkspaceManager workspaces) {
 		this.restTemplate = restTemplate;
-
-		Path tmpDir;
-		try {
-			tmpDir = Files.createTempDirectory("wessbas");
-		} catch (IOException e) {
-			LOGGER.error("Could not create a temp directory!");
-			e.printStackTrace();
-			tmpDir = Paths.get("wessbas");
-		}
-
-		workingDir = tmpDir;
-
-		LOGGER.info("Set working directory to {}", workingDir);
+		this.workingDir = null;
+		this.workspaces = workspaces;
 	}
 	
 	/**
-	 * Constructor.
+	 * Constructor. All runs are executed in the passed working directory and thus, must not be
+	 * executed concurrently.
 	 */
 	public BehaviorMixManager(RestTemplate restTemplate, Path workingDir) {
 		this.restTemplate = restTemplate;
 		this.workingDir = workingDir;
+		this.workspaces = null;
+	}
+
+	/**
+	 * Runs the pipeline in a new workspace and returns a BehaviorModelPack holding the
+	 * SessionsBundlePack and the path to the workspace containing the behavior model files. The
+	 * workspace is retained if the run was successful and deleted otherwise. Requires a
+	 * {@link WessbasWorkspaceManager}.
+	 *
+	 * @param sessionLogsLink
+	 *            The link to the session logs.
+	 * @return The BehaviorModelPack or {@code null} if the run failed.
+	 */
+	public BehaviorModelPack createBehaviorModelPack(String sessionLogsLink) {
+		return createBehaviorModelPack(sessionLogsLink, false);
+	}
+
+	/**
+	 * Runs the pipeline in a new workspace and returns a BehaviorModelPack holding the
+	 * SessionsBundlePack and the path to the workspace containing the behavior model files. The
+	 * workspace is retained if the run was successful and deleted otherwise. Requires a
+	 * {@link WessbasWorkspaceManager}.
+	 *
+	 * @param sessionLogsLink
+	 *            The link to the session logs.
+	 * @param longTermUse
+	 *            Whether the pack is stored for long-term use. If so, the workspace is pinned
+	 *            and not deleted when newer workspaces are retained.
+	 * @return The BehaviorModelPack or {@code null} if the run failed.
+	 */
+	public BehaviorModelPack createBehaviorModelPack(String sessionLogsLink, boolean longTermUse) {
+		SessionLogs sessionLog = retrieveSessionLogs(sessionLogsLink);
+
+		if (sessionLog == null) {
+			return null;
+		}
+
+		WessbasWorkspace workspace;
+		try {
+			workspace = workspaces.create();
+		} catch (IOException e) {
+			LOGGER.error("Could not create a workspace!", e);
+			return null;
+		}
+
+		SessionsBundlePack sessionsBundles = runPipeline(sessionLog, workspace.getPath(), workspace);
+
+		if (sessionsBundles == null) {
+			workspace.close();
+			return null;
+		}
+
+		workspaces.retain(workspace, longTermUse);
+		return new BehaviorModelPack(sessionsBundles, workspace.getPath());
 	}
 
 	/**
@@ -82,28 +134,13 @@ public class BehaviorMixManager {
 	 * @return The generated workload model.
 	 */
 	public SessionsBundlePack runPipeline(String sessionLogsLink) {
+		SessionLogs sessionLog = retrieveSessionLogs(sessionLogsLink);
 
-		SessionLogs sessionLog;
-		try {
-			sessionLog = restTemplate.getForObject(WebUtils.addProtocolIfMissing(sessionLogsLink), SessionLogs.class);
-		} catch (RestClientException e) {
-			LOGGER.error("Error when retrieving the session logs!", e);
+		if (sessionLog == null) {
 			return null;
 		}
-		BehaviorMix mix;
-		SessionsBundlePack sessionsBundles;
-
-		try {
-			mix = convertSessionLogIntoBehaviorMix(sessionLog.getLogs());
-			sessionsBundles = extractSessions(sessionLog.getDataTimestamp(), mix);
-
-		} catch (Exception e) {
-			LOGGER.error("Could not create the Behavior Mix!", e);
-			mix = null;
-			sessionsBundles = null;
-		}
 
-		return sessionsBundles;
+		return runPipeline(sessionLog);
 	}
 
 	/**
@@ -114,11 +151,37 @@ public class BehaviorMixManager {
 	 * @return the session logs
 	 */
 	public SessionsBundlePack runPipeline(SessionLogs sessionLogs) {
+		if (workspaces == null) {
+			return runPipeline(sessionLogs, workingDir, null);
+		}
+
+		try (WessbasWorkspace workspace = workspaces.create()) {
+			return runPipeline(sessionLogs, workspace.getPath(), workspace);
+		} catch (IOException e) {
+			LOGGER.error("Could not create a workspace!", e);
+			return null;
+		}
+	}
+
+	private SessionLogs retrieveSessionLogs(String sessionLogsLink) {
+		try {
+			return restTemplate.getForObject(WebUtils.addProtocolIfMissing(sessionLogsLink), SessionLogs.class);
+		} catch (RestClientException e) {
+			LOGGER.error("Error when retrieving the session logs!", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Runs the pipeline in the passed directory. If a workspace is passed, the session logs are
+	 * written using the pooled buffers of the {@link WessbasWorkspaceManager}.
+	 */
+	private SessionsBundlePack runPipeline(SessionLogs sessionLogs, Path dir, WessbasWorkspace workspace) {
 		BehaviorMix mix;
 		SessionsBundlePack sessionsBundles;
 
 		try {
-			mix = convertSessionLogIntoBehaviorMix(sessionLogs.getLogs());
+			mix = convertSessionLogIntoBehaviorMix(sessionLogs.getLogs(), dir, workspace);
 			sessionsBundles = extractSessions(sessionLogs.getDataTimestamp(), mix);
 
 		} catch (Exception e) {
@@ -138,9 +201,10 @@ public class BehaviorMixManager {
 	 * @throws GeneratorException
 	 * @throws SecurityException
 	 */
-	private BehaviorMix convertSessionLogIntoBehaviorMix(String sessionLog) throws IOException, SecurityException, GeneratorException, ExtractionException, ParseException {
-		Path sessionLogsPath = writeSessionLogIntoFile(sessionLog);
-		BehaviorMix mix = createBehaviorMix(sessionLogsPath);
+	private BehaviorMix convertSessionLogIntoBehaviorMix(String sessionLog, Path dir, WessbasWorkspace workspace)
+			throws IOException, SecurityException, GeneratorException, ExtractionException, ParseException {
+		Path sessionLogsPath = writeSessionLogIntoFile(sessionLog, dir, workspace);
+		BehaviorMix mix = createBehaviorMix(sessionLogsPath, dir);
 		return mix;
 	}
 
@@ -150,9 +214,13 @@ public class BehaviorMixManager {
 	 * @return
 	 * @throws IOException
 	 */
-	private Path writeSessionLogIntoFile(String sessionLog) throws IOException {
-		Path sessionLogsPath = workingDir.resolve("sessions.dat");
-		Files.write(sessionLogsPath, Collections.singletonList(sessionLog), StandardOpenOption.CREATE);
+	private Path writeSessionLogIntoFile(String sessionLog, Path dir, WessbasWorkspace workspace) throws IOException {
+		if (workspace != null) {
+			return workspaces.writeSessionLogs(workspace, sessionLog);
+		}
+
+		Path sessionLogsPath = dir.resolve("sessions.dat");
+		Files.write(sessionLogsPath, Collections.singletonList(sessionLog), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
 		return sessionLogsPath;
 	}
 
@@ -165,8 +233,8 @@ public class BehaviorMixManager {
 	 * @throws ParseException
 	 * @throws ExtractionException
 	 */
-	private BehaviorMix createBehaviorMix(Path sessionLogsPath) throws IOException, ParseException, ExtractionException {
-		Path outputDir = workingDir.resolve("behaviormodelextractor");
+	private BehaviorMix createBehaviorMix(Path sessionLogsPath, Path dir) throws IOException, ParseException, ExtractionException {
+		Path outputDir = dir.resolve("behaviormodelextractor");
 		outputDir.toFile().mkdir();
 
 		BehaviorModelExtractor extractor = new BehaviorModelExtractor();
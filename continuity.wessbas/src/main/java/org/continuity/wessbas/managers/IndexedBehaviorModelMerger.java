@@ -0,0 +1,350 @@
+package org.continuity.wessbas.managers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
+import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+import org.continuity.api.entities.artifact.ProcessingTimeNormalDistributions;
+
+/**
+ * Merges sub Markov chains into a root behavior model like the {@link BehaviorModelMerger}, but
+ * holds the Markov chain as adjacency maps indexed by the source and target states. Hence, the
+ * predecessors of a replaced state and the transitions to be joined are found in constant time
+ * instead of searching all states and transitions. <br>
+ *
+ * In contrast to the {@link BehaviorModelMerger}, the pre-processing times of a sub Markov chain
+ * are added exactly once to each transition that is bent to the sub Markov chain. Finally, the
+ * transition probabilities of each state are normalized, if their sum is not exactly 1.
+ */
+public class IndexedBehaviorModelMerger {
+
+	private static final String EXIT_STATE_NAME = WorkloadModularizationManager.EXIT_STATE_NAME;
+
+	private static final String INITIAL_STATE_NAME = WorkloadModularizationManager.INITIAL_STATE_NAME;
+
+	private static final String STATE_NAME_LIMITER = WorkloadModularizationManager.STATE_NAME_LIMITER;
+
+	private static final String ROOT_KEY = "root";
+
+	/**
+	 * Outgoing transitions per state, indexed by the target state.
+	 */
+	private final Map<String, LinkedHashMap<String, Transition>> outgoing = new HashMap<>();
+
+	/**
+	 * Sources of the incoming transitions per state.
+	 */
+	private final Map<String, Set<String>> incoming = new HashMap<>();
+
+	/**
+	 * Merges/ replaces the sub markov chain of each root markov state into the root markov chain.
+	 *
+	 * @param rootBehaviorModel
+	 *            The root behavior model. Will be changed.
+	 * @param modularizedBehaviorModelsPerMarkovState
+	 *            The sub Markov chain and the session logs holding the processing times per root
+	 *            Markov state. If there is no sub Markov chain, the root Markov state is removed.
+	 */
+	public void replaceMarkovStatesWithSubMarkovChains(Behavior rootBehaviorModel, Map<String, Pair<Behavior, ModularizedSessionLogs>> modularizedBehaviorModelsPerMarkovState) {
+		outgoing.clear();
+		incoming.clear();
+
+		for (MarkovState state : rootBehaviorModel.getMarkovStates()) {
+			addState(state.getId(), state.getTransitions(), null);
+		}
+
+		Set<String> replacedStates = new HashSet<>();
+		List<String> addedStates = new ArrayList<>();
+
+		for (Entry<String, Pair<Behavior, ModularizedSessionLogs>> entry : modularizedBehaviorModelsPerMarkovState.entrySet()) {
+			String rootState = entry.getKey();
+
+			if (INITIAL_STATE_NAME.equals(rootState) || EXIT_STATE_NAME.equals(rootState) || !outgoing.containsKey(rootState)) {
+				continue;
+			}
+
+			Behavior subBehaviorModel = entry.getValue().getLeft();
+			Map<String, ProcessingTimeNormalDistributions> distributions = getNormalDistributions(entry.getValue().getRight());
+
+			removeCycle(rootState);
+
+			if (subBehaviorModel == null) {
+				skipState(rootState, distributions.get(ROOT_KEY));
+			} else {
+				addedStates.addAll(replaceState(rootState, subBehaviorModel, distributions));
+			}
+
+			removeState(rootState);
+			replacedStates.add(rootState);
+		}
+
+		List<MarkovState> mergedStates = new ArrayList<>();
+
+		for (MarkovState state : rootBehaviorModel.getMarkovStates()) {
+			if (!replacedStates.contains(state.getId())) {
+				mergedStates.add(toMarkovState(state.getId()));
+			}
+		}
+
+		for (String state : addedStates) {
+			mergedStates.add(toMarkovState(state));
+		}
+
+		rootBehaviorModel.setMarkovStates(mergedStates);
+	}
+
+	/**
+	 * Bends the incoming transitions of a root Markov state to its outgoing transitions.
+	 */
+	private void skipState(String rootState, ProcessingTimeNormalDistributions rootDistribution) {
+		for (String predecessor : new ArrayList<>(incoming.get(rootState))) {
+			Transition incomingTransition = removeTransition(predecessor, rootState);
+
+			if (rootDistribution != null) {
+				addTime(incomingTransition, rootDistribution.getPreprocessingTimeMean() + rootDistribution.getPostprocessingTimeMean(),
+						rootDistribution.getPreprocessingTimeDeviation() + rootDistribution.getPostprocessingTimeDeviation());
+			}
+
+			join(predecessor, incomingTransition, outgoing.get(rootState));
+		}
+	}
+
+	/**
+	 * Adds the sub Markov chain and bends the transitions to its exit state to the outgoing
+	 * transitions of the root Markov state and the incoming transitions of the root Markov state
+	 * to the sub Markov chain.
+	 *
+	 * @return The added states without the initial and exit states of the sub Markov chain.
+	 */
+	private List<String> replaceState(String rootState, Behavior subBehaviorModel, Map<String, ProcessingTimeNormalDistributions> distributions) {
+		String subInitialState = rootState + STATE_NAME_LIMITER + INITIAL_STATE_NAME;
+		String subExitState = rootState + STATE_NAME_LIMITER + EXIT_STATE_NAME;
+
+		List<String> addedStates = new ArrayList<>();
+
+		for (MarkovState state : subBehaviorModel.getMarkovStates()) {
+			String id = state.getId();
+
+			if (INITIAL_STATE_NAME.equals(id)) {
+				id = subInitialState;
+			} else if (EXIT_STATE_NAME.equals(id)) {
+				id = subExitState;
+			} else {
+				addedStates.add(id);
+			}
+
+			addState(id, state.getTransitions(), subExitState);
+		}
+
+		// Merge transitions targeting the exit state with the transitions of the root state
+		for (String predecessor : new ArrayList<>(incoming.get(subExitState))) {
+			Transition exitTransition = removeTransition(predecessor, subExitState);
+			ProcessingTimeNormalDistributions distribution = distributions.get(getRequestName(predecessor));
+
+			if (distribution != null) {
+				addTime(exitTransition, distribution.getPostprocessingTimeMean(), distribution.getPostprocessingTimeDeviation());
+			}
+
+			join(predecessor, exitTransition, outgoing.get(rootState));
+		}
+
+		removeState(subExitState);
+		removeCycle(subInitialState);
+
+		// Add the pre-processing times to the initial transitions once for all predecessors
+		LinkedHashMap<String, Transition> initialTransitions = outgoing.get(subInitialState);
+
+		for (Transition transition : initialTransitions.values()) {
+			ProcessingTimeNormalDistributions distribution = distributions.get(getRequestName(transition.getTargetState()));
+
+			if (distribution != null) {
+				addTime(transition, distribution.getPreprocessingTimeMean(), distribution.getPreprocessingTimeDeviation());
+			}
+		}
+
+		// Bend transitions targeting the root state to the initial state of the sub Markov chain
+		for (String predecessor : new ArrayList<>(incoming.get(rootState))) {
+			join(predecessor, removeTransition(predecessor, rootState), initialTransitions);
+		}
+
+		removeState(subInitialState);
+
+		return addedStates;
+	}
+
+	/**
+	 * Removes a transition of a state to itself and distributes its probability uniformly among
+	 * the other transitions of the state.
+	 */
+	private void removeCycle(String state) {
+		Transition cycle = removeTransition(state, state);
+
+		if (cycle != null) {
+			Collection<Transition> transitions = outgoing.get(state).values();
+			double proportionateProbability = cycle.getProbability() / transitions.size();
+
+			for (Transition transition : transitions) {
+				transition.setProbability(transition.getProbability() + proportionateProbability);
+			}
+		}
+	}
+
+	/**
+	 * Joins the concatenation of an incoming transition and the passed outgoing transitions into
+	 * the transitions of the source state of the incoming transition.
+	 */
+	private void join(String source, Transition incomingTransition, Map<String, Transition> outgoingTransitions) {
+		LinkedHashMap<String, Transition> sourceTransitions = outgoing.get(source);
+
+		String incomingTarget = incomingTransition.getTargetState();
+		double incomingProbability = incomingTransition.getProbability();
+		double incomingMean = incomingTransition.getMean();
+		double incomingVariance = square(incomingTransition.getDeviation());
+
+		for (Transition outgoingTransition : outgoingTransitions.values()) {
+			String target = outgoingTransition.getTargetState();
+
+			if (target.equals(incomingTarget)) {
+				continue;
+			}
+
+			double probability = incomingProbability * outgoingTransition.getProbability();
+			double mean = incomingMean + outgoingTransition.getMean();
+			double variance = incomingVariance + square(outgoingTransition.getDeviation());
+
+			Transition existing = sourceTransitions.get(target);
+
+			if (existing == null) {
+				sourceTransitions.put(target, new Transition(target, probability, mean, Math.sqrt(variance)));
+				incoming.computeIfAbsent(target, t -> new LinkedHashSet<>()).add(source);
+			} else {
+				double existingProbability = existing.getProbability();
+				double weightExisting = existingProbability / (existingProbability + probability);
+				double weightNew = probability / (existingProbability + probability);
+
+				existing.setMean((weightExisting * existing.getMean()) + (weightNew * mean));
+				existing.setDeviation(Math.sqrt((square(weightExisting) * square(existing.getDeviation())) + (square(weightNew) * variance)));
+				existing.setProbability(existingProbability + probability);
+			}
+		}
+	}
+
+	/**
+	 * Adds a state with copies of the passed transitions.
+	 *
+	 * @param exitState
+	 *            The name transitions to the exit state are to be renamed to. {@code null} if
+	 *            the name is to be retained.
+	 */
+	private void addState(String id, List<Transition> transitions, String exitState) {
+		LinkedHashMap<String, Transition> stateTransitions = new LinkedHashMap<>();
+		outgoing.put(id, stateTransitions);
+		incoming.computeIfAbsent(id, i -> new LinkedHashSet<>());
+
+		if (transitions == null) {
+			return;
+		}
+
+		for (Transition transition : transitions) {
+			Transition copy = transition.clone();
+
+			if ((exitState != null) && EXIT_STATE_NAME.equals(copy.getTargetState())) {
+				copy.setTargetState(exitState);
+			}
+
+			stateTransitions.putIfAbsent(copy.getTargetState(), copy);
+			incoming.computeIfAbsent(copy.getTargetState(), t -> new LinkedHashSet<>()).add(id);
+		}
+	}
+
+	private Transition removeTransition(String source, String target) {
+		Transition transition = outgoing.get(source).remove(target);
+
+		if (transition != null) {
+			incoming.get(target).remove(source);
+		}
+
+		return transition;
+	}
+
+	private void removeState(String state) {
+		for (String target : outgoing.remove(state).keySet()) {
+			incoming.get(target).remove(state);
+		}
+
+		for (String source : incoming.remove(state)) {
+			LinkedHashMap<String, Transition> sourceTransitions = outgoing.get(source);
+
+			if (sourceTransitions != null) {
+				sourceTransitions.remove(state);
+			}
+		}
+	}
+
+	/**
+	 * Creates the Markov state with normalized transition probabilities. The probabilities are
+	 * summed up with compensation for the rounding errors and are only changed if the sum is not
+	 * exactly 1.
+	 */
+	private MarkovState toMarkovState(String id) {
+		List<Transition> transitions = new ArrayList<>(outgoing.get(id).values());
+
+		double sum = 0;
+		double compensation = 0;
+
+		for (Transition transition : transitions) {
+			double summand = transition.getProbability() - compensation;
+			double newSum = sum + summand;
+			compensation = (newSum - sum) - summand;
+			sum = newSum;
+		}
+
+		if ((sum > 0) && (sum != 1.0) && !Double.isInfinite(sum)) {
+			for (Transition transition : transitions) {
+				transition.setProbability(transition.getProbability() / sum);
+			}
+		}
+
+		return new MarkovState(id, transitions);
+	}
+
+	private void addTime(Transition transition, double mean, double deviation) {
+		transition.setMean(transition.getMean() + mean);
+		transition.setDeviation(Math.sqrt(square(transition.getDeviation()) + square(deviation)));
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	/**
+	 * Gets the name of the modularized request represented by a sub Markov state, i.e., the part
+	 * after the {@link #STATE_NAME_LIMITER}.
+	 */
+	private String getRequestName(String state) {
+		String[] parts = state.split(STATE_NAME_LIMITER);
+		return parts.length > 1 ? parts[1] : null;
+	}
+
+	private Map<String, ProcessingTimeNormalDistributions> getNormalDistributions(ModularizedSessionLogs sessionLogs) {
+		if ((sessionLogs == null) || (sessionLogs.getNormalDistributions() == null)) {
+			return Collections.emptyMap();
+		}
+
+		return sessionLogs.getNormalDistributions();
+	}
+
+}
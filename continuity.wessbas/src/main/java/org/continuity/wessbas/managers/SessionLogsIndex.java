@@ -0,0 +1,92 @@
+package org.continuity.wessbas.managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session logs parsed once and indexed by the session id, so that requests can be appended to
+ * single sessions without splitting and joining the whole session logs again. The order of the
+ * sessions is retained.
+ */
+class SessionLogsIndex {
+
+	private static final String REQUEST_DELIMITER = ";";
+
+	private final List<StringBuilder> sessions = new ArrayList<>();
+
+	private final Map<String, StringBuilder> sessionsById = new HashMap<>();
+
+	private SessionLogsIndex() {
+	}
+
+	/**
+	 * Parses the passed session logs. In case of duplicate session ids, requests will be appended
+	 * to the first session with the id.
+	 *
+	 * @param sessionLogs
+	 *            The session logs, one session per line.
+	 * @return The index.
+	 */
+	public static SessionLogsIndex parse(String sessionLogs) {
+		SessionLogsIndex index = new SessionLogsIndex();
+
+		for (String line : sessionLogs.split("\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			StringBuilder session = new StringBuilder(line);
+			index.sessions.add(session);
+
+			int idEnd = line.indexOf(REQUEST_DELIMITER);
+			index.sessionsById.putIfAbsent(idEnd < 0 ? line : line.substring(0, idEnd), session);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Appends the requests of a session log line to the session with the same id. Lines of
+	 * unknown sessions are ignored.
+	 *
+	 * @param sessionLog
+	 *            The session log line, consisting of the session id and the requests.
+	 * @return {@code true} if the session is known.
+	 */
+	public boolean append(String sessionLog) {
+		int idEnd = sessionLog.indexOf(REQUEST_DELIMITER);
+
+		if (idEnd < 0) {
+			return sessionsById.containsKey(sessionLog);
+		}
+
+		StringBuilder session = sessionsById.get(sessionLog.substring(0, idEnd));
+
+		if (session == null) {
+			return false;
+		}
+
+		session.append(sessionLog, idEnd, sessionLog.length());
+		return true;
+	}
+
+	/**
+	 * Gets the number of sessions.
+	 *
+	 * @return The number of sessions.
+	 */
+	public int size() {
+		return sessions.size();
+	}
+
+	/**
+	 * Formats the session logs, one session per line.
+	 */
+	@Override
+	public String toString() {
+		return String.join("\n", sessions);
+	}
+
+}
@@ -2,12 +2,12 @@ package org.continuity.wessbas.managers;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
@@ -17,6 +17,8 @@ import org.continuity.api.entities.artifact.SessionLogs;
 import org.continuity.api.entities.artifact.SimplifiedSession;
 import org.continuity.commons.utils.IntensityCalculationUtils;
 import org.continuity.commons.utils.SimplifiedSessionLogsDeserializer;
+import org.continuity.commons.utils.SweepLineIntensityCalculator;
+import org.continuity.commons.utils.SweepLineIntensityCalculator.IntensitySeries;
 import org.continuity.api.entities.artifact.SessionsBundlePack;
 import org.continuity.api.entities.config.ModularizationApproach;
 import org.continuity.api.entities.config.TaskDescription;
@@ -48,26 +50,27 @@ public class WessbasPipelineManager {
 
 	private RestTemplate restTemplate;
 
-	private final Path workingDir;
+	private final Path workspaceRoot;
 
 	/**
-	 * Constructor.
+	 * Constructor. The workspaces of the pipeline runs are created in the default temp directory.
 	 */
 	public WessbasPipelineManager(RestTemplate restTemplate) {
-		this.restTemplate = restTemplate;
-
-		Path tmpDir;
-		try {
-			tmpDir = Files.createTempDirectory("wessbas");
-		} catch (IOException e) {
-			LOGGER.error("Could not create a temp directory!");
-			e.printStackTrace();
-			tmpDir = Paths.get("wessbas");
-		}
-
-		workingDir = tmpDir;
+		this(restTemplate, Paths.get(System.getProperty("java.io.tmpdir")));
+	}
 
-		LOGGER.info("Set working directory to {}", workingDir);
+	/**
+	 * Constructor.
+	 *
+	 * @param restTemplate
+	 *            The rest template to be used for retrieving the session logs.
+	 * @param workspaceRoot
+	 *            The directory in which the {@link WessbasWorkspace} of each pipeline run is
+	 *            created.
+	 */
+	public WessbasPipelineManager(RestTemplate restTemplate, Path workspaceRoot) {
+		this.restTemplate = restTemplate;
+		this.workspaceRoot = workspaceRoot;
 	}
 
 	/**
@@ -96,12 +99,12 @@ public class WessbasPipelineManager {
 		
 		boolean applyModularization = task.getModularizationOptions()!= null && task.getModularizationOptions().getModularizationApproach().equals(ModularizationApproach.WORKLOAD_MODEL);
 		
-		try {
+		try (WessbasWorkspace workspace = WessbasWorkspace.create(workspaceRoot)) {
 			if(applyModularization) {
-				workloadModel = convertSessionLogIntoWessbasDSLInstanceUsingModularization(sessionLog, task, interval);
+				workloadModel = convertSessionLogIntoWessbasDSLInstanceUsingModularization(sessionLog, task, interval, workspace);
 
 			} else {
-				workloadModel = convertSessionLogIntoWessbasDSLInstance(sessionLog.getLogs(), interval);
+				workloadModel = convertSessionLogIntoWessbasDSLInstance(sessionLog.getLogs(), interval, workspace);
 
 			}
 		} catch (Exception e) {
@@ -120,12 +123,13 @@ public class WessbasPipelineManager {
 	 * @throws GeneratorException
 	 * @throws SecurityException
 	 */
-	private WorkloadModel convertSessionLogIntoWessbasDSLInstance(String sessionLog, IntensityCalculationInterval interval) throws IOException, SecurityException, GeneratorException {
-		Path sessionLogsPath = writeSessionLogIntoFile(sessionLog);
+	private WorkloadModel convertSessionLogIntoWessbasDSLInstance(String sessionLog, IntensityCalculationInterval interval, WessbasWorkspace workspace)
+			throws IOException, SecurityException, GeneratorException {
+		Path sessionLogsPath = workspace.writeSessionLogs(sessionLog);
 		// number of users is calculated based on the given sessions
 		Properties intensityProps = createWorkloadIntensity(sessionLog, interval);
-		Properties behaviorProps = createBehaviorModel(sessionLogsPath);
-		return generateWessbasModel(intensityProps, behaviorProps);
+		Properties behaviorProps = createBehaviorModel(sessionLogsPath, workspace);
+		return generateWessbasModel(intensityProps, behaviorProps, workspace);
 	}
 	
 	/**
@@ -136,57 +140,57 @@ public class WessbasPipelineManager {
 	 * @throws GeneratorException
 	 * @throws SecurityException
 	 */
-	private WorkloadModel convertSessionLogIntoWessbasDSLInstanceUsingModularization(SessionLogs sessionLogs, TaskDescription task, IntensityCalculationInterval interval) throws IOException, SecurityException, GeneratorException {
+	private WorkloadModel convertSessionLogIntoWessbasDSLInstanceUsingModularization(SessionLogs sessionLogs, TaskDescription task, IntensityCalculationInterval interval, WessbasWorkspace workspace)
+			throws IOException, SecurityException, GeneratorException {
 		// set 1 as default and configure actual number on demand
 		Properties intensityProps = createWorkloadIntensity(sessionLogs.getLogs(), interval);
 		
 		//Apply Behavior Mix generation
-		BehaviorMixManager behaviorManager = new BehaviorMixManager(restTemplate, workingDir);
+		BehaviorMixManager behaviorManager = new BehaviorMixManager(restTemplate, workspace.getPath());
 		SessionsBundlePack sessionsBundles = behaviorManager.runPipeline(sessionLogs);
 		
 		// Apply Modularization
-		WorkloadModularizationManager modularizationManager = new WorkloadModularizationManager(restTemplate);
-		BehaviorModelPack behaviorModelPack = new BehaviorModelPack(sessionsBundles, workingDir);
+		WorkloadModularizationManager modularizationManager = new WorkloadModularizationManager(restTemplate, workspace.getPath().resolve("modularization"));
+		BehaviorModelPack behaviorModelPack = new BehaviorModelPack(sessionsBundles, workspace.getPath());
 		modularizationManager.runPipeline(task.getTag(), task.getSource(), behaviorModelPack, task.getModularizationOptions().getServices());
-		
-		Properties behaviorProperties = new Properties();
-		behaviorProperties.load(Files.newInputStream(workingDir.resolve("behaviormodelextractor").resolve("behaviormix.txt")));
 
-		return generateWessbasModel(intensityProps, behaviorProperties);
+		return generateWessbasModel(intensityProps, loadBehaviorMix(workspace), workspace);
 	}
 
-	private Path writeSessionLogIntoFile(String sessionLog) throws IOException {
-		Path sessionLogsPath = workingDir.resolve("sessions.dat");
-		Files.write(sessionLogsPath, Collections.singletonList(sessionLog), StandardOpenOption.CREATE);
-		return sessionLogsPath;
-	}
-
-	private Properties createWorkloadIntensity(String sessionLogs,IntensityCalculationInterval interval) throws IOException {
+	/**
+	 * Creates the workload intensity properties. They are directly passed to the model generator
+	 * and thus, are only held in memory.
+	 */
+	private Properties createWorkloadIntensity(String sessionLogs, IntensityCalculationInterval interval) {
 		Properties properties = new Properties();
 		properties.put("workloadIntensity.type", "constant");
 		
 		properties.put("wl.type.value", Integer.toString(calculateIntensity(sessionLogs, interval)));
 
-		properties.store(Files.newOutputStream(workingDir.resolve("workloadIntensity.properties"), StandardOpenOption.CREATE), null);
-
 		return properties;
 	}
 
-	private Properties createBehaviorModel(Path sessionLogsPath) throws IOException {
-		Path outputDir = workingDir.resolve("behaviormodelextractor");
-		outputDir.toFile().mkdir();
-
+	private Properties createBehaviorModel(Path sessionLogsPath, WessbasWorkspace workspace) throws IOException {
 		BehaviorModelExtractor behav = new BehaviorModelExtractor();
-		behav.createBehaviorModel(sessionLogsPath.toString(), outputDir.toString());
+		behav.createBehaviorModel(sessionLogsPath.toString(), workspace.getBehaviorModelDir().toString());
+
+		return loadBehaviorMix(workspace);
+	}
 
+	private Properties loadBehaviorMix(WessbasWorkspace workspace) throws IOException {
 		Properties behaviorProperties = new Properties();
-		behaviorProperties.load(Files.newInputStream(workingDir.resolve("behaviormodelextractor").resolve("behaviormix.txt")));
+
+		try (InputStream in = Files.newInputStream(workspace.getBehaviorModelDir().resolve("behaviormix.txt"))) {
+			behaviorProperties.load(in);
+		}
+
 		return behaviorProperties;
 	}
 
-	private WorkloadModel generateWessbasModel(Properties workloadIntensityProperties, Properties behaviorModelsProperties) throws FileNotFoundException, SecurityException, GeneratorException {
+	private WorkloadModel generateWessbasModel(Properties workloadIntensityProperties, Properties behaviorModelsProperties, WessbasWorkspace workspace)
+			throws FileNotFoundException, SecurityException, GeneratorException {
 		M4jdslModelGenerator generator = new M4jdslModelGenerator();
-		final String sessionDatFilePath = workingDir.resolve("sessions.dat").toString();
+		final String sessionDatFilePath = workspace.getSessionLogsPath().toString();
 
 		return generator.generateWorkloadModel(workloadIntensityProperties, behaviorModelsProperties, null, sessionDatFilePath, false);
 	}
@@ -244,22 +248,9 @@ public class WessbasPipelineManager {
 			listOfRanges.remove(listOfRanges.size() - 1);
 		}
 		
-		// This map is used to hold necessary information which will be saved into DB
-		List<Integer> intensities = new ArrayList<Integer>();
-		
-		for(Range<Long> range: listOfRanges) {
-			ArrayList<SimplifiedSession> sessionsInRange = new ArrayList<SimplifiedSession>();
-			for(SimplifiedSession session: sessions) {
-				Range<Long> sessionRange = Range.between(session.getStartTime(), session.getEndTime());
-				if(sessionRange.containsRange(range) || range.contains(session.getStartTime()) 
-						|| range.contains(session.getEndTime())) {
-					sessionsInRange.add(session);
-				}
-			}
-			int intensityOfRange = (int) IntensityCalculationUtils.calculateIntensityForRange(range, sessionsInRange, rangeLength);		
-			intensities.add(intensityOfRange);
-		}
-		return Math.toIntExact(Math.round(intensities.stream().mapToDouble(a -> a).average().getAsDouble()));
+		IntensitySeries series = SweepLineIntensityCalculator.calculate(sessions, listOfRanges, rangeLength);
+
+		return Math.toIntExact(Math.round(Arrays.stream(series.getAverages()).mapToDouble(a -> (int) a).average().getAsDouble()));
 	}
 
 }
\ No newline at end of file
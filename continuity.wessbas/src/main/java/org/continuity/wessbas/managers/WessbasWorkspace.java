@@ -0,0 +1,114 @@
+package org.continuity.wessbas.managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Temporary directory holding the files of a single WESSBAS pipeline run. The WESSBAS behavior
+ * model extractor and model generator can only read from and write to files. Hence, each run gets
+ * its own directory, which is deleted as soon as the run is finished.
+ */
+public class WessbasWorkspace implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WessbasWorkspace.class);
+
+	private static final String SESSION_LOGS_FILE = "sessions.dat";
+
+	private static final String BEHAVIOR_MODEL_DIR = "behaviormodelextractor";
+
+	private final Path path;
+
+	private WessbasWorkspace(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Creates a new workspace in a fresh directory.
+	 *
+	 * @param root
+	 *            The directory in which the workspace directory is to be created.
+	 * @return The created workspace.
+	 * @throws IOException
+	 *             If the directory cannot be created.
+	 */
+	public static WessbasWorkspace create(Path root) throws IOException {
+		Files.createDirectories(root);
+		Path path = Files.createTempDirectory(root, "wessbas");
+
+		LOGGER.debug("Created WESSBAS workspace {}", path);
+
+		return new WessbasWorkspace(path);
+	}
+
+	/**
+	 * Opens an existing workspace directory.
+	 *
+	 * @param path
+	 *            The workspace directory.
+	 * @return The workspace.
+	 */
+	static WessbasWorkspace open(Path path) {
+		return new WessbasWorkspace(path);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Gets the path to the session logs file.
+	 *
+	 * @return The path.
+	 */
+	public Path getSessionLogsPath() {
+		return path.resolve(SESSION_LOGS_FILE);
+	}
+
+	/**
+	 * Gets the directory, in which the behavior model extractor stores its output. Creates the
+	 * directory if not present.
+	 *
+	 * @return The path to the directory.
+	 * @throws IOException
+	 *             If the directory cannot be created.
+	 */
+	public Path getBehaviorModelDir() throws IOException {
+		return Files.createDirectories(path.resolve(BEHAVIOR_MODEL_DIR));
+	}
+
+	/**
+	 * Writes the session logs to the session logs file. An already present file will be
+	 * overwritten.
+	 *
+	 * @param sessionLogs
+	 *            The session logs.
+	 * @return The path to the session logs file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public Path writeSessionLogs(String sessionLogs) throws IOException {
+		return Files.write(getSessionLogsPath(), Collections.singletonList(sessionLogs), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Deletes the workspace directory including all contained files.
+	 */
+	@Override
+	public void close() {
+		try {
+			FileUtils.deleteDirectory(path.toFile());
+			LOGGER.debug("Deleted WESSBAS workspace {}", path);
+		} catch (IOException e) {
+			LOGGER.warn("Could not delete the WESSBAS workspace " + path + "!", e);
+		}
+	}
+
+}
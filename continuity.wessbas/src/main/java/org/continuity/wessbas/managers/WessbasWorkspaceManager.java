@@ -0,0 +1,295 @@
+package org.continuity.wessbas.managers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manages the {@link WessbasWorkspace}s of concurrent runs. Each run gets its own directory below
+ * a common root, so that runs cannot overwrite each other's files. Workspaces of failed runs are
+ * deleted directly. Workspaces whose files are still needed after the run, e.g., because they are
+ * referenced by a stored {@link org.continuity.wessbas.entities.BehaviorModelPack}, are retained.
+ * If more than the maximum number of retained workspaces is not in use, the oldest of them are
+ * deleted. Artifacts referencing a workspace can register a callback to be removed together
+ * with it. Workspaces of long-term artifacts can be pinned instead. They are never deleted and
+ * do not count against the maximum. Since the retained workspaces are only known in memory, the
+ * pinned ones have to be {@link #recover(Collection) recovered} after a restart. <br>
+ *
+ * The buffers used for writing session logs are pooled and reused across runs.
+ */
+public class WessbasWorkspaceManager {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WessbasWorkspaceManager.class);
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	private final Path root;
+
+	private final int maxRetained;
+
+	/**
+	 * Retained workspaces per absolute path, the oldest first. Guarded by itself.
+	 */
+	private final Map<Path, RetainedWorkspace> retained = new LinkedHashMap<>();
+
+	private final WriteBufferPool buffers;
+
+	/**
+	 * Creates a new manager.
+	 *
+	 * @param root
+	 *            The directory in which the workspaces are created.
+	 * @param maxRetained
+	 *            The maximum number of retained workspaces.
+	 * @param maxPooledBuffers
+	 *            The maximum number of pooled write buffers. Should be the number of concurrent
+	 *            runs.
+	 */
+	public WessbasWorkspaceManager(Path root, int maxRetained, int maxPooledBuffers) {
+		this.root = root;
+		this.maxRetained = maxRetained;
+		this.buffers = new WriteBufferPool(BUFFER_SIZE, maxPooledBuffers);
+	}
+
+	/**
+	 * Creates a new workspace in a fresh directory. It has to be either closed or
+	 * {@link #retain(WessbasWorkspace) retained} after the run.
+	 *
+	 * @return The created workspace.
+	 * @throws IOException
+	 *             If the directory cannot be created.
+	 */
+	public WessbasWorkspace create() throws IOException {
+		return WessbasWorkspace.create(root);
+	}
+
+	/**
+	 * Writes the session logs to the session logs file of the workspace using a pooled buffer.
+	 *
+	 * @param workspace
+	 *            The workspace.
+	 * @param sessionLogs
+	 *            The session logs.
+	 * @return The path to the session logs file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public Path writeSessionLogs(WessbasWorkspace workspace, String sessionLogs) throws IOException {
+		return buffers.write(workspace.getSessionLogsPath(), sessionLogs);
+	}
+
+	/**
+	 * Keeps the workspace after the run. If more than the maximum number of retained workspaces is
+	 * not {@link #acquire(Path) in use}, the oldest of them are deleted.
+	 *
+	 * @param workspace
+	 *            The workspace to be retained.
+	 */
+	public void retain(WessbasWorkspace workspace) {
+		retain(workspace, false);
+	}
+
+	/**
+	 * Keeps the workspace after the run. If more than the maximum number of retained workspaces is
+	 * not {@link #acquire(Path) in use}, the oldest of them are deleted. Pinned workspaces are
+	 * never deleted and do not count against the maximum.
+	 *
+	 * @param workspace
+	 *            The workspace to be retained.
+	 * @param pinned
+	 *            Whether the workspace is to be pinned, e.g., because it is referenced by a
+	 *            long-term artifact.
+	 */
+	public void retain(WessbasWorkspace workspace, boolean pinned) {
+		synchronized (retained) {
+			retained.put(key(workspace.getPath()), new RetainedWorkspace(workspace, pinned));
+		}
+
+		evict();
+	}
+
+	/**
+	 * Registers a callback to be run when a retained workspace is deleted, e.g., for removing the
+	 * stored artifact referencing it. If the workspace has already been deleted, the callback is
+	 * run directly.
+	 *
+	 * @param path
+	 *            The path of the workspace.
+	 * @param callback
+	 *            The callback.
+	 */
+	public void onDeletion(Path path, Runnable callback) {
+		synchronized (retained) {
+			RetainedWorkspace workspace = retained.get(key(path));
+
+			if (workspace != null) {
+				workspace.onDeletion.add(callback);
+				return;
+			}
+		}
+
+		callback.run();
+	}
+
+	/**
+	 * Marks a retained workspace as in use, so that it is not deleted until it is
+	 * {@link #release(Path) released}.
+	 *
+	 * @param path
+	 *            The path of the workspace.
+	 * @return {@code true} if the workspace is present or {@code false} if it has already been
+	 *         deleted.
+	 */
+	public boolean acquire(Path path) {
+		synchronized (retained) {
+			RetainedWorkspace workspace = retained.get(key(path));
+
+			if (workspace == null) {
+				return false;
+			}
+
+			workspace.numUsers++;
+			return true;
+		}
+	}
+
+	/**
+	 * Releases a workspace that has been {@link #acquire(Path) acquired} before.
+	 *
+	 * @param path
+	 *            The path of the workspace.
+	 */
+	public void release(Path path) {
+		synchronized (retained) {
+			RetainedWorkspace workspace = retained.get(key(path));
+
+			if (workspace != null) {
+				workspace.numUsers--;
+			}
+		}
+
+		evict();
+	}
+
+	/**
+	 * Restores the state after a restart. Workspaces that are still referenced, e.g., by
+	 * persisted artifacts, are pinned. All other directories in the root directory are left over
+	 * from before and deleted.
+	 *
+	 * @param referenced
+	 *            The paths of the referenced workspaces.
+	 * @throws IOException
+	 *             If the root directory cannot be listed.
+	 */
+	public void recover(Collection<Path> referenced) throws IOException {
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+
+		Set<Path> referencedKeys = referenced.stream().map(this::key).collect(Collectors.toSet());
+
+		List<Path> recovered = new ArrayList<>();
+
+		try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+			for (Path dir : dirs) {
+				if (referencedKeys.contains(key(dir))) {
+					recovered.add(dir);
+				} else {
+					LOGGER.info("Deleting the left-over WESSBAS workspace {}.", dir);
+					WessbasWorkspace.open(dir).close();
+				}
+			}
+		}
+
+		synchronized (retained) {
+			for (Path dir : recovered) {
+				retained.put(key(dir), new RetainedWorkspace(WessbasWorkspace.open(dir), true));
+			}
+		}
+
+		LOGGER.info("Recovered {} referenced WESSBAS workspaces.", recovered.size());
+	}
+
+	private void evict() {
+		List<RetainedWorkspace> evicted = new ArrayList<>();
+
+		synchronized (retained) {
+			long numIdle = retained.values().stream().filter(RetainedWorkspace::isEvictable).count();
+			Iterator<RetainedWorkspace> it = retained.values().iterator();
+
+			while ((numIdle > maxRetained) && it.hasNext()) {
+				RetainedWorkspace workspace = it.next();
+
+				if (workspace.isEvictable()) {
+					evicted.add(workspace);
+					it.remove();
+					numIdle--;
+				}
+			}
+		}
+
+		for (RetainedWorkspace old : evicted) {
+			LOGGER.info("Deleting the WESSBAS workspace {}, as more than {} workspaces are retained.", old.workspace.getPath(), maxRetained);
+			old.onDeletion.forEach(Runnable::run);
+			old.workspace.close();
+		}
+	}
+
+	private Path key(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Gets the number of currently retained workspaces.
+	 *
+	 * @return The number of retained workspaces.
+	 */
+	public int getNumRetained() {
+		synchronized (retained) {
+			return retained.size();
+		}
+	}
+
+	/**
+	 * Gets the number of write buffers currently available for reuse.
+	 *
+	 * @return The number of pooled buffers.
+	 */
+	public int getNumPooledBuffers() {
+		return buffers.size();
+	}
+
+	private static class RetainedWorkspace {
+
+		private final WessbasWorkspace workspace;
+
+		private final List<Runnable> onDeletion = new ArrayList<>();
+
+		private final boolean pinned;
+
+		private int numUsers = 0;
+
+		private RetainedWorkspace(WessbasWorkspace workspace, boolean pinned) {
+			this.workspace = workspace;
+			this.pinned = pinned;
+		}
+
+		private boolean isEvictable() {
+			return !pinned && (numUsers <= 0);
+		}
+
+	}
+
+}
@@ -9,7 +9,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -17,8 +16,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -29,15 +33,16 @@ import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
 import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
 import org.continuity.api.entities.artifact.BehaviorModel.Transition;
 import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+import org.continuity.api.entities.artifact.ModularizedSessionLogsBatch;
 import org.continuity.api.entities.artifact.SessionLogs;
-import org.continuity.api.entities.artifact.SessionLogsInput;
+import org.continuity.api.entities.artifact.SessionLogsBatchInput;
 import org.continuity.api.entities.artifact.SessionsBundle;
 import org.continuity.api.entities.artifact.SimplifiedSession;
 import org.continuity.api.entities.deserialization.BehaviorModelSerializer;
 import org.continuity.api.entities.links.LinkExchangeModel;
 import org.continuity.api.rest.RestApi;
 import org.continuity.api.rest.RestApi.IdpaApplication;
-import org.continuity.commons.idpa.RequestUriMapper;
+import org.continuity.commons.idpa.CompiledRequestUriMapper;
 import org.continuity.idpa.application.Application;
 import org.continuity.idpa.application.Endpoint;
 import org.continuity.idpa.application.HttpEndpoint;
@@ -57,7 +62,9 @@ import net.sf.markov4jmeter.testplangenerator.util.CSVHandler;
 import open.xtrace.OPENxtraceUtils;
 
 /**
- * Manager which modularizes the Behavior Models
+ * Manager which modularizes the Behavior Models. The user groups and the Markov states are
+ * processed in parallel using a bounded number of threads. The modularized session logs of all
+ * Markov states of a user group are retrieved with a single request.
  *
  * @author Tobias Angerstein
  *
@@ -79,6 +86,11 @@ public class WorkloadModularizationManager {
 	 */
 	static final String STATE_NAME_LIMITER = "#";
 
+	/**
+	 * Default number of threads processing the user groups and Markov states.
+	 */
+	public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Logger
 	 */
@@ -114,6 +126,11 @@ public class WorkloadModularizationManager {
 	 */
 	private CSVHandler csvHandler;
 
+	/**
+	 * The maximum number of threads.
+	 */
+	private final int parallelism;
+
 	/**
 	 * Constructor
 	 *
@@ -124,6 +141,7 @@ public class WorkloadModularizationManager {
 		this.eurekaRestTemplate = eurekaRestTemplate;
 		this.plainRestTemplate = new RestTemplate();
 		this.csvHandler = new CSVHandler(CSVHandler.LINEBREAK_TYPE_UNIX);
+		this.parallelism = DEFAULT_PARALLELISM;
 
 		Path tmpDir;
 		try {
@@ -139,124 +157,217 @@ public class WorkloadModularizationManager {
 		LOGGER.info("Set working directory to {}", workingDir);
 	}
 
+	/**
+	 * Constructor
+	 *
+	 * @param eurekaRestTemplate
+	 *            Eureka rest template
+	 * @param workingDir
+	 *            The working directory, e.g., inside a {@link WessbasWorkspace}. Will be created
+	 *            if not present.
+	 * @throws IOException
+	 *             If the working directory cannot be created.
+	 */
+	public WorkloadModularizationManager(RestTemplate eurekaRestTemplate, Path workingDir) throws IOException {
+		this(eurekaRestTemplate, workingDir, DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param eurekaRestTemplate
+	 *            Eureka rest template
+	 * @param workingDir
+	 *            The working directory, e.g., inside a {@link WessbasWorkspace}. Will be created
+	 *            if not present.
+	 * @param parallelism
+	 *            The maximum number of threads processing the user groups and Markov states.
+	 * @throws IOException
+	 *             If the working directory cannot be created.
+	 */
+	public WorkloadModularizationManager(RestTemplate eurekaRestTemplate, Path workingDir, int parallelism) throws IOException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism needs to be at least 1, but was " + parallelism + "!");
+		}
+
+		this.eurekaRestTemplate = eurekaRestTemplate;
+		this.plainRestTemplate = new RestTemplate();
+		this.csvHandler = new CSVHandler(CSVHandler.LINEBREAK_TYPE_UNIX);
+		this.workingDir = Files.createDirectories(workingDir);
+		this.parallelism = parallelism;
+	}
+
 	public void runPipeline(String tag, LinkExchangeModel linkExchangeModel, BehaviorModelPack behaviorModelPack, Map<String, String> services) {
-		List<SessionsBundle> sessionBundles = behaviorModelPack.getSessionsBundlePack().getSessionsBundles();
-		List<HTTPRequestProcessingImpl> httpCallables = OPENxtraceUtils.extractHttpRequestCallables(OPENxtraceUtils.getOPENxtraces(linkExchangeModel, plainRestTemplate));
+		List<HTTPRequestProcessingImpl> httpCallables = OPENxtraceUtils.processOPENxtraces(linkExchangeModel, plainRestTemplate, OPENxtraceUtils::extractHttpRequestCallables);
 		Application application = eurekaRestTemplate.getForObject(IdpaApplication.Application.GET.requestUrl(tag).get(), Application.class);
-		for (SessionsBundle sessionBundle : sessionBundles) {
-			modularizeUserGroup(application, sessionBundle, behaviorModelPack, services, httpCallables);
-		}
+
+		// Extract the session ids only once instead of once per user group
+		List<Pair<String, HTTPRequestProcessingImpl>> callablesWithSessionIds = httpCallables.stream().filter(p -> p.getHTTPHeaders().get().containsKey("cookie"))
+				.map(p -> Pair.of(OPENxtraceUtils.extractSessionIdFromCookies(p.getHTTPHeaders().get().get("cookie")), p)).collect(Collectors.toList());
+
+		modularize(behaviorModelPack, services, (sessionBundle, markovStateNames) -> {
+			Set<String> sessionIds = sessionBundle.getSessions().stream().map(SimplifiedSession::getId).collect(Collectors.toSet());
+
+			// Filter callables, which match with the sessionIds
+			List<HTTPRequestProcessingImpl> filteredCallables = callablesWithSessionIds.stream().filter(p -> sessionIds.contains(p.getLeft())).map(Pair::getRight).collect(Collectors.toList());
+
+			// TODO: !!! multiple traces with the same session ID will be put into the same session
+			return getReplacingRequests(filteredCallables, restrictToMarkovStates(application, markovStateNames), services);
+		});
 	}
 
 	/**
-	 * Modularizes a certain behavior model
+	 * Modularizes the behavior models of all user groups.
 	 *
-	 * @param sessionBundle
-	 *            The session bundle which is modularized
+	 * @param behaviorModelPack
+	 *            Holds the user groups and the path to the behavior models.
 	 * @param services
 	 *            The targeted load test of the modularized services.
+	 * @param requestsToReplace
+	 *            Determines the traces to be modularized per Markov state, based on the user group
+	 *            and the names of the Markov states of its behavior model. Will be called
+	 *            concurrently.
 	 */
-	private void modularizeUserGroup(Application application, SessionsBundle sessionBundle, BehaviorModelPack behaviorModelPack, Map<String, String> services,
-			List<HTTPRequestProcessingImpl> httpCallables) {
-		// Get all sessionIds
-		List<String> sessionIds = sessionBundle.getSessions().stream().map(SimplifiedSession::getId).collect(Collectors.toList());
-
-		// Filter callables, which match with the sessionIds
-		// Henning: Das was getan wird auslagern Methode auslagern
-		List<HTTPRequestProcessingImpl> filteredCallables = httpCallables.stream()
-				.filter(p -> p.getHTTPHeaders().get().containsKey("cookie") && sessionIds.contains(OPENxtraceUtils.extractSessionIdFromCookies(p.getHTTPHeaders().get().get("cookie"))))
-				.collect(Collectors.toList());
-		Behavior rootBehaviorModel = null;
+	void modularize(BehaviorModelPack behaviorModelPack, Map<String, String> services, BiFunction<SessionsBundle, Set<String>, Map<String, List<Trace>>> requestsToReplace) {
+		List<SessionsBundle> sessionBundles = behaviorModelPack.getSessionsBundlePack().getSessionsBundles();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
 
 		try {
-			rootBehaviorModel = BehaviorModelSerializer.deserializeBehaviorModel(csvHandler
-					.readValues(behaviorModelPack.getPathToBehaviorModelFiles().resolve("behaviormodelextractor").resolve(FILENAME + sessionBundle.getBehaviorId() + FILE_EXT).toFile().toString()));
-		} catch (NullPointerException | IOException e) {
-			e.printStackTrace();
+			List<Future<UserGroup>> futureUserGroups = new ArrayList<>();
+
+			for (SessionsBundle sessionBundle : sessionBundles) {
+				futureUserGroups.add(executor.submit(() -> prepareUserGroup(sessionBundle, behaviorModelPack, services, requestsToReplace)));
+			}
+
+			List<UserGroup> userGroups = new ArrayList<>();
+
+			for (Future<UserGroup> future : futureUserGroups) {
+				userGroups.add(await(future));
+			}
+
+			// Write modularized session logs back to session logs file
+			writeSessionLogs(userGroups, behaviorModelPack.getPathToBehaviorModelFiles());
+
+			// Get behavior model for each modularized session log
+			Map<UserGroup, Map<String, Future<Behavior>>> futureBehaviorModels = new HashMap<>();
+
+			for (UserGroup userGroup : userGroups) {
+				Map<String, Future<Behavior>> futureBehaviorModelsPerMarkovState = new HashMap<>();
+
+				for (Entry<String, ModularizedSessionLogs> entry : userGroup.modularizedSessionLogs.entrySet()) {
+					futureBehaviorModelsPerMarkovState.put(entry.getKey(), executor.submit(
+							() -> BehaviorModelSerializer.deserializeBehaviorModel(getBehaviorModel(entry.getValue(), entry.getKey(), userGroup.sessionBundle.getBehaviorId()))));
+				}
+
+				futureBehaviorModels.put(userGroup, futureBehaviorModelsPerMarkovState);
+			}
+
+			List<Future<?>> merges = new ArrayList<>();
+
+			for (UserGroup userGroup : userGroups) {
+				merges.add(executor.submit(() -> mergeBehaviorModels(userGroup, futureBehaviorModels.get(userGroup), behaviorModelPack)));
+			}
+
+			for (Future<?> merge : merges) {
+				await(merge);
+			}
+		} finally {
+			executor.shutdownNow();
 		}
+	}
 
-		List<String> markovStateNames = rootBehaviorModel.getMarkovStates().stream().map(p -> p.getId()).collect(Collectors.toList());
+	/**
+	 * Reads the behavior model of a user group and retrieves the modularized session logs of each
+	 * Markov state.
+	 *
+	 * @param sessionBundle
+	 *            The session bundle which is modularized
+	 * @param services
+	 *            The targeted load test of the modularized services.
+	 * @throws IOException
+	 *             If the behavior model cannot be read.
+	 */
+	private UserGroup prepareUserGroup(SessionsBundle sessionBundle, BehaviorModelPack behaviorModelPack, Map<String, String> services,
+			BiFunction<SessionsBundle, Set<String>, Map<String, List<Trace>>> requestsToReplace) throws IOException {
+		Behavior rootBehaviorModel = BehaviorModelSerializer.deserializeBehaviorModel(csvHandler.readValues(getBehaviorModelPath(behaviorModelPack, sessionBundle).toString()));
 
-		// Delete unnecessary endpoints in the application model, which are not represented in the
-		// markov chain.
-		deleteNotOccurringEndpoints(application, markovStateNames);
+		Set<String> markovStateNames = rootBehaviorModel.getMarkovStates().stream().map(MarkovState::getId).collect(Collectors.toSet());
 
 		// Get Replacing Requests per Markov chain
-		// TODO: !!! multiple traces with the same session ID will be put into the same session
-		Map<String, List<Trace>> requestsToReplaceMap = getReplacingRequests(filteredCallables, application, services);
+		Map<String, List<Trace>> requestsToReplaceMap = requestsToReplace.apply(sessionBundle, markovStateNames);
 
 		// Get modularized Session logs for each markov state
-		Map<String, ModularizedSessionLogs> modularizedSessionLogsMap = requestsToReplaceMap.entrySet().stream()
-				.map(p -> new AbstractMap.SimpleEntry<String, ModularizedSessionLogs>(p.getKey(), getModularizedSessionLogs(p.getValue(), services))).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		Map<String, ModularizedSessionLogs> modularizedSessionLogsMap = getModularizedSessionLogs(requestsToReplaceMap, services);
 
-		// TODO: Schreibe gemergte Sessionlogs in anderes File
 		// Rename usecases of each session logs to {markovStateName}#useCase
 		modularizedSessionLogsMap.entrySet().stream().forEach(e -> e.setValue(renameSessionLogs(e)));
 
-		// Write modularized session logs back to session logs file
-		writeSessionLogs(modularizedSessionLogsMap, behaviorModelPack.getPathToBehaviorModelFiles());
+		return new UserGroup(sessionBundle, rootBehaviorModel, modularizedSessionLogsMap);
+	}
 
-		// Get behavior model for each modularized session log
+	/**
+	 * Merges the sub behavior models into the behavior model of the user group and writes it back
+	 * to the file.
+	 */
+	private Void mergeBehaviorModels(UserGroup userGroup, Map<String, Future<Behavior>> futureBehaviorModels, BehaviorModelPack behaviorModelPack) {
 		Map<String, Pair<Behavior, ModularizedSessionLogs>> modularizedBehaviorModelsPerMarkovState = new HashMap<String, Pair<Behavior, ModularizedSessionLogs>>();
-		for (Entry<String, ModularizedSessionLogs> entry : modularizedSessionLogsMap.entrySet()) {
-			Behavior behavior = BehaviorModelSerializer.deserializeBehaviorModel(getBehaviorModel(entry.getValue(), entry.getKey(), sessionBundle.getBehaviorId()));
-			modularizedBehaviorModelsPerMarkovState.put(entry.getKey(), Pair.of(behavior, entry.getValue()));
+
+		for (Entry<String, ModularizedSessionLogs> entry : userGroup.modularizedSessionLogs.entrySet()) {
+			modularizedBehaviorModelsPerMarkovState.put(entry.getKey(), Pair.of(await(futureBehaviorModels.get(entry.getKey())), entry.getValue()));
 		}
 
 		// Merge subbehavioralModels in the current behavior model
-		new BehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(rootBehaviorModel, modularizedBehaviorModelsPerMarkovState);
+		new IndexedBehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(userGroup.rootBehaviorModel, modularizedBehaviorModelsPerMarkovState);
 
 		// Write behavior model back to file
 		try {
-			csvHandler.writeValues(behaviorModelPack.getPathToBehaviorModelFiles().resolve("behaviormodelextractor").resolve(FILENAME + sessionBundle.getBehaviorId() + FILE_EXT).toFile().toString(),
-					BehaviorModelSerializer.serializeBehaviorModel(rootBehaviorModel));
+			csvHandler.writeValues(getBehaviorModelPath(behaviorModelPack, userGroup.sessionBundle).toString(), BehaviorModelSerializer.serializeBehaviorModel(userGroup.rootBehaviorModel));
 		} catch (SecurityException | NullPointerException | IOException e) {
 			e.printStackTrace();
 		}
 
+		return null;
+	}
+
+	private Path getBehaviorModelPath(BehaviorModelPack behaviorModelPack, SessionsBundle sessionBundle) {
+		return behaviorModelPack.getPathToBehaviorModelFiles().resolve("behaviormodelextractor").resolve(FILENAME + sessionBundle.getBehaviorId() + FILE_EXT);
 	}
 
 	/**
-	 * Writes the modularized session logs in the existing session logs file
+	 * Appends the modularized session logs of all user groups to the existing session logs file.
+	 * The file is parsed and written only once.
 	 *
-	 * @param modularizedSessionLogsMap
-	 *            the modularized session logs
+	 * @param userGroups
+	 *            the user groups holding the modularized session logs
 	 * @param path
 	 *            the path to the session logs directory
 	 */
-	private void writeSessionLogs(Map<String, ModularizedSessionLogs> modularizedSessionLogsMap, Path path) {
-		String rootSessionLogsString = "";
+	private void writeSessionLogs(List<UserGroup> userGroups, Path path) {
+		SessionLogsIndex rootSessionLogs;
 		try {
-			rootSessionLogsString = FileUtils.readFileToString(path.resolve("sessions.dat").toFile(), "UTF-8");
-		} catch (IOException e1) {
-			// TODO Auto-generated catch block
-			e1.printStackTrace();
+			rootSessionLogs = SessionLogsIndex.parse(FileUtils.readFileToString(path.resolve("sessions.dat").toFile(), "UTF-8"));
+		} catch (IOException e) {
+			LOGGER.error("Could not read the session logs!", e);
+			return;
 		}
-		Map<String, String> rootSessionLogs = Stream.of(rootSessionLogsString.split("\n")).map(n -> new AbstractMap.SimpleEntry<>(n.split(";")[0], n))
-				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-		for (SessionLogs modularizedSessionLogs : modularizedSessionLogsMap.values()) {
-			if (modularizedSessionLogs.getLogs().isEmpty()) {
-				continue;
-			}
-			for (String modularizedSessionLog : modularizedSessionLogs.getLogs().split("\n")) {
-				String[] modularizedRequests = modularizedSessionLog.split(";");
-				if (rootSessionLogs.containsKey(modularizedRequests[0])) {
+		for (UserGroup userGroup : userGroups) {
+			for (SessionLogs modularizedSessionLogs : userGroup.modularizedSessionLogs.values()) {
+				if (modularizedSessionLogs.getLogs().isEmpty()) {
+					continue;
+				}
+
+				for (String modularizedSessionLog : modularizedSessionLogs.getLogs().split("\n")) {
 					// Add all modularized requests to the corresponding session log
-					rootSessionLogs.put(modularizedRequests[0],
-							rootSessionLogs.get(modularizedRequests[0]).concat(";").concat(String.join(";", Arrays.copyOfRange(modularizedRequests, 1, modularizedRequests.length))));
+					rootSessionLogs.append(modularizedSessionLog);
 				}
 			}
 		}
-		// Write back into String
-		rootSessionLogsString = String.join("\n", rootSessionLogs.values().toArray(new String[rootSessionLogs.size()]));
 
-		// Write back into File
 		try {
-			FileUtils.writeStringToFile(path.resolve("sessions.dat").toFile(), rootSessionLogsString, "UTF-8");
+			FileUtils.writeStringToFile(path.resolve("sessions.dat").toFile(), rootSessionLogs.toString(), "UTF-8");
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			LOGGER.error("Could not write the session logs!", e);
 		}
 	}
 
@@ -348,15 +459,47 @@ public class WorkloadModularizationManager {
 	}
 
 	/**
-	 * Retrieves new session logs from session logs service
+	 * Retrieves new session logs from session logs service. All Markov states are sent with one
+	 * request.
 	 *
-	 * @param traces
-	 *            the input traces
+	 * @param tracesPerMarkovState
+	 *            the input traces per Markov state
 	 * @param services
 	 *            the services, which are going to be targeted
-	 * @return {@link SessionLogs}
+	 * @return {@link ModularizedSessionLogs} per Markov state
+	 */
+	private Map<String, ModularizedSessionLogs> getModularizedSessionLogs(Map<String, List<Trace>> tracesPerMarkovState, Map<String, String> services) {
+		if (tracesPerMarkovState.isEmpty()) {
+			return new HashMap<>();
+		}
+
+		Map<String, String> serializedTraces = new HashMap<>();
+
+		for (Entry<String, List<Trace>> entry : tracesPerMarkovState.entrySet()) {
+			serializedTraces.put(entry.getKey(), serializeTraces(entry.getValue()));
+		}
+
+		SessionLogsBatchInput input = new SessionLogsBatchInput(services, serializedTraces);
+		String createSessionLogsLink = RestApi.SessionLogs.CREATE_BATCH.requestUrl().get();
+		ModularizedSessionLogsBatch batch = eurekaRestTemplate.postForObject(createSessionLogsLink, input, ModularizedSessionLogsBatch.class);
+
+		return new HashMap<>(batch.getSessionLogs());
+	}
+
+	/**
+	 * Serializes the traces into a JSON array.
+	 *
+	 * @param traces
+	 *            the traces
+	 * @return the JSON array
 	 */
-	private ModularizedSessionLogs getModularizedSessionLogs(List<Trace> traces, Map<String, String> services) {
+	private String serializeTraces(List<Trace> traces) {
+		ArrayNode jsonArray = new ArrayNode(JsonNodeFactory.instance);
+
+		if (traces.isEmpty()) {
+			return jsonArray.toString();
+		}
+
 		OPENxtraceSerializer serializer = OPENxtraceSerializationFactory.getInstance().getSerializer(OPENxtraceSerializationFormat.JSON);
 		OutputStream stream = new ByteArrayOutputStream();
 		serializer.prepare(stream);
@@ -368,7 +511,6 @@ public class WorkloadModularizationManager {
 		// Convert the outputstream to a json array
 		BufferedReader bufReader = new BufferedReader(new StringReader(stream.toString()));
 		String line = null;
-		ArrayNode jsonArray = new ArrayNode(JsonNodeFactory.instance);
 		ObjectMapper mapper = new ObjectMapper();
 		try {
 			while ((line = bufReader.readLine()) != null) {
@@ -378,9 +520,7 @@ public class WorkloadModularizationManager {
 			e.printStackTrace();
 		}
 
-		SessionLogsInput input = new SessionLogsInput(services, jsonArray.toString());
-		String createSessionLogsLink = RestApi.SessionLogs.CREATE.requestUrl().get();
-		return eurekaRestTemplate.postForObject(createSessionLogsLink, input, ModularizedSessionLogs.class);
+		return jsonArray.toString();
 	}
 
 	/**
@@ -398,10 +538,10 @@ public class WorkloadModularizationManager {
 	//TODO: Muss auch ohne Angabe vom service hostname gehen
 	private Map<String, List<Trace>> getReplacingRequests(List<HTTPRequestProcessingImpl> filteredCallables, Application application, Map<String, String> services) {
 		Map<String, List<Trace>> requestsToReplaceMap = new HashMap<String, List<Trace>>();
-		RequestUriMapper uriMapper = new RequestUriMapper(application);
+		CompiledRequestUriMapper uriMapper = new CompiledRequestUriMapper(application);
 		for (HTTPRequestProcessingImpl httpRequestProcessingImpl : filteredCallables) {
 			HttpEndpoint endpoint = uriMapper.map(httpRequestProcessingImpl.getUri(), httpRequestProcessingImpl.getRequestMethod().get().name());
-			if (!services.values().contains(endpoint.getDomain())) {
+			if ((endpoint != null) && !services.values().contains(endpoint.getDomain())) {
 				// This request is needed to be modularized by the session logs service
 				if (requestsToReplaceMap.containsKey(endpoint.getId())) {
 					requestsToReplaceMap.get(endpoint.getId()).add(httpRequestProcessingImpl.getContainingSubTrace().getContainingTrace());
@@ -414,21 +554,22 @@ public class WorkloadModularizationManager {
 	}
 
 	/**
-	 * Deletes all {@link Endpoint} objects, which do not occur in the current Markov chain.
+	 * Creates a copy of the application model, which only contains the {@link Endpoint} objects
+	 * occurring in the current Markov chain. The original application model is shared between the
+	 * user groups and thus, must not be changed.
 	 *
 	 * @param application
 	 *            the application model
 	 * @param markovStateNames
 	 *            all markov state names
+	 * @return the restricted application model
 	 */
-	private void deleteNotOccurringEndpoints(Application application, List<String> markovStateNames) {
-		List<Endpoint<?>> endpointsToDelete = new ArrayList<Endpoint<?>>();
-		for (Endpoint<?> endpoint : application.getEndpoints()) {
-			if (!markovStateNames.contains(endpoint.getId())) {
-				endpointsToDelete.add(endpoint);
-			}
-		}
-		application.getEndpoints().removeAll(endpointsToDelete);
+	private Application restrictToMarkovStates(Application application, Set<String> markovStateNames) {
+		Application restricted = new Application();
+		restricted.setId(application.getId());
+		restricted.setTimestamp(application.getTimestamp());
+		restricted.setEndpoints(application.getEndpoints().stream().filter(endpoint -> markovStateNames.contains(endpoint.getId())).collect(Collectors.toList()));
+		return restricted;
 	}
 
 	private boolean validateMarkovState(MarkovState markovState) {
@@ -441,4 +582,38 @@ public class WorkloadModularizationManager {
 		}
 		return Math.abs(propability - 1.0) < 0.00000001;
 	}
+
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during the modularization!", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw new IllegalStateException("Error during the modularization!", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * A user group with its behavior model and the modularized session logs per Markov state.
+	 */
+	private static class UserGroup {
+
+		private final SessionsBundle sessionBundle;
+
+		private final Behavior rootBehaviorModel;
+
+		private final Map<String, ModularizedSessionLogs> modularizedSessionLogs;
+
+		private UserGroup(SessionsBundle sessionBundle, Behavior rootBehaviorModel, Map<String, ModularizedSessionLogs> modularizedSessionLogs) {
+			this.sessionBundle = sessionBundle;
+			this.rootBehaviorModel = rootBehaviorModel;
+			this.modularizedSessionLogs = modularizedSessionLogs;
+		}
+
+	}
 }
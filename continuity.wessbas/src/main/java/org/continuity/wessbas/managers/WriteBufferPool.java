@@ -0,0 +1,143 @@
+package org.continuity.wessbas.managers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of buffers and encoders for writing large strings such as session logs to files. Instead
+ * of encoding the whole string to a byte array first, the string is encoded chunk-wise into a
+ * pooled buffer, which is reused by subsequent writes.
+ */
+class WriteBufferPool {
+
+	private final int bufferSize;
+
+	private final int maxPooled;
+
+	private final Queue<WriteBuffer> pool = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger numPooled = new AtomicInteger();
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param bufferSize
+	 *            The size of each buffer in bytes.
+	 * @param maxPooled
+	 *            The maximum number of buffers retained for reuse.
+	 */
+	WriteBufferPool(int bufferSize, int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * Writes the content as UTF-8 to the file, followed by a line separator. An already present
+	 * file will be overwritten. The result is the same as for
+	 * {@code Files.write(path, Collections.singletonList(content))}.
+	 *
+	 * @param path
+	 *            The file to be written.
+	 * @param content
+	 *            The content.
+	 * @return The path to the file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	Path write(Path path, String content) throws IOException {
+		WriteBuffer buffer = acquire();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			buffer.encoder.reset();
+			buffer.bytes.clear();
+
+			encode(CharBuffer.wrap(content), buffer, channel, false);
+			encode(CharBuffer.wrap(System.lineSeparator()), buffer, channel, true);
+
+			while (buffer.encoder.flush(buffer.bytes).isOverflow()) {
+				drain(buffer.bytes, channel);
+			}
+
+			drain(buffer.bytes, channel);
+		} finally {
+			release(buffer);
+		}
+
+		return path;
+	}
+
+	/**
+	 * Gets the number of buffers currently available for reuse.
+	 *
+	 * @return The number of pooled buffers.
+	 */
+	int size() {
+		return numPooled.get();
+	}
+
+	private void encode(CharBuffer chars, WriteBuffer buffer, FileChannel channel, boolean endOfInput) throws IOException {
+		while (true) {
+			CoderResult result = buffer.encoder.encode(chars, buffer.bytes, endOfInput);
+
+			if (result.isOverflow()) {
+				drain(buffer.bytes, channel);
+			} else if (result.isUnderflow()) {
+				return;
+			} else {
+				result.throwException();
+			}
+		}
+	}
+
+	private void drain(ByteBuffer bytes, FileChannel channel) throws IOException {
+		bytes.flip();
+
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+
+		bytes.clear();
+	}
+
+	private WriteBuffer acquire() {
+		WriteBuffer buffer = pool.poll();
+
+		if (buffer == null) {
+			return new WriteBuffer(bufferSize);
+		}
+
+		numPooled.decrementAndGet();
+		return buffer;
+	}
+
+	private void release(WriteBuffer buffer) {
+		if (numPooled.incrementAndGet() <= maxPooled) {
+			pool.offer(buffer);
+		} else {
+			numPooled.decrementAndGet();
+		}
+	}
+
+	private static class WriteBuffer {
+
+		private final ByteBuffer bytes;
+
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+		private WriteBuffer(int size) {
+			this.bytes = ByteBuffer.allocate(size);
+		}
+
+	}
+
+}
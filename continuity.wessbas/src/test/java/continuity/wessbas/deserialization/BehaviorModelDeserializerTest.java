@@ -1,9 +1,16 @@
 package continuity.wessbas.deserialization;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+import org.continuity.api.entities.artifact.SparseTransitionMatrix;
 import org.continuity.api.entities.deserialization.BehaviorModelSerializer;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +52,54 @@ public class BehaviorModelDeserializerTest {
 		public void deserializeValidCSV() throws FileNotFoundException, NullPointerException, IOException {
 			String[][] behaviorModelArray = csvHandler.readValues(CSV_FILE_PATH);
 			Behavior deserializedModel = BehaviorModelSerializer.deserializeBehaviorModel(behaviorModelArray);
+
+			assertThat(deserializedModel.getInitialState()).isEqualTo("INITIAL*");
+			assertThat(deserializedModel.getMarkovStates()).hasSize(behaviorModelArray.length);
+			assertThat(deserializedModel.getMarkovState("INITIAL*").getTransitions()).extracting(Transition::getTargetState).containsExactly("loginUsingGET");
+			assertThat(deserializedModel.getMarkovState("addItemToCartUsingPOST").getTransitions()).extracting(Transition::getTargetState, Transition::getProbability, Transition::getMean,
+					Transition::getDeviation).containsExactly(tuple("getCatalogueItemUsingGET", 0.2857, 77.0, 4.0), tuple("getCatalogueSizeUsingGET", 0.7143, 72.0, 9.0));
+		}
+	}
+
+	/**
+	 * Tests that {@link BehaviorModelSerializer#serializeBehaviorModel(Behavior)} writes files
+	 * that can be read again.
+	 */
+	public static class RoundTrip extends BehaviorModelDeserializerTest {
+
+		private CSVHandler csvHandler;
+
+		@Before
+		public void initialize() {
+			csvHandler = new CSVHandler(CSVHandler.LINEBREAK_TYPE_UNIX);
+		}
+
+		@Test
+		public void roundTripValidCSV() throws IOException {
+			String[][] behaviorModelArray = csvHandler.readValues(CSV_FILE_PATH);
+			SparseTransitionMatrix original = BehaviorModelSerializer.deserializeTransitionMatrix(behaviorModelArray);
+
+			Path file = Files.createTempFile("behavior_model", ".csv");
+
+			try {
+				csvHandler.writeValues(file.toString(), BehaviorModelSerializer.serializeBehaviorModel(original.toBehavior()));
+				String[][] written = csvHandler.readValues(file.toString());
+
+				assertThat(written[0]).isEqualTo(behaviorModelArray[0]);
+				assertThat(written).hasSameSizeAs(behaviorModelArray);
+
+				SparseTransitionMatrix reread = BehaviorModelSerializer.deserializeTransitionMatrix(written);
+
+				assertThat(reread.getRowStates()).isEqualTo(original.getRowStates());
+
+				for (String from : original.getRowStates()) {
+					for (String to : original.getColumnStates()) {
+						assertThat(reread.getProbability(from, to)).as(from + " -> " + to).isEqualTo(original.getProbability(from, to));
+					}
+				}
+			} finally {
+				Files.delete(file);
+			}
 		}
 	}
 }
@@ -0,0 +1,69 @@
+package org.continuity.wessbas.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.api.entities.artifact.SessionLogs;
+import org.continuity.wessbas.entities.BehaviorModelPack;
+import org.mockito.Mockito;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Measures the throughput of creating 64 ({@code -Dbenchmark.mixes}) behavior mixes of 2,000
+ * sessions each ({@code -Dbenchmark.sessions}) with 1, 2, 4, ... concurrent runs up to the number
+ * of available processors. Not run as part of the test suite.
+ */
+public class BehaviorMixBenchmark {
+
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		int numMixes = Integer.getInteger("benchmark.mixes", 64);
+		int numSessions = Integer.getInteger("benchmark.sessions", 2000);
+
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+
+		for (int i = 0; i < numMixes; i++) {
+			SessionLogs logs = WessbasWorkspaceTest.generateSessionLogs(numSessions, new Random(i), BehaviorMixManagerTest.prefix(i));
+			Mockito.when(restMock.getForObject(Mockito.eq(BehaviorMixManagerTest.link(i)), Mockito.any())).thenReturn(logs);
+		}
+
+		for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+			Path root = Files.createTempDirectory("wessbas-benchmark");
+			ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+			try {
+				BehaviorMixManager manager = new BehaviorMixManager(restMock, new WessbasWorkspaceManager(root, numMixes, parallelism));
+				List<Future<BehaviorModelPack>> futures = new ArrayList<>();
+
+				long start = System.nanoTime();
+
+				for (int i = 0; i < numMixes; i++) {
+					String link = BehaviorMixManagerTest.link(i);
+					futures.add(executor.submit(() -> manager.createBehaviorModelPack(link)));
+				}
+
+				int numSuccessful = 0;
+
+				for (Future<BehaviorModelPack> future : futures) {
+					numSuccessful += future.get() == null ? 0 : 1;
+				}
+
+				long duration = (System.nanoTime() - start) / 1000000;
+
+				System.out.println(String.format("%d concurrent runs: %d of %d mixes in %d ms (%.2f mixes/s)", parallelism, numSuccessful, numMixes, duration, (numMixes * 1000.0) / duration));
+			} finally {
+				executor.shutdown();
+				FileUtils.deleteDirectory(root.toFile());
+			}
+		}
+	}
+
+}
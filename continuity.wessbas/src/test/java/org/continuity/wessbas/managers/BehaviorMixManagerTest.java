@@ -0,0 +1,213 @@
+package org.continuity.wessbas.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.continuity.api.entities.artifact.SessionLogs;
+import org.continuity.api.entities.artifact.SimplifiedSession;
+import org.continuity.wessbas.entities.BehaviorModelPack;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests that the {@link BehaviorMixManager} creates concurrent behavior mixes in separate
+ * workspaces without mixing up the session logs or behavior models of different runs.
+ */
+public class BehaviorMixManagerTest {
+
+	private static final int NUM_RUNS = 32;
+
+	private static final int NUM_SESSIONS = 100;
+
+	private static final Pattern PREFIX = Pattern.compile("RUN(\\d+)_", Pattern.CASE_INSENSITIVE);
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void testConcurrentMixesAreSeparated() throws Exception {
+		List<SessionLogs> logs = new ArrayList<>();
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			SessionLogs runLogs = WessbasWorkspaceTest.generateSessionLogs(NUM_SESSIONS, new Random(run), prefix(run));
+			logs.add(runLogs);
+			Mockito.when(restMock.getForObject(Mockito.eq(link(run)), Mockito.any())).thenReturn(runLogs);
+		}
+
+		Path root = temp.newFolder().toPath();
+		WessbasWorkspaceManager workspaces = new WessbasWorkspaceManager(root, NUM_RUNS, 4);
+		List<BehaviorModelPack> packs = runConcurrently(new BehaviorMixManager(restMock, workspaces));
+
+		Set<Path> paths = new HashSet<>();
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			BehaviorModelPack pack = packs.get(run);
+
+			assertThat(pack).as("Pack of run %d", run).isNotNull();
+			assertThat(paths.add(pack.getPathToBehaviorModelFiles())).as("Unique path of run %d", run).isTrue();
+
+			List<String> sessionIds = pack.getSessionsBundlePack().getSessionsBundles().stream().flatMap(bundle -> bundle.getSessions().stream()).map(SimplifiedSession::getId).sorted()
+					.collect(Collectors.toList());
+			List<String> expectedIds = Stream.of(logs.get(run).getLogs().split("\n")).map(line -> line.substring(0, line.indexOf(';'))).sorted().collect(Collectors.toList());
+
+			assertThat(sessionIds).as("Sessions of run %d", run).isNotEmpty();
+			assertThat(expectedIds.containsAll(sessionIds)).as("Sessions of run %d %s", run, sessionIds).isTrue();
+			assertThat(new String(Files.readAllBytes(pack.getPathToBehaviorModelFiles().resolve("sessions.dat")), StandardCharsets.UTF_8)).as("Session logs of run %d", run)
+					.isEqualTo(logs.get(run).getLogs() + System.lineSeparator());
+			assertThat(prefixesIn(pack.getPathToBehaviorModelFiles().resolve("behaviormodelextractor"))).as("Behavior models of run %d", run).isEqualTo(Collections.singleton(run));
+		}
+
+		assertThat(workspaces.getNumRetained()).isEqualTo(NUM_RUNS);
+		assertThat(root.toFile().list().length).isEqualTo(NUM_RUNS);
+	}
+
+	@Test
+	public void testFailedWorkspaceIsDeleted() throws Exception {
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+		Mockito.when(restMock.getForObject(Mockito.anyString(), Mockito.any())).thenReturn(new SessionLogs(new Date(), null));
+
+		Path root = temp.newFolder().toPath();
+		WessbasWorkspaceManager workspaces = new WessbasWorkspaceManager(root, NUM_RUNS, 4);
+
+		assertThat(new BehaviorMixManager(restMock, workspaces).createBehaviorModelPack(link(0))).isNull();
+		assertThat(workspaces.getNumRetained()).isEqualTo(0);
+		assertThat(root.toFile().list()).isEmpty();
+	}
+
+	@Test
+	public void testOldestWorkspacesAreDeleted() throws Exception {
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+		Mockito.when(restMock.getForObject(Mockito.anyString(), Mockito.any())).thenReturn(WessbasWorkspaceTest.generateSessionLogs(NUM_SESSIONS, new Random(42)));
+
+		Path root = temp.newFolder().toPath();
+		WessbasWorkspaceManager workspaces = new WessbasWorkspaceManager(root, 2, 1);
+		BehaviorMixManager manager = new BehaviorMixManager(restMock, workspaces);
+
+		BehaviorModelPack first = manager.createBehaviorModelPack(link(0));
+		BehaviorModelPack second = manager.createBehaviorModelPack(link(0));
+		BehaviorModelPack third = manager.createBehaviorModelPack(link(0));
+
+		assertThat(Files.exists(first.getPathToBehaviorModelFiles())).isFalse();
+		assertThat(Files.exists(second.getPathToBehaviorModelFiles())).isTrue();
+		assertThat(Files.exists(third.getPathToBehaviorModelFiles())).isTrue();
+		assertThat(workspaces.getNumPooledBuffers()).isEqualTo(1);
+	}
+
+	@Test
+	public void testLongTermWorkspaceIsKept() throws Exception {
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+		Mockito.when(restMock.getForObject(Mockito.anyString(), Mockito.any())).thenReturn(WessbasWorkspaceTest.generateSessionLogs(NUM_SESSIONS, new Random(42)));
+
+		Path root = temp.newFolder().toPath();
+		WessbasWorkspaceManager workspaces = new WessbasWorkspaceManager(root, 2, 1);
+		BehaviorMixManager manager = new BehaviorMixManager(restMock, workspaces);
+
+		BehaviorModelPack longTerm = manager.createBehaviorModelPack(link(0), true);
+		List<BehaviorModelPack> shortTerm = new ArrayList<>();
+
+		for (int i = 0; i < 5; i++) {
+			shortTerm.add(manager.createBehaviorModelPack(link(0)));
+		}
+
+		assertThat(Files.exists(longTerm.getPathToBehaviorModelFiles().resolve("sessions.dat"))).isTrue();
+		assertThat(Files.exists(longTerm.getPathToBehaviorModelFiles().resolve("behaviormodelextractor"))).isTrue();
+		assertThat(Files.exists(shortTerm.get(2).getPathToBehaviorModelFiles())).isFalse();
+		assertThat(Files.exists(shortTerm.get(3).getPathToBehaviorModelFiles())).isTrue();
+		assertThat(Files.exists(shortTerm.get(4).getPathToBehaviorModelFiles())).isTrue();
+		assertThat(workspaces.getNumRetained()).isEqualTo(3);
+	}
+
+	@Test
+	public void testPassedSessionLogsWorkspaceIsDeleted() throws Exception {
+		Path root = temp.newFolder().toPath();
+		BehaviorMixManager manager = new BehaviorMixManager(Mockito.mock(RestTemplate.class), new WessbasWorkspaceManager(root, NUM_RUNS, 1));
+
+		assertThat(manager.runPipeline(WessbasWorkspaceTest.generateSessionLogs(NUM_SESSIONS, new Random(42))).getSessionsBundles()).isNotEmpty();
+		assertThat(root.toFile().list()).isEmpty();
+	}
+
+	/**
+	 * Starts all runs at the same time.
+	 */
+	static List<BehaviorModelPack> runConcurrently(BehaviorMixManager manager) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(NUM_RUNS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<BehaviorModelPack>> futures = new ArrayList<>();
+
+		try {
+			for (int run = 0; run < NUM_RUNS; run++) {
+				String link = link(run);
+				Callable<BehaviorModelPack> task = () -> {
+					start.await();
+					return manager.createBehaviorModelPack(link);
+				};
+
+				futures.add(executor.submit(task));
+			}
+
+			start.countDown();
+
+			List<BehaviorModelPack> packs = new ArrayList<>();
+
+			for (Future<BehaviorModelPack> future : futures) {
+				packs.add(future.get());
+			}
+
+			return packs;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	static String prefix(int run) {
+		return "RUN" + run + "_";
+	}
+
+	static String link(int run) {
+		return "http://session-logs/" + run;
+	}
+
+	/**
+	 * Collects the run numbers of all prefixes occurring in the files of the directory.
+	 */
+	private static Set<Integer> prefixesIn(Path dir) throws IOException {
+		Set<Integer> runs = new HashSet<>();
+
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : files.collect(Collectors.toList())) {
+				Matcher matcher = PREFIX.matcher(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+				while (matcher.find()) {
+					runs.add(Integer.parseInt(matcher.group(1)));
+				}
+			}
+		}
+
+		return runs;
+	}
+
+}
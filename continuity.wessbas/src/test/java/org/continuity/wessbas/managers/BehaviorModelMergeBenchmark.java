@@ -0,0 +1,52 @@
+package org.continuity.wessbas.managers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+
+/**
+ * Measures the duration of merging the sub Markov chains of a root Markov chain with 300 states
+ * ({@code -Dbenchmark.states}) using the {@link BehaviorModelMerger} and the
+ * {@link IndexedBehaviorModelMerger}. Not run as part of the test suite.
+ */
+public class BehaviorModelMergeBenchmark {
+
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) {
+		int numStates = Integer.getInteger("benchmark.states", 300);
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			Random random = new Random(run);
+			Behavior root = IndexedBehaviorModelMergerTest.generateRootBehaviorModel(random, numStates);
+			Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = IndexedBehaviorModelMergerTest.generateReplacements(random, root, true);
+
+			measure("BehaviorModelMerger", root, replacements, true);
+			measure("IndexedBehaviorModelMerger", root, replacements, false);
+		}
+	}
+
+	private static void measure(String name, Behavior root, Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements, boolean reference) {
+		Behavior rootCopy = root.clone();
+		Map<String, Pair<Behavior, ModularizedSessionLogs>> replacementsCopy = new LinkedHashMap<>();
+		replacements.forEach((state, pair) -> replacementsCopy.put(state, Pair.of(pair.getLeft() == null ? null : pair.getLeft().clone(), pair.getRight())));
+
+		long start = System.nanoTime();
+
+		if (reference) {
+			new BehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(rootCopy, replacementsCopy);
+		} else {
+			new IndexedBehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(rootCopy, replacementsCopy);
+		}
+
+		long duration = (System.nanoTime() - start) / 1000000;
+
+		System.out.println(String.format("%s: merged %d sub Markov chains into %d states in %d ms, resulting in %d states", name, replacements.size(), root.getMarkovStates().size(), duration,
+				rootCopy.getMarkovStates().size()));
+	}
+
+}
@@ -0,0 +1,326 @@
+package org.continuity.wessbas.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
+import org.continuity.api.entities.artifact.BehaviorModel.Transition;
+import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+import org.continuity.api.entities.artifact.ProcessingTimeNormalDistributions;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link IndexedBehaviorModelMerger} on randomly generated Markov chains against the
+ * {@link BehaviorModelMerger}.
+ */
+public class IndexedBehaviorModelMergerTest {
+
+	private static final int NUM_SAMPLES = 200;
+
+	private static final double TOLERANCE = 1e-9;
+
+	private static final String INITIAL_STATE = "INITIAL*";
+
+	private static final String EXIT_STATE = "$";
+
+	@Test
+	public void testRowsAreStochastic() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < NUM_SAMPLES; i++) {
+			Behavior root = generateRootBehaviorModel(random, 2 + random.nextInt(10));
+			Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = generateReplacements(random, root, true);
+
+			new IndexedBehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(root, replacements);
+
+			for (MarkovState state : root.getMarkovStates()) {
+				// States only leading to removed states do not have any transitions left
+				if (state.getTransitions().isEmpty()) {
+					continue;
+				}
+
+				double sum = state.getTransitions().stream().mapToDouble(Transition::getProbability).sum();
+				Assert.assertEquals("Sample " + i + ": expected the transitions of " + state.getId() + " to sum up to 1", 1.0, sum, 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testProbabilitiesMatchBehaviorModelMerger() {
+		Random random = new Random(4711);
+
+		for (int i = 0; i < NUM_SAMPLES; i++) {
+			Behavior root = generateRootBehaviorModel(random, 2 + random.nextInt(10));
+			Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = generateReplacements(random, root, true);
+
+			Behavior expected = mergeWith(new BehaviorModelMerger()::replaceMarkovStatesWithSubMarkovChains, root, replacements);
+			Behavior actual = mergeWith(new IndexedBehaviorModelMerger()::replaceMarkovStatesWithSubMarkovChains, root, replacements);
+
+			assertEquals("Sample " + i, expected, actual, false);
+		}
+	}
+
+	@Test
+	public void testThinkTimesMatchBehaviorModelMerger() {
+		Random random = new Random(1337);
+
+		for (int i = 0; i < NUM_SAMPLES; i++) {
+			Behavior root = generateRootBehaviorModel(random, 2 + random.nextInt(10));
+			Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = generateReplacements(random, root, false);
+
+			Behavior expected = mergeWith(new BehaviorModelMerger()::replaceMarkovStatesWithSubMarkovChains, root, replacements);
+			Behavior actual = mergeWith(new IndexedBehaviorModelMerger()::replaceMarkovStatesWithSubMarkovChains, root, replacements);
+
+			assertEquals("Sample " + i, expected, actual, true);
+		}
+	}
+
+	@Test
+	public void testPreprocessingTimeIsAddedOnce() {
+		Behavior root = new Behavior();
+		root.setMarkovStates(new ArrayList<>(Arrays.asList(state(INITIAL_STATE, "A", 0.5, "B", 0.5), state("A", "C", 1.0), state("B", "C", 1.0), state("C", EXIT_STATE, 1.0), state(EXIT_STATE))));
+
+		Behavior sub = new Behavior();
+		sub.setMarkovStates(new ArrayList<>(Arrays.asList(state(INITIAL_STATE, "C#X", 1.0), state("C#X", EXIT_STATE, 1.0), state(EXIT_STATE))));
+
+		Map<String, ProcessingTimeNormalDistributions> distributions = new HashMap<>();
+		distributions.put("X", new ProcessingTimeNormalDistributions(Arrays.asList(3.0), Arrays.asList(4.0)));
+
+		new IndexedBehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(root, Collections.singletonMap("C", Pair.of(sub, new ModularizedSessionLogs(distributions))));
+
+		Assert.assertEquals(5, root.getMarkovStates().size());
+		Assert.assertEquals("C#X", root.getMarkovState("A").getTransitions().get(0).getTargetState());
+		Assert.assertEquals(5.0, root.getMarkovState("A").getTransitions().get(0).getMean(), TOLERANCE);
+		Assert.assertEquals(5.0, root.getMarkovState("B").getTransitions().get(0).getMean(), TOLERANCE);
+		Assert.assertEquals(EXIT_STATE, root.getMarkovState("C#X").getTransitions().get(0).getTargetState());
+		Assert.assertEquals(6.0, root.getMarkovState("C#X").getTransitions().get(0).getMean(), TOLERANCE);
+	}
+
+	@Test
+	public void testInputSubMarkovChainsAreNotChanged() {
+		Random random = new Random(7);
+		Behavior root = generateRootBehaviorModel(random, 5);
+		Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = generateReplacements(random, root, true);
+
+		Map<String, String> before = new HashMap<>();
+		replacements.forEach((state, pair) -> before.put(state, describe(pair.getLeft())));
+
+		new IndexedBehaviorModelMerger().replaceMarkovStatesWithSubMarkovChains(root, replacements);
+
+		replacements.forEach((state, pair) -> Assert.assertEquals(before.get(state), describe(pair.getLeft())));
+	}
+
+	private static interface Merger {
+		void replaceMarkovStatesWithSubMarkovChains(Behavior rootBehaviorModel, Map<String, Pair<Behavior, ModularizedSessionLogs>> modularizedBehaviorModelsPerMarkovState);
+	}
+
+	/**
+	 * Merges copies of the passed behavior models, as the {@link BehaviorModelMerger} changes the
+	 * sub Markov chains.
+	 */
+	private static Behavior mergeWith(Merger merger, Behavior root, Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements) {
+		Behavior rootCopy = root.clone();
+		Map<String, Pair<Behavior, ModularizedSessionLogs>> replacementsCopy = new LinkedHashMap<>();
+		replacements.forEach((state, pair) -> replacementsCopy.put(state, Pair.of(pair.getLeft() == null ? null : pair.getLeft().clone(), pair.getRight())));
+
+		merger.replaceMarkovStatesWithSubMarkovChains(rootCopy, replacementsCopy);
+		return rootCopy;
+	}
+
+	private static void assertEquals(String message, Behavior expected, Behavior actual, boolean compareThinkTimes) {
+		Assert.assertEquals(message + ": different states", toMap(expected).keySet(), toMap(actual).keySet());
+
+		for (Map.Entry<String, Map<String, Transition>> expectedState : toMap(expected).entrySet()) {
+			Map<String, Transition> actualTransitions = toMap(actual).get(expectedState.getKey());
+			String stateMessage = message + ", state " + expectedState.getKey();
+
+			Assert.assertEquals(stateMessage + ": different targets", expectedState.getValue().keySet(), actualTransitions.keySet());
+
+			for (Transition expectedTransition : expectedState.getValue().values()) {
+				Transition actualTransition = actualTransitions.get(expectedTransition.getTargetState());
+				String transitionMessage = stateMessage + " -> " + expectedTransition.getTargetState();
+
+				Assert.assertEquals(transitionMessage, expectedTransition.getProbability(), actualTransition.getProbability(), TOLERANCE);
+
+				if (compareThinkTimes) {
+					Assert.assertEquals(transitionMessage, expectedTransition.getMean(), actualTransition.getMean(), TOLERANCE);
+					Assert.assertEquals(transitionMessage, expectedTransition.getDeviation(), actualTransition.getDeviation(), TOLERANCE);
+				}
+			}
+		}
+	}
+
+	private static Map<String, Map<String, Transition>> toMap(Behavior behavior) {
+		Map<String, Map<String, Transition>> map = new HashMap<>();
+
+		for (MarkovState state : behavior.getMarkovStates()) {
+			Map<String, Transition> transitions = new HashMap<>();
+			state.getTransitions().forEach(t -> transitions.put(t.getTargetState(), t));
+			map.put(state.getId(), transitions);
+		}
+
+		return map;
+	}
+
+	private static String describe(Behavior behavior) {
+		if (behavior == null) {
+			return null;
+		}
+
+		StringBuilder description = new StringBuilder();
+
+		for (MarkovState state : behavior.getMarkovStates()) {
+			description.append(state.getId()).append(":");
+			state.getTransitions().forEach(t -> description.append(" ").append(t.getTargetState()).append("/").append(t.getProbability()).append("/").append(t.getMean()));
+			description.append("\n");
+		}
+
+		return description.toString();
+	}
+
+	/**
+	 * Generates a root Markov chain with the passed number of states in addition to the initial
+	 * and exit states. Each state has at least one transition to another state.
+	 */
+	static Behavior generateRootBehaviorModel(Random random, int numStates) {
+		List<String> states = new ArrayList<>();
+
+		for (int i = 0; i < numStates; i++) {
+			states.add("s" + i);
+		}
+
+		List<MarkovState> markovStates = new ArrayList<>();
+		markovStates.add(generateState(random, INITIAL_STATE, states, null));
+
+		List<String> targets = new ArrayList<>(states);
+		targets.add(EXIT_STATE);
+
+		for (String state : states) {
+			markovStates.add(generateState(random, state, targets, state));
+		}
+
+		markovStates.add(new MarkovState(EXIT_STATE, new ArrayList<>()));
+
+		Behavior behavior = new Behavior();
+		behavior.setName("behavior_model");
+		behavior.setInitialState(INITIAL_STATE);
+		behavior.setMarkovStates(markovStates);
+		return behavior;
+	}
+
+	/**
+	 * Generates a sub Markov chain for the passed root state. The initial state never directly
+	 * transitions to the exit state.
+	 */
+	static Behavior generateSubBehaviorModel(Random random, String rootState, int numStates) {
+		List<String> states = new ArrayList<>();
+
+		for (int i = 0; i < numStates; i++) {
+			states.add(rootState + WorkloadModularizationManager.STATE_NAME_LIMITER + "r" + i);
+		}
+
+		List<MarkovState> markovStates = new ArrayList<>();
+		markovStates.add(generateState(random, INITIAL_STATE, states, null));
+
+		List<String> targets = new ArrayList<>(states);
+		targets.add(EXIT_STATE);
+
+		for (String state : states) {
+			markovStates.add(generateState(random, state, targets, state));
+		}
+
+		markovStates.add(new MarkovState(EXIT_STATE, new ArrayList<>()));
+
+		Behavior behavior = new Behavior();
+		behavior.setName(rootState);
+		behavior.setInitialState(INITIAL_STATE);
+		behavior.setMarkovStates(markovStates);
+		return behavior;
+	}
+
+	/**
+	 * Replaces a random subset of the root states either by a sub Markov chain or by nothing.
+	 *
+	 * @param perRequestTimes
+	 *            Whether to generate processing times per modularized request or only for the
+	 *            skipped root states.
+	 */
+	static Map<String, Pair<Behavior, ModularizedSessionLogs>> generateReplacements(Random random, Behavior root, boolean perRequestTimes) {
+		Map<String, Pair<Behavior, ModularizedSessionLogs>> replacements = new LinkedHashMap<>();
+
+		for (MarkovState state : root.getMarkovStates()) {
+			String id = state.getId();
+
+			if (INITIAL_STATE.equals(id) || EXIT_STATE.equals(id) || random.nextBoolean()) {
+				continue;
+			}
+
+			Map<String, ProcessingTimeNormalDistributions> distributions = new HashMap<>();
+			Behavior sub = null;
+
+			if (random.nextInt(3) == 0) {
+				distributions.put("root", generateDistribution(random));
+			} else {
+				sub = generateSubBehaviorModel(random, id, 1 + random.nextInt(5));
+
+				if (perRequestTimes) {
+					for (MarkovState subState : sub.getMarkovStates()) {
+						if (subState.getId().contains(WorkloadModularizationManager.STATE_NAME_LIMITER)) {
+							distributions.put(subState.getId().split(WorkloadModularizationManager.STATE_NAME_LIMITER)[1], generateDistribution(random));
+						}
+					}
+				}
+			}
+
+			replacements.put(id, Pair.of(sub, new ModularizedSessionLogs(distributions)));
+		}
+
+		return replacements;
+	}
+
+	private static MarkovState generateState(Random random, String id, List<String> targets, String excluded) {
+		List<String> shuffled = new ArrayList<>(targets);
+		Collections.shuffle(shuffled, random);
+
+		List<String> chosen = new ArrayList<>(shuffled.subList(0, 1 + random.nextInt(shuffled.size())));
+
+		if (chosen.size() == 1 && chosen.get(0).equals(excluded)) {
+			chosen.add(shuffled.get(1 % shuffled.size()));
+		}
+
+		double[] weights = random.doubles(chosen.size(), 0.1, 1.0).toArray();
+		double sum = Arrays.stream(weights).sum();
+
+		List<Transition> transitions = new ArrayList<>();
+
+		for (int i = 0; i < chosen.size(); i++) {
+			transitions.add(new Transition(chosen.get(i), weights[i] / sum, random.nextDouble() * 1000, random.nextDouble() * 100));
+		}
+
+		return new MarkovState(id, transitions);
+	}
+
+	private static ProcessingTimeNormalDistributions generateDistribution(Random random) {
+		return new ProcessingTimeNormalDistributions(Arrays.asList(random.nextDouble() * 10, random.nextDouble() * 10), Arrays.asList(random.nextDouble() * 10, random.nextDouble() * 10));
+	}
+
+	private static MarkovState state(String id, Object... transitions) {
+		List<Transition> list = new ArrayList<>();
+
+		for (int i = 0; i < transitions.length; i += 2) {
+			list.add(new Transition((String) transitions[i], (Double) transitions[i + 1], 1.0, 0.0));
+		}
+
+		return new MarkovState(id, list);
+	}
+
+}
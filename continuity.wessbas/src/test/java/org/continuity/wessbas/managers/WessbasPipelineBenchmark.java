@@ -0,0 +1,46 @@
+package org.continuity.wessbas.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.api.entities.artifact.SessionLogs;
+import org.continuity.wessbas.entities.WessbasBundle;
+import org.mockito.Mockito;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Measures the duration of the WESSBAS pipeline for 100,000 sessions ({@code -Dbenchmark.sessions})
+ * and checks that no workspace files are left afterwards. Not run as part of the test suite.
+ */
+public class WessbasPipelineBenchmark {
+
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) throws IOException {
+		int numSessions = Integer.getInteger("benchmark.sessions", 100000);
+
+		SessionLogs logs = WessbasWorkspaceTest.generateSessionLogs(numSessions, new Random(42));
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+		Mockito.when(restMock.getForObject(Mockito.anyString(), Mockito.any())).thenReturn(logs);
+
+		Path root = Files.createTempDirectory("wessbas-benchmark");
+		WessbasPipelineManager manager = new WessbasPipelineManager(restMock, root);
+
+		try {
+			for (int run = 0; run < NUM_RUNS; run++) {
+				long start = System.nanoTime();
+				WessbasBundle bundle = manager.runPipeline(WessbasWorkspaceTest.task(), null);
+				long duration = (System.nanoTime() - start) / 1000000;
+
+				System.out.println(String.format("Created workload model of %d sessions in %d ms (successful: %b), %d files left in the workspace root", numSessions, duration,
+						bundle.getWorkloadModel() != null, root.toFile().list().length));
+			}
+		} finally {
+			FileUtils.deleteDirectory(root.toFile());
+		}
+	}
+
+}
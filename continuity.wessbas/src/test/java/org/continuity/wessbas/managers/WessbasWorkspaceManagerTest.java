@@ -0,0 +1,120 @@
+package org.continuity.wessbas.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WessbasWorkspaceManagerTest {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private Path root;
+
+	private WessbasWorkspaceManager workspaces;
+
+	@Before
+	public void setupManager() throws Exception {
+		root = temp.newFolder().toPath();
+		workspaces = new WessbasWorkspaceManager(root, 1, 1);
+	}
+
+	@Test
+	public void testDeletionCallbacksAreRun() throws Exception {
+		List<Path> deleted = new ArrayList<>();
+
+		WessbasWorkspace first = workspaces.create();
+		workspaces.retain(first);
+		workspaces.onDeletion(first.getPath(), () -> deleted.add(first.getPath()));
+
+		WessbasWorkspace second = workspaces.create();
+		workspaces.retain(second);
+		workspaces.onDeletion(second.getPath(), () -> deleted.add(second.getPath()));
+
+		assertThat(deleted).containsExactly(first.getPath());
+		assertThat(Files.exists(first.getPath())).isFalse();
+
+		// already deleted
+		workspaces.onDeletion(first.getPath(), () -> deleted.add(first.getPath()));
+		assertThat(deleted).containsExactly(first.getPath(), first.getPath());
+	}
+
+	@Test
+	public void testAcquiredWorkspaceIsKept() throws Exception {
+		WessbasWorkspace first = workspaces.create();
+		workspaces.retain(first);
+		assertThat(workspaces.acquire(first.getPath())).isTrue();
+
+		WessbasWorkspace second = workspaces.create();
+		workspaces.retain(second);
+
+		WessbasWorkspace third = workspaces.create();
+		workspaces.retain(third);
+
+		assertThat(Files.exists(first.getPath())).isTrue();
+		assertThat(Files.exists(second.getPath())).isFalse();
+		assertThat(Files.exists(third.getPath())).isTrue();
+		assertThat(workspaces.acquire(second.getPath())).isFalse();
+		assertThat(workspaces.getNumRetained()).isEqualTo(2);
+
+		workspaces.release(first.getPath());
+
+		assertThat(Files.exists(first.getPath())).isFalse();
+		assertThat(Files.exists(third.getPath())).isTrue();
+		assertThat(workspaces.getNumRetained()).isEqualTo(1);
+	}
+
+	@Test
+	public void testPinnedWorkspaceIsKept() throws Exception {
+		List<Path> deleted = new ArrayList<>();
+
+		WessbasWorkspace pinned = workspaces.create();
+		workspaces.retain(pinned, true);
+
+		List<WessbasWorkspace> others = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			WessbasWorkspace other = workspaces.create();
+			workspaces.retain(other);
+			workspaces.onDeletion(other.getPath(), () -> deleted.add(other.getPath()));
+			others.add(other);
+		}
+
+		assertThat(Files.exists(pinned.getPath())).isTrue();
+		assertThat(Files.exists(others.get(2).getPath())).isTrue();
+		assertThat(deleted).containsExactly(others.get(0).getPath(), others.get(1).getPath());
+		assertThat(workspaces.getNumRetained()).isEqualTo(2);
+	}
+
+	@Test
+	public void testRecovery() throws Exception {
+		WessbasWorkspace referenced = workspaces.create();
+		WessbasWorkspace leftOver = workspaces.create();
+		Files.write(leftOver.getSessionLogsPath(), Collections.singletonList("foo"));
+
+		WessbasWorkspaceManager restarted = new WessbasWorkspaceManager(root, 1, 1);
+		restarted.recover(Collections.singletonList(referenced.getPath().toAbsolutePath()));
+
+		assertThat(Files.exists(referenced.getPath())).isTrue();
+		assertThat(Files.exists(leftOver.getPath())).isFalse();
+		assertThat(restarted.getNumRetained()).isEqualTo(1);
+
+		WessbasWorkspace first = restarted.create();
+		restarted.retain(first);
+		restarted.retain(restarted.create());
+
+		assertThat(Files.exists(referenced.getPath())).isTrue();
+		assertThat(Files.exists(first.getPath())).isFalse();
+		assertThat(restarted.getNumRetained()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,139 @@
+package org.continuity.wessbas.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.continuity.api.entities.artifact.SessionLogs;
+import org.continuity.api.entities.config.TaskDescription;
+import org.continuity.api.entities.deserialization.BehaviorModelSerializer;
+import org.continuity.api.entities.links.LinkExchangeModel;
+import org.continuity.wessbas.transform.benchflow.WessbasToBehaviorModelConverter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.web.client.RestTemplate;
+
+import m4jdsl.WorkloadModel;
+
+/**
+ * Tests that the {@link WessbasPipelineManager} runs each pipeline in a separate
+ * {@link WessbasWorkspace}, which is deleted afterwards, and that reusing a manager results in the
+ * same models as using a fresh one.
+ */
+public class WessbasWorkspaceTest {
+
+	private static final String[] USE_CASES = { "HomeGET", "ShopGET", "CartPOST", "LoginPOST" };
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void testWorkspaceIsDeleted() throws Exception {
+		Path root = temp.newFolder().toPath();
+		WessbasPipelineManager manager = new WessbasPipelineManager(mockRest(generateSessionLogs(50, new Random(42))), root);
+
+		assertThat(manager.runPipeline(task(), null).getWorkloadModel()).isNotNull();
+		assertThat(root.toFile().list()).isEmpty();
+	}
+
+	@Test
+	public void testWorkspaceIsDeletedOnError() throws Exception {
+		Path root = temp.newFolder().toPath();
+		WessbasPipelineManager manager = new WessbasPipelineManager(mockRest(new SessionLogs(new Date(), "")), root);
+
+		assertThat(manager.runPipeline(task(), null).getWorkloadModel()).isNull();
+		assertThat(root.toFile().list()).isEmpty();
+	}
+
+	@Test
+	public void testReusedManagerEqualsFreshManager() throws Exception {
+		SessionLogs longLogs = generateSessionLogs(200, new Random(1));
+		SessionLogs shortLogs = generateSessionLogs(20, new Random(2));
+
+		WessbasPipelineManager reused = new WessbasPipelineManager(mockRest(longLogs, shortLogs), temp.newFolder().toPath());
+		reused.runPipeline(task(), null);
+		WorkloadModel actual = reused.runPipeline(task(), null).getWorkloadModel();
+
+		WorkloadModel expected = new WessbasPipelineManager(mockRest(shortLogs), temp.newFolder().toPath()).runPipeline(task(), null).getWorkloadModel();
+
+		assertThat(describe(actual)).isEqualTo(describe(expected));
+	}
+
+	/**
+	 * Describes the workload intensity and the behavior models as a list of strings that can be
+	 * compared.
+	 */
+	private static List<String> describe(WorkloadModel workloadModel) {
+		List<String> description = new WessbasToBehaviorModelConverter().convertToBehaviorModel(workloadModel).getBehaviors().stream()
+				.map(behavior -> behavior.getName() + " " + behavior.getProbability() + " " + Arrays.deepToString(BehaviorModelSerializer.serializeBehaviorModel(behavior)))
+				.sorted().collect(Collectors.toList());
+
+		description.add(0, workloadModel.getWorkloadIntensity().getFormula());
+		description.add(1, workloadModel.getApplicationModel().getSessionLayerEFSM().getApplicationStates().stream().map(state -> state.getService().getName()).sorted().collect(Collectors.joining(",")));
+
+		return description;
+	}
+
+	private static RestTemplate mockRest(SessionLogs logs, SessionLogs... further) {
+		RestTemplate restMock = Mockito.mock(RestTemplate.class);
+		Mockito.when(restMock.getForObject(Mockito.anyString(), Mockito.any())).thenReturn(logs, further);
+		return restMock;
+	}
+
+	static TaskDescription task() {
+		TaskDescription task = new TaskDescription();
+		LinkExchangeModel source = new LinkExchangeModel();
+		source.getSessionLogsLinks().setLink("");
+		task.setSource(source);
+		return task;
+	}
+
+	/**
+	 * Generates session logs of overlapping sessions with 1 to 10 requests each, spanning several
+	 * seconds.
+	 */
+	static SessionLogs generateSessionLogs(int numSessions, Random random) {
+		return generateSessionLogs(numSessions, random, "");
+	}
+
+	/**
+	 * Generates session logs as {@link #generateSessionLogs(int, Random)}, but prefixes the session
+	 * IDs and use case names with the passed prefix.
+	 */
+	static SessionLogs generateSessionLogs(int numSessions, Random random, String prefix) {
+		StringBuilder logs = new StringBuilder();
+		long sessionStart = 1511777946984000000L;
+
+		for (int i = 0; i < numSessions; i++) {
+			if (i > 0) {
+				logs.append("\n");
+			}
+
+			logs.append(prefix).append("SESSION").append(i);
+
+			sessionStart += random.nextInt(100) * 1000000L;
+			long start = sessionStart;
+			int numRequests = 1 + random.nextInt(10);
+
+			for (int k = 0; k < numRequests; k++) {
+				String useCase = prefix + USE_CASES[random.nextInt(USE_CASES.length)];
+				long end = start + ((1 + random.nextInt(200)) * 1000000L);
+
+				logs.append(";\"").append(useCase).append("\":").append(start).append(":").append(end).append(":/dvdstore/").append(useCase.toLowerCase())
+						.append(":8080:localhost:HTTP/1.1:GET:<no-query-string>:<no-encoding>");
+
+				start = end + (random.nextInt(2000) * 1000000L);
+			}
+		}
+
+		return new SessionLogs(new Date(), logs.toString());
+	}
+
+}
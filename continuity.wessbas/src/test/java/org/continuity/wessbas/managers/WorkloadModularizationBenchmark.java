@@ -0,0 +1,54 @@
+package org.continuity.wessbas.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.continuity.wessbas.entities.BehaviorModelPack;
+
+/**
+ * Measures the duration of modularizing 4 user groups with 200 Markov states each
+ * ({@code -Dbenchmark.states}) against a session logs stand-in with 50 ms latency, once
+ * sequentially and once in parallel. Not run as part of the test suite.
+ */
+public class WorkloadModularizationBenchmark {
+
+	private static final int NUM_RUNS = 5;
+
+	private static final int NUM_USER_GROUPS = 4;
+
+	private static final int NUM_SESSIONS = 20;
+
+	private static final long LATENCY_MILLIS = 50;
+
+	public static void main(String[] args) throws IOException {
+		int numStates = Integer.getInteger("benchmark.states", 200);
+
+		for (int run = 0; run < NUM_RUNS; run++) {
+			measure("Sequential", numStates, 1);
+			measure("Parallel", numStates, WorkloadModularizationManager.DEFAULT_PARALLELISM);
+		}
+	}
+
+	private static void measure(String name, int numStates, int parallelism) throws IOException {
+		Path dir = Files.createTempDirectory("modularization-benchmark");
+
+		try {
+			BehaviorModelPack pack = WorkloadModularizationManagerTest.createPack(dir.resolve("pack"), NUM_USER_GROUPS, numStates, NUM_SESSIONS);
+			WorkloadModularizationManagerTest.SessionLogsStandIn standIn = new WorkloadModularizationManagerTest.SessionLogsStandIn(NUM_SESSIONS, LATENCY_MILLIS);
+			WorkloadModularizationManager manager = new WorkloadModularizationManager(standIn.restTemplate(), dir.resolve("working"), parallelism);
+
+			long start = System.nanoTime();
+			manager.modularize(pack, Collections.singletonMap("service", "localhost"), WorkloadModularizationManagerTest.allStates());
+			long duration = (System.nanoTime() - start) / 1000000;
+
+			System.out.println(String.format("%s (%d threads): modularized %d x %d states in %d ms with %d requests (max. %d concurrent)", name, parallelism, NUM_USER_GROUPS, numStates, duration,
+					standIn.getNumRequests(), standIn.getMaxConcurrentRequests()));
+		} finally {
+			FileUtils.deleteDirectory(dir.toFile());
+		}
+	}
+
+}
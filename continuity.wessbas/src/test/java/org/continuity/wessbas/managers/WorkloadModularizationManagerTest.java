@@ -0,0 +1,337 @@
+package org.continuity.wessbas.managers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.continuity.api.entities.artifact.BehaviorModel.Behavior;
+import org.continuity.api.entities.artifact.BehaviorModel.MarkovState;
+import org.continuity.api.entities.artifact.ModularizedSessionLogs;
+import org.continuity.api.entities.artifact.ModularizedSessionLogsBatch;
+import org.continuity.api.entities.artifact.ProcessingTimeNormalDistributions;
+import org.continuity.api.entities.artifact.SessionLogsBatchInput;
+import org.continuity.api.entities.artifact.SessionsBundle;
+import org.continuity.api.entities.artifact.SessionsBundlePack;
+import org.continuity.api.entities.artifact.SimplifiedSession;
+import org.continuity.api.entities.deserialization.BehaviorModelSerializer;
+import org.continuity.wessbas.entities.BehaviorModelPack;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.spec.research.open.xtrace.api.core.Trace;
+import org.springframework.web.client.RestTemplate;
+
+import net.sf.markov4jmeter.testplangenerator.util.CSVHandler;
+
+/**
+ * Tests the parallel modularization of the {@link WorkloadModularizationManager} against a local
+ * stand-in for the session logs service.
+ */
+public class WorkloadModularizationManagerTest {
+
+	private static final int NUM_USER_GROUPS = 4;
+
+	private static final int NUM_STATES = 12;
+
+	private static final int NUM_SESSIONS = 5;
+
+	private static final Map<String, String> SERVICES = Collections.singletonMap("service", "localhost");
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private SessionLogsStandIn standIn;
+
+	@Before
+	public void setup() {
+		standIn = new SessionLogsStandIn(NUM_SESSIONS, 0);
+	}
+
+	@Test
+	public void testOneRequestPerUserGroup() throws IOException {
+		BehaviorModelPack pack = createPack(temp.newFolder().toPath(), NUM_USER_GROUPS, NUM_STATES, NUM_SESSIONS);
+
+		new WorkloadModularizationManager(standIn.restTemplate(), temp.newFolder().toPath(), 4).modularize(pack, SERVICES, allStates());
+
+		assertThat(standIn.getNumRequests()).isEqualTo(NUM_USER_GROUPS);
+		assertThat(standIn.getNumMarkovStates()).isEqualTo(NUM_USER_GROUPS * NUM_STATES);
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws IOException {
+		Path sequentialDir = temp.newFolder().toPath();
+		Path parallelDir = temp.newFolder().toPath();
+
+		new WorkloadModularizationManager(standIn.restTemplate(), temp.newFolder().toPath(), 1).modularize(createPack(sequentialDir, NUM_USER_GROUPS, NUM_STATES, NUM_SESSIONS), SERVICES,
+				allStates());
+		new WorkloadModularizationManager(standIn.restTemplate(), temp.newFolder().toPath(), 4).modularize(createPack(parallelDir, NUM_USER_GROUPS, NUM_STATES, NUM_SESSIONS), SERVICES,
+				allStates());
+
+		assertThat(read(parallelDir.resolve("sessions.dat"))).isEqualTo(read(sequentialDir.resolve("sessions.dat")));
+
+		for (int group = 0; group < NUM_USER_GROUPS; group++) {
+			Path behaviorModel = behaviorModelPath(group);
+			assertThat(read(parallelDir.resolve(behaviorModel))).isEqualTo(read(sequentialDir.resolve(behaviorModel)));
+		}
+	}
+
+	@Test
+	public void testModularizedRequestsAreAppended() throws IOException {
+		Path dir = temp.newFolder().toPath();
+
+		new WorkloadModularizationManager(standIn.restTemplate(), temp.newFolder().toPath(), 4).modularize(createPack(dir, NUM_USER_GROUPS, NUM_STATES, NUM_SESSIONS), SERVICES, allStates());
+
+		String[] sessions = read(dir.resolve("sessions.dat")).split("\n");
+
+		assertThat(sessions).hasSize(NUM_USER_GROUPS * NUM_SESSIONS);
+		assertThat(sessions).allMatch(session -> session.contains("\"" + stateName(groupOf(session), 0) + WorkloadModularizationManager.STATE_NAME_LIMITER + "sub0\""));
+		assertThat(sessions).noneMatch(session -> session.contains("\"" + stateName(groupOf(session), 1) + WorkloadModularizationManager.STATE_NAME_LIMITER));
+	}
+
+	@Test
+	public void testEmptySubSessionLogsRemoveStates() throws IOException {
+		Path dir = temp.newFolder().toPath();
+
+		new WorkloadModularizationManager(standIn.restTemplate(), temp.newFolder().toPath(), 4).modularize(createPack(dir, 1, NUM_STATES, NUM_SESSIONS), SERVICES, allStates());
+
+		Behavior behavior = BehaviorModelSerializer.deserializeBehaviorModel(new CSVHandler(CSVHandler.LINEBREAK_TYPE_UNIX).readValues(dir.resolve(behaviorModelPath(0)).toString()));
+
+		assertThat(behavior.getMarkovState(stateName(0, 1))).isNull();
+		assertThat(behavior.getMarkovState(stateName(0, 2))).isNull();
+		assertThat(behavior.getMarkovState(WorkloadModularizationManager.INITIAL_STATE_NAME)).isNotNull();
+	}
+
+	@Test
+	public void testSessionLogsIndex() {
+		SessionLogsIndex index = SessionLogsIndex.parse("a;\"x\":1:2\nb;\"y\":3:4\na;\"z\":5:6\n");
+
+		assertThat(index.append("a;\"u\":7:8")).isTrue();
+		assertThat(index.append("c;\"v\":9:10")).isFalse();
+
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.toString()).isEqualTo("a;\"x\":1:2;\"u\":7:8\nb;\"y\":3:4\na;\"z\":5:6");
+	}
+
+	/**
+	 * Modularizes all states of each user group except for the initial and exit states.
+	 */
+	static BiFunction<SessionsBundle, Set<String>, Map<String, List<Trace>>> allStates() {
+		return (bundle, stateNames) -> {
+			Map<String, List<Trace>> requests = new HashMap<>();
+
+			for (String state : stateNames) {
+				if (!WorkloadModularizationManager.INITIAL_STATE_NAME.equals(state) && !WorkloadModularizationManager.EXIT_STATE_NAME.equals(state)) {
+					requests.put(state, Collections.emptyList());
+				}
+			}
+
+			return requests;
+		};
+	}
+
+	/**
+	 * Creates behavior models with a chain of Markov states per user group and the corresponding
+	 * session logs.
+	 */
+	static BehaviorModelPack createPack(Path dir, int numUserGroups, int numStates, int numSessions) throws IOException {
+		Files.createDirectories(dir.resolve("behaviormodelextractor"));
+		CSVHandler csvHandler = new CSVHandler(CSVHandler.LINEBREAK_TYPE_UNIX);
+		List<SessionsBundle> bundles = new ArrayList<>();
+		StringBuilder sessionLogs = new StringBuilder();
+
+		for (int group = 0; group < numUserGroups; group++) {
+			csvHandler.writeValues(dir.resolve(behaviorModelPath(group)).toString(), BehaviorModelSerializer.serializeBehaviorModel(createBehavior(group, numStates)));
+
+			List<SimplifiedSession> sessions = new ArrayList<>();
+
+			for (int session = 0; session < numSessions; session++) {
+				String id = sessionId(group, session);
+				long start = 1000000000L * session;
+				sessions.add(new SimplifiedSession(id, start, start + 1000000L));
+
+				sessionLogs.append(id);
+
+				for (int state = 0; state < numStates; state++) {
+					sessionLogs.append(";").append(request(stateName(group, state), start + (state * 1000000L)));
+				}
+
+				sessionLogs.append("\n");
+			}
+
+			bundles.add(new SessionsBundle(group, sessions));
+		}
+
+		Files.write(dir.resolve("sessions.dat"), sessionLogs.toString().getBytes(StandardCharsets.UTF_8));
+
+		return new BehaviorModelPack(new SessionsBundlePack(new Date(), bundles), dir);
+	}
+
+	private static Behavior createBehavior(int group, int numStates) {
+		List<MarkovState> states = new ArrayList<>();
+
+		MarkovState initial = new MarkovState();
+		initial.setId(WorkloadModularizationManager.INITIAL_STATE_NAME);
+		initial.addTransition(stateName(group, 0), 1, 0, 0);
+		states.add(initial);
+
+		for (int i = 0; i < numStates; i++) {
+			MarkovState state = new MarkovState();
+			state.setId(stateName(group, i));
+
+			if (i < (numStates - 1)) {
+				state.addTransition(stateName(group, i + 1), 0.7, 100, 10);
+				state.addTransition(WorkloadModularizationManager.EXIT_STATE_NAME, 0.3, 50, 5);
+			} else {
+				state.addTransition(WorkloadModularizationManager.EXIT_STATE_NAME, 1, 50, 5);
+			}
+
+			states.add(state);
+		}
+
+		MarkovState exit = new MarkovState();
+		exit.setId(WorkloadModularizationManager.EXIT_STATE_NAME);
+		exit.setTransitions(new ArrayList<>());
+		states.add(exit);
+
+		Behavior behavior = new Behavior();
+		behavior.setName("behavior_model" + group);
+		behavior.setInitialState(WorkloadModularizationManager.INITIAL_STATE_NAME);
+		behavior.setMarkovStates(states);
+		return behavior;
+	}
+
+	static String stateName(int group, int state) {
+		return "g" + group + "_state" + state;
+	}
+
+	private static String sessionId(int group, int session) {
+		return "g" + group + "s" + session;
+	}
+
+	private static int groupOf(String sessionLog) {
+		return Integer.parseInt(sessionLog.substring(1, sessionLog.indexOf('s')));
+	}
+
+	private static String request(String useCase, long start) {
+		return "\"" + useCase + "\":" + start + ":" + (start + 500000L) + ":/" + useCase + ":8080:localhost:HTTP/1.1:GET:<no-query-string>:<no-encoding>";
+	}
+
+	private static String read(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+	}
+
+	private static Path behaviorModelPath(int group) {
+		return Paths.get("behaviormodelextractor", "behaviormodel" + group + ".csv");
+	}
+
+	/**
+	 * Stand-in for the session logs service. Returns sub session logs with two requests per
+	 * session for every third Markov state and empty session logs for the other states, which
+	 * are thus removed from the behavior model.
+	 */
+	static class SessionLogsStandIn {
+
+		private final long latencyMillis;
+
+		private final AtomicInteger numRequests = new AtomicInteger();
+
+		private final AtomicInteger numMarkovStates = new AtomicInteger();
+
+		private final AtomicInteger concurrentRequests = new AtomicInteger();
+
+		private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+		private final int numSessions;
+
+		SessionLogsStandIn(int numSessions, long latencyMillis) {
+			this.numSessions = numSessions;
+			this.latencyMillis = latencyMillis;
+		}
+
+		RestTemplate restTemplate() {
+			RestTemplate restMock = Mockito.mock(RestTemplate.class);
+			Mockito.when(restMock.postForObject(Mockito.anyString(), Mockito.any(SessionLogsBatchInput.class), Mockito.eq(ModularizedSessionLogsBatch.class)))
+					.thenAnswer(invocation -> handle(invocation.getArgument(1)));
+			return restMock;
+		}
+
+		private ModularizedSessionLogsBatch handle(SessionLogsBatchInput input) throws InterruptedException {
+			numRequests.incrementAndGet();
+			numMarkovStates.addAndGet(input.getSerializedTraces().size());
+
+			maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+
+			try {
+				Thread.sleep(latencyMillis);
+			} finally {
+				concurrentRequests.decrementAndGet();
+			}
+
+			ModularizedSessionLogsBatch batch = new ModularizedSessionLogsBatch();
+
+			for (String state : input.getSerializedTraces().keySet()) {
+				batch.getSessionLogs().put(state, createSessionLogs(state));
+			}
+
+			return batch;
+		}
+
+		private ModularizedSessionLogs createSessionLogs(String state) {
+			Map<String, ProcessingTimeNormalDistributions> distributions = new HashMap<>();
+			distributions.put("root", new ProcessingTimeNormalDistributions(Arrays.asList(1.0, 2.0), Arrays.asList(3.0, 4.0)));
+			distributions.put("sub0", new ProcessingTimeNormalDistributions(Arrays.asList(1.0, 2.0), Arrays.asList(3.0, 4.0)));
+			distributions.put("sub1", new ProcessingTimeNormalDistributions(Arrays.asList(1.0, 2.0), Arrays.asList(3.0, 4.0)));
+
+			ModularizedSessionLogs sessionLogs = new ModularizedSessionLogs(distributions);
+			sessionLogs.setDataTimestamp(new Date(0));
+
+			int group = Integer.parseInt(state.substring(1, state.indexOf('_')));
+			int index = Integer.parseInt(state.substring(state.indexOf("_state") + "_state".length()));
+
+			if ((index % 3) != 0) {
+				sessionLogs.setLogs("");
+				return sessionLogs;
+			}
+
+			List<String> lines = new ArrayList<>();
+
+			for (int session = 0; session < numSessions; session++) {
+				long start = (1000000000L * session) + (index * 1000000L);
+				lines.add(sessionId(group, session) + ";" + request("sub0", start + 100000L) + ";" + request("sub1", start + 300000L));
+			}
+
+			sessionLogs.setLogs(String.join("\n", lines));
+			return sessionLogs;
+		}
+
+		int getNumRequests() {
+			return numRequests.get();
+		}
+
+		int getNumMarkovStates() {
+			return numMarkovStates.get();
+		}
+
+		int getMaxConcurrentRequests() {
+			return maxConcurrentRequests.get();
+		}
+
+	}
+
+}